@@ -20,6 +20,8 @@
 package org.neo4j.bolt.dbapi;
 
 import org.neo4j.kernel.impl.query.QueryExecution;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.memory.MemoryTracker;
 
 /**
  * A representation of a query execution result.
@@ -38,4 +40,12 @@ public interface BoltQueryExecution
      * This is used to terminate a currently running query. Can be called from any thread.
      */
     void terminate();
+
+    /**
+     * @return tracker of the memory used by the transaction executing the query.
+     */
+    default MemoryTracker memoryTracker()
+    {
+        return EmptyMemoryTracker.INSTANCE;
+    }
 }
@@ -28,6 +28,7 @@ import org.neo4j.kernel.impl.query.QueryExecutionKernelException;
 import org.neo4j.kernel.impl.query.QuerySubscriber;
 import org.neo4j.kernel.impl.query.TransactionalContext;
 import org.neo4j.kernel.impl.query.TransactionalContextFactory;
+import org.neo4j.memory.MemoryTracker;
 import org.neo4j.values.virtual.MapValue;
 
 public class BoltQueryExecutorImpl implements BoltQueryExecutor
@@ -81,5 +82,11 @@ public class BoltQueryExecutorImpl implements BoltQueryExecutor
         {
             transactionalContext.terminate();
         }
+
+        @Override
+        public MemoryTracker memoryTracker()
+        {
+            return transactionalContext.kernelTransaction().memoryTracker();
+        }
     }
 }
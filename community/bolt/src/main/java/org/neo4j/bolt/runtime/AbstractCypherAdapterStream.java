@@ -29,6 +29,8 @@ import org.neo4j.graphdb.Notification;
 import org.neo4j.graphdb.QueryExecutionType;
 import org.neo4j.graphdb.QueryStatistics;
 import org.neo4j.kernel.impl.query.QueryExecution;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.memory.MemoryTracker;
 import org.neo4j.util.Preconditions;
 import org.neo4j.values.AnyValue;
 import org.neo4j.values.storable.TextValue;
@@ -59,21 +61,42 @@ public abstract class AbstractCypherAdapterStream implements BoltResult
     private final String[] fieldNames;
     protected final Clock clock;
     private final BoltAdapterSubscriber querySubscriber;
+    private final int maxPrefetchedRecords;
+    private final PrefetchedRecords prefetchedRecords;
+
+    // Size of the last request that the next one is expected to look like, or 0 if we shouldn't prefetch
+    private long prefetchSize;
+    private long prefetchTime;
+    private boolean prefetchedAllRecords;
+    private Throwable prefetchFailure;
 
     private static final Long STREAM_UNLIMITED_BATCH_SIZE = Long.MAX_VALUE;
 
     public AbstractCypherAdapterStream( QueryExecution queryExecution,
             BoltAdapterSubscriber querySubscriber, Clock clock )
+    {
+        this( queryExecution, querySubscriber, clock, EmptyMemoryTracker.INSTANCE, 0 );
+    }
+
+    /**
+     * @param memoryTracker tracker of the transaction executing the query, prefetched records are accounted for in it.
+     * @param maxPrefetchedRecords maximum number of records to fetch ahead of a request for them, 0 to not prefetch.
+     */
+    public AbstractCypherAdapterStream( QueryExecution queryExecution,
+            BoltAdapterSubscriber querySubscriber, Clock clock, MemoryTracker memoryTracker, int maxPrefetchedRecords )
     {
         this.queryExecution = queryExecution;
         this.fieldNames = queryExecution.fieldNames();
         this.querySubscriber = querySubscriber;
         this.clock = clock;
+        this.maxPrefetchedRecords = maxPrefetchedRecords;
+        this.prefetchedRecords = new PrefetchedRecords( memoryTracker );
     }
 
     @Override
     public void close()
     {
+        prefetchedRecords.clear();
         queryExecution.cancel();
     }
 
@@ -86,26 +109,36 @@ public abstract class AbstractCypherAdapterStream implements BoltResult
     @Override
     public boolean handleRecords( RecordConsumer recordConsumer, long size ) throws Throwable
     {
-        long start = clock.millis();
+        // time spent prefetching records counts as streaming time of the request they are handed over to
+        long start = clock.millis() - prefetchTime;
+        prefetchTime = 0;
+        long handedOver = handOverPrefetchedRecords( recordConsumer, size );
         this.querySubscriber.setRecordConsumer( recordConsumer );
 
-        boolean hasMore = true;
-        if ( size == STREAM_LIMIT_UNLIMITED )
+        boolean hasMore = !prefetchedRecords.isEmpty() || !prefetchedAllRecords;
+        if ( prefetchedRecords.isEmpty() && !prefetchedAllRecords )
         {
-            while ( hasMore )
+            if ( size == STREAM_LIMIT_UNLIMITED )
+            {
+                while ( hasMore )
+                {
+                    // Continuously pull until the whole stream is done
+                    queryExecution.request( STREAM_UNLIMITED_BATCH_SIZE );
+                    hasMore = queryExecution.await();
+                }
+            }
+            else if ( handedOver < size )
             {
-                // Continuously pull until the whole stream is done
-                queryExecution.request( STREAM_UNLIMITED_BATCH_SIZE );
+                queryExecution.request( size - handedOver );
                 hasMore = queryExecution.await();
             }
         }
-        else
-        {
-            queryExecution.request( size );
-            hasMore = queryExecution.await();
-        }
 
         querySubscriber.assertSucceeded();
+        if ( hasMore && size != STREAM_LIMIT_UNLIMITED && prefetchedRecords.isEmpty() )
+        {
+            prefetchSize = Math.min( size, maxPrefetchedRecords );
+        }
         if ( !hasMore )
         {
             addRecordStreamingTime( clock.millis() - start, recordConsumer );
@@ -120,6 +153,7 @@ public abstract class AbstractCypherAdapterStream implements BoltResult
     {
         Preconditions.checkArgument( size == STREAM_LIMIT_UNLIMITED,
                                      "Currently it is only supported to discard ALL records, but it was requested to discard " + size );
+        prefetchedRecords.clear();
 
         if ( queryExecution.executionType().queryType() == QueryExecutionType.QueryType.READ_ONLY )
         {
@@ -139,6 +173,59 @@ public abstract class AbstractCypherAdapterStream implements BoltResult
         }
     }
 
+    /**
+     * Pull the next batch, of the same size as the last one but at most {@code maxPrefetchedRecords} records, into memory.
+     * At most one batch is prefetched per request, so a client that doesn't come back for more holds on to a bounded number of records.
+     */
+    @Override
+    public void prefetchRecords( boolean allowWrites )
+    {
+        if ( prefetchSize == 0 || !allowWrites && queryExecution.executionType().queryType() != QueryExecutionType.QueryType.READ_ONLY )
+        {
+            return;
+        }
+        long start = clock.millis();
+        querySubscriber.setRecordConsumer( prefetchedRecords );
+        try
+        {
+            queryExecution.request( prefetchSize );
+            prefetchedAllRecords = !queryExecution.await();
+            querySubscriber.assertSucceeded();
+        }
+        catch ( Throwable t )
+        {
+            prefetchFailure = t;
+        }
+        finally
+        {
+            prefetchSize = 0;
+            prefetchTime = clock.millis() - start;
+        }
+    }
+
+    private long handOverPrefetchedRecords( RecordConsumer recordConsumer, long size ) throws Throwable
+    {
+        prefetchSize = 0;
+        long handedOver = prefetchedRecords.handOver( recordConsumer, size == STREAM_LIMIT_UNLIMITED ? Long.MAX_VALUE : size );
+        if ( prefetchFailure != null )
+        {
+            Throwable failure = prefetchFailure;
+            prefetchFailure = null;
+            prefetchedRecords.clear();
+            throw failure;
+        }
+        return handedOver;
+    }
+
+    @Override
+    public void assertPrefetchSucceeded() throws Throwable
+    {
+        if ( prefetchFailure != null )
+        {
+            throw prefetchFailure;
+        }
+    }
+
     protected abstract void addDatabaseName( RecordConsumer recordConsumer );
 
     protected abstract void addRecordStreamingTime( long time, RecordConsumer recordConsumer );
@@ -43,6 +43,24 @@ public interface BoltResult extends AutoCloseable
      */
     boolean discardRecords( DiscardingRecordConsumer recordConsumer, long size ) throws Throwable;
 
+    /**
+     * Get records ready ahead of the next call to {@link #handleRecords(RecordConsumer, long)}, while the client is still reading the
+     * records it was last sent. Failures are not thrown here, but reported by the next call to {@link #handleRecords(RecordConsumer, long)},
+     * and by {@link #assertPrefetchSucceeded()} until then.
+     *
+     * @param allowWrites whether to prefetch records of a query that writes. Doing so runs its writes before those of any statement started after it.
+     */
+    default void prefetchRecords( boolean allowWrites )
+    {
+    }
+
+    /**
+     * Throws the failure of prefetching records, if it has not been reported by {@link #handleRecords(RecordConsumer, long)} yet.
+     */
+    default void assertPrefetchSucceeded() throws Throwable
+    {
+    }
+
     @Override
     void close();
 
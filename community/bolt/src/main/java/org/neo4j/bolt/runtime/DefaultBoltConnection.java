@@ -186,6 +186,7 @@ public class DefaultBoltConnection implements BoltConnection
 
     private boolean processNextBatchInternal( int batchCount, boolean exitIfNoJobsAvailable )
     {
+        boolean pinned = false;
         try
         {
             boolean waitForMessage = false;
@@ -241,12 +242,22 @@ public class DefaultBoltConnection implements BoltConnection
                     // or an open transaction)?
                     loop = machine.shouldStickOnThread();
                     waitForMessage = loop;
+                    if ( loop && !pinned )
+                    {
+                        pinned = true;
+                        listener.pinned( this );
+                    }
                 }
 
                 // we processed all pending messages, let's flush underlying channel
                 if ( queue.isEmpty() )
                 {
                     messageWriter.flush();
+                    if ( !willClose() && queue.isEmpty() && machine.hasOpenStatement() )
+                    {
+                        // while the client reads what we just sent, and has not sent anything else, get the next records of the open result ready
+                        machine.prefetchResults();
+                    }
                 }
             }
             while ( loop );
@@ -279,6 +290,10 @@ public class DefaultBoltConnection implements BoltConnection
         }
         finally
         {
+            if ( pinned )
+            {
+                listener.unpinned( this );
+            }
             if ( willClose() )
             {
                 close();
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.runtime;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.values.AnyValue;
+
+import static org.neo4j.memory.HeapEstimator.shallowSizeOfObjectArray;
+
+/**
+ * Records of a result that have been pulled from the query before the client asked for them.
+ * <p>
+ * Each buffered record is accounted for in the memory tracker of the transaction that executes the query, until it has been
+ * handed over to the client or the buffer is cleared. A record that is interrupted by an error is dropped. Metadata is handed over
+ * after the last buffered record.
+ */
+class PrefetchedRecords implements BoltResult.RecordConsumer
+{
+    private final MemoryTracker memoryTracker;
+    private final ArrayDeque<AnyValue[]> records = new ArrayDeque<>();
+    private final Map<String,AnyValue> metadata = new LinkedHashMap<>();
+    private AnyValue[] currentRecord;
+    private int currentField;
+
+    PrefetchedRecords( MemoryTracker memoryTracker )
+    {
+        this.memoryTracker = memoryTracker;
+    }
+
+    @Override
+    public void beginRecord( int numberOfFields )
+    {
+        currentRecord = new AnyValue[numberOfFields];
+        currentField = 0;
+    }
+
+    @Override
+    public void consumeField( AnyValue value )
+    {
+        currentRecord[currentField++] = value;
+    }
+
+    @Override
+    public void endRecord()
+    {
+        memoryTracker.allocateHeap( heapUsage( currentRecord ) );
+        records.addLast( currentRecord );
+        currentRecord = null;
+    }
+
+    @Override
+    public void onError()
+    {
+        currentRecord = null;
+    }
+
+    @Override
+    public void addMetadata( String key, AnyValue value )
+    {
+        metadata.put( key, value );
+    }
+
+    boolean isEmpty()
+    {
+        return records.isEmpty() && metadata.isEmpty();
+    }
+
+    /**
+     * Hand over buffered records, oldest first, followed by the buffered metadata once all records have been handed over.
+     *
+     * @return the number of records given to the consumer.
+     */
+    long handOver( BoltResult.RecordConsumer consumer, long maxRecords ) throws IOException
+    {
+        long handedOver = 0;
+        while ( handedOver < maxRecords && !records.isEmpty() )
+        {
+            AnyValue[] record = records.pollFirst();
+            memoryTracker.releaseHeap( heapUsage( record ) );
+            consumer.beginRecord( record.length );
+            for ( AnyValue value : record )
+            {
+                consumer.consumeField( value );
+            }
+            consumer.endRecord();
+            handedOver++;
+        }
+        if ( records.isEmpty() )
+        {
+            metadata.forEach( consumer::addMetadata );
+            metadata.clear();
+        }
+        return handedOver;
+    }
+
+    void clear()
+    {
+        AnyValue[] record;
+        while ( (record = records.pollFirst()) != null )
+        {
+            memoryTracker.releaseHeap( heapUsage( record ) );
+        }
+        metadata.clear();
+        currentRecord = null;
+    }
+
+    private static long heapUsage( AnyValue[] record )
+    {
+        long heapUsage = shallowSizeOfObjectArray( record.length );
+        for ( AnyValue value : record )
+        {
+            heapUsage += value.estimatedHeapUsage();
+        }
+        return heapUsage;
+    }
+}
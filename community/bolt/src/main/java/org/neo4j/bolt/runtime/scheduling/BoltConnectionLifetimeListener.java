@@ -28,4 +28,14 @@ public interface BoltConnectionLifetimeListener
 
     void closed( BoltConnection connection );
 
+    /**
+     * The connection keeps the thread it runs on, until {@link #unpinned(BoltConnection)}, because it has an open transaction or statement.
+     */
+    default void pinned( BoltConnection connection )
+    {
+    }
+
+    default void unpinned( BoltConnection connection )
+    {
+    }
 }
@@ -28,6 +28,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.neo4j.bolt.runtime.BoltConnection;
 import org.neo4j.bolt.runtime.Job;
@@ -50,6 +51,7 @@ public class ExecutorBoltScheduler extends LifecycleAdapter implements BoltSched
     private final Log log;
     private final ConcurrentHashMap<String,BoltConnection> activeConnections = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String,CompletableFuture<Boolean>> activeWorkItems = new ConcurrentHashMap<>();
+    private final AtomicInteger pinnedConnections = new AtomicInteger();
     private final int corePoolSize;
     private final int maxPoolSize;
     private final Duration keepAlive;
@@ -198,6 +200,18 @@ public class ExecutorBoltScheduler extends LifecycleAdapter implements BoltSched
         }
     }
 
+    @Override
+    public void pinned( BoltConnection connection )
+    {
+        pinnedConnections.incrementAndGet();
+    }
+
+    @Override
+    public void unpinned( BoltConnection connection )
+    {
+        pinnedConnections.decrementAndGet();
+    }
+
     @Override
     public void enqueued( BoltConnection to, Job job )
     {
@@ -226,6 +240,11 @@ public class ExecutorBoltScheduler extends LifecycleAdapter implements BoltSched
     {
         try
         {
+            if ( pinnedConnections.get() >= maxPoolSize )
+            {
+                // A queued job would wait until one of the open transactions is closed, which is up to their clients
+                throw new RejectedExecutionException( "All threads are kept by connections with an open transaction or statement." );
+            }
             return supplyAsync( () -> executeBatch( connection ), threadPool );
         }
         catch ( RejectedExecutionException ex )
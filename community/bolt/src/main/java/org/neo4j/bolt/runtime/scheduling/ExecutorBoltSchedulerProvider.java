@@ -63,12 +63,27 @@ public class ExecutorBoltSchedulerProvider extends LifecycleAdapter implements B
         {
             checkState( forkJoinThreadPool == null, "ForkJoinPool already initialized, this should only be done once." );
             forkJoinThreadPool = new ForkJoinPool();
-            this.boltScheduler =
-                    new ExecutorBoltScheduler( BoltConnector.NAME, executorFactory, scheduler, logService, config.get( BoltConnector.thread_pool_min_size ),
-                            config.get( BoltConnector.thread_pool_max_size ), config.get( BoltConnector.thread_pool_keep_alive ),
-                            config.get( BoltConnectorInternalSettings.unsupported_thread_pool_queue_size ), forkJoinThreadPool,
-                            config.get( BoltConnector.thread_pool_shutdown_wait_time ),
-                            config.get( BoltConnectorInternalSettings.connection_keep_alive_scheduling_interval ) );
+            int carrierThreads = config.get( BoltConnectorInternalSettings.unsupported_carrier_thread_pool_size );
+            if ( carrierThreads > 0 )
+            {
+                // A small fixed pool that queues jobs instead of rejecting them. Connections keep their thread for as long as they have
+                // an open transaction or statement, and give it back in between. Jobs are only rejected when every thread is kept like that.
+                // Inbound messages of busy connections are throttled by their BoltConnectionReadLimiter.
+                this.boltScheduler =
+                        new ExecutorBoltScheduler( BoltConnector.NAME, executorFactory, scheduler, logService, carrierThreads, carrierThreads,
+                                config.get( BoltConnector.thread_pool_keep_alive ), CachedThreadPoolExecutorFactory.UNBOUNDED_QUEUE, forkJoinThreadPool,
+                                config.get( BoltConnector.thread_pool_shutdown_wait_time ),
+                                config.get( BoltConnectorInternalSettings.connection_keep_alive_scheduling_interval ) );
+            }
+            else
+            {
+                this.boltScheduler =
+                        new ExecutorBoltScheduler( BoltConnector.NAME, executorFactory, scheduler, logService, config.get( BoltConnector.thread_pool_min_size ),
+                                config.get( BoltConnector.thread_pool_max_size ), config.get( BoltConnector.thread_pool_keep_alive ),
+                                config.get( BoltConnectorInternalSettings.unsupported_thread_pool_queue_size ), forkJoinThreadPool,
+                                config.get( BoltConnector.thread_pool_shutdown_wait_time ),
+                                config.get( BoltConnectorInternalSettings.connection_keep_alive_scheduling_interval ) );
+            }
             this.boltScheduler.init();
         }
     }
@@ -33,6 +33,8 @@ public interface BoltStateMachine extends AutoCloseable
 
     void validateTransaction() throws KernelException;
 
+    void prefetchResults();
+
     boolean hasOpenStatement();
 
     void interrupt();
@@ -42,6 +42,13 @@ public interface StatementProcessor
 
     Bookmark streamResult( int statementId, ResultConsumer resultConsumer ) throws Throwable;
 
+    void prefetchResults();
+
+    /**
+     * Throws a failure of prefetching records of an open statement that has not been reported to the client yet.
+     */
+    void assertPrefetchSucceeded() throws Throwable;
+
     Bookmark commitTransaction() throws KernelException;
 
     void rollbackTransaction() throws KernelException;
@@ -85,6 +92,16 @@ public interface StatementProcessor
             throw new UnsupportedOperationException( "Unable to stream results" );
         }
 
+        @Override
+        public void prefetchResults()
+        {
+        }
+
+        @Override
+        public void assertPrefetchSucceeded()
+        {
+        }
+
         @Override
         public Bookmark commitTransaction()
         {
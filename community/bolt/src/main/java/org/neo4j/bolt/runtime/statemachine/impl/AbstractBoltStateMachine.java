@@ -192,6 +192,18 @@ public abstract class AbstractBoltStateMachine implements BoltStateMachine
         }
     }
 
+    /**
+     * Let open results fetch their next records while we wait for the client to ask for them.
+     */
+    @Override
+    public void prefetchResults()
+    {
+        if ( connectionState.canProcessMessage() && !connectionState.isInterrupted() )
+        {
+            statementProcessor().prefetchResults();
+        }
+    }
+
     @Override
     public void handleExternalFailure( Neo4jError error, BoltResponseHandler handler ) throws BoltConnectionFatality
     {
@@ -270,6 +282,15 @@ public abstract class AbstractBoltStateMachine implements BoltStateMachine
     {
         try
         {
+            try
+            {
+                statementProcessor().assertPrefetchSucceeded();
+            }
+            catch ( Throwable prefetchFailure )
+            {
+                // the client will never see this failure, since the statement it happened in is thrown away before being pulled from again
+                spi.reportError( Neo4jError.from( prefetchFailure ) );
+            }
             resetStatementProcessor();
             return true;
         }
@@ -41,6 +41,7 @@ import org.neo4j.exceptions.KernelException;
 import org.neo4j.internal.kernel.api.security.LoginContext;
 import org.neo4j.kernel.impl.query.QueryExecution;
 import org.neo4j.kernel.impl.query.QueryExecutionKernelException;
+import org.neo4j.memory.MemoryTracker;
 import org.neo4j.time.SystemNanoClock;
 import org.neo4j.values.virtual.MapValue;
 
@@ -152,6 +153,14 @@ public abstract class AbstractTransactionStateMachineSPI implements TransactionS
         protected abstract BoltResult newBoltResult( QueryExecution result,
                 BoltAdapterSubscriber subscriber, Clock clock );
 
+        /**
+         * @return tracker of the memory used by the transaction executing the query, only available once the query has been started.
+         */
+        protected MemoryTracker queryMemoryTracker()
+        {
+            return boltQueryExecution.memoryTracker();
+        }
+
         @Override
         public void close( boolean success )
         {
@@ -37,6 +37,7 @@ import org.neo4j.bolt.v42.BoltProtocolV42;
 import org.neo4j.bolt.v42.BoltStateMachineV42;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.configuration.connectors.BoltConnectorInternalSettings;
 import org.neo4j.logging.internal.LogService;
 import org.neo4j.time.SystemNanoClock;
 
@@ -47,6 +48,7 @@ public class BoltStateMachineFactoryImpl implements BoltStateMachineFactory
     private final Authentication authentication;
     private final SystemNanoClock clock;
     private final String defaultDatabaseName;
+    private final int resultPrefetchSize;
 
     public BoltStateMachineFactoryImpl( BoltGraphDatabaseManagementServiceSPI boltGraphDatabaseManagementServiceSPI, Authentication authentication,
             SystemNanoClock clock, Config config, LogService logging )
@@ -56,6 +58,7 @@ public class BoltStateMachineFactoryImpl implements BoltStateMachineFactory
         this.authentication = authentication;
         this.clock = clock;
         this.defaultDatabaseName = config.get( GraphDatabaseSettings.default_database );
+        this.resultPrefetchSize = config.get( BoltConnectorInternalSettings.unsupported_result_prefetch_size );
     }
 
     @Override
@@ -92,21 +95,24 @@ public class BoltStateMachineFactoryImpl implements BoltStateMachineFactory
 
     private BoltStateMachine newStateMachineV4( BoltChannel boltChannel )
     {
-        var transactionSpiProvider = new TransactionStateMachineSPIProviderV4( boltGraphDatabaseManagementServiceSPI, defaultDatabaseName, boltChannel, clock );
+        var transactionSpiProvider = new TransactionStateMachineSPIProviderV4( boltGraphDatabaseManagementServiceSPI, defaultDatabaseName, boltChannel, clock,
+                resultPrefetchSize );
         var boltSPI = new BoltStateMachineSPIImpl( logging, authentication, transactionSpiProvider );
         return new BoltStateMachineV4( boltSPI, boltChannel, clock );
     }
 
     private BoltStateMachine newStateMachineV41( BoltChannel boltChannel )
     {
-        var transactionSpiProvider = new TransactionStateMachineSPIProviderV4( boltGraphDatabaseManagementServiceSPI, defaultDatabaseName, boltChannel, clock );
+        var transactionSpiProvider = new TransactionStateMachineSPIProviderV4( boltGraphDatabaseManagementServiceSPI, defaultDatabaseName, boltChannel, clock,
+                resultPrefetchSize );
         var boltSPI = new BoltStateMachineSPIImpl( logging, authentication, transactionSpiProvider );
         return new BoltStateMachineV41( boltSPI, boltChannel, clock );
     }
 
     private BoltStateMachine newStateMachineV42( BoltChannel boltChannel )
     {
-        var transactionSpiProvider = new TransactionStateMachineSPIProviderV4( boltGraphDatabaseManagementServiceSPI, defaultDatabaseName, boltChannel, clock );
+        var transactionSpiProvider = new TransactionStateMachineSPIProviderV4( boltGraphDatabaseManagementServiceSPI, defaultDatabaseName, boltChannel, clock,
+                resultPrefetchSize );
         var boltSPI = new BoltStateMachineSPIImpl( logging, authentication, transactionSpiProvider );
         return new BoltStateMachineV42( boltSPI, boltChannel, clock );
     }
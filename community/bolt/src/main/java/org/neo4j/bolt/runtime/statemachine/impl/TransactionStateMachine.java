@@ -94,6 +94,18 @@ public class TransactionStateMachine implements StatementProcessor
         return state.streamResult( ctx, spi, statementId, resultConsumer );
     }
 
+    @Override
+    public void prefetchResults()
+    {
+        state.prefetchResults( ctx );
+    }
+
+    @Override
+    public void assertPrefetchSucceeded() throws Throwable
+    {
+        State.assertPrefetchSucceeded( ctx );
+    }
+
     @Override
     public Bookmark commitTransaction() throws KernelException
     {
@@ -282,6 +294,13 @@ public class TransactionStateMachine implements StatementProcessor
                         return EMPTY_BOOKMARK;
                     }
 
+                    @Override
+                    void prefetchResults( MutableTransactionState ctx )
+                    {
+                        // nothing else runs in the transaction of the query
+                        prefetchResult( ctx, StatementMetadata.ABSENT_QUERY_ID, true );
+                    }
+
                     @Override
                     State commitTransaction( MutableTransactionState ctx, TransactionStateMachineSPI spi ) throws KernelException
                     {
@@ -356,9 +375,29 @@ public class TransactionStateMachine implements StatementProcessor
                         return EMPTY_BOOKMARK; // Explicit tx shall not get a bookmark in PULL_ALL or DISCARD_ALL
                     }
 
+                    @Override
+                    void prefetchResults( MutableTransactionState ctx )
+                    {
+                        // Records of earlier statements must not be pulled after later ones have started, and a query that writes must not
+                        // run ahead of the statements the client sends next, or statements would see each other's changes in another order
+                        prefetchResult( ctx, ctx.lastStatementId, false );
+                    }
+
                     @Override
                     State commitTransaction( MutableTransactionState ctx, TransactionStateMachineSPI spi ) throws KernelException
                     {
+                        try
+                        {
+                            assertPrefetchSucceeded( ctx );
+                        }
+                        catch ( Throwable prefetchFailure )
+                        {
+                            closeTransaction( ctx, spi, false );
+                            Status status = prefetchFailure instanceof Status.HasStatus ? ((Status.HasStatus) prefetchFailure).status()
+                                                                                        : Status.Transaction.TransactionCommitFailed;
+                            throw new TransactionFailureException( status, prefetchFailure,
+                                    "Transaction was rolled back since one of its queries failed: %s", prefetchFailure.getMessage() );
+                        }
                         closeTransaction( ctx, spi, true );
                         return AUTO_COMMIT;
                     }
@@ -381,10 +420,32 @@ public class TransactionStateMachine implements StatementProcessor
         abstract Bookmark streamResult( MutableTransactionState ctx, TransactionStateMachineSPI spi, int statementId, ResultConsumer resultConsumer )
                 throws Throwable;
 
+        abstract void prefetchResults( MutableTransactionState ctx );
+
         abstract State commitTransaction( MutableTransactionState ctx, TransactionStateMachineSPI spi ) throws KernelException;
 
         abstract State rollbackTransaction( MutableTransactionState ctx, TransactionStateMachineSPI spi ) throws KernelException;
 
+        static void prefetchResult( MutableTransactionState ctx, int statementId, boolean allowWrites )
+        {
+            StatementOutcome outcome = ctx.statementOutcomes.get( statementId );
+            if ( outcome != null && outcome.result != null )
+            {
+                outcome.result.prefetchRecords( allowWrites );
+            }
+        }
+
+        static void assertPrefetchSucceeded( MutableTransactionState ctx ) throws Throwable
+        {
+            for ( StatementOutcome outcome : ctx.statementOutcomes.values() )
+            {
+                if ( outcome.result != null )
+                {
+                    outcome.result.assertPrefetchSucceeded();
+                }
+            }
+        }
+
         void terminateQueryAndRollbackTransaction( TransactionStateMachineSPI spi, MutableTransactionState ctx ) throws TransactionFailureException
         {
             terminateActiveStatements( ctx );
@@ -24,6 +24,7 @@ import java.time.Clock;
 import org.neo4j.bolt.runtime.statemachine.impl.BoltAdapterSubscriber;
 import org.neo4j.bolt.runtime.AbstractCypherAdapterStream;
 import org.neo4j.kernel.impl.query.QueryExecution;
+import org.neo4j.memory.MemoryTracker;
 
 import static org.neo4j.values.storable.Values.longValue;
 
@@ -36,6 +37,12 @@ public class CypherAdapterStreamV3 extends AbstractCypherAdapterStream
         super( delegate, subscriber, clock );
     }
 
+    protected CypherAdapterStreamV3( QueryExecution delegate, BoltAdapterSubscriber subscriber, Clock clock, MemoryTracker memoryTracker,
+            int maxPrefetchedRecords )
+    {
+        super( delegate, subscriber, clock, memoryTracker, maxPrefetchedRecords );
+    }
+
     @Override
     protected void addDatabaseName( RecordConsumer recordConsumer )
     {
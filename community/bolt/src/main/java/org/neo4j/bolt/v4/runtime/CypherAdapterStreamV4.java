@@ -24,6 +24,7 @@ import java.time.Clock;
 import org.neo4j.bolt.runtime.statemachine.impl.BoltAdapterSubscriber;
 import org.neo4j.bolt.v3.runtime.CypherAdapterStreamV3;
 import org.neo4j.kernel.impl.query.QueryExecution;
+import org.neo4j.memory.MemoryTracker;
 
 import static org.neo4j.bolt.v4.messaging.MessageMetadataParser.DB_NAME_KEY;
 import static org.neo4j.values.storable.Values.utf8Value;
@@ -38,6 +39,13 @@ public class CypherAdapterStreamV4 extends CypherAdapterStreamV3
         this.databaseName = databaseName;
     }
 
+    public CypherAdapterStreamV4( QueryExecution delegate, BoltAdapterSubscriber subscriber, Clock clock, String databaseName,
+            MemoryTracker memoryTracker, int maxPrefetchedRecords )
+    {
+        super( delegate, subscriber, clock, memoryTracker, maxPrefetchedRecords );
+        this.databaseName = databaseName;
+    }
+
     @Override
     protected void addDatabaseName( RecordConsumer recordConsumer )
     {
@@ -33,12 +33,24 @@ import static org.neo4j.bolt.v4.messaging.MessageMetadataParser.ABSENT_DB_NAME;
 
 public class TransactionStateMachineSPIProviderV4 extends AbstractTransactionStatementSPIProvider
 {
+    private final int maxPrefetchedRecords;
+
     public TransactionStateMachineSPIProviderV4( BoltGraphDatabaseManagementServiceSPI boltGraphDatabaseManagementServiceSPI,
             String defaultDatabaseName,
             BoltChannel boltChannel,
             SystemNanoClock clock )
+    {
+        this( boltGraphDatabaseManagementServiceSPI, defaultDatabaseName, boltChannel, clock, 0 );
+    }
+
+    public TransactionStateMachineSPIProviderV4( BoltGraphDatabaseManagementServiceSPI boltGraphDatabaseManagementServiceSPI,
+            String defaultDatabaseName,
+            BoltChannel boltChannel,
+            SystemNanoClock clock,
+            int maxPrefetchedRecords )
     {
         super( boltGraphDatabaseManagementServiceSPI, defaultDatabaseName, boltChannel, clock );
+        this.maxPrefetchedRecords = maxPrefetchedRecords;
     }
 
     @Override
@@ -51,6 +63,6 @@ public class TransactionStateMachineSPIProviderV4 extends AbstractTransactionSta
     protected TransactionStateMachineSPI newTransactionStateMachineSPI( BoltGraphDatabaseServiceSPI activeBoltGraphDatabaseServiceSPI,
             StatementProcessorReleaseManager resourceReleaseManger )
     {
-        return new TransactionStateMachineV4SPI( activeBoltGraphDatabaseServiceSPI, boltChannel, clock, resourceReleaseManger );
+        return new TransactionStateMachineV4SPI( activeBoltGraphDatabaseServiceSPI, boltChannel, clock, resourceReleaseManger, maxPrefetchedRecords );
     }
 }
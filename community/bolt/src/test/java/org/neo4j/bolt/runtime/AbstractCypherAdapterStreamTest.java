@@ -22,6 +22,7 @@ package org.neo4j.bolt.runtime;
 import org.junit.jupiter.api.Test;
 
 import java.time.Clock;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
@@ -35,6 +36,8 @@ import org.neo4j.graphdb.InputPosition;
 import org.neo4j.graphdb.QueryStatistics;
 import org.neo4j.graphdb.impl.notification.NotificationCode;
 import org.neo4j.kernel.impl.query.QueryExecution;
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.memory.MemoryTracker;
 import org.neo4j.values.AnyValue;
 import org.neo4j.values.storable.DoubleValue;
 import org.neo4j.values.virtual.MapValue;
@@ -45,7 +48,13 @@ import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.data.Offset.offset;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -99,6 +108,138 @@ class AbstractCypherAdapterStreamTest
         verify( queryExecution, times( 2 ) ).await();
     }
 
+    @Test
+    void shouldHandOverPrefetchedRecordsOnNextPull() throws Throwable
+    {
+        // Given
+        BoltAdapterSubscriber subscriber = new BoltAdapterSubscriber();
+        QueryExecution queryExecution = producingQueryExecution( subscriber );
+        LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+        var stream = new TestAbstractCypherAdapterStream( queryExecution, subscriber, mock( Clock.class ), memoryTracker, 10 );
+        List<AnyValue> records = new ArrayList<>();
+
+        // When
+        stream.handleRecords( collectingConsumer( records ), 2 );
+        stream.prefetchRecords( true );
+
+        // Then
+        assertThat( records ).containsExactly( intValue( 0 ), intValue( 1 ) );
+        assertThat( memoryTracker.estimatedHeapMemory() ).isPositive();
+
+        // When
+        stream.handleRecords( collectingConsumer( records ), 2 );
+
+        // Then
+        assertThat( records ).containsExactly( intValue( 0 ), intValue( 1 ), intValue( 2 ), intValue( 3 ) );
+        assertThat( memoryTracker.estimatedHeapMemory() ).isZero();
+        verify( queryExecution, times( 2 ) ).request( 2 );
+    }
+
+    @Test
+    void shouldPrefetchAtMostMaxRecords() throws Throwable
+    {
+        // Given
+        BoltAdapterSubscriber subscriber = new BoltAdapterSubscriber();
+        QueryExecution queryExecution = producingQueryExecution( subscriber );
+        var stream = new TestAbstractCypherAdapterStream( queryExecution, subscriber, mock( Clock.class ), new LocalMemoryTracker(), 3 );
+        List<AnyValue> records = new ArrayList<>();
+
+        // When
+        stream.handleRecords( collectingConsumer( records ), 5 );
+        stream.prefetchRecords( true );
+        stream.prefetchRecords( true );
+        stream.handleRecords( collectingConsumer( records ), 5 );
+
+        // Then
+        verify( queryExecution ).request( 5 );
+        verify( queryExecution ).request( 3 );
+        verify( queryExecution ).request( 2 );
+        assertThat( records ).hasSize( 10 );
+    }
+
+    @Test
+    void shouldNotPrefetchWhenDisabled() throws Throwable
+    {
+        // Given
+        BoltAdapterSubscriber subscriber = new BoltAdapterSubscriber();
+        QueryExecution queryExecution = producingQueryExecution( subscriber );
+        var stream = new TestAbstractCypherAdapterStream( queryExecution, subscriber, mock( Clock.class ) );
+
+        // When
+        stream.handleRecords( collectingConsumer( new ArrayList<>() ), 2 );
+        stream.prefetchRecords( true );
+
+        // Then
+        verify( queryExecution ).request( anyLong() );
+    }
+
+    @Test
+    void shouldReportPrefetchFailureOnNextPull() throws Throwable
+    {
+        // Given
+        BoltAdapterSubscriber subscriber = new BoltAdapterSubscriber();
+        QueryExecution queryExecution = producingQueryExecution( subscriber );
+        var stream = new TestAbstractCypherAdapterStream( queryExecution, subscriber, mock( Clock.class ), new LocalMemoryTracker(), 10 );
+        stream.handleRecords( collectingConsumer( new ArrayList<>() ), 2 );
+        RuntimeException failure = new RuntimeException( "prefetch failed" );
+        doAnswer( invocation -> { throw failure; } ).when( queryExecution ).request( anyLong() );
+
+        // When
+        stream.prefetchRecords( true );
+
+        // Then
+        assertSame( failure, assertThrows( RuntimeException.class, stream::assertPrefetchSucceeded ) );
+        var thrown = assertThrows( RuntimeException.class, () -> stream.handleRecords( collectingConsumer( new ArrayList<>() ), 2 ) );
+        assertSame( failure, thrown );
+        assertDoesNotThrow( stream::assertPrefetchSucceeded );
+    }
+
+    @Test
+    void shouldOnlyPrefetchQueriesThatWriteWhenAllowed() throws Throwable
+    {
+        // Given
+        BoltAdapterSubscriber subscriber = new BoltAdapterSubscriber();
+        QueryExecution queryExecution = producingQueryExecution( subscriber );
+        when( queryExecution.executionType() ).thenReturn( query( READ_WRITE ) );
+        var stream = new TestAbstractCypherAdapterStream( queryExecution, subscriber, mock( Clock.class ), new LocalMemoryTracker(), 10 );
+        stream.handleRecords( collectingConsumer( new ArrayList<>() ), 2 );
+
+        // When
+        stream.prefetchRecords( false );
+
+        // Then
+        verify( queryExecution ).request( anyLong() );
+
+        // When
+        stream.prefetchRecords( true );
+
+        // Then
+        verify( queryExecution, times( 2 ) ).request( 2 );
+    }
+
+    @Test
+    void shouldDropPrefetchedRecordsOnDiscard() throws Throwable
+    {
+        // Given
+        BoltAdapterSubscriber subscriber = new BoltAdapterSubscriber();
+        QueryExecution queryExecution = producingQueryExecution( subscriber );
+        when( queryExecution.executionType() ).thenReturn( query( READ_ONLY ) );
+        when( queryExecution.getNotifications() ).thenReturn( Collections.emptyList() );
+        LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+        var stream = new TestAbstractCypherAdapterStream( queryExecution, subscriber, mock( Clock.class ), memoryTracker, 10 );
+        stream.handleRecords( collectingConsumer( new ArrayList<>() ), 2 );
+        stream.prefetchRecords( true );
+
+        // When
+        BoltResult.DiscardingRecordConsumer consumer = mock( BoltResult.DiscardingRecordConsumer.class );
+        stream.discardRecords( consumer, STREAM_LIMIT_UNLIMITED );
+
+        // Then
+        verify( consumer, never() ).endRecord();
+        verify( queryExecution ).cancel();
+        assertThat( memoryTracker.estimatedHeapMemory() ).isZero();
+    }
+
     @Test
     void shouldDiscardAllReadQuery() throws Throwable
     {
@@ -384,6 +525,47 @@ class AbstractCypherAdapterStreamTest
         assertThat( meta.get( "notifications" ) ).isEqualTo( list( msg1, msg2 ) );
     }
 
+    /**
+     * A query execution that produces one single column record per requested record, with increasing values.
+     */
+    private static QueryExecution producingQueryExecution( BoltAdapterSubscriber subscriber ) throws Exception
+    {
+        QueryExecution queryExecution = mock( QueryExecution.class );
+        when( queryExecution.fieldNames() ).thenReturn( new String[]{"n"} );
+        when( queryExecution.await() ).thenReturn( true );
+        subscriber.onResult( 1 );
+        int[] produced = {0};
+        doAnswer( invocation ->
+        {
+            long requested = invocation.getArgument( 0 );
+            for ( long i = 0; i < requested; i++ )
+            {
+                subscriber.onRecord();
+                subscriber.onField( 0, intValue( produced[0]++ ) );
+                subscriber.onRecordCompleted();
+            }
+            return null;
+        } ).when( queryExecution ).request( anyLong() );
+        return queryExecution;
+    }
+
+    private static BoltResult.RecordConsumer collectingConsumer( List<AnyValue> values )
+    {
+        return new BoltResult.DiscardingRecordConsumer()
+        {
+            @Override
+            public void consumeField( AnyValue value )
+            {
+                values.add( value );
+            }
+
+            @Override
+            public void addMetadata( String key, AnyValue value )
+            {
+            }
+        };
+    }
+
     private MapValue metadataOf( AbstractCypherAdapterStream stream ) throws Throwable
     {
         final MapValueBuilder meta = new MapValueBuilder();
@@ -547,6 +729,12 @@ class AbstractCypherAdapterStreamTest
             super( queryExecution, querySubscriber, clock );
         }
 
+        TestAbstractCypherAdapterStream( QueryExecution queryExecution, BoltAdapterSubscriber querySubscriber, Clock clock,
+                MemoryTracker memoryTracker, int maxPrefetchedRecords )
+        {
+            super( queryExecution, querySubscriber, clock, memoryTracker, maxPrefetchedRecords );
+        }
+
         @Override
         protected void addDatabaseName( RecordConsumer recordConsumer )
         {
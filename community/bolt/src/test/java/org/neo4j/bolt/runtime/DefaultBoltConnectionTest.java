@@ -24,6 +24,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
 
 import java.time.Clock;
 import java.util.ArrayList;
@@ -57,6 +58,7 @@ import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -402,6 +404,23 @@ class DefaultBoltConnectionTest
         verify( stateMachine ).close();
     }
 
+    @Test
+    void processNextBatchShouldNotifyListenerWhileItKeepsTheThread()
+    {
+        BoltConnection connection = newConnection( 1 );
+        connection.enqueue( Jobs.noop() );
+        connection.enqueue( Jobs.noop() );
+        when( stateMachine.shouldStickOnThread() ).thenReturn( true, false );
+
+        connection.processNextBatch();
+
+        InOrder inOrder = inOrder( stateMachine, connectionListener );
+        inOrder.verify( stateMachine ).shouldStickOnThread();
+        inOrder.verify( connectionListener ).pinned( connection );
+        inOrder.verify( stateMachine ).shouldStickOnThread();
+        inOrder.verify( connectionListener ).unpinned( connection );
+    }
+
     @Test
     void shouldFlushErrorAndCloseConnectionIfFailedToSchedule() throws Throwable
     {
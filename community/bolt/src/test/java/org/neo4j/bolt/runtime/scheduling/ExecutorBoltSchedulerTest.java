@@ -29,6 +29,7 @@ import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -52,6 +53,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
@@ -293,6 +295,94 @@ class ExecutorBoltSchedulerTest
         verify( connection, times( 2 ) ).processNextBatch();
     }
 
+    @Test
+    void carrierPoolShouldQueueJobsInsteadOfRejectingThem() throws Throwable
+    {
+        AtomicBoolean exitCondition = new AtomicBoolean();
+        BoltConnection busyConnection = newConnection( UUID.randomUUID().toString() );
+        when( busyConnection.processNextBatch() ).thenAnswer( inv -> awaitExit( exitCondition ) );
+        BoltConnection waitingConnection = newConnection( UUID.randomUUID().toString() );
+        when( waitingConnection.processNextBatch() ).thenReturn( true );
+        var carrierScheduler = new ExecutorBoltScheduler( CONNECTOR_KEY, executorFactory, jobScheduler, logService, 1, 1, Duration.ofMinutes( 1 ),
+                CachedThreadPoolExecutorFactory.UNBOUNDED_QUEUE, ForkJoinPool.commonPool(), Duration.ZERO, Duration.ZERO );
+        try
+        {
+            carrierScheduler.init();
+            carrierScheduler.start();
+            carrierScheduler.created( busyConnection );
+            carrierScheduler.created( waitingConnection );
+
+            carrierScheduler.enqueued( busyConnection, Jobs.noop() );
+            Predicates.await( () -> carrierScheduler.isActive( busyConnection ), 1, MINUTES );
+            carrierScheduler.enqueued( waitingConnection, Jobs.noop() );
+
+            assertTrue( carrierScheduler.isActive( waitingConnection ) );
+            verify( waitingConnection, never() ).processNextBatch();
+            exitCondition.set( true );
+            Predicates.await( () -> !carrierScheduler.isActive( waitingConnection ), 1, MINUTES );
+
+            verify( waitingConnection ).processNextBatch();
+            verify( waitingConnection, never() ).handleSchedulingError( any() );
+        }
+        finally
+        {
+            carrierScheduler.stop();
+            carrierScheduler.shutdown();
+        }
+    }
+
+    @Test
+    void shouldRejectJobsWhenAllThreadsArePinned() throws Throwable
+    {
+        AtomicBoolean pinned = new AtomicBoolean();
+        AtomicBoolean exitCondition = new AtomicBoolean();
+        var carrierScheduler = new ExecutorBoltScheduler( CONNECTOR_KEY, executorFactory, jobScheduler, logService, 1, 1, Duration.ofMinutes( 1 ),
+                CachedThreadPoolExecutorFactory.UNBOUNDED_QUEUE, ForkJoinPool.commonPool(), Duration.ZERO, Duration.ZERO );
+        BoltConnection pinnedConnection = newConnection( UUID.randomUUID().toString() );
+        when( pinnedConnection.processNextBatch() ).thenAnswer( inv ->
+        {
+            carrierScheduler.pinned( pinnedConnection );
+            pinned.set( true );
+            try
+            {
+                return awaitExit( exitCondition );
+            }
+            finally
+            {
+                carrierScheduler.unpinned( pinnedConnection );
+            }
+        } );
+        BoltConnection otherConnection = newConnection( UUID.randomUUID().toString() );
+        when( otherConnection.processNextBatch() ).thenReturn( true );
+        try
+        {
+            carrierScheduler.init();
+            carrierScheduler.start();
+            carrierScheduler.created( pinnedConnection );
+            carrierScheduler.created( otherConnection );
+
+            carrierScheduler.enqueued( pinnedConnection, Jobs.noop() );
+            Predicates.await( pinned::get, 1, MINUTES );
+            carrierScheduler.enqueued( otherConnection, Jobs.noop() );
+            Predicates.await( () -> !carrierScheduler.isActive( otherConnection ), 1, MINUTES );
+
+            verify( otherConnection ).handleSchedulingError( argThat( e -> e instanceof RejectedExecutionException ) );
+            verify( otherConnection, never() ).processNextBatch();
+
+            exitCondition.set( true );
+            Predicates.await( () -> !carrierScheduler.isActive( pinnedConnection ), 1, MINUTES );
+            carrierScheduler.enqueued( otherConnection, Jobs.noop() );
+            Predicates.await( () -> !carrierScheduler.isActive( otherConnection ), 1, MINUTES );
+
+            verify( otherConnection ).processNextBatch();
+        }
+        finally
+        {
+            carrierScheduler.stop();
+            carrierScheduler.shutdown();
+        }
+    }
+
     @Test
     void destroyedShouldCancelActiveWorkItem() throws Throwable
     {
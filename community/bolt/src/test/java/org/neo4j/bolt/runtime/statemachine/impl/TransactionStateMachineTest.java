@@ -40,6 +40,7 @@ import org.neo4j.bolt.runtime.statemachine.impl.TransactionStateMachine.MutableT
 import org.neo4j.bolt.runtime.statemachine.impl.TransactionStateMachine.StatementOutcome;
 import org.neo4j.exceptions.KernelException;
 import org.neo4j.internal.helpers.collection.MapUtil;
+import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
 import org.neo4j.internal.kernel.api.security.LoginContext;
 import org.neo4j.kernel.api.exceptions.Status;
 import org.neo4j.kernel.impl.query.QueryExecutionKernelException;
@@ -53,6 +54,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
@@ -410,6 +412,62 @@ class TransactionStateMachineTest
         assertNotNull( stateMachine.ctx.currentTransaction );
     }
 
+    @Test
+    void shouldPrefetchResultOfAutoCommitStatement() throws Exception
+    {
+        BoltResult result = mock( BoltResult.class );
+        TransactionStateMachineSPI stateMachineSPI = newTransactionStateMachineSPI( newTransaction(), newResultHandle( result ) );
+        TransactionStateMachine stateMachine = newTransactionStateMachine( stateMachineSPI );
+
+        stateMachine.run( "SOME STATEMENT", null );
+        stateMachine.prefetchResults();
+
+        verify( result ).prefetchRecords( true );
+    }
+
+    @Test
+    void shouldOnlyPrefetchReadOnlyResultOfLastStatementInExplicitTransaction() throws Exception
+    {
+        BoltResult first = mock( BoltResult.class );
+        BoltResult second = mock( BoltResult.class );
+        BoltResultHandle firstHandle = newResultHandle( first );
+        BoltResultHandle secondHandle = newResultHandle( second );
+        TransactionStateMachineSPI stateMachineSPI = newTransactionStateMachineSPI( newTransaction(), firstHandle );
+        when( stateMachineSPI.executeQuery( any(), anyString(), any() ) ).thenReturn( firstHandle, secondHandle );
+        when( stateMachineSPI.supportsNestedStatementsInTransaction() ).thenReturn( true );
+        TransactionStateMachine stateMachine = newTransactionStateMachine( stateMachineSPI );
+
+        beginTx( stateMachine );
+        stateMachine.run( "FIRST STATEMENT", null );
+        stateMachine.run( "SECOND STATEMENT", null );
+        stateMachine.prefetchResults();
+
+        verify( first, never() ).prefetchRecords( anyBoolean() );
+        verify( second ).prefetchRecords( false );
+    }
+
+    @Test
+    void shouldRollbackOnCommitWhenPrefetchingFailed() throws Throwable
+    {
+        BoltTransaction transaction = newTransaction();
+        BoltResult result = mock( BoltResult.class );
+        RuntimeException failure = new ArithmeticException( "/ by zero" );
+        doThrow( failure ).when( result ).assertPrefetchSucceeded();
+        TransactionStateMachineSPI stateMachineSPI = newTransactionStateMachineSPI( transaction, newResultHandle( result ) );
+        TransactionStateMachine stateMachine = newTransactionStateMachine( stateMachineSPI );
+
+        beginTx( stateMachine );
+        stateMachine.run( "SOME STATEMENT", null );
+        assertEquals( failure, assertThrows( ArithmeticException.class, stateMachine::assertPrefetchSucceeded ) );
+
+        TransactionFailureException e = assertThrows( TransactionFailureException.class, stateMachine::commitTransaction );
+        assertEquals( failure, e.getCause() );
+        assertEquals( Status.Transaction.TransactionCommitFailed, e.status() );
+        verify( transaction ).rollback();
+        verify( transaction, never() ).commit();
+        assertEquals( TransactionStateMachine.State.AUTO_COMMIT, stateMachine.state );
+    }
+
     @Test
     void shouldNotMarkForTerminationWhenNoTransaction() throws Exception
     {
@@ -487,6 +545,15 @@ class TransactionStateMachineTest
         return resultHandle;
     }
 
+    private static BoltResultHandle newResultHandle( BoltResult result ) throws KernelException
+    {
+        BoltResultHandle resultHandle = mock( BoltResultHandle.class );
+
+        when( resultHandle.start() ).thenReturn( result );
+
+        return resultHandle;
+    }
+
     private static BoltResultHandle newResultHandle( Throwable t ) throws KernelException
     {
         BoltResultHandle resultHandle = mock( BoltResultHandle.class );
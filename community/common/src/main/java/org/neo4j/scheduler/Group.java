@@ -58,6 +58,8 @@ public enum Group
     INDEX_SAMPLING( "IndexSampling" ),
     /** Background index update applier, for eventually consistent indexes. */
     INDEX_UPDATING( "IndexUpdating", ExecutorServiceFactory.singleThread() ), // Single-threaded to serialise updates with opening/closing/flushing of indexes.
+    /** Searches partitions of fulltext indexes concurrently, on behalf of queries. */
+    FULLTEXT_SEARCH( "FulltextSearch", ExecutorServiceFactory.workStealing() ),
     /** Thread pool for anyone who want some help doing file IO in parallel. */
     FILE_IO_HELPER( "FileIOHelper" ),
     NATIVE_SECURITY( "NativeSecurity" ),
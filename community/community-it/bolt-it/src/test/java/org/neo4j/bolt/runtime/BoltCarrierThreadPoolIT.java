@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.runtime;
+
+import org.assertj.core.api.Condition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.neo4j.bolt.AbstractBoltTransportsTest;
+import org.neo4j.bolt.packstream.Neo4jPack;
+import org.neo4j.bolt.testing.client.TransportConnection;
+import org.neo4j.bolt.transport.Neo4jWithSocket;
+import org.neo4j.bolt.transport.Neo4jWithSocketExtension;
+import org.neo4j.bolt.v4.messaging.BoltV4Messages;
+import org.neo4j.configuration.connectors.BoltConnector;
+import org.neo4j.configuration.connectors.BoltConnectorInternalSettings;
+import org.neo4j.configuration.helpers.SocketAddress;
+import org.neo4j.graphdb.config.Setting;
+import org.neo4j.kernel.api.exceptions.Status;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.values.AnyValue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.bolt.testing.MessageConditions.msgFailure;
+import static org.neo4j.bolt.testing.MessageConditions.msgRecord;
+import static org.neo4j.bolt.testing.MessageConditions.msgSuccess;
+import static org.neo4j.bolt.testing.StreamConditions.eqRecord;
+import static org.neo4j.values.storable.Values.longValue;
+
+@EphemeralTestDirectoryExtension
+@Neo4jWithSocketExtension
+class BoltCarrierThreadPoolIT extends AbstractBoltTransportsTest
+{
+    @Inject
+    private Neo4jWithSocket server;
+
+    private final List<TransportConnection> otherConnections = new ArrayList<>();
+
+    @BeforeEach
+    public void setup( TestInfo testInfo ) throws IOException
+    {
+        server.setConfigure( getSettingsFunction() );
+        server.init( testInfo );
+        address = server.lookupDefaultConnector();
+    }
+
+    @Override
+    protected Consumer<Map<Setting<?>,Object>> getSettingsFunction()
+    {
+        return settings ->
+        {
+            super.getSettingsFunction().accept( settings );
+            settings.put( BoltConnector.listen_address, new SocketAddress( "localhost", 0 ) );
+            settings.put( BoltConnectorInternalSettings.unsupported_carrier_thread_pool_size, 2 );
+        };
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException
+    {
+        for ( TransportConnection otherConnection : otherConnections )
+        {
+            otherConnection.disconnect();
+        }
+    }
+
+    @ParameterizedTest( name = "{displayName} {2}" )
+    @MethodSource( "argumentsProvider" )
+    public void shouldRunExplicitTransactionOverSeveralMessagesOnSingleThread( Class<? extends TransportConnection> connectionClass, Neo4jPack neo4jPack,
+            String name ) throws Throwable
+    {
+        initParameters( connectionClass, neo4jPack, name );
+        connectAndAuthenticate( connection );
+
+        connection.send( util.chunk( BoltV4Messages.begin() ) );
+        assertThat( connection ).satisfies( util.eventuallyReceives( msgSuccess() ) );
+
+        // the open transaction keeps one thread, the other connection is served by the other one
+        TransportConnection otherConnection = newOtherConnection();
+        connectAndAuthenticate( otherConnection );
+
+        connection.send( util.chunk( BoltV4Messages.run( "CREATE (n:Carrier {id: 1})" ), BoltV4Messages.pullAll() ) );
+        assertThat( connection ).satisfies( util.eventuallyReceives( msgSuccess(), msgSuccess() ) );
+
+        connection.send( util.chunk( BoltV4Messages.run( "UNWIND range(1, 3) AS x RETURN x" ), BoltV4Messages.pull( 2 ) ) );
+        assertThat( connection ).satisfies( util.eventuallyReceives(
+                msgSuccess(),
+                msgRecord( eqRecord( longValueCondition( 1L ) ) ),
+                msgRecord( eqRecord( longValueCondition( 2L ) ) ),
+                msgSuccess() ) );
+
+        connection.send( util.chunk( BoltV4Messages.pullAll() ) );
+        assertThat( connection ).satisfies( util.eventuallyReceives( msgRecord( eqRecord( longValueCondition( 3L ) ) ), msgSuccess() ) );
+
+        connection.send( util.chunk( BoltV4Messages.run( "MATCH (n:Carrier) RETURN n.id" ), BoltV4Messages.pullAll() ) );
+        assertThat( connection ).satisfies( util.eventuallyReceives( msgSuccess(), msgRecord( eqRecord( longValueCondition( 1L ) ) ), msgSuccess() ) );
+
+        connection.send( util.chunk( BoltV4Messages.commit() ) );
+        assertThat( connection ).satisfies( util.eventuallyReceives( msgSuccess() ) );
+
+        otherConnection.send( util.chunk( BoltV4Messages.run( "MATCH (n:Carrier) RETURN count(n)" ), BoltV4Messages.pullAll() ) );
+        assertThat( otherConnection ).satisfies( util.eventuallyReceives( msgSuccess(), msgRecord( eqRecord( longValueCondition( 1L ) ) ), msgSuccess() ) );
+    }
+
+    @ParameterizedTest( name = "{displayName} {2}" )
+    @MethodSource( "argumentsProvider" )
+    public void shouldRejectConnectionsWhenAllThreadsAreKeptByOpenTransactions( Class<? extends TransportConnection> connectionClass,
+            Neo4jPack neo4jPack, String name ) throws Throwable
+    {
+        initParameters( connectionClass, neo4jPack, name );
+        connectAndAuthenticate( connection );
+        connection.send( util.chunk( BoltV4Messages.begin() ) );
+        assertThat( connection ).satisfies( util.eventuallyReceives( msgSuccess() ) );
+
+        TransportConnection secondTransaction = newOtherConnection();
+        connectAndAuthenticate( secondTransaction );
+        secondTransaction.send( util.chunk( BoltV4Messages.begin() ) );
+        assertThat( secondTransaction ).satisfies( util.eventuallyReceives( msgSuccess() ) );
+
+        // both threads are kept by the open transactions, so a third connection fails right away instead of waiting for one of them
+        TransportConnection rejected = newOtherConnection();
+        rejected.connect( address ).send( util.defaultAcceptedVersions() );
+        assertThat( rejected ).satisfies( util.eventuallyReceivesSelectedProtocolVersion() );
+        rejected.send( util.defaultAuth() );
+        assertThat( rejected ).satisfies( util.eventuallyReceives(
+                msgFailure( Status.Request.NoThreadsAvailable, "There are no available threads to serve this request at the moment." ) ) );
+
+        // once a transaction is committed its thread is given back, and new connections are served again
+        connection.send( util.chunk( BoltV4Messages.commit() ) );
+        assertThat( connection ).satisfies( util.eventuallyReceives( msgSuccess() ) );
+        TransportConnection admitted = newOtherConnection();
+        connectAndAuthenticate( admitted );
+        admitted.send( util.chunk( BoltV4Messages.run( "RETURN 1" ), BoltV4Messages.pullAll() ) );
+        assertThat( admitted ).satisfies( util.eventuallyReceives( msgSuccess(), msgRecord( eqRecord( longValueCondition( 1L ) ) ), msgSuccess() ) );
+
+        secondTransaction.send( util.chunk( BoltV4Messages.rollback() ) );
+        assertThat( secondTransaction ).satisfies( util.eventuallyReceives( msgSuccess() ) );
+    }
+
+    private TransportConnection newOtherConnection() throws Exception
+    {
+        TransportConnection otherConnection = newConnection();
+        otherConnections.add( otherConnection );
+        return otherConnection;
+    }
+
+    private void connectAndAuthenticate( TransportConnection connection ) throws Exception
+    {
+        connection.connect( address ).send( util.defaultAcceptedVersions() );
+        assertThat( connection ).satisfies( util.eventuallyReceivesSelectedProtocolVersion() );
+        connection.send( util.defaultAuth() );
+        assertThat( connection ).satisfies( util.eventuallyReceives( msgSuccess() ) );
+    }
+
+    private static Condition<AnyValue> longValueCondition( long expected )
+    {
+        return new Condition<>( value -> value.equals( longValue( expected ) ), "equals" );
+    }
+}
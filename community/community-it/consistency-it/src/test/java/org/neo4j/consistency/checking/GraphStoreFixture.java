@@ -253,7 +253,9 @@ public abstract class GraphStoreFixture implements AutoCloseable
 
     private IndexStatisticsStore startIndexStatisticsStore( boolean readOnly )
     {
-        final IndexStatisticsStore indexStatisticsStore = new IndexStatisticsStore( pageCache, databaseLayout(), immediate(), readOnly, PageCacheTracer.NULL );
+        final IndexStatisticsStore indexStatisticsStore =
+                new IndexStatisticsStore( pageCache, databaseLayout(), fileSystem, immediate(), readOnly, PageCacheTracer.NULL,
+                        INSTANCE );
         try
         {
             indexStatisticsStore.init();
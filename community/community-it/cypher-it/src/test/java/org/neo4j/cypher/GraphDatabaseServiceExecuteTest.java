@@ -25,6 +25,7 @@ import org.junit.jupiter.api.Test;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import org.neo4j.graphdb.Result;
@@ -34,6 +35,7 @@ import org.neo4j.graphdb.spatial.Coordinate;
 import org.neo4j.graphdb.spatial.Geometry;
 import org.neo4j.graphdb.spatial.Point;
 import org.neo4j.internal.helpers.collection.Iterables;
+import org.neo4j.internal.helpers.collection.Iterators;
 import org.neo4j.kernel.api.procedure.GlobalProcedures;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.procedure.Name;
@@ -41,6 +43,7 @@ import org.neo4j.procedure.Procedure;
 import org.neo4j.test.extension.ImpermanentDbmsExtension;
 import org.neo4j.test.extension.Inject;
 
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -278,6 +281,44 @@ public class GraphDatabaseServiceExecuteTest
 
     }
 
+    @Test
+    void shouldReturnNodesClosestToPointFirstUsingPointIndex()
+    {
+        // given
+        try ( Transaction transaction = db.beginTx() )
+        {
+            transaction.execute( "CREATE INDEX FOR (n:Place) ON (n.location)" );
+            transaction.commit();
+        }
+        try ( Transaction transaction = db.beginTx() )
+        {
+            transaction.schema().awaitIndexesOnline( 1, TimeUnit.MINUTES );
+            transaction.execute( "UNWIND range(0, 19) AS i CREATE (:Place {name: i, location: point({x: i, y: 0})})" );
+            transaction.execute( "CREATE (:Place {name: 'nowhere'}), (:Place {name: 'elsewhere', location: point({longitude: 0, latitude: 0})})" );
+            transaction.commit();
+        }
+
+        try ( Transaction transaction = db.beginTx() )
+        {
+            // when
+            Result result = transaction.execute( "MATCH (n:Place) RETURN n.name AS name ORDER BY distance(n.location, point({x: 9.2, y: 0})) LIMIT 5" );
+
+            // then
+            assertThat( Iterators.asList( result.columnAs( "name" ) ), equalTo( Arrays.asList( 9L, 10L, 8L, 11L, 7L ) ) );
+            assertThat( result.getExecutionPlanDescription().toString(), containsString( "NodeIndexSeekByDistance" ) );
+
+            // when
+            List<Object> all = Iterators.asList(
+                    transaction.execute( "MATCH (n:Place) RETURN n.name AS name ORDER BY distance(n.location, point({x: 9.2, y: 0})) LIMIT 25" ).columnAs( "name" ) );
+
+            // then
+            assertEquals( 22, all.size() );
+            assertThat( all.subList( 0, 5 ), equalTo( Arrays.asList( 9L, 10L, 8L, 11L, 7L ) ) );
+            assertThat( all.subList( 20, 22 ), Matchers.containsInAnyOrder( "nowhere", "elsewhere" ) );
+            transaction.commit();
+        }
+    }
+
     private static Point makeFakePoint( double x, double y, final CRS crs )
     {
         final Coordinate coord = new Coordinate( x, y );
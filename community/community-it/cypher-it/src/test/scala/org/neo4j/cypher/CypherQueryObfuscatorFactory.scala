@@ -95,6 +95,7 @@ class CypherQueryObfuscatorFactory {
     // unused
 
     override def indexesGetForLabel(labelId: Int): Nothing = fail()
+    override def multiLabelIndexesGetForLabel(labelId: Int): Nothing = fail()
     override def indexExistsForLabel(labelId: Int): Nothing = fail()
     override def indexGetForLabelAndProperties(labelName: String, propertyKeys: Seq[String]): Nothing = fail()
     override def indexExistsForLabelAndProperties(labelName: String, propertyKey: Seq[String]): Nothing = fail()
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher
+
+import java.util.concurrent.TimeUnit
+
+class IndexAggregationAcceptanceTest extends ExecutionEngineFunSuite {
+
+  // The smallest and largest points by x are not the first and last points on the space filling curve
+  private val coordinates = Seq((-1000, 1), (-999, -1000), (-999, 1000), (0, 0), (999, -1000), (999, 1000), (1000, 1))
+
+  override protected def initTest(): Unit = {
+    super.initTest()
+    graph.createIndex("L", "p")
+    graph.withTx( tx => tx.schema().awaitIndexesOnline(1, TimeUnit.MINUTES))
+  }
+
+  for (runtime <- Seq("interpreted", "slotted"); function <- Seq("min", "max")) {
+
+    test(s"should compute $function of points in an index by their coordinates in $runtime") {
+      val points = coordinates.map { case (x, y) => s"[$x, $y]" }.mkString("[", ", ", "]")
+      execute(s"UNWIND $points AS c CREATE (:L {p: point({x: c[0], y: c[1]})})")
+
+      val result = execute(s"CYPHER runtime=$runtime MATCH (n:L) RETURN $function(n.p) AS p")
+      val expected = execute(s"CYPHER runtime=$runtime MATCH (n:L) WITH n.p AS p RETURN $function(p) AS p").toList
+
+      result.executionPlanDescription().toString should include("NodeIndexAggregation")
+      result.toList should equal(expected)
+    }
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher
+
+import org.neo4j.configuration.Config
+import org.neo4j.configuration.GraphDatabaseInternalSettings
+import org.neo4j.configuration.GraphDatabaseSettings
+import org.neo4j.exceptions.ArithmeticException
+import org.neo4j.graphdb.config.Setting
+import org.neo4j.io.ByteUnit
+import org.neo4j.memory.MemoryLimitExceededException
+
+import scala.collection.JavaConverters.collectionAsScalaIterableConverter
+
+class ParallelAggregationAcceptanceTest extends ExecutionEngineFunSuite {
+
+  private val nodeCount = 40000
+
+  override def databaseConfig(): Map[Setting[_], Object] =
+    super.databaseConfig() ++ Map(GraphDatabaseInternalSettings.cypher_parallel_aggregation_workers -> Integer.valueOf(4))
+
+  override protected def initTest(): Unit = {
+    super.initTest()
+    execute(s"UNWIND range(1, $nodeCount) AS i CREATE (:N {x: i % 10, y: i})")
+    execute("UNWIND range(1, 100) AS i CREATE (:M {y: i})")
+  }
+
+  for (runtime <- Seq("interpreted", "slotted")) {
+
+    test(s"should aggregate label scan without grouping in $runtime") {
+      val result = execute(s"CYPHER runtime=$runtime MATCH (n:N) RETURN count(*) AS c, sum(n.x) AS s, min(n.y) AS min, max(n.y) AS max, avg(n.y) AS avg")
+        .toList.head
+
+      result - "avg" should equal(Map("c" -> nodeCount, "s" -> nodeCount / 10 * 45, "min" -> 1, "max" -> nodeCount))
+      result("avg").asInstanceOf[Double] should be((nodeCount + 1) / 2.0 +- 1e-6)
+    }
+
+    test(s"should aggregate filtered all nodes scan with grouping in $runtime") {
+      val result = execute(s"CYPHER runtime=$runtime MATCH (n) WHERE n.x > 6 RETURN n.x AS x, count(n.y) AS c")
+
+      result.toSet should equal(Set(7, 8, 9).map(x => Map("x" -> x, "c" -> nodeCount / 10)))
+    }
+
+    test(s"should group by node in $runtime") {
+      val result = execute(s"CYPHER runtime=$runtime MATCH (n:N) WHERE n.y <= 3 WITH n, count(*) AS c RETURN n.y AS y, c")
+
+      result.toSet should equal(Set(1, 2, 3).map(y => Map("y" -> y, "c" -> 1)))
+    }
+
+    test(s"should aggregate without any rows in $runtime") {
+      val result = execute(s"CYPHER runtime=$runtime MATCH (n:N) WHERE n.y < 0 RETURN count(*) AS c, sum(n.y) AS s, max(n.y) AS m")
+
+      result.toList should equal(List(Map("c" -> 0, "s" -> 0, "m" -> null)))
+    }
+
+    test(s"should see changes of the transaction in $runtime") {
+      graph.withTx { tx =>
+        tx.execute("CREATE (:N {x: 100, y: -1})")
+        val result = tx.execute(s"CYPHER runtime=$runtime MATCH (n:N) RETURN count(*) AS c, max(n.x) AS m")
+        result.next().get("c") should equal(nodeCount + 1)
+      }
+    }
+
+    test(s"should count the memory of partial tables towards the transaction limit in $runtime") {
+      val config = graph.getDependencyResolver.resolveDependency(classOf[Config])
+      config.setDynamic(GraphDatabaseSettings.memory_transaction_max_size, java.lang.Long.valueOf(ByteUnit.mebiBytes(1)), getClass.getSimpleName)
+      try {
+        a[MemoryLimitExceededException] should be thrownBy
+          execute(s"CYPHER runtime=$runtime MATCH (n:N) RETURN n.y AS y, count(*) AS c")
+      } finally {
+        config.setDynamic(GraphDatabaseSettings.memory_transaction_max_size, java.lang.Long.valueOf(0L), getClass.getSimpleName)
+      }
+    }
+
+    test(s"should fail if any worker fails in $runtime") {
+      an[ArithmeticException] should be thrownBy
+        execute(s"CYPHER runtime=$runtime MATCH (n:N) RETURN sum(n.y / (n.y - ${nodeCount / 2})) AS s")
+    }
+
+    test(s"should stop all workers before failing when interrupted in $runtime") {
+      val query = s"CYPHER runtime=$runtime MATCH (n:N) RETURN sum(n.y) AS s"
+      execute(query).toList should equal(List(Map("s" -> (1 to nodeCount).map(_.toLong).sum)))
+
+      val failure = graph.withTx { tx =>
+        Thread.currentThread().interrupt()
+        try {
+          intercept[Exception](tx.execute(query).next())
+        } finally {
+          Thread.interrupted()
+        }
+      }
+
+      Iterator.iterate[Throwable](failure)(_.getCause).takeWhile(_ != null).exists(_.isInstanceOf[InterruptedException]) shouldBe true
+      Thread.getAllStackTraces.values().asScala.flatten.map(_.getClassName).filter(_.contains("ParallelAggregationPipe")) shouldBe empty
+    }
+  }
+}
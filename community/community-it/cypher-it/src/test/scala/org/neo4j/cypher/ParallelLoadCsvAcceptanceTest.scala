@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher
+
+import java.io.PrintWriter
+import java.nio.file.Files
+
+import org.neo4j.configuration.GraphDatabaseInternalSettings
+import org.neo4j.configuration.GraphDatabaseSettings
+import org.neo4j.graphdb.config.Setting
+
+class ParallelLoadCsvAcceptanceTest extends ExecutionEngineFunSuite {
+
+  private val rowCount = 5000
+
+  override def databaseConfig(): Map[Setting[_], Object] =
+    super.databaseConfig() ++ Map(
+      GraphDatabaseInternalSettings.cypher_load_csv_parsing_workers -> Integer.valueOf(4),
+      // Small chunks, so that the file is parsed in many of them
+      GraphDatabaseSettings.csv_buffer_size -> java.lang.Long.valueOf(1024))
+
+  private def csvFile(): String = {
+    val path = Files.createTempFile("parallel", ".csv")
+    val writer = new PrintWriter(Files.newBufferedWriter(path))
+    try {
+      writer.println("id,name")
+      (1 to rowCount).foreach { i =>
+        if (i % 10 == 0) writer.println(s"""$i,"multi\nline, $i"""") else writer.println(s"$i,name $i")
+      }
+    } finally {
+      writer.close()
+    }
+    path.toUri.toURL.toString
+  }
+
+  for (runtime <- Seq("interpreted", "slotted")) {
+
+    test(s"should return rows in file order with line numbers in $runtime") {
+      val url = csvFile()
+      val result = execute(s"CYPHER runtime=$runtime LOAD CSV WITH HEADERS FROM '$url' AS row RETURN toInteger(row.id) AS id, row.name AS name, linenumber() AS line")
+        .toList
+
+      result.map(_("id")) should equal(1 to rowCount)
+      result(9)("name") should equal("multi\nline, 10")
+      result.map(_("line")) should equal(2 to rowCount + 1)
+    }
+
+    test(s"should load rows with periodic commit in $runtime") {
+      val url = csvFile()
+      execute(s"CYPHER runtime=$runtime USING PERIODIC COMMIT 100 LOAD CSV WITH HEADERS FROM '$url' AS row CREATE (:Row {id: toInteger(row.id), name: row.name})")
+
+      execute("MATCH (r:Row) RETURN count(*) AS c, sum(r.id) AS s").toList should equal(
+        List(Map("c" -> rowCount, "s" -> rowCount * (rowCount + 1) / 2)))
+    }
+
+    test(s"should stop reading when the query only needs the first rows in $runtime") {
+      val url = csvFile()
+      val result = execute(s"CYPHER runtime=$runtime LOAD CSV FROM '$url' AS row RETURN row[0] AS id LIMIT 3").toList
+
+      result should equal(List(Map("id" -> "id"), Map("id" -> "1"), Map("id" -> "2")))
+    }
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher
+
+import org.neo4j.configuration.Config
+import org.neo4j.configuration.GraphDatabaseInternalSettings
+import org.neo4j.graphdb.Node
+import org.neo4j.graphdb.config.Setting
+import org.neo4j.io.ByteUnit
+import org.neo4j.io.fs.FileSystemAbstraction
+
+import java.util.concurrent.TimeUnit
+
+import scala.collection.JavaConverters.mapAsScalaMapConverter
+
+class SpillingAcceptanceTest extends ExecutionEngineFunSuite {
+
+  private val nodeCount = 20000
+
+  override def databaseConfig(): Map[Setting[_], Object] =
+    super.databaseConfig() ++ Map(GraphDatabaseInternalSettings.cypher_spill_threshold -> java.lang.Long.valueOf(ByteUnit.kibiBytes(64)))
+
+  override protected def initTest(): Unit = {
+    super.initTest()
+    execute(s"UNWIND range(1, $nodeCount) AS i CREATE (:N {x: i % 10, y: i, s: 'node ' + i})")
+  }
+
+  for (runtime <- Seq("interpreted", "slotted")) {
+
+    test(s"should sort more rows than fit in heap in $runtime") {
+      val result = execute(s"CYPHER runtime=$runtime MATCH (n:N) RETURN n, n.x AS x, n.y AS y ORDER BY x, y DESC").toList
+
+      result.map(row => (row("x"), row("y"))) should equal(
+        (1 to nodeCount).map(i => (i % 10, i)).sortBy { case (x, y) => (x, -y) })
+      graph.withTx( tx => {
+        result.foreach(row => tx.getNodeById(row("n").asInstanceOf[Node].getId).getProperty("y") should equal(row("y")))
+      })
+      spillFiles shouldBe empty
+    }
+
+    test(s"should find distinct values of more rows than fit in heap in $runtime") {
+      val result = execute(s"CYPHER runtime=$runtime MATCH (n:N) RETURN DISTINCT n.y % 5000 AS v, n.x % 2 AS w").toList
+
+      result.toSet should equal((1 to nodeCount).map(i => Map("v" -> i % 5000, "w" -> i % 10 % 2)).toSet)
+      result should have size 5000
+      spillFiles shouldBe empty
+    }
+
+    test(s"should aggregate more groups than fit in heap in $runtime") {
+      val result = execute(s"CYPHER runtime=$runtime MATCH (n:N) RETURN n.y % 5000 AS g, count(*) AS c, sum(n.x) AS s, collect(DISTINCT n.x % 2) AS x").toList
+
+      result should have size 5000
+      result.foreach { row =>
+        val g = row("g").asInstanceOf[Long]
+        val members = (1 to nodeCount).filter(_ % 5000 == g)
+        row("c") should equal(members.size)
+        row("s") should equal(members.map(_ % 10).sum)
+        row("x").asInstanceOf[Seq[_]].toSet should equal(members.map(_ % 10 % 2).toSet)
+      }
+      spillFiles shouldBe empty
+    }
+
+    test(s"should keep the order of a distinct of more rows than fit in heap in $runtime") {
+      graph.createIndex("N", "y")
+      graph.withTx( tx => tx.schema().awaitIndexesOnline(1, TimeUnit.MINUTES))
+
+      val result = execute(s"CYPHER runtime=$runtime MATCH (n:N) WHERE n.y > 0 WITH DISTINCT n RETURN n.y AS y ORDER BY y")
+
+      result.executionPlanDescription().toString should (include("Distinct") and not include "OrderedDistinct" and not include "Sort")
+      result.toList.map(_("y")) should equal(1 to nodeCount)
+      spillFiles shouldBe empty
+    }
+
+    test(s"should buffer more rows than fit in heap in eager in $runtime") {
+      // Reading :N on the right hand side of the apply, and creating :N, needs an eager in between
+      execute(s"CYPHER runtime=$runtime MATCH (n:N) MATCH (m) WHERE id(m) = id(n) AND m:N CREATE (:N {x: m.x, y: m.y + $nodeCount, s: m.s})")
+
+      execute("MATCH (n:N) RETURN count(*) AS c, sum(n.y) AS s").toList should equal(
+        List(Map("c" -> 2 * nodeCount, "s" -> (1 to 2 * nodeCount).map(_.toLong).sum)))
+      spillFiles shouldBe empty
+    }
+
+    test(s"should join more rows than fit in heap in $runtime") {
+      execute("MATCH (n:N) CREATE (:M {y: n.y})-[:R]->(n)")
+
+      val result = execute(s"CYPHER runtime=$runtime MATCH (n:N), (m:M)-[:R]->(n) USING JOIN ON n RETURN n.y AS y, m.y AS z").toList
+
+      result.map(row => (row("y"), row("z"))).toSet should equal((1 to nodeCount).map(i => (i, i)).toSet)
+      result should have size nodeCount
+      spillFiles shouldBe empty
+    }
+
+    test(s"should keep the order of the right hand side of a join of more rows than fit in heap in $runtime") {
+      execute("MATCH (n:N) CREATE (:M {y: n.y})-[:R]->(n)")
+      graph.createIndex("M", "y")
+      graph.withTx( tx => tx.schema().awaitIndexesOnline(1, TimeUnit.MINUTES))
+
+      val result = execute(s"CYPHER runtime=$runtime MATCH (n:N), (m:M)-[:R]->(n) USING JOIN ON n WHERE m.y > 0 RETURN n.y AS y, m.y AS z ORDER BY z")
+
+      result.executionPlanDescription().toString should (include("NodeHashJoin") and not include "Sort")
+      result.toList.map(row => (row("y"), row("z"))) should equal((1 to nodeCount).map(i => (i, i)))
+      spillFiles shouldBe empty
+    }
+
+    test(s"should delete spill files of queries that are not fully consumed in $runtime") {
+      graph.withTx( tx => {
+        val result = tx.execute(s"CYPHER runtime=$runtime MATCH (n:N) RETURN n.y AS y ORDER BY y")
+        result.next().asScala should equal(Map("y" -> 1))
+        result.close()
+      })
+
+      spillFiles shouldBe empty
+    }
+  }
+
+  private def spillFiles: Seq[String] = {
+    val fs = graph.getDependencyResolver.resolveDependency(classOf[FileSystemAbstraction])
+    val directory = graph.getDependencyResolver.resolveDependency(classOf[Config]).get(GraphDatabaseInternalSettings.cypher_spill_directory)
+    if (fs.fileExists(directory)) fs.listFiles(directory).toSeq.map(_.getFileName.toString) else Seq.empty
+  }
+}
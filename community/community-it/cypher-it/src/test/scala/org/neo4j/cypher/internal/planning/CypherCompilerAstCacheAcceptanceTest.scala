@@ -45,6 +45,9 @@ import org.neo4j.cypher.internal.Compiler
 import org.neo4j.cypher.internal.CompilerLibrary
 import org.neo4j.cypher.internal.CypherConfiguration
 import org.neo4j.cypher.internal.CypherCurrentCompiler
+import org.neo4j.cypher.internal.CypherRuntime
+import org.neo4j.cypher.internal.ExecutionPlan
+import org.neo4j.cypher.internal.LogicalQuery
 import org.neo4j.cypher.internal.PreParser
 import org.neo4j.cypher.internal.QueryCache.ParameterTypeMap
 import org.neo4j.cypher.internal.RuntimeContext
@@ -76,6 +79,7 @@ class CypherCompilerAstCacheAcceptanceTest extends CypherFunSuite with GraphData
                             queryPlanTTL: Long = 1000): CypherPlannerConfiguration = {
     CypherPlannerConfiguration(
       queryCacheSize,
+      queryCacheMaxWeight = 0,
       StatsDivergenceCalculator.divergenceNoDecayCalculator(statsDivergenceThreshold, queryPlanTTL),
       useErrorsOverWarnings = false,
       idpMaxTableSize = 128,
@@ -94,7 +98,8 @@ class CypherCompilerAstCacheAcceptanceTest extends CypherFunSuite with GraphData
 
   private def createCompiler(config: CypherPlannerConfiguration,
                              clock: Clock = Clock.systemUTC(),
-                             log: Log = NullLog.getInstance): CypherCurrentCompiler[RuntimeContext] = {
+                             log: Log = NullLog.getInstance,
+                             runtime: CypherRuntime[RuntimeContext] = defaultRuntime): CypherCurrentCompiler[RuntimeContext] = {
     val planner = CypherPlanner(config,
       clock,
       kernelMonitors,
@@ -104,19 +109,32 @@ class CypherCompilerAstCacheAcceptanceTest extends CypherFunSuite with GraphData
       CypherUpdateStrategy.default,
       () => 1,
       compatibilityMode = Compatibility4_2)
-    createCompiler(planner, log)
+    createCompiler(planner, log, runtime)
   }
 
-  private def createCompiler(planner: CypherPlanner, log: Log):
+  private def defaultRuntime: CypherRuntime[RuntimeContext] = CommunityRuntimeFactory.getRuntime(CypherRuntimeOption.default, disallowFallback = true)
+
+  private def createCompiler(planner: CypherPlanner, log: Log, runtime: CypherRuntime[RuntimeContext]):
   CypherCurrentCompiler[RuntimeContext] = {
     CypherCurrentCompiler(
       planner,
-      CommunityRuntimeFactory.getRuntime(CypherRuntimeOption.default, disallowFallback = true),
+      runtime,
       CommunityRuntimeContextManager(log, CypherConfiguration.fromConfig(Config.defaults()).toCypherRuntimeConfiguration),
       kernelMonitors)
 
   }
 
+  class CompilationCountingRuntime(inner: CypherRuntime[RuntimeContext]) extends CypherRuntime[RuntimeContext] {
+    var compilations = 0
+
+    override def compileToExecutable(logicalQuery: LogicalQuery, context: RuntimeContext): ExecutionPlan = {
+      compilations += 1
+      inner.compileToExecutable(logicalQuery, context)
+    }
+
+    override def name: String = inner.name
+  }
+
   class ASTCacheCounter() extends CacheTracer[Pair[AnyRef, ParameterTypeMap]] {
     var counts: CacheCounts = CacheCounts()
     override def queryCacheHit(key: Pair[AnyRef, ParameterTypeMap], metaData: String): Unit = counts = counts.copy(hits = counts.hits + 1)
@@ -128,6 +146,7 @@ class CypherCompilerAstCacheAcceptanceTest extends CypherFunSuite with GraphData
     override def queryCompileWithExpressionCodeGen(queryKey: Pair[AnyRef, ParameterTypeMap],
                                                    metaData: String): Unit = {counts = counts.copy(compilationsWithExpressionCodeGen = counts.compilationsWithExpressionCodeGen + 1)
     }
+    override def queryCompileTime(queryKey: Pair[AnyRef, ParameterTypeMap], compileTimeNanos: Long, metaData: String): Unit = {}
   }
 
   override def databaseConfig(): Map[Setting[_], Object] = super.databaseConfig() ++ Map(GraphDatabaseSettings.cypher_min_replan_interval -> Duration.ZERO)
@@ -225,6 +244,18 @@ class CypherCompilerAstCacheAcceptanceTest extends CypherFunSuite with GraphData
     counter.counts should equal(CacheCounts(hits = 1, misses = 1, flushes = 1, compilations = 1))
   }
 
+  test("should share execution plans between queries that use the same cached plan") {
+    val runtime = new CompilationCountingRuntime(defaultRuntime)
+    compiler = createCompiler(plannerConfig(), runtime = runtime)
+
+    runQuery("return 42 as result")
+    runQuery("return   43 as result")
+    runQuery("CYPHER expressionEngine=compiled return 44 as result")
+
+    counter.counts should equal(CacheCounts(hits = 2, misses = 1, flushes = 1, compilations = 1))
+    runtime.compilations should equal(2)
+  }
+
   test("should monitor cache flushes") {
     runQuery("return 42")
     graph.createUniqueConstraint("Person", "id")
@@ -191,6 +191,35 @@ class LuceneFulltextIndexTest extends LuceneFulltextTestSupport
         }
     }
 
+    @Test
+    void shouldKeepTransactionStateUpToDateBetweenQueriesInSameTransaction() throws Exception
+    {
+        prepareNodeLabelPropIndex();
+
+        try ( Transaction tx = db.beginTx() )
+        {
+            KernelTransaction ktx = kernelTransaction( tx );
+            long firstID = createNodeIndexableByPropertyValue( tx, LABEL, "Hello. Hello again." );
+            long secondID = createNodeIndexableByPropertyValue( tx, LABEL, "A potato farmer." );
+            assertQueryFindsIds( ktx, true, NODE_INDEX_NAME, "hello", firstID );
+            assertQueryFindsIds( ktx, true, NODE_INDEX_NAME, "potato", secondID );
+
+            setNodeProp( tx, firstID, "Finally! Potato!" );
+            long thirdID = createNodeIndexableByPropertyValue( tx, LABEL, "Hello zebra." );
+            assertQueryFindsIds( ktx, true, NODE_INDEX_NAME, "hello", thirdID );
+            assertQueryFindsIds( ktx, true, NODE_INDEX_NAME, "potato", firstID, secondID );
+
+            tx.getNodeById( secondID ).delete();
+            tx.getNodeById( thirdID ).removeLabel( LABEL );
+            assertQueryFindsNothing( ktx, true, NODE_INDEX_NAME, "hello" );
+            assertQueryFindsNothing( ktx, true, NODE_INDEX_NAME, "zebra" );
+            assertQueryFindsIds( ktx, true, NODE_INDEX_NAME, "potato", firstID );
+
+            tx.getNodeById( thirdID ).addLabel( LABEL );
+            assertQueryFindsIds( ktx, true, NODE_INDEX_NAME, "zebra", thirdID );
+        }
+    }
+
     @Test
     void shouldNotFindRemovedProperties() throws Exception
     {
@@ -1182,11 +1182,22 @@ class SchemaAcceptanceTest extends SchemaAcceptanceTestBase
     }
 
     @Test
-    void mustThrowWhenCreatingBtreeIndexWithMoreThanOneLabel()
+    void creatingBtreeIndexOnMultipleLabelsMustBePossible()
     {
         try ( Transaction tx = db.beginTx() )
         {
-            assertThrows( IllegalArgumentException.class, () -> tx.schema().indexFor( label, otherLabel ).on( propertyKey ).create() );
+            IndexDefinition index = tx.schema().indexFor( label, otherLabel ).on( propertyKey ).withName( "index" ).create();
+            assertThat( index.getLabels() ).contains( label, otherLabel );
+            assertTrue( index.isMultiTokenIndex() );
+            tx.commit();
+        }
+        try ( Transaction tx = db.beginTx() )
+        {
+            IndexDefinition index = tx.schema().getIndexByName( "index" );
+            List<String> labelNames = new ArrayList<>();
+            index.getLabels().forEach( label -> labelNames.add( label.name() ) );
+            assertThat( labelNames ).contains( label.name(), otherLabel.name() );
+            assertThat( index.getIndexType() ).isEqualTo( IndexType.BTREE );
             tx.commit();
         }
     }
@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.kernel.api.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntToLongFunction;
+import java.util.function.LongPredicate;
+import java.util.stream.IntStream;
+
+import org.neo4j.exceptions.KernelException;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.internal.kernel.api.NodeCursor;
+import org.neo4j.internal.kernel.api.RelationshipTraversalCursor;
+import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
+import org.neo4j.internal.kernel.api.helpers.BidirectionalShortestPath.PathSteps;
+import org.neo4j.internal.kernel.api.helpers.BidirectionalShortestPath.RelationshipFilter;
+import org.neo4j.internal.kernel.api.security.LoginContext;
+import org.neo4j.kernel.api.Kernel;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.test.extension.DbmsExtension;
+import org.neo4j.test.extension.Inject;
+
+import static java.util.Arrays.stream;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.graphdb.Direction.BOTH;
+import static org.neo4j.graphdb.Direction.INCOMING;
+import static org.neo4j.graphdb.Direction.OUTGOING;
+import static org.neo4j.kernel.api.KernelTransaction.Type.IMPLICIT;
+
+@DbmsExtension
+class BidirectionalShortestPathTest
+{
+    private static final int MAX_DEPTH = 15;
+
+    @Inject
+    private Kernel kernel;
+
+    @Test
+    void shouldFindOneAndAllShortestPathsThroughDiamond() throws KernelException
+    {
+        // given a -> b -> d and a -> c -> d
+        long a, b, c, d, ab, bd, ac, cd;
+        try ( KernelTransaction tx = transaction() )
+        {
+            a = tx.dataWrite().nodeCreate();
+            b = tx.dataWrite().nodeCreate();
+            c = tx.dataWrite().nodeCreate();
+            d = tx.dataWrite().nodeCreate();
+            ab = relate( tx, a, "R", b );
+            bd = relate( tx, b, "R", d );
+            ac = relate( tx, a, "R", c );
+            cd = relate( tx, c, "R", d );
+            relate( tx, a, "R", tx.dataWrite().nodeCreate() );
+            tx.commit();
+        }
+
+        // when
+        List<PathSteps> single = shortestPaths( a, d, OUTGOING, true, MAX_DEPTH, null, null );
+        List<PathSteps> all = shortestPaths( a, d, OUTGOING, false, MAX_DEPTH, null, null );
+
+        // then
+        assertThat( single ).hasSize( 1 );
+        assertPath( single.get( 0 ), a, d, 2 );
+        assertThat( relationshipsOf( all ) ).containsExactlyInAnyOrder( List.of( ab, bd ), List.of( ac, cd ) );
+        assertThat( nodesOf( all ) ).containsExactlyInAnyOrder( List.of( a, b, d ), List.of( a, c, d ) );
+    }
+
+    @Test
+    void shouldRespectDirection() throws KernelException
+    {
+        // given a -> b <- c
+        long a, b, c, ab, cb;
+        try ( KernelTransaction tx = transaction() )
+        {
+            a = tx.dataWrite().nodeCreate();
+            b = tx.dataWrite().nodeCreate();
+            c = tx.dataWrite().nodeCreate();
+            ab = relate( tx, a, "R", b );
+            cb = relate( tx, c, "R", b );
+            tx.commit();
+        }
+
+        // then
+        assertThat( shortestPaths( a, c, OUTGOING, true, MAX_DEPTH, null, null ) ).isEmpty();
+        assertThat( shortestPaths( a, c, INCOMING, true, MAX_DEPTH, null, null ) ).isEmpty();
+        assertThat( shortestPaths( b, a, INCOMING, true, MAX_DEPTH, null, null ) ).hasSize( 1 );
+        List<PathSteps> paths = shortestPaths( a, c, BOTH, true, MAX_DEPTH, null, null );
+        assertThat( relationshipsOf( paths ) ).containsExactly( List.of( ab, cb ) );
+        PathSteps path = paths.get( 0 );
+        assertEquals( a, path.source( 0 ) );
+        assertEquals( b, path.target( 0 ) );
+        assertEquals( c, path.source( 1 ) );
+        assertEquals( b, path.target( 1 ) );
+    }
+
+    @Test
+    void shouldNotFindPathsLongerThanMaxDepth() throws KernelException
+    {
+        // given a chain of 5 relationships
+        long[] chain = new long[6];
+        try ( KernelTransaction tx = transaction() )
+        {
+            chain[0] = tx.dataWrite().nodeCreate();
+            for ( int i = 1; i < chain.length; i++ )
+            {
+                chain[i] = tx.dataWrite().nodeCreate();
+                relate( tx, chain[i - 1], "R", chain[i] );
+            }
+            tx.commit();
+        }
+
+        // then
+        assertThat( shortestPaths( chain[0], chain[5], OUTGOING, true, 4, null, null ) ).isEmpty();
+        List<PathSteps> paths = shortestPaths( chain[0], chain[5], OUTGOING, true, 5, null, null );
+        assertThat( paths ).hasSize( 1 );
+        assertPath( paths.get( 0 ), chain[0], chain[5], 5 );
+        for ( int i = 0; i < chain.length; i++ )
+        {
+            assertEquals( chain[i], paths.get( 0 ).node( i ) );
+        }
+    }
+
+    @Test
+    void shouldFilterRelationshipsAndNodesWhileExpanding() throws KernelException
+    {
+        // given a -> b -> e, a -> c -> d -> e
+        long a, b, c, d, e, ab;
+        try ( KernelTransaction tx = transaction() )
+        {
+            a = tx.dataWrite().nodeCreate();
+            b = tx.dataWrite().nodeCreate();
+            c = tx.dataWrite().nodeCreate();
+            d = tx.dataWrite().nodeCreate();
+            e = tx.dataWrite().nodeCreate();
+            ab = relate( tx, a, "R", b );
+            relate( tx, b, "R", e );
+            relate( tx, a, "R", c );
+            relate( tx, c, "R", d );
+            relate( tx, d, "R", e );
+            tx.commit();
+        }
+
+        // then
+        assertPath( shortestPaths( a, e, OUTGOING, true, MAX_DEPTH, null, null ).get( 0 ), a, e, 2 );
+        RelationshipFilter notAb = ( relationship, type, source, target ) -> relationship != ab;
+        assertPath( shortestPaths( a, e, OUTGOING, true, MAX_DEPTH, null, notAb ).get( 0 ), a, e, 3 );
+        LongPredicate notB = node -> node != b;
+        List<PathSteps> paths = shortestPaths( a, e, OUTGOING, false, MAX_DEPTH, notB, null );
+        assertThat( nodesOf( paths ) ).containsExactly( List.of( a, c, d, e ) );
+        LongPredicate notA = node -> node != a;
+        assertThat( shortestPaths( a, e, OUTGOING, true, MAX_DEPTH, notA, null ) ).isEmpty();
+    }
+
+    @Test
+    void shouldOnlyTraverseGivenTypes() throws KernelException
+    {
+        // given a -A-> b -A-> c and a -B-> c
+        long a, b, c;
+        try ( KernelTransaction tx = transaction() )
+        {
+            a = tx.dataWrite().nodeCreate();
+            b = tx.dataWrite().nodeCreate();
+            c = tx.dataWrite().nodeCreate();
+            relate( tx, a, "A", b );
+            relate( tx, b, "A", c );
+            relate( tx, a, "B", c );
+            tx.commit();
+        }
+
+        // then
+        assertPath( shortestPaths( a, c, OUTGOING, true, MAX_DEPTH, null, null ).get( 0 ), a, c, 1 );
+        assertPath( shortestPaths( a, c, OUTGOING, true, MAX_DEPTH, null, null, "A" ).get( 0 ), a, c, 2 );
+        assertThat( shortestPaths( a, c, OUTGOING, true, MAX_DEPTH, null, null, "C" ) ).isEmpty();
+    }
+
+    @Test
+    void shouldFindZeroLengthPathFromNodeToItself() throws KernelException
+    {
+        long a;
+        try ( KernelTransaction tx = transaction() )
+        {
+            a = tx.dataWrite().nodeCreate();
+            tx.commit();
+        }
+
+        List<PathSteps> paths = shortestPaths( a, a, OUTGOING, true, MAX_DEPTH, null, null );
+        assertThat( paths ).hasSize( 1 );
+        assertPath( paths.get( 0 ), a, a, 0 );
+    }
+
+    @Test
+    void shouldFindAllPathsThroughWideLayers() throws KernelException
+    {
+        // given start connected to end through every pair of a layer of 10 and a layer of 3 nodes
+        int width = 10;
+        int narrow = 3;
+        long start, end;
+        try ( KernelTransaction tx = transaction() )
+        {
+            start = tx.dataWrite().nodeCreate();
+            end = tx.dataWrite().nodeCreate();
+            long[] middle = new long[narrow];
+            for ( int i = 0; i < narrow; i++ )
+            {
+                middle[i] = tx.dataWrite().nodeCreate();
+                relate( tx, middle[i], "R", end );
+            }
+            for ( int i = 0; i < width; i++ )
+            {
+                long node = tx.dataWrite().nodeCreate();
+                relate( tx, start, "R", node );
+                for ( long m : middle )
+                {
+                    relate( tx, node, "R", m );
+                }
+            }
+            tx.commit();
+        }
+
+        // when
+        List<PathSteps> paths = shortestPaths( start, end, OUTGOING, false, MAX_DEPTH, null, null );
+
+        // then
+        assertThat( paths ).hasSize( width * narrow );
+        Set<List<Long>> distinct = new HashSet<>( relationshipsOf( paths ) );
+        assertThat( distinct ).hasSize( width * narrow );
+        for ( PathSteps path : paths )
+        {
+            assertPath( path, start, end, 3 );
+        }
+    }
+
+    private static void assertPath( PathSteps path, long start, long end, int length )
+    {
+        assertEquals( length, path.length() );
+        assertEquals( start, path.node( 0 ) );
+        assertEquals( end, path.node( length ) );
+        for ( int i = 0; i < length; i++ )
+        {
+            long from = path.node( i );
+            long to = path.node( i + 1 );
+            boolean forward = path.source( i ) == from && path.target( i ) == to;
+            boolean backward = path.source( i ) == to && path.target( i ) == from;
+            assertThat( forward || backward ).as( "relationship %d connects %d and %d", i, from, to ).isTrue();
+        }
+    }
+
+    private static List<List<Long>> relationshipsOf( List<PathSteps> paths )
+    {
+        return paths.stream().map( path -> stepsOf( path.length(), path::relationship ) ).collect( toList() );
+    }
+
+    private static List<List<Long>> nodesOf( List<PathSteps> paths )
+    {
+        return paths.stream().map( path -> stepsOf( path.length() + 1, path::node ) ).collect( toList() );
+    }
+
+    private static List<Long> stepsOf( int count, IntToLongFunction step )
+    {
+        return IntStream.range( 0, count ).mapToLong( step ).boxed().collect( toList() );
+    }
+
+    private List<PathSteps> shortestPaths( long start, long end, Direction direction, boolean single, int maxDepth, LongPredicate nodeFilter,
+            RelationshipFilter relationshipFilter, String... types ) throws TransactionFailureException
+    {
+        try ( KernelTransaction tx = transaction();
+              NodeCursor nodeCursor = tx.cursors().allocateNodeCursor( tx.pageCursorTracer() );
+              RelationshipTraversalCursor traversalCursor = tx.cursors().allocateRelationshipTraversalCursor( tx.pageCursorTracer() ) )
+        {
+            int[] typeIds = types.length == 0 ? null : stream( types ).mapToInt( tx.tokenRead()::relationshipType ).toArray();
+            BidirectionalShortestPath shortestPath = new BidirectionalShortestPath( tx.dataRead(), nodeCursor, traversalCursor, typeIds, direction,
+                    nodeFilter, relationshipFilter, maxDepth, EmptyMemoryTracker.INSTANCE );
+            return shortestPath.find( start, end, single );
+        }
+    }
+
+    private KernelTransaction transaction() throws TransactionFailureException
+    {
+        return kernel.beginTransaction( IMPLICIT, LoginContext.AUTH_DISABLED );
+    }
+
+    private static long relate( KernelTransaction tx, long start, String rel, long end ) throws KernelException
+    {
+        return tx.dataWrite().relationshipCreate( start, tx.tokenWrite().relationshipTypeGetOrCreateForName( rel ), end );
+    }
+}
@@ -38,6 +38,7 @@ import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.exceptions.KernelException;
 import org.neo4j.graphdb.Label;
@@ -52,6 +53,8 @@ import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.internal.schema.LabelSchemaDescriptor;
 import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.api.index.IndexSketch;
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingMode;
 import org.neo4j.kernel.impl.api.index.stats.IndexStatisticsStore;
 import org.neo4j.kernel.impl.coreapi.InternalTransaction;
 import org.neo4j.monitoring.Monitors;
@@ -67,6 +70,8 @@ import static java.lang.Math.toIntExact;
 import static java.lang.String.format;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.neo4j.internal.helpers.collection.Iterables.filter;
@@ -100,6 +105,7 @@ public class IndexStatisticsTest
     @Rule
     public final DbmsRule db = new EmbeddedDbmsRule()
             .withSetting( GraphDatabaseSettings.index_background_sampling_enabled, false )
+            .withSetting( GraphDatabaseInternalSettings.index_sampling_incremental, true )
             .startLazily();
     @Rule
     public final RandomRule random = new RandomRule();
@@ -196,6 +202,31 @@ public class IndexStatisticsTest
         assertEquals( 4L, indexUpdates( index ) );
     }
 
+    @Test
+    public void shouldResampleIndexFromSketchAfterFirstFullSample() throws KernelException
+    {
+        // given
+        indexOnlineMonitor.initialize( 0 );
+        createSomePersons();
+        IndexDescriptor index = createPersonNameIndex();
+        awaitIndexesOnline();
+        createSomePersons();
+        resampleOutdatedIndexes();
+        IndexSketch sketch = getIndexingStatisticsStore().sketch( index.getId() );
+        assertNotNull( sketch );
+
+        // when
+        createSomePersons();
+        resampleOutdatedIndexes();
+
+        // then
+        assertSame( sketch, getIndexingStatisticsStore().sketch( index.getId() ) );
+        assertEquals( 12L, sketch.entries() );
+        assertEquals( 0.25d, indexSelectivity( index ), 0d );
+        assertEquals( 12L, indexSize( index ) );
+        assertEquals( 0L, indexUpdates( index ) );
+    }
+
     @Test
     public void shouldRemoveIndexStatisticsAfterIndexIsDeleted() throws KernelException
     {
@@ -557,6 +588,11 @@ public class IndexStatisticsTest
         return ((InternalTransaction) tx).kernelTransaction().schemaRead().indexUniqueValuesSelectivity( reference );
     }
 
+    private void resampleOutdatedIndexes()
+    {
+        resolveDependency( IndexingService.class ).triggerIndexSampling( IndexSamplingMode.foregroundRebuildUpdated( TimeUnit.MINUTES.toMillis( 1 ) ) );
+    }
+
     private IndexStatisticsStore getIndexingStatisticsStore()
     {
         return resolveDependency( IndexStatisticsStore.class );
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.exceptions.KernelException;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.internal.kernel.api.IndexQuery;
+import org.neo4j.internal.kernel.api.IndexReadSession;
+import org.neo4j.internal.kernel.api.NodeValueIndexCursor;
+import org.neo4j.internal.kernel.api.TokenWrite;
+import org.neo4j.internal.schema.IndexConfig;
+import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.internal.schema.IndexPrototype;
+import org.neo4j.internal.schema.SchemaDescriptor;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.impl.coreapi.InternalTransaction;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.graphdb.Label.label;
+import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unorderedValues;
+import static org.neo4j.internal.schema.IncludedProperties.withIncludedProperties;
+import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+
+public class IndexIncludedValuesNativeBTree10Test extends KernelAPIReadTestBase<ReadTestSupport>
+{
+    private static final String LONG_NAME = StringUtils.repeat( 'x', 10_000 );
+
+    private IndexDescriptor index;
+    private int email;
+    private int name;
+    private long alice;
+    private long bob;
+    private long dan;
+
+    @Override
+    public ReadTestSupport newTestSupport()
+    {
+        ReadTestSupport readTestSupport = new ReadTestSupport();
+        readTestSupport.addSetting( GraphDatabaseSettings.default_schema_provider, GraphDatabaseSettings.SchemaIndex.NATIVE_BTREE10.providerName() );
+        return readTestSupport;
+    }
+
+    @Override
+    public void createTestGraph( GraphDatabaseService graphDb )
+    {
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            KernelTransaction ktx = ((InternalTransaction) tx).kernelTransaction();
+            TokenWrite tokenWrite = ktx.tokenWrite();
+            int person = tokenWrite.labelGetOrCreateForName( "Person" );
+            email = tokenWrite.propertyKeyGetOrCreateForName( "email" );
+            name = tokenWrite.propertyKeyGetOrCreateForName( "name" );
+            IndexConfig config = withIncludedProperties( IndexConfig.empty(), name );
+            index = ktx.schemaWrite().indexCreate( IndexPrototype.forSchema( SchemaDescriptor.forLabel( person, email ) )
+                    .withName( "email" ).withIndexConfig( config ) );
+            tx.commit();
+        }
+        catch ( KernelException e )
+        {
+            throw new AssertionError( e );
+        }
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            tx.schema().awaitIndexesOnline( 5, MINUTES );
+            tx.commit();
+        }
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            Node node = tx.createNode( label( "Person" ) );
+            node.setProperty( "email", "alice@example.com" );
+            node.setProperty( "name", "Al" );
+            alice = node.getId();
+            node = tx.createNode( label( "Person" ) );
+            node.setProperty( "email", "bob@example.com" );
+            bob = node.getId();
+            node = tx.createNode( label( "Person" ) );
+            node.setProperty( "email", "carol@example.com" );
+            node.setProperty( "name", LONG_NAME );
+            node = tx.createNode( label( "Person" ) );
+            node.setProperty( "email", "dan@example.com" );
+            node.setProperty( "name", "Dan" );
+            dan = node.getId();
+            tx.commit();
+        }
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            // Only the included property changes, the indexed one stays the same
+            tx.getNodeById( alice ).setProperty( "name", "Alice" );
+            tx.commit();
+        }
+    }
+
+    @Test
+    void shouldGetIncludedValueFromIndex() throws Exception
+    {
+        assertIncludedValue( "alice@example.com", alice, Values.stringValue( "Alice" ) );
+    }
+
+    @Test
+    void shouldGetNoValueForMissingIncludedProperty() throws Exception
+    {
+        assertIncludedValue( "bob@example.com", bob, Values.NO_VALUE );
+    }
+
+    @Test
+    void shouldGetIncludedValueTooLargeForIndexFromStore() throws Exception
+    {
+        try ( NodeValueIndexCursor cursor = seek( "carol@example.com" ) )
+        {
+            assertTrue( cursor.next() );
+            assertEquals( Values.stringValue( LONG_NAME ), cursor.includedPropertyValue( 0 ) );
+        }
+    }
+
+    @Test
+    void shouldGetIncludedValueChangedInTransaction() throws Exception
+    {
+        // given
+        tx.dataWrite().nodeSetProperty( dan, name, Values.stringValue( "Daniel" ) );
+
+        // then
+        assertIncludedValue( "dan@example.com", dan, Values.stringValue( "Daniel" ) );
+    }
+
+    @Test
+    void shouldGetIncludedValueOfNodeAddedInTransaction() throws Exception
+    {
+        // given
+        long erin = tx.dataWrite().nodeCreate();
+        tx.dataWrite().nodeAddLabel( erin, index.schema().getEntityTokenIds()[0] );
+        tx.dataWrite().nodeSetProperty( erin, email, Values.stringValue( "erin@example.com" ) );
+        tx.dataWrite().nodeSetProperty( erin, name, Values.stringValue( "Erin" ) );
+
+        // then
+        assertIncludedValue( "erin@example.com", erin, Values.stringValue( "Erin" ) );
+    }
+
+    private void assertIncludedValue( String emailValue, long expectedNode, Value expectedName ) throws Exception
+    {
+        try ( NodeValueIndexCursor cursor = seek( emailValue ) )
+        {
+            assertTrue( cursor.next() );
+            assertEquals( expectedNode, cursor.nodeReference() );
+            assertEquals( 1, cursor.numberOfProperties() );
+            assertEquals( 1, cursor.numberOfIncludedProperties() );
+            assertEquals( name, cursor.includedPropertyKey( 0 ) );
+            assertEquals( Values.stringValue( emailValue ), cursor.propertyValue( 0 ) );
+            assertEquals( expectedName, cursor.includedPropertyValue( 0 ) );
+            assertFalse( cursor.next() );
+        }
+    }
+
+    private NodeValueIndexCursor seek( String emailValue ) throws Exception
+    {
+        IndexReadSession session = read.indexReadSession( index );
+        NodeValueIndexCursor cursor = cursors.allocateNodeValueIndexCursor( NULL, EmptyMemoryTracker.INSTANCE );
+        read.nodeIndexSeek( session, cursor, unorderedValues(), IndexQuery.exact( email, emailValue ) );
+        return cursor;
+    }
+}
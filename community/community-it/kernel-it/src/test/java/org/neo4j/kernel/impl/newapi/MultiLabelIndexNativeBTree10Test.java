@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.exceptions.KernelException;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.internal.kernel.api.IndexQuery;
+import org.neo4j.internal.kernel.api.IndexReadSession;
+import org.neo4j.internal.kernel.api.NodeValueIndexCursor;
+import org.neo4j.internal.kernel.api.TokenWrite;
+import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.internal.schema.IndexPrototype;
+import org.neo4j.internal.schema.SchemaDescriptor;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.impl.coreapi.InternalTransaction;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.values.storable.Values;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.graphdb.Label.label;
+import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unconstrained;
+import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+
+public class MultiLabelIndexNativeBTree10Test extends KernelAPIReadTestBase<ReadTestSupport>
+{
+    private static final Label CUSTOMER = label( "Customer" );
+    private static final Label SUPPLIER = label( "Supplier" );
+    private static final Label PARTNER = label( "Partner" );
+
+    private IndexDescriptor index;
+    private int customer;
+    private int supplier;
+    private int partner;
+    private int externalId;
+    private long acme;
+    private long bolt;
+    private long corp;
+    private long erie;
+    private long fox;
+    private long gulf;
+    private long ivan;
+    private long jack;
+    private long kate;
+
+    @Override
+    public ReadTestSupport newTestSupport()
+    {
+        ReadTestSupport readTestSupport = new ReadTestSupport();
+        readTestSupport.addSetting( GraphDatabaseSettings.default_schema_provider, GraphDatabaseSettings.SchemaIndex.NATIVE_BTREE10.providerName() );
+        return readTestSupport;
+    }
+
+    @Override
+    public void createTestGraph( GraphDatabaseService graphDb )
+    {
+        // Nodes created before the index are added by index population
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            acme = createNode( tx, 1, CUSTOMER );
+            bolt = createNode( tx, 2, SUPPLIER );
+            corp = createNode( tx, 3, CUSTOMER, SUPPLIER );
+            createNode( tx, 4, PARTNER );
+            ivan = createNode( tx, 9, CUSTOMER, SUPPLIER );
+            jack = createNode( tx, 10, CUSTOMER );
+            kate = createNode( tx, 11, SUPPLIER );
+            tx.commit();
+        }
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            KernelTransaction ktx = ((InternalTransaction) tx).kernelTransaction();
+            TokenWrite tokenWrite = ktx.tokenWrite();
+            customer = tokenWrite.labelGetOrCreateForName( "Customer" );
+            supplier = tokenWrite.labelGetOrCreateForName( "Supplier" );
+            partner = tokenWrite.labelGetOrCreateForName( "Partner" );
+            externalId = tokenWrite.propertyKeyGetOrCreateForName( "externalId" );
+            SchemaDescriptor schema = SchemaDescriptor.forAnyLabel( new int[]{supplier, customer}, externalId );
+            index = ktx.schemaWrite().indexCreate( IndexPrototype.forSchema( schema ).withName( "external id" ) );
+            tx.commit();
+        }
+        catch ( KernelException e )
+        {
+            throw new AssertionError( e );
+        }
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            tx.schema().awaitIndexesOnline( 5, MINUTES );
+            tx.commit();
+        }
+        // Nodes created and changed after the index are added and removed by index updates
+        long hull;
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            erie = createNode( tx, 5, CUSTOMER, SUPPLIER );
+            fox = createNode( tx, 6, CUSTOMER );
+            gulf = createNode( tx, 7, CUSTOMER, SUPPLIER );
+            hull = createNode( tx, 8, CUSTOMER );
+            tx.commit();
+        }
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            tx.getNodeById( fox ).addLabel( SUPPLIER );
+            tx.getNodeById( gulf ).removeLabel( CUSTOMER );
+            tx.getNodeById( hull ).removeLabel( CUSTOMER );
+            tx.commit();
+        }
+    }
+
+    @Test
+    void shouldContainPopulatedNodesWithAnyOfTheLabelsOnce() throws Exception
+    {
+        assertEquals( List.of( acme ), seek( 1 ) );
+        assertEquals( List.of( bolt ), seek( 2 ) );
+        assertEquals( List.of( corp ), seek( 3 ) );
+        assertEquals( List.of(), seek( 4 ) );
+    }
+
+    @Test
+    void shouldContainUpdatedNodesWithAnyOfTheLabelsOnce() throws Exception
+    {
+        assertEquals( List.of( erie ), seek( 5 ) );
+        assertEquals( List.of( fox ), seek( 6 ) );
+        assertEquals( List.of( gulf ), seek( 7 ) );
+        assertEquals( List.of(), seek( 8 ) );
+    }
+
+    @Test
+    void shouldSeeNodeKeepingOtherLabelInTransaction() throws Exception
+    {
+        // given
+        tx.dataWrite().nodeRemoveLabel( ivan, supplier );
+
+        // then
+        assertEquals( List.of( ivan ), seek( 9 ) );
+    }
+
+    @Test
+    void shouldNotSeeNodeLosingLastLabelInTransaction() throws Exception
+    {
+        // given
+        tx.dataWrite().nodeRemoveLabel( jack, customer );
+
+        // then
+        assertEquals( List.of(), seek( 10 ) );
+    }
+
+    @Test
+    void shouldSeeNodeGainingAnotherLabelOnceInTransaction() throws Exception
+    {
+        // given
+        tx.dataWrite().nodeAddLabel( kate, customer );
+
+        // then
+        assertEquals( List.of( kate ), seek( 11 ) );
+    }
+
+    @Test
+    void shouldSeeNodesAddedInTransactionOnce() throws Exception
+    {
+        // given
+        long lime = createNode( 12, customer, supplier );
+        createNode( 13, partner );
+
+        // then
+        assertEquals( List.of( lime ), seek( 12 ) );
+        assertEquals( List.of(), seek( 13 ) );
+    }
+
+    private static long createNode( Transaction tx, int externalIdValue, Label... labels )
+    {
+        Node node = tx.createNode( labels );
+        node.setProperty( "externalId", externalIdValue );
+        return node.getId();
+    }
+
+    private long createNode( int externalIdValue, int... labels ) throws KernelException
+    {
+        long node = tx.dataWrite().nodeCreate();
+        for ( int label : labels )
+        {
+            tx.dataWrite().nodeAddLabel( node, label );
+        }
+        tx.dataWrite().nodeSetProperty( node, externalId, Values.intValue( externalIdValue ) );
+        return node;
+    }
+
+    private List<Long> seek( int externalIdValue ) throws KernelException
+    {
+        IndexReadSession session = read.indexReadSession( index );
+        List<Long> nodes = new ArrayList<>();
+        try ( NodeValueIndexCursor cursor = cursors.allocateNodeValueIndexCursor( NULL, EmptyMemoryTracker.INSTANCE ) )
+        {
+            read.nodeIndexSeek( session, cursor, unconstrained(), IndexQuery.exact( externalId, externalIdValue ) );
+            while ( cursor.next() )
+            {
+                nodes.add( cursor.nodeReference() );
+            }
+        }
+        return nodes;
+    }
+}
@@ -25,7 +25,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
@@ -45,6 +47,9 @@ import org.neo4j.values.storable.Values;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unordered;
+import static org.neo4j.values.storable.CoordinateReferenceSystem.Cartesian;
+import static org.neo4j.values.storable.CoordinateReferenceSystem.WGS84;
+import static org.neo4j.values.storable.Values.pointValue;
 import static org.neo4j.values.storable.Values.stringValue;
 
 
@@ -311,6 +316,53 @@ public abstract class NodeIndexTransactionStateTestBase<G extends KernelAPIWrite
         }
     }
 
+    @Test
+    void shouldMergeTransactionStateIntoNearestNeighboursInDistanceOrder() throws Exception
+    {
+        // given
+        long first;
+        long third;
+        long deleted;
+        long moved;
+        try ( KernelTransaction tx = beginTransaction() )
+        {
+            first = nodeWithPropId( tx, pointValue( Cartesian, 1, 0 ) );
+            third = nodeWithPropId( tx, pointValue( Cartesian, 3, 0 ) );
+            deleted = nodeWithPropId( tx, pointValue( Cartesian, 5, 0 ) );
+            moved = nodeWithPropId( tx, pointValue( Cartesian, 7, 0 ) );
+            tx.commit();
+        }
+
+        createIndex();
+
+        // when
+        try ( KernelTransaction tx = beginTransaction() )
+        {
+            int prop = tx.tokenRead().propertyKey( "prop" );
+            long second = nodeWithPropId( tx, pointValue( Cartesian, 2, 0 ) );
+            long fifth = nodeWithPropId( tx, pointValue( Cartesian, 6, 0 ) );
+            nodeWithPropId( tx, pointValue( WGS84, 0, 0 ) );
+            tx.dataWrite().nodeDelete( deleted );
+            tx.dataWrite().nodeSetProperty( moved, prop, pointValue( Cartesian, 4, 0 ) );
+            IndexDescriptor index = tx.schemaRead().indexGetForName( indexName );
+
+            List<Long> found = new ArrayList<>();
+            try ( NodeValueIndexCursor nodes = tx.cursors().allocateNodeValueIndexCursor( tx.pageCursorTracer(), tx.memoryTracker() ) )
+            {
+                IndexReadSession indexSession = tx.dataRead().indexReadSession( index );
+                tx.dataRead().nodeIndexSeek( indexSession, nodes, unordered( false ),
+                        IndexQuery.nearestNeighbours( prop, pointValue( Cartesian, 0, 0 ) ) );
+                while ( nodes.next() )
+                {
+                    found.add( nodes.nodeReference() );
+                }
+            }
+
+            // then
+            assertThat( found ).containsExactly( first, second, third, moved, fifth );
+        }
+    }
+
     @Test
     void shouldThrowIfTransactionTerminated() throws Exception
     {
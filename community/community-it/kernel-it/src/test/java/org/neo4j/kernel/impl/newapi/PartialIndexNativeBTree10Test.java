@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.exceptions.KernelException;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.internal.kernel.api.IndexQuery;
+import org.neo4j.internal.kernel.api.IndexReadSession;
+import org.neo4j.internal.kernel.api.NodeValueIndexCursor;
+import org.neo4j.internal.kernel.api.TokenWrite;
+import org.neo4j.internal.schema.IndexConfig;
+import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.internal.schema.IndexPrototype;
+import org.neo4j.internal.schema.SchemaDescriptor;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.impl.coreapi.InternalTransaction;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.values.storable.Values;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.graphdb.Label.label;
+import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unorderedValues;
+import static org.neo4j.internal.schema.IndexFilter.withFilter;
+import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+
+public class PartialIndexNativeBTree10Test extends KernelAPIReadTestBase<ReadTestSupport>
+{
+    private IndexDescriptor index;
+    private int person;
+    private int email;
+    private int status;
+    private long alice;
+    private long dan;
+    private long erin;
+    private long henry;
+    private long ivan;
+
+    @Override
+    public ReadTestSupport newTestSupport()
+    {
+        ReadTestSupport readTestSupport = new ReadTestSupport();
+        readTestSupport.addSetting( GraphDatabaseSettings.default_schema_provider, GraphDatabaseSettings.SchemaIndex.NATIVE_BTREE10.providerName() );
+        return readTestSupport;
+    }
+
+    @Override
+    public void createTestGraph( GraphDatabaseService graphDb )
+    {
+        // Nodes created before the index are added by index population
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            alice = createPerson( tx, "alice@example.com", "active" );
+            createPerson( tx, "bob@example.com", "inactive" );
+            createPerson( tx, "carol@example.com", null );
+            henry = createPerson( tx, "henry@example.com", "active" );
+            ivan = createPerson( tx, "ivan@example.com", "inactive" );
+            tx.commit();
+        }
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            KernelTransaction ktx = ((InternalTransaction) tx).kernelTransaction();
+            TokenWrite tokenWrite = ktx.tokenWrite();
+            person = tokenWrite.labelGetOrCreateForName( "Person" );
+            email = tokenWrite.propertyKeyGetOrCreateForName( "email" );
+            status = tokenWrite.propertyKeyGetOrCreateForName( "status" );
+            IndexConfig config = withFilter( IndexConfig.empty(), status, Values.stringValue( "active" ) );
+            index = ktx.schemaWrite().indexCreate( IndexPrototype.forSchema( SchemaDescriptor.forLabel( person, email ) )
+                    .withName( "active email" ).withIndexConfig( config ) );
+            tx.commit();
+        }
+        catch ( KernelException e )
+        {
+            throw new AssertionError( e );
+        }
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            tx.schema().awaitIndexesOnline( 5, MINUTES );
+            tx.commit();
+        }
+        // Nodes created and changed after the index are added and removed by index updates
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            dan = createPerson( tx, "dan@example.com", "active" );
+            erin = createPerson( tx, "erin@example.com", "inactive" );
+            tx.commit();
+        }
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            tx.getNodeById( dan ).setProperty( "status", "inactive" );
+            tx.getNodeById( erin ).setProperty( "status", "active" );
+            tx.commit();
+        }
+    }
+
+    @Test
+    void shouldOnlyContainPopulatedNodesAcceptedByFilter() throws Exception
+    {
+        assertEquals( Set.of( alice ), seek( "alice@example.com" ) );
+        assertEquals( Set.of(), seek( "bob@example.com" ) );
+        assertEquals( Set.of(), seek( "carol@example.com" ) );
+    }
+
+    @Test
+    void shouldOnlyContainUpdatedNodesAcceptedByFilter() throws Exception
+    {
+        assertEquals( Set.of(), seek( "dan@example.com" ) );
+        assertEquals( Set.of( erin ), seek( "erin@example.com" ) );
+    }
+
+    @Test
+    void shouldSeeNodeStartingToMatchFilterInTransaction() throws Exception
+    {
+        // given
+        tx.dataWrite().nodeSetProperty( ivan, status, Values.stringValue( "active" ) );
+
+        // then
+        assertEquals( Set.of( ivan ), seek( "ivan@example.com" ) );
+    }
+
+    @Test
+    void shouldNotSeeNodeStoppingToMatchFilterInTransaction() throws Exception
+    {
+        // given
+        tx.dataWrite().nodeRemoveProperty( henry, status );
+
+        // then
+        assertEquals( Set.of(), seek( "henry@example.com" ) );
+    }
+
+    @Test
+    void shouldOnlySeeNodesAddedInTransactionThatMatchFilter() throws Exception
+    {
+        // given
+        long frank = createPerson( "frank@example.com", "active" );
+        createPerson( "gina@example.com", "inactive" );
+
+        // then
+        assertEquals( Set.of( frank ), seek( "frank@example.com" ) );
+        assertEquals( Set.of(), seek( "gina@example.com" ) );
+    }
+
+    private static long createPerson( Transaction tx, String emailValue, String statusValue )
+    {
+        Node node = tx.createNode( label( "Person" ) );
+        node.setProperty( "email", emailValue );
+        if ( statusValue != null )
+        {
+            node.setProperty( "status", statusValue );
+        }
+        return node.getId();
+    }
+
+    private long createPerson( String emailValue, String statusValue ) throws KernelException
+    {
+        long node = tx.dataWrite().nodeCreate();
+        tx.dataWrite().nodeAddLabel( node, person );
+        tx.dataWrite().nodeSetProperty( node, email, Values.stringValue( emailValue ) );
+        tx.dataWrite().nodeSetProperty( node, status, Values.stringValue( statusValue ) );
+        return node;
+    }
+
+    private Set<Long> seek( String emailValue ) throws KernelException
+    {
+        IndexReadSession session = read.indexReadSession( index );
+        Set<Long> nodes = new HashSet<>();
+        try ( NodeValueIndexCursor cursor = cursors.allocateNodeValueIndexCursor( NULL, EmptyMemoryTracker.INSTANCE ) )
+        {
+            read.nodeIndexSeek( session, cursor, unorderedValues(), IndexQuery.exact( email, emailValue ) );
+            while ( cursor.next() )
+            {
+                nodes.add( cursor.nodeReference() );
+            }
+        }
+        return nodes;
+    }
+}
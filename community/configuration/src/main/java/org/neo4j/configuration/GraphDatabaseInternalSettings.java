@@ -206,6 +206,40 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
                   " for every physical core in the system. If set to -1, no workers will be started and the parallel runtime cannot be used." )
     public static final Setting<Integer> cypher_worker_count = newBuilder( "unsupported.cypher.number_of_workers", INT, 0 ).build();
 
+    @Internal
+    @Description( "Number of workers that may scan and aggregate in parallel, for read-only queries in the interpreted and slotted runtimes " +
+                  "which aggregate directly over a, possibly filtered, node scan. If set to 0 or 1, such queries are executed on the calling thread only." )
+    public static final Setting<Integer> cypher_parallel_aggregation_workers =
+            newBuilder( "unsupported.cypher.parallel_aggregation_workers", INT, 0 ).addConstraint( min( 0 ) ).build();
+
+    @Internal
+    @Description( "Number of workers that may parse the file of a LOAD CSV in parallel. If set to 1 or more, the file is read and parsed " +
+                  "in chunks on background threads while the query consumes the rows in file order. If set to 0, the file is read and " +
+                  "parsed on the calling thread as rows are needed." )
+    public static final Setting<Integer> cypher_load_csv_parsing_workers =
+            newBuilder( "unsupported.cypher.load_csv_parsing_workers", INT, 0 ).addConstraint( min( 0 ) ).build();
+
+    @Internal
+    @Description( "The maximum total weight of the plans in each of the query caches of a database, where the weight of a plan is the " +
+                  "number of operators and expressions in it. Large plans then take up more of the cache than small ones. " +
+                  "If set to 0, the caches are bounded by the number of plans given by dbms.query_cache_size instead." )
+    public static final Setting<Long> cypher_query_cache_max_weight =
+            newBuilder( "unsupported.cypher.query_cache_max_weight", LONG, 0L ).addConstraint( min( 0L ) ).build();
+
+    @Internal
+    @Description( "Estimated heap usage of the rows buffered by a sort, distinct, eager or eager aggregation in the interpreted and slotted " +
+                  "runtimes above which the operator spills rows to disk. If set to 0, all rows are kept in heap." )
+    public static final Setting<Long> cypher_spill_threshold =
+            newBuilder( "unsupported.cypher.spill_threshold", BYTES, 0L ).addConstraint( min( 0L ) ).build();
+
+    @Internal
+    @Description( "Directory where operators of the interpreted and slotted runtimes spill rows, see unsupported.cypher.spill_threshold." )
+    public static final Setting<Path> cypher_spill_directory =
+            newBuilder( "unsupported.cypher.spill_directory", PATH, Path.of( "cypher-spill" ) )
+                    .setDependency( GraphDatabaseSettings.data_directory )
+                    .immutable()
+                    .build();
+
     public enum CypherOperatorEngine
     {
         COMPILED,
@@ -307,6 +341,14 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
     public static final Setting<Duration> counts_store_rotation_timeout =
             newBuilder( "unsupported.dbms.counts_store_rotation_timeout", DURATION, ofMinutes( 10 ) ).build();
 
+    @Internal
+    @Description( "Resample native indexes from sketches that are kept up to date with index updates, rather than scanning the whole index. " +
+            "An index is still scanned when it is first sampled after startup, and when so many entries have been removed from it since " +
+            "it was last scanned that the sketch can't be trusted, see dbms.index_sampling.update_percentage. " +
+            "The sketch of a single property index keeps a sample of a few thousand of its values on heap." )
+    public static final Setting<Boolean> index_sampling_incremental =
+            newBuilder( "unsupported.dbms.index_sampling.incremental", BOOL, false ).build();
+
     @Internal
     @Description( "Set the maximum number of threads that can concurrently be used to sample indexes. Zero means unrestricted." )
     public static final Setting<Integer> index_sampling_parallelism =
@@ -381,6 +423,17 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
     public static final Setting<Integer> label_block_size =
             newBuilder( "unsupported.dbms.block_size.labels", INT, 0 ).addConstraint( min( 0 ) ).build();
 
+    @Internal
+    @Description( "Maximum amount of heap, in bytes, used to cache the relationships of dense nodes with a large degree, " +
+            "so that traversals from such nodes don't need to walk their relationship chains in the store. Zero disables the cache." )
+    public static final Setting<Long> dense_node_adjacency_cache_size =
+            newBuilder( "unsupported.dbms.dense_node_adjacency_cache.size", BYTES, 0L ).build();
+
+    @Internal
+    @Description( "Minimum number of relationships a dense node must have for its relationships to be kept in the dense node adjacency cache." )
+    public static final Setting<Integer> dense_node_adjacency_cache_min_degree =
+            newBuilder( "unsupported.dbms.dense_node_adjacency_cache.min_degree", INT, 10_000 ).addConstraint( min( 1 ) ).build();
+
     @Internal
     @Description( "An identifier that uniquely identifies this graph database instance within this JVM. " +
             "Defaults to an auto-generated number depending on how many instance are started in this JVM." )
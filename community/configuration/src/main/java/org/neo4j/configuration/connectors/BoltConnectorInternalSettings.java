@@ -30,6 +30,7 @@ import org.neo4j.io.ByteUnit;
 
 import static java.time.Duration.ofMinutes;
 import static java.time.Duration.ofSeconds;
+import static org.neo4j.configuration.SettingConstraints.min;
 import static org.neo4j.configuration.SettingImpl.newBuilder;
 import static org.neo4j.configuration.SettingValueParsers.BYTES;
 import static org.neo4j.configuration.SettingValueParsers.DURATION;
@@ -43,6 +44,22 @@ public final class BoltConnectorInternalSettings implements SettingsDeclaration
     public static final Setting<Integer> unsupported_thread_pool_queue_size =
             newBuilder( "dbms.connector.bolt.unsupported_thread_pool_queue_size", INT, 0 ).build();
 
+    @Internal
+    @Description( "Number of threads in a fixed size thread pool that all bolt connections of this connector share. " +
+                  "When set, jobs are queued instead of rejected when all threads are busy and inbound messages are throttled per connection. " +
+                  "Connections still keep their thread while they have an open transaction or statement, " +
+                  "and jobs of other connections are rejected when all threads are kept like that. " +
+                  "Zero uses the thread pool configured by the dbms.connector.bolt.thread_pool_* settings." )
+    public static final Setting<Integer> unsupported_carrier_thread_pool_size =
+            newBuilder( "dbms.connector.bolt.unsupported_carrier_thread_pool_size", INT, 0 ).addConstraint( min( 0 ) ).build();
+
+    @Internal
+    @Description( "Maximum number of records of a partially pulled result that are fetched from the query ahead of the next PULL, " +
+                  "while the connection waits for the client to read the previous batch. No more records than the previous PULL asked for " +
+                  "are fetched, and they are accounted for in the memory of the transaction. Zero turns off prefetching." )
+    public static final Setting<Integer> unsupported_result_prefetch_size =
+            newBuilder( "dbms.connector.bolt.unsupported_result_prefetch_size", INT, 0 ).addConstraint( min( 0 ) ).build();
+
     @Internal
     @Description( "The maximum time to wait before sending a NOOP on connections waiting for responses from active ongoing queries." )
     public static final Setting<Duration> connection_keep_alive =
@@ -253,7 +253,8 @@ public class ConsistencyCheckService
                     EMPTY, true, monitors, workCollector, config, pageCacheTracer, memoryTracker );
             life.add( labelScanStore );
             life.add( relationshipTypeScanstore );
-            IndexStatisticsStore indexStatisticsStore = new IndexStatisticsStore( pageCache, databaseLayout, workCollector, true, pageCacheTracer );
+            IndexStatisticsStore indexStatisticsStore = new IndexStatisticsStore( pageCache, databaseLayout, fileSystem, workCollector, true,
+                    pageCacheTracer, memoryTracker );
             life.add( indexStatisticsStore );
 
             int numberOfThreads = defaultConsistencyCheckThreadsNumber();
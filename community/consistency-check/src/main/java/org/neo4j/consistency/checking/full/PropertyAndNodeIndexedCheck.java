@@ -42,6 +42,7 @@ import org.neo4j.consistency.store.RecordAccess;
 import org.neo4j.internal.kernel.api.IndexQuery;
 import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotApplicableKernelException;
 import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.internal.schema.IndexFilter;
 import org.neo4j.internal.schema.PropertySchemaType;
 import org.neo4j.internal.schema.SchemaDescriptor;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
@@ -115,7 +116,7 @@ public class PropertyAndNodeIndexedCheck implements RecordCheck<NodeRecord, Cons
                     nodePropertyMap = properties( propertyRecs );
                 }
 
-                if ( entityIntersectsSchema( nodePropertyMap, schema ) )
+                if ( entityIntersectsSchema( nodePropertyMap, schema ) && acceptedByFilter( nodePropertyMap, indexRule.indexFilter(), cursorTracer ) )
                 {
                     Value[] values = getPropertyValues( propertyReader, nodePropertyMap, schema.getPropertyIds(), cursorTracer );
                     try ( IndexReader reader = indexes.accessorFor( indexRule ).newReader() )
@@ -222,6 +223,12 @@ public class PropertyAndNodeIndexedCheck implements RecordCheck<NodeRecord, Cons
         return values;
     }
 
+    private boolean acceptedByFilter( IntObjectMap<PropertyBlock> propertyMap, IndexFilter indexFilter, PageCursorTracer cursorTracer )
+    {
+        return !indexFilter.isPartial() ||
+                indexFilter.accepts( getPropertyValues( propertyReader, propertyMap, new int[]{indexFilter.propertyKeyId()}, cursorTracer )[0] );
+    }
+
     static IntObjectMap<PropertyBlock> properties( Collection<PropertyRecord> records )
     {
         final MutableIntObjectMap<PropertyBlock> propertyIds = new IntObjectHashMap<>();
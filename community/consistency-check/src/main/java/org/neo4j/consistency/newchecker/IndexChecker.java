@@ -267,6 +267,12 @@ public class IndexChecker implements Checker
                             IndexContext index = indexes.get( i );
                             IndexDescriptor descriptor = index.descriptor;
                             Value[] values = RecordLoading.entityIntersectionWithSchema( entityTokens, allValues, descriptor.schema() );
+                            if ( values != null && !descriptor.indexFilter().accepts( allValues.getIfAbsent( descriptor.indexFilter().propertyKeyId(),
+                                    () -> Values.NO_VALUE ) ) )
+                            {
+                                // Partial indexes don't contain entities with other values for the filter property
+                                values = null;
+                            }
                             long cachedValue = client.getFromCache( entityId, i );
                             boolean nodeIsInIndex = (cachedValue & IN_USE_MASK ) != 0;
                             if ( values != null )
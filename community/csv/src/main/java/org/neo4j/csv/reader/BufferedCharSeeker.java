@@ -219,7 +219,7 @@ public class BufferedCharSeeker implements CharSeeker
         return index;
     }
 
-    private static boolean isWhitespace( int ch )
+    static boolean isWhitespace( int ch )
     {
         return ch == ' ' ||
                 ch == Character.SPACE_SEPARATOR ||
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.csv.reader;
+
+import java.io.IOException;
+
+import org.neo4j.csv.reader.Source.Chunk;
+
+import static org.neo4j.csv.reader.BufferedCharSeeker.isWhitespace;
+
+/**
+ * A {@link CharReadableChunker} which only cuts chunks at line breaks that are outside of quoted fields, so that every chunk
+ * holds complete lines even when fields may contain line breaks. Quotes are recognized the same way as {@link BufferedCharSeeker}
+ * does: a quote only starts a quoted field as the first character of a value, two quotes in a row within a quoted field are an
+ * escaped quote, as is a quote or back slash preceded by a back slash with legacy style quoting.
+ * <p>
+ * Every chunk starts at the beginning of a line, outside of any quotes, so finding where to cut a chunk only requires scanning
+ * that chunk itself.
+ */
+public class QuoteAwareNewLineChunker extends CharReadableChunker
+{
+    private static final char BACK_SLASH = '\\';
+
+    private final int delimiter;
+    private final char quoteChar;
+    private final boolean legacyStyleQuoting;
+    private final boolean trim;
+
+    public QuoteAwareNewLineChunker( CharReadable reader, Configuration config, int delimiter )
+    {
+        super( reader, config.bufferSize() );
+        this.delimiter = delimiter;
+        this.quoteChar = config.quotationCharacter();
+        this.legacyStyleQuoting = config.legacyStyleQuoting();
+        this.trim = config.trimStrings();
+    }
+
+    @Override
+    public synchronized boolean nextChunk( Chunk chunk ) throws IOException
+    {
+        ChunkImpl into = (ChunkImpl) chunk;
+        int offset = fillFromBackBuffer( into.buffer );
+        int leftToRead = chunkSize - offset;
+        int read = Math.max( 0, reader.read( into.buffer, offset, leftToRead ) );
+        if ( read == leftToRead )
+        {   // The buffer is full and there may be more data left, so cut after the last complete line
+            int cut = offsetAfterLastLineOutsideQuotes( into.buffer, chunkSize );
+            if ( cut == -1 )
+            {
+                throw new BufferOverflowException( "Tried to read a line larger than buffer size " + chunkSize +
+                        " in " + reader.sourceDescription() + ", lines are only cut outside of quoted fields" );
+            }
+            read -= storeInBackBuffer( into.data(), cut, chunkSize - cut );
+        }
+        // else we couldn't completely fill the buffer, this means that we're at the end of a data source, we're good.
+
+        if ( offset + read > 0 )
+        {
+            offset += read;
+            position += read;
+            into.initialize( offset, reader.sourceDescription() );
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the offset right after the last line break which isn't part of a quoted field, or {@code -1} if there is none.
+     */
+    private int offsetAfterLastLineOutsideQuotes( char[] buffer, int length )
+    {
+        int cut = -1;
+        boolean valueStart = true;
+        boolean quoted = false;
+        for ( int i = 0; i < length; i++ )
+        {
+            char ch = buffer[i];
+            if ( quoted )
+            {
+                if ( ch == quoteChar )
+                {
+                    if ( i + 1 < length && buffer[i + 1] == quoteChar )
+                    {   // Quote within the quoted value
+                        i++;
+                    }
+                    else
+                    {
+                        quoted = false;
+                    }
+                }
+                else if ( ch == BACK_SLASH && legacyStyleQuoting && i + 1 < length && (buffer[i + 1] == quoteChar || buffer[i + 1] == BACK_SLASH) )
+                {
+                    i++;
+                }
+            }
+            else if ( ch == delimiter )
+            {
+                valueStart = true;
+            }
+            else if ( ch == '\n' || ch == '\r' )
+            {
+                valueStart = true;
+                cut = i + 1;
+            }
+            else if ( ch == quoteChar && valueStart )
+            {
+                quoted = true;
+                valueStart = false;
+            }
+            else if ( !trim || !isWhitespace( ch ) )
+            {
+                valueStart = false;
+            }
+        }
+        return cut;
+    }
+}
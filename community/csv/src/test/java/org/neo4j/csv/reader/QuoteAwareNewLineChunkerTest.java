@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.csv.reader;
+
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.csv.reader.Source.Chunk;
+
+import static java.util.Arrays.copyOfRange;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuoteAwareNewLineChunkerTest
+{
+    @Test
+    void shouldBackUpChunkToClosestNewline() throws Exception
+    {
+        try ( QuoteAwareNewLineChunker source = chunker( "1234567\n8901234\n5678901234", 12, false ) )
+        {
+            Chunk chunk = source.newChunk();
+            assertTrue( source.nextChunk( chunk ) );
+            assertArrayEquals( "1234567\n".toCharArray(), charactersOf( chunk ) );
+            assertTrue( source.nextChunk( chunk ) );
+            assertArrayEquals( "8901234\n".toCharArray(), charactersOf( chunk ) );
+            assertTrue( source.nextChunk( chunk ) );
+            assertArrayEquals( "5678901234".toCharArray(), charactersOf( chunk ) );
+            assertFalse( source.nextChunk( chunk ) );
+        }
+    }
+
+    @Test
+    void shouldNotCutWithinQuotedField() throws Exception
+    {
+        // The second line break is within a quoted field, so the first chunk has to end after the first line
+        try ( QuoteAwareNewLineChunker source = chunker( "a,b\n1,\"x\ny\"\n2,z", 12, false ) )
+        {
+            Chunk chunk = source.newChunk();
+            assertTrue( source.nextChunk( chunk ) );
+            assertArrayEquals( "a,b\n1,\"x\ny\"\n".toCharArray(), charactersOf( chunk ) );
+            assertTrue( source.nextChunk( chunk ) );
+            assertArrayEquals( "2,z".toCharArray(), charactersOf( chunk ) );
+            assertFalse( source.nextChunk( chunk ) );
+        }
+        try ( QuoteAwareNewLineChunker source = chunker( "a\n\"b\n\"\"\nc\"\nd", 10, false ) )
+        {
+            Chunk chunk = source.newChunk();
+            assertTrue( source.nextChunk( chunk ) );
+            assertArrayEquals( "a\n".toCharArray(), charactersOf( chunk ) );
+            assertTrue( source.nextChunk( chunk ) );
+            assertArrayEquals( "\"b\n\"\"\nc\"\n".toCharArray(), charactersOf( chunk ) );
+        }
+    }
+
+    @Test
+    void shouldOnlyTreatQuoteAtStartOfValueAsQuoting() throws Exception
+    {
+        try ( QuoteAwareNewLineChunker source = chunker( "1,2\"3\n45678901234", 12, false ) )
+        {
+            Chunk chunk = source.newChunk();
+            assertTrue( source.nextChunk( chunk ) );
+            assertArrayEquals( "1,2\"3\n".toCharArray(), charactersOf( chunk ) );
+        }
+    }
+
+    @Test
+    void shouldRespectLegacyStyleQuoteEscaping() throws Exception
+    {
+        // The escaped quote doesn't end the quoted field, so the line breaks after it are part of the field
+        String data = "1,\"a\\\",\nb\n\"\n2345";
+        try ( QuoteAwareNewLineChunker source = chunker( data, 12, true ) )
+        {
+            Chunk chunk = source.newChunk();
+            assertTrue( source.nextChunk( chunk ) );
+            assertArrayEquals( "1,\"a\\\",\nb\n\"\n".toCharArray(), charactersOf( chunk ) );
+        }
+        try ( QuoteAwareNewLineChunker source = chunker( data, 12, false ) )
+        {
+            Chunk chunk = source.newChunk();
+            assertTrue( source.nextChunk( chunk ) );
+            assertArrayEquals( "1,\"a\\\",\nb\n".toCharArray(), charactersOf( chunk ) );
+        }
+    }
+
+    @Test
+    void shouldParseSameRowsAsSingleSeeker() throws Exception
+    {
+        String data = "a,\"multi\nline\",c\n\"x\"\"y\",2,\n\n3,\"4\",\"5\r\n6\"\r\nlast,row,here";
+        Configuration config = config( 24, false );
+        StringBuilder serial = new StringBuilder();
+        try ( CharSeeker seeker = CharSeekers.charSeeker( Readables.wrap( data ), config, false ) )
+        {
+            appendValues( seeker, serial );
+        }
+
+        StringBuilder chunked = new StringBuilder();
+        try ( QuoteAwareNewLineChunker source = new QuoteAwareNewLineChunker( Readables.wrap( data ), config, ',' ) )
+        {
+            Chunk chunk = source.newChunk();
+            while ( source.nextChunk( chunk ) )
+            {
+                appendValues( new BufferedCharSeeker( Source.singleChunk( chunk ), config ), chunked );
+            }
+        }
+        assertEquals( serial.toString(), chunked.toString() );
+    }
+
+    @Test
+    void shouldFailIfNoNewlineOutsideQuotesInChunk() throws Exception
+    {
+        try ( QuoteAwareNewLineChunker source = chunker( "1\n\"23\n4567890\n\"1234", 12, false ) )
+        {
+            Chunk chunk = source.newChunk();
+            assertTrue( source.nextChunk( chunk ) );
+            assertArrayEquals( "1\n".toCharArray(), charactersOf( chunk ) );
+            assertThrows( BufferOverflowException.class, () -> source.nextChunk( chunk ) );
+        }
+    }
+
+    private static void appendValues( CharSeeker seeker, StringBuilder into ) throws Exception
+    {
+        Mark mark = new Mark();
+        Extractor<String> extractor = new Extractors( ',' ).string();
+        while ( seeker.seek( mark, ',' ) )
+        {
+            into.append( seeker.tryExtract( mark, extractor ) ? extractor.value() : null ).append( mark.isEndOfLine() ? '\n' : '|' );
+        }
+    }
+
+    private static QuoteAwareNewLineChunker chunker( String data, int chunkSize, boolean legacyStyleQuoting )
+    {
+        return new QuoteAwareNewLineChunker( Readables.wrap( data ), config( chunkSize, legacyStyleQuoting ), ',' );
+    }
+
+    private static Configuration config( int bufferSize, boolean legacyStyleQuoting )
+    {
+        return Configuration.newBuilder().withBufferSize( bufferSize ).withMultilineFields( true ).withLegacyStyleQuoting( legacyStyleQuoting ).build();
+    }
+
+    private static char[] charactersOf( Chunk chunk )
+    {
+        return copyOfRange( chunk.data(), chunk.startPosition(), chunk.startPosition() + chunk.length() );
+    }
+}
@@ -195,6 +195,10 @@ abstract class LogicalPlan(idGen: IdGen)
         acc => acc :+ SchemaIndexSeekUsage(idName, label.nameId.id, label.name, properties.map(_.propertyKeyToken.name))
       case NodeIndexScan(idName, label, properties, _, _) =>
         acc => acc :+ SchemaIndexScanUsage(idName, label.nameId.id, label.name, properties.map(_.propertyKeyToken.name))
+      case NodeIndexAggregation(idName, label, property, _, _) =>
+        acc => acc :+ SchemaIndexScanUsage(idName, label.nameId.id, label.name, Seq(property.name))
+      case MultiLabelNodeIndexSeek(idName, labels, properties, _, _) =>
+        acc => acc ++ labels.map(label => SchemaIndexSeekUsage(idName, label.nameId.id, label.name, properties.map(_.propertyKeyToken.name)))
       case MultiNodeIndexSeek(indexPlans) =>
         acc => acc ++ indexPlans.flatMap(_.indexUsage)
       }
@@ -215,6 +215,9 @@ object LogicalPlanToPlanBuilderString {
         val args = if(argumentIds.isEmpty) "" else ", " + wrapInQuotationsAndMkString(argumentIds.toSeq)
         val labelStr = labelNames.map(_.map(l => wrapInQuotations(l.name)).toString).mkString(", ")
         s""" "$idName", Seq($labelStr)$args """.trim
+      case NodeIndexAggregation(idName, label, property, aggregation, argumentIds) =>
+        val args = if(argumentIds.isEmpty) "" else ", " + wrapInQuotationsAndMkString(argumentIds.toSeq)
+        s""" "$idName", "${label.name}", "${property.name}", ${objectName(aggregation)}$args """.trim
       case DetachDeleteNode(_, expression) =>
         wrapInQuotations(expressionStringifier(expression))
       case DeleteRelationship(_, expression) =>
@@ -263,6 +266,11 @@ object LogicalPlanToPlanBuilderString {
         val propNames = properties.map(_.propertyKeyToken.name)
         val queryStr = queryExpressionStr(valueExpr, propNames)
         indexOperator(idName, labelToken, properties, argumentIds, indexOrder, unique = true, queryStr)
+      case MultiLabelNodeIndexSeek(idName, labels, properties, valueExpr, argumentIds) =>
+        val propNames = properties.map(_.propertyKeyToken.name)
+        val queryStr = queryExpressionStr(valueExpr, propNames)
+        val indexStr = s"$idName:${labels.map(_.name).mkString("|")}($queryStr)"
+        s""" "$indexStr", argumentIds = Set(${wrapInQuotationsAndMkString(argumentIds)}) """.trim
       case RollUpApply(_, _, collectionName, variableToCollect) =>
         s"""${wrapInQuotations(collectionName)}, ${wrapInQuotations(variableToCollect)}"""
       case ConditionalApply(_, _, items) => wrapInQuotationsAndMkString(items)
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.logical.plans
+
+import org.neo4j.cypher.internal.expressions.Expression
+import org.neo4j.cypher.internal.expressions.LabelToken
+import org.neo4j.cypher.internal.util.attribution.IdGen
+import org.neo4j.cypher.internal.util.attribution.SameId
+
+/**
+ * For every node with any of the given labels and the given property values, produces one row with that node. The nodes are
+ * found with a single seek in an index on all of the labels, which holds each node once no matter how many of the labels it has.
+ */
+case class MultiLabelNodeIndexSeek(idName: String,
+                                   labels: Seq[LabelToken],
+                                   properties: Seq[IndexedProperty],
+                                   valueExpr: QueryExpression[Expression],
+                                   argumentIds: Set[String])
+                                  (implicit idGen: IdGen) extends NodeLogicalLeafPlan(idGen) {
+
+  override val availableSymbols: Set[String] = argumentIds + idName
+
+  override def usedVariables: Set[String] = valueExpr.expressions.flatMap(_.dependencies).map(_.name).toSet
+
+  override def withoutArgumentIds(argsToExclude: Set[String]): MultiLabelNodeIndexSeek = copy(argumentIds = argumentIds -- argsToExclude)(SameId(this.id))
+}
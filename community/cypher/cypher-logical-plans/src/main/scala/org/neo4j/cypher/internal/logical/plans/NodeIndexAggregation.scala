@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.logical.plans
+
+import org.neo4j.cypher.internal.expressions.LabelToken
+import org.neo4j.cypher.internal.expressions.PropertyKeyToken
+import org.neo4j.cypher.internal.util.attribution.IdGen
+import org.neo4j.cypher.internal.util.attribution.SameId
+
+/**
+ * Produce a single row with the contents of argument and a new value 'idName'. The value is the result of 'aggregation' over
+ * 'property' of all nodes with 'label', computed from the index on :label(property). Minimum and maximum are read from the start of
+ * an ordered index scan, and distinct values are counted with an index scan which skips over entries with the same value.
+ */
+case class NodeIndexAggregation(idName: String,
+                                label: LabelToken,
+                                property: PropertyKeyToken,
+                                aggregation: IndexAggregation,
+                                argumentIds: Set[String])
+                               (implicit idGen: IdGen)
+  extends LogicalLeafPlan(idGen) {
+
+  override val availableSymbols: Set[String] = argumentIds + idName
+
+  override def usedVariables: Set[String] = Set.empty
+
+  override def withoutArgumentIds(argsToExclude: Set[String]): NodeIndexAggregation = copy(argumentIds = argumentIds -- argsToExclude)(SameId(this.id))
+}
@@ -45,6 +45,13 @@ case class RangeQueryExpression[T](expression: T) extends QueryExpression[T] wit
   def map[R](f: T => R) = RangeQueryExpression(f(expression))
 }
 
+/**
+ * Seeks all points in the same coordinate reference system as the point given by the expression, ordered by distance to it, nearest first.
+ */
+case class NearestNeighboursQueryExpression[T](expression: T) extends QueryExpression[T] with SingleExpression[T] {
+  def map[R](f: T => R) = NearestNeighboursQueryExpression(f(expression))
+}
+
 case class CompositeQueryExpression[T](inner: Seq[QueryExpression[T]]) extends QueryExpression[T] {
   def map[R](f: T => R) = CompositeQueryExpression(inner.map(_.map(f)))
 
@@ -106,6 +106,7 @@ case class CypherPlanner[Context <: PlannerContext](monitors: Monitors,
 }
 
 case class CypherPlannerConfiguration(queryCacheSize: Int,
+                                      queryCacheMaxWeight: Long,
                                       statsDivergenceCalculator: StatsDivergenceCalculator,
                                       useErrorsOverWarnings: Boolean,
                                       idpMaxTableSize: Int,
@@ -44,6 +44,7 @@ import org.neo4j.cypher.internal.logical.plans.ForeachApply
 import org.neo4j.cypher.internal.logical.plans.LeftOuterHashJoin
 import org.neo4j.cypher.internal.logical.plans.Limit
 import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.logical.plans.MultiLabelNodeIndexSeek
 import org.neo4j.cypher.internal.logical.plans.NodeByIdSeek
 import org.neo4j.cypher.internal.logical.plans.NodeByLabelScan
 import org.neo4j.cypher.internal.logical.plans.NodeHashJoin
@@ -107,6 +108,7 @@ object CardinalityCostModel extends CostModel {
 
     case _: NodeUniqueIndexSeek |
          _: NodeIndexSeek |
+         _: MultiLabelNodeIndexSeek |
          _: NodeIndexContainsScan |
          _: NodeIndexEndsWithScan
     => 1.9
@@ -21,6 +21,7 @@ package org.neo4j.cypher.internal.compiler.planner.logical
 
 import org.neo4j.cypher.internal.compiler.helpers.AggregationHelper
 import org.neo4j.cypher.internal.compiler.planner.logical.steps.countStorePlanner
+import org.neo4j.cypher.internal.compiler.planner.logical.steps.indexAggregationPlanner
 import org.neo4j.cypher.internal.expressions.Expression
 import org.neo4j.cypher.internal.ir.AggregatingQueryProjection
 import org.neo4j.cypher.internal.ir.QueryProjection
@@ -44,7 +45,7 @@ case class PlanSingleQuery(planPart: PartPlanner = planPart,
     val updatedContext = addAggregatedPropertiesToContext(in, context)
 
     val (completePlan, ctx) =
-      countStorePlanner(in, updatedContext) match {
+      countStorePlanner(in, updatedContext).orElse(indexAggregationPlanner(in, updatedContext)) match {
         case Some(plan) =>
           (plan, updatedContext.withUpdatedCardinalityInformation(plan))
         case None =>
@@ -32,6 +32,7 @@ import org.neo4j.cypher.internal.compiler.planner.logical.steps.indexScanLeafPla
 import org.neo4j.cypher.internal.compiler.planner.logical.steps.indexSeekLeafPlanner
 import org.neo4j.cypher.internal.compiler.planner.logical.steps.labelScanLeafPlanner
 import org.neo4j.cypher.internal.compiler.planner.logical.steps.leftOuterHashJoin
+import org.neo4j.cypher.internal.compiler.planner.logical.steps.multiLabelIndexSeekLeafPlanner
 import org.neo4j.cypher.internal.compiler.planner.logical.steps.pickBestPlanUsingHintsAndCost
 import org.neo4j.cypher.internal.compiler.planner.logical.steps.rightOuterHashJoin
 import org.neo4j.cypher.internal.compiler.planner.logical.steps.selectCovered
@@ -65,6 +66,9 @@ object QueryPlannerConfiguration {
     // MATCH (n) RETURN n
     allNodesLeafPlanner,
 
+    // MATCH (n) WHERE (n:A OR n:B) AND n.prop = ... RETURN n
+    multiLabelIndexSeekLeafPlanner,
+
     // Handles OR between other leaf planners
     OrLeafPlanner(leafPlanFromExpressions))
 
@@ -30,6 +30,7 @@ import org.neo4j.cypher.internal.compiler.planner.logical.PlannerDefaults.DEFAUL
 import org.neo4j.cypher.internal.compiler.planner.logical.PlannerDefaults.DEFAULT_REL_UNIQUENESS_SELECTIVITY
 import org.neo4j.cypher.internal.compiler.planner.logical.PlannerDefaults.DEFAULT_STRING_LENGTH
 import org.neo4j.cypher.internal.compiler.planner.logical.PlannerDefaults.DEFAULT_TYPE_SELECTIVITY
+import org.neo4j.cypher.internal.compiler.planner.logical.cardinality.ExpressionSelectivityCalculator.KnownValue
 import org.neo4j.cypher.internal.compiler.planner.logical.plans.AsDistanceSeekable
 import org.neo4j.cypher.internal.compiler.planner.logical.plans.AsIdSeekable
 import org.neo4j.cypher.internal.compiler.planner.logical.plans.AsPropertyScannable
@@ -39,6 +40,7 @@ import org.neo4j.cypher.internal.compiler.planner.logical.plans.AsValueRangeSeek
 import org.neo4j.cypher.internal.compiler.planner.logical.plans.InequalityRangeSeekable
 import org.neo4j.cypher.internal.compiler.planner.logical.plans.PointDistanceSeekable
 import org.neo4j.cypher.internal.compiler.planner.logical.plans.PrefixRangeSeekable
+import org.neo4j.cypher.internal.expressions.AutoExtractedParameter
 import org.neo4j.cypher.internal.expressions.Contains
 import org.neo4j.cypher.internal.expressions.EndsWith
 import org.neo4j.cypher.internal.expressions.Equals
@@ -50,6 +52,8 @@ import org.neo4j.cypher.internal.expressions.HasLabels
 import org.neo4j.cypher.internal.expressions.LabelName
 import org.neo4j.cypher.internal.expressions.LessThan
 import org.neo4j.cypher.internal.expressions.LessThanOrEqual
+import org.neo4j.cypher.internal.expressions.ListLiteral
+import org.neo4j.cypher.internal.expressions.Literal
 import org.neo4j.cypher.internal.expressions.Not
 import org.neo4j.cypher.internal.expressions.Ors
 import org.neo4j.cypher.internal.expressions.PartialPredicate
@@ -58,13 +62,35 @@ import org.neo4j.cypher.internal.expressions.PropertyKeyName
 import org.neo4j.cypher.internal.expressions.StringLiteral
 import org.neo4j.cypher.internal.expressions.Variable
 import org.neo4j.cypher.internal.ir.Selections
+import org.neo4j.cypher.internal.logical.plans.ExclusiveBound
+import org.neo4j.cypher.internal.logical.plans.InclusiveBound
+import org.neo4j.cypher.internal.logical.plans.ManySeekableArgs
 import org.neo4j.cypher.internal.logical.plans.PrefixRange
+import org.neo4j.cypher.internal.logical.plans.SeekableArgs
+import org.neo4j.cypher.internal.logical.plans.SingleSeekableArg
 import org.neo4j.cypher.internal.planner.spi.GraphStatistics
 import org.neo4j.cypher.internal.planner.spi.IndexDescriptor
+import org.neo4j.cypher.internal.planner.spi.ValueHistogram
 import org.neo4j.cypher.internal.util.Cardinality
 import org.neo4j.cypher.internal.util.LabelId
 import org.neo4j.cypher.internal.util.Selectivity
 
+object ExpressionSelectivityCalculator {
+
+  /**
+   * Matches expressions with a value that is known at planning time: literals, also after they have been auto extracted into
+   * parameters. Plans are cached for the query with its literals extracted, so estimates made from the value of one execution
+   * are reused for other values of the same query.
+   */
+  object KnownValue {
+    def unapply(expression: Expression): Option[AnyRef] = expression match {
+      case literal: Literal => Option(literal.value)
+      case AutoExtractedParameter(_, _, literal: Literal) => Option(literal.value)
+      case _ => None
+    }
+  }
+}
+
 case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: SelectivityCombiner) {
 
   def apply(exp: Expression)(implicit semanticTable: SemanticTable, selections: Selections): Selectivity = exp match {
@@ -82,11 +108,19 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
 
     // WHERE x.prop =/IN ...
     case AsPropertySeekable(seekable) =>
-      calculateSelectivityForPropertyEquality(seekable.name, seekable.args.sizeHint, selections, seekable.propertyKey)
+      knownValues(seekable.args)
+        .flatMap(values => histogramSelectivity(seekable.name, selections, seekable.propertyKey)(equalitySelectivity(values)))
+        .getOrElse(calculateSelectivityForPropertyEquality(seekable.name, seekable.args.sizeHint, selections, seekable.propertyKey))
 
     // WHERE x.prop STARTS WITH 'prefix'
     case AsStringRangeSeekable(seekable@PrefixRangeSeekable(PrefixRange(StringLiteral(prefix)), _, _, _)) =>
-      calculateSelectivityForSubstringSargable(seekable.name, selections, seekable.propertyKey, Some(prefix))
+      histogramSelectivity(seekable.name, selections, seekable.propertyKey)(_.prefixSelectivity(prefix))
+        .getOrElse(calculateSelectivityForSubstringSargable(seekable.name, selections, seekable.propertyKey, Some(prefix)))
+
+    // WHERE x.prop STARTS WITH 'prefix', where the prefix has been auto extracted into a parameter
+    case AsStringRangeSeekable(seekable@PrefixRangeSeekable(PrefixRange(KnownValue(prefix: String)), _, _, _)) =>
+      histogramSelectivity(seekable.name, selections, seekable.propertyKey)(_.prefixSelectivity(prefix))
+        .getOrElse(calculateSelectivityForSubstringSargable(seekable.name, selections, seekable.propertyKey, None))
 
     // WHERE x.prop STARTS WITH expression
     case AsStringRangeSeekable(seekable@PrefixRangeSeekable(_:PrefixRange[_], _, _, _)) =>
@@ -110,7 +144,8 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
 
     // WHERE x.prop <, <=, >=, > that could benefit from an index
     case AsValueRangeSeekable(seekable) =>
-      calculateSelectivityForValueRangeSeekable(seekable, selections)
+      histogramSelectivity(seekable.ident.name, selections, seekable.expr.property.propertyKey)(rangeSelectivity(seekable))
+        .getOrElse(calculateSelectivityForValueRangeSeekable(seekable, selections))
 
     // WHERE distance(p.prop, otherPoint) <, <= number that could benefit from an index
     case AsDistanceSeekable(seekable) =>
@@ -155,6 +190,71 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
     l && r
   }
 
+  /**
+   * Selectivity of a predicate on a property, estimated from the value histograms of the indexes on that property, for those
+   * labels of the node that have an index with a histogram.
+   */
+  private def histogramSelectivity(variable: String,
+                                   selections: Selections,
+                                   propertyKey: PropertyKeyName)
+                                  (estimate: ValueHistogram => Option[Selectivity])
+                                  (implicit semanticTable: SemanticTable): Option[Selectivity] = {
+    val labels = selections.labelsOnNode(variable)
+    val histogramSelectivities = labels.toIndexedSeq.flatMap {
+      labelName =>
+        (semanticTable.id(labelName), semanticTable.id(propertyKey)) match {
+          case (Some(labelId), Some(propertyKeyId)) =>
+            val descriptor = IndexDescriptor(labelId, Seq(propertyKeyId))
+            for {
+              histogram <- stats.indexValueHistogram(descriptor)
+              valueSelectivity <- estimate(histogram)
+              propExists <- stats.indexPropertyExistsSelectivity(descriptor)
+            } yield propExists * valueSelectivity
+
+          case _ =>
+            None
+        }
+    }
+    combiner.orTogetherSelectivities(histogramSelectivities)
+  }
+
+  private def knownValues(args: SeekableArgs): Option[Seq[AnyRef]] = args match {
+    case SingleSeekableArg(KnownValue(value)) =>
+      Some(Seq(value))
+    case ManySeekableArgs(ListLiteral(expressions)) if expressions.nonEmpty =>
+      val values = expressions.collect { case KnownValue(value) => value }
+      if (values.size == expressions.size) Some(values) else None
+    case _ =>
+      None
+  }
+
+  private def equalitySelectivity(values: Seq[AnyRef])(histogram: ValueHistogram): Option[Selectivity] = {
+    val selectivities = values.map(histogram.equalitySelectivity)
+    if (selectivities.contains(None)) None else combiner.orTogetherSelectivities(selectivities.flatten)
+  }
+
+  private def rangeSelectivity(seekable: InequalityRangeSeekable)(histogram: ValueHistogram): Option[Selectivity] = {
+    val bounds = seekable.expr.inequalities.toIndexedSeq.map {
+      case GreaterThan(_, KnownValue(value)) => Some(Left(ExclusiveBound(value)))
+      case GreaterThanOrEqual(_, KnownValue(value)) => Some(Left(InclusiveBound(value)))
+      case LessThan(_, KnownValue(value)) => Some(Right(ExclusiveBound(value)))
+      case LessThanOrEqual(_, KnownValue(value)) => Some(Right(InclusiveBound(value)))
+      case _ => None
+    }
+    if (bounds.contains(None)) {
+      None
+    } else {
+      // With several bounds on the same side the tightest one decides, which is the one giving the lowest estimate
+      val lowerBounds = bounds.flatten.collect { case Left(bound) => Some(bound) }
+      val upperBounds = bounds.flatten.collect { case Right(bound) => Some(bound) }
+      val estimates = for {
+        lower <- if (lowerBounds.isEmpty) Seq(None) else lowerBounds
+        upper <- if (upperBounds.isEmpty) Seq(None) else upperBounds
+      } yield histogram.rangeSelectivity(lower, upper)
+      if (estimates.contains(None)) None else Some(estimates.flatten.minBy(_.factor))
+    }
+  }
+
   private def calculateSelectivityForLabel(label: Option[LabelId]): Selectivity = {
     val labelCardinality = stats.nodesWithLabelCardinality(label)
     labelCardinality / stats.nodesAllCardinality() getOrElse Selectivity.ONE
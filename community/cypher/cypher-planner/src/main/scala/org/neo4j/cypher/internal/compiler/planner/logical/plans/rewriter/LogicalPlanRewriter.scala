@@ -59,6 +59,7 @@ case class PlanRewriter(rewriterSequencer: String => RewriterStepSequencer) exte
     removeIdenticalPlans(otherAttributes.withAlso(cardinalities, solveds, providedOrders)),
     pruningVarExpander,
     useTop,
+    useNearestNeighbourIndexSeek(context.planContext, otherAttributes.withAlso(solveds, cardinalities, providedOrders)),
     simplifySelections,
     limitNestedPlanExpressions(context.logicalPlanIdGen)
   ).rewriter)
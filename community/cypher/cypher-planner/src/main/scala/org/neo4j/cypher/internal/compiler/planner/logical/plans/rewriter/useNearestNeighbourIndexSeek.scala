@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.plans.rewriter
+
+import org.neo4j.cypher.internal.expressions.CachedProperty
+import org.neo4j.cypher.internal.expressions.Expression
+import org.neo4j.cypher.internal.expressions.FunctionInvocation
+import org.neo4j.cypher.internal.expressions.IsNull
+import org.neo4j.cypher.internal.expressions.LabelName
+import org.neo4j.cypher.internal.expressions.LabelToken
+import org.neo4j.cypher.internal.expressions.NODE_TYPE
+import org.neo4j.cypher.internal.expressions.Property
+import org.neo4j.cypher.internal.expressions.PropertyKeyName
+import org.neo4j.cypher.internal.expressions.PropertyKeyToken
+import org.neo4j.cypher.internal.expressions.Variable
+import org.neo4j.cypher.internal.expressions.functions.Distance
+import org.neo4j.cypher.internal.logical.plans.Ascending
+import org.neo4j.cypher.internal.logical.plans.DoNotGetValue
+import org.neo4j.cypher.internal.logical.plans.DoNotIncludeTies
+import org.neo4j.cypher.internal.logical.plans.IndexOrderNone
+import org.neo4j.cypher.internal.logical.plans.IndexedProperty
+import org.neo4j.cypher.internal.logical.plans.Limit
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.logical.plans.NearestNeighboursQueryExpression
+import org.neo4j.cypher.internal.logical.plans.NodeByLabelScan
+import org.neo4j.cypher.internal.logical.plans.NodeIndexSeek
+import org.neo4j.cypher.internal.logical.plans.Projection
+import org.neo4j.cypher.internal.logical.plans.Selection
+import org.neo4j.cypher.internal.logical.plans.Top
+import org.neo4j.cypher.internal.logical.plans.Union
+import org.neo4j.cypher.internal.planner.spi.PlanContext
+import org.neo4j.cypher.internal.util.Rewriter
+import org.neo4j.cypher.internal.util.attribution.Attributes
+import org.neo4j.cypher.internal.util.attribution.SameId
+import org.neo4j.cypher.internal.util.bottomUp
+
+/**
+ * When doing ORDER BY distance(n.prop, point) LIMIT e over all nodes with a label, and there is an index on :Label(prop),
+ * we don't have to compute and sort the distance of every node. Instead, the index is asked for the nodes closest to the
+ * point first, and only the first e of them are read. Nodes where the distance is null sort last, and are found by
+ * scanning the label after all nodes with a distance have been returned.
+ */
+case class useNearestNeighbourIndexSeek(planContext: PlanContext, attributes: Attributes[LogicalPlan]) extends Rewriter {
+
+  override def apply(input: AnyRef): AnyRef = instance.apply(input)
+
+  private val instance: Rewriter = bottomUp(Rewriter.lift {
+    case top @ Top(source, Seq(Ascending(column)), limit) if planContext != null =>
+      nearestNeighbourSource(source, column).map(Limit(_, limit, DoNotIncludeTies)(SameId(top.id))).getOrElse(top)
+  })
+
+  private def nearestNeighbourSource(source: LogicalPlan, column: String): Option[LogicalPlan] = {
+    val chain = streamingChain(source)
+    val sortedBy = chain.collectFirst {
+      case Projection(_, projections) if projections.contains(column) => projections(column)
+    }
+    (chain.last, sortedBy) match {
+      case (scan @ NodeByLabelScan(node, LabelName(label), arguments, _), Some(distance)) =>
+        for {
+          (property, origin) <- distanceFromProperty(distance, node, arguments)
+          index <- planContext.indexGetForLabelAndProperties(label, Seq(property))
+          if index.filter.isEmpty
+        } yield {
+          val seek = NodeIndexSeek(node,
+                                   LabelToken(label, index.label),
+                                   Seq(IndexedProperty(PropertyKeyToken(property, index.property), DoNotGetValue)),
+                                   NearestNeighboursQueryExpression(origin),
+                                   arguments,
+                                   IndexOrderNone)(attributes.copy(scan.id))
+          val withoutDistance = Selection(Seq(IsNull(readingFromStore(distance))(distance.position)),
+                                          scan.copy()(attributes.copy(scan.id)))(attributes.copy(scan.id))
+          replaceLeaf(source, Union(seek, withoutDistance)(attributes.copy(scan.id)))
+        }
+      case _ =>
+        None
+    }
+  }
+
+  private def streamingChain(plan: LogicalPlan): List[LogicalPlan] = plan match {
+    case p: Projection => p :: streamingChain(p.source)
+    case s: Selection => s :: streamingChain(s.source)
+    case leaf => List(leaf)
+  }
+
+  private def replaceLeaf(plan: LogicalPlan, leaf: LogicalPlan): LogicalPlan = plan match {
+    case p: Projection => p.copy(source = replaceLeaf(p.source, leaf))(SameId(p.id))
+    case s: Selection => s.copy(source = replaceLeaf(s.source, leaf))(SameId(s.id))
+    case _ => leaf
+  }
+
+  private def distanceFromProperty(expression: Expression, node: String, arguments: Set[String]): Option[(String, Expression)] = expression match {
+    case f: FunctionInvocation if f.function == Distance && f.args.size == 2 =>
+      Seq(f.args, f.args.reverse).view.flatMap {
+        case Seq(property, origin) if origin.dependencies.forall(dependency => arguments.contains(dependency.name)) =>
+          propertyOf(property, node).map(_ -> origin)
+        case _ =>
+          None
+      }.headOption
+    case _ =>
+      None
+  }
+
+  private def propertyOf(expression: Expression, node: String): Option[String] = expression match {
+    case Property(Variable(`node`), PropertyKeyName(property)) => Some(property)
+    case CachedProperty(_, Variable(`node`), PropertyKeyName(property), NODE_TYPE) => Some(property)
+    case _ => None
+  }
+
+  // The label scan finding nodes without a distance has not cached any properties
+  private def readingFromStore(expression: Expression): Expression = expression.endoRewrite(bottomUp(Rewriter.lift {
+    case c: CachedProperty => Property(c.entityVariable, c.propertyKey)(c.position)
+  }))
+}
@@ -107,7 +107,7 @@ abstract class AbstractIndexSeekLeafPlanner extends LeafPlanner with LeafPlanFro
       val result = indexCompatibles.map(_.name).flatMap { name =>
         val labelPredicates = labelPredicateMap.getOrElse(name, Set.empty)
         val nodePredicates = indexCompatibles.filter(p => p.name == name)
-        maybeLeafPlans(name, producePlansForSpecificVariable(name, nodePredicates, labelPredicates, qg.hints, qg.argumentIds, context, interestingOrder))
+        maybeLeafPlans(name, producePlansForSpecificVariable(name, nodePredicates, labelPredicates, qg.selections.flatPredicates, qg.hints, qg.argumentIds, context, interestingOrder))
       }
 
       if (result.isEmpty) {
@@ -142,6 +142,7 @@ abstract class AbstractIndexSeekLeafPlanner extends LeafPlanner with LeafPlanFro
   private def producePlansForSpecificVariable(idName: String,
                                               indexCompatiblePredicates: Set[IndexCompatiblePredicate],
                                               labelPredicates: Set[HasLabels],
+                                              allPredicates: Seq[Expression],
                                               hints: Set[Hint], argumentIds: Set[String],
                                               context: LogicalPlanningContext,
                                               interestingOrder: InterestingOrder): Set[LogicalPlan] = {
@@ -149,7 +150,9 @@ abstract class AbstractIndexSeekLeafPlanner extends LeafPlanner with LeafPlanFro
     for (labelPredicate <- labelPredicates;
          labelName <- labelPredicate.labels;
          labelId: LabelId <- semanticTable.id(labelName).toSeq;
-         indexDescriptor: IndexDescriptor <- findIndexesForLabel(labelId, context);
+         indexDescriptor: IndexDescriptor <- findIndexesForLabel(labelId, context)
+         // A partial index can only be used if the query only asks for nodes that are in the index
+         if indexDescriptor.filter.forall(_.isImpliedBy(idName, allPredicates));
          predicatesForIndex <- predicatesForIndex(indexDescriptor, indexCompatiblePredicates, interestingOrder))
       yield
         createLogicalPlan(idName, hints, argumentIds, labelPredicate, labelName, labelId, predicatesForIndex, indexDescriptor.isUnique, context, semanticTable)
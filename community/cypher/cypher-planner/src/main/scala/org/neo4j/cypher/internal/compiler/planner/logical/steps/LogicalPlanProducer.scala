@@ -42,6 +42,7 @@ import org.neo4j.cypher.internal.expressions.Ors
 import org.neo4j.cypher.internal.expressions.PatternComprehension
 import org.neo4j.cypher.internal.expressions.Property
 import org.neo4j.cypher.internal.expressions.PropertyKeyName
+import org.neo4j.cypher.internal.expressions.PropertyKeyToken
 import org.neo4j.cypher.internal.expressions.RelTypeName
 import org.neo4j.cypher.internal.expressions.SemanticDirection
 import org.neo4j.cypher.internal.expressions.SignedDecimalIntegerLiteral
@@ -108,6 +109,7 @@ import org.neo4j.cypher.internal.logical.plans.Expand
 import org.neo4j.cypher.internal.logical.plans.ExpansionMode
 import org.neo4j.cypher.internal.logical.plans.FindShortestPaths
 import org.neo4j.cypher.internal.logical.plans.ForeachApply
+import org.neo4j.cypher.internal.logical.plans.IndexAggregation
 import org.neo4j.cypher.internal.logical.plans.IndexOrder
 import org.neo4j.cypher.internal.logical.plans.IndexOrderAscending
 import org.neo4j.cypher.internal.logical.plans.IndexOrderDescending
@@ -125,10 +127,12 @@ import org.neo4j.cypher.internal.logical.plans.LockNodes
 import org.neo4j.cypher.internal.logical.plans.LogicalPlan
 import org.neo4j.cypher.internal.logical.plans.MergeCreateNode
 import org.neo4j.cypher.internal.logical.plans.MergeCreateRelationship
+import org.neo4j.cypher.internal.logical.plans.MultiLabelNodeIndexSeek
 import org.neo4j.cypher.internal.logical.plans.NodeByIdSeek
 import org.neo4j.cypher.internal.logical.plans.NodeByLabelScan
 import org.neo4j.cypher.internal.logical.plans.NodeCountFromCountStore
 import org.neo4j.cypher.internal.logical.plans.NodeHashJoin
+import org.neo4j.cypher.internal.logical.plans.NodeIndexAggregation
 import org.neo4j.cypher.internal.logical.plans.NodeIndexContainsScan
 import org.neo4j.cypher.internal.logical.plans.NodeIndexEndsWithScan
 import org.neo4j.cypher.internal.logical.plans.NodeIndexScan
@@ -452,6 +456,33 @@ case class LogicalPlanProducer(cardinalityModel: CardinalityModel, planningAttri
     annotate(NodeByLabelScan(variable.name, label, argumentIds, toIndexOrder(providedOrder)), solved, providedOrder, context)
   }
 
+  def planMultiLabelNodeIndexSeek(idName: String,
+                                  labels: Seq[LabelToken],
+                                  properties: Seq[IndexedProperty],
+                                  valueExpr: QueryExpression[Expression],
+                                  solvedPredicates: Seq[Expression],
+                                  solvedPredicatesForCardinalityEstimation: Seq[Expression],
+                                  argumentIds: Set[String],
+                                  context: LogicalPlanningContext): LogicalPlan = {
+    val queryGraph = QueryGraph.empty
+      .addPatternNodes(idName)
+      .addPredicates(solvedPredicates: _*)
+      .addArgumentIds(argumentIds.toIndexedSeq)
+    // We know solvedPredicates is a subset of solvedPredicatesForCardinalityEstimation
+    val solved = RegularSinglePlannerQuery(queryGraph = queryGraph)
+    val solvedForCardinalityEstimation = RegularSinglePlannerQuery(queryGraph.addPredicates(solvedPredicatesForCardinalityEstimation: _*))
+
+    val solver = PatternExpressionSolver.solverForLeafPlan(argumentIds, context)
+    val rewrittenValueExpr = valueExpr.map(solver.solve(_))
+    val newArguments = solver.newArguments
+    val plan = MultiLabelNodeIndexSeek(idName, labels, properties, rewrittenValueExpr, argumentIds ++ newArguments)
+    val cardinality = cardinalityModel(solvedForCardinalityEstimation, context.input, context.semanticTable)
+    solveds.set(plan.id, solved)
+    cardinalities.set(plan.id, cardinality)
+    providedOrders.set(plan.id, ProvidedOrder.empty)
+    solver.rewriteLeafPlan(plan)
+  }
+
   def planNodeIndexSeek(idName: String,
                         label: LabelToken,
                         properties: Seq[IndexedProperty],
@@ -821,6 +852,12 @@ case class LogicalPlanProducer(cardinalityModel: CardinalityModel, planningAttri
     annotate(NodeCountFromCountStore(projectedColumn, labels, argumentIds), solved, query.interestingOrder.requiredOrderCandidate.asProvidedOrder, context)
   }
 
+  def planNodeIndexAggregation(query: SinglePlannerQuery, projectedColumn: String, label: LabelToken, property: PropertyKeyToken,
+                               aggregation: IndexAggregation, argumentIds: Set[String], context: LogicalPlanningContext): LogicalPlan = {
+    val solved = RegularSinglePlannerQuery(query.queryGraph, query.interestingOrder, query.horizon)
+    annotate(NodeIndexAggregation(projectedColumn, label, property, aggregation, argumentIds), solved, query.interestingOrder.requiredOrderCandidate.asProvidedOrder, context)
+  }
+
   def planCountStoreRelationshipAggregation(query: SinglePlannerQuery, idName: String, startLabel: Option[LabelName],
                                             typeNames: Seq[RelTypeName], endLabel: Option[LabelName], argumentIds: Set[String], context: LogicalPlanningContext): LogicalPlan = {
     val solved: SinglePlannerQuery = RegularSinglePlannerQuery(query.queryGraph, query.interestingOrder, query.horizon)
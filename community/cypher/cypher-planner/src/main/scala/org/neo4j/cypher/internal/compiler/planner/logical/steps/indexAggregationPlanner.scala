@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.steps
+
+import org.neo4j.cypher.internal.compiler.planner.logical.LogicalPlanningContext
+import org.neo4j.cypher.internal.expressions.Expression
+import org.neo4j.cypher.internal.expressions.FunctionInvocation
+import org.neo4j.cypher.internal.expressions.LabelName
+import org.neo4j.cypher.internal.expressions.LabelToken
+import org.neo4j.cypher.internal.expressions.Property
+import org.neo4j.cypher.internal.expressions.PropertyKeyName
+import org.neo4j.cypher.internal.expressions.PropertyKeyToken
+import org.neo4j.cypher.internal.expressions.Variable
+import org.neo4j.cypher.internal.expressions.functions
+import org.neo4j.cypher.internal.ir.AggregatingQueryProjection
+import org.neo4j.cypher.internal.ir.QueryGraph
+import org.neo4j.cypher.internal.ir.SinglePlannerQuery
+import org.neo4j.cypher.internal.logical.plans.DoNotGetValue
+import org.neo4j.cypher.internal.logical.plans.IndexAggregation
+import org.neo4j.cypher.internal.logical.plans.IndexCountDistinct
+import org.neo4j.cypher.internal.logical.plans.IndexMax
+import org.neo4j.cypher.internal.logical.plans.IndexMin
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.planner.spi.IndexDescriptor
+import org.neo4j.cypher.internal.util.symbols.CTAny
+
+/**
+ * Plans min(n.prop), max(n.prop) and count(DISTINCT n.prop) over all nodes with a label as a [[org.neo4j.cypher.internal.logical.plans.NodeIndexAggregation]]
+ * when there is an index on :Label(prop), instead of aggregating over every node or every index entry. Like [[countStorePlanner]], this only
+ * applies when the aggregation is the only thing returned from the single node pattern.
+ */
+case object indexAggregationPlanner {
+
+  def apply(query: SinglePlannerQuery, context: LogicalPlanningContext): Option[LogicalPlan] = {
+    query.horizon match {
+      case AggregatingQueryProjection(groupingKeys, aggregatingExpressions, _, _)
+        if groupingKeys.isEmpty && aggregatingExpressions.size == 1 =>
+        val (columnName, exp) = aggregatingExpressions.head
+        for {
+          node <- singleNode(query.queryGraph)
+          (aggregation, propertyKey) <- indexAggregation(exp, node)
+          LabelName(label) <- countStorePlanner.findLabel(node, query.queryGraph.selections)
+          index <- context.planContext.indexGetForLabelAndProperties(label, Seq(propertyKey))
+          if index.filter.isEmpty && supports(index, aggregation)
+        } yield {
+          context.logicalPlanProducer.planNodeIndexAggregation(query, columnName, LabelToken(label, index.label),
+            PropertyKeyToken(propertyKey, index.property), aggregation, query.queryGraph.argumentIds, context)
+        }
+
+      case _ => None
+    }
+  }
+
+  private def singleNode(queryGraph: QueryGraph): Option[String] = queryGraph match {
+    case QueryGraph(patternRelationships, patternNodes, argumentIds, selections, Seq(), hints, shortestPathPatterns, _)
+      if patternRelationships.isEmpty && patternNodes.size == 1 && hints.isEmpty && shortestPathPatterns.isEmpty &&
+        queryGraph.readOnly && patternNodes.intersect(argumentIds).isEmpty && countStorePlanner.noWrongPredicates(patternNodes, selections) =>
+      patternNodes.headOption
+    case _ => None
+  }
+
+  private def indexAggregation(exp: Expression, node: String): Option[(IndexAggregation, String)] = exp match {
+    case func@FunctionInvocation(_, _, _, Vector(Property(Variable(`node`), PropertyKeyName(propertyKey)))) if func.function == functions.Min =>
+      Some(IndexMin -> propertyKey)
+    case func@FunctionInvocation(_, _, _, Vector(Property(Variable(`node`), PropertyKeyName(propertyKey)))) if func.function == functions.Max =>
+      Some(IndexMax -> propertyKey)
+    case func@FunctionInvocation(_, _, true, Vector(Property(Variable(`node`), PropertyKeyName(propertyKey)))) if func.function == functions.Count =>
+      Some(IndexCountDistinct -> propertyKey)
+    case _ => None
+  }
+
+  // All aggregations read values in index order, which for count(DISTINCT) makes equal values come out next to each other
+  private def supports(index: IndexDescriptor, aggregation: IndexAggregation): Boolean = {
+    val orderCapability = index.orderCapability(Seq(CTAny))
+    val ordered = if (aggregation == IndexMax) orderCapability.desc else orderCapability.asc
+    ordered && index.valueCapability(Seq(CTAny)).forall(_ != DoNotGetValue)
+  }
+}
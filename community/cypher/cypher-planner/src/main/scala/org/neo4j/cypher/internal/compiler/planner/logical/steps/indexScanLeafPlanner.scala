@@ -150,6 +150,7 @@ object indexScanLeafPlanner extends LeafPlanner with LeafPlanFromExpression {
            labelName <- labelPredicate.labels;
            labelId <- semanticTable.id(labelName);
            indexDescriptor <- context.planContext.indexGetForLabelAndProperties(labelName.name, Seq(property.propertyKey.name))
+           if isUsable(indexDescriptor, variableName, qg)
            )
         yield {
           produceInner(variableName, qg, interestingOrder, property, propertyType, predicate, planProducer, semanticTable, labelPredicate, labelName, labelId, indexDescriptor)
@@ -172,7 +173,7 @@ object indexScanLeafPlanner extends LeafPlanner with LeafPlanFromExpression {
         val maybePropId = context.semanticTable.id(property.propertyKey)
         val maybeIndexDescriptor = context.planContext.indexGetForLabelAndProperties(labelName.name, Seq(property.propertyKey.name))
         (maybeIndexDescriptor, maybePropId) match {
-          case (Some(indexDescriptor), Some(_)) =>
+          case (Some(indexDescriptor), Some(_)) if isUsable(indexDescriptor, variableName, qg) =>
             Some(produceInner(variableName, qg, interestingOrder, property, propertyType, predicate, planProducer, semanticTable, predicate, labelName, labelId, indexDescriptor))
           case _ =>
             None
@@ -181,6 +182,10 @@ object indexScanLeafPlanner extends LeafPlanner with LeafPlanFromExpression {
     }
   }
 
+  // A partial index can only be used if the query only asks for nodes that are in the index
+  private def isUsable(indexDescriptor: IndexDescriptor, variableName: String, qg: QueryGraph): Boolean =
+    indexDescriptor.filter.forall(_.isImpliedBy(variableName, qg.selections.flatPredicates))
+
   private def produceInner(variableName: String,
                            qg: QueryGraph,
                            interestingOrder: InterestingOrder,
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.steps
+
+import org.neo4j.cypher.internal.ast.semantics.SemanticTable
+import org.neo4j.cypher.internal.compiler.planner.logical.LeafPlanner
+import org.neo4j.cypher.internal.compiler.planner.logical.LogicalPlanningContext
+import org.neo4j.cypher.internal.compiler.planner.logical.plans.AsPropertySeekable
+import org.neo4j.cypher.internal.compiler.planner.logical.plans.PropertySeekable
+import org.neo4j.cypher.internal.expressions.Expression
+import org.neo4j.cypher.internal.expressions.HasLabels
+import org.neo4j.cypher.internal.expressions.LabelName
+import org.neo4j.cypher.internal.expressions.LabelToken
+import org.neo4j.cypher.internal.expressions.LogicalVariable
+import org.neo4j.cypher.internal.expressions.Ors
+import org.neo4j.cypher.internal.expressions.PropertyKeyToken
+import org.neo4j.cypher.internal.expressions.Variable
+import org.neo4j.cypher.internal.ir.QueryGraph
+import org.neo4j.cypher.internal.ir.ordering.InterestingOrder
+import org.neo4j.cypher.internal.logical.plans.CompositeQueryExpression
+import org.neo4j.cypher.internal.logical.plans.DoNotGetValue
+import org.neo4j.cypher.internal.logical.plans.IndexedProperty
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.planner.spi.MultiLabelIndexDescriptor
+
+/**
+ * Plans MATCH (n) WHERE (n:A OR n:B) AND n.prop = ... as a single [[org.neo4j.cypher.internal.logical.plans.MultiLabelNodeIndexSeek]]
+ * when there is an index on exactly the labels :A and :B and on the compared properties. Without such an index the label disjunction
+ * is solved by one leaf plan per label and a union of their results.
+ */
+object multiLabelIndexSeekLeafPlanner extends LeafPlanner {
+
+  override def apply(qg: QueryGraph, interestingOrder: InterestingOrder, context: LogicalPlanningContext): Seq[LogicalPlan] = {
+    val predicates = qg.selections.flatPredicates
+    predicates.flatMap {
+      case labelPredicate@Ors(exprs) =>
+        labelDisjunction(exprs) match {
+          case Some((idName, labelNames)) if qg.patternNodes(idName) && !qg.argumentIds(idName) =>
+            producePlansFor(idName, labelNames, labelPredicate, predicates, qg.argumentIds, context)
+          case _ =>
+            Seq.empty
+        }
+      case _ =>
+        Seq.empty
+    }
+  }
+
+  /**
+   * The variable and labels of a disjunction like n:A OR n:B, which only has single label predicates on the same variable.
+   */
+  private def labelDisjunction(exprs: Seq[Expression]): Option[(String, Seq[LabelName])] = {
+    val labelPredicates = exprs.collect {
+      case HasLabels(Variable(name), Seq(labelName)) => (name, labelName)
+    }
+    val names = labelPredicates.map(_._1).distinct
+    if (labelPredicates.size == exprs.size && names.size == 1) Some((names.head, labelPredicates.map(_._2))) else None
+  }
+
+  private def producePlansFor(idName: String,
+                              labelNames: Seq[LabelName],
+                              labelPredicate: Expression,
+                              predicates: Seq[Expression],
+                              argumentIds: Set[String],
+                              context: LogicalPlanningContext): Seq[LogicalPlan] = {
+    implicit val semanticTable: SemanticTable = context.semanticTable
+    val labels = labelNames.flatMap(labelName => semanticTable.id(labelName).map(LabelToken(labelName, _))).sortBy(_.nameId.id)
+    if (labels.size != labelNames.size) {
+      Seq.empty
+    } else {
+      val arguments: Set[LogicalVariable] = argumentIds.map(n => Variable(n)(null))
+      val seekables = predicates.collect {
+        case predicate@AsPropertySeekable(seekable: PropertySeekable) if seekable.name == idName && seekable.dependencies.forall(arguments) =>
+          (seekable, predicate)
+      }
+      val labelIds = labels.map(_.nameId).toSet
+      for {
+        index <- context.planContext.multiLabelIndexesGetForLabel(labels.head.nameId.id).toSeq
+        if index.labels.toSet == labelIds
+        predicatesForIndex <- seekablesForIndex(index, seekables).toSeq
+      } yield {
+        val queryExpressions = predicatesForIndex.map(_._1.args.asQueryExpression)
+        val queryExpression = if (queryExpressions.size == 1) queryExpressions.head else CompositeQueryExpression(queryExpressions)
+        val properties = predicatesForIndex.zip(index.properties).map {
+          case ((seekable, _), propertyKeyId) => IndexedProperty(PropertyKeyToken(seekable.propertyKey, propertyKeyId), DoNotGetValue)
+        }
+        val solvedPredicates = labelPredicate +: predicatesForIndex.map(_._2)
+        context.logicalPlanProducer.planMultiLabelNodeIndexSeek(idName, labels, properties, queryExpression, solvedPredicates, solvedPredicates,
+          argumentIds, context)
+      }
+    }
+  }
+
+  /**
+   * One equality predicate for each indexed property, in the order of the index properties, or None if a property is not compared.
+   */
+  private def seekablesForIndex(index: MultiLabelIndexDescriptor, seekables: Seq[(PropertySeekable, Expression)])
+                               (implicit semanticTable: SemanticTable): Option[Seq[(PropertySeekable, Expression)]] = {
+    val found = index.properties.map(propertyKeyId => seekables.find(p => semanticTable.id(p._1.propertyKey).contains(propertyKeyId)))
+    if (found.forall(_.isDefined)) Some(found.flatten) else None
+  }
+}
@@ -31,6 +31,7 @@ import org.neo4j.cypher.internal.ir.QueryGraph
 import org.neo4j.cypher.internal.logical.plans.LogicalPlan
 import org.neo4j.cypher.internal.logical.plans.ProcedureSignature
 import org.neo4j.cypher.internal.planner.spi.GraphStatistics
+import org.neo4j.cypher.internal.planner.spi.IndexFilter
 import org.neo4j.cypher.internal.planner.spi.IndexOrderCapability
 import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.Cardinalities
 import org.neo4j.cypher.internal.util.Cardinality
@@ -48,6 +49,7 @@ trait LogicalPlanningConfiguration {
   def costModel(): PartialFunction[(LogicalPlan, QueryGraphSolverInput, Cardinalities), Cost]
   def graphStatistics: GraphStatistics
   def indexes: Map[IndexDef, IndexType]
+  def multiLabelIndexes: Set[MultiLabelIndexDef]
   def constraints: Set[(String, Set[String])]
   def procedureSignatures: Set[ProcedureSignature]
   def labelCardinality: Map[String, Cardinality]
@@ -60,9 +62,11 @@ trait LogicalPlanningConfiguration {
 }
 
 case class IndexDef(label: String, propertyKeys: Seq[String])
+case class MultiLabelIndexDef(labels: Seq[String], propertyKeys: Seq[String])
 class IndexType(var isUnique: Boolean = false,
                 var withValues: Boolean = false,
-                var withOrdering: IndexOrderCapability = IndexOrderCapability.NONE)
+                var withOrdering: IndexOrderCapability = IndexOrderCapability.NONE,
+                var filter: Option[IndexFilter] = None)
 
 class DelegatingLogicalPlanningConfiguration(val parent: LogicalPlanningConfiguration) extends LogicalPlanningConfiguration {
   override def updateSemanticTableWithTokens(in: SemanticTable): SemanticTable = parent.updateSemanticTableWithTokens(in)
@@ -71,6 +75,7 @@ class DelegatingLogicalPlanningConfiguration(val parent: LogicalPlanningConfigur
   override def costModel() = parent.costModel()
   override def graphStatistics = parent.graphStatistics
   override def indexes = parent.indexes
+  override def multiLabelIndexes = parent.multiLabelIndexes
   override def constraints: Set[(String, Set[String])] = parent.constraints
   override def labelCardinality = parent.labelCardinality
   override def knownLabels = parent.knownLabels
@@ -104,6 +109,10 @@ trait LogicalPlanningConfigurationAdHocSemanticTable {
       addLabelIfUnknown(label)
       properties.foreach(addPropertyKeyIfUnknown)
     }
+    multiLabelIndexes.foreach { case MultiLabelIndexDef(labels, properties) =>
+      labels.foreach(addLabelIfUnknown)
+      properties.foreach(addPropertyKeyIfUnknown)
+    }
 
     labelCardinality.keys.foreach(addLabelIfUnknown)
     knownLabels.foreach(addLabelIfUnknown)
@@ -286,6 +286,7 @@ trait LogicalPlanningTestSupport extends CypherTestSupport with AstConstructionT
 
   val config = CypherPlannerConfiguration(
     queryCacheSize = 100,
+    queryCacheMaxWeight = 0,
     statsDivergenceCalculator = StatsDivergenceCalculator.divergenceNoDecayCalculator(0.5, 1000),
     useErrorsOverWarnings = false,
     idpMaxTableSize = DefaultIDPSolverConfig.maxTableSize,
@@ -71,6 +71,7 @@ import org.neo4j.cypher.internal.planner.spi.IndexDescriptor
 import org.neo4j.cypher.internal.planner.spi.IndexDescriptor.OrderCapability
 import org.neo4j.cypher.internal.planner.spi.IndexDescriptor.ValueCapability
 import org.neo4j.cypher.internal.planner.spi.InstrumentedGraphStatistics
+import org.neo4j.cypher.internal.planner.spi.MultiLabelIndexDescriptor
 import org.neo4j.cypher.internal.planner.spi.MutableGraphStatisticsSnapshot
 import org.neo4j.cypher.internal.planner.spi.PlanningAttributes
 import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.Cardinalities
@@ -83,6 +84,7 @@ import org.neo4j.cypher.internal.util.Cardinality
 import org.neo4j.cypher.internal.util.Cost
 import org.neo4j.cypher.internal.util.Foldable.FoldableAny
 import org.neo4j.cypher.internal.util.Foldable.SkipChildren
+import org.neo4j.cypher.internal.util.LabelId
 import org.neo4j.cypher.internal.util.PropertyKeyId
 import org.neo4j.cypher.internal.util.attribution.Attribute
 import org.neo4j.cypher.internal.util.devNullLogger
@@ -109,6 +111,7 @@ trait LogicalPlanningTestSupport2 extends CypherTestSupport with AstConstruction
   var queryGraphSolver: QueryGraphSolver = createQueryGraphSolver()
   val cypherCompilerConfig = CypherPlannerConfiguration(
     queryCacheSize = 100,
+    queryCacheMaxWeight = 0,
     statsDivergenceCalculator = StatsDivergenceCalculator.divergenceNoDecayCalculator(0.5, 1000),
     useErrorsOverWarnings = false,
     idpMaxTableSize = DefaultIDPSolverConfig.maxTableSize,
@@ -165,6 +168,14 @@ trait LogicalPlanningTestSupport2 extends CypherTestSupport with AstConstruction
         }.iterator
       }
 
+      override def multiLabelIndexesGetForLabel(labelId: Int): Iterator[MultiLabelIndexDescriptor] = {
+        config.multiLabelIndexes.iterator.map { indexDef =>
+          MultiLabelIndexDescriptor(
+            indexDef.labels.map(semanticTable.resolvedLabelNames(_)),
+            indexDef.propertyKeys.map(semanticTable.resolvedPropertyKeyNames(_)))
+        }.filter(_.labels.contains(LabelId(labelId)))
+      }
+
       override def uniqueIndexesGetForLabel(labelId: Int): Iterator[IndexDescriptor] = {
         val label = config.labelsById(labelId)
         config.indexes.collect {
@@ -187,7 +198,8 @@ trait LogicalPlanningTestSupport2 extends CypherTestSupport with AstConstruction
           indexDef.propertyKeys.map(semanticTable.resolvedPropertyKeyNames(_)),
           valueCapability = valueCapability,
           orderCapability = orderCapability,
-          isUnique = indexType.isUnique
+          isUnique = indexType.isUnique,
+          filter = indexType.filter
         )
       }
 
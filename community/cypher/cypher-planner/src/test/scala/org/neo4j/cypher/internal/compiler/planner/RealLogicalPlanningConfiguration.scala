@@ -48,6 +48,7 @@ case class RealLogicalPlanningConfiguration(cypherCompilerConfig: CypherPlannerC
 
   override def graphStatistics: GraphStatistics = HardcodedGraphStatistics
   override def indexes: Map[IndexDef, IndexType] = Map.empty
+  override def multiLabelIndexes: Set[MultiLabelIndexDef] = Set.empty
   override def constraints: Set[(String, Set[String])] = Set.empty
   override def procedureSignatures: Set[ProcedureSignature] = Set.empty
   override def labelCardinality: Map[String, Cardinality] = Map.empty
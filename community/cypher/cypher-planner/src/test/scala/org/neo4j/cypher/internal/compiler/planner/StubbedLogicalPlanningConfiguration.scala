@@ -32,6 +32,7 @@ import org.neo4j.cypher.internal.ir.RegularSinglePlannerQuery
 import org.neo4j.cypher.internal.logical.plans.LogicalPlan
 import org.neo4j.cypher.internal.logical.plans.ProcedureSignature
 import org.neo4j.cypher.internal.planner.spi.GraphStatistics
+import org.neo4j.cypher.internal.planner.spi.IndexFilter
 import org.neo4j.cypher.internal.planner.spi.IndexOrderCapability
 import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.Cardinalities
 import org.neo4j.cypher.internal.util.Cardinality
@@ -60,11 +61,14 @@ class StubbedLogicalPlanningConfiguration(val parent: LogicalPlanningConfigurati
 
   var indexes: Map[IndexDef, IndexType] = Map.empty
 
+  var multiLabelIndexes: Set[MultiLabelIndexDef] = Set.empty
+
   var constraints: Set[(String, Set[String])] = Set.empty
 
   var procedureSignatures: Set[ProcedureSignature] = Set.empty
 
-  lazy val labelsById: Map[Int, String] = indexes.keys.map(_.label).zipWithIndex.map(_.swap).toMap
+  lazy val labelsById: Map[Int, String] =
+    (indexes.keys.map(_.label).toSeq ++ multiLabelIndexes.toSeq.flatMap(_.labels)).distinct.zipWithIndex.map(_.swap).toMap
 
   case class IndexModifier(indexType: IndexType) {
     def providesValues(): IndexModifier = {
@@ -75,6 +79,10 @@ class StubbedLogicalPlanningConfiguration(val parent: LogicalPlanningConfigurati
       indexType.withOrdering = order
       this
     }
+    def filteredOn(propertyKey: String, value: AnyRef): IndexModifier = {
+      indexType.filter = Some(IndexFilter(propertyKey, value))
+      this
+    }
   }
 
   def indexOn(label: String, properties: String*): IndexModifier = {
@@ -89,6 +97,10 @@ class StubbedLogicalPlanningConfiguration(val parent: LogicalPlanningConfigurati
     IndexModifier(indexType)
   }
 
+  def multiLabelIndexOn(labels: Seq[String], properties: String*): Unit = {
+    multiLabelIndexes += MultiLabelIndexDef(labels, properties)
+  }
+
   def existenceOrNodeKeyConstraintOn(label: String, properties: Set[String]): Unit = {
     constraints = constraints + (label -> properties)
   }
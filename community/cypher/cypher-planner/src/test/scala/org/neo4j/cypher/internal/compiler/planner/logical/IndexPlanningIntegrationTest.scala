@@ -22,11 +22,13 @@ package org.neo4j.cypher.internal.compiler.planner.logical
 import org.neo4j.cypher.internal.compiler.helpers.LogicalPlanBuilder
 import org.neo4j.cypher.internal.compiler.planner.BeLikeMatcher.beLike
 import org.neo4j.cypher.internal.compiler.planner.LogicalPlanningTestSupport2
+import org.neo4j.cypher.internal.expressions.LabelToken
 import org.neo4j.cypher.internal.logical.plans.AllNodesScan
 import org.neo4j.cypher.internal.logical.plans.Apply
 import org.neo4j.cypher.internal.logical.plans.Argument
 import org.neo4j.cypher.internal.logical.plans.CartesianProduct
 import org.neo4j.cypher.internal.logical.plans.Expand
+import org.neo4j.cypher.internal.logical.plans.MultiLabelNodeIndexSeek
 import org.neo4j.cypher.internal.logical.plans.NodeByLabelScan
 import org.neo4j.cypher.internal.logical.plans.NodeIndexContainsScan
 import org.neo4j.cypher.internal.logical.plans.NodeIndexEndsWithScan
@@ -280,4 +282,64 @@ class IndexPlanningIntegrationTest extends CypherFunSuite with LogicalPlanningTe
     }
   }
 
+  test("should plan partial index seek if the query implies the index filter") {
+    val plan =
+      new given {
+        indexOn("Person", "email").filteredOn("status", "active")
+      } getLogicalPlanFor "MATCH (n:Person) WHERE n.email = 'a@example.com' AND n.status = 'active' RETURN n"
+
+    plan._2 should beLike {
+      case Selection(_, _: NodeIndexSeek) => ()
+    }
+  }
+
+  test("should plan partial index scan if the query implies the index filter") {
+    val plan =
+      new given {
+        indexOn("Person", "email").filteredOn("status", java.lang.Long.valueOf(1))
+      } getLogicalPlanFor "MATCH (n:Person) WHERE exists(n.email) AND 1.0 = n.status RETURN n"
+
+    plan._2 should beLike {
+      case Selection(_, _: NodeIndexScan) => ()
+    }
+  }
+
+  test("should not plan partial index if the query does not imply the index filter") {
+    for (predicate <- List("n.status = 'inactive'", "n.status <> 'active'", "n.status = 'active' OR n.email = 'b@example.com'", "true")) {
+      val plan =
+        new given {
+          indexOn("Person", "email").filteredOn("status", "active")
+        } getLogicalPlanFor s"MATCH (n:Person) WHERE n.email = 'a@example.com' AND ($predicate) RETURN n"
+
+      withClue(predicate) {
+        plan._2 should beLike {
+          case Selection(_, _: NodeByLabelScan) => ()
+        }
+      }
+    }
+  }
+
+  test("should plan one multi-label index seek for a label disjunction") {
+    val plan =
+      new given {
+        multiLabelIndexOn(Seq("Customer", "Supplier"), "externalId")
+      } getLogicalPlanFor "MATCH (n) WHERE (n:Supplier OR n:Customer) AND n.externalId = 42 RETURN n"
+
+    plan._2 should beLike {
+      case MultiLabelNodeIndexSeek("n", Seq(LabelToken("Customer", _), LabelToken("Supplier", _)), Seq(_), _, _) => ()
+    }
+  }
+
+  test("should not plan multi-label index seek if the labels of the index and the disjunction differ") {
+    for (labelPredicate <- List("n:Customer", "n:Customer OR n:Partner", "n:Customer OR n:Supplier OR n:Partner")) {
+      val plan =
+        new given {
+          multiLabelIndexOn(Seq("Customer", "Supplier"), "externalId")
+        } getLogicalPlanFor s"MATCH (n) WHERE ($labelPredicate) AND n.externalId = 42 RETURN n"
+
+      withClue(labelPredicate) {
+        plan._2.treeExists { case _: MultiLabelNodeIndexSeek => true } should be(false)
+      }
+    }
+  }
 }
@@ -33,6 +33,7 @@ import org.neo4j.cypher.internal.compiler.planner.logical.PlannerDefaults.DEFAUL
 import org.neo4j.cypher.internal.compiler.planner.logical.PlannerDefaults.DEFAULT_STRING_LENGTH
 import org.neo4j.cypher.internal.compiler.planner.logical.PlannerDefaults.DEFAULT_TYPE_SELECTIVITY
 import org.neo4j.cypher.internal.expressions.AndedPropertyInequalities
+import org.neo4j.cypher.internal.expressions.AutoExtractedParameter
 import org.neo4j.cypher.internal.expressions.Expression
 import org.neo4j.cypher.internal.expressions.HasLabels
 import org.neo4j.cypher.internal.expressions.InequalityExpression
@@ -41,14 +42,17 @@ import org.neo4j.cypher.internal.expressions.functions.Distance
 import org.neo4j.cypher.internal.expressions.functions.Exists
 import org.neo4j.cypher.internal.ir.Predicate
 import org.neo4j.cypher.internal.ir.Selections
+import org.neo4j.cypher.internal.logical.plans.Bound
 import org.neo4j.cypher.internal.planner.spi.GraphStatistics
 import org.neo4j.cypher.internal.planner.spi.IndexDescriptor
 import org.neo4j.cypher.internal.planner.spi.MinimumGraphStatistics.MIN_NODES_ALL_CARDINALITY
 import org.neo4j.cypher.internal.planner.spi.MinimumGraphStatistics.MIN_NODES_WITH_LABEL_CARDINALITY
+import org.neo4j.cypher.internal.planner.spi.ValueHistogram
 import org.neo4j.cypher.internal.util.LabelId
 import org.neo4j.cypher.internal.util.NonEmptyList
 import org.neo4j.cypher.internal.util.PropertyKeyId
 import org.neo4j.cypher.internal.util.Selectivity
+import org.neo4j.cypher.internal.util.symbols.CTInteger
 import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
 
 class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstructionTestSupport {
@@ -908,6 +912,98 @@ class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstru
     eqResult should equal(IndependenceCombiner.orTogetherSelectivities(for (_ <- 1 to DEFAULT_LIST_CARDINALITY.amount.toInt) yield resFor1).get)
   }
 
+  // VALUE HISTOGRAMS
+
+  private object personHistogram extends ValueHistogram {
+    override def equalitySelectivity(value: AnyRef): Option[Selectivity] = value match {
+      case v: java.lang.Long if v == 3L => Some(Selectivity(0.5))
+      case _: java.lang.Long => Some(Selectivity(0.01))
+      case _ => None
+    }
+
+    override def rangeSelectivity(lower: Option[Bound[AnyRef]], upper: Option[Bound[AnyRef]]): Option[Selectivity] =
+      if (lower.isDefined && upper.isDefined) Some(Selectivity(0.02)) else Some(Selectivity(0.1))
+
+    override def prefixSelectivity(prefix: String): Option[Selectivity] = Some(Selectivity(0.3))
+  }
+
+  private val statsWithHistogram = mockStats(histograms = Map(indexPerson -> personHistogram))
+
+  test("half-open (>) range with one label and a value histogram") {
+    val inequality = predicate(anded(NonEmptyList(
+      greaterThan(nProp, literalInt(3))
+    )))
+
+    val calculator = setUpCalculator(inequality, Seq(nIsPerson), statsWithHistogram)
+
+    calculator(inequality.expr).factor should equal(personPropSel * 0.1 +- 0.00000001)
+  }
+
+  test("closed (>= && <) range with one label and a value histogram") {
+    val inequality = predicate(anded(NonEmptyList(
+      greaterThanOrEqual(nProp, literalInt(3)),
+      lessThan(nProp, literalInt(4))
+    )))
+
+    val calculator = setUpCalculator(inequality, Seq(nIsPerson), statsWithHistogram)
+
+    calculator(inequality.expr).factor should equal(personPropSel * 0.02 +- 0.00000001)
+  }
+
+  test("range with an unknown bound should not use the value histogram") {
+    val inequality = predicate(anded(NonEmptyList(
+      greaterThan(nProp, literalInt(3)),
+      lessThan(nProp, varFor("x"))
+    )))
+
+    val calculator = setUpCalculator(inequality, Seq(nIsPerson), statsWithHistogram)
+    val calculatorWithoutHistogram = setUpCalculator(inequality, Seq(nIsPerson))
+
+    calculator(inequality.expr) should equal(calculatorWithoutHistogram(inequality.expr))
+  }
+
+  test("equality with one label and a value histogram") {
+    val frequent = predicate(super.equals(nProp, literalInt(3)))
+    val rare = predicate(super.equals(nProp, literalInt(4)))
+
+    val calculator = setUpCalculator(frequent, Seq(nIsPerson), statsWithHistogram)
+
+    calculator(frequent.expr).factor should equal(personPropSel * 0.5 +- 0.00000001)
+    calculator(rare.expr).factor should equal(personPropSel * 0.01 +- 0.00000001)
+  }
+
+  test("equality with several values, one label and a value histogram") {
+    val equals = predicate(in(nProp, listOfInt(3, 4)))
+
+    val calculator = setUpCalculator(equals, Seq(nIsPerson), statsWithHistogram)
+
+    calculator(equals.expr).factor should equal(personPropSel * (0.5 + 0.01 - 0.5 * 0.01) +- 0.00000001)
+  }
+
+  test("equality with a value the histogram doesn't know should fall back to unique values") {
+    val equals = predicate(super.equals(nProp, literalString("3")))
+
+    val calculator = setUpCalculator(equals, Seq(nIsPerson), statsWithHistogram)
+
+    calculator(equals.expr).factor should equal(personPropSel * indexPersonUniqueSel +- 0.00000001)
+  }
+
+  test("equality with an auto extracted literal and a value histogram") {
+    val equals = predicate(super.equals(nProp, AutoExtractedParameter("  AUTOINT0", CTInteger, literalInt(3))(pos)))
+
+    val calculator = setUpCalculator(equals, Seq(nIsPerson), statsWithHistogram)
+
+    calculator(equals.expr).factor should equal(personPropSel * 0.5 +- 0.00000001)
+  }
+
+  test("starts with one label and a value histogram") {
+    val stringPredicate = predicate(startsWith(nProp, literalString("12")))
+
+    val calculator = setUpCalculator(stringPredicate, Seq(nIsPerson), statsWithHistogram)
+
+    calculator(stringPredicate.expr).factor should equal(personPropSel * 0.3 +- 0.00000001)
+  }
+
   // OTHER
 
   test("Should peek inside sub predicates") {
@@ -958,11 +1054,13 @@ class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstru
    * @param labelCardinalities       for each label, the number of nodes that have that label
    * @param indexCardinalities       for each index, the number of values in that index
    * @param indexUniqueCardinalities for each index, the number of unique values in that index
+   * @param histograms               for each index, the distribution of values in that index
    */
   private def mockStats(allNodesCardinality: Double = 10000.0,
                         labelCardinalities: Map[LabelId, Double] = Map(indexPerson.label -> 1000.0),
                         indexCardinalities: Map[IndexDescriptor, Double] = Map(indexPerson -> 200.0),
-                        indexUniqueCardinalities: Map[IndexDescriptor, Double] = Map(indexPerson -> 180.0)): GraphStatistics = {
+                        indexUniqueCardinalities: Map[IndexDescriptor, Double] = Map(indexPerson -> 180.0),
+                        histograms: Map[IndexDescriptor, ValueHistogram] = Map.empty): GraphStatistics = {
 
     // sanity check:
     for {
@@ -1007,6 +1105,11 @@ class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstru
       }
     })
 
+    when(stats.indexValueHistogram(any())).thenAnswer(new Answer[Option[ValueHistogram]] {
+      override def answer(invocationOnMock: InvocationOnMock): Option[ValueHistogram] =
+        histograms.get(invocationOnMock.getArgument[IndexDescriptor](0))
+    })
+
     stats
   }
 
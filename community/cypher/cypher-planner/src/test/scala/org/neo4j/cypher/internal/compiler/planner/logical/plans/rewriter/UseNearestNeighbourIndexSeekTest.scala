@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.plans.rewriter
+
+import org.neo4j.cypher.internal.compiler.NotImplementedPlanContext
+import org.neo4j.cypher.internal.compiler.planner.LogicalPlanningTestSupport
+import org.neo4j.cypher.internal.expressions.LabelToken
+import org.neo4j.cypher.internal.expressions.PropertyKeyToken
+import org.neo4j.cypher.internal.logical.plans.Ascending
+import org.neo4j.cypher.internal.logical.plans.Descending
+import org.neo4j.cypher.internal.logical.plans.DoNotGetValue
+import org.neo4j.cypher.internal.logical.plans.DoNotIncludeTies
+import org.neo4j.cypher.internal.logical.plans.IndexOrderNone
+import org.neo4j.cypher.internal.logical.plans.IndexedProperty
+import org.neo4j.cypher.internal.logical.plans.Limit
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.logical.plans.NearestNeighboursQueryExpression
+import org.neo4j.cypher.internal.logical.plans.NodeByLabelScan
+import org.neo4j.cypher.internal.logical.plans.NodeIndexSeek
+import org.neo4j.cypher.internal.logical.plans.Projection
+import org.neo4j.cypher.internal.logical.plans.Selection
+import org.neo4j.cypher.internal.logical.plans.Top
+import org.neo4j.cypher.internal.logical.plans.Union
+import org.neo4j.cypher.internal.planner.spi.IndexDescriptor
+import org.neo4j.cypher.internal.util.LabelId
+import org.neo4j.cypher.internal.util.PropertyKeyId
+import org.neo4j.cypher.internal.util.attribution.Attributes
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+
+class UseNearestNeighbourIndexSeekTest extends CypherFunSuite with LogicalPlanningTestSupport {
+  private val planContext = new NotImplementedPlanContext {
+    override def indexGetForLabelAndProperties(labelName: String, propertyKeys: Seq[String]): Option[IndexDescriptor] =
+      if (labelName == "Place" && propertyKeys == Seq("location")) Some(IndexDescriptor(LabelId(1), Seq(PropertyKeyId(2)))) else None
+  }
+  private val origin = varFor("origin")
+  private val distance = function("distance", prop("n", "location"), origin)
+  private val lit10 = literalInt(10)
+
+  test("should seek nearest neighbours when ordering label scan by distance to indexed property") {
+    val scan = NodeByLabelScan("n", labelName("Place"), Set("origin"), IndexOrderNone)
+    val top = Top(Projection(scan, Map("d" -> distance)), Seq(Ascending("d")), lit10)
+
+    val seek = NodeIndexSeek("n", LabelToken("Place", LabelId(1)), Seq(IndexedProperty(PropertyKeyToken("location", PropertyKeyId(2)), DoNotGetValue)),
+      NearestNeighboursQueryExpression(origin), Set("origin"), IndexOrderNone)
+    val withoutDistance = Selection(Seq(isNull(distance)), scan)
+    rewrite(top) should equal(Limit(Projection(Union(seek, withoutDistance), Map("d" -> distance)), lit10, DoNotIncludeTies))
+  }
+
+  test("should seek nearest neighbours through selections and with arguments swapped") {
+    val swapped = function("distance", origin, cachedNodeProp("n", "location"))
+    val scan = NodeByLabelScan("n", labelName("Place"), Set("origin"), IndexOrderNone)
+    val predicate = propGreaterThan("n", "rank", 3)
+    val top = Top(Selection(Seq(predicate), Projection(scan, Map("d" -> swapped))), Seq(Ascending("d")), lit10)
+
+    val rewritten = rewrite(top)
+
+    rewritten match {
+      case Limit(Selection(_, Projection(Union(_: NodeIndexSeek, Selection(nullCheck, _: NodeByLabelScan)), _)), `lit10`, DoNotIncludeTies) =>
+        nullCheck.exprs.toSeq should equal(Seq(isNull(function("distance", origin, prop("n", "location")))))
+      case _ =>
+        fail(s"Expected nearest neighbour seek, got $rewritten")
+    }
+  }
+
+  test("should not rewrite when ordering by descending distance") {
+    val scan = NodeByLabelScan("n", labelName("Place"), Set("origin"), IndexOrderNone)
+    val top = Top(Projection(scan, Map("d" -> distance)), Seq(Descending("d")), lit10)
+
+    rewrite(top) should equal(top)
+  }
+
+  test("should not rewrite when there is no index") {
+    val scan = NodeByLabelScan("n", labelName("Person"), Set("origin"), IndexOrderNone)
+    val top = Top(Projection(scan, Map("d" -> distance)), Seq(Ascending("d")), lit10)
+
+    rewrite(top) should equal(top)
+  }
+
+  test("should not rewrite when the point depends on the node") {
+    val scan = NodeByLabelScan("n", labelName("Place"), Set.empty, IndexOrderNone)
+    val selfDistance = function("distance", prop("n", "location"), prop("n", "home"))
+    val top = Top(Projection(scan, Map("d" -> selfDistance)), Seq(Ascending("d")), lit10)
+
+    rewrite(top) should equal(top)
+  }
+
+  private def rewrite(p: LogicalPlan): LogicalPlan =
+    p.endoRewrite(useNearestNeighbourIndexSeek(planContext, Attributes[LogicalPlan](idGen)))
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.steps
+
+import org.neo4j.cypher.internal.compiler.NotImplementedPlanContext
+import org.neo4j.cypher.internal.compiler.planner.LogicalPlanningTestSupport
+import org.neo4j.cypher.internal.compiler.planner.logical.QueryGraphProducer
+import org.neo4j.cypher.internal.expressions.Expression
+import org.neo4j.cypher.internal.expressions.LabelToken
+import org.neo4j.cypher.internal.expressions.PropertyKeyToken
+import org.neo4j.cypher.internal.ir.AggregatingQueryProjection
+import org.neo4j.cypher.internal.logical.plans.CanGetValue
+import org.neo4j.cypher.internal.logical.plans.IndexCountDistinct
+import org.neo4j.cypher.internal.logical.plans.IndexMax
+import org.neo4j.cypher.internal.logical.plans.IndexMin
+import org.neo4j.cypher.internal.logical.plans.NodeIndexAggregation
+import org.neo4j.cypher.internal.planner.spi.IndexDescriptor
+import org.neo4j.cypher.internal.planner.spi.IndexOrderCapability
+import org.neo4j.cypher.internal.util.LabelId
+import org.neo4j.cypher.internal.util.PropertyKeyId
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+
+class indexAggregationPlannerTest extends CypherFunSuite with LogicalPlanningTestSupport with QueryGraphProducer {
+
+  private val orderedIndex = IndexDescriptor(LabelId(1), Seq(PropertyKeyId(2)),
+    orderCapability = _ => IndexOrderCapability.BOTH, valueCapability = _.map(_ => CanGetValue))
+
+  private def planContext(index: IndexDescriptor) = new NotImplementedPlanContext {
+    override def indexGetForLabelAndProperties(labelName: String, propertyKeys: Seq[String]): Option[IndexDescriptor] =
+      if (labelName == "L" && propertyKeys == Seq("p")) Some(index) else None
+  }
+
+  test("should plan min, max and count distinct of an indexed property from the index") {
+    val context = newMockedLogicalPlanningContextWithFakeAttributes(planContext(orderedIndex))
+
+    Seq(
+      min(prop("n", "p")) -> IndexMin,
+      max(prop("n", "p")) -> IndexMax,
+      count(prop("n", "p")).copy(distinct = true)(pos) -> IndexCountDistinct
+    ).foreach {
+      case (expression, aggregation) =>
+        indexAggregationPlanner(producePlannerQuery("MATCH (n:L)", expression), context) should equal(
+          Some(NodeIndexAggregation("x", LabelToken("L", LabelId(1)), PropertyKeyToken("p", PropertyKeyId(2)), aggregation, Set.empty)))
+    }
+  }
+
+  test("should not plan from the index for count without distinct") {
+    val context = newMockedLogicalPlanningContextWithFakeAttributes(planContext(orderedIndex))
+
+    indexAggregationPlanner(producePlannerQuery("MATCH (n:L)", count(prop("n", "p"))), context) should be(None)
+  }
+
+  test("should not plan from the index when there is a predicate on the node") {
+    val context = newMockedLogicalPlanningContextWithFakeAttributes(planContext(orderedIndex))
+
+    indexAggregationPlanner(producePlannerQuery("MATCH (n:L) WHERE n.q > 1", min(prop("n", "p"))), context) should be(None)
+  }
+
+  test("should not plan from the index without an index on the property") {
+    val context = newMockedLogicalPlanningContextWithFakeAttributes(planContext(orderedIndex))
+
+    indexAggregationPlanner(producePlannerQuery("MATCH (n:L)", min(prop("n", "q"))), context) should be(None)
+    indexAggregationPlanner(producePlannerQuery("MATCH (n)", min(prop("n", "p"))), context) should be(None)
+  }
+
+  test("should not plan from the index when it cannot read values in order") {
+    val ascendingOnly = orderedIndex.copy(orderCapability = _ => IndexOrderCapability.ASC)
+    val context = newMockedLogicalPlanningContextWithFakeAttributes(planContext(ascendingOnly))
+
+    indexAggregationPlanner(producePlannerQuery("MATCH (n:L)", min(prop("n", "p"))), context) should not be None
+    indexAggregationPlanner(producePlannerQuery("MATCH (n:L)", max(prop("n", "p"))), context) should be(None)
+
+    val unordered = newMockedLogicalPlanningContextWithFakeAttributes(planContext(IndexDescriptor(LabelId(1), Seq(PropertyKeyId(2)))))
+    indexAggregationPlanner(producePlannerQuery("MATCH (n:L)", min(prop("n", "p"))), unordered) should be(None)
+  }
+
+  private def producePlannerQuery(query: String, expression: Expression) = {
+    val (pq, _) = producePlannerQueryForPattern(query)
+    pq.withHorizon(AggregatingQueryProjection(aggregationExpressions = Map("x" -> expression)))
+  }
+}
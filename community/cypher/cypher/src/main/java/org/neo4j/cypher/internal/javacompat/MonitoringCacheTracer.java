@@ -71,6 +71,12 @@ public class MonitoringCacheTracer implements CacheTracer<Pair<String,QueryCache
         monitor.cacheCompileWithExpressionCodeGen( queryKey );
     }
 
+    @Override
+    public void queryCompileTime( Pair<String,QueryCache.ParameterTypeMap> queryKey, long compileTimeNanos, String metaData )
+    {
+        monitor.cacheCompileTime( queryKey, compileTimeNanos );
+    }
+
     @Override
     public void queryCacheStale( Pair<String,QueryCache.ParameterTypeMap> queryKey, int secondsSincePlan, String metaData,
                                  Option<String> maybeReason )
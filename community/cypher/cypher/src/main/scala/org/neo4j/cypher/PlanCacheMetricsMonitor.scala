@@ -28,13 +28,34 @@ import org.neo4j.internal.helpers.collection.Pair
 class PlanCacheMetricsMonitor extends ExecutionEngineQueryCacheMonitor {
   private val counter = new AtomicLong()
   private val waitTime = new AtomicLong()
+  private val hits = new AtomicLong()
+  private val misses = new AtomicLong()
+  private val compilations = new AtomicLong()
+  private val compileTime = new AtomicLong()
 
   override def cacheDiscard(ignored1: Pair[String, ParameterTypeMap], ignored2: String, secondsSinceReplan: Int, maybeReason: Option[String]): Unit = {
     counter.incrementAndGet()
     waitTime.addAndGet(secondsSinceReplan)
   }
 
+  override def cacheHit(ignored: Pair[String, ParameterTypeMap]): Unit = hits.incrementAndGet()
+
+  override def cacheMiss(ignored: Pair[String, ParameterTypeMap]): Unit = misses.incrementAndGet()
+
+  override def cacheCompileTime(ignored: Pair[String, ParameterTypeMap], compileTimeNanos: Long): Unit = {
+    compilations.incrementAndGet()
+    compileTime.addAndGet(compileTimeNanos)
+  }
+
   def numberOfReplans: Long = counter.get()
 
   def replanWaitTime: Long = waitTime.get()
+
+  def numberOfHits: Long = hits.get()
+
+  def numberOfMisses: Long = misses.get()
+
+  def numberOfCompilations: Long = compilations.get()
+
+  def compileTimeNanos: Long = compileTime.get()
 }
@@ -19,6 +19,8 @@
  */
 package org.neo4j.cypher.internal
 
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.util.Foldable.FoldableAny
 import org.neo4j.cypher.internal.util.InternalNotification
 
 /**
@@ -33,4 +35,19 @@ trait CacheabilityInfo {
   def shouldBeCached: Boolean
 
   def notifications: IndexedSeq[InternalNotification]
+
+  /**
+   * The weight of this entry in query caches that are bounded by weight rather than by number of entries.
+   * Should grow with the memory held on to by the entry.
+   */
+  def cacheWeight: Int = 1
+}
+
+object CacheabilityInfo {
+  /**
+   * Weight of a cached plan, being the number of operators and expressions in it.
+   */
+  def planWeight(plan: LogicalPlan): Int = plan.treeCount {
+    case _ => true
+  }
 }
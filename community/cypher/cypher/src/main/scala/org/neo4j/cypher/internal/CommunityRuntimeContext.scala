@@ -29,26 +29,26 @@ import org.neo4j.logging.Log
 
 /**
  * The regular community runtime context.
+ *
+ * @param compileExpressions whether the interpreted pipes should evaluate expressions through generated classes.
  */
 case class CommunityRuntimeContext(tokenContext: TokenContext,
                                    schemaRead: SchemaRead,
                                    log: Log,
-                                   config: CypherRuntimeConfiguration) extends RuntimeContext {
-
-  override def compileExpressions: Boolean = false
-}
+                                   config: CypherRuntimeConfiguration,
+                                   compileExpressions: Boolean = false) extends RuntimeContext
 
 case class CommunityRuntimeContextManager(log: Log, config: CypherRuntimeConfiguration) extends RuntimeContextManager[CommunityRuntimeContext] {
   override def create(tokenContext: TokenContext,
                       schemaRead: SchemaRead,
                       clock: Clock,
                       debugOptions: Set[String],
-                      ignore: Boolean,
+                      compileExpressions: Boolean,
                       ignore2: Boolean,
                       ignore3: CypherOperatorEngineOption,
                       ignore4: CypherInterpretedPipesFallbackOption
                      ): CommunityRuntimeContext =
-    CommunityRuntimeContext(tokenContext, schemaRead, log, config)
+    CommunityRuntimeContext(tokenContext, schemaRead, log, config, compileExpressions)
 
   // As we rely completely on transaction bound resources in community,
   // there is no need for further assertions here.
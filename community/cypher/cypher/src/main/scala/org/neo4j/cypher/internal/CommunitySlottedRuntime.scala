@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal
+
+/**
+ * Runs queries with the interpreted pipes, but with rows that keep their values in an array instead of in a map.
+ * Every variable of the query is given a slot when the query is compiled, so reading, writing and copying rows
+ * avoids hashing variable names into a new map for every row.
+ */
+object CommunitySlottedRuntime extends CypherRuntime[RuntimeContext] {
+  override def name: String = "slotted"
+
+  override def compileToExecutable(query: LogicalQuery, context: RuntimeContext): ExecutionPlan =
+    InterpretedRuntime.compileToExecutable(query, context, SlottedRuntimeName, arrayRows = true)
+}
@@ -20,6 +20,7 @@
 package org.neo4j.cypher.internal
 
 import java.io.File
+import java.nio.file.Path
 
 import org.neo4j.configuration.Config
 import org.neo4j.configuration.GraphDatabaseInternalSettings
@@ -48,6 +49,7 @@ object CypherConfiguration {
       CypherPlannerOption(config.get(GraphDatabaseSettings.cypher_planner).toString),
       CypherRuntimeOption(config.get(GraphDatabaseInternalSettings.cypher_runtime).toString),
       config.get(GraphDatabaseSettings.query_cache_size).toInt,
+      config.get(GraphDatabaseInternalSettings.cypher_query_cache_max_weight).longValue(),
       statsDivergenceFromConfig(config),
       config.get(GraphDatabaseSettings.cypher_hints_error),
       config.get(GraphDatabaseInternalSettings.cypher_idp_solver_table_threshold).toInt,
@@ -67,7 +69,11 @@ object CypherConfiguration {
       CypherInterpretedPipesFallbackOption(config.get(GraphDatabaseInternalSettings.cypher_pipelined_interpreted_pipes_fallback).toString),
       new ConfigMemoryTrackingController(config),
       config.get(GraphDatabaseInternalSettings.cypher_enable_runtime_monitors),
-      config.get(GraphDatabaseInternalSettings.cypher_parser) != GraphDatabaseInternalSettings.CypherParser.PARBOILED
+      config.get(GraphDatabaseInternalSettings.cypher_parser) != GraphDatabaseInternalSettings.CypherParser.PARBOILED,
+      config.get(GraphDatabaseInternalSettings.cypher_parallel_aggregation_workers),
+      config.get(GraphDatabaseInternalSettings.cypher_spill_threshold),
+      config.get(GraphDatabaseInternalSettings.cypher_spill_directory),
+      config.get(GraphDatabaseInternalSettings.cypher_load_csv_parsing_workers)
     )
   }
 
@@ -113,6 +119,7 @@ case class CypherConfiguration(version: CypherVersion,
                                planner: CypherPlannerOption,
                                runtime: CypherRuntimeOption,
                                queryCacheSize: Int,
+                               queryCacheMaxWeight: Long,
                                statsDivergenceCalculator: StatsDivergenceCalculator,
                                useErrorsOverWarnings: Boolean,
                                idpMaxTableSize: Int,
@@ -132,7 +139,11 @@ case class CypherConfiguration(version: CypherVersion,
                                interpretedPipesFallback: CypherInterpretedPipesFallbackOption,
                                memoryTrackingController: MemoryTrackingController,
                                enableMonitors: Boolean,
-                               useJavaCCParser: Boolean) {
+                               useJavaCCParser: Boolean,
+                               parallelAggregationWorkers: Int,
+                               spillThreshold: Long,
+                               spillDirectory: Path,
+                               loadCsvParsingWorkers: Int) {
 
   def toCypherRuntimeConfiguration: CypherRuntimeConfiguration =
     CypherRuntimeConfiguration(
@@ -141,7 +152,11 @@ case class CypherConfiguration(version: CypherVersion,
       schedulerTracing = toSchedulerTracingConfiguration(doSchedulerTracing, schedulerTracingFile),
       lenientCreateRelationship = lenientCreateRelationship,
       memoryTrackingController = memoryTrackingController,
-      enableMonitors
+      enableMonitors,
+      parallelAggregationWorkers = parallelAggregationWorkers,
+      spillThreshold = spillThreshold,
+      spillDirectory = spillDirectory,
+      loadCsvParsingWorkers = loadCsvParsingWorkers
     )
 
   def toSchedulerTracingConfiguration(doSchedulerTracing: Boolean,
@@ -154,6 +169,7 @@ case class CypherConfiguration(version: CypherVersion,
   def toCypherPlannerConfiguration(config: Config, planSystemCommands: Boolean): CypherPlannerConfiguration =
     CypherPlannerConfiguration(
       queryCacheSize = queryCacheSize,
+      queryCacheMaxWeight = queryCacheMaxWeight,
       statsDivergenceCalculator = CypherConfiguration.statsDivergenceFromConfig(config),
       useErrorsOverWarnings = useErrorsOverWarnings,
       idpMaxTableSize = idpMaxTableSize,
@@ -20,6 +20,8 @@
 package org.neo4j.cypher.internal
 
 import org.neo4j.cypher.CypherExecutionMode
+import org.neo4j.cypher.CypherInterpretedPipesFallbackOption
+import org.neo4j.cypher.CypherOperatorEngineOption
 import org.neo4j.cypher.CypherVersion
 import org.neo4j.cypher.internal.NotificationWrapping.asKernelNotification
 import org.neo4j.cypher.internal.compiler.phases.LogicalPlanState
@@ -132,39 +134,49 @@ case class CypherCurrentCompiler[CONTEXT <: RuntimeContext](planner: CypherPlann
       query.options.operatorEngine,
       query.options.interpretedPipesFallback)
 
-    // Make copy, so per-runtime logical plan rewriting does not mutate cached attributes
-    val planningAttributesCopy = logicalPlanResult.logicalPlanState.planningAttributes.copy()
-
-    val logicalQuery = LogicalQuery(
-      logicalPlan,
-      planState.queryText,
-      queryType == READ_ONLY,
-      planState.returnColumns().toArray,
-      planState.semanticTable(),
-      planningAttributesCopy.cardinalities,
-      planningAttributesCopy.providedOrders,
-      planningAttributesCopy.leveragedOrders,
-      planState.hasLoadCSV,
-      planState.maybePeriodicCommit.flatMap(_.map(x => PeriodicCommitInfo(x.batchSize))),
-      new SequentialIdGen(planningAttributesCopy.cardinalities.size))
-
-
-    val executionPlan: ExecutionPlan = try {
-      runtime.compileToExecutable(logicalQuery, runtimeContext)
-    } catch {
-      case e: Exception =>
-        // The logical plan is valuable information if we fail to create an executionPlan
-        val lpStr = LogicalPlanToPlanBuilderString(logicalPlan)
-        val planInfo = new InternalException("Failed with plan:\n" + lpStr)
-        e.addSuppressed(planInfo)
-        throw e
-    }
+    // Queries planned from the same cached logical plan only differ in their extracted parameters, so they can share the execution plan
+    val runtimePlanKey = RuntimePlanKey(
+      query.options.useCompiledExpressions,
+      query.options.materializedEntitiesMode,
+      query.options.operatorEngine,
+      query.options.interpretedPipesFallback,
+      logicalPlanResult.plannerContext.debugOptions)
+    val runtimePlan = logicalPlanResult.runtimePlans.computeIfAbsent(runtimePlanKey, _ => {
+      // Make copy, so per-runtime logical plan rewriting does not mutate cached attributes
+      val planningAttributesCopy = logicalPlanResult.logicalPlanState.planningAttributes.copy()
+
+      val logicalQuery = LogicalQuery(
+        logicalPlan,
+        planState.queryText,
+        queryType == READ_ONLY,
+        planState.returnColumns().toArray,
+        planState.semanticTable(),
+        planningAttributesCopy.cardinalities,
+        planningAttributesCopy.providedOrders,
+        planningAttributesCopy.leveragedOrders,
+        planState.hasLoadCSV,
+        planState.maybePeriodicCommit.flatMap(_.map(x => PeriodicCommitInfo(x.batchSize))),
+        new SequentialIdGen(planningAttributesCopy.cardinalities.size))
+
+      val executionPlan: ExecutionPlan = try {
+        runtime.compileToExecutable(logicalQuery, runtimeContext)
+      } catch {
+        case e: Exception =>
+          // The logical plan is valuable information if we fail to create an executionPlan
+          val lpStr = LogicalPlanToPlanBuilderString(logicalPlan)
+          val planInfo = new InternalException("Failed with plan:\n" + lpStr)
+          e.addSuppressed(planInfo)
+          throw e
+      }
+      RuntimePlan(executionPlan, planningAttributesCopy.cardinalities, planningAttributesCopy.providedOrders)
+    })
+    val executionPlan = runtimePlan.executionPlan
 
     new CypherExecutableQuery(
       logicalPlan,
-      logicalQuery.readOnly,
-      planningAttributesCopy.cardinalities,
-      planningAttributesCopy.providedOrders,
+      queryType == READ_ONLY,
+      runtimePlan.cardinalities,
+      runtimePlan.providedOrders,
       executionPlan,
       preParsingNotifications,
       logicalPlanResult.notifications.toIndexedSeq,
@@ -371,6 +383,22 @@ case class CypherCurrentCompiler[CONTEXT <: RuntimeContext](planner: CypherPlann
     override def planDescription(): InternalPlanDescription = planDescriptionBuilder.explain()
 
     override def queryType: QueryExecutionType.QueryType = QueryTypeConversion.asPublic(internalQueryType)
+
+    override lazy val cacheWeight: Int = CacheabilityInfo.planWeight(logicalPlan)
   }
 
 }
+
+/**
+ * The options besides the logical plan that a runtime compiles an [[ExecutionPlan]] from.
+ */
+case class RuntimePlanKey(useCompiledExpressions: Boolean,
+                          materializedEntitiesMode: Boolean,
+                          operatorEngine: CypherOperatorEngineOption,
+                          interpretedPipesFallback: CypherInterpretedPipesFallbackOption,
+                          debugOptions: Set[String])
+
+/**
+ * An [[ExecutionPlan]] together with the planning attributes it was compiled with.
+ */
+case class RuntimePlan(executionPlan: ExecutionPlan, cardinalities: Cardinalities, providedOrders: ProvidedOrders)
@@ -20,6 +20,7 @@
 package org.neo4j.cypher.internal
 
 import java.io.File
+import java.nio.file.Path
 import java.time.Clock
 
 import org.neo4j.cypher.CypherInterpretedPipesFallbackOption
@@ -202,7 +203,11 @@ case class CypherRuntimeConfiguration(pipelinedBatchSizeSmall: Int,
                                       schedulerTracing: SchedulerTracingConfiguration,
                                       lenientCreateRelationship: Boolean,
                                       memoryTrackingController: MemoryTrackingController,
-                                      enableMonitors: Boolean) {
+                                      enableMonitors: Boolean,
+                                      parallelAggregationWorkers: Int,
+                                      spillThreshold: Long,
+                                      spillDirectory: Path,
+                                      loadCsvParsingWorkers: Int) {
 
   Preconditions.checkArgument(pipelinedBatchSizeSmall <= pipelinedBatchSizeBig, s"pipelinedBatchSizeSmall (got $pipelinedBatchSizeSmall) must be <= pipelinedBatchSizeBig (got $pipelinedBatchSizeBig)")
 }
@@ -99,7 +99,8 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
       log)
 
   private val queryCache: QueryCache[String, Pair[String, ParameterTypeMap], ExecutableQuery] =
-    new QueryCache[String, Pair[String, ParameterTypeMap], ExecutableQuery](cacheFactory, config.queryCacheSize, planStalenessCaller, cacheTracer)
+    new QueryCache[String, Pair[String, ParameterTypeMap], ExecutableQuery](cacheFactory, config.queryCacheSize, planStalenessCaller, cacheTracer,
+      config.queryCacheMaxWeight)
 
   private val masterCompiler: MasterCompiler = new MasterCompiler(compilerLibrary)
 
@@ -19,6 +19,8 @@
  */
 package org.neo4j.cypher.internal
 
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.logical.plans.LogicalPlans
 import org.neo4j.cypher.internal.plandescription.Argument
 import org.neo4j.cypher.internal.runtime.ExecutionMode
 import org.neo4j.cypher.internal.runtime.ExplainMode
@@ -26,6 +28,8 @@ import org.neo4j.cypher.internal.runtime.InputDataStream
 import org.neo4j.cypher.internal.runtime.ProfileMode
 import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.QueryIndexRegistrator
+import org.neo4j.cypher.internal.runtime.RowSlots
+import org.neo4j.cypher.internal.runtime.ast.ExpressionVariable
 import org.neo4j.cypher.internal.runtime.expressionVariableAllocation
 import org.neo4j.cypher.internal.runtime.expressionVariableAllocation.Result
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionResultBuilderFactory
@@ -34,11 +38,15 @@ import org.neo4j.cypher.internal.runtime.interpreted.InterpretedPipeMapper
 import org.neo4j.cypher.internal.runtime.interpreted.UpdateCountingQueryContext
 import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.CommunityExpressionConverter
 import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.ExpressionConverters
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ArrayCypherRowFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.CommunityCypherRowFactory
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.NestedPipeExpressions
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.PipeTreeBuilder
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.Spilling
 import org.neo4j.cypher.internal.runtime.interpreted.profiler.InterpretedProfileInformation
 import org.neo4j.cypher.internal.runtime.interpreted.profiler.Profiler
 import org.neo4j.cypher.internal.runtime.slottedParameters
+import org.neo4j.cypher.internal.util.Foldable.FoldableAny
 import org.neo4j.cypher.internal.util.InternalNotification
 import org.neo4j.cypher.result.RuntimeResult
 import org.neo4j.exceptions.PeriodicCommitInOpenTransactionException
@@ -48,13 +56,22 @@ import org.neo4j.values.virtual.MapValue
 object InterpretedRuntime extends CypherRuntime[RuntimeContext] {
   override def name: String = "interpreted"
 
-  override def compileToExecutable(query: LogicalQuery, context: RuntimeContext): ExecutionPlan = {
+  override def compileToExecutable(query: LogicalQuery, context: RuntimeContext): ExecutionPlan =
+    compileToExecutable(query, context, InterpretedRuntimeName, arrayRows = false)
+
+  /**
+   * @param arrayRows if true, rows keep their values in an array indexed by the offsets of the variables of the query, instead of in a map.
+   */
+  def compileToExecutable(query: LogicalQuery, context: RuntimeContext, runtimeName: RuntimeName, arrayRows: Boolean): ExecutionPlan = {
     val Result(logicalPlan, nExpressionSlots, availableExpressionVars) = expressionVariableAllocation.allocate(query.logicalPlan)
     val (withSlottedParameters, parameterMapping) = slottedParameters(logicalPlan)
 
     val converters = new ExpressionConverters(CommunityExpressionConverter(context.tokenContext))
     val queryIndexRegistrator = new QueryIndexRegistrator(context.schemaRead)
-    val pipeMapper = InterpretedPipeMapper(query.readOnly, converters, context.tokenContext, queryIndexRegistrator)(query.semanticTable)
+    val rowFactory = if (arrayRows) ArrayCypherRowFactory(rowSlots(withSlottedParameters)) else CommunityCypherRowFactory()
+    val pipeMapper = InterpretedPipeMapper(query.readOnly, converters, context.tokenContext, queryIndexRegistrator, rowFactory,
+      context.compileExpressions, context.config.parallelAggregationWorkers,
+      Spilling(context.config.spillThreshold, context.config.spillDirectory), query.leveragedOrders)(query.semanticTable)
     val pipeTreeBuilder = PipeTreeBuilder(pipeMapper)
     val logicalPlanWithConvertedNestedPlans = NestedPipeExpressions.build(pipeTreeBuilder, withSlottedParameters, availableExpressionVars)
     val pipe = pipeTreeBuilder.build(logicalPlanWithConvertedNestedPlans)
@@ -68,15 +85,38 @@ object InterpretedRuntime extends CypherRuntime[RuntimeContext] {
       withSlottedParameters,
       context.config.lenientCreateRelationship,
       context.config.memoryTrackingController,
-      query.hasLoadCSV)
+      query.hasLoadCSV,
+      context.config.loadCsvParsingWorkers)
 
     new InterpretedExecutionPlan(query.periodicCommitInfo,
       resultBuilderFactory,
-      InterpretedRuntimeName,
+      runtimeName,
       query.readOnly,
       IndexedSeq.empty)
   }
 
+  /**
+   * Variables get offsets in the order the plan introduces them, leaves first, so the rows of a pipe only reach up to the
+   * offsets of the variables it knows about. Variables of nested plans and expression variables come last.
+   */
+  private def rowSlots(logicalPlan: LogicalPlan): RowSlots = {
+    def newSymbols(plan: LogicalPlan, known: Seq[String]): Seq[String] = (plan.availableSymbols -- known).toSeq.sorted
+
+    val introduced = LogicalPlans.map(logicalPlan, new LogicalPlans.Mapper[Seq[String]] {
+      override def onLeaf(plan: LogicalPlan): Seq[String] = newSymbols(plan, Seq.empty)
+
+      override def onOneChildPlan(plan: LogicalPlan, source: Seq[String]): Seq[String] = source ++ newSymbols(plan, source)
+
+      override def onTwoChildPlan(plan: LogicalPlan, lhs: Seq[String], rhs: Seq[String]): Seq[String] = {
+        val known = (lhs ++ rhs).distinct
+        known ++ newSymbols(plan, known)
+      }
+    })
+    val nested = logicalPlan.findByAllClass[LogicalPlan].flatMap(_.availableSymbols).sorted
+    val expressionVariables = logicalPlan.findByAllClass[ExpressionVariable].map(_.name).sorted
+    RowSlots(introduced ++ nested ++ expressionVariables)
+  }
+
   /**
    * Executable plan for a single cypher query. Warning, this class will get cached! Do not leak transaction objects
    * or other resources in here.
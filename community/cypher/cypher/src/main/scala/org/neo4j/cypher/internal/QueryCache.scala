@@ -58,6 +58,11 @@ trait CacheTracer[QUERY_KEY] {
    */
   def queryCompileWithExpressionCodeGen(queryKey: QUERY_KEY, metaData: String): Unit
 
+  /**
+   * The compiler took the given time to compile a key to a query, with or without expression code generation.
+   */
+  def queryCompileTime(queryKey: QUERY_KEY, compileTimeNanos: Long, metaData: String): Unit
+
   /**
    * The item was found in the cache but has become stale.
    * @param secondsSincePlan how long the last replan was ago
@@ -123,6 +128,8 @@ trait PlanStalenessCaller[EXECUTABLE_QUERY] {
  * @param maximumSize Maximum size of this cache
  * @param stalenessCaller Decided whether CachedExecutionPlans are stale
  * @param tracer Traces cache activity
+ * @param maximumWeight Maximum total [[CacheabilityInfo#cacheWeight]] of the entries in this cache. If larger than 0,
+ *                      this bounds the cache instead of maximumSize.
  */
 class QueryCache[QUERY_REP <: AnyRef,
                  QUERY_KEY <: Pair[QUERY_REP, ParameterTypeMap],
@@ -130,9 +137,12 @@ class QueryCache[QUERY_REP <: AnyRef,
                                                        val cacheFactory: CaffeineCacheFactory,
                                                        val maximumSize: Int,
                                                        val stalenessCaller: PlanStalenessCaller[EXECUTABLE_QUERY],
-                                                       val tracer: CacheTracer[Pair[QUERY_REP, ParameterTypeMap]]) {
+                                                       val tracer: CacheTracer[Pair[QUERY_REP, ParameterTypeMap]],
+                                                       val maximumWeight: Long = 0) {
 
-  private val inner: Cache[QUERY_KEY, CachedValue] = cacheFactory.createCache[QUERY_KEY, CachedValue](maximumSize)
+  private val inner: Cache[QUERY_KEY, CachedValue] =
+    if (maximumWeight > 0) cacheFactory.createCache[QUERY_KEY, CachedValue](maximumWeight, (_: QUERY_KEY, value: CachedValue) => value.value.cacheWeight)
+    else cacheFactory.createCache[QUERY_KEY, CachedValue](maximumSize)
 
   /*
     * The cached value wraps the value and maintains a count of how many times it has been fetched from the cache
@@ -182,8 +192,10 @@ class QueryCache[QUERY_REP <: AnyRef,
                              metaData: String = ""
                             ): EXECUTABLE_QUERY = {
     if (maximumSize == 0) {
+      val startTime = System.nanoTime()
       val result = compiler.compile()
       tracer.queryCompile(queryKey, metaData)
+      tracer.queryCompileTime(queryKey, System.nanoTime() - startTime, metaData)
       result
     } else {
       inner.getIfPresent(queryKey) match {
@@ -256,9 +268,11 @@ class QueryCache[QUERY_REP <: AnyRef,
                     ): EXECUTABLE_QUERY = {
     tracer.queryCacheHit(queryKey, metaData)
     val newCachedValue = if (!cachedValue.recompiledWithExpressionCodeGen ) {
+      val startTime = System.nanoTime()
       compiler.maybeCompileWithExpressionCodeGen(cachedValue.numberOfHits) match {
         case Some(recompiledQuery) =>
           tracer.queryCompileWithExpressionCodeGen(queryKey, metaData)
+          tracer.queryCompileTime(queryKey, System.nanoTime() - startTime, metaData)
           val recompiled = new CachedValue(recompiledQuery, recompiledWithExpressionCodeGen = true)
           inner.put(queryKey, recompiled)
           recompiled
@@ -274,8 +288,10 @@ class QueryCache[QUERY_REP <: AnyRef,
                               metaData: String,
                               hitCache: Boolean = false
                              ): EXECUTABLE_QUERY = {
+    val startTime = System.nanoTime()
     val result = compileOrcompileWithExpressionCodeGenAndCache(queryKey, () => compiler.compile(), metaData, hitCache)
     tracer.queryCompile(queryKey, metaData)
+    tracer.queryCompileTime(queryKey, System.nanoTime() - startTime, metaData)
     result
   }
 
@@ -284,8 +300,10 @@ class QueryCache[QUERY_REP <: AnyRef,
                                                    metaData: String,
                                                    hitCache: Boolean = false
                                                   ): EXECUTABLE_QUERY = {
+    val startTime = System.nanoTime()
     val result = compileOrcompileWithExpressionCodeGenAndCache(queryKey, () => compiler.compileWithExpressionCodeGen(), metaData, hitCache)
     tracer.queryCompileWithExpressionCodeGen(queryKey, metaData)
+    tracer.queryCompileTime(queryKey, System.nanoTime() - startTime, metaData)
     result
   }
 
@@ -25,10 +25,12 @@ import java.util.concurrent.TimeUnit
 import com.github.benmanes.caffeine.cache.Cache
 import com.github.benmanes.caffeine.cache.Caffeine
 import com.github.benmanes.caffeine.cache.Ticker
+import com.github.benmanes.caffeine.cache.Weigher
 
 trait CaffeineCacheFactory {
   def createCache[K <: AnyRef, V <: AnyRef](size: Int): Cache[K, V]
   def createCache[K <: AnyRef, V <: AnyRef](ticker: Ticker, ttl: Long, size: Int): Cache[K, V]
+  def createCache[K <: AnyRef, V <: AnyRef](maximumWeight: Long, weigher: Weigher[K, V]): Cache[K, V]
 }
 
 class ExecutorBasedCaffeineCacheFactory(executor: Executor) extends CaffeineCacheFactory {
@@ -40,6 +42,15 @@ class ExecutorBasedCaffeineCacheFactory(executor: Executor) extends CaffeineCach
       .build[K, V]()
   }
 
+  override def createCache[K <: AnyRef, V <: AnyRef](maximumWeight: Long, weigher: Weigher[K, V]): Cache[K, V] = {
+    Caffeine
+      .newBuilder()
+      .executor(executor)
+      .maximumWeight(maximumWeight)
+      .weigher(weigher)
+      .build[K, V]()
+  }
+
   override def createCache[K <: AnyRef, V <: AnyRef](
       ticker: Ticker,
       ttl: Long,
@@ -95,6 +95,10 @@ import org.neo4j.cypher.internal.logical.plans.ExpandAll
 import org.neo4j.cypher.internal.logical.plans.ExpandInto
 import org.neo4j.cypher.internal.logical.plans.FindShortestPaths
 import org.neo4j.cypher.internal.logical.plans.ForeachApply
+import org.neo4j.cypher.internal.logical.plans.IndexAggregation
+import org.neo4j.cypher.internal.logical.plans.IndexCountDistinct
+import org.neo4j.cypher.internal.logical.plans.IndexMax
+import org.neo4j.cypher.internal.logical.plans.IndexMin
 import org.neo4j.cypher.internal.logical.plans.InequalitySeekRangeWrapper
 import org.neo4j.cypher.internal.logical.plans.Input
 import org.neo4j.cypher.internal.logical.plans.LeftOuterHashJoin
@@ -111,11 +115,14 @@ import org.neo4j.cypher.internal.logical.plans.ManyQueryExpression
 import org.neo4j.cypher.internal.logical.plans.ManySeekableArgs
 import org.neo4j.cypher.internal.logical.plans.MergeCreateNode
 import org.neo4j.cypher.internal.logical.plans.MergeCreateRelationship
+import org.neo4j.cypher.internal.logical.plans.MultiLabelNodeIndexSeek
 import org.neo4j.cypher.internal.logical.plans.MultiNodeIndexSeek
+import org.neo4j.cypher.internal.logical.plans.NearestNeighboursQueryExpression
 import org.neo4j.cypher.internal.logical.plans.NodeByIdSeek
 import org.neo4j.cypher.internal.logical.plans.NodeByLabelScan
 import org.neo4j.cypher.internal.logical.plans.NodeCountFromCountStore
 import org.neo4j.cypher.internal.logical.plans.NodeHashJoin
+import org.neo4j.cypher.internal.logical.plans.NodeIndexAggregation
 import org.neo4j.cypher.internal.logical.plans.NodeIndexContainsScan
 import org.neo4j.cypher.internal.logical.plans.NodeIndexEndsWithScan
 import org.neo4j.cypher.internal.logical.plans.NodeIndexScan
@@ -239,6 +246,13 @@ case class LogicalPlan2PlanDescription(readOnly: Boolean, cardinalities: Cardina
         val (indexMode, indexDesc) = getDescriptions(idName, label, properties.map(_.propertyKeyToken), valueExpr, unique = true, readOnly, p.cachedProperties)
         PlanDescriptionImpl(id, indexMode, NoChildren, Seq(Details(indexDesc)), variables)
 
+      case MultiLabelNodeIndexSeek(idName, labels, properties, valueExpr, _) =>
+        val propertyKeys = properties.map(_.propertyKeyToken)
+        val labelsString = labels.map(label => asPrettyString(label.name)).mkPrettyString("|")
+        val propertyKeyString = propertyKeys.map(x => asPrettyString(x.name)).mkPrettyString(SEPARATOR)
+        val info = pretty"${asPrettyString(idName)}:$labelsString($propertyKeyString) WHERE ${indexPredicateString(propertyKeys, valueExpr)}"
+        PlanDescriptionImpl(id, "MultiLabelNodeIndexSeek", NoChildren, Seq(Details(info)), variables)
+
       case p@MultiNodeIndexSeek(indexLeafPlans) =>
         val (_, indexDescs) = indexLeafPlans.map(l => getDescriptions(l.idName, l.label, l.properties.map(_.propertyKeyToken), l.valueExpr, unique = l.isInstanceOf[NodeUniqueIndexSeek], readOnly, p.cachedProperties)).unzip
         PlanDescriptionImpl(id = plan.id, "MultiNodeIndexSeek", NoChildren, Seq(Details(indexDescs)), variables)
@@ -265,6 +279,10 @@ case class LogicalPlan2PlanDescription(readOnly: Boolean, cardinalities: Cardina
         val info = nodeCountFromCountStoreInfo(ident, labelNames)
         PlanDescriptionImpl(id, "NodeCountFromCountStore", NoChildren, Seq(Details(info)), variables)
 
+      case NodeIndexAggregation(ident, label, property, aggregation, _) =>
+        val info = nodeIndexAggregationInfo(ident, label, property, aggregation)
+        PlanDescriptionImpl(id, "NodeIndexAggregation", NoChildren, Seq(Details(info)), variables)
+
       case p@NodeIndexContainsScan(idName, label, property, valueExpr, _, _) =>
         val predicate = pretty"${asPrettyString(property.propertyKeyToken.name)} CONTAINS ${asPrettyString(valueExpr)}"
         val info = indexInfoString(idName, unique = false, label, Seq(property.propertyKeyToken), predicate, p.cachedProperties)
@@ -779,6 +797,8 @@ case class LogicalPlan2PlanDescription(readOnly: Boolean, cardinalities: Cardina
       case _: ExistenceQueryExpression[expressions.Expression] => "NodeIndexScan"
       case _: RangeQueryExpression[expressions.Expression] =>
         if (unique) "NodeUniqueIndexSeekByRange" else "NodeIndexSeekByRange"
+      case _: NearestNeighboursQueryExpression[expressions.Expression] =>
+        if (unique) "NodeUniqueIndexSeekByDistance" else "NodeIndexSeekByDistance"
       case e: CompositeQueryExpression[expressions.Expression] =>
         findName(e.exactOnly)
       case _: SingleQueryExpression[org.neo4j.cypher.internal.expressions.Expression] =>
@@ -788,6 +808,15 @@ case class LogicalPlan2PlanDescription(readOnly: Boolean, cardinalities: Cardina
     }
   }
 
+  private def pointString(point: expressions.Expression): PrettyString = {
+    val funcName = Point.name
+    point match {
+      case FunctionInvocation(Namespace(List()), FunctionName(`funcName`), _, Seq(MapExpression(args))) =>
+        pretty"point(${args.map(_._2).map(asPrettyString(_)).mkPrettyString(", ")})"
+      case _ => asPrettyString(point)
+    }
+  }
+
   private def indexPredicateString(propertyKeys: Seq[PropertyKeyToken],
                                    valueExpr: QueryExpression[expressions.Expression]): PrettyString = valueExpr match {
     case _: ExistenceQueryExpression[expressions.Expression] =>
@@ -812,17 +841,16 @@ case class LogicalPlan2PlanDescription(readOnly: Boolean, cardinalities: Cardina
           (gtBoundString ++ ltBoundStrings).toIndexedSeq.mkPrettyString(" AND ")
 
         case PointDistanceSeekRangeWrapper(PointDistanceRange(point, distance, inclusive)) =>
-          val funcName = Point.name
-          val poi = point match {
-            case FunctionInvocation(Namespace(List()), FunctionName(`funcName`), _, Seq(MapExpression(args))) =>
-              pretty"point(${args.map(_._2).map(asPrettyString(_)).mkPrettyString(", ")})"
-            case _ => asPrettyString(point)
-          }
           val propertyKeyName = asPrettyString(propertyKeys.head.name)
           val distanceStr = asPrettyString(distance)
-          pretty"distance($propertyKeyName, $poi) <${if (inclusive) pretty"=" else pretty""} $distanceStr"
+          pretty"distance($propertyKeyName, ${pointString(point)}) <${if (inclusive) pretty"=" else pretty""} $distanceStr"
       }
 
+    case e: NearestNeighboursQueryExpression[expressions.Expression] =>
+      checkOnlyWhenAssertionsAreEnabled(propertyKeys.size == 1)
+      val propertyKeyName = asPrettyString(propertyKeys.head.name)
+      pretty"distance($propertyKeyName, ${pointString(e.expression)}) ASC"
+
     case e: SingleQueryExpression[expressions.Expression] =>
       val propertyKeyName = asPrettyString(propertyKeys.head.name)
       pretty"$propertyKeyName = ${asPrettyString(e.expression)}"
@@ -854,6 +882,16 @@ case class LogicalPlan2PlanDescription(readOnly: Boolean, cardinalities: Cardina
     pretty"count( ($node) ) AS ${asPrettyString(ident)}"
   }
 
+  private def nodeIndexAggregationInfo(ident: String, label: LabelToken, property: PropertyKeyToken, aggregation: IndexAggregation): PrettyString = {
+    val index = pretty":${asPrettyString(label.name)}(${asPrettyString(property.name)})"
+    val function = aggregation match {
+      case IndexMin => pretty"min($index)"
+      case IndexMax => pretty"max($index)"
+      case IndexCountDistinct => pretty"count(DISTINCT $index)"
+    }
+    pretty"$function AS ${asPrettyString(ident)}"
+  }
+
   private def relationshipCountFromCountStoreInfo(ident: String,
                                                   startLabel: Option[LabelName],
                                                   typeNames: Seq[RelTypeName],
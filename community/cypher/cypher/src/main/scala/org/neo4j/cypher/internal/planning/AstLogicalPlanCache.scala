@@ -20,6 +20,7 @@
 package org.neo4j.cypher.internal.planning
 
 import java.time.Clock
+import java.util.concurrent.ConcurrentHashMap
 
 import org.neo4j.cypher.internal.CacheTracer
 import org.neo4j.cypher.internal.CacheabilityInfo
@@ -28,6 +29,8 @@ import org.neo4j.cypher.internal.PlanStalenessCaller
 import org.neo4j.cypher.internal.QueryCache
 import org.neo4j.cypher.internal.QueryCache.ParameterTypeMap
 import org.neo4j.cypher.internal.ReusabilityState
+import org.neo4j.cypher.internal.RuntimePlan
+import org.neo4j.cypher.internal.RuntimePlanKey
 import org.neo4j.cypher.internal.cache.CaffeineCacheFactory
 import org.neo4j.cypher.internal.compiler.StatsDivergenceCalculator
 import org.neo4j.cypher.internal.compiler.phases.LogicalPlanState
@@ -43,6 +46,7 @@ import org.neo4j.logging.Log
  * @param clock Clock used to compute logical plan staleness
  * @param divergence Statistics divergence calculator used to compute logical plan staleness
  * @param lastCommittedTxIdProvider Transation id provider used to compute logical plan staleness
+ * @param maximumWeight Maximum total weight of the cached plans, bounding the cache instead of maximumSize if larger than 0
  * @tparam STATEMENT Type of AST statement used as key
  */
 class AstLogicalPlanCache[STATEMENT <: AnyRef](override val cacheFactory: CaffeineCacheFactory,
@@ -51,7 +55,8 @@ class AstLogicalPlanCache[STATEMENT <: AnyRef](override val cacheFactory: Caffei
                                                clock: Clock,
                                                divergence: StatsDivergenceCalculator,
                                                lastCommittedTxIdProvider: () => Long,
-                                               log: Log)
+                                               log: Log,
+                                               override val maximumWeight: Long = 0)
   extends QueryCache[STATEMENT, Pair[STATEMENT, ParameterTypeMap], CacheableLogicalPlan](
     cacheFactory,
     maximumSize,
@@ -59,7 +64,8 @@ class AstLogicalPlanCache[STATEMENT <: AnyRef](override val cacheFactory: Caffei
       divergence,
       lastCommittedTxIdProvider,
       log),
-    tracer) {
+    tracer,
+    maximumWeight) {
 
   def logStalePlanRemovalMonitor(log: Log): CacheTracer[STATEMENT] =
     new CacheTracer[STATEMENT] {
@@ -77,6 +83,8 @@ class AstLogicalPlanCache[STATEMENT <: AnyRef](override val cacheFactory: Caffei
       override def queryCompile(queryKey: STATEMENT, metaData: String): Unit = {}
 
       override def queryCompileWithExpressionCodeGen(queryKey: STATEMENT, metaData: String): Unit = {}
+
+      override def queryCompileTime(queryKey: STATEMENT, compileTimeNanos: Long, metaData: String): Unit = {}
     }
 }
 
@@ -91,4 +99,12 @@ object AstLogicalPlanCache {
 
 case class CacheableLogicalPlan(logicalPlanState: LogicalPlanState,
                                 reusability: ReusabilityState, notifications: IndexedSeq[InternalNotification],
-                                override val shouldBeCached: Boolean) extends CacheabilityInfo
+                                override val shouldBeCached: Boolean) extends CacheabilityInfo {
+  /**
+   * Execution plans compiled from this logical plan. All queries that are planned from this cache entry share them,
+   * e.g. queries that only differ in literals or white space.
+   */
+  val runtimePlans: ConcurrentHashMap[RuntimePlanKey, RuntimePlan] = new ConcurrentHashMap()
+
+  override lazy val cacheWeight: Int = logicalPlanState.maybeLogicalPlan.fold(1)(CacheabilityInfo.planWeight)
+}
@@ -20,6 +20,7 @@
 package org.neo4j.cypher.internal.planning
 
 import java.time.Clock
+import java.util.concurrent.ConcurrentHashMap
 
 import org.neo4j.cypher.CypherPlannerOption
 import org.neo4j.cypher.CypherUpdateStrategy
@@ -39,6 +40,8 @@ import org.neo4j.cypher.internal.QueryCache
 import org.neo4j.cypher.internal.QueryCache.ParameterTypeMap
 import org.neo4j.cypher.internal.QueryOptions
 import org.neo4j.cypher.internal.ReusabilityState
+import org.neo4j.cypher.internal.RuntimePlan
+import org.neo4j.cypher.internal.RuntimePlanKey
 import org.neo4j.cypher.internal.SchemaCommandRuntime
 import org.neo4j.cypher.internal.ast.Statement
 import org.neo4j.cypher.internal.cache.CaffeineCacheFactory
@@ -143,7 +146,8 @@ case class CypherPlanner(config: CypherPlannerConfiguration,
       clock,
       config.statsDivergenceCalculator,
       txIdProvider,
-      log)
+      log,
+      config.queryCacheMaxWeight)
 
   monitors.addMonitorListener(planCache.logStalePlanRemovalMonitor(log), "cypher")
 
@@ -339,7 +343,8 @@ case class CypherPlanner(config: CypherPlannerConfiguration,
       plannerContext,
       cacheableLogicalPlan.notifications,
       cacheableLogicalPlan.shouldBeCached,
-      obfuscator)
+      obfuscator,
+      cacheableLogicalPlan.runtimePlans)
   }
 
 
@@ -439,7 +444,8 @@ case class LogicalPlanResult(logicalPlanState: LogicalPlanState,
                              plannerContext: PlannerContext,
                              notifications: IndexedSeq[InternalNotification],
                              shouldBeCached: Boolean,
-                             queryObfuscator: QueryObfuscator)
+                             queryObfuscator: QueryObfuscator,
+                             runtimePlans: ConcurrentHashMap[RuntimePlanKey, RuntimePlan])
 
 trait CypherCacheFlushingMonitor {
   def cacheFlushDetected(sizeBeforeFlush: Long): Unit = {}
@@ -455,6 +461,8 @@ trait CypherCacheHitMonitor[T] {
   def cacheCompile(key: T): Unit = {}
 
   def cacheCompileWithExpressionCodeGen(key: T): Unit = {}
+
+  def cacheCompileTime(key: T, compileTimeNanos: Long): Unit = {}
 }
 
 /**
@@ -285,6 +285,10 @@ class ExceptionTranslatingQueryContext(val inner: QueryContext) extends QueryCon
                                            indexOrder: IndexOrder): NodeValueIndexCursor =
     translateException(tokenNameLookup, inner.indexScan(index, needsValues, indexOrder))
 
+  override def indexScanDistinct[RESULT <: AnyRef](index: IndexReadSession,
+                                                   indexOrder: IndexOrder): NodeValueIndexCursor =
+    translateException(tokenNameLookup, inner.indexScanDistinct(index, indexOrder))
+
   override def nodeHasCheapDegrees(node: Long, nodeCursor: NodeCursor): Boolean =
     translateException(tokenNameLookup, inner.nodeHasCheapDegrees(node, nodeCursor))
 
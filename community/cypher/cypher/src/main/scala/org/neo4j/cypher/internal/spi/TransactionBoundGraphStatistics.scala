@@ -21,9 +21,11 @@ package org.neo4j.cypher.internal.spi
 
 import java.lang.Math.min
 
+import org.neo4j.cypher.internal.logical.plans.Bound
 import org.neo4j.cypher.internal.planner.spi.GraphStatistics
 import org.neo4j.cypher.internal.planner.spi.IndexDescriptor
 import org.neo4j.cypher.internal.planner.spi.MinimumGraphStatistics
+import org.neo4j.cypher.internal.planner.spi.ValueHistogram
 import org.neo4j.cypher.internal.util.Cardinality
 import org.neo4j.cypher.internal.util.LabelId
 import org.neo4j.cypher.internal.util.RelTypeId
@@ -34,8 +36,11 @@ import org.neo4j.internal.kernel.api.SchemaRead
 import org.neo4j.internal.kernel.api.TokenRead
 import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotFoundKernelException
 import org.neo4j.internal.schema.SchemaDescriptor
+import org.neo4j.kernel.api.index.IndexValueHistogram
 import org.neo4j.kernel.impl.query.TransactionalContext
 import org.neo4j.logging.Log
+import org.neo4j.values.storable.Value
+import org.neo4j.values.storable.Values
 
 object TransactionBoundGraphStatistics {
   def apply(transactionalContext: TransactionalContext, log: Log): MinimumGraphStatistics =
@@ -86,12 +91,17 @@ object TransactionBoundGraphStatistics {
           // Probability of any node with the given label, to have a given property
           val indexDescriptor = Iterators.single(schemaRead.index(SchemaDescriptor.forLabel(index.label, index.properties.map(_.id): _*)),
             org.neo4j.internal.schema.IndexDescriptor.NO_INDEX)
-          val indexSize = schemaRead.indexSize(indexDescriptor)
-          val indexSelectivity = indexSize / labeledNodes
+          if (indexDescriptor.indexFilter().isPartial) {
+            // A partial index does not contain all nodes with the property, so its size says little about how many there are
+            None
+          } else {
+            val indexSize = schemaRead.indexSize(indexDescriptor)
+            val indexSelectivity = indexSize / labeledNodes
 
-          //Even though semantically impossible the index can get into a state where
-          //the indexSize > labeledNodes
-          Selectivity.of(min(indexSelectivity, 1.0))
+            //Even though semantically impossible the index can get into a state where
+            //the indexSize > labeledNodes
+            Selectivity.of(min(indexSelectivity, 1.0))
+          }
         }
       }
       catch {
@@ -100,6 +110,19 @@ object TransactionBoundGraphStatistics {
           None
       }
 
+    override def indexValueHistogram(index: IndexDescriptor): Option[ValueHistogram] =
+      try {
+        val indexDescriptor = Iterators.single(schemaRead.index(SchemaDescriptor.forLabel(index.label, index.properties.map(_.id): _*)),
+          org.neo4j.internal.schema.IndexDescriptor.NO_INDEX)
+        val sample = schemaRead.indexSample(indexDescriptor)
+        if (sample.histogram().isEmpty) None else Some(new KernelValueHistogram(sample.histogram(), sample.uniqueValues()))
+      }
+      catch {
+        case e: IndexNotFoundKernelException =>
+          log.debug("Index not found for indexValueHistogram", e)
+          None
+      }
+
     override def nodesAllCardinality(): Cardinality =
       Cardinality(read.countsForNodeWithoutTxState(TokenRead.ANY_LABEL))
 
@@ -111,4 +134,33 @@ object TransactionBoundGraphStatistics {
     override def patternStepCardinality(fromLabel: Option[LabelId], relTypeId: Option[RelTypeId], toLabel: Option[LabelId]): Cardinality =
       Cardinality(read.countsForRelationshipWithoutTxState(fromLabel, relTypeId, toLabel))
   }
+
+  private class KernelValueHistogram(histogram: IndexValueHistogram, uniqueValues: Long) extends ValueHistogram {
+
+    override def equalitySelectivity(value: AnyRef): Option[Selectivity] =
+      asValue(value).flatMap(v => selectivity(histogram.equalityFraction(v, uniqueValues)))
+
+    override def rangeSelectivity(lower: Option[Bound[AnyRef]], upper: Option[Bound[AnyRef]]): Option[Selectivity] = {
+      val lowerValue = lower.map(bound => asValue(bound.endPoint))
+      val upperValue = upper.map(bound => asValue(bound.endPoint))
+      if (lowerValue.contains(None) || upperValue.contains(None)) {
+        None
+      } else {
+        selectivity(histogram.rangeFraction(
+          lowerValue.flatten.orNull, lower.exists(_.isInclusive),
+          upperValue.flatten.orNull, upper.exists(_.isInclusive)))
+      }
+    }
+
+    override def prefixSelectivity(prefix: String): Option[Selectivity] =
+      selectivity(histogram.prefixFraction(prefix))
+
+    private def asValue(value: AnyRef): Option[Value] = value match {
+      case _: java.lang.Long | _: java.lang.Double | _: String => Some(Values.of(value))
+      case _ => None
+    }
+
+    private def selectivity(fraction: Double): Option[Selectivity] =
+      if (fraction == IndexValueHistogram.UNKNOWN) None else Selectivity.of(fraction)
+  }
 }
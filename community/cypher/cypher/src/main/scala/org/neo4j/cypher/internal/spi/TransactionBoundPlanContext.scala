@@ -29,8 +29,10 @@ import org.neo4j.cypher.internal.logical.plans.UserFunctionSignature
 import org.neo4j.cypher.internal.planner.spi.IndexDescriptor
 import org.neo4j.cypher.internal.planner.spi.IndexDescriptor.OrderCapability
 import org.neo4j.cypher.internal.planner.spi.IndexDescriptor.ValueCapability
+import org.neo4j.cypher.internal.planner.spi.IndexFilter
 import org.neo4j.cypher.internal.planner.spi.IndexOrderCapability
 import org.neo4j.cypher.internal.planner.spi.InstrumentedGraphStatistics
+import org.neo4j.cypher.internal.planner.spi.MultiLabelIndexDescriptor
 import org.neo4j.cypher.internal.planner.spi.MutableGraphStatisticsSnapshot
 import org.neo4j.cypher.internal.planner.spi.PlanContext
 import org.neo4j.cypher.internal.runtime.interpreted.TransactionBoundTokenContext
@@ -62,6 +64,10 @@ import org.neo4j.internal.schema.IndexValueCapability
 import org.neo4j.internal.schema.SchemaDescriptor
 import org.neo4j.kernel.api.KernelTransaction
 import org.neo4j.logging.Log
+import org.neo4j.values.storable.BooleanValue
+import org.neo4j.values.storable.FloatingPointValue
+import org.neo4j.values.storable.IntegralValue
+import org.neo4j.values.storable.TextValue
 import org.neo4j.values.storable.ValueCategory
 
 import scala.collection.JavaConverters.asScalaBufferConverter
@@ -117,6 +123,12 @@ class TransactionBoundPlanContext(tc: TransactionalContextWrapper, logger: Inter
     tc.schemaRead.indexesGetForLabel(labelId).asScala.flatMap(getOnlineIndex)
   }
 
+  override def multiLabelIndexesGetForLabel(labelId: Int): Iterator[MultiLabelIndexDescriptor] = {
+    tc.schemaRead.indexesGetForLabel(labelId).asScala
+      .filter(reference => reference.schema().getEntityTokenIds.length > 1 && isOnlinePlannableIndex(reference) && !reference.indexFilter().isPartial)
+      .map(reference => MultiLabelIndexDescriptor(reference.schema().getEntityTokenIds.map(LabelId), reference.schema().getPropertyIds.map(PropertyKeyId)))
+  }
+
   override def uniqueIndexesGetForLabel(labelId: Int): Iterator[IndexDescriptor] = {
     tc.schemaRead.indexesGetForLabel(labelId).asScala
       .filter(_.isUnique)
@@ -177,16 +189,46 @@ class TransactionBoundPlanContext(tc: TransactionalContextWrapper, logger: Inter
             case IndexValueCapability.NO => tps.map(_ => DoNotGetValue)
           }
         }
+        val filter = indexFilter(reference.indexFilter())
         if (reference.getIndexType != IndexType.BTREE || reference.getCapability.behaviours().contains(IndexBehaviour.EVENTUALLY_CONSISTENT)) {
           // Ignore IndexKind.SPECIAL indexes, because we don't know how to correctly plan for and query them. Not yet, anyway.
           // Also, ignore eventually consistent indexes. Those are for explicit querying via procedures.
           None
+        } else if (reference.schema().getEntityTokenIds.length > 1) {
+          // Indexes on more than one label also hold nodes without the label we look for. Those are planned from multiLabelIndexesGetForLabel.
+          None
+        } else if (filter.isEmpty) {
+          // Ignore partial indexes with a filter value that can't be written as a Cypher literal, since no query can imply it.
+          None
         } else {
-          Some(IndexDescriptor(label, properties, behaviours, orderCapability, valueCapability, isUnique))
+          Some(IndexDescriptor(label, properties, behaviours, orderCapability, valueCapability, isUnique, filter.get))
         }
       case _ => None
     }
 
+  private def isOnlinePlannableIndex(reference: schema.IndexDescriptor): Boolean =
+    reference.getIndexType == IndexType.BTREE &&
+      !reference.getCapability.behaviours().contains(IndexBehaviour.EVENTUALLY_CONSISTENT) &&
+      tc.schemaRead.indexGetState(reference) == InternalIndexState.ONLINE
+
+  /**
+   * Translate a kernel index filter to Some(None) for full indexes, Some(Some(filter)) for partial indexes
+   * and None for partial indexes with a filter value that Cypher can't express as a literal.
+   */
+  private def indexFilter(filter: schema.IndexFilter): Option[Option[IndexFilter]] =
+    if (!filter.isPartial) {
+      Some(None)
+    } else {
+      val value = filter.value() match {
+        case v: TextValue => Some(v.stringValue())
+        case v: IntegralValue => Some(java.lang.Long.valueOf(v.longValue()))
+        case v: FloatingPointValue => Some(java.lang.Double.valueOf(v.doubleValue()))
+        case v: BooleanValue => Some(java.lang.Boolean.valueOf(v.booleanValue()))
+        case _ => None
+      }
+      value.map(v => Some(IndexFilter(tc.tokenRead.propertyKeyName(filter.propertyKeyId()), v)))
+    }
+
   /**
    * Translate a Cypher Type to a ValueCategory that IndexReference can handle
    */
@@ -19,8 +19,11 @@
  */
 package org.neo4j.cypher.internal
 
+import org.mockito.ArgumentMatchers.anyLong
+import org.mockito.ArgumentMatchers.same
 import org.mockito.Mockito
 import org.mockito.Mockito.times
+import org.mockito.Mockito.verify
 import org.mockito.Mockito.verifyNoMoreInteractions
 import org.neo4j.cypher.CypherReplanOption
 import org.neo4j.cypher.internal.QueryCache.ParameterTypeMap
@@ -56,6 +59,7 @@ class QueryCacheTest extends CypherFunSuite {
     v1.compiledWithExpressionCodeGen should equal(false)
     val o = Mockito.inOrder(tracer)
     o.verify(tracer).queryCompile(key, "")
+    o.verify(tracer).queryCompileTime(same(key), anyLong(), same(""))
     verifyNoMoreInteractions(tracer)
 
     // When
@@ -64,6 +68,7 @@ class QueryCacheTest extends CypherFunSuite {
     v2 should equal(compiled(key))
     v2.compiledWithExpressionCodeGen should equal(false)
     o.verify(tracer).queryCompile(key, "")
+    o.verify(tracer).queryCompileTime(same(key), anyLong(), same(""))
     verifyNoMoreInteractions(tracer)
   }
 
@@ -82,6 +87,7 @@ class QueryCacheTest extends CypherFunSuite {
     val o = Mockito.inOrder(tracer)
     o.verify(tracer).queryCacheMiss(key, "")
     o.verify(tracer).queryCompile(key, "")
+    o.verify(tracer).queryCompileTime(same(key), anyLong(), same(""))
     verifyNoMoreInteractions(tracer)
   }
 
@@ -101,6 +107,7 @@ class QueryCacheTest extends CypherFunSuite {
     val o = Mockito.inOrder(tracer)
     o.verify(tracer).queryCacheMiss(key1, "")
     o.verify(tracer).queryCompile(key1, "")
+    o.verify(tracer).queryCompileTime(same(key1), anyLong(), same(""))
     verifyNoMoreInteractions(tracer)
 
     // When
@@ -110,6 +117,7 @@ class QueryCacheTest extends CypherFunSuite {
     value2FromCache.compiledWithExpressionCodeGen should equal(false)
     o.verify(tracer).queryCacheMiss(key2, "")
     o.verify(tracer).queryCompile(key2, "")
+    o.verify(tracer).queryCompileTime(same(key2), anyLong(), same(""))
     verifyNoMoreInteractions(tracer)
   }
 
@@ -125,6 +133,7 @@ class QueryCacheTest extends CypherFunSuite {
     val o = Mockito.inOrder(tracer)
     o.verify(tracer).queryCacheMiss(key, "")
     o.verify(tracer).queryCompile(key, "")
+    o.verify(tracer).queryCompileTime(same(key), anyLong(), same(""))
     verifyNoMoreInteractions(tracer)
 
     // When
@@ -150,6 +159,7 @@ class QueryCacheTest extends CypherFunSuite {
     val o = Mockito.inOrder(tracer)
     o.verify(tracer).queryCacheMiss(key, "")
     o.verify(tracer).queryCompileWithExpressionCodeGen(key, "")
+    o.verify(tracer).queryCompileTime(same(key), anyLong(), same(""))
     verifyNoMoreInteractions(tracer)
 
     // When
@@ -159,6 +169,7 @@ class QueryCacheTest extends CypherFunSuite {
     valueFromCache2.compiledWithExpressionCodeGen should equal(true)
     o.verify(tracer).queryCacheMiss(key, "")
     o.verify(tracer).queryCompileWithExpressionCodeGen(key, "")
+    o.verify(tracer).queryCompileTime(same(key), anyLong(), same(""))
     verifyNoMoreInteractions(tracer)
   }
 
@@ -175,6 +186,7 @@ class QueryCacheTest extends CypherFunSuite {
     val o = Mockito.inOrder(tracer)
     o.verify(tracer).queryCacheMiss(key, "")
     o.verify(tracer).queryCompile(key, "")
+    o.verify(tracer).queryCompileTime(same(key), anyLong(), same(""))
     verifyNoMoreInteractions(tracer)
 
     // When
@@ -186,6 +198,7 @@ class QueryCacheTest extends CypherFunSuite {
     o.verify(tracer).queryCacheStale(key, secondsSinceReplan, "", None)
     o.verify(tracer).queryCacheMiss(key, "")
     o.verify(tracer).queryCompile(key, "")
+    o.verify(tracer).queryCompileTime(same(key), anyLong(), same(""))
     verifyNoMoreInteractions(tracer)
   }
 
@@ -202,6 +215,7 @@ class QueryCacheTest extends CypherFunSuite {
     val o = Mockito.inOrder(tracer)
     o.verify(tracer).queryCacheMiss(key, "")
     o.verify(tracer).queryCompile(key, "")
+    o.verify(tracer).queryCompileTime(same(key), anyLong(), same(""))
     verifyNoMoreInteractions(tracer)
 
     // When
@@ -233,8 +247,10 @@ class QueryCacheTest extends CypherFunSuite {
     val o = Mockito.inOrder(tracer)
     o.verify(tracer).queryCacheMiss(key, "")
     o.verify(tracer).queryCompile(key, "")
+    o.verify(tracer).queryCompileTime(same(key), anyLong(), same(""))
     o.verify(tracer, times(3)).queryCacheHit(key, "")
     o.verify(tracer).queryCompileWithExpressionCodeGen(key, "")
+    o.verify(tracer).queryCompileTime(same(key), anyLong(), same(""))
     verifyNoMoreInteractions(tracer)
   }
 
@@ -253,6 +269,7 @@ class QueryCacheTest extends CypherFunSuite {
     val o = Mockito.inOrder(tracer)
     o.verify(tracer).queryCacheMiss(key, "")
     o.verify(tracer).queryCompile(key, "")
+    o.verify(tracer).queryCompileTime(same(key), anyLong(), same(""))
     verifyNoMoreInteractions(tracer)
 
     // When
@@ -264,6 +281,7 @@ class QueryCacheTest extends CypherFunSuite {
     v2.compiledWithExpressionCodeGen should equal(true)
     o.verify(tracer, times(3)).queryCacheHit(key, "")
     o.verify(tracer).queryCompileWithExpressionCodeGen(key, "")
+    o.verify(tracer).queryCompileTime(same(key), anyLong(), same(""))
     verifyNoMoreInteractions(tracer)
 
     // When
@@ -274,6 +292,7 @@ class QueryCacheTest extends CypherFunSuite {
     o.verify(tracer).queryCacheStale(key, secondsSinceReplan, "", None)
     o.verify(tracer).queryCacheMiss(key, "")
     o.verify(tracer).queryCompileWithExpressionCodeGen(key, "")
+    o.verify(tracer).queryCompileTime(same(key), anyLong(), same(""))
     verifyNoMoreInteractions(tracer)
   }
 
@@ -296,6 +315,7 @@ class QueryCacheTest extends CypherFunSuite {
     val o = Mockito.inOrder(tracer)
     o.verify(tracer).queryCacheMiss(key, "")
     o.verify(tracer).queryCompile(key, "")
+    o.verify(tracer).queryCompileTime(same(key), anyLong(), same(""))
     o.verify(tracer, times(3)).queryCacheHit(key, "")
     verifyNoMoreInteractions(tracer)
   }
@@ -313,12 +333,34 @@ class QueryCacheTest extends CypherFunSuite {
     val o = Mockito.inOrder(tracer)
     o.verify(tracer).queryCacheMiss(key, "")
     o.verify(tracer).queryCompile(key, "")
+    o.verify(tracer).queryCompileTime(same(key), anyLong(), same(""))
     o.verify(tracer, times(3)).queryCacheHit(key, "")
     o.verify(tracer).queryCompileWithExpressionCodeGen(key, "")
+    o.verify(tracer).queryCompileTime(same(key), anyLong(), same(""))
     o.verify(tracer, times(96)).queryCacheHit(key, "")
     verifyNoMoreInteractions(tracer)
   }
 
+  test("weighted cache should not keep entries heavier than the maximum weight") {
+    // Given
+    val tracer = newTracer()
+    val cache = newCache(tracer, maximumWeight = 5)
+    val light = newKey("foo")
+    val heavy = newKey("foobarbaz")
+
+    // When
+    cache.computeIfAbsentOrStale(light, TC, compilerWithExpressionCodeGenOption(light), CypherReplanOption.skip)
+    cache.computeIfAbsentOrStale(heavy, TC, compilerWithExpressionCodeGenOption(heavy), CypherReplanOption.skip)
+    cache.computeIfAbsentOrStale(light, TC, compilerWithExpressionCodeGenOption(light), CypherReplanOption.skip)
+    cache.computeIfAbsentOrStale(heavy, TC, compilerWithExpressionCodeGenOption(heavy), CypherReplanOption.skip)
+
+    // Then
+    verify(tracer).queryCacheMiss(light, "")
+    verify(tracer).queryCacheHit(light, "")
+    verify(tracer, times(2)).queryCacheMiss(heavy, "")
+    verify(tracer, times(2)).queryCompile(heavy, "")
+  }
+
   test("parameterTypeMap should equal if same parameters") {
     val params1 = VirtualValues.map(Array("a", "b", "c"), Array(Values.of(3), Values.of("hi"), VirtualValues.list(Values.of(false), Values.of(true))))
     val params2 = VirtualValues.map(Array("a", "b", "c"), Array(Values.of(3), Values.of("hi"), VirtualValues.list(Values.of(false), Values.of(true))))
@@ -369,6 +411,8 @@ object QueryCacheTest extends MockitoSugar {
     override def shouldBeCached: Boolean = true
 
     override def notifications: IndexedSeq[InternalNotification] = IndexedSeq.empty
+
+    override def cacheWeight: Int = key.length
   }
 
   val TC: TransactionalContext = mock[TransactionalContext]
@@ -390,8 +434,11 @@ object QueryCacheTest extends MockitoSugar {
 
   def newKey(string: String): Key = Pair.of(string, ParameterTypeMap.empty)
 
-  def newCache(tracer: Tracer = newTracer(), stalenessCaller: PlanStalenessCaller[MyValue] = neverStale(), size: Int = 10): QueryCache[String, Pair[String, ParameterTypeMap], MyValue] = {
-    new QueryCache[String, Pair[String, ParameterTypeMap], MyValue](cacheFactory, size, stalenessCaller, tracer)
+  def newCache(tracer: Tracer = newTracer(),
+               stalenessCaller: PlanStalenessCaller[MyValue] = neverStale(),
+               size: Int = 10,
+               maximumWeight: Long = 0): QueryCache[String, Pair[String, ParameterTypeMap], MyValue] = {
+    new QueryCache[String, Pair[String, ParameterTypeMap], MyValue](cacheFactory, size, stalenessCaller, tracer, maximumWeight)
   }
 
   def newTracer(): Tracer = mock[Tracer]
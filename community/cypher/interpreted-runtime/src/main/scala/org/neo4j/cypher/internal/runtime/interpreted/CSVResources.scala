@@ -27,17 +27,22 @@ import java.net.CookiePolicy
 import java.net.URL
 import java.nio.charset.StandardCharsets
 import java.nio.file.Paths
+import java.util.concurrent.Executor
 import java.util.zip.GZIPInputStream
 import java.util.zip.InflaterInputStream
 
 import org.neo4j.csv.reader.BufferOverflowException
 import org.neo4j.csv.reader.CharReadable
+import org.neo4j.csv.reader.CharSeeker
 import org.neo4j.csv.reader.CharSeekers
 import org.neo4j.csv.reader.Configuration
+import org.neo4j.csv.reader.Extractor
 import org.neo4j.csv.reader.Extractors
 import org.neo4j.csv.reader.Mark
+import org.neo4j.csv.reader.QuoteAwareNewLineChunker
 import org.neo4j.csv.reader.Readables
 import org.neo4j.cypher.internal.runtime.ResourceManager
+import org.neo4j.cypher.internal.runtime.interpreted.load_csv.ParallelLoadCsvIterator
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.ExternalCSVResource
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.LoadCsvIterator
 import org.neo4j.exceptions.CypherExecutionException
@@ -54,6 +59,30 @@ object CSVResources {
   val DEFAULT_BUFFER_SIZE: Int = 2 * 1024 * 1024
   val DEFAULT_QUOTE_CHAR: Char = '"'
 
+  /**
+   * @return the values of the next row read by the seeker, or `null` if there are no more rows.
+   */
+  def readRow(seeker: CharSeeker, mark: Mark, extractor: Extractor[String], delimiter: Int): Array[String] = {
+    val buffer = new ArrayBuffer[String]
+
+    try {
+      while (seeker.seek(mark, delimiter)) {
+        val success = seeker.tryExtract(mark, extractor)
+        buffer += (if (success) extractor.value() else null)
+        if (mark.isEndOfLine) return if (buffer.isEmpty) null else buffer.toArray
+      }
+    } catch {
+      //TODO change to error message mentioning `dbms.import.csv.buffer_size` in 4.0
+      case e: BufferOverflowException => throw new CypherExecutionException(e.getMessage, e)
+    }
+
+    if (buffer.isEmpty) {
+      null
+    } else {
+      buffer.toArray
+    }
+  }
+
   private def config(legacyCsvQuoteEscaping: Boolean, csvBufferSize: Int) = Configuration.newBuilder()
     .withQuotationCharacter(DEFAULT_QUOTE_CHAR)
     .withBufferSize(csvBufferSize)
@@ -73,7 +102,15 @@ case class CSVResource(url: URL, resource: AutoCloseable) extends DefaultCloseLi
   override def isClosed = false
 }
 
-class CSVResources(resourceManager: ResourceManager) extends ExternalCSVResource {
+/**
+ * Background workers that read and parse CSV files ahead of the query, see [[ParallelLoadCsvIterator]].
+ */
+case class CsvParsingWorkers(workers: Int, executor: Executor)
+
+/**
+ * @param parsingWorkers if defined, files are read and parsed on these workers instead of on the calling thread.
+ */
+class CSVResources(resourceManager: ResourceManager, parsingWorkers: Option[CsvParsingWorkers] = None) extends ExternalCSVResource {
 
   def getCsvIterator(url: URL,
                      fieldTerminator: Option[String],
@@ -83,7 +120,20 @@ class CSVResources(resourceManager: ResourceManager) extends ExternalCSVResource
 
     val reader: CharReadable = getReader(url)
     val delimiter: Char = fieldTerminator.map(_.charAt(0)).getOrElse(CSVResources.DEFAULT_FIELD_TERMINATOR)
-    val seeker = CharSeekers.charSeeker(reader, CSVResources.config(legacyCsvQuoteEscaping, bufferSize), false)
+    val config = CSVResources.config(legacyCsvQuoteEscaping, bufferSize)
+    parsingWorkers match {
+      case Some(CsvParsingWorkers(workers, executor)) =>
+        val iterator = new ParallelLoadCsvIterator(new QuoteAwareNewLineChunker(reader, config, delimiter), config, delimiter, executor, workers)
+        val resource = CSVResource(url, iterator.reading)
+        resourceManager.trace(resource)
+        iterator.closing(resource)
+      case None =>
+        serialIterator(url, reader, config, delimiter)
+    }
+  }
+
+  private def serialIterator(url: URL, reader: CharReadable, config: Configuration, delimiter: Char): LoadCsvIterator = {
+    val seeker = CharSeekers.charSeeker(reader, config, false)
     val extractor = new Extractors(delimiter).string()
     val intDelimiter = delimiter.toInt
     val mark = new Mark
@@ -97,26 +147,7 @@ class CSVResources(resourceManager: ResourceManager) extends ExternalCSVResource
 
       override protected[this] def closeMore(): Unit = resource.close()
 
-      private def readNextRow: Array[String] = {
-        val buffer = new ArrayBuffer[String]
-
-        try {
-          while (seeker.seek(mark, intDelimiter)) {
-            val success = seeker.tryExtract(mark, extractor)
-            buffer += (if (success) extractor.value() else null)
-            if (mark.isEndOfLine) return if (buffer.isEmpty) null else buffer.toArray
-          }
-        } catch {
-          //TODO change to error message mentioning `dbms.import.csv.buffer_size` in 4.0
-          case e: BufferOverflowException => throw new CypherExecutionException(e.getMessage, e)
-        }
-
-        if (buffer.isEmpty) {
-          null
-        } else {
-          buffer.toArray
-        }
-      }
+      private def readNextRow: Array[String] = CSVResources.readRow(seeker, mark, extractor, intDelimiter)
 
       var nextRow: Array[String] = readNextRow
 
@@ -38,6 +38,8 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
 import org.neo4j.cypher.result.QueryProfile
 import org.neo4j.cypher.result.RuntimeResult
 import org.neo4j.kernel.impl.query.QuerySubscriber
+import org.neo4j.scheduler.Group
+import org.neo4j.scheduler.JobScheduler
 import org.neo4j.values.AnyValue
 import org.neo4j.values.virtual.MapValue
 
@@ -45,10 +47,11 @@ abstract class BaseExecutionResultBuilderFactory(pipe: Pipe,
                                                  readOnly: Boolean,
                                                  columns: Seq[String],
                                                  logicalPlan: LogicalPlan,
-                                                 hasLoadCSV: Boolean) extends ExecutionResultBuilderFactory {
+                                                 hasLoadCSV: Boolean,
+                                                 loadCsvParsingWorkers: Int) extends ExecutionResultBuilderFactory {
 
   abstract class BaseExecutionResultBuilder() extends ExecutionResultBuilder {
-    protected var externalResource: ExternalCSVResource = new CSVResources(queryContext.resources)
+    protected var externalResource: ExternalCSVResource = new CSVResources(queryContext.resources, csvParsingWorkers(queryContext))
     protected var pipeDecorator: PipeDecorator = if (hasLoadCSV) new LinenumberPipeDecorator() else NullPipeDecorator
 
     protected def createQueryState(params: MapValue,
@@ -68,6 +71,16 @@ abstract class BaseExecutionResultBuilderFactory(pipe: Pipe,
       case _ => pipeDecorator = profileDecorator
     }
 
+    private def csvParsingWorkers(queryContext: QueryContext): Option[CsvParsingWorkers] =
+      if (hasLoadCSV && loadCsvParsingWorkers > 0) {
+        TransactionalContextWrapper.unwrap(queryContext.transactionalContext).map { tc =>
+          val jobScheduler = tc.graph.getDependencyResolver.resolveDependency(classOf[JobScheduler])
+          CsvParsingWorkers(loadCsvParsingWorkers, jobScheduler.executor(Group.CYPHER_WORKER))
+        }
+      } else {
+        None
+      }
+
     override def build(params: MapValue, readOnly: Boolean, queryProfile: QueryProfile, prePopulateResults: Boolean, input: InputDataStream, subscriber: QuerySubscriber, doProfile: Boolean): RuntimeResult = {
       val state = createQueryState(params, prePopulateResults, input, subscriber, doProfile)
       new PipeExecutionResult(pipe, columns.toArray, state, queryProfile, subscriber)
@@ -85,8 +98,9 @@ case class InterpretedExecutionResultBuilderFactory(pipe: Pipe,
                                                     logicalPlan: LogicalPlan,
                                                     lenientCreateRelationship: Boolean,
                                                     memoryTrackingController: MemoryTrackingController,
-                                                    hasLoadCSV: Boolean = false)
-  extends BaseExecutionResultBuilderFactory(pipe, readOnly, columns, logicalPlan, hasLoadCSV) {
+                                                    hasLoadCSV: Boolean = false,
+                                                    loadCsvParsingWorkers: Int = 0)
+  extends BaseExecutionResultBuilderFactory(pipe, readOnly, columns, logicalPlan, hasLoadCSV, loadCsvParsingWorkers) {
 
   override def create(queryContext: QueryContext): ExecutionResultBuilder = InterpretedExecutionResultBuilder(queryContext: QueryContext)
 
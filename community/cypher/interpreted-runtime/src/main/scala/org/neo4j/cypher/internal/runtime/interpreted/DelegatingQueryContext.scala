@@ -180,6 +180,10 @@ abstract class DelegatingQueryContext(val inner: QueryContext) extends QueryCont
                                            indexOrder: IndexOrder): NodeValueIndexCursor =
     manyDbHits(inner.indexScan(index, needsValues, indexOrder))
 
+  override def indexScanDistinct[RESULT <: AnyRef](index: IndexReadSession,
+                                                   indexOrder: IndexOrder): NodeValueIndexCursor =
+    manyDbHits(inner.indexScanDistinct(index, indexOrder))
+
   override def indexSeekByContains[RESULT <: AnyRef](index: IndexReadSession,
                                                      needsValues: Boolean,
                                                      indexOrder: IndexOrder,
@@ -56,7 +56,9 @@ import org.neo4j.cypher.internal.logical.plans.ExpandAll
 import org.neo4j.cypher.internal.logical.plans.ExpandInto
 import org.neo4j.cypher.internal.logical.plans.FindShortestPaths
 import org.neo4j.cypher.internal.logical.plans.ForeachApply
+import org.neo4j.cypher.internal.logical.plans.GetValue
 import org.neo4j.cypher.internal.logical.plans.IncludeTies
+import org.neo4j.cypher.internal.logical.plans.IndexedProperty
 import org.neo4j.cypher.internal.logical.plans.Input
 import org.neo4j.cypher.internal.logical.plans.LeftOuterHashJoin
 import org.neo4j.cypher.internal.logical.plans.LetAntiSemiApply
@@ -69,11 +71,13 @@ import org.neo4j.cypher.internal.logical.plans.LockNodes
 import org.neo4j.cypher.internal.logical.plans.LogicalPlan
 import org.neo4j.cypher.internal.logical.plans.MergeCreateNode
 import org.neo4j.cypher.internal.logical.plans.MergeCreateRelationship
+import org.neo4j.cypher.internal.logical.plans.MultiLabelNodeIndexSeek
 import org.neo4j.cypher.internal.logical.plans.MultiNodeIndexSeek
 import org.neo4j.cypher.internal.logical.plans.NodeByIdSeek
 import org.neo4j.cypher.internal.logical.plans.NodeByLabelScan
 import org.neo4j.cypher.internal.logical.plans.NodeCountFromCountStore
 import org.neo4j.cypher.internal.logical.plans.NodeHashJoin
+import org.neo4j.cypher.internal.logical.plans.NodeIndexAggregation
 import org.neo4j.cypher.internal.logical.plans.NodeIndexContainsScan
 import org.neo4j.cypher.internal.logical.plans.NodeIndexEndsWithScan
 import org.neo4j.cypher.internal.logical.plans.NodeIndexScan
@@ -117,26 +121,38 @@ import org.neo4j.cypher.internal.logical.plans.UnwindCollection
 import org.neo4j.cypher.internal.logical.plans.ValueHashJoin
 import org.neo4j.cypher.internal.logical.plans.VarExpand
 import org.neo4j.cypher.internal.logical.plans.VariablePredicate
+import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.LeveragedOrders
 import org.neo4j.cypher.internal.planner.spi.TokenContext
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.ProcedureCallMode
 import org.neo4j.cypher.internal.runtime.QueryIndexRegistrator
 import org.neo4j.cypher.internal.runtime.ast.ExpressionVariable
 import org.neo4j.cypher.internal.runtime.interpreted.commands.KeyTokenResolver
+import org.neo4j.cypher.internal.runtime.interpreted.commands.compiled.ExpressionCompiler
 import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.ExpressionConverters
 import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.InterpretedCommandProjection
 import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.PatternConverters.ShortestPathsConverter
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.AggregationExpression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.ArrayRowVariable
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Avg
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Count
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.CountStar
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Literal
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Max
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Min
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.ShortestPathExpression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Sum
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Variable
 import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregationTableFactory
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.AllNodesScanPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.AllOrderedDistinctPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.AntiSemiApplyPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.ApplyPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.ArgumentPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ArrayCypherRowFactory
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.AssertSameNodePipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.CachePropertiesPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.CartesianProductPipe
@@ -152,6 +168,7 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes.EagerAggregationPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.EagerPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.EmptyResultPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.ErrorPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.CommunityCypherRowFactory
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.CypherRowFactory
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.ExpandAllPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.ExpandIntoPipe
@@ -169,10 +186,12 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes.LoadCSVPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.LockNodesPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.MergeCreateNodePipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.MergeCreateRelationshipPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.MultiLabelNodeIndexSeekPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeByIdSeekPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeByLabelScanPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeCountFromCountStorePipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeHashJoinPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeIndexAggregationPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeIndexContainsScanPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeIndexEndsWithScanPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeIndexScanPipe
@@ -185,6 +204,8 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes.OptionalExpandIntoPip
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.OptionalPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.OrderedAggregationPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.OrderedDistinctPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelAggregationPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelAggregationPipe.NodeScan
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.PartialSortPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.PartialTop1Pipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.PartialTop1WithTiesPipe
@@ -229,6 +250,7 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.GroupingA
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.NonGroupingAggTable
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.OrderedGroupingAggTable
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.OrderedNonGroupingAggTable
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.Spilling
 import org.neo4j.cypher.internal.util.Eagerly
 import org.neo4j.cypher.internal.util.attribution.Id
 import org.neo4j.exceptions.InternalException
@@ -239,18 +261,52 @@ import org.neo4j.values.virtual.RelationshipValue
 /**
  * Responsible for turning a logical plan with argument pipes into a new pipe.
  * When adding new Pipes and LogicalPlans, this is where you should be looking.
+ *
+ * @param rowFactory used by all created pipes to create and copy rows
+ * @param compileExpressions whether expressions should be compiled into generated classes, see [[ExpressionCompiler]]
+ * @param parallelAggregationWorkers maximum number of workers of a [[ParallelAggregationPipe]], which is only planned if this is more than one
+ * @param spilling when and where sort, distinct, eager, eager aggregation and node hash join pipes spill rows to disk
+ * @param leveragedOrders plans whose provided order a parent relies on, which must not spill in a way that changes their output order
  */
 case class InterpretedPipeMapper(readOnly: Boolean,
                                  expressionConverters: ExpressionConverters,
                                  tokenContext: TokenContext,
-                                 indexRegistrator: QueryIndexRegistrator)
+                                 indexRegistrator: QueryIndexRegistrator,
+                                 rowFactory: CypherRowFactory = CommunityCypherRowFactory(),
+                                 compileExpressions: Boolean = false,
+                                 parallelAggregationWorkers: Int = 0,
+                                 spilling: Spilling = Spilling.DISABLED,
+                                 leveragedOrders: LeveragedOrders = new LeveragedOrders)
                                 (implicit semanticTable: SemanticTable) extends PipeMapper {
 
   private def getBuildExpression(id: Id): internal.expressions.Expression => Expression =
     ((e: internal.expressions.Expression) => expressionConverters.toCommandExpression(id, e)) andThen
-      (expression => expression.rewrite(KeyTokenResolver.resolveExpressions(_, tokenContext)))
+      (expression => expression.rewrite(KeyTokenResolver.resolveExpressions(_, tokenContext))) andThen
+      (expression => expression.rewrite(resolveVariableOffsets)) andThen
+      (expression => if (compileExpressions) ExpressionCompiler.compile(expression) else expression)
+
+  // with array rows, variables find their values at offsets looked up here, instead of looking them up for every row
+  private val resolveVariableOffsets: Expression => Expression = rowFactory match {
+    case ArrayCypherRowFactory(slots) => {
+      case variable@Variable(name) if !variable.isInstanceOf[ArrayRowVariable] && slots.offsetOf(name) >= 0 =>
+        new ArrayRowVariable(name, slots.offsetOf(name))
+      case expression => expression
+    }
+    case _ => identity
+  }
+
+  def onLeaf(plan: LogicalPlan): Pipe = withRowFactory(leafPipe(plan))
+
+  def onOneChildPlan(plan: LogicalPlan, source: Pipe): Pipe = withRowFactory(oneChildPipe(plan, source))
+
+  def onTwoChildPlan(plan: LogicalPlan, lhs: Pipe, rhs: Pipe): Pipe = withRowFactory(twoChildPipe(plan, lhs, rhs))
 
-  def onLeaf(plan: LogicalPlan): Pipe = {
+  private def withRowFactory(pipe: Pipe): Pipe = {
+    pipe.rowFactory = rowFactory
+    pipe
+  }
+
+  private def leafPipe(plan: LogicalPlan): Pipe = {
     val id = plan.id
     val buildExpression = getBuildExpression(id)
     plan match {
@@ -293,6 +349,9 @@ case class InterpretedPipeMapper(readOnly: Boolean,
       case NodeIndexScan(ident, label, properties, _, indexOrder) =>
         NodeIndexScanPipe(ident, label, properties, indexRegistrator.registerQueryIndex(label, properties), indexOrder)(id = id)
 
+      case NodeIndexAggregation(ident, label, property, aggregation, _) =>
+        NodeIndexAggregationPipe(ident, aggregation, indexRegistrator.registerQueryIndex(label, IndexedProperty(property, GetValue)))(id = id)
+
       case NodeIndexContainsScan(ident, label, property, valueExpr, _, indexOrder) =>
         NodeIndexContainsScanPipe(ident, label, property, indexRegistrator.registerQueryIndex(label, property),
           buildExpression(valueExpr), indexOrder)(id = id)
@@ -302,6 +361,11 @@ case class InterpretedPipeMapper(readOnly: Boolean,
           buildExpression(valueExpr), indexOrder)(id = id)
 
       // Currently used for testing only
+      case MultiLabelNodeIndexSeek(ident, labels, properties, valueExpr, _) =>
+        val indexSeekMode = IndexSeekModeFactory(unique = false, readOnly = readOnly).fromQueryExpression(valueExpr)
+        MultiLabelNodeIndexSeekPipe(ident, labels, properties.toArray, indexRegistrator.registerQueryIndex(labels, properties),
+          valueExpr.map(buildExpression), indexSeekMode)(id = id)
+
       case MultiNodeIndexSeek(indexLeafPlans) =>
         indexLeafPlans.foldLeft(None: Option[Pipe]) {
           case (None, plan) =>
@@ -316,7 +380,7 @@ case class InterpretedPipeMapper(readOnly: Boolean,
     }
   }
 
-  def onOneChildPlan(plan: LogicalPlan, source: Pipe): Pipe = {
+  private def oneChildPipe(plan: LogicalPlan, source: Pipe): Pipe = {
     val id = plan.id
     val buildExpression = getBuildExpression(id)
     plan match {
@@ -399,7 +463,7 @@ case class InterpretedPipeMapper(readOnly: Boolean,
         PruningVarLengthExpandPipe(source, from, toName, RelationshipTypes(types.toArray), dir, minLength, maxLength, predicate)(id = id)
 
       case Sort(_, sortItems) =>
-        SortPipe(source, InterpretedExecutionContextOrdering.asComparator(sortItems.map(translateColumnOrder)))(id = id)
+        SortPipe(source, InterpretedExecutionContextOrdering.asComparator(sortItems.map(translateColumnOrder)), spilling)(id = id)
 
       case PartialSort(_, alreadySortedPrefix, stillToSortSuffix) =>
         PartialSortPipe(source, InterpretedExecutionContextOrdering.asComparator(alreadySortedPrefix.map(translateColumnOrder)), InterpretedExecutionContextOrdering.asComparator(stillToSortSuffix.map(translateColumnOrder)))(id = id)
@@ -431,7 +495,7 @@ case class InterpretedPipeMapper(readOnly: Boolean,
 
       case Limit(_, count, IncludeTies) =>
         (source, count) match {
-          case (SortPipe(inner, comparator), SignedDecimalIntegerLiteral("1")) =>
+          case (SortPipe(inner, comparator, _), SignedDecimalIntegerLiteral("1")) =>
             Top1WithTiesPipe(inner, comparator)(id = id)
           case (PartialSortPipe(inner, prefixComparator, suffixComparator), SignedDecimalIntegerLiteral("1")) =>
             PartialTop1WithTiesPipe(inner, prefixComparator, suffixComparator)(id = id)
@@ -443,13 +507,14 @@ case class InterpretedPipeMapper(readOnly: Boolean,
         val projection = groupingExpressions.map {
           case (key, value) => DistinctPipe.GroupingCol(key, buildExpression(value))
         }.toArray
-        DistinctPipe(source, projection)(id = id)
+        // A spilled distinct emits its rows partition by partition, which loses the order of its source
+        DistinctPipe(source, projection, if (leveragedOrders.get(id)) Spilling.DISABLED else spilling)(id = id)
 
       case Distinct(_, groupingExpressions) =>
         val projection = groupingExpressions.map {
           case (key, value) => DistinctPipe.GroupingCol(key, buildExpression(value))
         }.toArray
-        DistinctPipe(source, projection)(id = id)
+        DistinctPipe(source, projection, if (leveragedOrders.get(id)) Spilling.DISABLED else spilling)(id = id)
 
       case OrderedDistinct(_, groupingExpressions, orderToLeverage) =>
         val projection = groupingExpressions.map {
@@ -472,17 +537,19 @@ case class InterpretedPipeMapper(readOnly: Boolean,
           case (key, value) => AggregationPipe.AggregatingCol(key, buildExpression(value).asInstanceOf[AggregationExpression])
         }.toArray
 
+        val groupingColumns = groupingExpressions.map {
+          case (key, value) => DistinctPipe.GroupingCol(key, buildExpression(value))
+        }.toArray
+
         val tableFactory =
           if (groupingExpressions.isEmpty) {
             NonGroupingAggTable.Factory(aggregationColumns)
           } else {
-            val groupingColumns = groupingExpressions.map {
-              case (key, value) => DistinctPipe.GroupingCol(key, buildExpression(value))
-            }.toArray
             val groupingFunction: (CypherRow, QueryState) => AnyValue = AggregationPipe.computeGroupingFunction(groupingColumns)
             GroupingAggTable.Factory(groupingColumns, groupingFunction, aggregationColumns)
           }
-        EagerAggregationPipe(source, tableFactory)(id = id)
+        val expressions = aggregationColumns.map(_.expression) ++ groupingColumns.map(_.expression)
+        parallelAggregationPipe(source, tableFactory, expressions, id).getOrElse(EagerAggregationPipe(source, tableFactory, spilling)(id = id))
 
       case OrderedAggregation(_, groupingExpressions, aggregatingExpressions, orderToLeverage) =>
         val aggregationColumns = aggregatingExpressions.map {
@@ -618,7 +685,7 @@ case class InterpretedPipeMapper(readOnly: Boolean,
         DeletePipe(source, buildExpression(expression), forced = true)(id = id)
 
       case Eager(_) =>
-        EagerPipe(source)(id = id)
+        EagerPipe(source, spilling)(id = id)
 
       case ErrorPlan(_, ex) =>
         ErrorPipe(source, ex)(id = id)
@@ -656,7 +723,7 @@ case class InterpretedPipeMapper(readOnly: Boolean,
     }
   }
 
-  def onTwoChildPlan(plan: LogicalPlan, lhs: Pipe, rhs: Pipe): Pipe = {
+  private def twoChildPipe(plan: LogicalPlan, lhs: Pipe, rhs: Pipe): Pipe = {
     val id = plan.id
     val buildExpression = getBuildExpression(id)
     plan match {
@@ -664,7 +731,8 @@ case class InterpretedPipeMapper(readOnly: Boolean,
         CartesianProductPipe(lhs, rhs)(id = id)
 
       case NodeHashJoin(nodes, _, _) =>
-        NodeHashJoinPipe(nodes, lhs, rhs)(id = id)
+        // A spilled join emits its rows partition by partition, which loses the order of the right hand side
+        NodeHashJoinPipe(nodes, lhs, rhs, if (leveragedOrders.get(id)) Spilling.DISABLED else spilling)(id = id)
 
       case LeftOuterHashJoin(nodes, l, r) =>
         val nullableVariables = r.availableSymbols -- l.availableSymbols
@@ -729,10 +797,40 @@ case class InterpretedPipeMapper(readOnly: Boolean,
     }
   }
 
-  private def buildPredicate(id: Id, expr: internal.expressions.Expression): Predicate =
-    expressionConverters.toCommandPredicate(id, expr)
+  /**
+   * Plans a [[ParallelAggregationPipe]] for read-only aggregations directly over, possibly filtered, node scans, if all aggregations can be
+   * merged and all expressions involved are safe to evaluate from several threads, see [[ParallelAggregationPipe.isParallelSafe]].
+   */
+  private def parallelAggregationPipe(source: Pipe, tableFactory: AggregationTableFactory, expressions: Seq[Expression], id: Id): Option[Pipe] = {
+    def scanWithPredicates(pipe: Pipe, predicates: List[Expression]): Option[(NodeScan, List[Expression])] = pipe match {
+      case FilterPipe(inner, predicate) => scanWithPredicates(inner, predicate :: predicates)
+      case AllNodesScanPipe(ident) => Some((ParallelAggregationPipe.AllNodes(ident), predicates))
+      case NodeByLabelScanPipe(ident, label, _) => Some((ParallelAggregationPipe.NodesByLabel(ident, label), predicates))
+      case _ => None
+    }
+
+    def isMergeable(expression: Expression): Boolean = expression match {
+      case _: CountStar | _: Count | _: Sum | _: Min | _: Max | _: Avg => true
+      case _: AggregationExpression => false
+      case _ => true
+    }
+
+    if (!readOnly || parallelAggregationWorkers < 2 || !expressions.forall(e => isMergeable(e) && ParallelAggregationPipe.isParallelSafe(e))) {
+      None
+    } else {
+      scanWithPredicates(source, Nil).collect {
+        case (scan, predicates) if predicates.forall(ParallelAggregationPipe.isParallelSafe) =>
+          ParallelAggregationPipe(source, tableFactory, scan, predicates.toArray, parallelAggregationWorkers)(id = id)
+      }
+    }
+  }
+
+  private def buildPredicate(id: Id, expr: internal.expressions.Expression): Predicate = {
+    val predicate = expressionConverters.toCommandPredicate(id, expr)
       .rewrite(KeyTokenResolver.resolveExpressions(_, tokenContext))
       .asInstanceOf[Predicate]
+    if (compileExpressions) ExpressionCompiler.compilePredicate(predicate) else predicate
+  }
 
   private def translateColumnOrder(s: plans.ColumnOrder): org.neo4j.cypher.internal.runtime.interpreted.ColumnOrder = s match {
     case plans.Ascending(name) => org.neo4j.cypher.internal.runtime.interpreted.Ascending(name)
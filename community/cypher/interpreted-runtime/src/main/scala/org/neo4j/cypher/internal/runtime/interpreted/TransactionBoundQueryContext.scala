@@ -20,6 +20,7 @@
 package org.neo4j.cypher.internal.runtime.interpreted
 
 import java.net.URL
+import java.util.function.LongPredicate
 
 import org.neo4j.cypher.internal.expressions.SemanticDirection
 import org.neo4j.cypher.internal.expressions.SemanticDirection.BOTH
@@ -52,6 +53,7 @@ import org.neo4j.exceptions.FailedIndexException
 import org.neo4j.graphalgo.BasicEvaluationContext
 import org.neo4j.graphalgo.impl.path.ShortestPath
 import org.neo4j.graphalgo.impl.path.ShortestPath.ShortestPathPredicate
+import org.neo4j.graphalgo.impl.util.PathImpl
 import org.neo4j.graphdb.Entity
 import org.neo4j.graphdb.Node
 import org.neo4j.graphdb.NotFoundException
@@ -73,6 +75,7 @@ import org.neo4j.internal.kernel.api.Read
 import org.neo4j.internal.kernel.api.RelationshipScanCursor
 import org.neo4j.internal.kernel.api.RelationshipTraversalCursor
 import org.neo4j.internal.kernel.api.TokenRead
+import org.neo4j.internal.kernel.api.helpers.BidirectionalShortestPath
 import org.neo4j.internal.kernel.api.helpers.Nodes
 import org.neo4j.internal.kernel.api.helpers.RelationshipSelections.allCursor
 import org.neo4j.internal.kernel.api.helpers.RelationshipSelections.incomingCursor
@@ -83,6 +86,7 @@ import org.neo4j.internal.schema.ConstraintType
 import org.neo4j.internal.schema.IndexDescriptor
 import org.neo4j.internal.schema.IndexPrototype
 import org.neo4j.internal.schema.SchemaDescriptor
+import org.neo4j.io.IOUtils
 import org.neo4j.kernel.GraphDatabaseQueryService
 import org.neo4j.kernel.api.StatementConstants
 import org.neo4j.kernel.api.exceptions.schema.EquivalentSchemaRuleAlreadyExistsException
@@ -107,6 +111,7 @@ import org.neo4j.values.virtual.RelationshipValue
 import org.neo4j.values.virtual.VirtualValues
 
 import scala.collection.Iterator
+import scala.collection.JavaConverters.asScalaBufferConverter
 import scala.collection.JavaConverters.asScalaIteratorConverter
 import scala.collection.mutable.ArrayBuffer
 
@@ -327,6 +332,13 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
     nodeCursor
   }
 
+  override def indexScanDistinct[RESULT <: AnyRef](index: IndexReadSession,
+                                                   indexOrder: IndexOrder): NodeValueIndexCursor = {
+    val nodeCursor = allocateAndTraceNodeValueIndexCursor()
+    reads().nodeIndexScan(index, nodeCursor, IndexQueryConstraints.constrained(asKernelIndexOrder(indexOrder), true).distinct())
+    nodeCursor
+  }
+
   override def indexSeekByContains[RESULT <: AnyRef](index: IndexReadSession,
                                                      needsValues: Boolean,
                                                      indexOrder: IndexOrder,
@@ -835,6 +847,9 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
                                   pathPredicate: KernelPredicate[Path],
                                   filters: Seq[KernelPredicate[Entity]],
                                   memoryTracker: MemoryTracker): Option[Path] = {
+    if (pathPredicate eq KernelPredicate.acceptAll[Path]) {
+      findShortestPaths(left, right, depth, expander, single = true, memoryTracker).foreach(paths => return paths.headOption)
+    }
     val pathFinder = buildPathFinder(depth, expander, pathPredicate, filters, memoryTracker)
 
     //could probably do without node proxies here
@@ -844,11 +859,62 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
   override def allShortestPath(left: Long, right: Long, depth: Int, expander: Expander,
                                pathPredicate: KernelPredicate[Path],
                                filters: Seq[KernelPredicate[Entity]], memoryTracker: MemoryTracker): ClosingIterator[Path] = {
+    if (pathPredicate eq KernelPredicate.acceptAll[Path]) {
+      findShortestPaths(left, right, depth, expander, single = false, memoryTracker).foreach(paths => return ClosingIterator(paths.iterator))
+    }
     val pathFinder = buildPathFinder(depth, expander, pathPredicate, filters, memoryTracker)
 
     pathFinder.findAllPathsAutoCloseableIterator(entityAccessor.newNodeEntity(left), entityAccessor.newNodeEntity(right))
   }
 
+  /**
+   * Finds shortest paths with a [[BidirectionalShortestPath]] directly on kernel cursors. The filters of the expander are evaluated
+   * while expanding, so this must only be used when found paths don't have to be tested by a path predicate.
+   *
+   * @return the paths found, or `None` if the expander follows relationships of different types in different directions,
+   *         which isn't supported by the bidirectional search.
+   */
+  private def findShortestPaths(left: Long, right: Long, depth: Int, expander: Expander, single: Boolean,
+                                memoryTracker: MemoryTracker): Option[Seq[Path]] = {
+    val (types, direction) = expander match {
+      case OnlyDirectionExpander(_, _, dir) => (null, dir)
+      case TypeAndDirectionExpander(_, _, typDirs) if typDirs.map(_._2).distinct.size == 1 =>
+        val typeIds = typDirs.map(typDir => tokenRead.relationshipType(typDir._1)).filter(_ != TokenRead.NO_TOKEN).distinct
+        (typeIds.toArray, typDirs.head._2)
+      case _ => return None
+    }
+    val nodeFilter: LongPredicate =
+      if (expander.nodeFilters.isEmpty) null
+      else node => {
+        val entity = entityAccessor.newNodeEntity(node)
+        expander.nodeFilters.forall(_.test(entity))
+      }
+    val relationshipFilter: BidirectionalShortestPath.RelationshipFilter =
+      if (expander.relFilters.isEmpty) null
+      else (relationship, relType, source, target) => {
+        val entity = entityAccessor.newRelationshipEntity(relationship, source, relType, target)
+        expander.relFilters.forall(_.test(entity))
+      }
+
+    val cursorTracer = transactionalContext.kernelTransaction.pageCursorTracer()
+    val nodeCursor = transactionalContext.cursors.allocateNodeCursor(cursorTracer)
+    val traversalCursor = transactionalContext.cursors.allocateRelationshipTraversalCursor(cursorTracer)
+    try {
+      val search = new BidirectionalShortestPath(reads(), nodeCursor, traversalCursor, types, toGraphDb(direction), nodeFilter,
+        relationshipFilter, depth, memoryTracker)
+      Some(search.find(left, right, single).asScala.map(toPath))
+    } finally {
+      IOUtils.closeAll(nodeCursor, traversalCursor)
+    }
+  }
+
+  private def toPath(steps: BidirectionalShortestPath.PathSteps): Path = {
+    val builder = new PathImpl.Builder(entityAccessor.newNodeEntity(steps.node(0)))
+    (0 until steps.length()).foldLeft(builder) {
+      (acc, i) => acc.push(entityAccessor.newRelationshipEntity(steps.relationship(i), steps.source(i), steps.`type`(i), steps.target(i)))
+    }.build()
+  }
+
   override def callReadOnlyProcedure(id: Int, args: Array[AnyValue], allowed: Array[String],
                                      context: ProcedureCallContext): Iterator[Array[AnyValue]] =
     CallSupport.callReadOnlyProcedure(transactionalContext.tc, id, args, allowed, context)
@@ -33,6 +33,8 @@ import org.neo4j.kernel.impl.api.SchemaStateKey
 import org.neo4j.kernel.impl.factory.DbmsInfo
 import org.neo4j.kernel.impl.query.TransactionalContext
 
+import scala.annotation.tailrec
+
 /**
  * TODO: Currently threadSafeCursors is entirely unused (always null), so we should consider removing it
  *
@@ -77,3 +79,16 @@ case class TransactionalContextWrapper(tc: TransactionalContext, threadSafeCurso
 
   override def rollback(): Unit = tc.rollback()
 }
+
+object TransactionalContextWrapper {
+
+  /**
+   * @return the [[TransactionalContextWrapper]] behind any number of [[DelegatingQueryTransactionalContext]]s, if there is one
+   */
+  @tailrec
+  def unwrap(tc: QueryTransactionalContext): Option[TransactionalContextWrapper] = tc match {
+    case wrapper: TransactionalContextWrapper => Some(wrapper)
+    case delegating: DelegatingQueryTransactionalContext => unwrap(delegating.inner)
+    case _ => None
+  }
+}
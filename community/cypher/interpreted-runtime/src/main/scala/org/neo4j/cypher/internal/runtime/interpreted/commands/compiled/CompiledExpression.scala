@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.commands.compiled
+
+import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.interpreted.commands.AstNode
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.BooleanValue
+import org.neo4j.values.storable.Value
+
+/**
+ * Implemented by the classes generated by [[ExpressionCompiler]].
+ */
+trait CompiledEvaluator {
+  def evaluate(row: ReadableRow, state: QueryState): AnyValue
+}
+
+/**
+ * An expression evaluated by a generated class instead of walking the expression tree.
+ *
+ * The original expression is kept for everything but evaluation, so rewriting a compiled expression gives back an
+ * interpreted one.
+ */
+case class CompiledExpression(evaluator: CompiledEvaluator, original: Expression) extends Expression {
+
+  override def apply(row: ReadableRow, state: QueryState): AnyValue = evaluator.evaluate(row, state)
+
+  override def rewrite(f: Expression => Expression): Expression = original.rewrite(f)
+
+  override def arguments: Seq[Expression] = original.arguments
+
+  override def children: Seq[AstNode[_]] = Seq(original)
+
+  override def toString: String = original.toString
+}
+
+/**
+ * A predicate evaluated by a generated class, see [[CompiledExpression]].
+ */
+case class CompiledPredicate(evaluator: CompiledEvaluator, original: Predicate) extends Predicate {
+
+  override def apply(row: ReadableRow, state: QueryState): Value = evaluator.evaluate(row, state).asInstanceOf[Value]
+
+  override def isMatch(ctx: ReadableRow, state: QueryState): Option[Boolean] = evaluator.evaluate(ctx, state) match {
+    case b: BooleanValue => Some(b.booleanValue())
+    case _ => None
+  }
+
+  override def containsIsNull: Boolean = original.containsIsNull
+
+  override def rewrite(f: Expression => Expression): Expression = original.rewrite(f)
+
+  override def arguments: Seq[Expression] = original.arguments
+
+  override def children: Seq[AstNode[_]] = Seq(original)
+
+  override def toString: String = original.toString
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.commands.compiled
+
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Property
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.CoercedPredicate
+import org.neo4j.cypher.internal.runtime.interpreted.commands.values.KeyToken
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.operations.CypherBoolean
+import org.neo4j.cypher.operations.CypherFunctions
+import org.neo4j.cypher.operations.CypherMath
+import org.neo4j.values.AnyValue
+import org.neo4j.values.Equality
+import org.neo4j.values.storable.Values
+import org.neo4j.values.storable.Values.NO_VALUE
+
+/**
+ * The operations called from classes generated by [[ExpressionCompiler]]. Every method has the same null semantics as
+ * the interpreted expression it replaces.
+ */
+object CompiledExpressionHelpers {
+
+  def parameter(state: QueryState, offset: Int): AnyValue = state.params(offset)
+
+  def property(value: AnyValue, propertyKey: KeyToken, state: QueryState): AnyValue =
+    Property.getProperty(value, propertyKey, state)
+
+  def add(lhs: AnyValue, rhs: AnyValue): AnyValue =
+    if ((lhs eq NO_VALUE) || (rhs eq NO_VALUE)) NO_VALUE else CypherMath.add(lhs, rhs)
+
+  def subtract(lhs: AnyValue, rhs: AnyValue): AnyValue =
+    if ((lhs eq NO_VALUE) || (rhs eq NO_VALUE)) NO_VALUE else CypherMath.subtract(lhs, rhs)
+
+  def multiply(lhs: AnyValue, rhs: AnyValue): AnyValue =
+    if ((lhs eq NO_VALUE) || (rhs eq NO_VALUE)) NO_VALUE else CypherMath.multiply(lhs, rhs)
+
+  def divide(lhs: AnyValue, rhs: AnyValue): AnyValue = {
+    CypherMath.divideCheckForNull(lhs, rhs)
+    if ((lhs eq NO_VALUE) || (rhs eq NO_VALUE)) NO_VALUE else CypherMath.divide(lhs, rhs)
+  }
+
+  def modulo(lhs: AnyValue, rhs: AnyValue): AnyValue =
+    if ((lhs eq NO_VALUE) || (rhs eq NO_VALUE)) NO_VALUE else CypherMath.modulo(lhs, rhs)
+
+  def pow(lhs: AnyValue, rhs: AnyValue): AnyValue =
+    if ((lhs eq NO_VALUE) || (rhs eq NO_VALUE)) NO_VALUE else CypherMath.pow(lhs, rhs)
+
+  def equal(lhs: AnyValue, rhs: AnyValue): AnyValue = lhs.ternaryEquals(rhs) match {
+    case Equality.UNDEFINED => NO_VALUE
+    case Equality.FALSE => Values.FALSE
+    case Equality.TRUE => Values.TRUE
+  }
+
+  def lessThan(lhs: AnyValue, rhs: AnyValue): AnyValue = CypherBoolean.lessThan(lhs, rhs)
+
+  def lessThanOrEqual(lhs: AnyValue, rhs: AnyValue): AnyValue = CypherBoolean.lessThanOrEqual(lhs, rhs)
+
+  def greaterThan(lhs: AnyValue, rhs: AnyValue): AnyValue = CypherBoolean.greaterThan(lhs, rhs)
+
+  def greaterThanOrEqual(lhs: AnyValue, rhs: AnyValue): AnyValue = CypherBoolean.greaterThanOrEqual(lhs, rhs)
+
+  def not(in: AnyValue): AnyValue = if (in eq NO_VALUE) NO_VALUE else CypherBoolean.not(in)
+
+  def isNull(in: AnyValue): AnyValue = Values.booleanValue(in eq NO_VALUE)
+
+  def coerceToPredicate(in: AnyValue): AnyValue = CoercedPredicate.coerce(in) match {
+    case Some(result) => Values.booleanValue(result)
+    case None => NO_VALUE
+  }
+
+  def abs(in: AnyValue): AnyValue = if (in eq NO_VALUE) NO_VALUE else CypherFunctions.abs(in)
+
+  def size(in: AnyValue): AnyValue = if (in eq NO_VALUE) NO_VALUE else CypherFunctions.size(in)
+
+  def toLower(in: AnyValue): AnyValue = if (in eq NO_VALUE) NO_VALUE else CypherFunctions.toLower(in)
+
+  def toUpper(in: AnyValue): AnyValue = if (in eq NO_VALUE) NO_VALUE else CypherFunctions.toUpper(in)
+}
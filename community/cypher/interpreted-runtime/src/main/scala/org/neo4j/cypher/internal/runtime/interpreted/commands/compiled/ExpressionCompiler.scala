@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.commands.compiled
+
+import java.util.concurrent.atomic.AtomicLong
+
+import org.neo4j.codegen.ClassGenerator
+import org.neo4j.codegen.CodeBlock
+import org.neo4j.codegen.CodeGenerator.generateCode
+import org.neo4j.codegen.Expression.constant
+import org.neo4j.codegen.Expression.constantInt
+import org.neo4j.codegen.Expression.getStatic
+import org.neo4j.codegen.Expression.invoke
+import org.neo4j.codegen.FieldReference.staticField
+import org.neo4j.codegen.MethodDeclaration.method
+import org.neo4j.codegen.MethodReference.methodReference
+import org.neo4j.codegen.Parameter.param
+import org.neo4j.codegen.TypeReference.typeReference
+import org.neo4j.codegen.bytecode.ByteCode.BYTECODE
+import org.neo4j.codegen
+import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.AbsFunction
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Add
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Divide
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Literal
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Modulo
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Multiply
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Null
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.ParameterFromSlot
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Pow
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Property
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.SizeFunction
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Subtract
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.ToLowerFunction
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.ToUpperFunction
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Variable
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Ands
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.CoercedPredicate
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Equals
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.GreaterThan
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.GreaterThanOrEqual
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.IsNull
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.LessThan
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.LessThanOrEqual
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Not
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Ors
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
+import org.neo4j.cypher.internal.runtime.interpreted.commands.values.KeyToken
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values
+
+import scala.collection.mutable.ArrayBuffer
+import scala.util.control.NonFatal
+
+/**
+ * Compiles interpreted expressions into generated classes, so that hot filters and projections are evaluated by straight
+ * line code calling [[CompiledExpressionHelpers]] rather than by walking the expression tree.
+ *
+ * Arithmetic, comparisons, property access and a few functions are compiled. Any other expression found inside a
+ * compiled one is kept as it is and called from the generated code. [[Ands]] and [[Ors]] are not compiled themselves,
+ * since they hold back errors until all their predicates have been evaluated, but their predicates are.
+ */
+object ExpressionCompiler {
+
+  private val PACKAGE = "org.neo4j.cypher.internal.runtime.interpreted.generated"
+  private val ROW = "row"
+  private val STATE = "state"
+  private val EVALUATE = method(classOf[AnyValue], "evaluate", param(classOf[ReadableRow], ROW), param(classOf[QueryState], STATE))
+  private val GET_BY_NAME = methodReference(classOf[ReadableRow], classOf[AnyValue], "getByName", classOf[String])
+  private val APPLY = methodReference(classOf[Expression], classOf[AnyValue], "apply", classOf[ReadableRow], classOf[QueryState])
+  // The helpers are called on the module instance of the object
+  private val HELPERS_CLASS = CompiledExpressionHelpers.getClass
+  private val HELPERS = staticField(HELPERS_CLASS, HELPERS_CLASS, "MODULE$")
+  private val classCounter = new AtomicLong()
+
+  def compile(expression: Expression): Expression = expression match {
+    case predicate: Predicate => compilePredicate(predicate)
+    case e if isCompilableRoot(e) => generate(e).map(CompiledExpression(_, e)).getOrElse(e)
+    case e => e
+  }
+
+  def compilePredicate(predicate: Predicate): Predicate = predicate match {
+    case Ands(predicates) => Ands(predicates.map(compilePredicate))
+    case Ors(predicates) => Ors(predicates.map(compilePredicate))
+    case p if isCompilableRoot(p) => generate(p).map(CompiledPredicate(_, p)).getOrElse(p)
+    case p => p
+  }
+
+  /**
+   * Plain reads are not worth a class of their own, and aggregations are evaluated by the aggregation pipes.
+   */
+  private def isCompilableRoot(expression: Expression): Boolean = expression match {
+    case Literal(_) | Null() | Variable(_) | ParameterFromSlot(_, _) | Property(_, _) => false
+    case e if e.containsAggregate => false
+    case e => isCompilable(e)
+  }
+
+  private def isCompilable(expression: Expression): Boolean = expression match {
+    case _: Add | _: Subtract | _: Multiply | _: Divide | _: Modulo | _: Pow => true
+    case _: Equals | _: LessThan | _: LessThanOrEqual | _: GreaterThan | _: GreaterThanOrEqual => true
+    case _: Not | _: IsNull | _: CoercedPredicate => true
+    case _: AbsFunction | _: SizeFunction | _: ToLowerFunction | _: ToUpperFunction => true
+    case _ => false
+  }
+
+  private def generate(expression: Expression): Option[CompiledEvaluator] = {
+    try {
+      val constants = ArrayBuffer.empty[(String, AnyRef)]
+      val codeGenerator = generateCode(classOf[CompiledEvaluator].getClassLoader, BYTECODE)
+      val generator = codeGenerator.generateClass(PACKAGE, "Expression" + classCounter.incrementAndGet(), classOf[CompiledEvaluator])
+      val handle = try {
+        val body = generator.generate(EVALUATE)
+        try {
+          body.returns(new BodyGenerator(generator, body, constants).generate(expression))
+        } finally {
+          body.close()
+        }
+        generator.handle()
+      } finally {
+        generator.close()
+      }
+      val clazz = handle.loadClass()
+      constants.foreach {
+        case (name, value) => clazz.getField(name).set(null, value)
+      }
+      Some(clazz.getConstructor().newInstance().asInstanceOf[CompiledEvaluator])
+    } catch {
+      // Compiling is only an optimization, the interpreted expression gives the same result
+      case NonFatal(_) => None
+    }
+  }
+
+  private class BodyGenerator(generator: ClassGenerator, body: CodeBlock, constants: ArrayBuffer[(String, AnyRef)]) {
+
+    def generate(expression: Expression): codegen.Expression = expression match {
+      case Literal(value) => constantField(classOf[AnyValue], value)
+      case Null() => constantField(classOf[AnyValue], Values.NO_VALUE)
+      case Variable(name) => invoke(body.load(ROW), GET_BY_NAME, constant(name))
+      case ParameterFromSlot(offset, _) => helper("parameter", classOf[QueryState], classOf[Int])(body.load(STATE), constantInt(offset))
+      case Property(mapExpr, propertyKey) =>
+        helper("property", classOf[AnyValue], classOf[KeyToken], classOf[QueryState])(
+          generate(mapExpr), constantField(classOf[KeyToken], propertyKey), body.load(STATE))
+
+      case Add(a, b) => binary("add", a, b)
+      case Subtract(a, b) => binary("subtract", a, b)
+      case Multiply(a, b) => binary("multiply", a, b)
+      case Divide(a, b) => binary("divide", a, b)
+      case Modulo(a, b) => binary("modulo", a, b)
+      case Pow(a, b) => binary("pow", a, b)
+
+      case Equals(a, b) => binary("equal", a, b)
+      case LessThan(a, b) => binary("lessThan", a, b)
+      case LessThanOrEqual(a, b) => binary("lessThanOrEqual", a, b)
+      case GreaterThan(a, b) => binary("greaterThan", a, b)
+      case GreaterThanOrEqual(a, b) => binary("greaterThanOrEqual", a, b)
+      case Not(a) => unary("not", a)
+      case IsNull(a) => unary("isNull", a)
+      case CoercedPredicate(a) => unary("coerceToPredicate", a)
+
+      case AbsFunction(a) => unary("abs", a)
+      case SizeFunction(a) => unary("size", a)
+      case ToLowerFunction(a) => unary("toLower", a)
+      case ToUpperFunction(a) => unary("toUpper", a)
+
+      case other =>
+        invoke(constantField(classOf[Expression], compile(other)), APPLY, body.load(ROW), body.load(STATE))
+    }
+
+    private def unary(name: String, in: Expression): codegen.Expression =
+      helper(name, classOf[AnyValue])(generate(in))
+
+    private def binary(name: String, lhs: Expression, rhs: Expression): codegen.Expression =
+      helper(name, classOf[AnyValue], classOf[AnyValue])(generate(lhs), generate(rhs))
+
+    private def helper(name: String, parameterTypes: Class[_]*)(arguments: codegen.Expression*): codegen.Expression =
+      invoke(getStatic(HELPERS), methodReference(HELPERS_CLASS, classOf[AnyValue], name, parameterTypes: _*), arguments: _*)
+
+    private def constantField(typ: Class[_], value: AnyRef): codegen.Expression = {
+      val name = "CONSTANT_" + constants.size
+      val field = generator.publicStaticField(typeReference(typ), name)
+      constants += name -> value
+      getStatic(field)
+    }
+  }
+}
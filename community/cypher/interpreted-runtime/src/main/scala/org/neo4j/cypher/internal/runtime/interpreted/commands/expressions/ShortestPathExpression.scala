@@ -84,7 +84,9 @@ case class ShortestPathExpression(shortestPathPattern: ShortestPath,
      * accepting or disqualifying it as appropriate.
      */
     val cypherRow = ctx.asInstanceOf[CypherRow] // TODO: less ugly solution to evaluating predicates
-    val shortestPathPredicate = createShortestPathPredicate(cypherRow, maybePredicate, state)
+    val shortestPathPredicate =
+      if (allPredicatesInExpander) KernelPredicate.acceptAll[Path]
+      else createShortestPathPredicate(cypherRow, maybePredicate, state)
 
     if (shortestPathPattern.single) {
       val result = state.query
@@ -107,6 +109,17 @@ case class ShortestPathExpression(shortestPathPattern: ShortestPath,
     }
   }
 
+  /**
+   * True if every path found by following the expander is known to fulfil all predicates, so found paths don't have to be tested
+   * again, see [[addPredicates]].
+   */
+  private val allPredicatesInExpander: Boolean =
+    !withFallBack && fullPathPredicates.isEmpty && perStepPredicates.map(findPredicate).forall {
+      case NoneInList(function, _, _, _) => isRelationshipsFunction(function) || isNodesFunction(function)
+      case AllInList(function, _, _, _) => isRelationshipsFunction(function) || isNodesFunction(function)
+      case _ => false
+    }
+
   private def createShortestPathPredicate(incomingCtx: CypherRow,
                                           maybePredicate: Option[Predicate],
                                           state: QueryState): KernelPredicate[Path] =
@@ -37,6 +37,7 @@ import org.neo4j.cypher.internal.util.NonEmptyList
 import org.neo4j.cypher.operations.CypherBoolean
 import org.neo4j.exceptions.CypherTypeException
 import org.neo4j.kernel.api.StatementConstants
+import org.neo4j.values.AnyValue
 import org.neo4j.values.storable.BooleanValue
 import org.neo4j.values.storable.TextValue
 import org.neo4j.values.storable.Value
@@ -430,12 +431,7 @@ case class CoercedPredicate(inner: Expression) extends Predicate {
 
   override def children: Seq[AstNode[_]] = Seq(inner)
 
-  override def isMatch(ctx: ReadableRow, state: QueryState): Option[Boolean] = inner(ctx, state) match {
-    case x: BooleanValue => Some(x.booleanValue())
-    case IsNoValue() => None
-    case IsList(coll) => Some(coll.nonEmpty)
-    case x => throw new CypherTypeException(s"Don't know how to treat that as a predicate: $x")
-  }
+  override def isMatch(ctx: ReadableRow, state: QueryState): Option[Boolean] = CoercedPredicate.coerce(inner(ctx, state))
 
   override def rewrite(f: Expression => Expression): Expression = f(CoercedPredicate(inner.rewrite(f)))
 
@@ -443,3 +439,12 @@ case class CoercedPredicate(inner: Expression) extends Predicate {
 
   override def toString: String = inner.toString
 }
+
+object CoercedPredicate {
+  def coerce(value: AnyValue): Option[Boolean] = value match {
+    case x: BooleanValue => Some(x.booleanValue())
+    case IsNoValue() => None
+    case IsList(coll) => Some(coll.nonEmpty)
+    case x => throw new CypherTypeException(s"Don't know how to treat that as a predicate: $x")
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.load_csv
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executor
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+
+import org.neo4j.csv.reader.BufferedCharSeeker
+import org.neo4j.csv.reader.Chunker
+import org.neo4j.csv.reader.Configuration
+import org.neo4j.csv.reader.Extractors
+import org.neo4j.csv.reader.Mark
+import org.neo4j.csv.reader.Source
+import org.neo4j.csv.reader.Source.Chunk
+import org.neo4j.cypher.internal.runtime.interpreted.CSVResources
+import org.neo4j.cypher.internal.runtime.interpreted.load_csv.ParallelLoadCsvIterator.NO_ROWS
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.LoadCsvIterator
+
+import scala.collection.mutable.ArrayBuffer
+
+/**
+ * Reads and parses a CSV file in chunks on background workers, while the rows are consumed in file order on the calling thread.
+ *
+ * Every task claims the next chunk of the file and parses it, so reading and parsing overlap with the execution of the query and
+ * up to `workers` chunks are parsed at the same time. A new task is only submitted when the rows of a chunk are handed to the query,
+ * which bounds the number of chunks held ahead of it. Chunks are only cut at line breaks outside of quoted fields, see
+ * [[QuoteAwareNewLineChunker]]. A task never waits for another task, so the iterator makes progress however busy the executor is.
+ */
+class ParallelLoadCsvIterator(chunker: Chunker, config: Configuration, delimiter: Char, executor: Executor, workers: Int)
+  extends LoadCsvIterator {
+
+  // Futures of the submitted chunks, in file order
+  private val pending = new java.util.ArrayDeque[CompletableFuture[Array[Array[String]]]]()
+  // The same futures, polled by tasks together with reading their chunk
+  private val unclaimed = new ConcurrentLinkedQueue[CompletableFuture[Array[Array[String]]]]()
+  private val freeChunks = new ConcurrentLinkedQueue[Chunk]()
+  private val inFlight = new AtomicInteger()
+  private val chunkerClosed = new AtomicBoolean()
+  @volatile private var closed = false
+  private var endOfFile = false
+  private var rows = NO_ROWS
+  private var rowIndex = 0
+
+  var lastProcessed = 0L
+  var readAll = false
+
+  /**
+   * Stops reading ahead. The file is closed as soon as no worker uses it any more.
+   */
+  val reading: AutoCloseable = () => {
+    closed = true
+    if (inFlight.get() == 0) {
+      closeChunker()
+    }
+  }
+
+  submitTasks()
+
+  override protected[this] def innerHasNext: Boolean = {
+    while (rowIndex >= rows.length) {
+      if (pending.isEmpty) {
+        return false
+      }
+      awaitRows(pending.poll()) match {
+        case null =>
+          endOfFile = true
+        case chunkRows =>
+          rows = chunkRows
+          rowIndex = 0
+          submitTasks()
+      }
+    }
+    true
+  }
+
+  override def next(): Array[String] = {
+    if (!hasNext) Iterator.empty.next()
+    val row = rows(rowIndex)
+    rows(rowIndex) = null
+    rowIndex += 1
+    lastProcessed += 1
+    readAll = !hasNext
+    row
+  }
+
+  override protected[this] def closeMore(): Unit = reading.close()
+
+  private def submitTasks(): Unit = {
+    while (!endOfFile && !closed && pending.size() < workers) {
+      val rows = new CompletableFuture[Array[Array[String]]]()
+      pending.offer(rows)
+      unclaimed.offer(rows)
+      inFlight.incrementAndGet()
+      executor.execute(new ParseTask)
+    }
+  }
+
+  private def awaitRows(future: CompletableFuture[Array[Array[String]]]): Array[Array[String]] =
+    try {
+      future.get()
+    } catch {
+      case e: ExecutionException => throw e.getCause
+    }
+
+  private def closeChunker(): Unit =
+    if (chunkerClosed.compareAndSet(false, true)) {
+      chunker.close()
+    }
+
+  /**
+   * Reads the next chunk of the file and parses all its rows. Completes its future with `null` when the file has been fully read.
+   */
+  private class ParseTask extends Runnable {
+    override def run(): Unit = {
+      val chunk = Option(freeChunks.poll()).getOrElse(chunker.newChunk())
+      var rows: CompletableFuture[Array[Array[String]]] = null
+      try {
+        val hasData = chunker.synchronized {
+          // Claim the future of the chunk we read while holding the lock, so that chunks are handed out in the order of the futures
+          rows = unclaimed.poll()
+          !closed && chunker.nextChunk(chunk)
+        }
+        rows.complete(if (hasData) parse(chunk) else null)
+      } catch {
+        case t: Throwable => rows.completeExceptionally(t)
+      } finally {
+        freeChunks.offer(chunk)
+        if (inFlight.decrementAndGet() == 0 && closed) {
+          closeChunker()
+        }
+      }
+    }
+
+    private def parse(chunk: Chunk): Array[Array[String]] = {
+      val seeker = new BufferedCharSeeker(Source.singleChunk(chunk), config)
+      val extractor = new Extractors(delimiter).string()
+      val mark = new Mark
+      val rows = new ArrayBuffer[Array[String]]
+      var row = CSVResources.readRow(seeker, mark, extractor, delimiter)
+      while (row != null) {
+        rows += row
+        row = CSVResources.readRow(seeker, mark, extractor, delimiter)
+      }
+      rows.toArray
+    }
+  }
+}
+
+object ParallelLoadCsvIterator {
+  private val NO_ROWS = new Array[Array[String]](0)
+}
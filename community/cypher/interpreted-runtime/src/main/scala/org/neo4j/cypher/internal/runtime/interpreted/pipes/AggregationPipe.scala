@@ -51,6 +51,35 @@ object AggregationPipe {
     def result(): ClosingIterator[CypherRow]
   }
 
+  /**
+   * An [[AggregationTable]] which can take over the groups of another table of the same kind, so that partial tables
+   * can be built from different parts of the input and combined before calling `result`.
+   * All aggregation functions of the tables must be [[org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.MergeableAggregationFunction]]s.
+   */
+  trait MergeableAggregationTable extends AggregationTable {
+    /**
+     * Adds all groups of `other` to this table. `other` is consumed by this call, and can not be used afterwards.
+     */
+    def merge(other: MergeableAggregationTable): Unit
+  }
+
+  /**
+   * An [[AggregationTable]] with groups, which knows how much heap its groups use and can leave rows of new groups out once it
+   * has grown too large, so that those rows can be spilled to disk and aggregated in a table of their own.
+   */
+  trait SpillableAggregationTable extends AggregationTable {
+    def estimatedHeapUsage: Long
+
+    def groupingKey(row: CypherRow): AnyValue
+
+    /**
+     * Aggregates `row` into the group of `groupingKey`, which is only created if `createGroup` is `true`.
+     *
+     * @return `false` if the row was not aggregated because there is no such group
+     */
+    def processRow(row: CypherRow, groupingKey: AnyValue, createGroup: Boolean): Boolean
+  }
+
   /**
    * A Factory to obtain [[AggregationTable]]s at runtime.
    */
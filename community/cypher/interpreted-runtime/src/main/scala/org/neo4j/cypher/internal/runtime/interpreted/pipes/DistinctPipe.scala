@@ -24,23 +24,42 @@ import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.PrefetchingIterator
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe.GroupingCol
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe.MAX_SPILL_LEVELS
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe.SPILL_PARTITIONS
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillFile
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillSpace
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.Spilling
 import org.neo4j.cypher.internal.util.attribution.Id
 import org.neo4j.kernel.impl.util.collection.DistinctSet
 import org.neo4j.values.AnyValue
 import org.neo4j.values.virtual.ListValueBuilder
 
-case class DistinctPipe(source: Pipe, groupingColumns: Array[GroupingCol])
+/**
+ * Returns the first row of every distinct combination of grouping values. If the set of seen combinations grows larger than allowed
+ * by `spilling`, no more combinations are added to it. Rows with combinations that haven't been seen are instead partitioned by
+ * their combination to disk, and every partition is made distinct on its own after all input rows have been consumed.
+ */
+case class DistinctPipe(source: Pipe, groupingColumns: Array[GroupingCol], spilling: Spilling = Spilling.DISABLED)
                        (val id: Id = Id.INVALID_ID) extends PipeWithSource(source) {
 
   private val keyNames = groupingColumns.map(_.key)
 
-  protected def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
+  protected def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] =
+    distinct(input, state, level = 0)
+
+  /**
+   * @param level 0 for the input of the pipe, and one more for every level of partitions the rows have been spilled to
+   */
+  private def distinct(input: ClosingIterator[CypherRow], state: QueryState, level: Int): ClosingIterator[CypherRow] = {
     new PrefetchingIterator[CypherRow] {
       /*
        * The filtering is done by extracting from the context the values of all return expressions, and keeping them
        * in a set.
        */
       private var seen = DistinctSet.createDistinctSet[AnyValue](state.memoryTracker.memoryTrackerForOperator(id.x))
+      private var canSpill = spilling.enabled && level < MAX_SPILL_LEVELS
+      private var partitions: Array[SpillFile] = _
+      private var spilledRows: ClosingIterator[CypherRow] = _
 
       state.query.resources.trace(seen)
 
@@ -48,37 +67,66 @@ case class DistinctPipe(source: Pipe, groupingColumns: Array[GroupingCol])
         while (input.hasNext) {
           val next: CypherRow = input.next()
 
-          var i = 0
-          while (i < groupingColumns.length) {
-            next.set(groupingColumns(i).key, groupingColumns(i).expression(next, state))
-            i += 1
+          if (level == 0) {
+            var i = 0
+            while (i < groupingColumns.length) {
+              next.set(groupingColumns(i).key, groupingColumns(i).expression(next, state))
+              i += 1
+            }
           }
           val builder = ListValueBuilder.newListBuilder(keyNames.length)
           keyNames.foreach(name => builder.add(next.getByName(name)))
           val groupingValue = builder.build()
 
-          if (seen.add(groupingValue)) {
+          if (partitions != null) {
+            if (!seen.contains(groupingValue)) {
+              partitions(SpillSpace.partition(groupingValue, level, partitions.length)).write(next)
+            }
+          } else if (seen.add(groupingValue)) {
+            if (canSpill && seen.estimatedHeapUsage() > spilling.threshold) {
+              startSpilling()
+            }
             return Some(next)
           }
         }
-        seen.close()
-        seen = null
-        None
+        if (seen != null) {
+          seen.close()
+          seen = null
+          if (partitions != null) {
+            partitions.foreach(_.finishWriting())
+            spilledRows = ClosingIterator(partitions.iterator).flatMap(partition => distinct(partition.read(), state, level + 1))
+          }
+        }
+        if (spilledRows != null && spilledRows.hasNext) Some(spilledRows.next()) else None
       }
 
-      override protected[this] def closeMore(): Unit = if(seen != null) seen.close()
+      private def startSpilling(): Unit = spilling.open(state, rowFactory, id) match {
+        case Some(spillSpace) =>
+          partitions = spillSpace.newPartitions(SPILL_PARTITIONS)
+          closing(spillSpace)
+        case None =>
+          canSpill = false
+      }
+
+      override protected[this] def closeMore(): Unit = {
+        if (seen != null) seen.close()
+        if (spilledRows != null) spilledRows.close()
+      }
     }
   }
 
   override def equals(obj: Any): Boolean = {
     obj match {
-      case DistinctPipe(otherSource, otherGroupingColumns) =>
-        otherSource == this.source && otherGroupingColumns.sameElements(this.groupingColumns)
+      case DistinctPipe(otherSource, otherGroupingColumns, otherSpilling) =>
+        otherSource == this.source && otherGroupingColumns.sameElements(this.groupingColumns) && otherSpilling == this.spilling
       case _ => false
     }
   }
 }
 
 object DistinctPipe {
+  private val SPILL_PARTITIONS = 16
+  private val MAX_SPILL_LEVELS = 4
+
   case class GroupingCol(key: String, expression: Expression, ordered: Boolean = false)
 }
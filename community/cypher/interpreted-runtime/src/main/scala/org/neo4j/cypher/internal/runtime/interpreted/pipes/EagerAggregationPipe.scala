@@ -22,22 +22,84 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 import org.neo4j.cypher.internal.runtime.ClosingIterator
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregationTableFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.SpillableAggregationTable
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.EagerAggregationPipe.MAX_SPILL_LEVELS
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.EagerAggregationPipe.SPILLED_GROUPING_KEY
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.EagerAggregationPipe.SPILL_PARTITIONS
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillFile
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillSpace
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.Spilling
 import org.neo4j.cypher.internal.util.attribution.Id
 
 // Eager aggregation means that this pipe will eagerly load the whole resulting sub graphs before starting
 // to emit aggregated results.
 // Cypher is lazy until it can't - this pipe will eagerly load the full match
+//
+// If a table with groups grows larger than allowed by `spilling`, no more groups are added to it. Rows of new groups are instead
+// partitioned by their grouping key to disk, and every partition is aggregated in a table of its own once the input is exhausted.
 case class EagerAggregationPipe(source: Pipe,
-                                tableFactory: AggregationTableFactory)
+                                tableFactory: AggregationTableFactory,
+                                spilling: Spilling = Spilling.DISABLED)
                                (val id: Id = Id.INVALID_ID)
   extends AggregationPipe(source) {
 
-  protected def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
+  protected def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] =
+    aggregate(input, state, level = 0)
+
+  /**
+   * @param level 0 for the input of the pipe, and one more for every level of partitions the rows have been spilled to
+   */
+  private def aggregate(input: ClosingIterator[CypherRow], state: QueryState, level: Int): ClosingIterator[CypherRow] = {
     val table = tableFactory.table(state, rowFactory, id)
     table.clear()
+    table match {
+      case spillableTable: SpillableAggregationTable if spilling.enabled =>
+        aggregateOrSpill(spillableTable, input, state, level)
+      case _ =>
+        while (input.hasNext) {
+          table.processRow(input.next())
+        }
+        table.result()
+    }
+  }
+
+  private def aggregateOrSpill(table: SpillableAggregationTable,
+                               input: ClosingIterator[CypherRow],
+                               state: QueryState,
+                               level: Int): ClosingIterator[CypherRow] = {
+    var spillSpace: SpillSpace = null
+    var partitions: Array[SpillFile] = null
+    var canSpill = level < MAX_SPILL_LEVELS
     while (input.hasNext) {
-      table.processRow(input.next())
+      val row = input.next()
+      // Spilled rows keep their grouping key, so that it is neither evaluated again nor, if the grouping expressions aren't
+      // deterministic, changed when the rows are read back
+      val groupingKey = if (level == 0) table.groupingKey(row) else row.getByName(SPILLED_GROUPING_KEY)
+      if (!table.processRow(row, groupingKey, createGroup = partitions == null)) {
+        row.set(SPILLED_GROUPING_KEY, groupingKey)
+        partitions(SpillSpace.partition(groupingKey, level, partitions.length)).write(row)
+      } else if (canSpill && partitions == null && table.estimatedHeapUsage > spilling.threshold) {
+        spilling.open(state, rowFactory, id) match {
+          case Some(space) =>
+            spillSpace = space
+            partitions = space.newPartitions(SPILL_PARTITIONS)
+          case None =>
+            canSpill = false
+        }
+      }
+    }
+    if (partitions == null) {
+      table.result()
+    } else {
+      partitions.foreach(_.finishWriting())
+      val spilled = ClosingIterator(partitions.iterator).flatMap(partition => aggregate(partition.read(), state, level + 1))
+      (table.result() ++ spilled).closing(spillSpace)
     }
-    table.result()
   }
 }
+
+object EagerAggregationPipe {
+  private val SPILL_PARTITIONS = 16
+  private val MAX_SPILL_LEVELS = 4
+  private val SPILLED_GROUPING_KEY = "  SPILLED_GROUPING_KEY"
+}
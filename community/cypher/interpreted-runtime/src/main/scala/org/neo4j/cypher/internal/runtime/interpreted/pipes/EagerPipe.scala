@@ -21,12 +21,17 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
 import org.neo4j.cypher.internal.runtime.ClosingIterator
 import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.Spilling
 import org.neo4j.cypher.internal.util.attribution.Id
 import org.neo4j.kernel.impl.util.collection.EagerBuffer
 
 import scala.collection.JavaConverters.asScalaIteratorConverter
 
-case class EagerPipe(src: Pipe)(val id: Id = Id.INVALID_ID)
+/**
+ * Buffers all rows in heap, unless they grow larger than allowed by `spilling`, in which case all rows after the threshold
+ * has been reached are written to disk, and read back after the rows in heap have been returned.
+ */
+case class EagerPipe(src: Pipe, spilling: Spilling = Spilling.DISABLED)(val id: Id = Id.INVALID_ID)
   extends PipeWithSource(src) {
 
   protected def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
@@ -36,9 +41,28 @@ case class EagerPipe(src: Pipe)(val id: Id = Id.INVALID_ID)
                                                           EagerBuffer.GROW_NEW_CHUNKS_BY_100_PCT
                                                           )
     state.query.resources.trace(buffer)
-    while (input.hasNext) {
-      buffer.add(input.next)
+    var bufferedHeap = 0L
+    while (input.hasNext && bufferedHeap <= spilling.threshold) {
+      val row = input.next()
+      if (spilling.enabled) {
+        bufferedHeap += row.estimatedHeapUsage()
+      }
+      buffer.add(row)
+    }
+    val spilled = if (input.hasNext) spilling.open(state, rowFactory, id) else None
+    spilled match {
+      case Some(spillSpace) =>
+        val spillFile = spillSpace.newFile()
+        while (input.hasNext) {
+          spillFile.write(input.next())
+        }
+        spillFile.finishWriting()
+        (ClosingIterator(buffer.autoClosingIterator().asScala).closing(buffer) ++ spillFile.read()).closing(spillSpace)
+      case None =>
+        while (input.hasNext) {
+          buffer.add(input.next)
+        }
+        ClosingIterator(buffer.autoClosingIterator().asScala).closing(buffer)
     }
-    ClosingIterator(buffer.autoClosingIterator().asScala).closing(buffer)
   }
 }
@@ -20,6 +20,7 @@
 package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
 import org.neo4j.cypher.internal.logical.plans.CompositeQueryExpression
+import org.neo4j.cypher.internal.logical.plans.NearestNeighboursQueryExpression
 import org.neo4j.cypher.internal.logical.plans.QueryExpression
 import org.neo4j.cypher.internal.logical.plans.RangeQueryExpression
 import org.neo4j.exceptions.InternalException
@@ -29,6 +30,8 @@ case class IndexSeekModeFactory(unique: Boolean, readOnly: Boolean) {
   def fromQueryExpression[T](qexpr: QueryExpression[T]): IndexSeekMode = qexpr match {
     case _: RangeQueryExpression[_] if unique => UniqueIndexSeekByRange
     case _: RangeQueryExpression[_] => IndexSeekByRange
+    case _: NearestNeighboursQueryExpression[_] if unique => UniqueIndexSeekByRange
+    case _: NearestNeighboursQueryExpression[_] => IndexSeekByRange
     case qe: CompositeQueryExpression[_] if unique && !readOnly && qe.exactOnly => LockingUniqueIndexSeek
     case _: CompositeQueryExpression[_] if unique => UniqueIndexSeek
     case _ if unique && !readOnly => LockingUniqueIndexSeek
@@ -22,19 +22,33 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 import org.neo4j.cypher.internal.runtime.ClosingIterator
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.IsNoValue
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeHashJoinPipe.MAX_SPILL_LEVELS
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeHashJoinPipe.SPILL_PARTITIONS
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillFile
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillSpace
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.Spilling
 import org.neo4j.cypher.internal.util.attribution.Id
 import org.neo4j.exceptions.CypherTypeException
-import org.neo4j.kernel.impl.util.collection
-import org.neo4j.values.storable.LongArray
-import org.neo4j.values.storable.Values
+import org.neo4j.kernel.impl.util.collection.LongKeysProbeTable
 import org.neo4j.values.virtual.VirtualNodeValue
 
 import scala.collection.JavaConverters.asScalaIteratorConverter
 
-case class NodeHashJoinPipe(nodeVariables: Set[String], left: Pipe, right: Pipe)
+/**
+ * Joins on the ids of one or more nodes. The node ids of the build side rows are kept in a [[LongKeysProbeTable]], so no key
+ * objects are created per row.
+ *
+ * If the probe table grows larger than allowed by `spilling`, the join continues as a grace hash join: the rows of both sides are
+ * partitioned by their join key to disk, and every pair of partitions is joined on its own. The rows are then no longer returned
+ * in the order of the right hand side, so spilling must be disabled when that order is relied on.
+ */
+case class NodeHashJoinPipe(nodeVariables: Set[String], left: Pipe, right: Pipe, spilling: Spilling = Spilling.DISABLED)
                            (val id: Id = Id.INVALID_ID)
   extends PipeWithSource(left) {
 
+  private val cachedVariables = nodeVariables.toIndexedSeq
+  private val keySize = cachedVariables.length
+
   protected def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
     if (input.isEmpty)
       return ClosingIterator.empty
@@ -44,51 +58,126 @@ case class NodeHashJoinPipe(nodeVariables: Set[String], left: Pipe, right: Pipe)
     if (rhsIterator.isEmpty)
       return ClosingIterator.empty
 
-    val table = buildProbeTable(input, state)
+    join(input, rhsIterator, state, level = 0)
+  }
+
+  /**
+   * @param level 0 for the inputs of the pipe, and one more for every level of partitions the rows have been spilled to
+   */
+  private def join(lhs: ClosingIterator[CypherRow], rhs: ClosingIterator[CypherRow], state: QueryState, level: Int): ClosingIterator[CypherRow] = {
+    val key = new Array[Long](keySize)
+    var table = LongKeysProbeTable.createLongKeysProbeTable[CypherRow](state.memoryTracker.memoryTrackerForOperator(id.x), keySize)
     state.query.resources.trace(table)
+    var canSpill = spilling.enabled && level < MAX_SPILL_LEVELS
+    var spillSpace: SpillSpace = null
+    var lhsPartitions: Array[SpillFile] = null
+
+    while (lhs.hasNext) {
+      val row = lhs.next()
+      if (computeKey(row, key)) {
+        if (lhsPartitions != null) {
+          lhsPartitions(partition(key, level)).write(row)
+        } else {
+          put(table, key, row)
+          if (canSpill && table.estimatedHeapUsage() > spilling.threshold) {
+            spilling.open(state, rowFactory, id) match {
+              case Some(space) =>
+                spillSpace = space
+                lhsPartitions = space.newPartitions(SPILL_PARTITIONS)
+                table.values().asScala.foreach { tableRow =>
+                  computeKey(tableRow, key)
+                  lhsPartitions(partition(key, level)).write(tableRow)
+                }
+                table.close()
+                table = null
+              case None =>
+                canSpill = false
+            }
+          }
+        }
+      }
+    }
+
+    if (lhsPartitions != null) {
+      lhsPartitions.foreach(_.finishWriting())
+      val rhsPartitions = spillSpace.newPartitions(SPILL_PARTITIONS)
+      while (rhs.hasNext) {
+        val row = rhs.next()
+        if (computeKey(row, key)) {
+          rhsPartitions(partition(key, level)).write(row)
+        }
+      }
+      rhsPartitions.foreach(_.finishWriting())
+      val joined = ClosingIterator(lhsPartitions.indices.iterator).flatMap { i =>
+        if (lhsPartitions(i).rows == 0 || rhsPartitions(i).rows == 0) ClosingIterator.empty
+        else join(lhsPartitions(i).read(), rhsPartitions(i).read(), state, level + 1)
+      }
+      return joined.closing(spillSpace)
+    }
 
     if (table.isEmpty) {
       table.close()
       return ClosingIterator.empty
     }
 
-    val result =
-      for {
-        rhsRow <- rhsIterator
-        joinKey <- computeKey(rhsRow).toIterator
-        lhsRow <- table.get(joinKey).asScala
-      } yield {
-        val output = lhsRow.createClone()
-        output.mergeWith(rhsRow, state.query)
-        output
+    val probeTable = table
+    val result = rhs.flatMap { rhsRow =>
+      if (!computeKey(rhsRow, key)) {
+        Iterator.empty
+      } else {
+        get(probeTable, key).asScala.map { lhsRow =>
+          val output = lhsRow.createClone()
+          output.mergeWith(rhsRow, state.query)
+          output
+        }
       }
+    }
 
-    result.closing(table)
+    result.closing(probeTable)
   }
 
-  private def buildProbeTable(input: Iterator[CypherRow], queryState: QueryState): collection.ProbeTable[LongArray, CypherRow] = {
-    val table = collection.ProbeTable.createProbeTable[LongArray, CypherRow](queryState.memoryTracker.memoryTrackerForOperator(id.x))
-
-    for {context <- input
-         joinKey <- computeKey(context)} {
-      table.put(joinKey, context)
-    }
-
-    table
+  private def put(table: LongKeysProbeTable[CypherRow], key: Array[Long], row: CypherRow): Unit = keySize match {
+    case 1 => table.put(key(0), row)
+    case 2 => table.put(key(0), key(1), row)
+    case _ => table.put(key, row)
   }
 
-  private val cachedVariables = nodeVariables.toIndexedSeq
+  private def get(table: LongKeysProbeTable[CypherRow], key: Array[Long]): java.util.Iterator[CypherRow] = keySize match {
+    case 1 => table.get(key(0))
+    case 2 => table.get(key(0), key(1))
+    case _ => table.get(key)
+  }
 
-  private def computeKey(context: CypherRow): Option[LongArray] = {
-    val key = new Array[Long](cachedVariables.length)
+  private def partition(key: Array[Long], level: Int): Int = {
+    var hash = 0
+    var i = 0
+    while (i < keySize) {
+      hash = hash * 31 + java.lang.Long.hashCode(key(i))
+      i += 1
+    }
+    SpillSpace.partitionOfHash(hash, level, SPILL_PARTITIONS)
+  }
 
-    for (idx <- cachedVariables.indices) {
+  /**
+   * Writes the ids of the join nodes of `context` to `key`.
+   *
+   * @return false if any of the join nodes is null, in which case the row can't be joined
+   */
+  private def computeKey(context: CypherRow, key: Array[Long]): Boolean = {
+    var idx = 0
+    while (idx < keySize) {
       key(idx) = context.getByName(cachedVariables(idx)) match {
         case n: VirtualNodeValue => n.id()
-        case IsNoValue() => return None
+        case IsNoValue() => return false
         case _ => throw new CypherTypeException("Created a plan that uses non-nodes when expecting a node")
       }
+      idx += 1
     }
-    Some(Values.longArray(key))
+    true
   }
 }
+
+object NodeHashJoinPipe {
+  private val SPILL_PARTITIONS = 16
+  private val MAX_SPILL_LEVELS = 4
+}
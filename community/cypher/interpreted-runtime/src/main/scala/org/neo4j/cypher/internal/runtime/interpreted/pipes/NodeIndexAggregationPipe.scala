@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.cypher.internal.logical.plans.IndexAggregation
+import org.neo4j.cypher.internal.logical.plans.IndexCountDistinct
+import org.neo4j.cypher.internal.logical.plans.IndexMax
+import org.neo4j.cypher.internal.logical.plans.IndexMin
+import org.neo4j.cypher.internal.logical.plans.IndexOrderAscending
+import org.neo4j.cypher.internal.logical.plans.IndexOrderDescending
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.internal.kernel.api.NodeValueIndexCursor
+import org.neo4j.values.AnyValue
+import org.neo4j.values.AnyValues
+import org.neo4j.values.storable.PointValue
+import org.neo4j.values.storable.Values
+
+/**
+ * Computes an aggregation over the values of an index with a single property, see [[IndexAggregation]].
+ *
+ * The index orders values the same way as min and max do, except for lists, which sort before all other values but are grouped by
+ * type in the index, and points, which the index orders by coordinate reference system and space filling curve instead of by their
+ * coordinates. All lists and points at the start of the scan are therefore compared, and the scan stops at the first value that is
+ * neither a list nor a point.
+ *
+ * The index returns distinct values in order, so equal values are next to each other and are counted once.
+ */
+case class NodeIndexAggregationPipe(ident: String,
+                                    aggregation: IndexAggregation,
+                                    queryIndexId: Int)
+                                   (val id: Id = Id.INVALID_ID) extends Pipe {
+
+  protected def internalCreateResults(state: QueryState): ClosingIterator[CypherRow] = {
+    val index = state.queryIndexes(queryIndexId)
+    val result = aggregation match {
+      case IndexMin => extreme(state.query.indexScan(index, needsValues = true, IndexOrderAscending), _ > 0)
+      case IndexMax => extreme(state.query.indexScan(index, needsValues = true, IndexOrderDescending), _ < 0)
+      case IndexCountDistinct => countDistinct(state.query.indexScanDistinct(index, IndexOrderAscending))
+    }
+    val baseContext = state.newRowWithArgument(rowFactory)
+    ClosingIterator.single(rowFactory.copyWith(baseContext, ident, result))
+  }
+
+  private def extreme(cursor: NodeValueIndexCursor, keep: Int => Boolean): AnyValue = {
+    try {
+      var extreme: AnyValue = Values.NO_VALUE
+      var seenTotallyOrdered = false
+      while (!seenTotallyOrdered && cursor.next()) {
+        val value = cursor.propertyValue(0)
+        if ((extreme eq Values.NO_VALUE) || keep(AnyValues.COMPARATOR.compare(extreme, value))) {
+          extreme = value
+        }
+        seenTotallyOrdered = !value.isSequenceValue && !value.isInstanceOf[PointValue]
+      }
+      extreme
+    } finally {
+      cursor.close()
+    }
+  }
+
+  private def countDistinct(cursor: NodeValueIndexCursor): AnyValue = {
+    try {
+      var count = 0L
+      var previous: AnyValue = Values.NO_VALUE
+      while (cursor.next()) {
+        val value = cursor.propertyValue(0)
+        if ((previous eq Values.NO_VALUE) || AnyValues.COMPARATOR.compare(previous, value) != 0) {
+          count += 1
+          previous = value
+        }
+      }
+      Values.longValue(count)
+    } finally {
+      cursor.close()
+    }
+  }
+}
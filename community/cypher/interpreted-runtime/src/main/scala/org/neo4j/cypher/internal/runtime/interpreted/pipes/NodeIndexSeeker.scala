@@ -29,6 +29,7 @@ import org.neo4j.cypher.internal.logical.plans.IndexOrderNone
 import org.neo4j.cypher.internal.logical.plans.InequalitySeekRange
 import org.neo4j.cypher.internal.logical.plans.ManyQueryExpression
 import org.neo4j.cypher.internal.logical.plans.MinMaxOrdering
+import org.neo4j.cypher.internal.logical.plans.NearestNeighboursQueryExpression
 import org.neo4j.cypher.internal.logical.plans.QueryExpression
 import org.neo4j.cypher.internal.logical.plans.RangeBetween
 import org.neo4j.cypher.internal.logical.plans.RangeGreaterThan
@@ -117,6 +118,14 @@ trait NodeIndexSeeker {
         checkOnlyWhenAssertionsAreEnabled(propertyIds.length == 1)
         computeRangeQueries(state, row, rangeWrapper, propertyIds.head).map(Seq(_))
 
+      // Index seek for all points ordered by distance to the given point
+      case NearestNeighboursQueryExpression(expr) =>
+        checkOnlyWhenAssertionsAreEnabled(propertyIds.length == 1)
+        makeValueNeoSafe(expr(row, state)) match {
+          case point: PointValue => Seq(Seq(IndexQuery.nearestNeighbours(propertyIds.head, point)))
+          case _ => Nil
+        }
+
       // Index composite seek over all values
       case CompositeQueryExpression(exprs) =>
         // ex:   x in [1] AND y in ["a", "b"] AND z > 3.0 AND exists(p)
@@ -274,5 +283,8 @@ trait NodeIndexSeeker {
 
       case ExistenceQueryExpression() =>
         Seq(IndexQuery.exists(propertyId))
+
+      case NearestNeighboursQueryExpression(_) =>
+        throw new InternalException("A NearestNeighboursQueryExpression can't be nested in a CompositeQueryExpression")
     }
 }
@@ -0,0 +1,372 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Future
+import java.util.concurrent.atomic.AtomicBoolean
+
+import org.neo4j.cypher.internal.runtime.BoundedQueryMemoryTracker
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.ExpressionCursors
+import org.neo4j.cypher.internal.runtime.NoOpQueryMemoryTracker
+import org.neo4j.cypher.internal.runtime.QueryMemoryTracker
+import org.neo4j.cypher.internal.runtime.interpreted.TransactionalContextWrapper
+import org.neo4j.cypher.internal.runtime.interpreted.commands.compiled.CompiledExpression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.compiled.CompiledPredicate
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Add
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Avg
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.CachedNodeProperty
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Count
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.CountStar
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Divide
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.IdFunction
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Literal
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Max
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Min
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Modulo
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Multiply
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Null
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.ParameterFromSlot
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Pow
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Property
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Subtract
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Sum
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Variable
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.And
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Ands
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.CachedNodePropertyExists
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.CoercedPredicate
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Equals
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.GreaterThan
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.GreaterThanOrEqual
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.HasLabel
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.IsNull
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.LessThan
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.LessThanOrEqual
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Not
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Or
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Ors
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.PropertyExists
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.True
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Xor
+import org.neo4j.cypher.internal.runtime.interpreted.commands.values.KeyToken
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregationTableFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.MergeableAggregationTable
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.LazyLabel.UNKNOWN
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelAggregationPipe.AllNodes
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelAggregationPipe.BATCH_SIZE
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelAggregationPipe.MIN_NODES_PER_WORKER
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelAggregationPipe.NodeScan
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelAggregationPipe.NodesByLabel
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelAggregationPipe.ParallelScan
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelAggregationPipe.SynchronizedMemoryTracker
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.internal.kernel.api.Cursor
+import org.neo4j.internal.kernel.api.CursorFactory
+import org.neo4j.internal.kernel.api.NodeCursor
+import org.neo4j.internal.kernel.api.NodeLabelIndexCursor
+import org.neo4j.internal.kernel.api.Scan
+import org.neo4j.internal.kernel.api.TokenRead
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer
+import org.neo4j.kernel.api.Kernel
+import org.neo4j.kernel.api.KernelTransaction
+import org.neo4j.memory.MemoryTracker
+import org.neo4j.memory.ScopedMemoryTracker
+import org.neo4j.scheduler.Group
+import org.neo4j.scheduler.JobScheduler
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.VirtualValues
+
+/**
+ * Aggregates directly over a, possibly filtered, node scan by letting several workers reserve batches of a shared kernel [[Scan]].
+ * Each worker filters the nodes of its batches and aggregates them into a partial table of its own, and the partial tables
+ * are merged into a single table when the scan is exhausted.
+ *
+ * `source` is the equivalent plan of filters over a scan, which is aggregated on the calling thread, like [[EagerAggregationPipe]] does,
+ * whenever the scan is too small to be worth splitting, or the query can't be executed in parallel: when profiling,
+ * on the right hand side of an apply, or if the transaction has changes of its own.
+ *
+ * The workers share the kernel transaction, but only read through cursors of their own, allocated from the kernel's thread-safe
+ * cursor factory, like parallel scans do. This only holds for expressions that reach the kernel through the cursors of their
+ * [[QueryState]], which is why the pipe is only planned if all expressions are [[ParallelAggregationPipe.isParallelSafe]].
+ * Every worker has a query state of its own, without access to LOAD CSV resources, and charges the memory of its partial table
+ * to the memory tracker of this operator, so that it counts towards the memory limit of the transaction.
+ *
+ * @param tableFactory creates tables with only [[org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.MergeableAggregationFunction]]s
+ * @param scan         the scan at the bottom of `source`
+ * @param predicates   the predicates of the filters between `scan` and this pipe
+ * @param maxWorkers   maximum number of workers to scan with
+ */
+case class ParallelAggregationPipe(source: Pipe,
+                                   tableFactory: AggregationTableFactory,
+                                   scan: NodeScan,
+                                   predicates: Array[Expression],
+                                   maxWorkers: Int)
+                                  (val id: Id = Id.INVALID_ID)
+  extends AggregationPipe(source) {
+
+  protected def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
+    val table = tableFactory.table(state, rowFactory, id).asInstanceOf[MergeableAggregationTable]
+    table.clear()
+    parallelScan(state) match {
+      case Some(parallelScan) =>
+        aggregateInParallel(state, parallelScan).foreach(table.merge)
+      case None =>
+        while (input.hasNext) {
+          table.processRow(input.next())
+        }
+    }
+    table.result()
+  }
+
+  private def parallelScan(state: QueryState): Option[ParallelScan] =
+    TransactionalContextWrapper.unwrap(state.query.transactionalContext) match {
+      case Some(tc)
+        if maxWorkers > 1 && (state.decorator eq NullPipeDecorator) && state.initialContext.isEmpty &&
+          !tc.dataRead.transactionStateHasChanges =>
+        val labelId = scan match {
+          case AllNodes(_) => TokenRead.ANY_LABEL
+          case NodesByLabel(_, label) => label.getId(state.query)
+        }
+        val workers = numberOfWorkers(tc.kernelTransaction, labelId)
+        if (labelId == UNKNOWN && scan.isInstanceOf[NodesByLabel] || workers < 2) {
+          None
+        } else {
+          val dependencies = tc.graph.getDependencyResolver
+          Some(ParallelScan(tc.kernelTransaction, labelId, workers, dependencies.resolveDependency(classOf[Kernel]).cursors(),
+            dependencies.resolveDependency(classOf[JobScheduler])))
+        }
+      case _ =>
+        None
+    }
+
+  private def numberOfWorkers(transaction: KernelTransaction, labelId: Int): Int = {
+    if (transaction.securityContext().mode().allowsTraverseAllLabels()) {
+      val nodes = transaction.dataRead().countsForNodeWithoutTxState(labelId)
+      math.min(maxWorkers, nodes / MIN_NODES_PER_WORKER).toInt
+    } else {
+      // Counting would mean scanning, so assume the scan is large enough
+      maxWorkers
+    }
+  }
+
+  private def aggregateInParallel(state: QueryState, parallelScan: ParallelScan): Seq[MergeableAggregationTable] = {
+    val ParallelScan(transaction, labelId, workers, cursors, jobScheduler) = parallelScan
+    val read = transaction.dataRead()
+    val tasks = scan match {
+      case AllNodes(ident) =>
+        val nodeScan = read.allNodesScan()
+        (0 until workers).map(_ =>
+          new ScanTask[NodeCursor](state, ident, nodeScan, cursors.allocateNodeCursor(PageCursorTracer.NULL), _.nodeReference(), transaction, cursors))
+      case NodesByLabel(ident, _) =>
+        val labelScan = read.nodeLabelScan(labelId)
+        (0 until workers).map(_ =>
+          new ScanTask[NodeLabelIndexCursor](state, ident, labelScan, cursors.allocateNodeLabelIndexCursor(PageCursorTracer.NULL), _.nodeReference(),
+            transaction, cursors))
+    }
+    val executor = jobScheduler.executor(Group.CYPHER_WORKER)
+    val futures = tasks.map(task => executor.submit(task))
+    var failure: Throwable = null
+    var collected = false
+    try {
+      val partialTables = futures.flatMap { future =>
+        try {
+          Some(future.get())
+        } catch {
+          case e: ExecutionException =>
+            // Make the other workers stop at their next batch, but let them finish before failing
+            tasks.foreach(_.stop())
+            if (failure == null) {
+              failure = e.getCause
+            }
+            None
+        }
+      }
+      collected = true
+      if (failure != null) {
+        throw failure
+      }
+      partialTables
+    } finally {
+      if (!collected) {
+        // Interrupted while waiting, no worker may still use the transaction once the query fails
+        tasks.zip(futures).foreach { case (task, future) => task.cancel(future) }
+      }
+    }
+  }
+
+  /**
+   * Filters and aggregates the nodes of the batches it reserves, until the scan is exhausted.
+   * Created on the calling thread, since opening the partial table registers it with the resources of the query.
+   */
+  private class ScanTask[CURSOR <: Cursor](state: QueryState,
+                                           ident: String,
+                                           scan: Scan[CURSOR],
+                                           cursor: CURSOR,
+                                           nodeReference: CURSOR => Long,
+                                           transaction: KernelTransaction,
+                                           cursors: CursorFactory) extends Callable[MergeableAggregationTable] {
+    private val memoryTracker: QueryMemoryTracker =
+      if (state.memoryTracker.isEnabled) BoundedQueryMemoryTracker(new SynchronizedMemoryTracker(state.memoryTracker.memoryTrackerForOperator(id.x)))
+      else NoOpQueryMemoryTracker
+    private val workerState = new QueryState(state.query, ExternalCSVResource.empty, state.params,
+      new ExpressionCursors(cursors, PageCursorTracer.NULL, memoryTracker.memoryTrackerForOperator(id.x)), state.queryIndexes,
+      new Array[AnyValue](state.expressionVariables.length), state.subscriber, memoryTracker, lenientCreateRelationship = state.lenientCreateRelationship)
+    private val table = tableFactory.table(workerState, rowFactory, id).asInstanceOf[MergeableAggregationTable]
+    table.clear()
+    @volatile private var stopped = false
+    private val started = new AtomicBoolean()
+    private val finished = new CountDownLatch(1)
+
+    def stop(): Unit = stopped = true
+
+    /**
+     * Stops the task and waits, uninterruptibly, until it has finished. A task that hasn't started yet never will, and its
+     * resources are released right away.
+     */
+    def cancel(future: Future[MergeableAggregationTable]): Unit = {
+      stop()
+      future.cancel(false)
+      if (started.compareAndSet(false, true)) {
+        cursor.close()
+        workerState.close()
+      } else {
+        var interrupted = false
+        while (finished.getCount > 0) {
+          try {
+            finished.await()
+          } catch {
+            case _: InterruptedException => interrupted = true
+          }
+        }
+        if (interrupted) {
+          Thread.currentThread().interrupt()
+        }
+      }
+    }
+
+    override def call(): MergeableAggregationTable = {
+      if (!started.compareAndSet(false, true)) {
+        // Cancelled before it started
+        return table
+      }
+      try {
+        while (!stopped && scan.reserveBatch(cursor, BATCH_SIZE)) {
+          transaction.assertOpen()
+          while (cursor.next()) {
+            val row = rowFactory.newRow()
+            row.set(ident, VirtualValues.node(nodeReference(cursor)))
+            if (isMatch(row)) {
+              table.processRow(row)
+            }
+          }
+        }
+        table
+      } finally {
+        cursor.close()
+        workerState.close()
+        finished.countDown()
+      }
+    }
+
+    private def isMatch(row: CypherRow): Boolean = {
+      var i = 0
+      while (i < predicates.length) {
+        if (!(predicates(i)(row, workerState) eq Values.TRUE)) {
+          return false
+        }
+        i += 1
+      }
+      true
+    }
+  }
+}
+
+object ParallelAggregationPipe {
+
+  /**
+   * Number of nodes a worker asks the scan for at a time.
+   */
+  val BATCH_SIZE = 1024
+
+  /**
+   * A worker is only started for every this many nodes in the scan, according to the counts store.
+   */
+  val MIN_NODES_PER_WORKER = 8192L
+
+  private case class ParallelScan(transaction: KernelTransaction, labelId: Int, workers: Int, cursors: CursorFactory, jobScheduler: JobScheduler)
+
+  /**
+   * Whether `expression` can be evaluated by several workers at the same time. That is the case if it only reaches the kernel
+   * through the cursors of the [[QueryState]] it is evaluated with, and keeps no state of its own but in the row.
+   * Anything not known to be safe, like functions, nested plans or relationship and path expressions, is not.
+   */
+  def isParallelSafe(expression: Expression): Boolean = !expression.exists(!isParallelSafeOperation(_))
+
+  private def isParallelSafeOperation(expression: Expression): Boolean = expression match {
+    case _: Variable | _: Literal | _: Null | _: ParameterFromSlot | _: KeyToken.Resolved |
+         _: Property | _: CachedNodeProperty | _: IdFunction |
+         _: Add | _: Subtract | _: Multiply | _: Divide | _: Modulo | _: Pow |
+         _: CountStar | _: Count | _: Sum | _: Min | _: Max | _: Avg |
+         _: Not | _: And | _: Ands | _: Or | _: Ors | _: Xor | _: True | _: CoercedPredicate | _: IsNull |
+         _: Equals | _: LessThan | _: LessThanOrEqual | _: GreaterThan | _: GreaterThanOrEqual |
+         _: HasLabel | _: PropertyExists | _: CachedNodePropertyExists |
+         _: CompiledExpression | _: CompiledPredicate => true
+    case _ => false
+  }
+
+  /**
+   * Lets the workers charge their allocations to the memory tracker of the operator, which is not thread-safe itself.
+   */
+  private class SynchronizedMemoryTracker(delegate: MemoryTracker) extends MemoryTracker {
+    override def usedNativeMemory(): Long = delegate.synchronized(delegate.usedNativeMemory())
+
+    override def estimatedHeapMemory(): Long = delegate.synchronized(delegate.estimatedHeapMemory())
+
+    override def allocateNative(bytes: Long): Unit = delegate.synchronized(delegate.allocateNative(bytes))
+
+    override def releaseNative(bytes: Long): Unit = delegate.synchronized(delegate.releaseNative(bytes))
+
+    override def allocateHeap(bytes: Long): Unit = delegate.synchronized(delegate.allocateHeap(bytes))
+
+    override def releaseHeap(bytes: Long): Unit = delegate.synchronized(delegate.releaseHeap(bytes))
+
+    override def heapHighWaterMark(): Long = delegate.synchronized(delegate.heapHighWaterMark())
+
+    // Resetting is left to the owner of the delegate, the partial tables release what they allocated when they are merged or closed
+    override def reset(): Unit = ()
+
+    override def getScopedMemoryTracker: MemoryTracker = new ScopedMemoryTracker(this)
+  }
+
+  sealed trait NodeScan {
+    def ident: String
+  }
+
+  case class AllNodes(ident: String) extends NodeScan
+
+  case class NodesByLabel(ident: String, label: LazyLabel) extends NodeScan
+}
@@ -19,6 +19,7 @@
  */
 package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
+import org.neo4j.cypher.internal.runtime.ArrayCypherRow
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.ExpressionCursors
 import org.neo4j.cypher.internal.runtime.InputDataStream
@@ -28,6 +29,7 @@ import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.QueryMemoryTracker
 import org.neo4j.cypher.internal.runtime.QueryStatistics
 import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.RowSlots
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.PathValueBuilder
 import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.InCheckContainer
 import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.SingleThreadedLRUCache
@@ -163,3 +165,43 @@ case class CommunityCypherRowFactory() extends CypherRowFactory {
       context.copyWith(key1, value1, key2, value2, key3, value3)
   }
 }
+
+/**
+ * Creates [[ArrayCypherRow]]s with variables at the offsets given by `slots`.
+ */
+case class ArrayCypherRowFactory(slots: RowSlots) extends CypherRowFactory {
+
+  override def newRow(): CypherRow = ArrayCypherRow.empty(slots)
+
+  override def copyArgumentOf(row: ReadableRow): CypherRow = copyWith(row)
+
+  // Not using polymorphism here, instead cast since the cost of being megamorhpic is too high
+  override def copyWith(row: ReadableRow): CypherRow = row match {
+    case context: ArrayCypherRow =>
+      context.createClone()
+  }
+
+  // Not using polymorphism here, instead cast since the cost of being megamorhpic is too high
+  override def copyWith(row: ReadableRow, newEntries: Seq[(String, AnyValue)]): CypherRow = row match {
+    case context: ArrayCypherRow =>
+      context.copyWith(newEntries)
+  }
+
+  // Not using polymorphism here, instead cast since the cost of being megamorhpic is too high
+  override def copyWith(row: ReadableRow, key: String, value: AnyValue): CypherRow = row match {
+    case context: ArrayCypherRow =>
+      context.copyWith(key, value)
+  }
+
+  // Not using polymorphism here, instead cast since the cost of being megamorhpic is too high
+  override def copyWith(row: ReadableRow, key1: String, value1: AnyValue, key2: String, value2: AnyValue): CypherRow = row match {
+    case context: ArrayCypherRow =>
+      context.copyWith(key1, value1, key2, value2)
+  }
+
+  // Not using polymorphism here, instead cast since the cost of being megamorhpic is too high
+  override def copyWith(row: ReadableRow, key1: String, value1: AnyValue, key2: String, value2: AnyValue, key3: String, value3: AnyValue): CypherRow = row match {
+    case context: ArrayCypherRow =>
+      context.copyWith(key1, value1, key2, value2, key3, value3)
+  }
+}
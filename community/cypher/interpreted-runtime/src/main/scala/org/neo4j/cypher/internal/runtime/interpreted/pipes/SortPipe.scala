@@ -20,33 +20,160 @@
 package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
 import java.util.Comparator
+import java.util.PriorityQueue
 
 import org.neo4j.collection.trackable.HeapTrackingArrayList
 import org.neo4j.cypher.internal.runtime.ClosingIterator
 import org.neo4j.cypher.internal.runtime.ClosingIterator.DelegatingClosingIterator
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.SortPipe.MAX_MERGE_FAN_IN
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillFile
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillSpace
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.Spilling
 import org.neo4j.cypher.internal.util.attribution.Id
 
 import scala.collection.JavaConverters.asScalaIteratorConverter
+import scala.collection.mutable.ArrayBuffer
 
-case class SortPipe(source: Pipe, comparator: Comparator[ReadableRow])
+/**
+ * Sorts all rows in heap, unless they grow larger than allowed by `spilling`. In that case every time the buffered rows reach
+ * the threshold they are sorted and written to disk as a sorted run, and the runs are finally merged with the rows that are
+ * still in heap. At most [[SortPipe.MAX_MERGE_FAN_IN]] runs are read at the same time, so if there are more runs than that they
+ * are first merged into fewer, longer runs.
+ */
+case class SortPipe(source: Pipe, comparator: Comparator[ReadableRow], spilling: Spilling = Spilling.DISABLED)
                    (val id: Id = Id.INVALID_ID)
   extends PipeWithSource(source) {
 
   protected def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
     val scopedMemoryTracker = state.memoryTracker.memoryTrackerForOperator(id.x).getScopedMemoryTracker
     var arrayList: HeapTrackingArrayList[CypherRow] = HeapTrackingArrayList.newArrayList(256, scopedMemoryTracker)
+    var canSpill = spilling.enabled
+    var spillSpace: SpillSpace = null
+    val runs = new ArrayBuffer[SpillFile]()
     while (input.hasNext) {
       val row = input.next()
       scopedMemoryTracker.allocateHeap(row.estimatedHeapUsage())
       arrayList.add(row)
+      if (canSpill && scopedMemoryTracker.estimatedHeapMemory() > spilling.threshold) {
+        if (spillSpace == null) {
+          spillSpace = spilling.open(state, rowFactory, id).orNull
+          canSpill = spillSpace != null
+        }
+        if (canSpill) {
+          runs += spillRun(arrayList, spillSpace)
+          arrayList.close()
+          scopedMemoryTracker.reset()
+          arrayList = HeapTrackingArrayList.newArrayList(256, scopedMemoryTracker)
+        }
+      }
     }
     arrayList.sort(comparator)
-    new DelegatingClosingIterator[CypherRow](arrayList.iterator().asScala) {
-      override def closeMore(): Unit = {
-        arrayList = null
-        scopedMemoryTracker.close()
+    if (runs.isEmpty) {
+      new DelegatingClosingIterator[CypherRow](arrayList.iterator().asScala) {
+        override def closeMore(): Unit = {
+          arrayList = null
+          scopedMemoryTracker.close()
+        }
+      }
+    } else {
+      val inHeap = new DelegatingClosingIterator[CypherRow](arrayList.iterator().asScala) {
+        override def closeMore(): Unit = {
+          arrayList = null
+        }
+      }
+      SortPipe.merge(runs, inHeap, comparator, spillSpace, MAX_MERGE_FAN_IN).closing(scopedMemoryTracker).closing(spillSpace)
+    }
+  }
+
+  private def spillRun(rows: HeapTrackingArrayList[CypherRow], spillSpace: SpillSpace): SpillFile = {
+    rows.sort(comparator)
+    val run = spillSpace.newFile()
+    val iterator = rows.iterator()
+    while (iterator.hasNext) {
+      run.write(iterator.next())
+    }
+    run.finishWriting()
+    run
+  }
+}
+
+object SortPipe {
+
+  /**
+   * The largest number of runs that are read at the same time. Each of them holds a read buffer.
+   */
+  val MAX_MERGE_FAN_IN = 64
+
+  /**
+   * Merges sorted runs, and finally the rows that are still in heap, which sort after all runs. As long as there are too many runs to
+   * merge them and the rows in heap with a fan-in of at most `fanIn`, consecutive runs are merged into new runs, which keeps the sort stable.
+   */
+  private[pipes] def merge(runs: Seq[SpillFile],
+                           inHeap: ClosingIterator[CypherRow],
+                           comparator: Comparator[ReadableRow],
+                           spillSpace: SpillSpace,
+                           fanIn: Int): ClosingIterator[CypherRow] = {
+    var remaining = runs
+    while (remaining.size >= fanIn) {
+      remaining = remaining.grouped(fanIn).map(group => if (group.size == 1) group.head else mergeIntoRun(group, comparator, spillSpace)).toVector
+    }
+    new MergingIterator(remaining.map(_.read()) :+ inHeap, comparator)
+  }
+
+  private def mergeIntoRun(runs: Seq[SpillFile], comparator: Comparator[ReadableRow], spillSpace: SpillSpace): SpillFile = {
+    val merged = spillSpace.newFile()
+    val rows = new MergingIterator(runs.map(_.read()), comparator)
+    try {
+      while (rows.hasNext) {
+        merged.write(rows.next())
+      }
+    } finally {
+      rows.close()
+    }
+    merged.finishWriting()
+    merged
+  }
+
+  /**
+   * Merges sorted runs into a single sorted iterator. Equal rows are returned in the order of the runs they come from, which keeps
+   * the sort stable as long as the runs are given in input order.
+   */
+  private class MergingIterator(runs: Seq[ClosingIterator[CypherRow]],
+                                comparator: Comparator[ReadableRow]) extends ClosingIterator[CypherRow] {
+
+    private val heads = new PriorityQueue[Head](runs.size)
+
+    runs.indices.foreach(i => advance(new Head(i)))
+
+    override protected[this] def innerHasNext: Boolean = !heads.isEmpty
+
+    override def next(): CypherRow = {
+      val head = heads.poll()
+      val row = head.row
+      advance(head)
+      row
+    }
+
+    override protected[this] def closeMore(): Unit = {
+      runs.foreach(_.close())
+    }
+
+    private def advance(head: Head): Unit = {
+      val run = runs(head.run)
+      if (run.hasNext) {
+        head.row = run.next()
+        heads.add(head)
+      }
+    }
+
+    private class Head(val run: Int) extends Comparable[Head] {
+      var row: CypherRow = _
+
+      override def compareTo(other: Head): Int = {
+        val result = comparator.compare(row, other.row)
+        if (result != 0) result else Integer.compare(run, other.run)
       }
     }
   }
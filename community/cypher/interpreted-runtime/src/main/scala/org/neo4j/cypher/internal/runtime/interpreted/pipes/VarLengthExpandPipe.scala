@@ -19,21 +19,28 @@
  */
 package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
+import org.neo4j.collection.trackable.HeapTrackingCollections
 import org.neo4j.cypher.internal.expressions.SemanticDirection
 import org.neo4j.cypher.internal.runtime.ClosingIterator
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.IsNoValue
-import org.neo4j.cypher.internal.runtime.RelationshipContainer
 import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.VarLengthExpandPipe.INITIAL_CAPACITY
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.VarLengthExpandPipe.projectBackwards
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.VarLengthExpandPipe.sizeOfIntArray
 import org.neo4j.cypher.internal.util.attribution.Id
 import org.neo4j.exceptions.InternalException
+import org.neo4j.memory.HeapEstimator.ARRAY_HEADER_BYTES
+import org.neo4j.memory.HeapEstimator.alignObjectSize
+import org.neo4j.memory.HeapEstimator.shallowSizeOfObjectArray
+import org.neo4j.memory.MemoryTracker
+import org.neo4j.values.AnyValue
+import org.neo4j.values.virtual.ListValue
 import org.neo4j.values.virtual.NodeReference
 import org.neo4j.values.virtual.NodeValue
 import org.neo4j.values.virtual.RelationshipValue
 import org.neo4j.values.virtual.VirtualNodeValue
-
-import scala.collection.mutable
+import org.neo4j.values.virtual.VirtualValues
 
 trait VarLengthPredicate {
   def filterNode(row: CypherRow, state:QueryState)(node: NodeValue): Boolean
@@ -62,50 +69,14 @@ case class VarLengthExpandPipe(source: Pipe,
                                filteringStep: VarLengthPredicate = VarLengthPredicate.NONE)
                               (val id: Id = Id.INVALID_ID) extends PipeWithSource(source) {
 
-  private def varLengthExpand(node: NodeValue, state: QueryState, maxDepth: Option[Int],
-                              row: CypherRow): Iterator[(NodeValue, RelationshipContainer)] = {
-    val stack = new mutable.ArrayStack[(NodeValue, RelationshipContainer)]
-    stack.push((node, RelationshipContainer.EMPTY))
-
-    new Iterator[(NodeValue, RelationshipContainer)] {
-      def next(): (NodeValue, RelationshipContainer) = {
-        val (node, rels) = stack.pop()
-        if (rels.size < maxDepth.getOrElse(Int.MaxValue) && filteringStep.filterNode(row, state)(node)) {
-          val relationships = state.query.getRelationshipsForIds(node.id(), dir, types.types(state.query))
-
-          val relationshipValues = relationships.filter(filteringStep.filterRelationship(row, state))
-          // relationships get immediately exhausted. Therefore we do not need a ClosingIterator here.
-          while (relationshipValues.hasNext) {
-            val rel = relationshipValues.next()
-            val otherNode = rel.otherNode(node)
-            if (!rels.contains(rel) && filteringStep.filterNode(row,state)(otherNode)) {
-              stack.push((otherNode, rels.append(rel)))
-            }
-          }
-        }
-        val projectedRels =
-          if (projectBackwards(dir, projectedDir)) {
-            rels.reverse
-          } else {
-            rels
-          }
-        (node, projectedRels)
-      }
-
-      def hasNext: Boolean = stack.nonEmpty
-    }
-  }
-
   protected def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
-    def expand(row: CypherRow, n: NodeValue): Iterator[CypherRow] = {
+    val traversal = new PathTraversal(state, state.memoryTracker.memoryTrackerForOperator(id.x).getScopedMemoryTracker)
+
+    def expand(row: CypherRow, n: NodeValue): ClosingIterator[CypherRow] = {
       if (filteringStep.filterNode(row, state)(n)) {
-        val paths = varLengthExpand(n, state, max, row)
-        paths.collect {
-          case (node, rels) if rels.size >= min && isToNodeValid(row, node) =>
-            rowFactory.copyWith(row, relName, rels.asList, toName, node)
-        }
+        traversal.paths(row, n)
       } else {
-        Iterator.empty
+        ClosingIterator.empty
       }
     }
 
@@ -119,10 +90,170 @@ case class VarLengthExpandPipe(source: Pipe,
             val node = state.query.nodeOps.getById(nodeRef.id)
             expand(row, node)
 
-          case IsNoValue() => Iterator.empty
+          case IsNoValue() => ClosingIterator.empty
           case value => throw new InternalException(s"Expected to find a node at '$fromName' but found $value instead")
         }
       }
+    }.closing(traversal)
+  }
+
+  /**
+   * Depth first traversal of all paths from a start node, reused for every input row. Paths are visited in the same order as
+   * a stack of partial paths would visit them, but each entry on the stack only holds the last relationship and node of its path,
+   * and the relationships of the path that is being visited are kept in an array. The relationships of a node are read and closed
+   * as soon as the node is visited, so no cursor stays open between rows. Relationship uniqueness is checked against a primitive
+   * set of the relationships of the visited path, and lists of relationships are only created for the paths that are emitted.
+   */
+  private class PathTraversal(state: QueryState, memoryTracker: MemoryTracker) extends AutoCloseable {
+    private val maxDepth = max.getOrElse(Int.MaxValue)
+    private val backwards = projectBackwards(dir, projectedDir)
+    private val relationshipsInPath = HeapTrackingCollections.newLongSet(memoryTracker)
+    private var path: Array[RelationshipValue] = _
+    private var depth = 0
+    private var stackRelationships: Array[RelationshipValue] = _
+    private var stackNodes: Array[NodeValue] = _
+    private var stackDepths: Array[Int] = _
+    private var stackSize = 0
+    private var row: CypherRow = _
+
+    growPath(INITIAL_CAPACITY)
+    growStack(INITIAL_CAPACITY)
+
+    def paths(row: CypherRow, start: NodeValue): ClosingIterator[CypherRow] = {
+      this.row = row
+      push(null, start, 0)
+      new ClosingIterator[CypherRow] {
+        private var nextRow: CypherRow = _
+
+        override protected[this] def innerHasNext: Boolean = {
+          while (nextRow == null && stackSize > 0) {
+            nextRow = visitNext()
+          }
+          nextRow != null
+        }
+
+        override def next(): CypherRow = {
+          if (!hasNext) {
+            Iterator.empty.next()
+          }
+          val current = nextRow
+          nextRow = null
+          current
+        }
+
+        override protected[this] def closeMore(): Unit = clear()
+      }
+    }
+
+    override def close(): Unit = {
+      clear()
+      memoryTracker.close()
+    }
+
+    /**
+     * Pops the next path off the stack, pushes the paths that extend it by one relationship, and creates the row of the path.
+     *
+     * @return the row of the path, or null if the path is too short or does not end in the node in scope.
+     */
+    private def visitNext(): CypherRow = {
+      stackSize -= 1
+      val relationship = stackRelationships(stackSize)
+      val node = stackNodes(stackSize)
+      val nodeDepth = stackDepths(stackSize)
+      stackRelationships(stackSize) = null
+      stackNodes(stackSize) = null
+
+      truncatePath(nodeDepth - 1)
+      if (relationship != null) {
+        if (depth >= path.length) {
+          growPath(path.length * 2)
+        }
+        path(depth) = relationship
+        relationshipsInPath.add(relationship.id())
+        depth += 1
+      }
+
+      if (depth < maxDepth && filteringStep.filterNode(row, state)(node)) {
+        expand(node)
+      }
+      if (depth >= min && isToNodeValid(row, node)) {
+        rowFactory.copyWith(row, relName, relationshipList(), toName, node)
+      } else {
+        null
+      }
+    }
+
+    private def expand(node: NodeValue): Unit = {
+      val relationships = state.query.getRelationshipsForIds(node.id(), dir, types.types(state.query))
+      try {
+        while (relationships.hasNext) {
+          val rel = relationships.next()
+          if (filteringStep.filterRelationship(row, state)(rel) && !relationshipsInPath.contains(rel.id())) {
+            val otherNode = rel.otherNode(node)
+            if (filteringStep.filterNode(row, state)(otherNode)) {
+              push(rel, otherNode, depth + 1)
+            }
+          }
+        }
+      } finally {
+        relationships.close()
+      }
+    }
+
+    private def push(rel: RelationshipValue, node: NodeValue, nodeDepth: Int): Unit = {
+      if (stackSize >= stackNodes.length) {
+        growStack(stackNodes.length * 2)
+      }
+      stackRelationships(stackSize) = rel
+      stackNodes(stackSize) = node
+      stackDepths(stackSize) = nodeDepth
+      stackSize += 1
+    }
+
+    private def truncatePath(newDepth: Int): Unit = {
+      while (depth > newDepth && depth > 0) {
+        depth -= 1
+        relationshipsInPath.remove(path(depth).id())
+        path(depth) = null
+      }
+    }
+
+    private def clear(): Unit = {
+      truncatePath(0)
+      while (stackSize > 0) {
+        stackSize -= 1
+        stackRelationships(stackSize) = null
+        stackNodes(stackSize) = null
+      }
+      row = null
+    }
+
+    private def relationshipList(): ListValue = {
+      val values = new Array[AnyValue](depth)
+      var i = 0
+      while (i < depth) {
+        values(i) = if (backwards) path(depth - 1 - i) else path(i)
+        i += 1
+      }
+      VirtualValues.list(values: _*)
+    }
+
+    private def growPath(newCapacity: Int): Unit = {
+      memoryTracker.allocateHeap(shallowSizeOfObjectArray(newCapacity))
+      if (path != null) {
+        memoryTracker.releaseHeap(shallowSizeOfObjectArray(path.length))
+      }
+      path = if (path == null) new Array[RelationshipValue](newCapacity) else java.util.Arrays.copyOf(path, newCapacity)
+    }
+
+    private def growStack(newCapacity: Int): Unit = {
+      memoryTracker.allocateHeap(2 * shallowSizeOfObjectArray(newCapacity) + sizeOfIntArray(newCapacity))
+      if (stackNodes != null) {
+        memoryTracker.releaseHeap(2 * shallowSizeOfObjectArray(stackNodes.length) + sizeOfIntArray(stackNodes.length))
+      }
+      stackRelationships = if (stackRelationships == null) new Array[RelationshipValue](newCapacity) else java.util.Arrays.copyOf(stackRelationships, newCapacity)
+      stackNodes = if (stackNodes == null) new Array[NodeValue](newCapacity) else java.util.Arrays.copyOf(stackNodes, newCapacity)
+      stackDepths = if (stackDepths == null) new Array[Int](newCapacity) else java.util.Arrays.copyOf(stackDepths, newCapacity)
     }
   }
 
@@ -138,6 +269,10 @@ case class VarLengthExpandPipe(source: Pipe,
   }
 
 object VarLengthExpandPipe {
+  private val INITIAL_CAPACITY = 8
+
+  private def sizeOfIntArray(size: Int): Long = alignObjectSize(ARRAY_HEADER_BYTES + Integer.BYTES.toLong * size)
+
   def projectBackwards(dir: SemanticDirection, projectedDir: SemanticDirection): Boolean =
     if (dir == SemanticDirection.BOTH) {
       projectedDir == SemanticDirection.INCOMING
@@ -40,3 +40,13 @@ abstract class AggregationFunction {
   def result(state: QueryState): AnyValue
 }
 
+/**
+ * An aggregation function which can take over what another instance of the same function has aggregated,
+ * so that rows can be aggregated in several partial functions and combined at the end.
+ */
+trait MergeableAggregationFunction extends AggregationFunction {
+  /**
+   * Adds everything `other` has aggregated to the aggregated total. `other` must be of the same class as this function.
+   */
+  def merge(other: AggregationFunction, state: QueryState): Unit
+}
@@ -39,6 +39,7 @@ import org.neo4j.values.utils.ValueMath.overflowSafeAdd
  */
 class AvgFunction(val value: Expression)
   extends AggregationFunction
+  with MergeableAggregationFunction
   with NumericOrDurationAggregationExpression {
 
   def name = "AVG"
@@ -84,5 +85,29 @@ class AvgFunction(val value: Expression)
 
   }
 
+  /**
+   * Combines the two running averages, weighted by the number of values each of them has seen.
+   */
+  override def merge(other: AggregationFunction, state: QueryState): Unit = {
+    val that = other.asInstanceOf[AvgFunction]
+    if (that.count > 0) {
+      actOnNumberOrDuration(that.result(state),
+        _ => {
+          count += that.count
+          val weight = that.count.toDouble / count
+          sumNumber = overflowSafeAdd(sumNumber, that.sumNumber.minus(sumNumber).times(weight))
+        },
+        _ => {
+          count += that.count
+          val weight = that.count.toDouble / count
+          monthsRunningAvg += (that.monthsRunningAvg - monthsRunningAvg) * weight
+          daysRunningAvg += (that.daysRunningAvg - daysRunningAvg) * weight
+          secondsRunningAvg += (that.secondsRunningAvg - secondsRunningAvg) * weight
+          nanosRunningAvg += (that.nanosRunningAvg - nanosRunningAvg) * weight
+        }
+      )
+    }
+  }
+
   def aggregatedRowCount: Long = count
 }
@@ -24,13 +24,16 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
 import org.neo4j.values.AnyValue
 import org.neo4j.values.storable.Values
 
-class CountStarFunction extends AggregationFunction {
+class CountStarFunction extends AggregationFunction with MergeableAggregationFunction {
   var count:Long = 0
 
   override def apply(data: ReadableRow, state: QueryState) {
     count += 1
   }
 
+  override def merge(other: AggregationFunction, state: QueryState): Unit =
+    count += other.asInstanceOf[CountStarFunction].count
+
   override def result(state: QueryState): AnyValue = Values.longValue(count)
 }
 
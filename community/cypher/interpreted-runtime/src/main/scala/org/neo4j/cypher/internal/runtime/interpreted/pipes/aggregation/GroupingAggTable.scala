@@ -26,6 +26,8 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregatingCol
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregationTable
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregationTableFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.MergeableAggregationTable
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.SpillableAggregationTable
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.computeNewAggregatorsFunction
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe.GroupingCol
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.CypherRowFactory
@@ -47,9 +49,9 @@ class GroupingAggTable(groupingColumns: Array[GroupingCol],
                        aggregations: Array[AggregatingCol],
                        state: QueryState,
                        rowFactory: CypherRowFactory,
-                       operatorId: Id) extends AggregationTable {
+                       operatorId: Id) extends MergeableAggregationTable with SpillableAggregationTable {
 
-  private[this] var resultMap: HeapTrackingOrderedAppendMap[AnyValue, Array[AggregationFunction]] = _
+  private var resultMap: HeapTrackingOrderedAppendMap[AnyValue, Array[AggregationFunction]] = _
   private[this] val addKeys: (CypherRow, AnyValue) => Unit = AggregationPipe.computeAddKeysToResultRowFunction(groupingColumns)
   private[this] val memoryTracker = state.memoryTracker.memoryTrackerForOperator(operatorId.x)
   private[this] val newAggregators: Function2[AnyValue, MemoryTracker, Array[AggregationFunction]] =
@@ -70,6 +72,26 @@ class GroupingAggTable(groupingColumns: Array[GroupingCol],
   override def processRow(row: CypherRow): Unit = {
     val groupingValue: AnyValue = groupingFunction(row, state)
     val aggregationFunctions = resultMap.getIfAbsentPutWithMemoryTracker2(groupingValue, newAggregators)
+    aggregate(aggregationFunctions, row)
+  }
+
+  override def estimatedHeapUsage: Long = resultMap.scopedMemoryTracker().estimatedHeapMemory()
+
+  override def groupingKey(row: CypherRow): AnyValue = groupingFunction(row, state)
+
+  override def processRow(row: CypherRow, groupingKey: AnyValue, createGroup: Boolean): Boolean = {
+    val aggregationFunctions =
+      if (createGroup) resultMap.getIfAbsentPutWithMemoryTracker2(groupingKey, newAggregators)
+      else resultMap.get(groupingKey)
+    if (aggregationFunctions == null) {
+      false
+    } else {
+      aggregate(aggregationFunctions, row)
+      true
+    }
+  }
+
+  private def aggregate(aggregationFunctions: Array[AggregationFunction], row: CypherRow): Unit = {
     var i = 0
     while (i < aggregationFunctions.length) {
       aggregationFunctions(i)(row, state)
@@ -77,6 +99,20 @@ class GroupingAggTable(groupingColumns: Array[GroupingCol],
     }
   }
 
+  override def merge(other: MergeableAggregationTable): Unit = {
+    val otherEntries = other.asInstanceOf[GroupingAggTable].resultMap.autoClosingEntryIterator()
+    while (otherEntries.hasNext) {
+      val entry = otherEntries.next()
+      val aggregationFunctions = resultMap.getIfAbsentPutWithMemoryTracker2(entry.getKey, newAggregators)
+      val otherFunctions = entry.getValue
+      var i = 0
+      while (i < aggregationFunctions.length) {
+        aggregationFunctions(i).asInstanceOf[MergeableAggregationFunction].merge(otherFunctions(i), state)
+        i += 1
+      }
+    }
+  }
+
   override def result(): ClosingIterator[CypherRow] = {
     val innerIterator = resultMap.autoClosingEntryIterator()
     new ClosingIterator[CypherRow] {
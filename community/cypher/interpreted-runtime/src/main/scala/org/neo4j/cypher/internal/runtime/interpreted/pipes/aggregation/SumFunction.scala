@@ -28,6 +28,7 @@ import org.neo4j.values.utils.ValueMath.overflowSafeAdd
 
 class SumFunction(val value: Expression)
   extends AggregationFunction
+  with MergeableAggregationFunction
   with NumericOrDurationAggregationExpression {
 
   def name = "SUM"
@@ -44,7 +45,17 @@ class SumFunction(val value: Expression)
   }
 
   override def apply(data: ReadableRow, state: QueryState) {
-    val vl = value(data, state)
+    add(value(data, state))
+  }
+
+  override def merge(other: AggregationFunction, state: QueryState): Unit = {
+    val that = other.asInstanceOf[SumFunction]
+    if (that.aggregatingType.isDefined) {
+      add(that.result(state))
+    }
+  }
+
+  private def add(vl: AnyValue): Unit = {
     actOnNumberOrDuration(vl,
       number => {
         sumNumber = overflowSafeAdd(sumNumber, number)
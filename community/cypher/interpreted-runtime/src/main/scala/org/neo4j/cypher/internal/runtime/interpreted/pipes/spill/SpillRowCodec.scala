@@ -0,0 +1,430 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import java.io.DataInput
+import java.io.DataOutput
+import java.lang.reflect
+import java.nio.charset.StandardCharsets.UTF_8
+import java.time.Instant
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.LocalTime
+import java.time.OffsetTime
+import java.time.ZoneId
+import java.time.ZoneOffset
+import java.time.ZonedDateTime
+import java.time.temporal.ChronoUnit
+import java.util
+
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.CypherRowFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillRowCodec.readValue
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillRowCodec.readVarLong
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillRowCodec.writeValue
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillRowCodec.writeVarLong
+import org.neo4j.exceptions.InternalException
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.ArrayValue
+import org.neo4j.values.storable.BooleanArray
+import org.neo4j.values.storable.BooleanValue
+import org.neo4j.values.storable.ByteArray
+import org.neo4j.values.storable.ByteValue
+import org.neo4j.values.storable.CharArray
+import org.neo4j.values.storable.CharValue
+import org.neo4j.values.storable.CoordinateReferenceSystem
+import org.neo4j.values.storable.DateArray
+import org.neo4j.values.storable.DateTimeArray
+import org.neo4j.values.storable.DateTimeValue
+import org.neo4j.values.storable.DateValue
+import org.neo4j.values.storable.DoubleArray
+import org.neo4j.values.storable.DoubleValue
+import org.neo4j.values.storable.DurationArray
+import org.neo4j.values.storable.DurationValue
+import org.neo4j.values.storable.FloatArray
+import org.neo4j.values.storable.FloatValue
+import org.neo4j.values.storable.IntArray
+import org.neo4j.values.storable.IntValue
+import org.neo4j.values.storable.LocalDateTimeArray
+import org.neo4j.values.storable.LocalDateTimeValue
+import org.neo4j.values.storable.LocalTimeArray
+import org.neo4j.values.storable.LocalTimeValue
+import org.neo4j.values.storable.LongArray
+import org.neo4j.values.storable.LongValue
+import org.neo4j.values.storable.PointArray
+import org.neo4j.values.storable.PointValue
+import org.neo4j.values.storable.ShortArray
+import org.neo4j.values.storable.ShortValue
+import org.neo4j.values.storable.StringArray
+import org.neo4j.values.storable.TextValue
+import org.neo4j.values.storable.TimeArray
+import org.neo4j.values.storable.TimeValue
+import org.neo4j.values.storable.Value
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.ListValue
+import org.neo4j.values.virtual.ListValueBuilder
+import org.neo4j.values.virtual.MapValue
+import org.neo4j.values.virtual.MapValueBuilder
+import org.neo4j.values.virtual.NodeValue
+import org.neo4j.values.virtual.PathValue
+import org.neo4j.values.virtual.RelationshipValue
+import org.neo4j.values.virtual.VirtualNodeValue
+import org.neo4j.values.virtual.VirtualRelationshipValue
+import org.neo4j.values.virtual.VirtualValues
+
+import scala.collection.mutable.ArrayBuffer
+
+/**
+ * Binary encoding of the rows that operators spill to disk.
+ *
+ * Every value starts with a one byte tag. Integers are written as zig-zag encoded var-longs, strings as UTF-8 and nodes and relationships
+ * only as their ids, so that they are read back as lazy entities of the same transaction. Variable names are written as indexes into
+ * a dictionary which is kept in memory by the codec, so a codec must be used to read all rows it has written.
+ * Cached properties are not written; they are read from the store again if they are needed after the row has been read back.
+ */
+class SpillRowCodec {
+
+  private val nameIds = new util.HashMap[String, Integer]()
+  private val names = new ArrayBuffer[String]()
+
+  def writeRow(row: CypherRow, out: DataOutput): Unit = {
+    row.foreachEntry { (name, value) =>
+      writeVarLong(nameId(name) + 1, out)
+      writeValue(value, out)
+    }
+    writeVarLong(0, out)
+    row.getLinenumber match {
+      case Some(linenumber) =>
+        out.writeBoolean(true)
+        out.writeUTF(linenumber.filename)
+        writeVarLong(linenumber.linenumber, out)
+        out.writeBoolean(linenumber.last)
+      case None =>
+        out.writeBoolean(false)
+    }
+  }
+
+  def readRow(in: DataInput, rowFactory: CypherRowFactory, query: QueryContext): CypherRow = {
+    val row = rowFactory.newRow()
+    var nameId = readVarLong(in).toInt
+    while (nameId != 0) {
+      row.set(names(nameId - 1), readValue(in, query))
+      nameId = readVarLong(in).toInt
+    }
+    if (in.readBoolean()) {
+      row.setLinenumber(in.readUTF(), readVarLong(in), in.readBoolean())
+    }
+    row
+  }
+
+  private def nameId(name: String): Int = {
+    val id = nameIds.get(name)
+    if (id != null) {
+      id
+    } else {
+      names += name
+      nameIds.put(name, names.size - 1)
+      names.size - 1
+    }
+  }
+}
+
+object SpillRowCodec {
+  private final val NULL_REFERENCE = 0
+  private final val NO_VALUE = 1
+  private final val TRUE = 2
+  private final val FALSE = 3
+  private final val LONG = 4
+  private final val INT = 5
+  private final val SHORT = 6
+  private final val BYTE = 7
+  private final val DOUBLE = 8
+  private final val FLOAT = 9
+  private final val CHAR = 10
+  private final val STRING = 11
+  private final val POINT = 12
+  private final val DATE = 13
+  private final val LOCAL_TIME = 14
+  private final val TIME = 15
+  private final val LOCAL_DATE_TIME = 16
+  private final val DATE_TIME = 17
+  private final val DURATION = 18
+  private final val ARRAY = 19
+  private final val NODE = 20
+  private final val RELATIONSHIP = 21
+  private final val PATH = 22
+  private final val LIST = 23
+  private final val MAP = 24
+
+  // Component types of arrays, indexed by the code written for them
+  private val ARRAY_COMPONENT_TYPES: Array[Class[_]] = Array(
+    java.lang.Boolean.TYPE, java.lang.Byte.TYPE, java.lang.Short.TYPE, java.lang.Integer.TYPE, java.lang.Long.TYPE, java.lang.Float.TYPE,
+    java.lang.Double.TYPE, java.lang.Character.TYPE, classOf[String], classOf[PointValue], classOf[LocalDate], classOf[LocalTime],
+    classOf[OffsetTime], classOf[LocalDateTime], classOf[ZonedDateTime], classOf[DurationValue])
+
+  def writeValue(value: AnyValue, out: DataOutput): Unit = value match {
+    case null =>
+      out.writeByte(NULL_REFERENCE)
+    case _ if value eq Values.NO_VALUE =>
+      out.writeByte(NO_VALUE)
+    case v: BooleanValue =>
+      out.writeByte(if (v.booleanValue()) TRUE else FALSE)
+    case v: LongValue =>
+      out.writeByte(LONG)
+      writeSignedVarLong(v.longValue(), out)
+    case v: IntValue =>
+      out.writeByte(INT)
+      writeSignedVarLong(v.value(), out)
+    case v: ShortValue =>
+      out.writeByte(SHORT)
+      out.writeShort(v.value())
+    case v: ByteValue =>
+      out.writeByte(BYTE)
+      out.writeByte(v.value())
+    case v: DoubleValue =>
+      out.writeByte(DOUBLE)
+      out.writeDouble(v.doubleValue())
+    case v: FloatValue =>
+      out.writeByte(FLOAT)
+      out.writeFloat(v.value())
+    case v: CharValue =>
+      out.writeByte(CHAR)
+      out.writeChar(v.value())
+    case v: TextValue =>
+      out.writeByte(STRING)
+      val bytes = v.stringValue().getBytes(UTF_8)
+      writeVarLong(bytes.length, out)
+      out.write(bytes)
+    case v: PointValue =>
+      out.writeByte(POINT)
+      writeVarLong(v.getCoordinateReferenceSystem.getCode, out)
+      val coordinate = v.coordinate()
+      writeVarLong(coordinate.length, out)
+      coordinate.foreach(out.writeDouble)
+    case v: DateValue =>
+      out.writeByte(DATE)
+      writeSignedVarLong(v.asObjectCopy().toEpochDay, out)
+    case v: LocalTimeValue =>
+      out.writeByte(LOCAL_TIME)
+      writeVarLong(v.asObjectCopy().toNanoOfDay, out)
+    case v: TimeValue =>
+      out.writeByte(TIME)
+      val time = v.asObjectCopy()
+      writeVarLong(time.toLocalTime.toNanoOfDay, out)
+      writeSignedVarLong(time.getOffset.getTotalSeconds, out)
+    case v: LocalDateTimeValue =>
+      out.writeByte(LOCAL_DATE_TIME)
+      val dateTime = v.asObjectCopy()
+      writeSignedVarLong(dateTime.toEpochSecond(ZoneOffset.UTC), out)
+      writeVarLong(dateTime.getNano, out)
+    case v: DateTimeValue =>
+      out.writeByte(DATE_TIME)
+      val dateTime = v.asObjectCopy()
+      writeSignedVarLong(dateTime.toEpochSecond, out)
+      writeVarLong(dateTime.getNano, out)
+      out.writeUTF(dateTime.getZone.getId)
+    case v: DurationValue =>
+      out.writeByte(DURATION)
+      writeSignedVarLong(v.get(ChronoUnit.MONTHS), out)
+      writeSignedVarLong(v.get(ChronoUnit.DAYS), out)
+      writeSignedVarLong(v.get(ChronoUnit.SECONDS), out)
+      writeSignedVarLong(v.get(ChronoUnit.NANOS), out)
+    case v: ArrayValue =>
+      out.writeByte(ARRAY)
+      out.writeByte(arrayComponentType(v))
+      writeVarLong(v.length(), out)
+      var i = 0
+      while (i < v.length()) {
+        writeValue(v.value(i), out)
+        i += 1
+      }
+    case v: VirtualNodeValue =>
+      out.writeByte(NODE)
+      writeVarLong(v.id(), out)
+    case v: VirtualRelationshipValue =>
+      out.writeByte(RELATIONSHIP)
+      writeVarLong(v.id(), out)
+    case v: PathValue =>
+      out.writeByte(PATH)
+      val relationships = v.relationships()
+      writeVarLong(relationships.length, out)
+      v.nodes().foreach(node => writeVarLong(node.id(), out))
+      relationships.foreach(relationship => writeVarLong(relationship.id(), out))
+    case v: ListValue =>
+      out.writeByte(LIST)
+      writeVarLong(v.size(), out)
+      val iterator = v.iterator()
+      while (iterator.hasNext) {
+        writeValue(iterator.next(), out)
+      }
+    case v: MapValue =>
+      out.writeByte(MAP)
+      writeVarLong(v.size(), out)
+      v.foreach[RuntimeException]((key, value) => {
+        out.writeUTF(key)
+        writeValue(value, out)
+      })
+    case _ =>
+      throw new InternalException(s"Can not spill values of type ${value.getClass.getSimpleName} to disk")
+  }
+
+  def readValue(in: DataInput, query: QueryContext): AnyValue = in.readByte().toInt match {
+    case NULL_REFERENCE => null
+    case NO_VALUE => Values.NO_VALUE
+    case TRUE => Values.TRUE
+    case FALSE => Values.FALSE
+    case LONG => Values.longValue(readSignedVarLong(in))
+    case INT => Values.intValue(readSignedVarLong(in).toInt)
+    case SHORT => Values.shortValue(in.readShort())
+    case BYTE => Values.byteValue(in.readByte())
+    case DOUBLE => Values.doubleValue(in.readDouble())
+    case FLOAT => Values.floatValue(in.readFloat())
+    case CHAR => Values.charValue(in.readChar())
+    case STRING =>
+      val bytes = new Array[Byte](readVarLong(in).toInt)
+      in.readFully(bytes)
+      Values.utf8Value(bytes)
+    case POINT =>
+      val crs = CoordinateReferenceSystem.get(readVarLong(in).toInt)
+      val coordinate = new Array[Double](readVarLong(in).toInt)
+      var i = 0
+      while (i < coordinate.length) {
+        coordinate(i) = in.readDouble()
+        i += 1
+      }
+      Values.pointValue(crs, coordinate: _*)
+    case DATE =>
+      DateValue.date(LocalDate.ofEpochDay(readSignedVarLong(in)))
+    case LOCAL_TIME =>
+      LocalTimeValue.localTime(LocalTime.ofNanoOfDay(readVarLong(in)))
+    case TIME =>
+      val time = LocalTime.ofNanoOfDay(readVarLong(in))
+      TimeValue.time(OffsetTime.of(time, ZoneOffset.ofTotalSeconds(readSignedVarLong(in).toInt)))
+    case LOCAL_DATE_TIME =>
+      val epochSecond = readSignedVarLong(in)
+      LocalDateTimeValue.localDateTime(LocalDateTime.ofEpochSecond(epochSecond, readVarLong(in).toInt, ZoneOffset.UTC))
+    case DATE_TIME =>
+      val epochSecond = readSignedVarLong(in)
+      val instant = Instant.ofEpochSecond(epochSecond, readVarLong(in))
+      DateTimeValue.datetime(ZonedDateTime.ofInstant(instant, ZoneId.of(in.readUTF())))
+    case DURATION =>
+      val months = readSignedVarLong(in)
+      val days = readSignedVarLong(in)
+      val seconds = readSignedVarLong(in)
+      DurationValue.duration(months, days, seconds, readSignedVarLong(in))
+    case ARRAY =>
+      val componentType = ARRAY_COMPONENT_TYPES(in.readByte())
+      val array = reflect.Array.newInstance(componentType, readVarLong(in).toInt)
+      var i = 0
+      while (i < reflect.Array.getLength(array)) {
+        reflect.Array.set(array, i, readValue(in, query).asInstanceOf[Value].asObjectCopy())
+        i += 1
+      }
+      Values.of(array)
+    case NODE =>
+      query.nodeById(readVarLong(in))
+    case RELATIONSHIP =>
+      query.relationshipById(readVarLong(in))
+    case PATH =>
+      val relationships = new Array[RelationshipValue](readVarLong(in).toInt)
+      val nodes = new Array[NodeValue](relationships.length + 1)
+      var i = 0
+      while (i < nodes.length) {
+        nodes(i) = query.nodeById(readVarLong(in))
+        i += 1
+      }
+      i = 0
+      while (i < relationships.length) {
+        relationships(i) = query.relationshipById(readVarLong(in))
+        i += 1
+      }
+      VirtualValues.path(nodes, relationships)
+    case LIST =>
+      val size = readVarLong(in).toInt
+      val builder = ListValueBuilder.newListBuilder(size)
+      var i = 0
+      while (i < size) {
+        builder.add(readValue(in, query))
+        i += 1
+      }
+      builder.build()
+    case MAP =>
+      val size = readVarLong(in).toInt
+      val builder = new MapValueBuilder(size)
+      var i = 0
+      while (i < size) {
+        builder.add(in.readUTF(), readValue(in, query))
+        i += 1
+      }
+      builder.build()
+    case tag =>
+      throw new InternalException(s"Unknown value tag $tag in spill file")
+  }
+
+  private def arrayComponentType(array: ArrayValue): Int = array match {
+    case _: BooleanArray => 0
+    case _: ByteArray => 1
+    case _: ShortArray => 2
+    case _: IntArray => 3
+    case _: LongArray => 4
+    case _: FloatArray => 5
+    case _: DoubleArray => 6
+    case _: CharArray => 7
+    case _: StringArray => 8
+    case _: PointArray => 9
+    case _: DateArray => 10
+    case _: LocalTimeArray => 11
+    case _: TimeArray => 12
+    case _: LocalDateTimeArray => 13
+    case _: DateTimeArray => 14
+    case _: DurationArray => 15
+    case _ => throw new InternalException(s"Can not spill arrays of type ${array.getClass.getSimpleName} to disk")
+  }
+
+  private def writeSignedVarLong(value: Long, out: DataOutput): Unit =
+    writeVarLong((value << 1) ^ (value >> 63), out)
+
+  private def readSignedVarLong(in: DataInput): Long = {
+    val value = readVarLong(in)
+    (value >>> 1) ^ -(value & 1)
+  }
+
+  private def writeVarLong(value: Long, out: DataOutput): Unit = {
+    var remaining = value
+    while ((remaining & ~0x7FL) != 0) {
+      out.writeByte(((remaining & 0x7F) | 0x80).toInt)
+      remaining >>>= 7
+    }
+    out.writeByte(remaining.toInt)
+  }
+
+  private def readVarLong(in: DataInput): Long = {
+    var value = 0L
+    var shift = 0
+    var b = in.readByte()
+    while ((b & 0x80) != 0) {
+      value |= (b & 0x7FL) << shift
+      shift += 7
+      b = in.readByte()
+    }
+    value | (b.toLong << shift)
+  }
+}
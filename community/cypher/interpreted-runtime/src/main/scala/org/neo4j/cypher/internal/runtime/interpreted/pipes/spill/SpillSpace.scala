@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import java.io.BufferedInputStream
+import java.io.BufferedOutputStream
+import java.io.Closeable
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.nio.file.Path
+import java.util.UUID
+
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.CypherRowFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillSpace.BUFFER_SIZE
+import org.neo4j.internal.kernel.api.DefaultCloseListenable
+import org.neo4j.io.IOUtils
+import org.neo4j.io.fs.FileSystemAbstraction
+import org.neo4j.memory.MemoryTracker
+
+import scala.collection.mutable.ArrayBuffer
+
+/**
+ * The spill files of a single execution of an operator. Files are created in `directory` when they are first written to, and are
+ * deleted when they have been read back or, at the latest, when the space is closed.
+ *
+ * @param query         used to read nodes and relationships back from their ids
+ * @param rowFactory    creates the rows that are read back
+ * @param memoryTracker is charged with the buffer of every file that is open for writing or reading
+ */
+class SpillSpace(private[spill] val fs: FileSystemAbstraction,
+                 private[spill] val directory: Path,
+                 private[spill] val query: QueryContext,
+                 private[spill] val rowFactory: CypherRowFactory,
+                 private[spill] val memoryTracker: MemoryTracker) extends DefaultCloseListenable {
+
+  private[spill] val codec = new SpillRowCodec
+  private val prefix = s"cypher-spill-${UUID.randomUUID()}-"
+  private val files = new ArrayBuffer[SpillFile]()
+  private var closed = false
+
+  def newFile(): SpillFile = {
+    val file = new SpillFile(this, directory.resolve(prefix + files.size))
+    files += file
+    file
+  }
+
+  /**
+   * @return `n` files to partition rows into, see [[SpillSpace.partition]]
+   */
+  def newPartitions(n: Int): Array[SpillFile] = Array.fill(n)(newFile())
+
+  override def closeInternal(): Unit = {
+    if (!closed) {
+      closed = true
+      files.foreach(_.delete())
+    }
+  }
+
+  override def isClosed: Boolean = closed
+}
+
+/**
+ * Rows are appended to the file, and can be read back once, in the same order, after all rows have been written. The file holds a
+ * buffer of [[SpillSpace.BUFFER_SIZE]] bytes from the first write until [[finishWriting]] or [[read]], and another one while it is read.
+ */
+class SpillFile private[spill](space: SpillSpace, path: Path) {
+  import space.codec
+  import space.fs
+
+  private var out: DataOutputStream = _
+  private var in: DataInputStream = _
+  private var _rows = 0L
+
+  def rows: Long = _rows
+
+  def write(row: CypherRow): Unit = {
+    if (out == null) {
+      fs.mkdirs(space.directory)
+      space.memoryTracker.allocateHeap(BUFFER_SIZE)
+      out = new DataOutputStream(new BufferedOutputStream(fs.openAsOutputStream(path, false), BUFFER_SIZE))
+    }
+    codec.writeRow(row, out)
+    _rows += 1
+  }
+
+  /**
+   * Stops writing to the file, and releases its buffer until it is read.
+   */
+  def finishWriting(): Unit = {
+    if (out != null) {
+      out.close()
+      out = null
+      space.memoryTracker.releaseHeap(BUFFER_SIZE)
+    }
+  }
+
+  /**
+   * Stops writing to the file and returns all rows written to it. The file is deleted when the iterator is exhausted or closed.
+   */
+  def read(): ClosingIterator[CypherRow] = {
+    finishWriting()
+    if (_rows > 0 && in == null) {
+      space.memoryTracker.allocateHeap(BUFFER_SIZE)
+      in = new DataInputStream(new BufferedInputStream(fs.openAsInputStream(path), BUFFER_SIZE))
+    }
+    new ClosingIterator[CypherRow] {
+      private var remaining = _rows
+
+      override protected[this] def closeMore(): Unit = delete()
+
+      override protected[this] def innerHasNext: Boolean = remaining > 0
+
+      override def next(): CypherRow = {
+        remaining -= 1
+        codec.readRow(in, space.rowFactory, space.query)
+      }
+    }
+  }
+
+  private[spill] def delete(): Unit = {
+    val openBuffers = Seq(out, in).count(_ != null)
+    IOUtils.closeAllUnchecked[Closeable](out, in)
+    space.memoryTracker.releaseHeap(openBuffers * BUFFER_SIZE)
+    out = null
+    in = null
+    _rows = 0
+    fs.deleteFile(path)
+  }
+}
+
+object SpillSpace {
+  private[spill] val BUFFER_SIZE = 64 * 1024
+
+  /**
+   * @return the partition of `key` among `n` partitions. Each level of recursive partitioning must use a different `level`, so that
+   *         keys that ended up in the same partition on one level are spread over all partitions on the next.
+   */
+  def partition(key: AnyRef, level: Int, n: Int): Int = partitionOfHash(key.hashCode(), level, n)
+
+  /**
+   * Like [[partition]], for callers that hash their keys themselves, e.g. to avoid creating key objects.
+   */
+  def partitionOfHash(hashCode: Int, level: Int, n: Int): Int = {
+    val hash = Integer.rotateLeft(hashCode * 0x9E3779B9, level * 7)
+    Math.floorMod(hash ^ (hash >>> 16), n)
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import java.nio.file.Path
+
+import org.neo4j.cypher.internal.runtime.interpreted.TransactionalContextWrapper
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.CypherRowFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.io.fs.FileSystemAbstraction
+
+/**
+ * Decides when eager operators spill rows to disk instead of keeping them all in heap, and where the spilled rows are written.
+ *
+ * @param threshold estimated heap usage, in bytes, of the rows buffered by an operator above which the operator starts to spill.
+ *                  Spilling is disabled if this is 0.
+ * @param directory where spill files are created
+ */
+case class Spilling(threshold: Long, directory: Path) {
+
+  def enabled: Boolean = threshold > 0
+
+  /**
+   * @param id the operator that spills, whose memory tracker is charged with the buffers of the open spill files
+   * @return a new space for spill files, which is closed with the query at the latest, or `None` if spilling isn't possible
+   */
+  def open(state: QueryState, rowFactory: CypherRowFactory, id: Id): Option[SpillSpace] =
+    if (!enabled) {
+      None
+    } else {
+      TransactionalContextWrapper.unwrap(state.query.transactionalContext).map { tc =>
+        val fs = tc.graph.getDependencyResolver.resolveDependency(classOf[FileSystemAbstraction])
+        val space = new SpillSpace(fs, directory, state.query, rowFactory, state.memoryTracker.memoryTrackerForOperator(id.x))
+        state.query.resources.trace(space)
+        space
+      }
+    }
+}
+
+object Spilling {
+  val DISABLED: Spilling = Spilling(0, null)
+}
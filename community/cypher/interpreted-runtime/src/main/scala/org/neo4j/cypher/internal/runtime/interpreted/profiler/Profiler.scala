@@ -231,6 +231,12 @@ final class ProfilingPipeQueryContext(inner: QueryContext)
 
     override def propertyValue(offset: Int): Value = inner.propertyValue(offset)
 
+    override def numberOfIncludedProperties(): Int = inner.numberOfIncludedProperties()
+
+    override def includedPropertyKey(offset: Int): Int = inner.includedPropertyKey(offset)
+
+    override def includedPropertyValue(offset: Int): Value = inner.includedPropertyValue(offset)
+
     override def node(cursor: NodeCursor): Unit = inner.node(cursor)
 
     override def nodeReference(): Long = inner.nodeReference()
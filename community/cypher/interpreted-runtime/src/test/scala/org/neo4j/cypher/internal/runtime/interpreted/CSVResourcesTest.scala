@@ -20,6 +20,8 @@
 package org.neo4j.cypher.internal.runtime.interpreted
 
 import java.net.URL
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
 
 import org.apache.commons.lang3.SystemUtils
 import org.mockito.ArgumentMatchers.any
@@ -245,4 +247,102 @@ class CSVResourcesTest extends CypherFunSuite with CreateTempFileTestSupport {
         r should equal(expected)
     }
   }
+
+  test("should parse chunks in parallel and return rows in file order") {
+    // given
+    val url = createCSVTempFileURL {
+      writer =>
+        writer.println("id,text")
+        (1 to 2000).foreach { i =>
+          if (i % 7 == 0) writer.println(s"""$i,"line\n""break, $i"""") else writer.println(s"$i,plain $i")
+        }
+    }
+    val executor = Executors.newFixedThreadPool(3)
+
+    try {
+      //when
+      val parallel = new CSVResources(cleaner, Some(CsvParsingWorkers(4, executor)))
+      val result = parallel.getCsvIterator(new URL(url), None, legacyCsvQuoteEscaping = false, 64).toList
+
+      //then
+      val expected = resources.getCsvIterator(new URL(url), None, legacyCsvQuoteEscaping = false, 64).toList
+      result.size should equal(2001)
+      result.map(_.toSeq) should equal(expected.map(_.toSeq))
+      result(7).toSeq should equal(Seq("7", "line\n\"break, 7"))
+    } finally {
+      executor.shutdown()
+    }
+  }
+
+  test("should track line numbers and last row when parsing in parallel") {
+    // given
+    val url = createCSVTempFileURL {
+      writer =>
+        (1 to 100).foreach(i => writer.println(s"$i"))
+    }
+    val executor = Executors.newSingleThreadExecutor()
+
+    try {
+      //when
+      val iterator = new CSVResources(cleaner, Some(CsvParsingWorkers(2, executor)))
+        .getCsvIterator(new URL(url), None, legacyCsvQuoteEscaping = false, 32)
+
+      //then
+      (1 to 100).foreach { i =>
+        iterator.readAll should be(false)
+        iterator.next().toSeq should equal(Seq(i.toString))
+        iterator.lastProcessed should equal(i)
+      }
+      iterator.readAll should be(true)
+      iterator.hasNext should be(false)
+    } finally {
+      executor.shutdown()
+    }
+  }
+
+  test("should fail on the row that could not be parsed in parallel") {
+    // given
+    val url = createCSVTempFileURL {
+      writer =>
+        (1 to 100).foreach(i => writer.println(s"$i"))
+        writer.println("\"quoted\" and then some")
+    }
+    val executor = Executors.newFixedThreadPool(2)
+
+    try {
+      //when
+      val iterator = new CSVResources(cleaner, Some(CsvParsingWorkers(2, executor)))
+        .getCsvIterator(new URL(url), None, legacyCsvQuoteEscaping = false, 32)
+
+      //then
+      // like when parsing serially, the next row is looked at when handing out a row
+      (1 to 99).foreach(i => iterator.next().toSeq should equal(Seq(i.toString)))
+      intercept[IllegalStateException](iterator.next())
+    } finally {
+      executor.shutdown()
+    }
+  }
+
+  test("should stop parsing in parallel when closed early") {
+    // given
+    val url = createCSVTempFileURL {
+      writer =>
+        (1 to 1000).foreach(i => writer.println(s"$i"))
+    }
+    val executor = Executors.newFixedThreadPool(2)
+
+    try {
+      //when
+      val iterator = new CSVResources(cleaner, Some(CsvParsingWorkers(2, executor)))
+        .getCsvIterator(new URL(url), None, legacyCsvQuoteEscaping = false, 32)
+      iterator.next().toSeq should equal(Seq("1"))
+      iterator.close()
+
+      //then
+      executor.shutdown()
+      executor.awaitTermination(1, TimeUnit.MINUTES) should be(true)
+    } finally {
+      executor.shutdownNow()
+    }
+  }
 }
@@ -42,6 +42,7 @@ import org.neo4j.cypher.internal.logical.plans.NodeByLabelScan
 import org.neo4j.cypher.internal.logical.plans.NodeHashJoin
 import org.neo4j.cypher.internal.logical.plans.OptionalExpand
 import org.neo4j.cypher.internal.logical.plans.Projection
+import org.neo4j.cypher.internal.logical.plans.Selection
 import org.neo4j.cypher.internal.logical.plans.UndirectedRelationshipByIdSeek
 import org.neo4j.cypher.internal.planner.spi.PlanContext
 import org.neo4j.cypher.internal.planner.spi.TokenContext
@@ -55,6 +56,7 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes.ArgumentPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.CartesianProductPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.DirectedRelationshipByIdSeekPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.EagerAggregationPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.ExpandAllPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.ExpandIntoPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.LazyLabel
@@ -63,6 +65,7 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeByIdSeekPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeByLabelScanPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeHashJoinPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.OptionalExpandIntoPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelAggregationPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.Pipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.PipeTreeBuilder
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.ProjectionPipe
@@ -90,6 +93,9 @@ class InterpretedPipeMapperIT extends CypherFunSuite with AstConstructionTestSup
   private val pipeMapper =
     InterpretedPipeMapper(readOnly = true, converters, planContext, mock[QueryIndexRegistrator])(semanticTable)
 
+  private val parallelAggregationPipeMapper =
+    InterpretedPipeMapper(readOnly = true, converters, planContext, mock[QueryIndexRegistrator], parallelAggregationWorkers = 4)(semanticTable)
+
   private def build(logicalPlan: LogicalPlan): Pipe =
     PipeTreeBuilder(pipeMapper).build(logicalPlan)
 
@@ -231,4 +237,29 @@ class InterpretedPipeMapperIT extends CypherFunSuite with AstConstructionTestSup
         Array(DistinctPipe.GroupingCol("n.prop", commands.expressions.Property(commands.expressions.Variable("n"),
           Resolved("prop", token, TokenType.PropertyKey)))))())
   }
+
+  test("Aggregation over a filtered node scan => ParallelAggregationPipe if parallel aggregation is enabled") {
+    // GIVEN
+    when(planContext.getOptPropertyKeyId("prop")).thenReturn(Some(42))
+    val selection = Selection(Seq(greaterThan(prop("n", "prop"), literalInt(6))), AllNodesScan("n", Set.empty))
+    val aggregation = Aggregation(selection, Map("x" -> prop("n", "prop")), Map("c" -> count(varFor("n")), "s" -> sum(prop("n", "prop"))))
+
+    // WHEN
+    val pipe = PipeTreeBuilder(parallelAggregationPipeMapper).build(aggregation)
+
+    // THEN
+    pipe shouldBe a[ParallelAggregationPipe]
+    pipe.asInstanceOf[ParallelAggregationPipe].scan should equal(ParallelAggregationPipe.AllNodes("n"))
+  }
+
+  test("Aggregation with an expression which is not safe to evaluate in parallel => EagerAggregationPipe") {
+    // GIVEN
+    val aggregation = Aggregation(AllNodesScan("n", Set.empty), Map("l" -> function("labels", varFor("n"))), Map("c" -> countStar()))
+
+    // WHEN
+    val pipe = PipeTreeBuilder(parallelAggregationPipeMapper).build(aggregation)
+
+    // THEN
+    pipe shouldBe an[EagerAggregationPipe]
+  }
 }
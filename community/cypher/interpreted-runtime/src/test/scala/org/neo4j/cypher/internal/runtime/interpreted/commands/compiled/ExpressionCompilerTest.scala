@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.commands.compiled
+
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.interpreted.commands.LiteralHelper.literal
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Add
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.CoalesceFunction
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Divide
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Multiply
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Null
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.ParameterFromSlot
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Property
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.SizeFunction
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Subtract
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.ToUpperFunction
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Variable
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Ands
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.CoercedPredicate
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Equals
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.GreaterThan
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.IsNull
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.LessThanOrEqual
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Not
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
+import org.neo4j.cypher.internal.runtime.interpreted.commands.values.TokenType.PropertyKey
+import org.neo4j.cypher.internal.util.NonEmptyList
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.exceptions.ArithmeticException
+import org.neo4j.exceptions.CypherTypeException
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values.NO_VALUE
+import org.neo4j.values.storable.Values.doubleValue
+import org.neo4j.values.storable.Values.longValue
+import org.neo4j.values.storable.Values.stringValue
+
+class ExpressionCompilerTest extends CypherFunSuite {
+
+  private val state = QueryStateHelper.emptyWith(params = Array(longValue(10)))
+  private val inputs: Seq[AnyValue] = Seq(longValue(3), longValue(-7), doubleValue(2.5), stringValue("a"), NO_VALUE)
+
+  test("should compute arithmetic like the interpreted expressions") {
+    for (x <- inputs; y <- inputs) {
+      val row = CypherRow.from("x" -> x, "y" -> y)
+      val expressions = Seq(
+        Add(Variable("x"), Variable("y")),
+        Subtract(Multiply(Variable("x"), literal(2)), ParameterFromSlot(0, "p")),
+        Add(Variable("x"), Null()))
+
+      expressions.foreach(expression => shouldEvaluateLikeInterpreted(expression, row))
+    }
+  }
+
+  test("should compute predicates like the interpreted predicates") {
+    for (x <- inputs; y <- inputs) {
+      val row = CypherRow.from("x" -> x, "y" -> y)
+      val predicates = Seq(
+        Equals(Variable("x"), Variable("y")),
+        Not(GreaterThan(Variable("x"), Variable("y"))),
+        LessThanOrEqual(Add(Variable("x"), literal(1)), Variable("y")),
+        IsNull(Add(Variable("x"), Variable("y"))))
+
+      predicates.foreach(predicate => shouldEvaluateLikeInterpreted(predicate, row))
+    }
+  }
+
+  test("should compute property access and functions") {
+    val row = CypherRow.from("m" -> literal(Map("name" -> "neo")).value, "l" -> literal(Seq(1, 2, 3)).value)
+
+    shouldEvaluateLikeInterpreted(ToUpperFunction(Property(Variable("m"), PropertyKey("name"))), row)
+    shouldEvaluateLikeInterpreted(SizeFunction(Property(Variable("m"), PropertyKey("missing"))), row)
+    shouldEvaluateLikeInterpreted(Add(SizeFunction(Variable("l")), literal(1)), row)
+  }
+
+  test("should evaluate expressions it can not compile from the generated code") {
+    val row = CypherRow.from("x" -> NO_VALUE)
+    val expression = Add(CoalesceFunction(Variable("x"), literal(41)), literal(1))
+
+    val compiled = ExpressionCompiler.compile(expression)
+
+    compiled shouldBe a[CompiledExpression]
+    compiled(row, state) should equal(longValue(42))
+  }
+
+  test("should throw the same errors as the interpreted expressions") {
+    val row = CypherRow.from("x" -> longValue(1), "s" -> stringValue("a"))
+
+    an[ArithmeticException] should be thrownBy ExpressionCompiler.compile(Divide(Variable("x"), literal(0)))(row, state)
+    a[CypherTypeException] should be thrownBy ExpressionCompiler.compile(CoercedPredicate(Variable("s")))(row, state)
+  }
+
+  test("should compile the predicates of ands but keep the ands interpreted") {
+    val row = CypherRow.from("x" -> longValue(1))
+    val ands = Ands(NonEmptyList[Predicate](
+      Equals(Variable("x"), literal(1)),
+      GreaterThan(Divide(literal(1), Variable("x")), literal(0))))
+
+    val compiled = ExpressionCompiler.compilePredicate(ands)
+
+    compiled shouldBe a[Ands]
+    compiled.asInstanceOf[Ands].predicates.foreach(_ shouldBe a[CompiledPredicate])
+    compiled.isMatch(row, state) should equal(Some(true))
+  }
+
+  test("should not compile plain reads") {
+    val expressions = Seq(Variable("x"), literal(1), Property(Variable("x"), PropertyKey("p")), ParameterFromSlot(0, "p"))
+
+    expressions.foreach(expression => ExpressionCompiler.compile(expression) should be theSameInstanceAs expression)
+  }
+
+  test("should rewrite into an interpreted expression") {
+    val compiled = ExpressionCompiler.compile(Add(Variable("x"), literal(1)))
+
+    compiled.rewrite(identity) should equal(Add(Variable("x"), literal(1)))
+  }
+
+  private def shouldEvaluateLikeInterpreted(expression: Expression, row: CypherRow): Unit = {
+    val compiled = expression match {
+      case predicate: Predicate => ExpressionCompiler.compilePredicate(predicate)
+      case _ => ExpressionCompiler.compile(expression)
+    }
+    compiled should not be theSameInstanceAs(expression)
+
+    val expected = evaluate(expression, row)
+    val actual = evaluate(compiled, row)
+    withClue(s"$expression with $row") {
+      actual should equal(expected)
+    }
+  }
+
+  private def evaluate(expression: Expression, row: CypherRow): Either[Class[_], AnyValue] =
+    try {
+      Right(expression(row, state))
+    } catch {
+      case e: Exception => Left(e.getClass)
+    }
+}
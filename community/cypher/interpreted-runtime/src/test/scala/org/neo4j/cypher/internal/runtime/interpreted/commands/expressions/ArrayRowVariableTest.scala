@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.commands.expressions
+
+import org.neo4j.cypher.internal.runtime.ArrayCypherRow
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.RowSlots
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.graphdb.NotFoundException
+import org.neo4j.values.storable.Values.intValue
+
+class ArrayRowVariableTest extends CypherFunSuite {
+
+  private val slots = RowSlots(Seq("a", "b"))
+  private val state = QueryStateHelper.empty
+
+  test("should read the value at its offset") {
+    val row = ArrayCypherRow.empty(slots)
+    row.set("a", intValue(1), "b", intValue(2))
+
+    new ArrayRowVariable("b", slots.offsetOf("b"))(row, state) should equal(intValue(2))
+  }
+
+  test("should look up variables by name in rows of other kinds") {
+    new ArrayRowVariable("b", slots.offsetOf("b"))(CypherRow.from("b" -> intValue(2)), state) should equal(intValue(2))
+  }
+
+  test("should fail to read variables that have not been set") {
+    val row = ArrayCypherRow.empty(slots)
+    row.set("a", intValue(1))
+
+    a[NotFoundException] should be thrownBy new ArrayRowVariable("b", slots.offsetOf("b"))(row, state)
+  }
+
+  test("should still match as a variable") {
+    val expression: Expression = new ArrayRowVariable("b", 1)
+    expression match {
+      case Variable(name) => name should equal("b")
+    }
+  }
+}
@@ -31,7 +31,7 @@ import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
 import org.neo4j.cypher.internal.runtime.interpreted.TestableIterator
 import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
 import org.neo4j.graphdb.Node
-import org.neo4j.kernel.impl.util.collection
+import org.neo4j.kernel.impl.util.collection.LongKeysProbeTable
 import org.neo4j.values.AnyValue
 
 class NodeHashJoinPipeTest extends CypherFunSuite {
@@ -109,7 +109,7 @@ class NodeHashJoinPipeTest extends CypherFunSuite {
     NodeHashJoinPipe(Set("n"), left, right)().createResults(queryState).toList
 
     // then
-    monitor.closedResources.collect { case t: collection.ProbeTable[_, _] => t } should have size(1)
+    monitor.closedResources.collect { case t: LongKeysProbeTable[_] => t } should have size(1)
   }
 
   test("close should close table") {
@@ -128,7 +128,7 @@ class NodeHashJoinPipeTest extends CypherFunSuite {
     result.close()
 
     // then
-    monitor.closedResources.collect { case t: collection.ProbeTable[_, _] => t } should have size(1)
+    monitor.closedResources.collect { case t: LongKeysProbeTable[_] => t } should have size(1)
   }
 
   private def row(values: (String, AnyValue)*) = CypherRow.from(values: _*)
@@ -19,13 +19,22 @@
  */
 package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
+import java.nio.file.Path
+
 import org.junit.Assert.assertEquals
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.interpreted.Ascending
 import org.neo4j.cypher.internal.runtime.interpreted.Descending
 import org.neo4j.cypher.internal.runtime.interpreted.InterpretedExecutionContextOrdering
 import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
 import org.neo4j.cypher.internal.runtime.interpreted.ValueComparisonHelper.beEquivalentTo
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillSpace
 import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.io.ByteUnit
+import org.neo4j.io.fs.EphemeralFileSystemAbstraction
+import org.neo4j.memory.LocalMemoryTracker
 import org.neo4j.values.storable.Values
 import org.neo4j.values.storable.Values.intValue
 import org.scalatest.mockito.MockitoSugar
@@ -91,4 +100,28 @@ class SortPipeTest extends CypherFunSuite with MockitoSugar {
       Map("y" -> intValue(2)),
       Map("y" -> Values.NO_VALUE)))
   }
+
+  test("should merge more runs than are read at the same time, keeping equal rows in input order") {
+    val fs = new EphemeralFileSystemAbstraction
+    val directory = Path.of("spill")
+    val memoryTracker = new LocalMemoryTracker
+    val spillSpace = new SpillSpace(fs, directory, mock[QueryContext], CommunityCypherRowFactory(), memoryTracker)
+    val runs = (0 until 10).map { r =>
+      val run = spillSpace.newFile()
+      (0 until 5).foreach(x => run.write(CypherRow.from("x" -> intValue(x), "r" -> intValue(r))))
+      run.finishWriting()
+      run
+    }
+    memoryTracker.estimatedHeapMemory() should equal(0)
+    val inHeap = ClosingIterator(Iterator(CypherRow.from("x" -> intValue(2), "r" -> intValue(10))))
+
+    val merged = SortPipe.merge(runs, inHeap, InterpretedExecutionContextOrdering.asComparator(List(Ascending("x"))), spillSpace, fanIn = 3)
+
+    merged.map(row => (row.getByName("x"), row.getByName("r"))).toList should equal(
+      (0 until 5).flatMap(x => (0 to (if (x == 2) 10 else 9)).map(r => (intValue(x), intValue(r)))))
+    // Three runs read and one written while merging runs, and three runs read while merging the last runs and the rows in heap
+    memoryTracker.heapHighWaterMark() should equal(4 * ByteUnit.kibiBytes(64))
+    memoryTracker.estimatedHeapMemory() should equal(0)
+    fs.listFiles(directory) shouldBe empty
+  }
 }
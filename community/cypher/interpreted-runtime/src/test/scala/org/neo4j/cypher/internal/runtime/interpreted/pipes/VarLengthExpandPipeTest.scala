@@ -30,9 +30,14 @@ import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
 import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
 import org.neo4j.graphdb.Node
 import org.neo4j.internal.kernel.api.NodeCursor
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.ListValue
 import org.neo4j.values.virtual.NodeValue
 import org.neo4j.values.virtual.RelationshipValue
 import org.neo4j.values.virtual.VirtualNodeValue
+import org.neo4j.values.virtual.VirtualValues
+
+import scala.collection.mutable.ArrayBuffer
 
 class VarLengthExpandPipeTest extends CypherFunSuite {
   private trait WasClosed {
@@ -40,8 +45,11 @@ class VarLengthExpandPipeTest extends CypherFunSuite {
   }
 
   private def relationshipIterator: ClosingIterator[RelationshipValue] with WasClosed =
+    closingIterator(Iterator(1, 2, 3).map(newMockedRelationshipValue))
+
+  private def closingIterator(relationships: Iterator[RelationshipValue]): ClosingIterator[RelationshipValue] with WasClosed =
     new ClosingIterator[RelationshipValue] with WasClosed {
-      private val inner = Iterator(1, 2, 3).map(newMockedRelationshipValue)
+      private val inner = relationships
       private var _wasClosed = false
 
       override def closeMore(): Unit = _wasClosed = true
@@ -120,6 +128,121 @@ class VarLengthExpandPipeTest extends CypherFunSuite {
     rels.wasClosed shouldBe true
   }
 
+  // (1)-[10:A]->(2)-[11:A]->(3)-[12:A]->(1), (2)-[13:B]->(4)
+  private val nodes = (1 to 4).map(i => i -> VirtualValues.nodeValue(i, Values.stringArray(), VirtualValues.EMPTY_MAP)).toMap
+  private val relationships = Seq((10, 1, 2, "A"), (11, 2, 3, "A"), (12, 3, 1, "A"), (13, 2, 4, "B")).map {
+    case (id, start, end, relType) => VirtualValues.relationshipValue(id, nodes(start), nodes(end), Values.stringValue(relType), VirtualValues.EMPTY_MAP)
+  }
+  private val typeIds = Map("A" -> 0, "B" -> 1)
+
+  test("should expand paths within the length bounds") {
+    val state = stateExpandingGraph(new ArrayBuffer)
+
+    paths(state, varLengthExpand(1, SemanticDirection.OUTGOING, SemanticDirection.OUTGOING, min = 1, max = Some(2))) should equal(Seq(
+      2 -> Seq(10),
+      4 -> Seq(10, 13),
+      3 -> Seq(10, 11)
+    ))
+    paths(state, varLengthExpand(1, SemanticDirection.OUTGOING, SemanticDirection.OUTGOING, min = 0, max = Some(1))) should equal(Seq(
+      1 -> Seq(),
+      2 -> Seq(10)
+    ))
+    paths(state, varLengthExpand(1, SemanticDirection.OUTGOING, SemanticDirection.OUTGOING, min = 2, max = None)) should equal(Seq(
+      4 -> Seq(10, 13),
+      3 -> Seq(10, 11),
+      1 -> Seq(10, 11, 12)
+    ))
+  }
+
+  test("should not use a relationship twice in a path") {
+    val state = stateExpandingGraph(new ArrayBuffer)
+
+    paths(state, varLengthExpand(1, SemanticDirection.BOTH, SemanticDirection.OUTGOING, min = 3, max = None)).toSet should equal(Set(
+      1 -> Seq(10, 11, 12),
+      1 -> Seq(12, 11, 10),
+      4 -> Seq(12, 11, 13)
+    ))
+  }
+
+  test("should follow the direction of the expansion and project relationships in the direction of the pattern") {
+    val state = stateExpandingGraph(new ArrayBuffer)
+
+    paths(state, varLengthExpand(3, SemanticDirection.INCOMING, SemanticDirection.INCOMING, min = 1, max = None)) should equal(Seq(
+      2 -> Seq(11),
+      1 -> Seq(11, 10),
+      3 -> Seq(11, 10, 12)
+    ))
+    paths(state, varLengthExpand(3, SemanticDirection.INCOMING, SemanticDirection.OUTGOING, min = 1, max = None)) should equal(Seq(
+      2 -> Seq(11),
+      1 -> Seq(10, 11),
+      3 -> Seq(12, 10, 11)
+    ))
+  }
+
+  test("should only expand relationships of the given types") {
+    val expansions = new ArrayBuffer[Expansion]
+    val state = stateExpandingGraph(expansions)
+
+    paths(state, varLengthExpand(1, SemanticDirection.OUTGOING, SemanticDirection.OUTGOING, min = 1, max = None, types = new EagerTypes(Array(0)))) should equal(Seq(
+      2 -> Seq(10),
+      3 -> Seq(10, 11),
+      1 -> Seq(10, 11, 12)
+    ))
+    expansions.map(_.types).distinct should equal(Seq(Seq(0)))
+  }
+
+  test("should close all relationship iterators when closed before exhausted") {
+    val expansions = new ArrayBuffer[Expansion]
+    val state = stateExpandingGraph(expansions)
+
+    val result = varLengthExpand(1, SemanticDirection.BOTH, SemanticDirection.OUTGOING, min = 1, max = None).createResults(state)
+    result.next()
+    result.next()
+    result.close()
+
+    expansions should not be empty
+    expansions.map(_.relationships.wasClosed) should contain only true
+  }
+
+  private case class Expansion(types: Seq[Int], relationships: ClosingIterator[RelationshipValue] with WasClosed)
+
+  private def stateExpandingGraph(expansions: ArrayBuffer[Expansion]): QueryState = {
+    val state = QueryStateHelper.emptyWithResourceManager(new ResourceManager(QueryStateHelper.trackClosedMonitor))
+    Mockito.when(state.query.getRelationshipsForIds(any[Long], any[SemanticDirection], any[Array[Int]])).thenAnswer((invocation: InvocationOnMock) => {
+      val nodeId = invocation.getArgument[Long](0)
+      val dir = invocation.getArgument[SemanticDirection](1)
+      val types = Option(invocation.getArgument[Array[Int]](2))
+      val expanded = relationships.filter { rel =>
+        val hasType = types.forall(_.contains(typeIds(rel.`type`().stringValue())))
+        val outgoing = rel.startNode().id() == nodeId
+        val incoming = rel.endNode().id() == nodeId
+        hasType && (dir match {
+          case SemanticDirection.OUTGOING => outgoing
+          case SemanticDirection.INCOMING => incoming
+          case SemanticDirection.BOTH => outgoing || incoming
+        })
+      }
+      val iterator = closingIterator(expanded.iterator)
+      expansions += Expansion(types.map(_.toSeq).orNull, iterator)
+      iterator
+    })
+    state
+  }
+
+  private def varLengthExpand(from: Int,
+                              dir: SemanticDirection,
+                              projectedDir: SemanticDirection,
+                              min: Int,
+                              max: Option[Int],
+                              types: RelationshipTypes = RelationshipTypes.empty): VarLengthExpandPipe =
+    VarLengthExpandPipe(FakePipe(Seq(Map("a" -> nodes(from)))), "a", "r", "b", dir, projectedDir, types, min, max, nodeInScope = false)()
+
+  private def paths(state: QueryState, pipe: VarLengthExpandPipe): Seq[(Long, Seq[Long])] =
+    pipe.createResults(state).map { row =>
+      val relationshipIds = row.getByName("r").asInstanceOf[ListValue].asArray().map(_.asInstanceOf[RelationshipValue].id()).toSeq
+      row.getByName("b").asInstanceOf[NodeValue].id() -> relationshipIds
+    }.toList
+
   private def newMockedNode(id: Int): Node = {
     val node = mock[Node]
     when(node.getId).thenReturn(id)
@@ -35,4 +35,19 @@ trait AggregateTest {
     values.foreach(value => func(CypherRow.from("x" -> value), state))
     func.result(state)
   }
+
+  /**
+   * Aggregates each part in a function of its own, and merges them all into a fresh function.
+   */
+  def mergeAggregatesOn(parts: Seq[AnyValue]*): Any = {
+    val state = QueryStateHelper.empty
+
+    val merged = createAggregator(Variable("x")).asInstanceOf[MergeableAggregationFunction]
+    parts.foreach { values =>
+      val func: AggregationFunction = createAggregator(Variable("x"))
+      values.foreach(value => func(CypherRow.from("x" -> value), state))
+      merged.merge(func, state)
+    }
+    merged.result(state)
+  }
 }
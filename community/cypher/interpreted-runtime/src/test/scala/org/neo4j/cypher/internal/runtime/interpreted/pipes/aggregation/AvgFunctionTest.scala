@@ -102,6 +102,24 @@ class AvgFunctionTest extends CypherFunSuite with AggregateTest {
     result should equal(doubleValue(Long.MaxValue / 2))
   }
 
+  test("merges partial averages by their number of values") {
+    val result = mergeAggregatesOn(Seq(intValue(2), intValue(4)), Seq(), Seq(intValue(9), NO_VALUE))
+
+    result should equal(doubleValue(5.0))
+  }
+
+  test("merges partial duration averages") {
+    val result = mergeAggregatesOn(Seq(DurationValue.duration(0, 3, 0, 1)), Seq(DurationValue.duration(0, 2, 2, 1)))
+
+    result should equal(DurationValue.duration(0,2,12 * 3600 + 1, 1 ))
+  }
+
+  test("cantMergeDurationAndNumber") {
+    a[CypherTypeException] shouldBe thrownBy{
+      mergeAggregatesOn(Seq(DurationValue.duration(0, 0, 0, 1)), Seq(longValue(1)))
+    }
+  }
+
   test("onEmpty") {
     val result = aggregateOn()
 
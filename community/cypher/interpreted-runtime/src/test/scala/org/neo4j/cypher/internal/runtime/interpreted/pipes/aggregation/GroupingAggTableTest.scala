@@ -23,10 +23,12 @@ import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.ResourceManager
 import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.CountStar
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Max
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Variable
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.CommunityCypherRowFactory
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
 import org.neo4j.cypher.internal.util.attribution.Id
 import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
 import org.neo4j.kernel.impl.util.collection.HeapTrackingOrderedAppendMap
@@ -34,6 +36,39 @@ import org.neo4j.values.storable.Values
 
 class GroupingAggTableTest extends CypherFunSuite {
 
+  private def newTable(state: QueryState) = new GroupingAggTable(
+    Array(DistinctPipe.GroupingCol("a", Variable("a"))),
+    { case (row, _) => row.getByName("a")},
+    Array(AggregationPipe.AggregatingCol("c", CountStar()), AggregationPipe.AggregatingCol("m", Max(Variable("b")))),
+    state,
+    CommunityCypherRowFactory(),
+    Id(0))
+
+  test("merge should combine groups of both tables") {
+    // given
+    val state = QueryStateHelper.emptyWithResourceManager(new ResourceManager)
+    val table = newTable(state)
+    val other = newTable(state)
+    table.clear()
+    other.clear()
+
+    table.processRow(CypherRow.from("a" -> Values.intValue(1), "b" -> Values.intValue(10)))
+    table.processRow(CypherRow.from("a" -> Values.intValue(2), "b" -> Values.intValue(20)))
+    other.processRow(CypherRow.from("a" -> Values.intValue(2), "b" -> Values.intValue(25)))
+    other.processRow(CypherRow.from("a" -> Values.intValue(3), "b" -> Values.intValue(30)))
+    other.processRow(CypherRow.from("a" -> Values.intValue(3), "b" -> Values.NO_VALUE))
+
+    // when
+    table.merge(other)
+
+    // then
+    val result = table.result().map(row => (row.getByName("a"), row.getByName("c"), row.getByName("m"))).toList
+    result should contain theSameElementsAs Seq(
+      (Values.intValue(1), Values.longValue(1), Values.intValue(10)),
+      (Values.intValue(2), Values.longValue(2), Values.intValue(25)),
+      (Values.intValue(3), Values.longValue(2), Values.intValue(30)))
+  }
+
   test("close should close table") {
     // given
     val monitor = QueryStateHelper.trackClosedMonitor
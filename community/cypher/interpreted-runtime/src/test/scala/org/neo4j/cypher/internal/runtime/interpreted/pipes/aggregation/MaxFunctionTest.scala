@@ -38,6 +38,12 @@ class MaxFunctionTest extends CypherFunSuite with AggregateTest {
     result shouldBe an[IntValue]
   }
 
+  test("merges partial maximums") {
+    val result = mergeAggregatesOn(Seq(stringValue("a"), stringValue("b")), Seq(), Seq(stringValue("abc"), Values.NO_VALUE))
+
+    result should equal(stringValue("b"))
+  }
+
   test("singleValueOfDecimalReturnsDecimal") {
     val result = aggregateOn(doubleValue(1.0d))
 
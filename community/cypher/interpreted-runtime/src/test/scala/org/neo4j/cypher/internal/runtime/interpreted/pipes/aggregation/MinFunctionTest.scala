@@ -35,6 +35,12 @@ class MinFunctionTest extends CypherFunSuite with AggregateTest {
     result shouldBe an [IntValue]
   }
 
+  test("merges partial minimums") {
+    val result = mergeAggregatesOn(Seq(intValue(3), doubleValue(2.0d)), Seq(Values.NO_VALUE), Seq(intValue(1), intValue(4)), Seq())
+
+    result should equal(intValue(1))
+  }
+
   test("singleValueOfDecimalReturnsDecimal") {
     val result = aggregateOn(doubleValue(1.0d))
 
@@ -43,6 +43,19 @@ class SumFunctionTest extends CypherFunSuite with AggregateTest {
     result shouldBe a [LongValue]
   }
 
+  test("merges partial sums") {
+    val result = mergeAggregatesOn(Seq(longValue(1), longValue(2)), Seq(), Seq(longValue(3), NO_VALUE))
+
+    result should equal(longValue(6))
+    result shouldBe a [LongValue]
+  }
+
+  test("merging no partial sums equals zero") {
+    val result = mergeAggregatesOn(Seq(), Seq(NO_VALUE))
+
+    result should equal(intValue(0))
+  }
+
   test("singleValueReturnsThatDuration") {
     val durationValue = DurationValue.duration(0, 0, 0, 1)
     val result = aggregateOn(durationValue)
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.time.LocalDate
+import java.time.ZoneId
+import java.time.ZonedDateTime
+
+import org.mockito.ArgumentMatchers.anyLong
+import org.mockito.Mockito.when
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.CommunityCypherRowFactory
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.CoordinateReferenceSystem
+import org.neo4j.values.storable.DateTimeValue
+import org.neo4j.values.storable.DateValue
+import org.neo4j.values.storable.DurationValue
+import org.neo4j.values.storable.LocalTimeValue
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.NodeValue
+import org.neo4j.values.virtual.RelationshipValue
+import org.neo4j.values.virtual.VirtualValues
+
+class SpillRowCodecTest extends CypherFunSuite {
+
+  private val query = mock[QueryContext]
+  private val node1 = VirtualValues.nodeValue(1, Values.stringArray("A"), VirtualValues.EMPTY_MAP)
+  private val node2 = VirtualValues.nodeValue(2, Values.stringArray(), VirtualValues.EMPTY_MAP)
+  private val relationship = VirtualValues.relationshipValue(3, node1, node2, Values.stringValue("R"), VirtualValues.EMPTY_MAP)
+
+  when(query.nodeById(anyLong())).thenAnswer(invocation => invocation.getArgument[Long](0) match {
+    case 1 => node1
+    case 2 => node2
+  })
+  when(query.relationshipById(3)).thenReturn(relationship)
+
+  private val values: Seq[AnyValue] = Seq(
+    Values.NO_VALUE,
+    Values.TRUE,
+    Values.longValue(Long.MinValue),
+    Values.longValue(-1),
+    Values.intValue(42),
+    Values.shortValue(7),
+    Values.byteValue(-3),
+    Values.doubleValue(Math.PI),
+    Values.floatValue(1.5f),
+    Values.charValue('c'),
+    Values.stringValue("räksmörgås"),
+    Values.pointValue(CoordinateReferenceSystem.WGS84_3D, 12.0, 56.0, 100.0),
+    DateValue.date(LocalDate.of(1969, 12, 31)),
+    LocalTimeValue.localTime(12, 30, 15, 999),
+    DateTimeValue.datetime(ZonedDateTime.of(2020, 10, 18, 20, 30, 0, 5, ZoneId.of("Europe/Stockholm"))),
+    DurationValue.duration(14, -3, 3600, 42),
+    Values.longArray(Array(1L, -2L, Long.MaxValue)),
+    Values.stringArray("a", "b"),
+    Values.dateArray(Array(LocalDate.of(2000, 2, 29))),
+    node1,
+    relationship,
+    VirtualValues.path(Array[NodeValue](node1, node2), Array[RelationshipValue](relationship)),
+    VirtualValues.list(Values.intValue(1), VirtualValues.list(Values.stringValue("nested")), Values.NO_VALUE),
+    VirtualValues.map(Array("k1", "k2"), Array[AnyValue](Values.stringValue("v"), node2))
+  )
+
+  test("should read back every kind of value") {
+    for (value <- values) {
+      roundTrip(CypherRow.from("x" -> value)).getByName("x") should equal(value)
+    }
+  }
+
+  test("should read back several rows with several columns and line numbers") {
+    val codec = new SpillRowCodec
+    val rows = values.grouped(5).map(group => {
+      val row = CypherRow.from(group.zipWithIndex.map { case (value, i) => s"c$i" -> value }: _*)
+      row.setLinenumber("file.csv", 17, last = true)
+      row
+    }).toList
+
+    val bytes = new ByteArrayOutputStream()
+    val out = new DataOutputStream(bytes)
+    rows.foreach(row => codec.writeRow(row, out))
+    val in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray))
+    val readBack = rows.map(_ => codec.readRow(in, CommunityCypherRowFactory(), query))
+
+    readBack should equal(rows)
+    readBack.map(_.getLinenumber) should equal(rows.map(_.getLinenumber))
+    in.available() should equal(0)
+  }
+
+  private def roundTrip(row: CypherRow): CypherRow = {
+    val codec = new SpillRowCodec
+    val bytes = new ByteArrayOutputStream()
+    codec.writeRow(row, new DataOutputStream(bytes))
+    codec.readRow(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray)), CommunityCypherRowFactory(), query)
+  }
+}
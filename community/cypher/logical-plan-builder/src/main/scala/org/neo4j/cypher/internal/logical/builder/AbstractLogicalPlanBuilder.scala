@@ -81,6 +81,7 @@ import org.neo4j.cypher.internal.logical.plans.ExpandInto
 import org.neo4j.cypher.internal.logical.plans.ExpansionMode
 import org.neo4j.cypher.internal.logical.plans.FindShortestPaths
 import org.neo4j.cypher.internal.logical.plans.GetValueFromIndexBehavior
+import org.neo4j.cypher.internal.logical.plans.IndexAggregation
 import org.neo4j.cypher.internal.logical.plans.IndexLeafPlan
 import org.neo4j.cypher.internal.logical.plans.IndexOrder
 import org.neo4j.cypher.internal.logical.plans.IndexOrderNone
@@ -96,6 +97,7 @@ import org.neo4j.cypher.internal.logical.plans.LetSemiApply
 import org.neo4j.cypher.internal.logical.plans.Limit
 import org.neo4j.cypher.internal.logical.plans.LogicalPlan
 import org.neo4j.cypher.internal.logical.plans.ManySeekableArgs
+import org.neo4j.cypher.internal.logical.plans.MultiLabelNodeIndexSeek
 import org.neo4j.cypher.internal.logical.plans.MultiNodeIndexSeek
 import org.neo4j.cypher.internal.logical.plans.NestedPlanCollectExpression
 import org.neo4j.cypher.internal.logical.plans.NestedPlanExistsExpression
@@ -103,6 +105,7 @@ import org.neo4j.cypher.internal.logical.plans.NodeByIdSeek
 import org.neo4j.cypher.internal.logical.plans.NodeByLabelScan
 import org.neo4j.cypher.internal.logical.plans.NodeCountFromCountStore
 import org.neo4j.cypher.internal.logical.plans.NodeHashJoin
+import org.neo4j.cypher.internal.logical.plans.NodeIndexAggregation
 import org.neo4j.cypher.internal.logical.plans.NodeIndexSeek
 import org.neo4j.cypher.internal.logical.plans.NonFuseable
 import org.neo4j.cypher.internal.logical.plans.Optional
@@ -563,6 +566,12 @@ abstract class AbstractLogicalPlanBuilder[T, IMPL <: AbstractLogicalPlanBuilder[
     appendAtCurrentIndent(LeafOperator(NodeCountFromCountStore(node, labelNames, args.map(VariableParser.unescaped).toSet)(_)))
   }
 
+  def nodeIndexAggregation(name: String, label: String, property: String, aggregation: IndexAggregation, args: String*): IMPL = {
+    val labelToken = LabelToken(label, LabelId(resolver.getLabelId(label)))
+    val propertyToken = PropertyKeyToken(property, PropertyKeyId(resolver.getPropertyKeyId(property)))
+    appendAtCurrentIndent(LeafOperator(NodeIndexAggregation(name, labelToken, propertyToken, aggregation, args.map(VariableParser.unescaped).toSet)(_)))
+  }
+
   def relationshipCountFromCountStore(name: String, maybeStartLabel: Option[String], relTypes: Seq[String], maybeEndLabel: Option[String], args: String*): IMPL = {
     val startLabel = maybeStartLabel.map(labelName)
     val relTypeNames = relTypes.map(relTypeName)
@@ -603,6 +612,22 @@ abstract class AbstractLogicalPlanBuilder[T, IMPL <: AbstractLogicalPlanBuilder[
     planBuilder
   }
 
+  /**
+   * Seek an index on several labels, given as "x:A|B(prop = 42)". The predicates are written as for [[nodeIndexOperator]].
+   */
+  def multiLabelNodeIndexSeek(indexSeekString: String, argumentIds: Set[String] = Set.empty): IMPL = {
+    val labelsStart = indexSeekString.indexOf(':') + 1
+    val labelsEnd = indexSeekString.indexOf('(')
+    val labelNames = indexSeekString.substring(labelsStart, labelsEnd).split('|').map(_.trim).toSeq
+    val singleLabelSeekString = indexSeekString.substring(0, labelsStart) + labelNames.head + indexSeekString.substring(labelsEnd)
+    val labelTokens = labelNames.map(labelName => LabelToken(labelName, LabelId(resolver.getLabelId(labelName))))
+    val planBuilder = (idGen: IdGen) => {
+      val seek = indexSeek(singleLabelSeekString, argumentIds = argumentIds)(idGen).asInstanceOf[NodeIndexSeek]
+      MultiLabelNodeIndexSeek(seek.idName, labelTokens, seek.properties, seek.valueExpr, seek.argumentIds)(SameId(seek.id))
+    }
+    appendAtCurrentIndent(LeafOperator(planBuilder))
+  }
+
   def multiNodeIndexSeekOperator(seeks: (IMPL => IdGen => IndexLeafPlan)*): IMPL = {
     val planBuilder = (idGen: IdGen) => {
       MultiNodeIndexSeek(seeks.map(_(this)(idGen).asInstanceOf[IndexSeekLeafPlan]))(idGen)
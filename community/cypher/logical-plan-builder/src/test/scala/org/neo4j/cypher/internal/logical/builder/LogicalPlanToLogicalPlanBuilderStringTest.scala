@@ -32,6 +32,9 @@ import org.neo4j.cypher.internal.logical.plans.DoNotGetValue
 import org.neo4j.cypher.internal.logical.plans.ExpandAll
 import org.neo4j.cypher.internal.logical.plans.ExpandInto
 import org.neo4j.cypher.internal.logical.plans.GetValue
+import org.neo4j.cypher.internal.logical.plans.IndexCountDistinct
+import org.neo4j.cypher.internal.logical.plans.IndexMax
+import org.neo4j.cypher.internal.logical.plans.IndexMin
 import org.neo4j.cypher.internal.logical.plans.IndexOrderAscending
 import org.neo4j.cypher.internal.logical.plans.IndexOrderDescending
 import org.neo4j.cypher.internal.logical.plans.IndexOrderNone
@@ -506,6 +509,24 @@ class LogicalPlanToLogicalPlanBuilderStringTest extends CypherFunSuite with Test
       .nodeCountFromCountStore("x", Seq())
       .build())
 
+  testPlan("multiLabelNodeIndexSeek",
+    new TestPlanBuilder()
+      .produceResults("x", "y")
+      .apply()
+      .|.multiLabelNodeIndexSeek("y:Honey|Bee(prop = 20, prop2 = '20')", argumentIds = Set("x"))
+      .multiLabelNodeIndexSeek("x:Honey|Bee|Flower(prop = 10 OR 20)")
+      .build())
+
+  testPlan("nodeIndexAggregation",
+    new TestPlanBuilder()
+      .produceResults("x", "y")
+      .apply()
+      .|.nodeIndexAggregation("y", "Label", "prop", IndexCountDistinct, "x")
+      .apply()
+      .|.nodeIndexAggregation("y", "Label", "prop", IndexMax)
+      .nodeIndexAggregation("x", "Label", "prop", IndexMin)
+      .build())
+
   testPlan("detachDeleteNode",
     new TestPlanBuilder()
       .produceResults("x", "y")
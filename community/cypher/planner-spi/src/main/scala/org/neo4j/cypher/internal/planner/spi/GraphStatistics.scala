@@ -64,6 +64,12 @@ trait GraphStatistics {
    * indexPropertyExistsSelectivity(:X, prop) = s => |MATCH (a:X)| * s = |MATCH (a:X) WHERE has(x.prop)|
    */
   def indexPropertyExistsSelectivity(index: IndexDescriptor): Option[Selectivity]
+
+  /**
+   * Distribution of the values in the index, used to estimate predicates which compare the property with a known value.
+   * Only indexes that have been sampled by a sampler that builds histograms have one.
+   */
+  def indexValueHistogram(index: IndexDescriptor): Option[ValueHistogram] = None
 }
 
 class DelegatingGraphStatistics(delegate: GraphStatistics) extends GraphStatistics {
@@ -79,5 +85,8 @@ class DelegatingGraphStatistics(delegate: GraphStatistics) extends GraphStatisti
   override def indexPropertyExistsSelectivity(index: IndexDescriptor): Option[Selectivity] =
     delegate.indexPropertyExistsSelectivity(index)
 
+  override def indexValueHistogram(index: IndexDescriptor): Option[ValueHistogram] =
+    delegate.indexValueHistogram(index)
+
   override def nodesAllCardinality(): Cardinality = delegate.nodesAllCardinality()
 }
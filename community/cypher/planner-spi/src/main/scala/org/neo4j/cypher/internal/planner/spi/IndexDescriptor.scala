@@ -69,7 +69,8 @@ case class IndexDescriptor(label: LabelId,
                            behaviours: Set[IndexBehaviour] = Set.empty[IndexBehaviour],
                            orderCapability: OrderCapability = IndexDescriptor.noOrderCapability,
                            valueCapability: ValueCapability = IndexDescriptor.noValueCapability,
-                           isUnique: Boolean = false) {
+                           isUnique: Boolean = false,
+                           filter: Option[IndexFilter] = None) {
   val isComposite: Boolean = properties.length > 1
 
   def property: PropertyKeyId = if (isComposite) throw new IllegalArgumentException("Cannot get single property of multi-property index") else properties.head
@@ -83,12 +84,19 @@ case class IndexDescriptor(label: LabelId,
       (that canEqual this) &&
         label == that.label &&
         properties == that.properties &&
-        behaviours == that.behaviours
+        behaviours == that.behaviours &&
+        filter == that.filter
     case _ => false
   }
 
   override def hashCode(): Int = {
-    val state = Seq(label, properties, behaviours)
+    val state = Seq(label, properties, behaviours, filter)
     state.map(_.hashCode()).foldLeft(0)((a, b) => 31 * a + b)
   }
 }
+
+/**
+ * An index on the nodes that have any of `labels`. Such an index holds each node once, whichever of the labels it has,
+ * so it answers seeks for a disjunction of exactly these labels.
+ */
+case class MultiLabelIndexDescriptor(labels: Seq[LabelId], properties: Seq[PropertyKeyId])
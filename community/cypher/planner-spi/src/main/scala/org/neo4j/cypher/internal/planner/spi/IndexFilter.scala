@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.planner.spi
+
+import org.neo4j.cypher.internal.expressions.AutoExtractedParameter
+import org.neo4j.cypher.internal.expressions.Equals
+import org.neo4j.cypher.internal.expressions.Expression
+import org.neo4j.cypher.internal.expressions.In
+import org.neo4j.cypher.internal.expressions.ListLiteral
+import org.neo4j.cypher.internal.expressions.LiteralExtractor
+import org.neo4j.cypher.internal.expressions.LiteralWriter
+import org.neo4j.cypher.internal.expressions.Property
+import org.neo4j.cypher.internal.expressions.PropertyKeyName
+import org.neo4j.cypher.internal.expressions.Variable
+
+/**
+ * The filter of a partial index. Such an index only contains the entities where `propertyKey` equals `value`,
+ * so it can only answer queries that themselves only ask for such entities.
+ *
+ * @param propertyKey the name of the filter property.
+ * @param value the value of the filter property, as a String, Long, Double or Boolean.
+ */
+case class IndexFilter(propertyKey: String, value: AnyRef) {
+
+  /**
+   * @return true if one of the predicates requires the property `propertyKey` of `variable` to be equal to `value`.
+   *         Auto-extracted parameters count, since plans are cached per query text and hence per literal.
+   */
+  def isImpliedBy(variable: String, predicates: Iterable[Expression]): Boolean = predicates.exists {
+    case Equals(lhs, rhs) => isFilterProperty(variable, lhs) && matchesValue(rhs) || isFilterProperty(variable, rhs) && matchesValue(lhs)
+    // Equality predicates are rewritten to IN with a single element list before planning
+    case In(lhs, rhs) => isFilterProperty(variable, lhs) && matchesList(rhs)
+    case _ => false
+  }
+
+  private def isFilterProperty(variable: String, expression: Expression): Boolean = expression match {
+    case Property(Variable(`variable`), PropertyKeyName(`propertyKey`)) => true
+    case _ => false
+  }
+
+  private def matchesValue(expression: Expression): Boolean =
+    literalValues(expression).exists {
+      case IndexFilter.Scalar(v) => IndexFilter.sameValue(v, value)
+      case _ => false
+    }
+
+  private def matchesList(expression: Expression): Boolean =
+    literalValues(expression).exists {
+      case IndexFilter.ListOf(values) => values.nonEmpty && values.forall(IndexFilter.sameValue(_, value))
+      case _ => false
+    }
+
+  private def literalValues(expression: Expression): Option[IndexFilter.LiteralValue] = expression match {
+    case ListLiteral(items) => IndexFilter.listValue(items)
+    case writer: LiteralWriter => IndexFilter.literalValue(writer)
+    case p: AutoExtractedParameter => IndexFilter.literalValue(p.writer)
+    case _ => None
+  }
+}
+
+object IndexFilter {
+
+  private sealed trait LiteralValue
+  private case class Scalar(value: AnyRef) extends LiteralValue
+  private case class ListOf(values: Seq[AnyRef]) extends LiteralValue
+
+  private def sameValue(a: AnyRef, b: AnyRef): Boolean = (a, b) match {
+    case (x: java.lang.Long, y: java.lang.Long) => x == y
+    case (x: Number, y: Number) => x.doubleValue() == y.doubleValue()
+    case _ => a == b
+  }
+
+  private def listValue(items: Seq[Expression]): Option[LiteralValue] = {
+    val values = items.map {
+      case writer: LiteralWriter => literalValue(writer)
+      case _ => None
+    }
+    if (values.forall(_.exists(_.isInstanceOf[Scalar]))) Some(ListOf(values.flatten.collect { case Scalar(v) => v })) else None
+  }
+
+  /**
+   * @return the value of a string, number or boolean literal, or of a flat list of those, or None for anything else.
+   */
+  private def literalValue(writer: LiteralWriter): Option[LiteralValue] = {
+    val values = Seq.newBuilder[AnyRef]
+    var depth = 0
+    var isList = false
+    var supported = true
+    writer.writeTo(new LiteralExtractor {
+      override def writeBoolean(value: Boolean): Unit = values += java.lang.Boolean.valueOf(value)
+      override def writeNull(): Unit = supported = false
+      override def writeString(value: String): Unit = values += value
+      override def writeDouble(value: Double): Unit = values += java.lang.Double.valueOf(value)
+      override def writeLong(value: Long): Unit = values += java.lang.Long.valueOf(value)
+      override def writeByteArray(value: Array[Byte]): Unit = supported = false
+      override def beginList(size: Int): Unit = {
+        if (depth > 0) supported = false
+        depth += 1
+        isList = true
+      }
+      override def endList(): Unit = depth -= 1
+    })
+    val result = values.result()
+    if (!supported) None
+    else if (isList) Some(ListOf(result))
+    else result.headOption.map(Scalar)
+  }
+}
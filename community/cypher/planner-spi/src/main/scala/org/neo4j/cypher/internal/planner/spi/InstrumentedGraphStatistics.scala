@@ -101,4 +101,7 @@ case class InstrumentedGraphStatistics(inner: GraphStatistics, snapshot: Mutable
   }
 
   override def nodesAllCardinality(): Cardinality = snapshot.map.getOrElseUpdate(NodesAllCardinality, inner.nodesAllCardinality().amount)
+
+  // Histograms change together with the unique value selectivity of the index, which is what decides if a plan is stale
+  override def indexValueHistogram(index: IndexDescriptor): Option[ValueHistogram] = inner.indexValueHistogram(index)
 }
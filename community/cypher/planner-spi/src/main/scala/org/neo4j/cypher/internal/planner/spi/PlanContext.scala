@@ -43,6 +43,11 @@ trait PlanContext extends TokenContext with ProcedureSignatureResolver {
    */
   def uniqueIndexesGetForLabel(labelId: Int): Iterator[IndexDescriptor]
 
+  /**
+   * Return all indexes on more than one label, where one of the labels is the given label
+   */
+  def multiLabelIndexesGetForLabel(labelId: Int): Iterator[MultiLabelIndexDescriptor]
+
   /**
    * Checks if an index exists (general or unique) for a given label
    */
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.planner.spi
+
+import org.neo4j.cypher.internal.logical.plans.Bound
+import org.neo4j.cypher.internal.util.Selectivity
+
+/**
+ * Distribution of the values in an index, as seen when the index was last sampled.
+ *
+ * Values are the planner representation of literals, i.e. `java.lang.Long`, `java.lang.Double` and `String`. All selectivities
+ * are relative to the entries in the index, and are `None` when the histogram doesn't know about values of that type.
+ */
+trait ValueHistogram {
+
+  /**
+   * Probability of an entry in the index to have the given value.
+   */
+  def equalitySelectivity(value: AnyRef): Option[Selectivity]
+
+  /**
+   * Probability of an entry in the index to have a value within the given bounds. At least one of the bounds has to be given.
+   */
+  def rangeSelectivity(lower: Option[Bound[AnyRef]], upper: Option[Bound[AnyRef]]): Option[Selectivity]
+
+  /**
+   * Probability of an entry in the index to have a string value starting with the given prefix.
+   */
+  def prefixSelectivity(prefix: String): Option[Selectivity]
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.spec.slotted
+
+import org.neo4j.cypher.internal.CommunityRuntimeContext
+import org.neo4j.cypher.internal.CommunitySlottedRuntime
+import org.neo4j.cypher.internal.runtime.spec.COMMUNITY
+import org.neo4j.cypher.internal.runtime.spec.interpreted.LegacyDbHitsTestBase
+import org.neo4j.cypher.internal.runtime.spec.slotted.CommunitySlottedSpecSuite.SIZE_HINT
+import org.neo4j.cypher.internal.runtime.spec.tests.AggregationTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.AllNodeScanTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.AllNodeScanWithOtherOperatorsTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.AntiConditionalApplyTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.AntiSemiApplyTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ApplyTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ArgumentTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ArrayIndexSupport
+import org.neo4j.cypher.internal.runtime.spec.tests.CachePropertiesTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.CartesianProductProvidedOrderTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.CartesianProductTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ConditionalApplyTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.DirectedRelationshipByIdSeekTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.DistinctTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.DropResultTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ExpandAllTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ExpandAllWithOtherOperatorsTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ExpandIntoTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ExpandIntoWithOtherOperatorsTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ExpressionTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ExpressionWithTxStateChangesTests
+import org.neo4j.cypher.internal.runtime.spec.tests.FilterTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.FullSupportMemoryManagementTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.FullSupportProfileMemoryTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.InputTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.LabelScanTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.LeftOuterHashJoinTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.LetAntiSemiApplyTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.LetSelectOrAntiSemiApplyTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.LetSelectOrSemiApplyTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.LetSemiApplyTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.LimitTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.MemoryDeallocationTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.MemoryManagementDisabledTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.MemoryManagementTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.MiscTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.MultiNodeIndexSeekTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.NestedPlanDbHitsTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.NestedPlanExpressionTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.NodeByIdSeekTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.NodeCountFromCountStoreTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.NodeHashJoinTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.NodeIndexContainsScanTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.NodeIndexEndsWithScanTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.NodeIndexPointDistanceSeekTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.NodeIndexScanTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.NodeIndexSeekRangeAndCompositeTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.NodeIndexSeekTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.NodeIndexStartsWithSeekTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.NodeLockingUniqueIndexSeekTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.NonParallelProfileRowsTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.OptionalExpandAllTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.OptionalExpandIntoTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.OptionalFailureTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.OptionalTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.OrderedAggregationTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.OrderedDistinctTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.PartialSortTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.PartialTop1TestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.PartialTopNTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ProcedureCallDbHitsTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ProcedureCallTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ProfileMemoryTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ProfileMemoryTrackingDisabledTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ProfileRowsTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ProjectEndpointsTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ProjectionTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ProvidedOrderTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.PruningVarLengthExpandTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ReactiveResultTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.RelationshipCountFromCountStoreTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.RightOuterHashJoinTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.RollupApplyTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.SelectOrAntiSemiApplyTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.SelectOrSemiApplyTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.SemiApplyTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ShortestPathTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.SkipTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.SortTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.SubscriberErrorTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ThreadUnsafeExpressionTests
+import org.neo4j.cypher.internal.runtime.spec.tests.TopTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.UndirectedRelationshipByIdSeekTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.UnionTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.UnwindTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ValueHashJoinTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.VarLengthExpandTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.WriteProcedureCallTestBase
+
+object CommunitySlottedSpecSuite {
+  val SIZE_HINT = 200
+}
+
+class CommunitySlottedAggregationTest extends AggregationTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedOrderedAggregationTest extends OrderedAggregationTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedAllNodeScanTest extends AllNodeScanTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+                                 with AllNodeScanWithOtherOperatorsTestBase[CommunityRuntimeContext]
+class CommunitySlottedCartesianProductTest extends CartesianProductTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedApplyTest extends ApplyTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedNodeByIdSeekTest extends NodeByIdSeekTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedDirectedRelationshipByIdSeekTest extends DirectedRelationshipByIdSeekTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedUndirectedRelationshipByIdSeekTest extends UndirectedRelationshipByIdSeekTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedNodeCountFromCountStoreTest extends NodeCountFromCountStoreTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime)
+class CommunitySlottedRelationshipCountFromCountStoreTest extends RelationshipCountFromCountStoreTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime)
+class CommunitySlottedExpandAllTest extends ExpandAllTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+                               with ExpandAllWithOtherOperatorsTestBase[CommunityRuntimeContext]
+class CommunitySlottedExpandIntoTest extends ExpandIntoTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+                                with ExpandIntoWithOtherOperatorsTestBase[CommunityRuntimeContext]
+class CommunitySlottedOptionalExpandAllTest extends OptionalExpandAllTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedOptionalExpandIntoTest extends OptionalExpandIntoTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedVarExpandAllTest extends VarLengthExpandTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedPruningVarExpandTest extends PruningVarLengthExpandTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedProjectEndpointsTest extends ProjectEndpointsTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedLabelScanTest extends LabelScanTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedNodeIndexScanTest extends NodeIndexScanTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedNodeIndexContainsScanTest extends NodeIndexContainsScanTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedNodeIndexStartsWithSeekTest extends NodeIndexStartsWithSeekTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedNodeIndexEndsWithScanTest extends NodeIndexEndsWithScanTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedNodeIndexSeekTest extends NodeIndexSeekTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+                                   with NodeIndexSeekRangeAndCompositeTestBase[CommunityRuntimeContext]
+                                   with NodeLockingUniqueIndexSeekTestBase[CommunityRuntimeContext]
+                                   with ArrayIndexSupport[CommunityRuntimeContext]
+class CommunitySlottedNodeIndexPointDistanceSeekTest extends NodeIndexPointDistanceSeekTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedMultiNodeIndexSeekTest extends MultiNodeIndexSeekTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedInputTest extends InputTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedPartialSortTest extends PartialSortTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedTopTest extends TopTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedSortTest extends SortTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedPartialTopNTest extends PartialTopNTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedPartialTop1Test extends PartialTop1TestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedFilterTest extends FilterTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedArgumentTest extends ArgumentTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedProjectionTest extends ProjectionTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedCachePropertiesTest extends CachePropertiesTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedUnwindTest extends UnwindTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedDistinctTest extends DistinctTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedOrderedDistinctTest extends OrderedDistinctTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedLimitTest extends LimitTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedSkipTest extends SkipTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedNodeHashJoinTest extends NodeHashJoinTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedValueHashJoinTest extends ValueHashJoinTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedRightOuterHashJoinTest extends RightOuterHashJoinTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedLeftOuterHashJoinTest extends LeftOuterHashJoinTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedReactiveResultsTest extends ReactiveResultTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime)
+class CommunitySlottedMiscTest extends MiscTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime)
+class CommunitySlottedOptionalTest extends OptionalTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+                              with OptionalFailureTestBase[CommunityRuntimeContext]
+class CommunitySlottedProvidedOrderTest extends ProvidedOrderTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+                                   with CartesianProductProvidedOrderTestBase[CommunityRuntimeContext]
+class CommunitySlottedProfileDbHitsTest extends LegacyDbHitsTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT, createsRelValueInExpand = true)
+                                   with ProcedureCallDbHitsTestBase[CommunityRuntimeContext]
+                                   with NestedPlanDbHitsTestBase[CommunityRuntimeContext]
+class CommunitySlottedProfileRowsTest extends ProfileRowsTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT, 1)
+                                 with NonParallelProfileRowsTestBase[CommunityRuntimeContext]
+class CommunitySlottedMemoryManagementTest extends MemoryManagementTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime)
+                                      with FullSupportMemoryManagementTestBase[CommunityRuntimeContext]
+class CommunitySlottedMemoryManagementDisabledTest extends MemoryManagementDisabledTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime)
+class CommunitySlottedMemoryDeallocationTest extends MemoryDeallocationTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT) {
+  // Uses the interpreted pipes, so memory is estimated as accurately as in the interpreted runtime
+  override protected def runtimeUsed: Runtime = Interpreted
+}
+class CommunitySlottedProfileMemoryTest extends ProfileMemoryTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime)
+                                   with FullSupportProfileMemoryTestBase[CommunityRuntimeContext]
+class CommunitySlottedProfileMemoryTrackingDisabledTest extends ProfileMemoryTrackingDisabledTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedSubscriberErrorTest extends SubscriberErrorTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime)
+
+class CommunitySlottedExpressionTest extends ExpressionTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime)
+                                with ThreadUnsafeExpressionTests[CommunityRuntimeContext]
+                                with ExpressionWithTxStateChangesTests[CommunityRuntimeContext]
+class CommunitySlottedProcedureCallTest extends ProcedureCallTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+                                   with WriteProcedureCallTestBase[CommunityRuntimeContext]
+class CommunitySlottedShortestPathTest extends ShortestPathTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedUnionTest extends UnionTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedSemiApplyTest extends SemiApplyTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedAntiSemiApplyTest extends AntiSemiApplyTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedLetAntiSemiApplyTest extends LetAntiSemiApplyTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedLetSemiApplyTest extends LetSemiApplyTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedConditionalApplyTest extends ConditionalApplyTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedAntiConditionalApplyTest extends AntiConditionalApplyTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+
+class CommunitySlottedSelectOrSemiApplyTest extends SelectOrSemiApplyTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedSelectOrAntiSemiApplyTest extends SelectOrAntiSemiApplyTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedLetSelectOrSemiApplyTest extends LetSelectOrSemiApplyTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedLetSelectOrAntiSemiApplyTest extends LetSelectOrAntiSemiApplyTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedNestedPlanExpressionTest extends NestedPlanExpressionTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedRollupApplyTest extends RollupApplyTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
+class CommunitySlottedDropResultTest extends DropResultTestBase(COMMUNITY.EDITION, CommunitySlottedRuntime, SIZE_HINT)
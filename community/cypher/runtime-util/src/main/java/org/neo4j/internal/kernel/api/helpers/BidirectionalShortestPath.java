@@ -0,0 +1,442 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.kernel.api.helpers;
+
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.api.map.primitive.MutableLongIntMap;
+import org.eclipse.collections.impl.factory.primitive.LongLists;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+import org.neo4j.collection.trackable.HeapTrackingCollections;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.internal.kernel.api.NodeCursor;
+import org.neo4j.internal.kernel.api.Read;
+import org.neo4j.internal.kernel.api.RelationshipTraversalCursor;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.storageengine.api.RelationshipSelection;
+
+import static org.neo4j.memory.HeapEstimator.sizeOf;
+
+/**
+ * Finds the shortest paths between two nodes with a breadth first search from both ends at the same time, always expanding the end
+ * with the smaller frontier. Works directly on kernel cursors: frontiers are arrays of node ids, and each end keeps the nodes it has
+ * seen in a primitive map pointing into flat arrays of the relationships they were reached through.
+ * <p>
+ * Relationships and nodes can be filtered while expanding. The node filter is applied to every node of a path, including both ends.
+ * Any predicate that needs to see a complete path can't be evaluated here.
+ */
+public class BidirectionalShortestPath
+{
+    private static final int NO_ENTRY = -1;
+    private static final int INITIAL_SIZE = 16;
+
+    private final Read read;
+    private final NodeCursor nodeCursor;
+    private final RelationshipTraversalCursor traversalCursor;
+    private final RelationshipSelection forward;
+    private final RelationshipSelection backward;
+    private final LongPredicate nodeFilter;
+    private final RelationshipFilter relationshipFilter;
+    private final int maxDepth;
+    private final MemoryTracker memoryTracker;
+
+    /**
+     * @param types the relationship types to traverse, or {@code null} for all types.
+     * @param direction direction of the relationships, seen from the start node.
+     * @param nodeFilter filter for the nodes of a path, or {@code null}.
+     * @param relationshipFilter filter for the relationships of a path, or {@code null}.
+     * @param maxDepth the maximum length of a path.
+     */
+    public BidirectionalShortestPath( Read read, NodeCursor nodeCursor, RelationshipTraversalCursor traversalCursor, int[] types, Direction direction,
+            LongPredicate nodeFilter, RelationshipFilter relationshipFilter, int maxDepth, MemoryTracker memoryTracker )
+    {
+        this.read = read;
+        this.nodeCursor = nodeCursor;
+        this.traversalCursor = traversalCursor;
+        this.forward = types == null ? RelationshipSelection.selection( direction ) : RelationshipSelection.selection( types, direction );
+        this.backward = types == null ? RelationshipSelection.selection( direction.reverse() )
+                                      : RelationshipSelection.selection( types, direction.reverse() );
+        this.nodeFilter = nodeFilter;
+        this.relationshipFilter = relationshipFilter;
+        this.maxDepth = maxDepth;
+        this.memoryTracker = memoryTracker;
+    }
+
+    /**
+     * @param single {@code true} to find one shortest path, {@code false} to find all paths of the shortest length.
+     * @return the paths found, or an empty list if the nodes aren't connected by a path of at most the maximum length.
+     */
+    public List<PathSteps> find( long start, long end, boolean single )
+    {
+        if ( nodeFilter != null && (!nodeFilter.test( start ) || !nodeFilter.test( end )) )
+        {
+            return Collections.emptyList();
+        }
+        if ( start == end )
+        {
+            return List.of( new PathSteps( new long[]{start}, new long[0], new int[0], new long[0] ) );
+        }
+
+        MemoryTracker scopedMemoryTracker = memoryTracker.getScopedMemoryTracker();
+        try
+        {
+            Side fromStart = new Side( start, forward, scopedMemoryTracker );
+            Side fromEnd = new Side( end, backward, scopedMemoryTracker );
+            MutableLongList meetings = LongLists.mutable.empty();
+            while ( fromStart.depth + fromEnd.depth < maxDepth && fromStart.frontierSize > 0 && fromEnd.frontierSize > 0 )
+            {
+                boolean expandStart = fromStart.frontierSize <= fromEnd.frontierSize;
+                Side side = expandStart ? fromStart : fromEnd;
+                Side other = expandStart ? fromEnd : fromStart;
+                expand( side, other, single, meetings );
+                if ( !meetings.isEmpty() )
+                {
+                    return paths( fromStart, fromEnd, meetings, single );
+                }
+            }
+            return Collections.emptyList();
+        }
+        finally
+        {
+            scopedMemoryTracker.close();
+        }
+    }
+
+    /**
+     * Expands all nodes of the frontier of {@code side} one step. Nodes reached that have been seen by {@code other} are added to
+     * {@code meetings}. When searching for a single path, the expansion stops at the first meeting.
+     */
+    private void expand( Side side, Side other, boolean single, MutableLongList meetings )
+    {
+        int level = side.depth + 1;
+        side.startLevel();
+        for ( int i = 0; i < side.frontierSize; i++ )
+        {
+            long node = side.frontier[i];
+            read.singleNode( node, nodeCursor );
+            if ( !nodeCursor.next() )
+            {
+                continue;
+            }
+            nodeCursor.relationships( traversalCursor, side.selection );
+            while ( traversalCursor.next() )
+            {
+                long next = traversalCursor.otherNodeReference();
+                long relationship = traversalCursor.relationshipReference();
+                int type = traversalCursor.type();
+                long source = traversalCursor.sourceNodeReference();
+                int slot = side.seen.getIfAbsent( next, NO_ENTRY );
+                boolean isNew = slot == NO_ENTRY;
+                if ( !isNew && (single || side.levels[slot] != level) )
+                {
+                    continue;
+                }
+                if ( relationshipFilter != null && !relationshipFilter.test( relationship, type, source, source == node ? next : node ) )
+                {
+                    continue;
+                }
+                if ( isNew )
+                {
+                    if ( nodeFilter != null && !nodeFilter.test( next ) )
+                    {
+                        continue;
+                    }
+                    slot = side.newSlot( next, level );
+                    if ( other.seen.containsKey( next ) )
+                    {
+                        meetings.add( next );
+                    }
+                }
+                side.addEntry( slot, relationship, type, source, node, next );
+                if ( single && !meetings.isEmpty() )
+                {
+                    return;
+                }
+            }
+        }
+        side.endLevel();
+    }
+
+    private static List<PathSteps> paths( Side fromStart, Side fromEnd, MutableLongList meetings, boolean single )
+    {
+        List<PathSteps> paths = new ArrayList<>();
+        for ( int i = 0; i < meetings.size(); i++ )
+        {
+            long meeting = meetings.get( i );
+            List<int[]> startHalves = new ArrayList<>();
+            List<int[]> endHalves = new ArrayList<>();
+            fromStart.halves( meeting, single, startHalves );
+            fromEnd.halves( meeting, single, endHalves );
+            for ( int[] startHalf : startHalves )
+            {
+                for ( int[] endHalf : endHalves )
+                {
+                    paths.add( path( fromStart, startHalf, fromEnd, reverse( endHalf ) ) );
+                }
+            }
+        }
+        return paths;
+    }
+
+    private static int[] reverse( int[] entries )
+    {
+        int[] reversed = new int[entries.length];
+        for ( int i = 0; i < entries.length; i++ )
+        {
+            reversed[i] = entries[entries.length - 1 - i];
+        }
+        return reversed;
+    }
+
+    /**
+     * @param startHalf entries from the start node to the meeting node.
+     * @param endHalf entries from the meeting node to the end node.
+     */
+    private static PathSteps path( Side fromStart, int[] startHalf, Side fromEnd, int[] endHalf )
+    {
+        int length = startHalf.length + endHalf.length;
+        long[] nodes = new long[length + 1];
+        long[] relationships = new long[length];
+        int[] types = new int[length];
+        long[] sources = new long[length];
+        for ( int i = 0; i < startHalf.length; i++ )
+        {
+            int entry = startHalf[i];
+            nodes[i] = fromStart.froms[entry];
+            relationships[i] = fromStart.relationships[entry];
+            types[i] = fromStart.types[entry];
+            sources[i] = fromStart.sources[entry];
+        }
+        for ( int i = 0; i < endHalf.length; i++ )
+        {
+            int entry = endHalf[i];
+            int step = startHalf.length + i;
+            nodes[step + 1] = fromEnd.froms[entry];
+            relationships[step] = fromEnd.relationships[entry];
+            types[step] = fromEnd.types[entry];
+            sources[step] = fromEnd.sources[entry];
+        }
+        // The meeting node
+        nodes[startHalf.length] = startHalf.length > 0 ? fromStart.targets[startHalf[startHalf.length - 1]] : fromStart.root;
+        return new PathSteps( nodes, relationships, types, sources );
+    }
+
+    @FunctionalInterface
+    public interface RelationshipFilter
+    {
+        boolean test( long relationship, int type, long source, long target );
+    }
+
+    /**
+     * A path found by the search, as the ids of its nodes and relationships in order from the start node to the end node.
+     */
+    public static final class PathSteps
+    {
+        private final long[] nodes;
+        private final long[] relationships;
+        private final int[] types;
+        private final long[] sources;
+
+        PathSteps( long[] nodes, long[] relationships, int[] types, long[] sources )
+        {
+            this.nodes = nodes;
+            this.relationships = relationships;
+            this.types = types;
+            this.sources = sources;
+        }
+
+        public int length()
+        {
+            return relationships.length;
+        }
+
+        public long node( int index )
+        {
+            return nodes[index];
+        }
+
+        public long relationship( int index )
+        {
+            return relationships[index];
+        }
+
+        public int type( int index )
+        {
+            return types[index];
+        }
+
+        /**
+         * @return the start node of the relationship at {@code index}, which is either {@code node(index)} or {@code node(index + 1)}.
+         */
+        public long source( int index )
+        {
+            return sources[index];
+        }
+
+        /**
+         * @return the end node of the relationship at {@code index}.
+         */
+        public long target( int index )
+        {
+            return sources[index] == nodes[index] ? nodes[index + 1] : nodes[index];
+        }
+
+        @Override
+        public String toString()
+        {
+            return "PathSteps{nodes=" + Arrays.toString( nodes ) + ", relationships=" + Arrays.toString( relationships ) + "}";
+        }
+    }
+
+    /**
+     * The search from one of the ends. Every seen node has a slot, holding the level it was first reached on and a chain of the
+     * entries it was reached through on that level. An entry is a relationship and the node it was followed from.
+     */
+    private static final class Side
+    {
+        private final long root;
+        private final RelationshipSelection selection;
+        private final MemoryTracker memoryTracker;
+        private final MutableLongIntMap seen;
+        private int depth;
+
+        private long[] frontier = new long[INITIAL_SIZE];
+        private int frontierSize;
+        private long[] nextFrontier = new long[INITIAL_SIZE];
+        private int nextFrontierSize;
+
+        private int[] levels = new int[INITIAL_SIZE];
+        private int[] heads = new int[INITIAL_SIZE];
+        private int slots;
+
+        private long[] relationships = new long[INITIAL_SIZE];
+        private int[] types = new int[INITIAL_SIZE];
+        private long[] sources = new long[INITIAL_SIZE];
+        private long[] froms = new long[INITIAL_SIZE];
+        private long[] targets = new long[INITIAL_SIZE];
+        private int[] nexts = new int[INITIAL_SIZE];
+        private int entries;
+
+        Side( long root, RelationshipSelection selection, MemoryTracker memoryTracker )
+        {
+            this.root = root;
+            this.selection = selection;
+            this.memoryTracker = memoryTracker;
+            this.seen = HeapTrackingCollections.newLongIntMap( memoryTracker );
+            memoryTracker.allocateHeap( 2 * sizeOf( frontier ) + 2 * sizeOf( levels ) + 5 * sizeOf( relationships ) + sizeOf( nexts ) );
+            newSlot( root, 0 );
+            frontier[0] = root;
+            frontierSize = 1;
+        }
+
+        void startLevel()
+        {
+            nextFrontierSize = 0;
+        }
+
+        void endLevel()
+        {
+            long[] swap = frontier;
+            frontier = nextFrontier;
+            frontierSize = nextFrontierSize;
+            nextFrontier = swap;
+            depth++;
+        }
+
+        int newSlot( long node, int level )
+        {
+            if ( slots == levels.length )
+            {
+                memoryTracker.allocateHeap( 2 * sizeOf( levels ) );
+                levels = Arrays.copyOf( levels, levels.length * 2 );
+                heads = Arrays.copyOf( heads, heads.length * 2 );
+            }
+            int slot = slots++;
+            levels[slot] = level;
+            heads[slot] = NO_ENTRY;
+            seen.put( node, slot );
+            if ( level > 0 )
+            {
+                if ( nextFrontierSize == nextFrontier.length )
+                {
+                    memoryTracker.allocateHeap( sizeOf( nextFrontier ) );
+                    nextFrontier = Arrays.copyOf( nextFrontier, nextFrontier.length * 2 );
+                }
+                nextFrontier[nextFrontierSize++] = node;
+            }
+            return slot;
+        }
+
+        void addEntry( int slot, long relationship, int type, long source, long from, long to )
+        {
+            if ( entries == relationships.length )
+            {
+                memoryTracker.allocateHeap( 5 * sizeOf( relationships ) + sizeOf( nexts ) );
+                int length = entries * 2;
+                relationships = Arrays.copyOf( relationships, length );
+                types = Arrays.copyOf( types, length );
+                sources = Arrays.copyOf( sources, length );
+                froms = Arrays.copyOf( froms, length );
+                targets = Arrays.copyOf( targets, length );
+                nexts = Arrays.copyOf( nexts, length );
+            }
+            int entry = entries++;
+            relationships[entry] = relationship;
+            types[entry] = type;
+            sources[entry] = source;
+            froms[entry] = from;
+            targets[entry] = to;
+            nexts[entry] = heads[slot];
+            heads[slot] = entry;
+        }
+
+        /**
+         * Collects the chains of entries leading from the root of this side to {@code node}, in order from the root.
+         */
+        void halves( long node, boolean single, List<int[]> halves )
+        {
+            int[] half = new int[levels[seen.get( node )]];
+            collect( node, half, half.length, single, halves );
+        }
+
+        private boolean collect( long node, int[] half, int remaining, boolean single, List<int[]> halves )
+        {
+            if ( remaining == 0 )
+            {
+                halves.add( half.clone() );
+                return true;
+            }
+            for ( int entry = heads[seen.get( node )]; entry != NO_ENTRY; entry = nexts[entry] )
+            {
+                half[remaining - 1] = entry;
+                if ( collect( froms[entry], half, remaining - 1, single, halves ) && single )
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,376 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime
+
+import java.util
+
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap
+import org.neo4j.cypher.internal.expressions.ASTCachedProperty
+import org.neo4j.exceptions.InternalException
+import org.neo4j.graphdb.NotFoundException
+import org.neo4j.memory.HeapEstimator.shallowSizeOfInstance
+import org.neo4j.memory.HeapEstimator.shallowSizeOfObjectArray
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Value
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.VirtualNodeValue
+import org.neo4j.values.virtual.VirtualRelationshipValue
+
+import scala.collection.mutable
+
+/**
+ * Assigns every variable of a query a fixed offset in the value array of an [[ArrayCypherRow]].
+ * Created once when the query is compiled and shared by all rows of the query.
+ *
+ * Rows only have room for the offsets they have been given values at, so variables should be given offsets in the order
+ * they are introduced by the plan. The rows of a pipe are then no longer than the number of variables it knows about.
+ */
+class RowSlots(val names: Array[String]) {
+  private val offsets: ObjectIntHashMap[String] = {
+    val map = new ObjectIntHashMap[String](names.length)
+    var i = 0
+    while (i < names.length) {
+      map.put(names(i), i)
+      i += 1
+    }
+    map
+  }
+
+  def numberOfSlots: Int = names.length
+
+  /**
+   * Only meant for when the query is compiled, or for variables the caller doesn't know the offset of.
+   * Expressions and pipes should look up the offsets of the variables they use once, when they are created.
+   *
+   * @return the offset of the variable, or -1 if it has no slot
+   */
+  def offsetOf(name: String): Int = offsets.getIfAbsent(name, -1)
+
+  override def toString: String = s"RowSlots(${names.mkString(", ")})"
+}
+
+object RowSlots {
+  def apply(names: Iterable[String]): RowSlots = new RowSlots(names.toArray.distinct)
+}
+
+object ArrayCypherRow {
+  private final val SHALLOW_SIZE = shallowSizeOfInstance(classOf[ArrayCypherRow])
+  private final val INITAL_SIZE_OF_MUTABLE_MAP = shallowSizeOfInstance(classOf[mutable.OpenHashMap[_,_]]) + shallowSizeOfObjectArray(8)
+
+  private final val NO_REFS = new Array[AnyValue](0)
+
+  def empty(slots: RowSlots): ArrayCypherRow = new ArrayCypherRow(slots, NO_REFS, null, null)
+}
+
+/**
+ * A [[CypherRow]] which keeps its values in an array, at the offsets given by [[RowSlots]] allocated when the query was compiled.
+ * Reading or writing a variable is an array access, and copying a row is an array copy instead of rehashing every entry into a
+ * new map. The array only reaches up to the highest offset that has been set, and grows as values are set at higher offsets.
+ * Variables without a slot, which should be rare, are kept in a map on the side.
+ */
+class ArrayCypherRow(val slots: RowSlots,
+                     private var refs: Array[AnyValue],
+                     private var overflow: mutable.Map[String, AnyValue],
+                     private var cachedProperties: mutable.Map[ASTCachedProperty, Value])
+  extends CypherRow {
+
+  override def copyAllFrom(input: ReadableRow): Unit = fail()
+
+  override def copyFrom(input: ReadableRow, nLongs: Int, nRefs: Int): Unit = fail()
+
+  override def copyFromOffset(input: ReadableRow, sourceLongOffset: Int, sourceRefOffset: Int, targetLongOffset: Int, targetRefOffset: Int): Unit = fail()
+
+  //used for testing
+  def toMap: Map[String, AnyValue] = {
+    val builder = Map.newBuilder[String, AnyValue]
+    var i = 0
+    while (i < refs.length) {
+      if (refs(i) != null) {
+        builder += slots.names(i) -> refs(i)
+      }
+      i += 1
+    }
+    if (overflow != null) {
+      builder ++= overflow
+    }
+    builder.result()
+  }
+
+  override def getByName(name: String): AnyValue = {
+    val value = get(name)
+    if (value == null) {
+      throw new NotFoundException(s"Unknown variable `$name`.")
+    }
+    value
+  }
+
+  override def containsName(name: String): Boolean = get(name) != null
+
+  override def numberOfColumns: Int = {
+    var count = if (overflow == null) 0 else overflow.size
+    var i = 0
+    while (i < refs.length) {
+      if (refs(i) != null) {
+        count += 1
+      }
+      i += 1
+    }
+    count
+  }
+
+  override def setLongAt(offset: Int, value: Long): Unit = fail()
+  override def getLongAt(offset: Int): Long = fail()
+
+  override def setRefAt(offset: Int, value: AnyValue): Unit = {
+    ensureLength(offset + 1)
+    refs(offset) = value
+  }
+
+  /**
+   * @return the value at the offset, or null if it has not been set
+   */
+  override def getRefAt(offset: Int): AnyValue = if (offset < refs.length) refs(offset) else null
+
+  private def fail(): Nothing = throw new InternalException("Tried using an array context as a slotted context with long slots")
+
+  override def mergeWith(other: ReadableRow, entityById: EntityById): Unit = other match {
+    case otherRow: ArrayCypherRow =>
+      if (otherRow.slots eq slots) {
+        ensureLength(otherRow.refs.length)
+        var i = 0
+        while (i < otherRow.refs.length) {
+          val value = otherRow.refs(i)
+          if (value != null) {
+            refs(i) = value
+          }
+          i += 1
+        }
+        if (otherRow.overflow != null) {
+          otherRow.overflow.foreach { case (key, value) => set(key, value) }
+        }
+      } else {
+        otherRow.toMap.foreach { case (key, value) => set(key, value) }
+      }
+      if (otherRow.cachedProperties != null) {
+        if (cachedProperties == null) {
+          cachedProperties = otherRow.cachedProperties.clone()
+        } else {
+          cachedProperties ++= otherRow.cachedProperties
+        }
+      }
+      setLinenumber(otherRow.getLinenumber)
+    case _ => fail()
+  }
+
+  override def set(newEntries: Seq[(String, AnyValue)]): Unit =
+    newEntries.foreach { case (key, value) => set(key, value) }
+
+  override def set(key: String, value: AnyValue): Unit = set(slots.offsetOf(key), key, value)
+
+  override def set(key1: String, value1: AnyValue, key2: String, value2: AnyValue): Unit = {
+    set(key1, value1)
+    set(key2, value2)
+  }
+
+  override def set(key1: String, value1: AnyValue, key2: String, value2: AnyValue, key3: String, value3: AnyValue): Unit = {
+    set(key1, value1)
+    set(key2, value2)
+    set(key3, value3)
+  }
+
+  override def copyWith(key: String, value: AnyValue): CypherRow = {
+    val offset = slots.offsetOf(key)
+    val row = createClone(offset + 1)
+    row.set(offset, key, value)
+    row
+  }
+
+  override def copyWith(key1: String, value1: AnyValue, key2: String, value2: AnyValue): CypherRow = {
+    val offset1 = slots.offsetOf(key1)
+    val offset2 = slots.offsetOf(key2)
+    val row = createClone(math.max(offset1, offset2) + 1)
+    row.set(offset1, key1, value1)
+    row.set(offset2, key2, value2)
+    row
+  }
+
+  override def copyWith(key1: String, value1: AnyValue,
+                        key2: String, value2: AnyValue,
+                        key3: String, value3: AnyValue): CypherRow = {
+    val offset1 = slots.offsetOf(key1)
+    val offset2 = slots.offsetOf(key2)
+    val offset3 = slots.offsetOf(key3)
+    val row = createClone(math.max(math.max(offset1, offset2), offset3) + 1)
+    row.set(offset1, key1, value1)
+    row.set(offset2, key2, value2)
+    row.set(offset3, key3, value3)
+    row
+  }
+
+  override def copyWith(newEntries: Seq[(String, AnyValue)]): CypherRow = {
+    val offsets = newEntries.map(entry => slots.offsetOf(entry._1))
+    val row = createClone(offsets.foldLeft(0)((length, offset) => math.max(length, offset + 1)))
+    offsets.zip(newEntries).foreach { case (offset, (key, value)) => row.set(offset, key, value) }
+    row
+  }
+
+  private def set(offset: Int, key: String, value: AnyValue): Unit = {
+    if (offset >= 0) {
+      setRefAt(offset, value)
+    } else {
+      if (overflow == null) {
+        overflow = MutableMaps.empty
+      }
+      overflow.put(key, value)
+    }
+  }
+
+  override def createClone(): ArrayCypherRow = createClone(0)
+
+  /**
+   * @param minLength number of slots the copy should have room for, to not have to grow it right away when setting new values.
+   */
+  private def createClone(minLength: Int): ArrayCypherRow = {
+    val newOverflow = if (overflow == null) null else overflow.clone()
+    val newCachedProperties = if (cachedProperties == null) null else cachedProperties.clone()
+    val newRefs =
+      if (minLength > refs.length) util.Arrays.copyOf(refs, minLength)
+      else if (refs.length == 0) refs
+      else refs.clone()
+    val row = new ArrayCypherRow(slots, newRefs, newOverflow, newCachedProperties)
+    row.setLinenumber(getLinenumber)
+    row
+  }
+
+  private def ensureLength(length: Int): Unit = {
+    if (length > refs.length) {
+      refs = util.Arrays.copyOf(refs, length)
+    }
+  }
+
+  override def isNull(key: String): Boolean = get(key) eq Values.NO_VALUE
+
+  override def foreachEntry(f: (String, AnyValue) => Unit): Unit = {
+    var i = 0
+    while (i < refs.length) {
+      if (refs(i) != null) {
+        f(slots.names(i), refs(i))
+      }
+      i += 1
+    }
+    if (overflow != null) {
+      overflow.foreach { case (key, value) => f(key, value) }
+    }
+  }
+
+  override def setCachedProperty(key: ASTCachedProperty, value: Value): Unit = {
+    if (cachedProperties == null) {
+      cachedProperties = mutable.Map.empty
+    }
+    cachedProperties.put(key, value)
+  }
+
+  override def setCachedPropertyAt(offset: Int, value: Value): Unit = fail()
+
+  override def getCachedProperty(key: ASTCachedProperty): Value = {
+    if (cachedProperties == null) {
+      null
+    } else {
+      cachedProperties.getOrElse(key, null)
+    }
+  }
+
+  override def getCachedPropertyAt(offset: Int): Value = fail()
+
+  override def invalidateCachedNodeProperties(node: Long): Unit = {
+    if (cachedProperties != null) {
+      cachedProperties.keys.filter(cnp => getByName(cnp.entityName) match {
+        case n: VirtualNodeValue => n.id() == node
+        case _ => false
+      }).foreach(cnp => setCachedProperty(cnp, null))
+    }
+  }
+
+  override def invalidateCachedRelationshipProperties(rel: Long): Unit = {
+    if (cachedProperties != null) {
+      cachedProperties.keys.filter(cnp => getByName(cnp.entityName) match {
+        case r: VirtualRelationshipValue => r.id() == rel
+        case _ => false
+      }).foreach(cnp => setCachedProperty(cnp, null))
+    }
+  }
+
+  override def estimatedHeapUsage: Long = {
+    var total = ArrayCypherRow.SHALLOW_SIZE + shallowSizeOfObjectArray(refs.length)
+    var i = 0
+    while (i < refs.length) {
+      val value = refs(i)
+      if (value != null) {
+        total += value.estimatedHeapUsage()
+      }
+      i += 1
+    }
+    if (overflow != null) {
+      total += ArrayCypherRow.INITAL_SIZE_OF_MUTABLE_MAP
+      val iterator = overflow.valuesIterator
+      while (iterator.hasNext) {
+        val value = iterator.next()
+        if (value != null) {
+          total += value.estimatedHeapUsage()
+        }
+      }
+    }
+    if (cachedProperties != null) {
+      total += ArrayCypherRow.INITAL_SIZE_OF_MUTABLE_MAP
+      val iterator = cachedProperties.valuesIterator
+      while (iterator.hasNext) {
+        val value = iterator.next()
+        if (value != null) {
+          total += value.estimatedHeapUsage()
+        }
+      }
+    }
+    total
+  }
+
+  private def get(name: String): AnyValue = {
+    val offset = slots.offsetOf(name)
+    if (offset >= 0) {
+      getRefAt(offset)
+    } else if (overflow != null) {
+      overflow.getOrElse(name, null)
+    } else {
+      null
+    }
+  }
+
+  def canEqual(other: Any): Boolean = other.isInstanceOf[ArrayCypherRow]
+
+  override def equals(other: Any): Boolean = other match {
+    case that: ArrayCypherRow =>
+      (that canEqual this) &&
+        toMap == that.toMap
+    case _ => false
+  }
+
+  override def hashCode(): Int = toMap.hashCode()
+
+  override def toString: String = s"ArrayExecutionContext(m=$toMap, cached=$cachedProperties)"
+}
@@ -64,6 +64,11 @@ trait CypherRow extends ReadWriteRow with Measurable {
 
   def isNull(key: String): Boolean
 
+  /**
+   * Calls `f` with the name and value of every variable set in this row.
+   */
+  def foreachEntry(f: (String, AnyValue) => Unit): Unit
+
   private var linenumber: Option[ResourceLinenumber] = None
 
   override def setLinenumber(file: String, line: Long, last: Boolean = false): Unit = {
@@ -175,6 +180,10 @@ class MapCypherRow(private val m: mutable.Map[String, AnyValue], private var cac
 
   override def createClone(): CypherRow = cloneFromMap(m.clone())
 
+  override def foreachEntry(f: (String, AnyValue) => Unit): Unit = m.foreach {
+    case (key, value) => f(key, value)
+  }
+
   override def isNull(key: String): Boolean =
     m.get(key) match {
       case Some(v) if v eq Values.NO_VALUE => true
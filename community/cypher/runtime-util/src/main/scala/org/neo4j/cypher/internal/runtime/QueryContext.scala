@@ -148,6 +148,13 @@ trait QueryContext extends TokenContext with DbAccess {
                                   needsValues: Boolean,
                                   indexOrder: IndexOrder): NodeValueIndexCursor
 
+  /**
+   * Scan of an index where only the indexed values matter. The index may skip all but one entry of every distinct value,
+   * but doesn't have to, so the values still need to be deduplicated.
+   */
+  def indexScanDistinct[RESULT <: AnyRef](index: IndexReadSession,
+                                          indexOrder: IndexOrder): NodeValueIndexCursor
+
   def lockingUniqueIndexSeek[RESULT](index: IndexDescriptor, queries: Seq[IndexQuery.ExactPredicate]): NodeValueIndexCursor
 
   def getNodesByLabel(id: Int, indexOrder: IndexOrder): ClosingIterator[NodeValue]
@@ -367,6 +374,18 @@ trait KernelPredicate[T] {
   def test(obj: T): Boolean
 }
 
+object KernelPredicate {
+  private val ACCEPT_ALL = new KernelPredicate[Any] {
+    override def test(obj: Any): Boolean = true
+  }
+
+  /**
+   * Accepts everything. Used as the path predicate of a shortest path search it tells the query context that no path will be
+   * rejected, which allows it to use a faster search that returns the first shortest paths it finds.
+   */
+  def acceptAll[T]: KernelPredicate[T] = ACCEPT_ALL.asInstanceOf[KernelPredicate[T]]
+}
+
 trait Expander {
   def addRelationshipFilter(newFilter: KernelPredicate[Entity]): Expander
   def addNodeFilter(newFilter: KernelPredicate[Entity]): Expander
@@ -44,8 +44,14 @@ class QueryIndexRegistrator(schemaRead: SchemaRead) {
   def registerQueryIndex(label: LabelToken, property: IndexedProperty): Int = registerQueryIndex(label, Seq(property))
 
   def registerQueryIndex(label: LabelToken,
+                         properties: Seq[IndexedProperty]): Int = registerQueryIndex(Seq(label), properties)
+
+  /**
+   * Register the index on all of the given labels, such as the index of a [[org.neo4j.cypher.internal.logical.plans.MultiLabelNodeIndexSeek]].
+   */
+  def registerQueryIndex(labels: Seq[LabelToken],
                          properties: Seq[IndexedProperty]): Int = {
-    val reference = InternalIndexReference(label.nameId.id, properties.map(_.propertyKeyToken.nameId.id))
+    val reference = InternalIndexReference(labels.map(_.nameId.id), properties.map(_.propertyKeyToken.nameId.id))
     val index = buffer.indexOf(reference)
     if ( index > 0 ) index
     else {
@@ -58,12 +64,12 @@ class QueryIndexRegistrator(schemaRead: SchemaRead) {
   def result(): QueryIndexes = {
     val indexes =
       buffer.flatMap(index => schemaRead.indexForSchemaNonTransactional(
-        SchemaDescriptor.forLabel(index.label, index.properties: _*)).asScala).toArray
+        SchemaDescriptor.forAnyLabel(index.labels.toArray, index.properties: _*)).asScala).toArray
 
     QueryIndexes(labelScan, indexes)
   }
 
-  private case class InternalIndexReference(label: Int, properties: Seq[Int])
+  private case class InternalIndexReference(labels: Seq[Int], properties: Seq[Int])
 }
 
 case class QueryIndexes(private val hasLabelScan: Boolean,
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime
+
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.graphdb.NotFoundException
+import org.neo4j.values.storable.Values.NO_VALUE
+import org.neo4j.values.storable.Values.intValue
+import org.neo4j.values.storable.Values.stringValue
+
+class ArrayCypherRowTest extends CypherFunSuite {
+
+  private val slots = RowSlots(Seq("a", "b", "c"))
+
+  test("should get values that were set, both in slots and outside of them") {
+    val row = ArrayCypherRow.empty(slots)
+    row.set("a", intValue(1), "x", intValue(2))
+
+    row.getByName("a") should equal(intValue(1))
+    row.getByName("x") should equal(intValue(2))
+    row.getRefAt(slots.offsetOf("a")) should equal(intValue(1))
+    row.containsName("b") should be(false)
+    row.numberOfColumns should equal(2)
+  }
+
+  test("should fail to get unknown variables") {
+    val row = ArrayCypherRow.empty(slots)
+
+    a[NotFoundException] should be thrownBy row.getByName("a")
+    a[NotFoundException] should be thrownBy row.getByName("unknown")
+  }
+
+  test("copies should not affect the original row") {
+    val row = ArrayCypherRow.empty(slots)
+    row.set("a", intValue(1))
+
+    val copy = row.copyWith("b", intValue(2), "y", intValue(3))
+    copy.set("a", intValue(4))
+
+    row.toMap should equal(Map("a" -> intValue(1)))
+    copy.getByName("a") should equal(intValue(4))
+    copy.getByName("b") should equal(intValue(2))
+    copy.getByName("y") should equal(intValue(3))
+  }
+
+  test("should merge set values of other row") {
+    val row = ArrayCypherRow.empty(slots)
+    row.set("a", intValue(1), "b", intValue(2))
+    val other = ArrayCypherRow.empty(slots)
+    other.set("b", intValue(3), "c", intValue(4), "z", intValue(5))
+
+    row.mergeWith(other, null)
+
+    row.toMap should equal(Map("a" -> intValue(1), "b" -> intValue(3), "c" -> intValue(4), "z" -> intValue(5)))
+  }
+
+  test("should only consider NO_VALUE as null") {
+    val row = ArrayCypherRow.empty(slots)
+    row.set("a", NO_VALUE, "b", stringValue("b"))
+
+    row.isNull("a") should be(true)
+    row.isNull("b") should be(false)
+    row.isNull("c") should be(false)
+  }
+
+  test("rows should only have room for the variables set in them") {
+    val manySlots = RowSlots((0 until 100).map(i => s"v$i"))
+    val fewSlots = RowSlots(Seq("v0", "v1"))
+
+    val row = ArrayCypherRow.empty(manySlots).copyWith("v0", intValue(1)).copyWith("v1", intValue(2))
+
+    row.estimatedHeapUsage should equal(ArrayCypherRow.empty(fewSlots).copyWith("v0", intValue(1), "v1", intValue(2)).estimatedHeapUsage)
+    row.getRefAt(manySlots.offsetOf("v99")) should be(null)
+  }
+
+  test("rows should grow when variables are set at higher offsets") {
+    val manySlots = RowSlots((0 until 100).map(i => s"v$i"))
+    val row = ArrayCypherRow.empty(manySlots)
+    row.set("v1", intValue(1))
+
+    val copy = row.copyWith("v99", intValue(99))
+    copy.setRefAt(manySlots.offsetOf("v50"), intValue(50))
+
+    Seq("v1", "v50", "v99").map(copy.getByName) should equal(Seq(intValue(1), intValue(50), intValue(99)))
+    copy.containsName("v2") should be(false)
+    row.containsName("v50") should be(false)
+    row.containsName("v99") should be(false)
+  }
+
+  test("rows with the same values should be equal") {
+    val row = ArrayCypherRow.empty(slots)
+    row.set("a", intValue(1), "x", intValue(2))
+
+    row.createClone() should equal(row)
+    row.createClone().hashCode() should equal(row.hashCode())
+    row.copyWith("b", intValue(3)) should not equal row
+  }
+}
@@ -210,6 +210,8 @@ object StaticEvaluation {
 
     override def indexScan[RESULT <: AnyRef](index: IndexReadSession, needsValues: Boolean, indexOrder: IndexOrder): NodeValueIndexCursor = notAvailable()
 
+    override def indexScanDistinct[RESULT <: AnyRef](index: IndexReadSession, indexOrder: IndexOrder): NodeValueIndexCursor = notAvailable()
+
     override def lockingUniqueIndexSeek[RESULT](index: IndexDescriptor, queries: Seq[IndexQuery.ExactPredicate]): NodeValueIndexCursor = notAvailable()
 
     override def getNodesByLabel(id: Int, indexOrder: IndexOrder): ClosingIterator[NodeValue] = notAvailable()
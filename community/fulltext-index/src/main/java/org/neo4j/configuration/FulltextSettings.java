@@ -24,6 +24,7 @@ import org.neo4j.annotations.service.ServiceProvider;
 import org.neo4j.graphdb.config.Setting;
 import org.neo4j.kernel.api.impl.fulltext.analyzer.providers.StandardNoStopWords;
 
+import static org.neo4j.configuration.SettingConstraints.min;
 import static org.neo4j.configuration.SettingConstraints.range;
 import static org.neo4j.configuration.SettingImpl.newBuilder;
 import static org.neo4j.configuration.SettingValueParsers.BOOL;
@@ -51,4 +52,18 @@ public class FulltextSettings implements SettingsDeclaration
             newBuilder( "dbms.index.fulltext.eventually_consistent_index_update_queue_max_length", INT,  10000 )
                     .addConstraint( range( 1, 50_000_000 ) )
                     .build();
+
+    @Description( "The maximum number of index partitions that a single fulltext index query will search concurrently. " +
+            "A value of 1 means that the partitions of an index are searched one after the other, by the thread running the query." )
+    public static final Setting<Integer> fulltext_search_parallelism =
+            newBuilder( "dbms.index.fulltext.search_parallelism", INT, 4 )
+                    .addConstraint( range( 1, 1024 ) )
+                    .build();
+
+    @Description( "The number of threads, shared by all fulltext indexes, that partitions are searched on when a query searches more than " +
+            "one partition at a time. Zero means one thread per available processor." )
+    public static final Setting<Integer> fulltext_search_workers =
+            newBuilder( "dbms.index.fulltext.search_workers", INT, 0 )
+                    .addConstraint( min( 0 ) )
+                    .build();
 }
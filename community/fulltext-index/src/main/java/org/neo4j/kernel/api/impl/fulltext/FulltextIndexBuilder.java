@@ -40,6 +40,7 @@ public class FulltextIndexBuilder extends AbstractLuceneIndexBuilder<FulltextInd
     private final String[] propertyNames;
     private boolean populating;
     private IndexUpdateSink indexUpdateSink = NullIndexUpdateSink.INSTANCE;
+    private FulltextSearchExecutor searchExecutor = FulltextSearchExecutor.SEQUENTIAL;
 
     private FulltextIndexBuilder( IndexDescriptor descriptor, Config config, TokenHolder propertyKeyTokenHolder, Analyzer analyzer,
             String[] propertyNames )
@@ -83,6 +84,19 @@ public class FulltextIndexBuilder extends AbstractLuceneIndexBuilder<FulltextInd
         return this;
     }
 
+    /**
+     * The executor that readers of the index use to search several index partitions at the same time.
+     * Without one, partitions are searched one after the other.
+     *
+     * @param searchExecutor executor for partition searches.
+     * @return this index builder.
+     */
+    FulltextIndexBuilder withSearchExecutor( FulltextSearchExecutor searchExecutor )
+    {
+        this.searchExecutor = searchExecutor;
+        return this;
+    }
+
     /**
      * Build lucene schema index with specified configuration
      *
@@ -94,7 +108,8 @@ public class FulltextIndexBuilder extends AbstractLuceneIndexBuilder<FulltextInd
         {
             final ReadOnlyIndexPartitionFactory partitionFactory = new ReadOnlyIndexPartitionFactory();
             LuceneFulltextIndex fulltextIndex =
-                    new LuceneFulltextIndex( storageBuilder.build(), partitionFactory, descriptor, propertyKeyTokenHolder, analyzer, propertyNames );
+                    new LuceneFulltextIndex( storageBuilder.build(), partitionFactory, descriptor, propertyKeyTokenHolder, analyzer, propertyNames,
+                            searchExecutor );
             return new ReadOnlyFulltextIndex( fulltextIndex );
         }
         else
@@ -110,7 +125,8 @@ public class FulltextIndexBuilder extends AbstractLuceneIndexBuilder<FulltextInd
             }
             WritableIndexPartitionFactory partitionFactory = new WritableIndexPartitionFactory( writerConfigFactory );
             LuceneFulltextIndex fulltextIndex =
-                    new LuceneFulltextIndex( storageBuilder.build(), partitionFactory, descriptor, propertyKeyTokenHolder, analyzer, propertyNames );
+                    new LuceneFulltextIndex( storageBuilder.build(), partitionFactory, descriptor, propertyKeyTokenHolder, analyzer, propertyNames,
+                            searchExecutor );
             return new WritableFulltextIndex( indexUpdateSink, fulltextIndex );
         }
     }
@@ -62,6 +62,7 @@ import org.neo4j.kernel.api.index.MinimalIndexAccessor;
 import org.neo4j.kernel.impl.api.index.IndexSamplingConfig;
 import org.neo4j.logging.Log;
 import org.neo4j.memory.MemoryTracker;
+import org.neo4j.scheduler.Group;
 import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.service.Services;
 import org.neo4j.storageengine.api.StorageEngineFactory;
@@ -92,6 +93,7 @@ public class FulltextIndexProvider extends IndexProvider implements FulltextAdap
     private final boolean defaultEventuallyConsistentSetting;
     private final Log log;
     private final IndexUpdateSink indexUpdateSink;
+    private final FulltextSearchExecutor searchExecutor;
     private final IndexStorageFactory indexStorageFactory;
 
     public FulltextIndexProvider( IndexProviderDescriptor descriptor, IndexDirectoryStructure.Factory directoryStructureFactory,
@@ -108,6 +110,8 @@ public class FulltextIndexProvider extends IndexProvider implements FulltextAdap
         defaultAnalyzerName = config.get( FulltextSettings.fulltext_default_analyzer );
         defaultEventuallyConsistentSetting = config.get( FulltextSettings.eventually_consistent );
         indexUpdateSink = new IndexUpdateSink( scheduler, config.get( FulltextSettings.eventually_consistent_index_update_queue_max_length ) );
+        searchExecutor = new FulltextSearchExecutor( () -> scheduler.executor( Group.FULLTEXT_SEARCH ),
+                config.get( FulltextSettings.fulltext_search_parallelism ) );
         indexStorageFactory = buildIndexStorageFactory( fileSystem, directoryFactory, directoryStructure() );
     }
 
@@ -266,7 +270,8 @@ public class FulltextIndexProvider extends IndexProvider implements FulltextAdap
                 .withFileSystem( fileSystem )
                 .withOperationalMode( isSingleInstance )
                 .withIndexStorage( indexStorage )
-                .withPopulatingMode( false );
+                .withPopulatingMode( false )
+                .withSearchExecutor( searchExecutor );
         if ( isEventuallyConsistent( index ) )
         {
             fulltextIndexBuilder = fulltextIndexBuilder.withIndexUpdateSink( indexUpdateSink );
@@ -303,6 +308,10 @@ public class FulltextIndexProvider extends IndexProvider implements FulltextAdap
             throw new IllegalArgumentException( "The " + ref.schema() + " index schema is not a full-text index schema, " +
                     "which it is required to be for the '" + providerName + "' index provider to be able to create an index." );
         }
+        if ( ref.indexFilter().isPartial() )
+        {
+            throw new IllegalArgumentException( "The '" + providerName + "' index provider does not support filtered indexes: " + ref );
+        }
         Value value = ref.getIndexConfig().get( ANALYZER );
         if ( value != null )
         {
@@ -76,11 +76,13 @@ public class FulltextIndexReader implements IndexReader
     private final Analyzer analyzer;
     private final String[] propertyNames;
     private final FulltextIndexTransactionState transactionState;
+    private final FulltextSearchExecutor searchExecutor;
 
     FulltextIndexReader( List<SearcherReference> searchers, TokenHolder propertyKeyTokenHolder, IndexDescriptor descriptor,
-            Analyzer analyzer, String[] propertyNames )
+            Analyzer analyzer, String[] propertyNames, FulltextSearchExecutor searchExecutor )
     {
         this.searchers = searchers;
+        this.searchExecutor = searchExecutor;
         this.propertyKeyTokenHolder = propertyKeyTokenHolder;
         this.index = descriptor;
         this.analyzer = analyzer;
@@ -244,18 +246,21 @@ public class FulltextIndexReader implements IndexReader
             // The StatsCollector aggregates index statistics across all our partitions.
             // Weights created based on these statistics will produce scores that are comparable across partitions.
             StatsCollector statsCollector = new StatsCollector( searches );
-            List<ValuesIterator> results = new ArrayList<>( searches.size() );
+            List<FulltextSearchExecutor.PartitionSearch> partitionSearches = new ArrayList<>( searches.size() );
 
             for ( PreparedSearch search : searches )
             {
                 // Weights are bonded with the top IndexReaderContext of the index searcher that they are created for.
                 // That's why we have to create a new StatsCachingIndexSearcher, and a new weight, for every index partition.
                 // However, the important thing is that we re-use the statsCollector.
+                // The weights are created up front, on this thread, because the statsCollector is not thread-safe.
                 StatsCachingIndexSearcher statsCachingIndexSearcher = new StatsCachingIndexSearcher( search, statsCollector );
                 Weight weight = statsCachingIndexSearcher.createWeight( query, ScoreMode.COMPLETE, 1 );
-                results.add( search.search( weight, constraints ) );
+                partitionSearches.add( () -> search.search( weight, constraints ) );
             }
 
+            // Each partition is searched into its own top-k collector, possibly concurrently, and the results are merged by score.
+            List<ValuesIterator> results = searchExecutor.search( partitionSearches );
             return ScoreEntityIterator.mergeIterators( results );
         }
         catch ( IOException e )
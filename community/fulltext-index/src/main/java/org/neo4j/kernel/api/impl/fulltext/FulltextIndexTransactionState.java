@@ -25,8 +25,6 @@ import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
 
 import java.io.Closeable;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.function.LongPredicate;
 
 import org.neo4j.common.EntityType;
@@ -37,7 +35,6 @@ import org.neo4j.internal.kernel.api.QueryContext;
 import org.neo4j.internal.kernel.api.Read;
 import org.neo4j.internal.kernel.api.RelationshipScanCursor;
 import org.neo4j.internal.schema.IndexDescriptor;
-import org.neo4j.io.IOUtils;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.api.impl.index.SearcherReference;
 import org.neo4j.memory.MemoryTracker;
@@ -50,14 +47,15 @@ import org.neo4j.storageengine.api.txstate.ReadableTransactionState;
  * index, where the transaction state is indexed.
  * <p>
  * The transaction state is indexed prior to querying whenever we detect that the
- * {@link ReadableTransactionState#getDataRevision()}  transaction data revision} has changed.
+ * {@link ReadableTransactionState#getDataRevision()}  transaction data revision} has changed. The in-memory index is kept for the whole transaction
+ * and only updated with the entities whose indexed values have changed since it was last brought up to date, and the near-real-time reader over it
+ * is reopened rather than opened from scratch, so repeated queries in a large transaction don't re-index everything that the transaction has done.
  * <p>
  * The actual transaction state indexing is done by the {@link FulltextIndexTransactionStateVisitor}, which for the most part only looks at the ids, and then
  * loads the modified entities up through the existing transaction state, via the kernel API.
  */
 class FulltextIndexTransactionState implements Closeable
 {
-    private final List<AutoCloseable> toCloseLater;
     private final MutableLongSet modifiedEntityIdsInThisTransaction;
     private final TransactionStateLuceneIndexWriter writer;
     private final FulltextIndexTransactionStateVisitor txStateVisitor;
@@ -67,7 +65,6 @@ class FulltextIndexTransactionState implements Closeable
 
     FulltextIndexTransactionState( IndexDescriptor descriptor, Analyzer analyzer, String[] propertyNames )
     {
-        toCloseLater = new ArrayList<>();
         writer = new TransactionStateLuceneIndexWriter( analyzer );
         modifiedEntityIdsInThisTransaction = new LongHashSet();
         visitingNodes = descriptor.schema().entityType() == EntityType.NODE;
@@ -96,7 +93,7 @@ class FulltextIndexTransactionState implements Closeable
         CursorFactory cursors = context.cursors();
         ReadableTransactionState state = context.getTransactionStateOrNull();
         modifiedEntityIdsInThisTransaction.clear(); // Clear this, so we don't filter out entities who have had their changes reversed since last time.
-        writer.resetWriterState();
+        writer.ensureWriterOpen();
 
         try ( NodeCursor nodeCursor = visitingNodes ? cursors.allocateFullAccessNodeCursor( cursorTracer ) : null;
               RelationshipScanCursor relationshipCursor = visitingNodes ? null : cursors.allocateRelationshipScanCursor( cursorTracer );
@@ -104,16 +101,15 @@ class FulltextIndexTransactionState implements Closeable
         {
             state.accept( txStateVisitor.init( read, nodeCursor, relationshipCursor, propertyCursor ) );
         }
+        txStateVisitor.removeDocumentsNotVisited();
         currentSearcher = writer.getNearRealTimeSearcher();
-        toCloseLater.add( currentSearcher );
         lastUpdateRevision = state.getDataRevision();
     }
 
     @Override
     public void close() throws IOException
     {
-        toCloseLater.add( writer );
-        IOUtils.closeAll( toCloseLater );
+        writer.close();
     }
 
     public LongPredicate isModifiedInTransactionPredicate()
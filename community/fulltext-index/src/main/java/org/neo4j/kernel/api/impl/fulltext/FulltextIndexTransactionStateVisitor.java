@@ -19,10 +19,15 @@
  */
 package org.neo4j.kernel.api.impl.fulltext;
 
+import org.apache.lucene.document.Document;
 import org.eclipse.collections.api.IntIterable;
+import org.eclipse.collections.api.iterator.LongIterator;
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
 import org.eclipse.collections.api.set.primitive.LongSet;
 import org.eclipse.collections.api.set.primitive.MutableLongSet;
 import org.eclipse.collections.impl.map.mutable.primitive.IntIntHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
@@ -43,10 +48,15 @@ import org.neo4j.storageengine.api.txstate.TxStateVisitor;
 import org.neo4j.values.storable.Value;
 
 import static org.neo4j.kernel.api.impl.fulltext.LuceneFulltextDocumentStructure.documentRepresentingProperties;
+import static org.neo4j.kernel.api.impl.fulltext.LuceneFulltextDocumentStructure.newTermForChangeOrRemove;
 
 /**
  * A {@link TxStateVisitor} that adds all entities to a {@link TransactionStateLuceneIndexWriter}, that matches the index according to the
  * {@link FulltextSchemaDescriptor}.
+ * <p>
+ * The same writer is kept up to date through several visits of the same transaction state. The property values each entity was indexed with are
+ * remembered, so an entity only has its document replaced when its indexed values have changed since the last visit. Documents of entities that
+ * are no longer part of the index in the transaction state are deleted by {@link #removeDocumentsNotVisited()}.
  */
 class FulltextIndexTransactionStateVisitor extends TxStateVisitor.Adapter
 {
@@ -58,6 +68,8 @@ class FulltextIndexTransactionStateVisitor extends TxStateVisitor.Adapter
     private final IntIntHashMap propKeyToIndex;
     private final MutableLongSet modifiedEntityIdsInThisTransaction;
     private final TransactionStateLuceneIndexWriter writer;
+    private final MutableLongObjectMap<Value[]> indexedValues = new LongObjectHashMap<>();
+    private final MutableLongSet indexedInThisVisit = new LongHashSet();
     private Read read;
     private NodeCursor nodeCursor;
     private PropertyCursor propertyCursor;
@@ -88,9 +100,26 @@ class FulltextIndexTransactionStateVisitor extends TxStateVisitor.Adapter
         this.nodeCursor = nodeCursor;
         this.relationshipCursor = relationshipCursor;
         this.propertyCursor = propertyCursor;
+        indexedInThisVisit.clear();
         return this;
     }
 
+    /**
+     * Delete the documents of entities that were indexed by an earlier visit, but not by the most recent one. Such entities have either been
+     * deleted, have lost their indexed labels or relationship type, or have had their changes reversed since the earlier visit.
+     */
+    void removeDocumentsNotVisited() throws IOException
+    {
+        LongSet notVisited = indexedValues.keySet().reject( indexedInThisVisit::contains );
+        LongIterator iterator = notVisited.longIterator();
+        while ( iterator.hasNext() )
+        {
+            long id = iterator.next();
+            writer.deleteDocuments( newTermForChangeOrRemove( id ) );
+            indexedValues.remove( id );
+        }
+    }
+
     @Override
     public void visitCreatedNode( long id )
     {
@@ -189,13 +218,27 @@ class FulltextIndexTransactionStateVisitor extends TxStateVisitor.Adapter
         }
         if ( modifiedEntityIdsInThisTransaction.add( id ) )
         {
-            try
+            indexedInThisVisit.add( id );
+            Value[] previousValues = indexedValues.get( id );
+            if ( previousValues == null || !Arrays.equals( previousValues, propertyValues ) )
             {
-                writer.addDocument( documentRepresentingProperties( id, propertyNames, propertyValues ) );
-            }
-            catch ( IOException e )
-            {
-                throw new UncheckedIOException( e );
+                try
+                {
+                    Document document = documentRepresentingProperties( id, propertyNames, propertyValues );
+                    if ( previousValues == null )
+                    {
+                        writer.addDocument( document );
+                    }
+                    else
+                    {
+                        writer.updateDocument( newTermForChangeOrRemove( id ), document );
+                    }
+                }
+                catch ( IOException e )
+                {
+                    throw new UncheckedIOException( e );
+                }
+                indexedValues.put( id, propertyValues.clone() );
             }
         }
         Arrays.fill( propertyValues, null );
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.impl.fulltext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.neo4j.kernel.api.impl.index.collector.ValuesIterator;
+import org.neo4j.scheduler.CallableExecutor;
+
+/**
+ * Runs the searches of the partitions of a fulltext index, for a single query.
+ * <p>
+ * At most {@code parallelism} partitions are searched at the same time. The searches are divided into that many batches, and all but
+ * the first batch are handed to the shared search executor, while the thread running the query searches the first
+ * batch itself. The results are returned in the same order as the searches were given, regardless of which thread produced them.
+ */
+class FulltextSearchExecutor
+{
+    static final FulltextSearchExecutor SEQUENTIAL = new FulltextSearchExecutor( null, 1 );
+
+    private final Supplier<CallableExecutor> executor;
+    private final int parallelism;
+
+    /**
+     * @param executor supplies the executor that partitions are searched on. Only asked for when a query searches more than one partition
+     * at a time, so that the thread pool is not started until it is needed.
+     * @param parallelism the maximum number of partitions searched at the same time by a single query.
+     */
+    FulltextSearchExecutor( Supplier<CallableExecutor> executor, int parallelism )
+    {
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Only returns, or throws, once no partition is being searched any more, because the caller releases the searchers of the partitions
+     * as soon as this returns.
+     */
+    List<ValuesIterator> search( List<PartitionSearch> searches ) throws IOException
+    {
+        int batches = Math.min( parallelism, searches.size() );
+        if ( batches <= 1 )
+        {
+            return searchBatch( searches, 0, 1, new AtomicBoolean() );
+        }
+
+        CallableExecutor executor = this.executor.get();
+        List<Future<List<ValuesIterator>>> futures = new ArrayList<>( batches - 1 );
+        AtomicBoolean abandoned = new AtomicBoolean();
+        boolean completed = false;
+        try
+        {
+            for ( int batch = 1; batch < batches; batch++ )
+            {
+                int first = batch;
+                futures.add( executor.submit( () -> searchBatch( searches, first, batches, abandoned ) ) );
+            }
+            List<List<ValuesIterator>> results = new ArrayList<>( batches );
+            results.add( searchBatch( searches, 0, batches, abandoned ) );
+            for ( Future<List<ValuesIterator>> future : futures )
+            {
+                results.add( future.get() );
+            }
+            completed = true;
+            return interleave( results, searches.size() );
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException( "Interrupted while searching fulltext index partitions.", e );
+        }
+        catch ( ExecutionException e )
+        {
+            Throwable cause = e.getCause();
+            if ( cause instanceof IOException )
+            {
+                throw (IOException) cause;
+            }
+            if ( cause instanceof RuntimeException )
+            {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException( cause );
+        }
+        finally
+        {
+            if ( !completed )
+            {
+                // Nobody is going to look at the remaining results, so the batches still running stop before their next partition.
+                // Cancelling the futures instead would not stop searches already running, and would stop us from waiting for them.
+                abandoned.set( true );
+                awaitAll( futures );
+            }
+        }
+    }
+
+    private static List<ValuesIterator> searchBatch( List<PartitionSearch> searches, int first, int stride, AtomicBoolean abandoned )
+            throws IOException
+    {
+        List<ValuesIterator> results = new ArrayList<>();
+        for ( int i = first; i < searches.size() && !abandoned.get(); i += stride )
+        {
+            results.add( searches.get( i ).search() );
+        }
+        return results;
+    }
+
+    private static void awaitAll( List<Future<List<ValuesIterator>>> futures )
+    {
+        boolean interrupted = false;
+        for ( Future<List<ValuesIterator>> future : futures )
+        {
+            while ( !future.isDone() )
+            {
+                try
+                {
+                    future.get();
+                }
+                catch ( InterruptedException e )
+                {
+                    // Keep waiting, the searchers must not be released under a running search
+                    interrupted = true;
+                }
+                catch ( ExecutionException e )
+                {
+                    // Only the first failure is reported, it is already on its way to the caller
+                }
+            }
+        }
+        if ( interrupted )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static List<ValuesIterator> interleave( List<List<ValuesIterator>> batches, int size )
+    {
+        List<ValuesIterator> results = new ArrayList<>( size );
+        for ( int i = 0; i < size; i++ )
+        {
+            results.add( batches.get( i % batches.size() ).get( i / batches.size() ) );
+        }
+        return results;
+    }
+
+    @FunctionalInterface
+    interface PartitionSearch
+    {
+        ValuesIterator search() throws IOException;
+    }
+}
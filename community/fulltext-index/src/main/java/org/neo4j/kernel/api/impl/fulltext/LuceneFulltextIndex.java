@@ -41,12 +41,14 @@ public class LuceneFulltextIndex extends AbstractLuceneIndex<FulltextIndexReader
     private final String[] propertyNames;
     private final Path transactionsFolder;
     private final IndexDescriptor descriptor;
+    private final FulltextSearchExecutor searchExecutor;
 
     LuceneFulltextIndex( PartitionedIndexStorage storage, IndexPartitionFactory partitionFactory, IndexDescriptor descriptor,
-            TokenHolder propertyKeyTokenHolder, Analyzer analyzer, String[] propertyNames )
+            TokenHolder propertyKeyTokenHolder, Analyzer analyzer, String[] propertyNames, FulltextSearchExecutor searchExecutor )
     {
         super( storage, partitionFactory, descriptor );
         this.descriptor = descriptor;
+        this.searchExecutor = searchExecutor;
         this.analyzer = analyzer;
         this.propertyNames = propertyNames;
         this.propertyKeyTokenHolder = propertyKeyTokenHolder;
@@ -84,6 +86,6 @@ public class LuceneFulltextIndex extends AbstractLuceneIndex<FulltextIndexReader
     protected FulltextIndexReader createPartitionedReader( List<AbstractIndexPartition> partitions ) throws IOException
     {
         List<SearcherReference> searchers = acquireSearchers( partitions );
-        return new FulltextIndexReader( searchers, propertyKeyTokenHolder, getDescriptor(), analyzer, propertyNames );
+        return new FulltextIndexReader( searchers, propertyKeyTokenHolder, getDescriptor(), analyzer, propertyNames, searchExecutor );
     }
 }
@@ -30,6 +30,8 @@ import org.apache.lucene.store.RAMDirectory;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.neo4j.io.IOUtils;
 import org.neo4j.kernel.api.impl.index.IndexWriterConfigs;
@@ -40,8 +42,11 @@ import org.neo4j.kernel.api.impl.schema.writer.LuceneIndexWriter;
 class TransactionStateLuceneIndexWriter implements LuceneIndexWriter, Closeable
 {
     private final Analyzer analyzer;
-    private IndexWriter writer;
     private final Directory directory;
+    private final List<SearcherReference> searchers = new ArrayList<>();
+    private IndexWriter writer;
+    private DirectoryReader reader;
+    private SearcherReference searcher;
 
     TransactionStateLuceneIndexWriter( Analyzer analyzer )
     {
@@ -79,31 +84,38 @@ class TransactionStateLuceneIndexWriter implements LuceneIndexWriter, Closeable
         writer.deleteDocuments( query );
     }
 
-    void resetWriterState() throws IOException
+    void ensureWriterOpen() throws IOException
     {
-        if ( writer != null )
+        if ( writer == null )
         {
-            // Note that 'rollback' closes the writer.
-            writer.rollback();
+            writer = new IndexWriter( directory, IndexWriterConfigs.transactionState( analyzer ) );
         }
-        openWriter();
-    }
-
-    private void openWriter() throws IOException
-    {
-        writer = new IndexWriter( directory, IndexWriterConfigs.transactionState( analyzer ) );
     }
 
+    /**
+     * Get a searcher that sees everything written so far. The reader behind the previously returned searcher is reopened, so only
+     * segments that have changed since then need to be opened. Searchers that have been handed out stay open until this writer is closed,
+     * because results from them may still be in use.
+     */
     SearcherReference getNearRealTimeSearcher() throws IOException
     {
-        DirectoryReader directoryReader = DirectoryReader.open( writer );
-        Neo4jIndexSearcher searcher = new Neo4jIndexSearcher( directoryReader );
-        return new DirectSearcherReference( searcher, directoryReader );
+        DirectoryReader directoryReader = reader == null ? DirectoryReader.open( writer ) : DirectoryReader.openIfChanged( reader, writer );
+        if ( directoryReader != null )
+        {
+            reader = directoryReader;
+            searcher = new DirectSearcherReference( new Neo4jIndexSearcher( directoryReader ), directoryReader );
+            searchers.add( searcher );
+        }
+        return searcher;
     }
 
     @Override
     public void close() throws IOException
     {
-        IOUtils.closeAll( writer, directory );
+        List<AutoCloseable> resources = new ArrayList<>( searchers.size() + 2 );
+        resources.addAll( searchers );
+        resources.add( writer );
+        resources.add( directory );
+        IOUtils.closeAll( resources );
     }
 }
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.impl.fulltext;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.kernel.api.impl.index.collector.ValuesIterator;
+import org.neo4j.scheduler.CallableExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class FulltextSearchExecutorTest
+{
+    private final ExecutorService executorService = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown()
+    {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    void shouldReturnResultsInSearchOrder() throws IOException
+    {
+        // given
+        FulltextSearchExecutor searchExecutor = new FulltextSearchExecutor( () -> new CallableExecutorService( executorService ), 3 );
+        List<ValuesIterator> expected = new ArrayList<>();
+        List<FulltextSearchExecutor.PartitionSearch> searches = new ArrayList<>();
+        for ( int i = 0; i < 7; i++ )
+        {
+            ValuesIterator result = new StubValuesIterator().add( i, i );
+            expected.add( result );
+            searches.add( () -> result );
+        }
+
+        // when
+        List<ValuesIterator> results = searchExecutor.search( searches );
+
+        // then
+        assertEquals( expected.size(), results.size() );
+        for ( int i = 0; i < expected.size(); i++ )
+        {
+            assertSame( expected.get( i ), results.get( i ) );
+        }
+    }
+
+    @Test
+    void shouldSearchPartitionsConcurrentlyUpToParallelism() throws IOException
+    {
+        // given
+        int parallelism = 3;
+        FulltextSearchExecutor searchExecutor = new FulltextSearchExecutor( () -> new CallableExecutorService( executorService ), parallelism );
+        // Every search waits for as many searches as we allow to run at the same time, so this only completes if they really do run concurrently.
+        CountDownLatch allStarted = new CountDownLatch( parallelism );
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        List<FulltextSearchExecutor.PartitionSearch> searches = new ArrayList<>();
+        for ( int i = 0; i < parallelism; i++ )
+        {
+            searches.add( () ->
+            {
+                threads.add( Thread.currentThread() );
+                allStarted.countDown();
+                await( allStarted );
+                return new StubValuesIterator();
+            } );
+        }
+
+        // when
+        List<ValuesIterator> results = searchExecutor.search( searches );
+
+        // then
+        assertEquals( parallelism, results.size() );
+        assertEquals( parallelism, threads.size() );
+        assertTrue( threads.contains( Thread.currentThread() ) );
+    }
+
+    @Test
+    void shouldSearchOnCallingThreadWhenParallelismIsOne() throws IOException
+    {
+        // given
+        FulltextSearchExecutor searchExecutor = new FulltextSearchExecutor( () ->
+        {
+            throw new AssertionError( "Should not need an executor" );
+        }, 1 );
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        List<FulltextSearchExecutor.PartitionSearch> searches = new ArrayList<>();
+        for ( int i = 0; i < 4; i++ )
+        {
+            searches.add( () ->
+            {
+                threads.add( Thread.currentThread() );
+                return new StubValuesIterator();
+            } );
+        }
+
+        // when
+        List<ValuesIterator> results = searchExecutor.search( searches );
+
+        // then
+        assertEquals( 4, results.size() );
+        assertEquals( Set.of( Thread.currentThread() ), threads );
+    }
+
+    @Test
+    void shouldPropagateFailureFromPartitionSearchedOnExecutor()
+    {
+        // given
+        FulltextSearchExecutor searchExecutor = new FulltextSearchExecutor( () -> new CallableExecutorService( executorService ), 2 );
+        IOException failure = new IOException( "Partition is broken" );
+        List<FulltextSearchExecutor.PartitionSearch> searches = List.of( StubValuesIterator::new, () ->
+        {
+            throw failure;
+        } );
+
+        // when
+        IOException e = assertThrows( IOException.class, () -> searchExecutor.search( searches ) );
+
+        // then
+        assertSame( failure, e );
+    }
+
+    @Test
+    void shouldWaitForRunningSearchesBeforePropagatingFailure()
+    {
+        // given
+        FulltextSearchExecutor searchExecutor = new FulltextSearchExecutor( () -> new CallableExecutorService( executorService ), 2 );
+        IOException failure = new IOException( "Partition is broken" );
+        CountDownLatch otherStarted = new CountDownLatch( 1 );
+        AtomicBoolean otherFinished = new AtomicBoolean();
+        List<FulltextSearchExecutor.PartitionSearch> searches = List.of( () ->
+        {
+            await( otherStarted );
+            throw failure;
+        }, () ->
+        {
+            otherStarted.countDown();
+            sleep( 200 );
+            otherFinished.set( true );
+            return new StubValuesIterator();
+        } );
+
+        // when
+        IOException e = assertThrows( IOException.class, () -> searchExecutor.search( searches ) );
+
+        // then
+        assertSame( failure, e );
+        assertTrue( otherFinished.get() );
+    }
+
+    @Test
+    void shouldNotStartMoreSearchesAfterFailure()
+    {
+        // given
+        FulltextSearchExecutor searchExecutor = new FulltextSearchExecutor( () -> new CallableExecutorService( executorService ), 2 );
+        IOException failure = new IOException( "Partition is broken" );
+        AtomicInteger searched = new AtomicInteger();
+        List<FulltextSearchExecutor.PartitionSearch> searches = new ArrayList<>();
+        searches.add( () ->
+        {
+            throw failure;
+        } );
+        for ( int i = 0; i < 10; i++ )
+        {
+            searches.add( () ->
+            {
+                searched.incrementAndGet();
+                sleep( 100 );
+                return new StubValuesIterator();
+            } );
+        }
+
+        // when
+        IOException e = assertThrows( IOException.class, () -> searchExecutor.search( searches ) );
+
+        // then
+        assertSame( failure, e );
+        assertTrue( searched.get() < 5 );
+    }
+
+    private static void await( CountDownLatch latch )
+    {
+        try
+        {
+            if ( !latch.await( 1, TimeUnit.MINUTES ) )
+            {
+                fail( "Partitions were not searched concurrently" );
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException( e );
+        }
+    }
+
+    private static void sleep( long millis )
+    {
+        try
+        {
+            Thread.sleep( millis );
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException( e );
+        }
+    }
+}
@@ -37,7 +37,8 @@ public enum IndexType
      * <ul>
      *     <li>They can be used as the {@link ConstraintCreator#withIndexType(IndexType) constraint index type} for index-backed constraints.</li>
      *     <li>They can have their spatial indexing behaviour fine-tuned, using the {@linkplain IndexSetting index settings} that start with "spatial_".</li>
-     *     <li>They do not support {@linkplain Schema#indexFor(Label...) creating} {@linkplain IndexDefinition#isMultiTokenIndex() multi-token} indexes.</li>
+     *     <li>They can be {@linkplain Schema#indexFor(Label...) created} as {@linkplain IndexDefinition#isMultiTokenIndex() multi-token} indexes,
+     *     which index each node that has any of the labels once. Multi-token BTREE indexes cannot back constraints.</li>
      *     <li>They cannot be created on {@link Schema#indexFor(RelationshipType) relationship types}.</li>
      * </ul>
      */
@@ -182,6 +182,18 @@ public abstract class IndexQuery
         return new StringSuffixPredicate( propertyKeyId, suffix );
     }
 
+    /**
+     * Searches the index for points in the same coordinate reference system as {@code origin}, nearest to {@code origin} first.
+     *
+     * @param propertyKeyId the property ID to match.
+     * @param origin the point to order the indexed points by distance to.
+     * @return an {@link IndexQuery} instance to be used for querying an index.
+     */
+    public static NearestNeighboursPredicate nearestNeighbours( int propertyKeyId, PointValue origin )
+    {
+        return new NearestNeighboursPredicate( propertyKeyId, origin );
+    }
+
     public static IndexQuery fulltextSearch( String query )
     {
         return new FulltextSearchPredicate( query );
@@ -258,7 +270,8 @@ public abstract class IndexQuery
         stringPrefix,
         stringSuffix,
         stringContains,
-        fulltextSearch
+        fulltextSearch,
+        nearestNeighbours
     }
 
     public static final class ExistsPredicate extends IndexQuery
@@ -603,6 +616,54 @@ public abstract class IndexQuery
         }
     }
 
+    public static final class NearestNeighboursPredicate extends IndexQuery
+    {
+        private final PointValue origin;
+
+        private NearestNeighboursPredicate( int propertyKeyId, PointValue origin )
+        {
+            super( propertyKeyId );
+            this.origin = origin;
+        }
+
+        @Override
+        public IndexQueryType type()
+        {
+            return IndexQueryType.nearestNeighbours;
+        }
+
+        @Override
+        public boolean acceptsValue( Value value )
+        {
+            return value instanceof PointValue && ((PointValue) value).getCoordinateReferenceSystem().equals( crs() );
+        }
+
+        @Override
+        public ValueGroup valueGroup()
+        {
+            return ValueGroup.GEOMETRY;
+        }
+
+        public PointValue origin()
+        {
+            return origin;
+        }
+
+        public CoordinateReferenceSystem crs()
+        {
+            return origin.getCoordinateReferenceSystem();
+        }
+
+        /**
+         * @param point a point accepted by this predicate.
+         * @return the distance between {@code point} and the origin, as calculated for the coordinate reference system of the origin.
+         */
+        public double distance( PointValue point )
+        {
+            return crs().getCalculator().distance( origin, point );
+        }
+    }
+
     public static final class FulltextSearchPredicate extends StringPredicate
     {
         private final String query;
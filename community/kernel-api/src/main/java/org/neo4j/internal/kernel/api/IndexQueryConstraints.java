@@ -26,8 +26,8 @@ import org.neo4j.util.Preconditions;
 
 public class IndexQueryConstraints
 {
-    private static final IndexQueryConstraints UNCONSTRAINED = new IndexQueryConstraints( IndexOrder.NONE, false, false, false, 0, 0 );
-    private static final IndexQueryConstraints UNORDERED_VALUES = new IndexQueryConstraints( IndexOrder.NONE, true, false, false, 0, 0 );
+    private static final IndexQueryConstraints UNCONSTRAINED = new IndexQueryConstraints( IndexOrder.NONE, false, false, false, 0, 0, false );
+    private static final IndexQueryConstraints UNORDERED_VALUES = new IndexQueryConstraints( IndexOrder.NONE, true, false, false, 0, 0, false );
 
     private final IndexOrder order;
     private final boolean needsValues;
@@ -35,8 +35,9 @@ public class IndexQueryConstraints
     private final boolean hasLimit;
     private final long skip;
     private final long limit;
+    private final boolean distinct;
 
-    private IndexQueryConstraints( IndexOrder order, boolean needsValues, boolean hasSkip, boolean hasLimit, long skip, long limit )
+    private IndexQueryConstraints( IndexOrder order, boolean needsValues, boolean hasSkip, boolean hasLimit, long skip, long limit, boolean distinct )
     {
         this.order = order;
         this.needsValues = needsValues;
@@ -44,6 +45,7 @@ public class IndexQueryConstraints
         this.hasLimit = hasLimit;
         this.skip = skip;
         this.limit = limit;
+        this.distinct = distinct;
     }
 
     public static IndexQueryConstraints unconstrained()
@@ -63,7 +65,7 @@ public class IndexQueryConstraints
 
     public static IndexQueryConstraints constrained( IndexOrder order, boolean needsValues )
     {
-        return new IndexQueryConstraints( order, needsValues, false, false, 0, 0 );
+        return new IndexQueryConstraints( order, needsValues, false, false, 0, 0, false );
     }
 
     public IndexQueryConstraints skip( long skip )
@@ -73,7 +75,7 @@ public class IndexQueryConstraints
         {
             Preconditions.requireNoLongAddOverflow( skip, limit, "SKIP (%s) and LIMIT (%s) combined are too large; would overflow 64-bit signed integer." );
         }
-        return new IndexQueryConstraints( order, needsValues, true, hasLimit, skip, limit );
+        return new IndexQueryConstraints( order, needsValues, true, hasLimit, skip, limit, distinct );
     }
 
     public IndexQueryConstraints limit( long limit )
@@ -83,7 +85,16 @@ public class IndexQueryConstraints
         {
             Preconditions.requireNoLongAddOverflow( skip, limit, "SKIP (%s) and LIMIT (%s) are too large; would overflow 64-bit signed integer." );
         }
-        return new IndexQueryConstraints( order, needsValues, hasSkip, true, skip, limit );
+        return new IndexQueryConstraints( order, needsValues, hasSkip, true, skip, limit, distinct );
+    }
+
+    /**
+     * Allows the index to return only one entity per distinct value, for queries where only the values matter, like counting distinct values.
+     * Indexes which can't skip entries return all of them, so the values still need to be deduplicated by the caller.
+     */
+    public IndexQueryConstraints distinct()
+    {
+        return new IndexQueryConstraints( order, needsValues, hasSkip, hasLimit, skip, limit, true );
     }
 
     public boolean isOrdered()
@@ -110,4 +121,9 @@ public class IndexQueryConstraints
     {
         return hasLimit ? OptionalLong.of( limit ) : OptionalLong.empty();
     }
+
+    public boolean isDistinct()
+    {
+        return distinct;
+    }
 }
@@ -68,6 +68,30 @@ public interface NodeValueIndexCursor extends NodeIndexCursor
 
     Value propertyValue( int offset );
 
+    /**
+     * @return the number of property values the index stores alongside its key, which are not part of {@link #numberOfProperties()}.
+     */
+    default int numberOfIncludedProperties()
+    {
+        return 0;
+    }
+
+    default int includedPropertyKey( int offset )
+    {
+        throw new IndexOutOfBoundsException( "This cursor has no included properties, asked for " + offset );
+    }
+
+    /**
+     * Included values can be accessed whether or not {@link #hasValue()}, on any location of the cursor.
+     *
+     * @return the value of the included property at the given offset of the current node, or {@link org.neo4j.values.storable.Values#NO_VALUE}
+     * if the node doesn't have it.
+     */
+    default Value includedPropertyValue( int offset )
+    {
+        throw new IndexOutOfBoundsException( "This cursor has no included properties, asked for " + offset );
+    }
+
     class Empty extends DoNothingCloseListenable implements NodeValueIndexCursor
     {
 
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+import static org.neo4j.memory.HeapEstimator.shallowSizeOfInstance;
+import static org.neo4j.memory.HeapEstimator.sizeOf;
+import static org.neo4j.util.Preconditions.checkArgument;
+
+/**
+ * Estimates the number of distinct items added to it, using {@code 2^precision} bytes of memory regardless of the number of items.
+ * Items are added as 64-bit hashes. Two estimators with the same precision can be merged into one estimating the distinct items
+ * added to either of them.
+ * <p>
+ * The standard error of the estimate is about {@code 1.04 / sqrt(2^precision)}, so about 2.3% with the {@link #DEFAULT_PRECISION}.
+ */
+public final class HyperLogLog
+{
+    public static final int DEFAULT_PRECISION = 11;
+    private static final long SHALLOW_SIZE = shallowSizeOfInstance( HyperLogLog.class );
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog()
+    {
+        this( DEFAULT_PRECISION );
+    }
+
+    public HyperLogLog( int precision )
+    {
+        checkArgument( precision >= 4 && precision <= 16, "Precision must be between 4 and 16, was %d", precision );
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public long estimatedHeapUsage()
+    {
+        return SHALLOW_SIZE + sizeOf( registers );
+    }
+
+    public void add( long hash )
+    {
+        long mixed = mix( hash );
+        int register = (int) (mixed >>> (Long.SIZE - precision));
+        // Position of the first set bit in the remaining bits, the sentinel bit caps it when they are all zero
+        byte rank = (byte) (Long.numberOfLeadingZeros( (mixed << precision) | (1L << (precision - 1)) ) + 1);
+        if ( rank > registers[register] )
+        {
+            registers[register] = rank;
+        }
+    }
+
+    public void merge( HyperLogLog other )
+    {
+        checkArgument( other.precision == precision, "Can't merge estimators of different precision, %d and %d", precision, other.precision );
+        for ( int i = 0; i < registers.length; i++ )
+        {
+            registers[i] = (byte) Math.max( registers[i], other.registers[i] );
+        }
+    }
+
+    public long estimate()
+    {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for ( byte register : registers )
+        {
+            sum += 1.0 / (1L << register);
+            if ( register == 0 )
+            {
+                zeros++;
+            }
+        }
+        double estimate = alpha( m ) * m * m / sum;
+        if ( estimate <= 2.5 * m && zeros > 0 )
+        {
+            // Few items compared to the number of registers, linear counting is more accurate here
+            estimate = m * Math.log( (double) m / zeros );
+        }
+        return Math.round( estimate );
+    }
+
+    private static double alpha( int m )
+    {
+        switch ( m )
+        {
+        case 16:
+            return 0.673;
+        case 32:
+            return 0.697;
+        case 64:
+            return 0.709;
+        default:
+            return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+
+    /**
+     * Spreads the bits of the given hash, so that combined or otherwise weak hashes still give independent registers and ranks.
+     */
+    private static long mix( long hash )
+    {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -19,14 +19,17 @@
  */
 package org.neo4j.kernel.api.index;
 
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.IOException;
 import java.nio.file.Path;
 
+import org.neo4j.common.EntityType;
 import org.neo4j.internal.kernel.api.InternalIndexState;
 import org.neo4j.internal.schema.IndexConfigCompleter;
 import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.internal.schema.IndexFilter;
 import org.neo4j.internal.schema.IndexPrototype;
 import org.neo4j.internal.schema.IndexProviderDescriptor;
 import org.neo4j.internal.schema.IndexType;
@@ -276,6 +279,60 @@ public abstract class IndexProvider extends LifecycleAdapter implements IndexCon
             String providerName = getProviderDescriptor().name();
             throw new IllegalArgumentException( "The '" + providerName + "' index provider does not support " + indexType + " indexes: " + prototype );
         }
+        validateEntityTokens( prototype );
+        validateIncludedProperties( prototype );
+        validateIndexFilter( prototype );
+    }
+
+    /**
+     * Validate the labels or relationship types of the given index prototype, or throw an
+     * {@link IllegalArgumentException} if this index provider cannot index them. By default only a single label or relationship type is supported.
+     * @param prototype The prototype to be validated.
+     */
+    protected void validateEntityTokens( IndexPrototype prototype )
+    {
+        if ( prototype.schema().getEntityTokenIds().length > 1 )
+        {
+            String providerName = getProviderDescriptor().name();
+            throw new IllegalArgumentException( "The '" + providerName + "' index provider does not support indexes on more than one entity token: " +
+                    prototype );
+        }
+    }
+
+    /**
+     * Validate the {@link IndexPrototype#includedPropertyIds() included properties} of the given index prototype, or throw an
+     * {@link IllegalArgumentException} if this index provider cannot include them. By default no properties can be included.
+     * @param prototype The prototype to be validated.
+     */
+    protected void validateIncludedProperties( IndexPrototype prototype )
+    {
+        if ( prototype.includedPropertyIds().length > 0 )
+        {
+            String providerName = getProviderDescriptor().name();
+            throw new IllegalArgumentException( "The '" + providerName + "' index provider does not support included properties: " + prototype );
+        }
+    }
+
+    /**
+     * Validate the {@link IndexPrototype#indexFilter() filter} of the given index prototype, or throw an {@link IllegalArgumentException} if the index
+     * cannot be partial. Filters are applied to the updates before they reach the index, so any provider of non-unique node indexes can be partial.
+     * @param prototype The prototype to be validated.
+     */
+    protected void validateIndexFilter( IndexPrototype prototype )
+    {
+        IndexFilter indexFilter = prototype.indexFilter();
+        if ( !indexFilter.isPartial() )
+        {
+            return;
+        }
+        if ( prototype.isUnique() || prototype.schema().entityType() != EntityType.NODE )
+        {
+            throw new IllegalArgumentException( "Only non-unique node indexes can be filtered: " + prototype );
+        }
+        if ( ArrayUtils.contains( prototype.schema().getPropertyIds(), indexFilter.propertyKeyId() ) )
+        {
+            throw new IllegalArgumentException( "The filter property of an index cannot be one of the indexed properties: " + prototype );
+        }
     }
 
     @Override
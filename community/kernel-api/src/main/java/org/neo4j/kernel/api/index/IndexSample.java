@@ -27,6 +27,8 @@ public final class IndexSample
     private final long uniqueValues;
     private final long sampleSize;
     private final long updates;
+    private final IndexValueHistogram histogram;
+    private final IndexSketch sketch;
 
     public IndexSample()
     {
@@ -39,11 +41,23 @@ public final class IndexSample
     }
 
     public IndexSample( long indexSize, long uniqueValues, long sampleSize, long updates )
+    {
+        this( indexSize, uniqueValues, sampleSize, updates, IndexValueHistogram.EMPTY );
+    }
+
+    public IndexSample( long indexSize, long uniqueValues, long sampleSize, long updates, IndexValueHistogram histogram )
+    {
+        this( indexSize, uniqueValues, sampleSize, updates, histogram, null );
+    }
+
+    public IndexSample( long indexSize, long uniqueValues, long sampleSize, long updates, IndexValueHistogram histogram, IndexSketch sketch )
     {
         this.indexSize = indexSize;
         this.uniqueValues = uniqueValues;
         this.sampleSize = sampleSize;
         this.updates = updates;
+        this.histogram = histogram;
+        this.sketch = sketch;
     }
 
     public long indexSize()
@@ -66,6 +80,25 @@ public final class IndexSample
         return updates;
     }
 
+    /**
+     * @return the distribution of values in the index, or {@link IndexValueHistogram#EMPTY} if the sampler doesn't build one.
+     * The histogram is derived from the same sample and isn't part of the equality of samples.
+     */
+    public IndexValueHistogram histogram()
+    {
+        return histogram;
+    }
+
+    /**
+     * @return a sketch seeded from the same full scan of the index that this sample comes from, which can be kept up to date with
+     * updates to the index for later samples, or {@code null} if the sampler doesn't build one. Like the histogram, it isn't part of
+     * the equality of samples.
+     */
+    public IndexSketch sketch()
+    {
+        return sketch;
+    }
+
     @Override
     public boolean equals( Object o )
     {
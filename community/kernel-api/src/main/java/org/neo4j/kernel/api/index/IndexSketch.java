@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.neo4j.memory.HeapEstimator.shallowSizeOfInstance;
+import static org.neo4j.memory.HeapEstimator.shallowSizeOfObjectArray;
+
+/**
+ * Summary of the values in an index which is kept up to date from the index updates, so that the index can be resampled without
+ * scanning it. It tracks the number of entries, a {@link HyperLogLog} of the distinct values and, for single property indexes,
+ * a uniform random sample of the values from which an {@link IndexValueHistogram} is built.
+ * <p>
+ * A sketch is seeded by a full scan of the index. Neither the distinct value estimate nor the sample can forget removed values exactly:
+ * the estimate keeps counting values that are gone, and a removed value is only dropped from the sample if it happens to be in it.
+ * How far the sketch may have drifted is told by {@link #removedEntries()}, a full scan should replace it when that gets large.
+ * <p>
+ * The sketch is updated and sampled concurrently, all access is synchronized. Updaters should buffer their updates and hand them over
+ * in batches with {@link #update(List, List)}, rather than taking the lock for every single update.
+ * <p>
+ * The heap used by the sketch, including the sampled values, is not tracked until {@link #trackMemory(MemoryTracker)} is called, and
+ * it is released again by {@link #close()}.
+ */
+public final class IndexSketch implements AutoCloseable
+{
+    public static final int DEFAULT_RESERVOIR_SIZE = 2048;
+    private static final long SHALLOW_SIZE = shallowSizeOfInstance( IndexSketch.class ) + shallowSizeOfInstance( SplittableRandom.class ) +
+                                             shallowSizeOfInstance( ObjectIntHashMap.class );
+    // A key and a value slot in the open addressing table of the counts, at a load factor of a half
+    private static final long COUNTS_ENTRY_SIZE = 2 * (Long.BYTES + Integer.BYTES);
+
+    private final HyperLogLog distinctValues = new HyperLogLog();
+    private final Value[] reservoir;
+    private final MutableObjectIntMap<Value> reservoirCounts = new ObjectIntHashMap<>();
+    private final SplittableRandom random = new SplittableRandom();
+    private int reservoirSize;
+    private long seen;
+    private long entries;
+    private long removedEntries;
+    private long heapUsage;
+    private MemoryTracker memoryTracker = EmptyMemoryTracker.INSTANCE;
+
+    /**
+     * @param numberOfProperties number of properties in the index, only single property indexes keep a sample of their values.
+     */
+    public IndexSketch( int numberOfProperties )
+    {
+        this( numberOfProperties, DEFAULT_RESERVOIR_SIZE );
+    }
+
+    public IndexSketch( int numberOfProperties, int reservoirCapacity )
+    {
+        this.reservoir = numberOfProperties == 1 ? new Value[reservoirCapacity] : null;
+        this.heapUsage = SHALLOW_SIZE + distinctValues.estimatedHeapUsage() + (reservoir != null ? shallowSizeOfObjectArray( reservoirCapacity ) : 0);
+    }
+
+    /**
+     * Charges the heap used by this sketch to the given tracker, from now on until the sketch is {@link #close() closed}.
+     */
+    public synchronized void trackMemory( MemoryTracker memoryTracker )
+    {
+        memoryTracker.allocateHeap( heapUsage );
+        this.memoryTracker = memoryTracker;
+    }
+
+    /**
+     * Releases the heap charged to the memory tracker. The sketch can still be used, but it isn't tracked anymore.
+     */
+    @Override
+    public synchronized void close()
+    {
+        memoryTracker.releaseHeap( heapUsage );
+        memoryTracker = EmptyMemoryTracker.INSTANCE;
+    }
+
+    public synchronized long estimatedHeapUsage()
+    {
+        return heapUsage;
+    }
+
+    /**
+     * Applies a batch of updates under a single lock.
+     *
+     * @param removed values of index entries that have been removed, including the values before a change.
+     * @param added values of index entries that have been added, including the values after a change.
+     */
+    public synchronized void update( List<Value[]> removed, List<Value[]> added )
+    {
+        for ( Value[] values : removed )
+        {
+            remove( values );
+        }
+        for ( Value[] values : added )
+        {
+            add( values, 1 );
+        }
+    }
+
+    /**
+     * @param values values of an index entry.
+     * @param count number of index entries with these values.
+     */
+    public synchronized void add( Value[] values, long count )
+    {
+        entries += count;
+        distinctValues.add( hash( values ) );
+        if ( reservoir != null )
+        {
+            for ( long i = 0; i < count; i++ )
+            {
+                offer( values[0] );
+            }
+        }
+    }
+
+    public synchronized void remove( Value[] values )
+    {
+        entries = Math.max( entries - 1, 0 );
+        removedEntries++;
+        if ( reservoir != null )
+        {
+            seen = Math.max( seen - 1, 0 );
+            Value value = values[0];
+            if ( reservoirCounts.containsKey( value ) )
+            {
+                for ( int i = 0; i < reservoirSize; i++ )
+                {
+                    if ( reservoir[i].equals( value ) )
+                    {
+                        forget( reservoir[i] );
+                        reservoir[i] = reservoir[--reservoirSize];
+                        reservoir[reservoirSize] = null;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    public synchronized long entries()
+    {
+        return entries;
+    }
+
+    /**
+     * @return number of entries removed from the index since the sketch was seeded.
+     */
+    public synchronized long removedEntries()
+    {
+        return removedEntries;
+    }
+
+    /**
+     * @return a sample of the index as it looks now, with a histogram of the sampled values if this is a single property index.
+     */
+    public synchronized IndexSample sample()
+    {
+        long uniqueValues = entries == 0 ? 0 : Math.max( Math.min( distinctValues.estimate(), entries ), 1 );
+        return new IndexSample( entries, uniqueValues, entries, 0, histogram() );
+    }
+
+    private void offer( Value value )
+    {
+        seen++;
+        if ( reservoirSize < reservoir.length && seen <= reservoir.length )
+        {
+            put( reservoirSize++, value );
+            return;
+        }
+        // Algorithm R, the value replaces a random one with the probability of it being sampled among all values seen so far.
+        // Slots left empty by removals are filled the same way.
+        long slot = random.nextLong( seen );
+        if ( slot < reservoirSize )
+        {
+            forget( reservoir[(int) slot] );
+            put( (int) slot, value );
+        }
+        else if ( slot < reservoir.length )
+        {
+            put( reservoirSize++, value );
+        }
+    }
+
+    private void put( int slot, Value value )
+    {
+        reservoir[slot] = value;
+        long size = value.estimatedHeapUsage();
+        if ( reservoirCounts.addToValue( value, 1 ) == 1 )
+        {
+            size += COUNTS_ENTRY_SIZE;
+        }
+        heapUsage += size;
+        memoryTracker.allocateHeap( size );
+    }
+
+    private void forget( Value value )
+    {
+        long size = value.estimatedHeapUsage();
+        if ( reservoirCounts.addToValue( value, -1 ) == 0 )
+        {
+            reservoirCounts.remove( value );
+            size += COUNTS_ENTRY_SIZE;
+        }
+        heapUsage -= size;
+        memoryTracker.releaseHeap( size );
+    }
+
+    private IndexValueHistogram histogram()
+    {
+        if ( reservoir == null || reservoirSize == 0 )
+        {
+            return IndexValueHistogram.EMPTY;
+        }
+        Value[] sorted = Arrays.copyOf( reservoir, reservoirSize );
+        Arrays.sort( sorted, Values.COMPARATOR );
+        // Every sampled value stands for entries / reservoirSize entries, rounding is spread so that the counts add up to the entries
+        double scale = (double) entries / reservoirSize;
+        IndexValueHistogramBuilder builder = new IndexValueHistogramBuilder();
+        int sampled = 0;
+        long counted = 0;
+        int i = 0;
+        while ( i < sorted.length )
+        {
+            int run = 1;
+            while ( i + run < sorted.length && sorted[i + run].equals( sorted[i] ) )
+            {
+                run++;
+            }
+            sampled += run;
+            long count = Math.round( sampled * scale ) - counted;
+            counted += count;
+            // A value sampled once says nothing about it being common, only repeated values are candidates for the most common ones
+            builder.add( sorted[i], count, run > 1 );
+            i += run;
+        }
+        return builder.build();
+    }
+
+    private static long hash( Value[] values )
+    {
+        if ( values.length == 1 )
+        {
+            return values[0].hashCode64();
+        }
+        long hash = 1;
+        for ( Value value : values )
+        {
+            hash = 31 * hash + value.hashCode64();
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,474 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+import java.util.Arrays;
+
+import org.neo4j.values.storable.NumberValue;
+import org.neo4j.values.storable.TextValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueGroup;
+import org.neo4j.values.storable.Values;
+
+/**
+ * Distribution of the values in a single property index, as seen when the index was sampled. It consists of an equi-depth histogram
+ * per value group, for number and text values, and a list of the most common values in the index together with their counts.
+ * <p>
+ * The buckets of a histogram hold about as many index entries each. A bucket covers the values above the upper bound of the previous
+ * bucket, or from the lowest value for the first bucket, up to and including its own upper bound, and every distinct value falls in
+ * exactly one bucket. Text bounds are cut to {@link #MAX_TEXT_LENGTH} characters. Entries of the most common values are not counted
+ * in the buckets, so that a few very common values don't skew the interpolation within the bucket they fall in.
+ * <p>
+ * All estimates are fractions of the entries in the index, or {@link #UNKNOWN} if the histogram can't tell.
+ */
+public final class IndexValueHistogram
+{
+    public static final int MAX_BUCKETS = 32;
+    public static final int MAX_FREQUENT_VALUES = 16;
+    public static final int MAX_TEXT_LENGTH = 64;
+    public static final double UNKNOWN = -1;
+    public static final IndexValueHistogram EMPTY = new IndexValueHistogram( 0, new Histogram[0], new Value[0], new long[0] );
+
+    private final long entries;
+    private final Histogram[] histograms;
+    private final Value[] frequentValues;
+    private final long[] frequentCounts;
+    private final long frequentEntries;
+
+    /**
+     * @param entries number of entries in the index when it was sampled, including values that aren't in any of the histograms.
+     * @param histograms at most one histogram per value group, not counting the entries of the {@code frequentValues}.
+     * @param frequentValues the most common values in the index.
+     * @param frequentCounts number of index entries with each of the {@code frequentValues}.
+     */
+    public IndexValueHistogram( long entries, Histogram[] histograms, Value[] frequentValues, long[] frequentCounts )
+    {
+        this.entries = entries;
+        this.histograms = histograms;
+        this.frequentValues = frequentValues;
+        this.frequentCounts = frequentCounts;
+        this.frequentEntries = Arrays.stream( frequentCounts ).sum();
+    }
+
+    public static boolean isSupported( ValueGroup group )
+    {
+        return group == ValueGroup.NUMBER || group == ValueGroup.TEXT;
+    }
+
+    public boolean isEmpty()
+    {
+        return entries == 0;
+    }
+
+    public long entries()
+    {
+        return entries;
+    }
+
+    public Histogram[] histograms()
+    {
+        return histograms;
+    }
+
+    public Value[] frequentValues()
+    {
+        return frequentValues;
+    }
+
+    public long[] frequentCounts()
+    {
+        return frequentCounts;
+    }
+
+    /**
+     * @param value the value to look for.
+     * @param uniqueValues number of distinct values in the index, from the same sample as this histogram.
+     * @return fraction of the index entries having the given value.
+     */
+    public double equalityFraction( Value value, long uniqueValues )
+    {
+        if ( isEmpty() || !isSupported( value.valueGroup() ) )
+        {
+            return UNKNOWN;
+        }
+        long count = frequency( value );
+        if ( count > 0 )
+        {
+            return (double) count / entries;
+        }
+        // Spread what isn't taken by the most common values evenly over the remaining distinct values
+        long remainingEntries = Math.max( entries - frequentEntries, 1 );
+        long remainingValues = Math.max( uniqueValues - frequentValues.length, 1 );
+        return Math.min( (double) remainingEntries / remainingValues / entries, 1.0 );
+    }
+
+    /**
+     * @param lower lower bound of the range, or {@code null} if the range has no lower bound.
+     * @param lowerInclusive whether or not the lower bound is part of the range.
+     * @param upper upper bound of the range, or {@code null} if the range has no upper bound.
+     * @param upperInclusive whether or not the upper bound is part of the range.
+     * @return fraction of the index entries with a value in the given range.
+     */
+    public double rangeFraction( Value lower, boolean lowerInclusive, Value upper, boolean upperInclusive )
+    {
+        Value bound = lower != null ? lower : upper;
+        if ( isEmpty() || bound == null || !isSupported( bound.valueGroup() ) ||
+             (lower != null && upper != null && lower.valueGroup() != upper.valueGroup()) )
+        {
+            return UNKNOWN;
+        }
+        Histogram histogram = histogram( bound.valueGroup() );
+        if ( histogram == null )
+        {
+            // There were no values of this group at all when the index was sampled
+            return 0;
+        }
+        double from = lower == null ? 0 : histogram.entriesBelow( lower );
+        double to = upper == null ? histogram.entries : histogram.entriesBelow( upper );
+        double inRange = Math.max( to - from, 0 );
+        for ( int i = 0; i < frequentValues.length; i++ )
+        {
+            if ( isInRange( frequentValues[i], lower, lowerInclusive, upper, upperInclusive ) )
+            {
+                inRange += frequentCounts[i];
+            }
+        }
+        return Math.min( inRange / entries, 1.0 );
+    }
+
+    private static boolean isInRange( Value value, Value lower, boolean lowerInclusive, Value upper, boolean upperInclusive )
+    {
+        Value bound = lower != null ? lower : upper;
+        if ( value.valueGroup() != bound.valueGroup() )
+        {
+            return false;
+        }
+        if ( lower != null )
+        {
+            int compare = Values.COMPARATOR.compare( value, lower );
+            if ( compare < 0 || (compare == 0 && !lowerInclusive) )
+            {
+                return false;
+            }
+        }
+        if ( upper != null )
+        {
+            int compare = Values.COMPARATOR.compare( value, upper );
+            return compare < 0 || (compare == 0 && upperInclusive);
+        }
+        return true;
+    }
+
+    /**
+     * @param prefix the prefix that text values should start with.
+     * @return fraction of the index entries with a text value starting with the given prefix.
+     */
+    public double prefixFraction( String prefix )
+    {
+        return rangeFraction( Values.stringValue( prefix ), true, Values.stringValue( prefix + Character.MAX_VALUE ), false );
+    }
+
+    /**
+     * @return a copy of this histogram without its least common value, whose entries are counted in the bucket it falls in instead.
+     */
+    public IndexValueHistogram withoutLeastFrequentValue()
+    {
+        if ( frequentValues.length == 0 )
+        {
+            return this;
+        }
+        int least = 0;
+        for ( int i = 1; i < frequentCounts.length; i++ )
+        {
+            if ( frequentCounts[i] < frequentCounts[least] )
+            {
+                least = i;
+            }
+        }
+        Value value = frequentValues[least];
+        Histogram[] newHistograms = histograms.clone();
+        for ( int i = 0; i < newHistograms.length; i++ )
+        {
+            if ( newHistograms[i].group() == value.valueGroup() )
+            {
+                newHistograms[i] = newHistograms[i].withEntries( value, frequentCounts[least] );
+            }
+        }
+        Value[] newFrequentValues = new Value[frequentValues.length - 1];
+        long[] newFrequentCounts = new long[frequentCounts.length - 1];
+        for ( int i = 0, j = 0; i < frequentValues.length; i++ )
+        {
+            if ( i != least )
+            {
+                newFrequentValues[j] = frequentValues[i];
+                newFrequentCounts[j++] = frequentCounts[i];
+            }
+        }
+        return new IndexValueHistogram( entries, newHistograms, newFrequentValues, newFrequentCounts );
+    }
+
+    /**
+     * @return a copy of this histogram where every pair of adjacent buckets is merged into one.
+     */
+    public IndexValueHistogram withHalfTheBuckets()
+    {
+        Histogram[] newHistograms = new Histogram[histograms.length];
+        for ( int i = 0; i < histograms.length; i++ )
+        {
+            newHistograms[i] = histograms[i].withHalfTheBuckets();
+        }
+        return new IndexValueHistogram( entries, newHistograms, frequentValues, frequentCounts );
+    }
+
+    private long frequency( Value value )
+    {
+        for ( int i = 0; i < frequentValues.length; i++ )
+        {
+            if ( frequentValues[i].equals( value ) )
+            {
+                return frequentCounts[i];
+            }
+        }
+        return 0;
+    }
+
+    private Histogram histogram( ValueGroup group )
+    {
+        for ( Histogram histogram : histograms )
+        {
+            if ( histogram.group() == group )
+            {
+                return histogram;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+        IndexValueHistogram that = (IndexValueHistogram) o;
+        return entries == that.entries && Arrays.equals( histograms, that.histograms ) && Arrays.equals( frequentValues, that.frequentValues ) &&
+               Arrays.equals( frequentCounts, that.frequentCounts );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * Long.hashCode( entries ) + Arrays.hashCode( histograms );
+    }
+
+    @Override
+    public String toString()
+    {
+        return "IndexValueHistogram{" +
+               "entries=" + entries +
+               ", histograms=" + Arrays.toString( histograms ) +
+               ", frequentValues=" + Arrays.toString( frequentValues ) +
+               ", frequentCounts=" + Arrays.toString( frequentCounts ) +
+               '}';
+    }
+
+    /**
+     * Equi-depth histogram of the values of a single value group.
+     */
+    public static final class Histogram
+    {
+        private final Value lowest;
+        private final Value[] upperBounds;
+        private final long[] counts;
+        private final long entries;
+
+        public Histogram( Value lowest, Value[] upperBounds, long[] counts )
+        {
+            this.lowest = lowest;
+            this.upperBounds = upperBounds;
+            this.counts = counts;
+            this.entries = Arrays.stream( counts ).sum();
+        }
+
+        public ValueGroup group()
+        {
+            return lowest.valueGroup();
+        }
+
+        public Value lowest()
+        {
+            return lowest;
+        }
+
+        public Value[] upperBounds()
+        {
+            return upperBounds;
+        }
+
+        public long[] counts()
+        {
+            return counts;
+        }
+
+        Histogram withEntries( Value value, long count )
+        {
+            if ( upperBounds.length == 0 )
+            {
+                return this;
+            }
+            int bucket = 0;
+            while ( bucket < upperBounds.length - 1 && Values.COMPARATOR.compare( value, upperBounds[bucket] ) > 0 )
+            {
+                bucket++;
+            }
+            long[] newCounts = counts.clone();
+            newCounts[bucket] += count;
+            Value newLowest = Values.COMPARATOR.compare( value, lowest ) < 0 ? value : lowest;
+            Value[] newUpperBounds = upperBounds.clone();
+            if ( Values.COMPARATOR.compare( value, newUpperBounds[bucket] ) > 0 )
+            {
+                newUpperBounds[bucket] = value;
+            }
+            return new Histogram( newLowest, newUpperBounds, newCounts );
+        }
+
+        Histogram withHalfTheBuckets()
+        {
+            if ( upperBounds.length <= 1 )
+            {
+                return this;
+            }
+            int buckets = (upperBounds.length + 1) / 2;
+            Value[] newUpperBounds = new Value[buckets];
+            long[] newCounts = new long[buckets];
+            for ( int i = 0; i < upperBounds.length; i++ )
+            {
+                newUpperBounds[i / 2] = upperBounds[i];
+                newCounts[i / 2] += counts[i];
+            }
+            return new Histogram( lowest, newUpperBounds, newCounts );
+        }
+
+        /**
+         * Number of entries with a value lower than the given value, interpolating linearly within the bucket the value falls in.
+         */
+        double entriesBelow( Value value )
+        {
+            double below = 0;
+            Value bucketLower = lowest;
+            for ( int i = 0; i < upperBounds.length; i++ )
+            {
+                if ( Values.COMPARATOR.compare( value, upperBounds[i] ) > 0 )
+                {
+                    below += counts[i];
+                    bucketLower = upperBounds[i];
+                }
+                else
+                {
+                    return below + counts[i] * position( bucketLower, upperBounds[i], value );
+                }
+            }
+            return below;
+        }
+
+        private static double position( Value from, Value to, Value value )
+        {
+            if ( Values.COMPARATOR.compare( value, from ) <= 0 || Values.COMPARATOR.compare( from, to ) >= 0 )
+            {
+                return 0;
+            }
+            if ( value instanceof NumberValue )
+            {
+                double low = ((NumberValue) from).doubleValue();
+                double high = ((NumberValue) to).doubleValue();
+                return Math.min( (((NumberValue) value).doubleValue() - low) / (high - low), 1.0 );
+            }
+            String low = ((TextValue) from).stringValue();
+            String high = ((TextValue) to).stringValue();
+            int common = commonPrefixLength( low, high );
+            double lowPosition = scalar( low, common );
+            double highPosition = scalar( high, common );
+            if ( highPosition <= lowPosition )
+            {
+                return 0.5;
+            }
+            double valuePosition = scalar( ((TextValue) value).stringValue(), common );
+            return Math.min( (valuePosition - lowPosition) / (highPosition - lowPosition), 1.0 );
+        }
+
+        private static int commonPrefixLength( String a, String b )
+        {
+            int length = Math.min( a.length(), b.length() );
+            int i = 0;
+            while ( i < length && a.charAt( i ) == b.charAt( i ) )
+            {
+                i++;
+            }
+            return i;
+        }
+
+        /**
+         * Maps the first few characters after {@code offset} to a number in [0,1), preserving their order.
+         */
+        private static double scalar( String text, int offset )
+        {
+            double result = 0;
+            double scale = 1;
+            for ( int i = offset; i < Math.min( text.length(), offset + 4 ); i++ )
+            {
+                scale /= Character.MAX_VALUE + 1;
+                result += text.charAt( i ) * scale;
+            }
+            return result;
+        }
+
+        @Override
+        public boolean equals( Object o )
+        {
+            if ( this == o )
+            {
+                return true;
+            }
+            if ( o == null || getClass() != o.getClass() )
+            {
+                return false;
+            }
+            Histogram that = (Histogram) o;
+            return lowest.equals( that.lowest ) && Arrays.equals( upperBounds, that.upperBounds ) && Arrays.equals( counts, that.counts );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * lowest.hashCode() + Arrays.hashCode( counts );
+        }
+
+        @Override
+        public String toString()
+        {
+            return "Histogram{lowest=" + lowest + ", upperBounds=" + Arrays.toString( upperBounds ) + ", counts=" + Arrays.toString( counts ) + '}';
+        }
+    }
+}
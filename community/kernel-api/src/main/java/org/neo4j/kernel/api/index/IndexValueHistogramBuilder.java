@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.impl.factory.primitive.LongLists;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.neo4j.values.storable.TextValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueGroup;
+import org.neo4j.values.storable.Values;
+
+/**
+ * Builds an {@link IndexValueHistogram} in a single pass over the distinct values of an index, in index order, using memory bounded by
+ * the number of buckets and most common values rather than by the size of the index.
+ * <p>
+ * Since the number of entries isn't known up front, buckets are first closed at a small depth. Every time there are twice as many
+ * buckets as wanted, neighbouring buckets are merged and the depth is doubled.
+ */
+public class IndexValueHistogramBuilder
+{
+    private final int maxBuckets;
+    private final int maxFrequentValues;
+    private final List<GroupBuilder> groups = new ArrayList<>();
+    private final PriorityQueue<FrequentValue> frequentValues =
+            new PriorityQueue<>( Comparator.comparingLong( ( FrequentValue frequentValue ) -> frequentValue.count ) );
+    private GroupBuilder current;
+    private long entries;
+
+    public IndexValueHistogramBuilder()
+    {
+        this( IndexValueHistogram.MAX_BUCKETS, IndexValueHistogram.MAX_FREQUENT_VALUES );
+    }
+
+    public IndexValueHistogramBuilder( int maxBuckets, int maxFrequentValues )
+    {
+        this.maxBuckets = maxBuckets;
+        this.maxFrequentValues = maxFrequentValues;
+    }
+
+    /**
+     * @param value a distinct value in the index, must be called in index order.
+     * @param count number of index entries with this value.
+     */
+    public void add( Value value, long count )
+    {
+        add( value, count, true );
+    }
+
+    /**
+     * @param mayBeFrequent whether or not the value should be considered for the most common values, values estimated from a sample
+     * may have a large count without being known to be common.
+     */
+    void add( Value value, long count, boolean mayBeFrequent )
+    {
+        entries += count;
+        ValueGroup group = value.valueGroup();
+        if ( !IndexValueHistogram.isSupported( group ) )
+        {
+            return;
+        }
+        if ( current == null || current.group != group )
+        {
+            current = new GroupBuilder( group, maxBuckets );
+            groups.add( current );
+        }
+        current.add( value, count );
+        if ( mayBeFrequent && count > 1 && maxFrequentValues > 0 && !isTruncated( value ) )
+        {
+            if ( frequentValues.size() < maxFrequentValues )
+            {
+                frequentValues.add( new FrequentValue( value, count ) );
+            }
+            else if ( frequentValues.peek().count < count )
+            {
+                frequentValues.poll();
+                frequentValues.add( new FrequentValue( value, count ) );
+            }
+        }
+    }
+
+    public IndexValueHistogram build()
+    {
+        for ( GroupBuilder group : groups )
+        {
+            group.finish();
+            for ( FrequentValue frequentValue : frequentValues )
+            {
+                if ( group.group == frequentValue.value.valueGroup() )
+                {
+                    group.remove( frequentValue.value, frequentValue.count );
+                }
+            }
+        }
+        IndexValueHistogram.Histogram[] histograms = new IndexValueHistogram.Histogram[groups.size()];
+        for ( int i = 0; i < histograms.length; i++ )
+        {
+            histograms[i] = groups.get( i ).histogram();
+        }
+        Value[] values = new Value[frequentValues.size()];
+        long[] counts = new long[values.length];
+        int i = 0;
+        for ( FrequentValue frequentValue : frequentValues )
+        {
+            values[i] = frequentValue.value;
+            counts[i] = frequentValue.count;
+            i++;
+        }
+        return new IndexValueHistogram( entries, histograms, values, counts );
+    }
+
+    private static boolean isTruncated( Value value )
+    {
+        return value instanceof TextValue && ((TextValue) value).length() > IndexValueHistogram.MAX_TEXT_LENGTH;
+    }
+
+    private static Value truncate( Value value )
+    {
+        if ( !isTruncated( value ) )
+        {
+            return value;
+        }
+        String text = ((TextValue) value).stringValue();
+        return Values.stringValue( text.substring( 0, text.offsetByCodePoints( 0, IndexValueHistogram.MAX_TEXT_LENGTH ) ) );
+    }
+
+    private static class GroupBuilder
+    {
+        private final ValueGroup group;
+        private final int maxBuckets;
+        private final List<Value> upperBounds = new ArrayList<>();
+        private final MutableLongList counts = LongLists.mutable.empty();
+        private Value lowest;
+        private Value last;
+        private long depth = 1;
+        private long currentCount;
+
+        GroupBuilder( ValueGroup group, int maxBuckets )
+        {
+            this.group = group;
+            this.maxBuckets = maxBuckets;
+        }
+
+        void add( Value value, long count )
+        {
+            if ( lowest == null )
+            {
+                lowest = truncate( value );
+            }
+            last = value;
+            currentCount += count;
+            if ( currentCount >= depth )
+            {
+                closeBucket();
+                if ( upperBounds.size() >= 2 * maxBuckets )
+                {
+                    mergeBuckets();
+                    depth *= 2;
+                }
+            }
+        }
+
+        void finish()
+        {
+            if ( currentCount > 0 )
+            {
+                closeBucket();
+            }
+            while ( upperBounds.size() > maxBuckets )
+            {
+                mergeBuckets();
+            }
+        }
+
+        IndexValueHistogram.Histogram histogram()
+        {
+            return new IndexValueHistogram.Histogram( lowest, upperBounds.toArray( new Value[0] ), counts.toArray() );
+        }
+
+        /**
+         * Takes the entries of a most common value out of the bucket it falls in, must be called after {@link #finish()}.
+         */
+        void remove( Value value, long count )
+        {
+            int bucket = 0;
+            while ( bucket < upperBounds.size() - 1 && Values.COMPARATOR.compare( value, upperBounds.get( bucket ) ) > 0 )
+            {
+                bucket++;
+            }
+            counts.set( bucket, Math.max( counts.get( bucket ) - count, 0 ) );
+        }
+
+        private void closeBucket()
+        {
+            upperBounds.add( truncate( last ) );
+            counts.add( currentCount );
+            currentCount = 0;
+        }
+
+        /**
+         * Merges every pair of neighbouring buckets into one, keeping the upper bound of the second one.
+         */
+        private void mergeBuckets()
+        {
+            int merged = 0;
+            for ( int i = 0; i < upperBounds.size(); i += 2 )
+            {
+                int last = Math.min( i + 1, upperBounds.size() - 1 );
+                long count = counts.get( i ) + (last != i ? counts.get( last ) : 0);
+                upperBounds.set( merged, upperBounds.get( last ) );
+                counts.set( merged, count );
+                merged++;
+            }
+            while ( upperBounds.size() > merged )
+            {
+                upperBounds.remove( upperBounds.size() - 1 );
+                counts.removeAtIndex( counts.size() - 1 );
+            }
+        }
+    }
+
+    private static class FrequentValue
+    {
+        private final Value value;
+        private final long count;
+
+        FrequentValue( Value value, long count )
+        {
+            this.value = value;
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HyperLogLogTest
+{
+    @Test
+    void shouldCountFewDistinctItemsExactly()
+    {
+        HyperLogLog hyperLogLog = new HyperLogLog();
+        for ( int i = 0; i < 1000; i++ )
+        {
+            hyperLogLog.add( i % 10 );
+        }
+
+        assertEquals( 10, hyperLogLog.estimate() );
+    }
+
+    @Test
+    void shouldEstimateManyDistinctItems()
+    {
+        HyperLogLog hyperLogLog = new HyperLogLog();
+        for ( int i = 0; i < 1_000_000; i++ )
+        {
+            hyperLogLog.add( i );
+        }
+
+        assertEquals( 1_000_000, hyperLogLog.estimate(), 1_000_000 * 0.05 );
+    }
+
+    @Test
+    void shouldEstimateUnionWhenMerged()
+    {
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        for ( int i = 0; i < 60_000; i++ )
+        {
+            first.add( i );
+            second.add( i + 40_000 );
+        }
+
+        first.merge( second );
+
+        assertEquals( 100_000, first.estimate(), 100_000 * 0.05 );
+    }
+
+    @Test
+    void shouldNotMergeEstimatorsOfDifferentPrecision()
+    {
+        assertThrows( IllegalArgumentException.class, () -> new HyperLogLog( 10 ).merge( new HyperLogLog( 11 ) ) );
+    }
+}
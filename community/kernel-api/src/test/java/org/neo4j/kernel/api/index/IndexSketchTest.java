@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class IndexSketchTest
+{
+    @Test
+    void shouldSampleSeededAndAddedValues()
+    {
+        IndexSketch sketch = new IndexSketch( 1 );
+        for ( int i = 0; i < 1000; i++ )
+        {
+            sketch.add( values( i ), 3 );
+        }
+        for ( int i = 1000; i < 2000; i++ )
+        {
+            sketch.add( values( i ), 1 );
+        }
+
+        IndexSample sample = sketch.sample();
+
+        assertEquals( 4000, sample.indexSize() );
+        assertEquals( 2000, sample.uniqueValues(), 2000 * 0.05 );
+        assertEquals( 0, sample.updates() );
+        assertEquals( 0.75, sample.histogram().rangeFraction( null, false, Values.intValue( 1000 ), false ), 0.05 );
+    }
+
+    @Test
+    void shouldForgetRemovedEntries()
+    {
+        IndexSketch sketch = new IndexSketch( 1, 10 );
+        sketch.add( values( 1 ), 5 );
+        sketch.add( values( 2 ), 5 );
+
+        for ( int i = 0; i < 5; i++ )
+        {
+            sketch.remove( values( 1 ) );
+        }
+
+        IndexSample sample = sketch.sample();
+        assertEquals( 5, sample.indexSize() );
+        assertEquals( 5, sketch.removedEntries() );
+        assertEquals( 1.0, sample.histogram().equalityFraction( Values.intValue( 2 ), 1 ), 0.0001 );
+        assertEquals( 0.0, sample.histogram().rangeFraction( null, false, Values.intValue( 2 ), false ), 0.0001 );
+    }
+
+    @Test
+    void shouldFindMostCommonValuesInSample()
+    {
+        IndexSketch sketch = new IndexSketch( 1 );
+        sketch.add( values( "common" ), 10_000 );
+        for ( int i = 0; i < 10_000; i++ )
+        {
+            sketch.add( values( "rare" + i ), 1 );
+        }
+
+        IndexValueHistogram histogram = sketch.sample().histogram();
+
+        assertEquals( 0.5, histogram.equalityFraction( Values.stringValue( "common" ), 10_001 ), 0.05 );
+        assertEquals( 0.0001, histogram.equalityFraction( Values.stringValue( "rare1" ), 10_001 ), 0.0001 );
+    }
+
+    @Test
+    void shouldOnlyCountDistinctValuesOfCompositeIndexes()
+    {
+        IndexSketch sketch = new IndexSketch( 2 );
+        for ( int i = 0; i < 100; i++ )
+        {
+            sketch.add( new Value[]{Values.intValue( i % 10 ), Values.stringValue( "a" )}, 1 );
+        }
+
+        IndexSample sample = sketch.sample();
+        assertEquals( 100, sample.indexSize() );
+        assertEquals( 10, sample.uniqueValues() );
+        assertSame( IndexValueHistogram.EMPTY, sample.histogram() );
+    }
+
+    @Test
+    void shouldTrackHeapOfSampledValuesUntilClosed()
+    {
+        IndexSketch sketch = new IndexSketch( 1, 10 );
+        long emptySize = sketch.estimatedHeapUsage();
+        sketch.add( values( "before tracking" ), 1 );
+        LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+
+        sketch.trackMemory( memoryTracker );
+        assertEquals( sketch.estimatedHeapUsage(), memoryTracker.estimatedHeapMemory() );
+        sketch.update( List.<Value[]>of( values( "before tracking" ) ), List.of( values( "a" ), values( "a" ), values( "b" ) ) );
+        assertEquals( sketch.estimatedHeapUsage(), memoryTracker.estimatedHeapMemory() );
+        for ( int i = 0; i < 100; i++ )
+        {
+            sketch.add( values( "value " + i ), 1 );
+        }
+        assertEquals( sketch.estimatedHeapUsage(), memoryTracker.estimatedHeapMemory() );
+        assertThat( memoryTracker.estimatedHeapMemory() ).isGreaterThan( emptySize );
+
+        sketch.close();
+        assertEquals( 0, memoryTracker.estimatedHeapMemory() );
+        assertEquals( 103, sketch.entries() );
+    }
+
+    private static Value[] values( Object value )
+    {
+        return new Value[]{Values.of( value )};
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.values.storable.Values;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexValueHistogramBuilderTest
+{
+    @Test
+    void shouldKeepNumberOfBucketsBounded()
+    {
+        IndexValueHistogramBuilder builder = new IndexValueHistogramBuilder( 8, 4 );
+        for ( int i = 0; i < 10_000; i++ )
+        {
+            builder.add( Values.intValue( i ), 1 );
+        }
+
+        IndexValueHistogram histogram = builder.build();
+
+        assertEquals( 10_000, histogram.entries() );
+        assertEquals( 1, histogram.histograms().length );
+        assertTrue( histogram.histograms()[0].counts().length <= 8 );
+        assertEquals( 0, histogram.frequentValues().length );
+    }
+
+    @Test
+    void shouldEstimateRangesOfUniformValues()
+    {
+        IndexValueHistogramBuilder builder = new IndexValueHistogramBuilder();
+        for ( int i = 0; i < 1000; i++ )
+        {
+            builder.add( Values.intValue( i ), 1 );
+        }
+
+        IndexValueHistogram histogram = builder.build();
+
+        assertEquals( 0.1, histogram.rangeFraction( Values.intValue( 900 ), true, null, false ), 0.02 );
+        assertEquals( 0.5, histogram.rangeFraction( Values.intValue( 250 ), true, Values.intValue( 750 ), false ), 0.02 );
+        assertEquals( 0.0, histogram.rangeFraction( Values.intValue( 2000 ), true, null, false ), 0.001 );
+        assertEquals( 0.0, histogram.rangeFraction( Values.stringValue( "a" ), true, null, false ), 0.001 );
+    }
+
+    @Test
+    void shouldEstimateMostCommonValuesFromTheirCounts()
+    {
+        IndexValueHistogramBuilder builder = new IndexValueHistogramBuilder();
+        builder.add( Values.intValue( 1 ), 1 );
+        builder.add( Values.intValue( 2 ), 900 );
+        for ( int i = 3; i < 102; i++ )
+        {
+            builder.add( Values.intValue( i ), 1 );
+        }
+
+        IndexValueHistogram histogram = builder.build();
+
+        assertEquals( 0.9, histogram.equalityFraction( Values.intValue( 2 ), 101 ), 0.0001 );
+        assertEquals( 0.001, histogram.equalityFraction( Values.intValue( 50 ), 101 ), 0.0001 );
+    }
+
+    @Test
+    void shouldEstimatePrefixesOfText()
+    {
+        IndexValueHistogramBuilder builder = new IndexValueHistogramBuilder();
+        for ( char c = 'a'; c <= 'z'; c++ )
+        {
+            for ( int i = 0; i < 10; i++ )
+            {
+                builder.add( Values.stringValue( c + String.valueOf( i ) ), c == 'q' ? 100 : 1 );
+            }
+        }
+
+        IndexValueHistogram histogram = builder.build();
+
+        assertTrue( histogram.prefixFraction( "q" ) > 0.5 );
+        assertTrue( histogram.prefixFraction( "b" ) < 0.05 );
+        assertEquals( IndexValueHistogram.UNKNOWN, histogram.rangeFraction( Values.intValue( 1 ), true, Values.stringValue( "a" ), true ) );
+    }
+}
@@ -449,8 +449,8 @@ public class Database extends LifecycleAdapter
             DynamicIndexStoreView indexStoreView =
                     new DynamicIndexStoreView( neoStoreIndexStoreView, labelScanStore, relationshipTypeScanStore, lockService, storageEngine::newReader,
                             internalLogProvider, databaseConfig );
-            IndexStatisticsStore indexStatisticsStore = new IndexStatisticsStore( databasePageCache, databaseLayout, recoveryCleanupWorkCollector,
-                    readOnly, pageCacheTracer );
+            IndexStatisticsStore indexStatisticsStore = new IndexStatisticsStore( databasePageCache, databaseLayout, fs, recoveryCleanupWorkCollector,
+                    readOnly, pageCacheTracer, otherDatabaseMemoryTracker );
             IndexingService indexingService = buildIndexingService( storageEngine, databaseSchemaState, indexStoreView, indexStatisticsStore,
                     pageCacheTracer, otherDatabaseMemoryTracker );
 
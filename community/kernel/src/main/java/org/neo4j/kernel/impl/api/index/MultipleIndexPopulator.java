@@ -49,6 +49,7 @@ import org.neo4j.internal.helpers.collection.Visitor;
 import org.neo4j.internal.kernel.api.InternalIndexState;
 import org.neo4j.internal.kernel.api.PopulationProgress;
 import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.internal.schema.IndexFilter;
 import org.neo4j.internal.schema.SchemaDescriptor;
 import org.neo4j.internal.schema.SchemaDescriptorSupplier;
 import org.neo4j.internal.schema.SchemaState;
@@ -408,7 +409,10 @@ public class MultipleIndexPopulator
 
     private IntStream propertyKeyIds( IndexPopulation population )
     {
-        return IntStream.of( population.schema().getPropertyIds() );
+        IndexFilter indexFilter = population.indexFilter();
+        IntStream filterPropertyKeyIds = indexFilter.isPartial() ? IntStream.of( indexFilter.propertyKeyId() ) : IntStream.empty();
+        return IntStream.concat( IntStream.concat( IntStream.of( population.schema().getPropertyIds() ), IntStream.of( population.includedPropertyIds() ) ),
+                filterPropertyKeyIds );
     }
 
     private int[] entityTokenIds()
@@ -832,6 +836,18 @@ public class MultipleIndexPopulator
             return indexUserDescription;
         }
 
+        @Override
+        public int[] includedPropertyIds()
+        {
+            return indexDescriptor.includedPropertyIds();
+        }
+
+        @Override
+        public IndexFilter indexFilter()
+        {
+            return indexDescriptor.indexFilter();
+        }
+
         boolean addToBatchFromScan( IndexEntryUpdate<?> update )
         {
             batchedUpdatesFromScan.add( update );
@@ -876,7 +892,8 @@ public class MultipleIndexPopulator
 
     private static long roughSizeOfUpdate( IndexEntryUpdate<?> update )
     {
-        return heapSizeOf( update.values() ) + (update.updateMode() == UpdateMode.CHANGED ? heapSizeOf( update.beforeValues() ) : 0);
+        return heapSizeOf( update.values() ) + heapSizeOf( update.includedValues() ) +
+                (update.updateMode() == UpdateMode.CHANGED ? heapSizeOf( update.beforeValues() ) : 0);
     }
 
     private static long heapSizeOf( Value[] values )
@@ -24,7 +24,9 @@ import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.api.index.IndexReader;
 import org.neo4j.kernel.api.index.IndexSample;
 import org.neo4j.kernel.api.index.IndexSampler;
+import org.neo4j.kernel.api.index.IndexSketch;
 import org.neo4j.kernel.impl.api.index.IndexProxy;
+import org.neo4j.kernel.impl.api.index.IndexSamplingConfig;
 import org.neo4j.kernel.impl.api.index.stats.IndexStatisticsStore;
 import org.neo4j.kernel.impl.util.DurationLogger;
 import org.neo4j.logging.Log;
@@ -39,17 +41,19 @@ class OnlineIndexSamplingJob implements IndexSamplingJob
     private final long indexId;
     private final IndexProxy indexProxy;
     private final IndexStatisticsStore indexStatisticsStore;
+    private final IndexSamplingConfig config;
     private final Log log;
     private final String indexUserDescription;
     private final String indexName;
     private final PageCacheTracer pageCacheTracer;
 
-    OnlineIndexSamplingJob( long indexId, IndexProxy indexProxy, IndexStatisticsStore indexStatisticsStore, String indexUserDescription, String indexName,
-            LogProvider logProvider, PageCacheTracer pageCacheTracer )
+    OnlineIndexSamplingJob( long indexId, IndexProxy indexProxy, IndexStatisticsStore indexStatisticsStore, IndexSamplingConfig config,
+            String indexUserDescription, String indexName, LogProvider logProvider, PageCacheTracer pageCacheTracer )
     {
         this.indexId = indexId;
         this.indexProxy = indexProxy;
         this.indexStatisticsStore = indexStatisticsStore;
+        this.config = config;
         this.log = logProvider.getLog( getClass() );
         this.indexUserDescription = indexUserDescription;
         this.indexName = indexName;
@@ -70,6 +74,39 @@ class OnlineIndexSamplingJob implements IndexSamplingJob
 
     @Override
     public void run()
+    {
+        IndexSketch sketch = config.incrementalSampling() ? indexStatisticsStore.sketch( indexId ) : null;
+        if ( sketch != null && !isStale( sketch ) )
+        {
+            sampleIncrementally( sketch );
+        }
+        else
+        {
+            sampleFully();
+        }
+    }
+
+    /**
+     * A sketch can't forget removed values exactly, so once as many entries have been removed as it takes to trigger a sample it's
+     * time to scan the index again.
+     */
+    private boolean isStale( IndexSketch sketch )
+    {
+        return sketch.removedEntries() > Math.round( config.updateRatio() * sketch.entries() );
+    }
+
+    private void sampleIncrementally( IndexSketch sketch )
+    {
+        IndexSample sample = sketch.sample();
+        if ( indexProxy.getState() == ONLINE )
+        {
+            indexStatisticsStore.replaceStats( indexId, sample );
+            log.debug( format( "Incrementally sampled index %s with %d estimated unique values, index containing %d entries",
+                    indexUserDescription, sample.uniqueValues(), sample.indexSize() ) );
+        }
+    }
+
+    private void sampleFully()
     {
         try ( DurationLogger durationLogger = new DurationLogger( log, "Sampling index " + indexUserDescription ) )
         {
@@ -85,6 +122,10 @@ class OnlineIndexSamplingJob implements IndexSamplingJob
                     if ( indexProxy.getState() == ONLINE )
                     {
                         indexStatisticsStore.replaceStats( indexId, sample );
+                        if ( config.incrementalSampling() && sample.sketch() != null )
+                        {
+                            indexStatisticsStore.replaceSketch( indexId, sample.sketch() );
+                        }
                         durationLogger.markAsFinished();
                         log.debug(
                                 format( "Sampled index %s with %d unique values in sample of avg size %d taken from " +
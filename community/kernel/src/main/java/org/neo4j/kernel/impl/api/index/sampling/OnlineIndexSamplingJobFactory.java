@@ -22,20 +22,23 @@ package org.neo4j.kernel.impl.api.index.sampling;
 import org.neo4j.common.TokenNameLookup;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.impl.api.index.IndexProxy;
+import org.neo4j.kernel.impl.api.index.IndexSamplingConfig;
 import org.neo4j.kernel.impl.api.index.stats.IndexStatisticsStore;
 import org.neo4j.logging.LogProvider;
 
 public class OnlineIndexSamplingJobFactory implements IndexSamplingJobFactory
 {
     private final IndexStatisticsStore indexStatisticsStore;
+    private final IndexSamplingConfig config;
     private final LogProvider logProvider;
     private final TokenNameLookup nameLookup;
     private final PageCacheTracer pageCacheTracer;
 
-    public OnlineIndexSamplingJobFactory( IndexStatisticsStore indexStatisticsStore, TokenNameLookup nameLookup, LogProvider logProvider,
-            PageCacheTracer pageCacheTracer )
+    public OnlineIndexSamplingJobFactory( IndexStatisticsStore indexStatisticsStore, IndexSamplingConfig config, TokenNameLookup nameLookup,
+            LogProvider logProvider, PageCacheTracer pageCacheTracer )
     {
         this.indexStatisticsStore = indexStatisticsStore;
+        this.config = config;
         this.logProvider = logProvider;
         this.nameLookup = nameLookup;
         this.pageCacheTracer = pageCacheTracer;
@@ -46,6 +49,7 @@ public class OnlineIndexSamplingJobFactory implements IndexSamplingJobFactory
     {
         final String indexUserDescription = indexProxy.getDescriptor().userDescription( nameLookup );
         String indexName = indexProxy.getDescriptor().getName();
-        return new OnlineIndexSamplingJob( indexId, indexProxy, indexStatisticsStore, indexUserDescription, indexName, logProvider, pageCacheTracer );
+        return new OnlineIndexSamplingJob( indexId, indexProxy, indexStatisticsStore, config, indexUserDescription, indexName, logProvider,
+                pageCacheTracer );
     }
 }
@@ -19,18 +19,50 @@
  */
 package org.neo4j.kernel.impl.api.index.stats;
 
+import java.nio.charset.StandardCharsets;
+
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.Layout;
 import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.api.index.IndexValueHistogram;
+import org.neo4j.values.storable.NumberValue;
+import org.neo4j.values.storable.TextValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
 
 /**
  * {@link GBPTree} layout in {@link IndexStatisticsStore}, using {@link IndexStatisticsKey} and {@link IndexStatisticsValue}.
+ * <p>
+ * Values are the four counts followed by the {@link IndexValueHistogram} of the index, if it has one. Version 0.2 of this layout
+ * stored fixed size values with only the counts, {@link #legacyLayout()} is there to read such stores. Versions that only know
+ * the legacy layout refuse to open a store in the current layout, rather than misreading it.
  */
 public class IndexStatisticsLayout extends Layout.Adapter<IndexStatisticsKey,IndexStatisticsValue>
 {
+    private static final long IDENTIFIER = 556_677;
+    private static final int MAJOR_VERSION = 0;
+    private static final int LEGACY_MINOR_VERSION = 2;
+    private static final int MINOR_VERSION = 3;
+    private static final int COUNTS_SIZE = Long.BYTES * 4;
+    private static final byte NUMBER = 0;
+    private static final byte TEXT = 1;
+
+    private final boolean withHistograms;
+
     public IndexStatisticsLayout()
     {
-        super( true, 556_677, 0, 2 );
+        this( true );
+    }
+
+    private IndexStatisticsLayout( boolean withHistograms )
+    {
+        super( !withHistograms, IDENTIFIER, MAJOR_VERSION, withHistograms ? MINOR_VERSION : LEGACY_MINOR_VERSION );
+        this.withHistograms = withHistograms;
+    }
+
+    static IndexStatisticsLayout legacyLayout()
+    {
+        return new IndexStatisticsLayout( false );
     }
 
     @Override
@@ -61,7 +93,74 @@ public class IndexStatisticsLayout extends Layout.Adapter<IndexStatisticsKey,Ind
     @Override
     public int valueSize( IndexStatisticsValue value )
     {
-        return IndexStatisticsValue.SIZE;
+        if ( !withHistograms )
+        {
+            return IndexStatisticsValue.SIZE;
+        }
+        IndexValueHistogram histogram = value.getHistogram();
+        if ( histogram.isEmpty() )
+        {
+            return COUNTS_SIZE;
+        }
+        int size = COUNTS_SIZE + Long.BYTES + Byte.BYTES + Short.BYTES;
+        for ( IndexValueHistogram.Histogram group : histogram.histograms() )
+        {
+            size += valueSize( group.lowest() ) + Short.BYTES;
+        }
+        return size + bucketsSize( histogram ) + frequentValuesSize( histogram );
+    }
+
+    /**
+     * Drops the least common values and merges buckets of the given histogram, until a value holding it is at most the given size.
+     * Gives up on the histogram if even the counts and a single bucket per value group don't fit.
+     */
+    IndexValueHistogram fitHistogram( IndexValueHistogram histogram, int maxValueSize )
+    {
+        IndexStatisticsValue value = new IndexStatisticsValue( 0, 0, 0, 0, histogram );
+        while ( valueSize( value ) > maxValueSize )
+        {
+            IndexValueHistogram current = value.getHistogram();
+            IndexValueHistogram trimmed = frequentValuesSize( current ) >= bucketsSize( current ) ?
+                                          current.withoutLeastFrequentValue() : current.withHalfTheBuckets();
+            if ( trimmed.equals( current ) )
+            {
+                trimmed = current.withoutLeastFrequentValue().withHalfTheBuckets();
+                if ( trimmed.equals( current ) )
+                {
+                    return IndexValueHistogram.EMPTY;
+                }
+            }
+            value = new IndexStatisticsValue( 0, 0, 0, 0, trimmed );
+        }
+        return value.getHistogram();
+    }
+
+    private static int frequentValuesSize( IndexValueHistogram histogram )
+    {
+        int size = 0;
+        for ( Value frequentValue : histogram.frequentValues() )
+        {
+            size += valueSize( frequentValue ) + Long.BYTES;
+        }
+        return size;
+    }
+
+    private static int bucketsSize( IndexValueHistogram histogram )
+    {
+        int size = 0;
+        for ( IndexValueHistogram.Histogram group : histogram.histograms() )
+        {
+            for ( Value bound : group.upperBounds() )
+            {
+                size += valueSize( bound ) + Long.BYTES;
+            }
+        }
+        return size;
+    }
+
+    private static int valueSize( Value value )
+    {
+        return Byte.BYTES + (value instanceof TextValue ? Short.BYTES + utf8( value ).length : Double.BYTES);
     }
 
     @Override
@@ -77,6 +176,49 @@ public class IndexStatisticsLayout extends Layout.Adapter<IndexStatisticsKey,Ind
         cursor.putLong( value.getSampleSize() );
         cursor.putLong( value.getUpdatesCount() );
         cursor.putLong( value.getIndexSize() );
+        IndexValueHistogram histogram = value.getHistogram();
+        if ( withHistograms && !histogram.isEmpty() )
+        {
+            cursor.putLong( histogram.entries() );
+            cursor.putByte( (byte) histogram.histograms().length );
+            for ( IndexValueHistogram.Histogram group : histogram.histograms() )
+            {
+                writeValue( cursor, group.lowest() );
+                cursor.putShort( (short) group.upperBounds().length );
+                for ( int i = 0; i < group.upperBounds().length; i++ )
+                {
+                    writeValue( cursor, group.upperBounds()[i] );
+                    cursor.putLong( group.counts()[i] );
+                }
+            }
+            cursor.putShort( (short) histogram.frequentValues().length );
+            for ( int i = 0; i < histogram.frequentValues().length; i++ )
+            {
+                writeValue( cursor, histogram.frequentValues()[i] );
+                cursor.putLong( histogram.frequentCounts()[i] );
+            }
+        }
+    }
+
+    private static void writeValue( PageCursor cursor, Value value )
+    {
+        if ( value instanceof TextValue )
+        {
+            byte[] bytes = utf8( value );
+            cursor.putByte( TEXT );
+            cursor.putShort( (short) bytes.length );
+            cursor.putBytes( bytes );
+        }
+        else
+        {
+            cursor.putByte( NUMBER );
+            cursor.putLong( Double.doubleToLongBits( ((NumberValue) value).doubleValue() ) );
+        }
+    }
+
+    private static byte[] utf8( Value value )
+    {
+        return ((TextValue) value).stringValue().getBytes( StandardCharsets.UTF_8 );
     }
 
     @Override
@@ -92,6 +234,44 @@ public class IndexStatisticsLayout extends Layout.Adapter<IndexStatisticsKey,Ind
         into.setSampleSize( cursor.getLong() );
         into.setUpdatesCount( cursor.getLong() );
         into.setIndexSize( cursor.getLong() );
+        into.setHistogram( withHistograms && valueSize > COUNTS_SIZE ? readHistogram( cursor ) : IndexValueHistogram.EMPTY );
+    }
+
+    private static IndexValueHistogram readHistogram( PageCursor cursor )
+    {
+        long entries = cursor.getLong();
+        IndexValueHistogram.Histogram[] groups = new IndexValueHistogram.Histogram[Math.max( cursor.getByte(), 0 )];
+        for ( int i = 0; i < groups.length; i++ )
+        {
+            Value lowest = readValue( cursor );
+            Value[] upperBounds = new Value[Math.max( cursor.getShort(), 0 )];
+            long[] counts = new long[upperBounds.length];
+            for ( int j = 0; j < upperBounds.length; j++ )
+            {
+                upperBounds[j] = readValue( cursor );
+                counts[j] = cursor.getLong();
+            }
+            groups[i] = new IndexValueHistogram.Histogram( lowest, upperBounds, counts );
+        }
+        Value[] frequentValues = new Value[Math.max( cursor.getShort(), 0 )];
+        long[] frequentCounts = new long[frequentValues.length];
+        for ( int i = 0; i < frequentValues.length; i++ )
+        {
+            frequentValues[i] = readValue( cursor );
+            frequentCounts[i] = cursor.getLong();
+        }
+        return new IndexValueHistogram( entries, groups, frequentValues, frequentCounts );
+    }
+
+    private static Value readValue( PageCursor cursor )
+    {
+        if ( cursor.getByte() == TEXT )
+        {
+            byte[] bytes = new byte[Math.max( cursor.getShort(), 0 )];
+            cursor.getBytes( bytes );
+            return Values.utf8Value( bytes );
+        }
+        return Values.doubleValue( Double.longBitsToDouble( cursor.getLong() ) );
     }
 
     @Override
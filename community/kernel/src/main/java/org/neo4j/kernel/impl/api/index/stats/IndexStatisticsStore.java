@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.api.index.stats;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -31,31 +32,41 @@ import java.util.function.BiConsumer;
 import org.neo4j.annotations.documented.ReporterFactory;
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.GBPTreeConsistencyCheckVisitor;
+import org.neo4j.index.internal.gbptree.MetadataMismatchException;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
 import org.neo4j.index.internal.gbptree.Seeker;
 import org.neo4j.index.internal.gbptree.TreeFileNotFoundException;
+import org.neo4j.index.internal.gbptree.TreeNodeDynamicSize;
 import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.api.index.IndexSketch;
+import org.neo4j.kernel.api.index.IndexValueHistogram;
 import org.neo4j.kernel.impl.index.schema.ConsistencyCheckable;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.memory.MemoryTracker;
 
 import static org.eclipse.collections.api.factory.Sets.immutable;
 
 /**
  * A simple store for keeping index statistics counts, like number of updates, index size, number of unique values a.s.o.
+ * as well as the {@link IndexValueHistogram value histograms} built when sampling native indexes.
  * These values aren't updated transactionally and so the data is just kept in memory and flushed to a {@link GBPTree} on every checkpoint.
  * Neither reads, writes nor checkpoints block each other.
  *
+ * Indexes that are sampled incrementally also have an {@link IndexSketch} here, which is kept up to date with the updates of the index.
+ * Sketches are only kept in memory, after a restart the next sample of an index is a full scan which seeds a new sketch.
+ *
  * The store is accessible after {@link #init()} has been called.
  */
 public class IndexStatisticsStore extends LifecycleAdapter implements IndexStatisticsVisitor.Visitable, ConsistencyCheckable
 {
-    private static final ImmutableIndexStatistics EMPTY_STATISTICS = new ImmutableIndexStatistics( 0, 0, 0, 0 );
+    private static final ImmutableIndexStatistics EMPTY_STATISTICS = new ImmutableIndexStatistics( 0, 0, 0, 0, IndexValueHistogram.EMPTY );
 
     // Used in GBPTree.seek. Please don't use for writes
     private static final IndexStatisticsKey LOWEST_KEY = new IndexStatisticsKey( Long.MIN_VALUE );
@@ -63,39 +74,69 @@ public class IndexStatisticsStore extends LifecycleAdapter implements IndexStati
     private static final String INIT_TAG = "Initialize IndexStatisticsStore";
 
     private final PageCache pageCache;
+    private final FileSystemAbstraction fs;
     private final Path path;
     private final RecoveryCleanupWorkCollector recoveryCleanupWorkCollector;
     private final PageCacheTracer pageCacheTracer;
     private final IndexStatisticsLayout layout;
+    private final int maxValueSize;
     private final boolean readOnly;
+    private final MemoryTracker memoryTracker;
     private GBPTree<IndexStatisticsKey,IndexStatisticsValue> tree;
     // Let IndexStatisticsValue be immutable in this map so that checkpoint doesn't have to coordinate with concurrent writers
     // It's assumed that the data in this map will be so small that everything can just be in it always.
     private final ConcurrentHashMap<Long,ImmutableIndexStatistics> cache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long,IndexSketch> sketches = new ConcurrentHashMap<>();
 
-    public IndexStatisticsStore( PageCache pageCache, Path path, RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, boolean readOnly,
-            PageCacheTracer pageCacheTracer )
+    public IndexStatisticsStore( PageCache pageCache, Path path, FileSystemAbstraction fs, RecoveryCleanupWorkCollector recoveryCleanupWorkCollector,
+            boolean readOnly, PageCacheTracer pageCacheTracer, MemoryTracker memoryTracker )
     {
         this.pageCache = pageCache;
+        this.fs = fs;
         this.path = path;
         this.recoveryCleanupWorkCollector = recoveryCleanupWorkCollector;
         this.pageCacheTracer = pageCacheTracer;
         this.layout = new IndexStatisticsLayout();
+        this.maxValueSize = TreeNodeDynamicSize.keyValueSizeCapFromPageSize( pageCache.pageSize() ) - IndexStatisticsKey.SIZE;
         this.readOnly = readOnly;
+        this.memoryTracker = memoryTracker;
     }
 
-    public IndexStatisticsStore( PageCache pageCache, DatabaseLayout databaseLayout, RecoveryCleanupWorkCollector recoveryCleanupWorkCollector,
-            boolean readOnly, PageCacheTracer pageCacheTracer )
+    public IndexStatisticsStore( PageCache pageCache, DatabaseLayout databaseLayout, FileSystemAbstraction fs,
+            RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, boolean readOnly, PageCacheTracer pageCacheTracer, MemoryTracker memoryTracker )
     {
-        this( pageCache, databaseLayout.indexStatisticsStore(), recoveryCleanupWorkCollector, readOnly, pageCacheTracer );
+        this( pageCache, databaseLayout.indexStatisticsStore(), fs, recoveryCleanupWorkCollector, readOnly, pageCacheTracer, memoryTracker );
     }
 
     @Override
     public void init() throws IOException
+    {
+        try ( var cursorTracer = pageCacheTracer.createPageCursorTracer( INIT_TAG ) )
+        {
+            try
+            {
+                tree = openTree( layout );
+            }
+            catch ( MetadataMismatchException e )
+            {
+                // The store was written by a version which didn't keep value histograms
+                upgradeLegacyStore( cursorTracer );
+                return;
+            }
+            scanTree( ( key, value ) -> cache.put( key.getIndexId(), new ImmutableIndexStatistics( value ) ), cursorTracer );
+        }
+    }
+
+    private GBPTree<IndexStatisticsKey,IndexStatisticsValue> openTree( IndexStatisticsLayout treeLayout )
+    {
+        return openTree( path, treeLayout );
+    }
+
+    private GBPTree<IndexStatisticsKey,IndexStatisticsValue> openTree( Path treePath, IndexStatisticsLayout treeLayout )
     {
         try
         {
-            tree = new GBPTree<>( pageCache, path, layout, GBPTree.NO_MONITOR, GBPTree.NO_HEADER_READER, GBPTree.NO_HEADER_WRITER,
+            return new GBPTree<>( pageCache, treePath, treeLayout, GBPTree.NO_MONITOR, GBPTree.NO_HEADER_READER, GBPTree.NO_HEADER_WRITER,
                     recoveryCleanupWorkCollector, readOnly, pageCacheTracer, immutable.empty(), "Statistics store" );
         }
         catch ( TreeFileNotFoundException e )
@@ -103,32 +144,83 @@ public class IndexStatisticsStore extends LifecycleAdapter implements IndexStati
             throw new IllegalStateException(
                     "Index statistics store file could not be found, most likely this database needs to be recovered, file:" + path, e );
         }
-        try ( var cursorTracer = pageCacheTracer.createPageCursorTracer( INIT_TAG ) )
+    }
+
+    /**
+     * Reads the counts from a store in the legacy format. Unless read only, the legacy store is then replaced by one in the current format.
+     * The new store is written in full to a file of its own first, which is then moved over the legacy store in one atomic step, so
+     * a crash during the upgrade leaves either the legacy or the upgraded store behind. In read only mode the legacy tree is kept open,
+     * histograms will just be missing until the store is opened for writing.
+     */
+    private void upgradeLegacyStore( PageCursorTracer cursorTracer ) throws IOException
+    {
+        tree = openTree( IndexStatisticsLayout.legacyLayout() );
+        scanTree( ( key, value ) -> cache.put( key.getIndexId(), new ImmutableIndexStatistics( value ) ), cursorTracer );
+        if ( !readOnly )
         {
-            scanTree( ( key, value ) -> cache.put( key.getIndexId(), new ImmutableIndexStatistics( value ) ), cursorTracer );
+            tree.close();
+            Path upgradePath = path.resolveSibling( path.getFileName() + ".upgrade" );
+            // Left behind by an upgrade that didn't finish
+            fs.deleteFile( upgradePath );
+            tree = openTree( upgradePath, layout );
+            checkpoint( IOLimiter.UNLIMITED, cursorTracer );
+            tree.close();
+            fs.renameFile( upgradePath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+            tree = openTree( layout );
         }
     }
 
     public IndexSample indexSample( long indexId )
     {
         ImmutableIndexStatistics value = cache.getOrDefault( indexId, EMPTY_STATISTICS );
-        return new IndexSample( value.indexSize, value.sampleUniqueValues, value.sampleSize, value.updatesCount );
+        return new IndexSample( value.indexSize, value.sampleUniqueValues, value.sampleSize, value.updatesCount, value.histogram );
     }
 
     public void replaceStats( long indexId, IndexSample sample )
     {
-        cache.put( indexId, new ImmutableIndexStatistics( sample.uniqueValues(), sample.sampleSize(), sample.updates(), sample.indexSize() ) );
+        // Histograms of long text values may not fit in a single tree entry as they are
+        IndexValueHistogram histogram = layout.fitHistogram( sample.histogram(), maxValueSize );
+        cache.put( indexId, new ImmutableIndexStatistics( sample.uniqueValues(), sample.sampleSize(), sample.updates(), sample.indexSize(),
+                histogram ) );
     }
 
     public void removeIndex( long indexId )
     {
         cache.remove( indexId );
+        IndexSketch sketch = sketches.remove( indexId );
+        if ( sketch != null )
+        {
+            sketch.close();
+        }
+    }
+
+    /**
+     * @return the sketch of the given index, or {@code null} if the index isn't sampled incrementally.
+     */
+    public IndexSketch sketch( long indexId )
+    {
+        return sketches.get( indexId );
+    }
+
+    /**
+     * Starts sampling the given index incrementally from the given sketch, replacing any previous sketch of the index.
+     * The sketch is kept up to date by the updaters of the index from now on, and its heap is tracked until it is replaced or removed.
+     */
+    public void replaceSketch( long indexId, IndexSketch sketch )
+    {
+        sketch.trackMemory( memoryTracker );
+        IndexSketch previous = sketches.put( indexId, sketch );
+        if ( previous != null )
+        {
+            previous.close();
+        }
     }
 
     public void incrementIndexUpdates( long indexId, long delta )
     {
         cache.computeIfPresent( indexId, ( id, existing ) ->
-                new ImmutableIndexStatistics( existing.sampleUniqueValues, existing.sampleSize, existing.updatesCount + delta, existing.indexSize ) );
+                new ImmutableIndexStatistics( existing.sampleUniqueValues, existing.sampleSize, existing.updatesCount + delta, existing.indexSize,
+                        existing.histogram ) );
     }
 
     @Override
@@ -212,7 +304,7 @@ public class IndexStatisticsStore extends LifecycleAdapter implements IndexStati
             {
                 ImmutableIndexStatistics stats = entry.getValue();
                 writer.put( new IndexStatisticsKey( entry.getKey() ),
-                        new IndexStatisticsValue( stats.sampleUniqueValues, stats.sampleSize, stats.updatesCount, stats.indexSize ) );
+                        new IndexStatisticsValue( stats.sampleUniqueValues, stats.sampleSize, stats.updatesCount, stats.indexSize, stats.histogram ) );
             }
         }
     }
@@ -225,6 +317,8 @@ public class IndexStatisticsStore extends LifecycleAdapter implements IndexStati
     @Override
     public void shutdown() throws IOException
     {
+        sketches.values().forEach( IndexSketch::close );
+        sketches.clear();
         tree.close();
     }
 
@@ -234,18 +328,20 @@ public class IndexStatisticsStore extends LifecycleAdapter implements IndexStati
         private final long sampleSize;
         private final long updatesCount;
         private final long indexSize;
+        private final IndexValueHistogram histogram;
 
-        ImmutableIndexStatistics( long sampleUniqueValues, long sampleSize, long updatesCount, long indexSize )
+        ImmutableIndexStatistics( long sampleUniqueValues, long sampleSize, long updatesCount, long indexSize, IndexValueHistogram histogram )
         {
             this.sampleUniqueValues = sampleUniqueValues;
             this.sampleSize = sampleSize;
             this.updatesCount = updatesCount;
             this.indexSize = indexSize;
+            this.histogram = histogram;
         }
 
         ImmutableIndexStatistics( IndexStatisticsValue value )
         {
-            this( value.getSampleUniqueValues(), value.getSampleSize(), value.getUpdatesCount(), value.getIndexSize() );
+            this( value.getSampleUniqueValues(), value.getSampleSize(), value.getUpdatesCount(), value.getIndexSize(), value.getHistogram() );
         }
     }
 }
@@ -19,6 +19,8 @@
  */
 package org.neo4j.kernel.impl.api.index.stats;
 
+import org.neo4j.kernel.api.index.IndexValueHistogram;
+
 class IndexStatisticsValue
 {
     static final int SIZE = Long.SIZE * 4;
@@ -27,17 +29,19 @@ class IndexStatisticsValue
     private long sampleSize;
     private long updatesCount;
     private long indexSize;
+    private IndexValueHistogram histogram = IndexValueHistogram.EMPTY;
 
     IndexStatisticsValue()
     {
     }
 
-    IndexStatisticsValue( long sampleUniqueValues, long sampleSize, long updatesCount, long indexSize )
+    IndexStatisticsValue( long sampleUniqueValues, long sampleSize, long updatesCount, long indexSize, IndexValueHistogram histogram )
     {
         this.sampleUniqueValues = sampleUniqueValues;
         this.sampleSize = sampleSize;
         this.updatesCount = updatesCount;
         this.indexSize = indexSize;
+        this.histogram = histogram;
     }
 
     long getSampleUniqueValues()
@@ -79,4 +83,14 @@ class IndexStatisticsValue
     {
         this.indexSize = indexSize;
     }
+
+    IndexValueHistogram getHistogram()
+    {
+        return histogram;
+    }
+
+    void setHistogram( IndexValueHistogram histogram )
+    {
+        this.histogram = histogram;
+    }
 }
@@ -19,16 +19,30 @@
  */
 package org.neo4j.kernel.impl.api.index.updater;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.index.IndexSketch;
 import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.kernel.impl.api.index.stats.IndexStatisticsStore;
 import org.neo4j.storageengine.api.IndexEntryUpdate;
+import org.neo4j.values.storable.Value;
 
+/**
+ * Counts the updates of an index, and feeds them into the {@link IndexSketch} of the index if it has one. Updates are buffered and
+ * handed to the sketch in batches, so that concurrent updaters of the same index don't all contend on the sketch for every update.
+ * A batch goes to the sketch that the index has when the batch is applied, which may have been replaced since the updater was created.
+ */
 public class UpdateCountingIndexUpdater implements IndexUpdater
 {
+    private static final int SKETCH_BATCH_SIZE = 1024;
+
     private final IndexStatisticsStore indexStatisticsStore;
     private final long indexId;
     private final IndexUpdater delegate;
+    private final List<Value[]> removedValues;
+    private final List<Value[]> addedValues;
     private long updates;
 
     public UpdateCountingIndexUpdater( IndexStatisticsStore indexStatisticsStore, long indexId, IndexUpdater delegate )
@@ -36,6 +50,9 @@ public class UpdateCountingIndexUpdater implements IndexUpdater
         this.indexStatisticsStore = indexStatisticsStore;
         this.indexId = indexId;
         this.delegate = delegate;
+        boolean sketched = indexStatisticsStore.sketch( indexId ) != null;
+        this.removedValues = sketched ? new ArrayList<>() : null;
+        this.addedValues = sketched ? new ArrayList<>() : null;
     }
 
     @Override
@@ -43,6 +60,44 @@ public class UpdateCountingIndexUpdater implements IndexUpdater
     {
         delegate.process( update );
         updates++;
+        if ( addedValues != null )
+        {
+            bufferSketchUpdate( update );
+            if ( removedValues.size() + addedValues.size() >= SKETCH_BATCH_SIZE )
+            {
+                updateSketch();
+            }
+        }
+    }
+
+    private void bufferSketchUpdate( IndexEntryUpdate<?> update )
+    {
+        switch ( update.updateMode() )
+        {
+        case ADDED:
+            addedValues.add( update.values() );
+            break;
+        case CHANGED:
+            removedValues.add( update.beforeValues() );
+            addedValues.add( update.values() );
+            break;
+        case REMOVED:
+            removedValues.add( update.values() );
+            break;
+        default:
+            throw new IllegalArgumentException( "Unknown update mode " + update.updateMode() );
+        }
+    }
+
+    private void updateSketch()
+    {
+        IndexSketch sketch = indexStatisticsStore.sketch( indexId );
+        if ( sketch != null )
+        {
+            sketch.update( removedValues, addedValues );
+        }
+        removedValues.clear();
+        addedValues.clear();
     }
 
     @Override
@@ -50,5 +105,9 @@ public class UpdateCountingIndexUpdater implements IndexUpdater
     {
         delegate.close();
         indexStatisticsStore.incrementIndexUpdates( indexId, updates );
+        if ( addedValues != null )
+        {
+            updateSketch();
+        }
     }
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.state;
+
+import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.impl.UnmodifiableMap;
+
+import java.util.Collections;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+import org.neo4j.kernel.impl.util.diffsets.MutableLongDiffSets;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.storageengine.api.txstate.LongDiffSets;
+import org.neo4j.values.storable.ValueTuple;
+
+import static org.neo4j.collection.trackable.HeapTrackingCollections.newMap;
+import static org.neo4j.memory.HeapEstimator.OBJECT_HEADER_BYTES;
+import static org.neo4j.memory.HeapEstimator.OBJECT_REFERENCE_BYTES;
+import static org.neo4j.memory.HeapEstimator.alignObjectSize;
+import static org.neo4j.memory.HeapEstimator.shallowSizeOfInstance;
+
+/**
+ * Transaction local index updates for a single schema.
+ * <p>
+ * Exact seeks are served from a hash map. The sorted view needed by range, prefix and ordered seeks is only created the first
+ * time it is asked for, and is from then on kept up to date as new values are added. Neither kind of lookup copies the updates,
+ * and exact seeks keep their constant time lookups after a range seek has been made in the same transaction.
+ */
+class IndexUpdates
+{
+    private static final long SHALLOW_SIZE = shallowSizeOfInstance( IndexUpdates.class );
+    private static final long TREE_MAP_SIZE = shallowSizeOfInstance( TreeMap.class );
+    // TreeMap.Entry is private; it holds key, value, left, right and parent references plus a colour flag
+    private static final long TREE_MAP_ENTRY_SIZE = alignObjectSize( OBJECT_HEADER_BYTES + 5L * OBJECT_REFERENCE_BYTES + 1 );
+
+    private final MemoryTracker memoryTracker;
+    private final MutableMap<ValueTuple,MutableLongDiffSets> updates;
+    private final UnmodifiableMap<ValueTuple,MutableLongDiffSets> updatesView;
+    private TreeMap<ValueTuple,MutableLongDiffSets> sortedUpdates;
+    private NavigableMap<ValueTuple,MutableLongDiffSets> sortedUpdatesView;
+
+    IndexUpdates( MemoryTracker memoryTracker )
+    {
+        this.memoryTracker = memoryTracker;
+        this.memoryTracker.allocateHeap( SHALLOW_SIZE );
+        this.updates = newMap( memoryTracker );
+        this.updatesView = new UnmodifiableMap<>( updates );
+    }
+
+    MutableLongDiffSets getOrCreate( ValueTuple values, Supplier<MutableLongDiffSets> diffSetsFactory )
+    {
+        MutableLongDiffSets diffSets = updates.get( values );
+        if ( diffSets == null )
+        {
+            diffSets = diffSetsFactory.get();
+            updates.put( values, diffSets );
+            if ( sortedUpdates != null )
+            {
+                memoryTracker.allocateHeap( TREE_MAP_ENTRY_SIZE );
+                sortedUpdates.put( values, diffSets );
+            }
+        }
+        return diffSets;
+    }
+
+    /**
+     * @return a readonly view of all updates, in no particular order.
+     */
+    UnmodifiableMap<ValueTuple,? extends LongDiffSets> unordered()
+    {
+        return updatesView;
+    }
+
+    /**
+     * @return a readonly view of all updates, ordered by {@link ValueTuple#COMPARATOR}. The sorted view is built on the first call
+     * and maintained incrementally after that.
+     */
+    NavigableMap<ValueTuple,? extends LongDiffSets> sorted()
+    {
+        if ( sortedUpdates == null )
+        {
+            memoryTracker.allocateHeap( TREE_MAP_SIZE + updates.size() * TREE_MAP_ENTRY_SIZE );
+            sortedUpdates = new TreeMap<>( ValueTuple.COMPARATOR );
+            sortedUpdates.putAll( updates );
+            sortedUpdatesView = Collections.unmodifiableNavigableMap( sortedUpdates );
+        }
+        return sortedUpdatesView;
+    }
+}
@@ -29,7 +29,6 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.NavigableMap;
-import java.util.TreeMap;
 import javax.annotation.Nullable;
 
 import org.neo4j.exceptions.KernelException;
@@ -103,7 +102,7 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
 
     private MutableMap<IndexBackedConstraintDescriptor,IndexDescriptor> createdConstraintIndexesByConstraint;
 
-    private MutableMap<SchemaDescriptor, Map<ValueTuple, MutableLongDiffSets>> indexUpdates;
+    private MutableMap<SchemaDescriptor,IndexUpdates> indexUpdates;
 
     private final MemoryTracker memoryTracker;
     private long revision;
@@ -729,13 +728,12 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
         {
             return null;
         }
-        Map<ValueTuple, MutableLongDiffSets> updates = indexUpdates.get( schema );
+        IndexUpdates updates = indexUpdates.get( schema );
         if ( updates == null )
         {
             return null;
         }
-
-        return new UnmodifiableMap<>( updates );
+        return updates.unordered();
     }
 
     @Override
@@ -746,23 +744,12 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
         {
             return null;
         }
-        Map<ValueTuple, MutableLongDiffSets> updates = indexUpdates.get( descriptor );
+        IndexUpdates updates = indexUpdates.get( descriptor );
         if ( updates == null )
         {
             return null;
         }
-        TreeMap<ValueTuple, MutableLongDiffSets> sortedUpdates;
-        if ( updates instanceof TreeMap )
-        {
-            sortedUpdates = (TreeMap<ValueTuple, MutableLongDiffSets>) updates;
-        }
-        else
-        {
-            sortedUpdates = new TreeMap<>( ValueTuple.COMPARATOR );
-            sortedUpdates.putAll( updates );
-            indexUpdates.put( descriptor, sortedUpdates );
-        }
-        return Collections.unmodifiableNavigableMap( sortedUpdates );
+        return updates.sorted();
     }
 
     @Override
@@ -770,7 +757,7 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
             ValueTuple propertiesBefore, ValueTuple propertiesAfter )
     {
         NodeStateImpl nodeState = getOrCreateNodeState( nodeId );
-        Map<ValueTuple, MutableLongDiffSets> updates = getOrCreateIndexUpdatesByDescriptor( descriptor );
+        IndexUpdates updates = getOrCreateIndexUpdatesByDescriptor( descriptor );
         if ( propertiesBefore != null )
         {
             MutableLongDiffSets before = getOrCreateIndexUpdatesForSeek( updates, propertiesBefore );
@@ -806,18 +793,18 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
     }
 
     @VisibleForTesting
-    MutableLongDiffSets getOrCreateIndexUpdatesForSeek( Map<ValueTuple, MutableLongDiffSets> updates, ValueTuple values )
+    MutableLongDiffSets getOrCreateIndexUpdatesForSeek( IndexUpdates updates, ValueTuple values )
     {
-        return updates.computeIfAbsent( values, value -> newMutableLongDiffSets( collectionsFactory, memoryTracker ) );
+        return updates.getOrCreate( values, () -> newMutableLongDiffSets( collectionsFactory, memoryTracker ) );
     }
 
-    private Map<ValueTuple, MutableLongDiffSets> getOrCreateIndexUpdatesByDescriptor( SchemaDescriptor schema )
+    private IndexUpdates getOrCreateIndexUpdatesByDescriptor( SchemaDescriptor schema )
     {
         if ( indexUpdates == null )
         {
             indexUpdates = newMap( memoryTracker );
         }
-        return indexUpdates.getIfAbsentPut( schema, () -> newMap( memoryTracker ) );
+        return indexUpdates.getIfAbsentPut( schema, () -> new IndexUpdates( memoryTracker ) );
     }
 
     private Map<IndexBackedConstraintDescriptor,IndexDescriptor> createdConstraintIndexesByConstraint()
@@ -662,9 +662,10 @@ public class TransactionImpl extends EntityValidationTransactionImpl
         while ( iterator.hasNext() )
         {
             IndexDescriptor index = iterator.next();
-            if ( index.getIndexType() != IndexType.BTREE )
+            if ( index.getIndexType() != IndexType.BTREE || index.indexFilter().isPartial() )
             {
                 // Skip special indexes, such as the full-text indexes, because they can't handle all the queries we might throw at them.
+                // Partial indexes don't contain all nodes with the label and property.
                 continue;
             }
             // Ha! We found an index - let's use it to find matching nodes
@@ -793,7 +794,7 @@ public class TransactionImpl extends EntityValidationTransactionImpl
         while ( iterator.hasNext() )
         {
             IndexDescriptor index = iterator.next();
-            if ( index.getIndexType() == IndexType.BTREE )
+            if ( index.getIndexType() == IndexType.BTREE && !index.indexFilter().isPartial() )
             {
                 return index;
             }
@@ -810,7 +811,9 @@ public class TransactionImpl extends EntityValidationTransactionImpl
         {
             IndexDescriptor index = indexes.next();
             int[] original = index.schema().getPropertyIds();
-            if ( index.getIndexType() == IndexType.BTREE && hasSamePropertyIds( original, workingCopy, propertyIds ) )
+            // Indexes on more than one label also hold nodes that don't have this label.
+            if ( index.getIndexType() == IndexType.BTREE && !index.indexFilter().isPartial() && index.schema().getEntityTokenIds().length == 1 &&
+                 hasSamePropertyIds( original, workingCopy, propertyIds ) )
             {
                 // Ha! We found an index with the same properties in another order
                 return index;
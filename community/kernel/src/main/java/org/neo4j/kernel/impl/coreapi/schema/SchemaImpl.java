@@ -83,6 +83,7 @@ import static org.neo4j.internal.helpers.collection.Iterables.single;
 import static org.neo4j.internal.helpers.collection.Iterators.addToCollection;
 import static org.neo4j.internal.helpers.collection.Iterators.map;
 import static org.neo4j.internal.schema.IndexType.fromPublicApi;
+import static org.neo4j.internal.schema.SchemaDescriptor.forAnyLabel;
 import static org.neo4j.internal.schema.SchemaDescriptor.forLabel;
 import static org.neo4j.internal.schema.SchemaDescriptor.forRelType;
 import static org.neo4j.internal.schema.SchemaDescriptor.fulltext;
@@ -495,6 +496,11 @@ public class SchemaImpl implements Schema
             if ( index.isMultiTokenIndex() )
             {
                 schema = fulltext( EntityType.NODE, labelIds, propertyKeyIds );
+                if ( !schemaRead.index( schema ).hasNext() )
+                {
+                    // Not a fulltext index, so it must be a native index over the union of the labels.
+                    schema = forAnyLabel( labelIds, propertyKeyIds );
+                }
             }
             else
             {
@@ -638,14 +644,13 @@ public class SchemaImpl implements Schema
                 {
                     schema = fulltext( EntityType.NODE, labelIds, propertyKeyIds );
                 }
-                else if ( labelIds.length == 1 )
+                else if ( labelIds.length > 0 )
                 {
-                    schema = forLabel( labelIds[0], propertyKeyIds );
+                    schema = forAnyLabel( labelIds, propertyKeyIds );
                 }
                 else
                 {
-                    throw new IllegalArgumentException( indexType + " indexes can only be created with exactly one label, " +
-                            "but got " + ( labelIds.length == 0 ? "no" : String.valueOf( labelIds.length ) ) + " labels." );
+                    throw new IllegalArgumentException( indexType + " indexes must be created with at least one label, but got no labels." );
                 }
                 IndexDescriptor indexReference = createIndex( indexName, schema, indexType, indexConfig );
                 return new IndexDefinitionImpl( this, indexReference, labels, propertyKeys, false );
@@ -30,6 +30,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.neo4j.configuration.GraphDatabaseInternalSettings;
@@ -43,6 +44,7 @@ import org.neo4j.io.ByteUnit;
 import org.neo4j.io.IOUtils;
 import org.neo4j.io.memory.ByteBufferFactory;
 import org.neo4j.io.memory.ByteBufferFactory.Allocator;
+import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.index.IndexPopulator;
@@ -66,7 +68,7 @@ import static org.neo4j.internal.helpers.collection.Iterables.first;
 import static org.neo4j.io.ByteUnit.kibiBytes;
 import static org.neo4j.io.IOUtils.closeAllUnchecked;
 import static org.neo4j.kernel.impl.index.schema.BlockStorage.Monitor.NO_MONITOR;
-import static org.neo4j.kernel.impl.index.schema.NativeIndexUpdater.initializeKeyFromUpdate;
+import static org.neo4j.kernel.impl.index.schema.NativeIndexUpdater.initializeKeyAndValueFromUpdate;
 import static org.neo4j.util.concurrent.Runnables.runAll;
 
 /**
@@ -117,16 +119,31 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>,V
 
     BlockBasedIndexPopulator( DatabaseIndexContext databaseIndexContext, IndexFiles indexFiles, IndexLayout<KEY,VALUE> layout,
             IndexDescriptor descriptor, boolean archiveFailedIndex, ByteBufferFactory bufferFactory, MemoryTracker memoryTracker )
+    {
+        this( databaseIndexContext, indexFiles, layout, descriptor, archiveFailedIndex, bufferFactory, memoryTracker, NO_HEADER_WRITER );
+    }
+
+    BlockBasedIndexPopulator( DatabaseIndexContext databaseIndexContext, IndexFiles indexFiles, IndexLayout<KEY,VALUE> layout,
+            IndexDescriptor descriptor, boolean archiveFailedIndex, ByteBufferFactory bufferFactory, MemoryTracker memoryTracker,
+            Consumer<PageCursor> additionalHeaderWriter )
     {
         this( databaseIndexContext, indexFiles, layout, descriptor, archiveFailedIndex, bufferFactory, memoryTracker,
-              FeatureToggles.getInteger( BlockBasedIndexPopulator.class, "mergeFactor", 8 ), NO_MONITOR, GBPTree.NO_MONITOR );
+              FeatureToggles.getInteger( BlockBasedIndexPopulator.class, "mergeFactor", 8 ), NO_MONITOR, GBPTree.NO_MONITOR, additionalHeaderWriter );
     }
 
     BlockBasedIndexPopulator( DatabaseIndexContext databaseIndexContext, IndexFiles indexFiles, IndexLayout<KEY,VALUE> layout, IndexDescriptor descriptor,
             boolean archiveFailedIndex, ByteBufferFactory bufferFactory, MemoryTracker memoryTracker, int mergeFactor, BlockStorage.Monitor blockStorageMonitor,
             GBPTree.Monitor treeMonitor )
     {
-        super( databaseIndexContext, indexFiles, layout, descriptor, NO_HEADER_WRITER, treeMonitor );
+        this( databaseIndexContext, indexFiles, layout, descriptor, archiveFailedIndex, bufferFactory, memoryTracker, mergeFactor, blockStorageMonitor,
+              treeMonitor, NO_HEADER_WRITER );
+    }
+
+    private BlockBasedIndexPopulator( DatabaseIndexContext databaseIndexContext, IndexFiles indexFiles, IndexLayout<KEY,VALUE> layout,
+            IndexDescriptor descriptor, boolean archiveFailedIndex, ByteBufferFactory bufferFactory, MemoryTracker memoryTracker, int mergeFactor,
+            BlockStorage.Monitor blockStorageMonitor, GBPTree.Monitor treeMonitor, Consumer<PageCursor> additionalHeaderWriter )
+    {
+        super( databaseIndexContext, indexFiles, layout, descriptor, additionalHeaderWriter, treeMonitor );
         this.archiveFailedIndex = archiveFailedIndex;
         this.memoryTracker = memoryTracker;
         this.mergeFactor = mergeFactor;
@@ -204,15 +221,14 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>,V
         }
     }
 
-    private void storeUpdate( long entityId, Value[] values, BlockStorage<KEY,VALUE> blockStorage )
+    private void storeUpdate( long entityId, Value[] values, Value[] includedValues, BlockStorage<KEY,VALUE> blockStorage )
     {
         try
         {
             validator.validate( values );
             KEY key = layout.newKey();
             VALUE value = layout.newValue();
-            initializeKeyFromUpdate( key, entityId, values );
-            value.from( values );
+            initializeKeyAndValueFromUpdate( key, value, entityId, values, includedValues );
             blockStorage.add( key, value );
         }
         catch ( IOException e )
@@ -223,7 +239,7 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>,V
 
     private void storeUpdate( IndexEntryUpdate<?> update, BlockStorage<KEY,VALUE> blockStorage )
     {
-        storeUpdate( update.getEntityId(), update.values(), blockStorage );
+        storeUpdate( update.getEntityId(), update.values(), update.includedValues(), blockStorage );
     }
 
     private synchronized boolean markMergeStarted()
@@ -649,7 +665,8 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>,V
                     nonUniqueIndexSample.indexSize(),
                     nonUniqueIndexSample.uniqueValues(),
                     nonUniqueIndexSample.sampleSize(),
-                    numberOfIndexUpdatesSinceSample.get() );
+                    numberOfIndexUpdatesSinceSample.get(),
+                    nonUniqueIndexSample.histogram() );
         }
         return super.sample( cursorTracer );
     }
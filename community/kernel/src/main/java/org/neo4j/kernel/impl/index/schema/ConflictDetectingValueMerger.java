@@ -54,6 +54,12 @@ abstract class ConflictDetectingValueMerger<KEY extends NativeIndexKey<KEY>, VAL
             existingNodeId = existingKey.getEntityId();
             addedNodeId = newKey.getEntityId();
         }
+        else if ( existingValue != newValue )
+        {
+            // Same entry added again, e.g. during recovery. Indexes which store something in their values get the most recent one,
+            // others share the same value instance and are left unchanged
+            return MergeResult.REPLACED;
+        }
         return MergeResult.UNCHANGED;
     }
 
@@ -21,15 +21,23 @@ package org.neo4j.kernel.impl.index.schema;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.function.ObjLongConsumer;
 
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.Seeker;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.api.index.IndexSketch;
+import org.neo4j.kernel.api.index.IndexValueHistogram;
+import org.neo4j.kernel.api.index.IndexValueHistogramBuilder;
 import org.neo4j.kernel.api.index.NonUniqueIndexSampler;
+import org.neo4j.values.storable.Value;
 
 /**
  * {@link NonUniqueIndexSampler} which performs a full scans of a {@link GBPTree} in {@link #sample(PageCursorTracer)}.
+ * Since the scan sees the values in order, it also builds an {@link IndexValueHistogram} of the values of single property indexes.
+ * The scan also seeds an {@link IndexSketch}, which can then be kept up to date with index updates for later samples.
+ * Every distinct value tuple seen by the scan can also be passed on to a visitor, for index specific statistics.
  *
  * @param <KEY> type of keys in tree.
  * @param <VALUE> type of values in tree.
@@ -39,11 +47,18 @@ class FullScanNonUniqueIndexSampler<KEY extends NativeIndexKey<KEY>, VALUE exten
 {
     private final GBPTree<KEY,VALUE> gbpTree;
     private final IndexLayout<KEY,VALUE> layout;
+    private final ObjLongConsumer<Value[]> sampledValuesVisitor;
 
     FullScanNonUniqueIndexSampler( GBPTree<KEY,VALUE> gbpTree, IndexLayout<KEY,VALUE> layout )
+    {
+        this( gbpTree, layout, ( values, count ) -> {} );
+    }
+
+    FullScanNonUniqueIndexSampler( GBPTree<KEY,VALUE> gbpTree, IndexLayout<KEY,VALUE> layout, ObjLongConsumer<Value[]> sampledValuesVisitor )
     {
         this.gbpTree = gbpTree;
         this.layout = layout;
+        this.sampledValuesVisitor = sampledValuesVisitor;
     }
 
     @Override
@@ -56,10 +71,14 @@ class FullScanNonUniqueIndexSampler<KEY extends NativeIndexKey<KEY>, VALUE exten
         highest.initialize( Long.MAX_VALUE );
         highest.initValuesAsHighest();
         KEY prev = layout.newKey();
+        // Only single property indexes get a value histogram, they are the ones that range and equality predicates are planned against
+        IndexValueHistogramBuilder histogram = lowest.numberOfStateSlots() == 1 ? new IndexValueHistogramBuilder() : null;
+        IndexSketch sketch = new IndexSketch( lowest.numberOfStateSlots() );
         try ( Seeker<KEY,VALUE> seek = gbpTree.seek( lowest, highest, cursorTracer ) )
         {
             long sampledValues = 0;
             long uniqueValues = 0;
+            long duplicates = 0;
 
             // Get the first one so that prev gets initialized
             if ( seek.next() )
@@ -67,20 +86,26 @@ class FullScanNonUniqueIndexSampler<KEY extends NativeIndexKey<KEY>, VALUE exten
                 prev = layout.copyKey( seek.key(), prev );
                 sampledValues++;
                 uniqueValues++;
+                duplicates++;
 
                 // Then do the rest
                 while ( seek.next() )
                 {
                     if ( layout.compareValue( prev, seek.key() ) != 0 )
                     {
+                        addValues( histogram, sketch, prev, duplicates );
                         uniqueValues++;
+                        duplicates = 0;
                         layout.copyKey( seek.key(), prev );
                     }
                     // else this is a duplicate of the previous one
                     sampledValues++;
+                    duplicates++;
                 }
+                addValues( histogram, sketch, prev, duplicates );
             }
-            return new IndexSample( sampledValues, uniqueValues, sampledValues );
+            return new IndexSample( sampledValues, uniqueValues, sampledValues, 0,
+                    histogram != null ? histogram.build() : IndexValueHistogram.EMPTY, sketch );
         }
         catch ( IOException e )
         {
@@ -88,6 +113,17 @@ class FullScanNonUniqueIndexSampler<KEY extends NativeIndexKey<KEY>, VALUE exten
         }
     }
 
+    private void addValues( IndexValueHistogramBuilder histogram, IndexSketch sketch, KEY key, long count )
+    {
+        Value[] values = key.asValues();
+        sketch.add( values, count );
+        sampledValuesVisitor.accept( values, count );
+        if ( histogram != null )
+        {
+            histogram.add( values[0], count );
+        }
+    }
+
     @Override
     public IndexSample sample( int numDocs, PageCursorTracer cursorTracer )
     {
@@ -19,35 +19,56 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.neo4j.gis.spatial.index.curves.SpaceFillingCurveConfiguration;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.io.memory.ByteBufferFactory;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.api.index.IndexValueValidator;
 import org.neo4j.kernel.impl.index.schema.config.IndexSpecificSpaceFillingCurveSettings;
 import org.neo4j.memory.MemoryTracker;
+import org.neo4j.storageengine.api.IndexEntryUpdate;
 import org.neo4j.values.storable.Value;
 
 class GenericBlockBasedIndexPopulator extends BlockBasedIndexPopulator<GenericKey,NativeIndexValue>
 {
     private final IndexSpecificSpaceFillingCurveSettings spatialSettings;
-    private final SpaceFillingCurveConfiguration configuration;
+    private final SpaceFillingCurveDensities densities;
 
     GenericBlockBasedIndexPopulator( DatabaseIndexContext databaseIndexContext, IndexFiles indexFiles, IndexLayout<GenericKey,NativeIndexValue> layout,
             IndexDescriptor descriptor, IndexSpecificSpaceFillingCurveSettings spatialSettings, SpaceFillingCurveConfiguration configuration,
             boolean archiveFailedIndex, ByteBufferFactory bufferFactory, MemoryTracker memoryTracker )
     {
-        super( databaseIndexContext, indexFiles, layout, descriptor, archiveFailedIndex, bufferFactory, memoryTracker );
+        this( databaseIndexContext, indexFiles, layout, descriptor, spatialSettings, archiveFailedIndex, bufferFactory, memoryTracker,
+                new SpaceFillingCurveDensities( spatialSettings, configuration ) );
+    }
+
+    private GenericBlockBasedIndexPopulator( DatabaseIndexContext databaseIndexContext, IndexFiles indexFiles,
+            IndexLayout<GenericKey,NativeIndexValue> layout, IndexDescriptor descriptor, IndexSpecificSpaceFillingCurveSettings spatialSettings,
+            boolean archiveFailedIndex, ByteBufferFactory bufferFactory, MemoryTracker memoryTracker, SpaceFillingCurveDensities densities )
+    {
+        super( databaseIndexContext, indexFiles, layout, descriptor, archiveFailedIndex, bufferFactory, memoryTracker, densities );
         this.spatialSettings = spatialSettings;
-        this.configuration = configuration;
+        this.densities = densities;
+    }
+
+    @Override
+    public void add( Collection<? extends IndexEntryUpdate<?>> updates, PageCursorTracer cursorTracer )
+    {
+        for ( IndexEntryUpdate<?> update : updates )
+        {
+            densities.add( update.values(), 1 );
+        }
+        super.add( updates, cursorTracer );
     }
 
     @Override
     NativeIndexReader<GenericKey,NativeIndexValue> newReader()
     {
-        return new GenericNativeIndexReader( tree, layout, descriptor, spatialSettings, configuration );
+        return new GenericNativeIndexReader( tree, layout, descriptor, spatialSettings, densities );
     }
 
     @Override
@@ -26,12 +26,27 @@ import org.neo4j.kernel.impl.index.schema.config.IndexSpecificSpaceFillingCurveS
 class GenericLayout extends IndexLayout<GenericKey,NativeIndexValue>
 {
     private final int numberOfSlots;
+    private final int numberOfIncludedSlots;
+    private final int inlineKeyValueSizeCap;
     private final IndexSpecificSpaceFillingCurveSettings spatialSettings;
 
     GenericLayout( int numberOfSlots, IndexSpecificSpaceFillingCurveSettings spatialSettings )
     {
-        super( false, Layout.namedIdentifier( "NSIL", numberOfSlots ), 0, 5 );
+        this( numberOfSlots, 0, 0, spatialSettings );
+    }
+
+    /**
+     * @param numberOfIncludedSlots number of properties included in, but not indexed by, the index. Their values are kept in
+     * {@link IncludedPropertiesValue} and need a layout of their own.
+     * @param inlineKeyValueSizeCap largest entry that the tree can keep inline, which is the space included values have to share with the key.
+     */
+    GenericLayout( int numberOfSlots, int numberOfIncludedSlots, int inlineKeyValueSizeCap, IndexSpecificSpaceFillingCurveSettings spatialSettings )
+    {
+        super( false, numberOfIncludedSlots == 0 ? Layout.namedIdentifier( "NSIL", numberOfSlots )
+                                                 : Layout.namedIdentifier( "NSII", numberOfSlots << 16 | numberOfIncludedSlots ), 0, 5 );
         this.numberOfSlots = numberOfSlots;
+        this.numberOfIncludedSlots = numberOfIncludedSlots;
+        this.inlineKeyValueSizeCap = inlineKeyValueSizeCap;
         this.spatialSettings = spatialSettings;
     }
 
@@ -45,6 +60,36 @@ class GenericLayout extends IndexLayout<GenericKey,NativeIndexValue>
                : new CompositeGenericKey( numberOfSlots, spatialSettings );
     }
 
+    @Override
+    public NativeIndexValue newValue()
+    {
+        return numberOfIncludedSlots == 0 ? super.newValue() : new IncludedPropertiesValue( numberOfIncludedSlots, inlineKeyValueSizeCap, spatialSettings );
+    }
+
+    @Override
+    public int valueSize( NativeIndexValue value )
+    {
+        return numberOfIncludedSlots == 0 ? super.valueSize( value ) : ((IncludedPropertiesValue) value).size();
+    }
+
+    @Override
+    public void writeValue( PageCursor cursor, NativeIndexValue value )
+    {
+        if ( numberOfIncludedSlots > 0 )
+        {
+            ((IncludedPropertiesValue) value).writeTo( cursor );
+        }
+    }
+
+    @Override
+    public void readValue( PageCursor cursor, NativeIndexValue into, int valueSize )
+    {
+        if ( numberOfIncludedSlots > 0 )
+        {
+            ((IncludedPropertiesValue) into).readFrom( cursor, valueSize );
+        }
+    }
+
     @Override
     public GenericKey copyKey( GenericKey key, GenericKey into )
     {
@@ -39,22 +39,28 @@ import org.neo4j.kernel.api.index.IndexValueValidator;
 import org.neo4j.kernel.impl.index.schema.config.IndexSpecificSpaceFillingCurveSettings;
 import org.neo4j.values.storable.Value;
 
-import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_WRITER;
-
 class GenericNativeIndexAccessor extends NativeIndexAccessor<GenericKey,NativeIndexValue>
 {
     private final IndexSpecificSpaceFillingCurveSettings spaceFillingCurveSettings;
-    private final SpaceFillingCurveConfiguration configuration;
+    private final SpaceFillingCurveDensities densities;
     private IndexValueValidator validator;
 
     GenericNativeIndexAccessor( DatabaseIndexContext databaseIndexContext, IndexFiles indexFiles,
             IndexLayout<GenericKey,NativeIndexValue> layout, RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, IndexDescriptor descriptor,
             IndexSpecificSpaceFillingCurveSettings spaceFillingCurveSettings, SpaceFillingCurveConfiguration configuration )
     {
-        super( databaseIndexContext, indexFiles, layout, descriptor, NO_HEADER_WRITER );
+        this( databaseIndexContext, indexFiles, layout, recoveryCleanupWorkCollector, descriptor, spaceFillingCurveSettings,
+                new SpaceFillingCurveDensities( spaceFillingCurveSettings, configuration ) );
+    }
+
+    private GenericNativeIndexAccessor( DatabaseIndexContext databaseIndexContext, IndexFiles indexFiles,
+            IndexLayout<GenericKey,NativeIndexValue> layout, RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, IndexDescriptor descriptor,
+            IndexSpecificSpaceFillingCurveSettings spaceFillingCurveSettings, SpaceFillingCurveDensities densities )
+    {
+        super( databaseIndexContext, indexFiles, layout, descriptor, densities );
         this.spaceFillingCurveSettings = spaceFillingCurveSettings;
-        this.configuration = configuration;
-        instantiateTree( recoveryCleanupWorkCollector, headerWriter );
+        this.densities = densities;
+        instantiateTree( recoveryCleanupWorkCollector, new NativeIndexHeaderReader( densities ), headerWriter );
     }
 
     @Override
@@ -67,7 +73,7 @@ class GenericNativeIndexAccessor extends NativeIndexAccessor<GenericKey,NativeIn
     public IndexReader newReader()
     {
         assertOpen();
-        return new GenericNativeIndexReader( tree, layout, descriptor, spaceFillingCurveSettings, configuration );
+        return new GenericNativeIndexReader( tree, layout, descriptor, spaceFillingCurveSettings, densities );
     }
 
     @Override
@@ -79,7 +85,8 @@ class GenericNativeIndexAccessor extends NativeIndexAccessor<GenericKey,NativeIn
     @Override
     public void force( IOLimiter ioLimiter, PageCursorTracer cursorTracer )
     {
-        // This accessor needs to use the header writer here because coordinate reference systems may have changed since last checkpoint.
+        // This accessor needs to use the header writer here because coordinate reference systems, and the densities of the points in them,
+        // may have changed since last checkpoint.
         tree.checkpoint( ioLimiter, headerWriter, cursorTracer );
     }
 
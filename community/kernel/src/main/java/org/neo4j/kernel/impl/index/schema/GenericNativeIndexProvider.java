@@ -19,14 +19,18 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import org.apache.commons.lang3.ArrayUtils;
+
 import java.nio.file.Path;
 import java.util.Map;
 
+import org.neo4j.common.EntityType;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.gis.spatial.index.curves.SpaceFillingCurveConfiguration;
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.index.internal.gbptree.TreeNodeDynamicSize;
 import org.neo4j.internal.schema.IndexBehaviour;
 import org.neo4j.internal.schema.IndexCapability;
 import org.neo4j.internal.schema.IndexConfig;
@@ -35,6 +39,7 @@ import org.neo4j.internal.schema.IndexOrderCapability;
 import org.neo4j.internal.schema.IndexPrototype;
 import org.neo4j.internal.schema.IndexProviderDescriptor;
 import org.neo4j.internal.schema.IndexValueCapability;
+import org.neo4j.internal.schema.SchemaDescriptor;
 import org.neo4j.io.memory.ByteBufferFactory;
 import org.neo4j.kernel.api.index.IndexAccessor;
 import org.neo4j.kernel.api.index.IndexDirectoryStructure;
@@ -155,9 +160,11 @@ public class GenericNativeIndexProvider extends NativeIndexProvider<GenericKey,N
     GenericLayout layout( IndexDescriptor descriptor, Path storeFile )
     {
         int numberOfSlots = descriptor.schema().getPropertyIds().length;
+        int numberOfIncludedSlots = descriptor.includedPropertyIds().length;
         IndexConfig indexConfig = descriptor.getIndexConfig();
         Map<CoordinateReferenceSystem,SpaceFillingCurveSettings> settings = SpatialIndexConfig.extractSpatialConfig( indexConfig );
-        return new GenericLayout( numberOfSlots, new IndexSpecificSpaceFillingCurveSettings( settings ) );
+        int inlineKeyValueSizeCap = TreeNodeDynamicSize.inlineKeyValueSizeCap( databaseIndexContext.pageCache.pageSize() );
+        return new GenericLayout( numberOfSlots, numberOfIncludedSlots, inlineKeyValueSizeCap, new IndexSpecificSpaceFillingCurveSettings( settings ) );
     }
 
     @Override
@@ -191,6 +198,39 @@ public class GenericNativeIndexProvider extends NativeIndexProvider<GenericKey,N
         }
     }
 
+    @Override
+    protected void validateEntityTokens( IndexPrototype prototype )
+    {
+        SchemaDescriptor schema = prototype.schema();
+        if ( schema.getEntityTokenIds().length > 1 && (prototype.isUnique() || schema.entityType() != EntityType.NODE) )
+        {
+            throw new IllegalArgumentException( "Only non-unique node indexes can have more than one label: " + prototype );
+        }
+    }
+
+    @Override
+    protected void validateIncludedProperties( IndexPrototype prototype )
+    {
+        int[] includedPropertyIds = prototype.includedPropertyIds();
+        if ( includedPropertyIds.length == 0 )
+        {
+            return;
+        }
+        if ( prototype.isUnique() )
+        {
+            throw new IllegalArgumentException( "Unique indexes cannot include properties that they don't index: " + prototype );
+        }
+        int[] propertyIds = prototype.schema().getPropertyIds();
+        for ( int i = 0; i < includedPropertyIds.length; i++ )
+        {
+            int includedPropertyId = includedPropertyIds[i];
+            if ( ArrayUtils.contains( propertyIds, includedPropertyId ) || ArrayUtils.indexOf( includedPropertyIds, includedPropertyId, i + 1 ) >= 0 )
+            {
+                throw new IllegalArgumentException( "Property " + includedPropertyId + " is either indexed or included more than once: " + prototype );
+            }
+        }
+    }
+
     private static class GenericIndexCapability implements IndexCapability
     {
         private final IndexBehaviour[] behaviours = {IndexBehaviour.SLOW_CONTAINS};
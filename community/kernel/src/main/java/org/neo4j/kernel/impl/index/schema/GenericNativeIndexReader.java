@@ -19,10 +19,10 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import java.util.Arrays;
 import java.util.List;
 
 import org.neo4j.gis.spatial.index.curves.SpaceFillingCurve;
-import org.neo4j.gis.spatial.index.curves.SpaceFillingCurveConfiguration;
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.internal.kernel.api.IndexQuery;
 import org.neo4j.internal.kernel.api.IndexQuery.ExactPredicate;
@@ -33,6 +33,8 @@ import org.neo4j.internal.kernel.api.QueryContext;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.kernel.api.index.BridgingIndexProgressor;
 import org.neo4j.kernel.api.index.IndexProgressor;
+import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.api.index.IndexSampler;
 import org.neo4j.kernel.impl.index.schema.config.IndexSpecificSpaceFillingCurveSettings;
 import org.neo4j.values.storable.CoordinateReferenceSystem;
 import org.neo4j.values.storable.Value;
@@ -46,15 +48,29 @@ import static org.neo4j.kernel.impl.index.schema.NativeIndexKey.Inclusion.NEUTRA
 class GenericNativeIndexReader extends NativeIndexReader<GenericKey,NativeIndexValue>
 {
     private final IndexSpecificSpaceFillingCurveSettings spaceFillingCurveSettings;
-    private final SpaceFillingCurveConfiguration configuration;
+    private final SpaceFillingCurveDensities densities;
 
     GenericNativeIndexReader( GBPTree<GenericKey,NativeIndexValue> tree, IndexLayout<GenericKey,NativeIndexValue> layout,
             IndexDescriptor descriptor, IndexSpecificSpaceFillingCurveSettings spaceFillingCurveSettings,
-            SpaceFillingCurveConfiguration configuration )
+            SpaceFillingCurveDensities densities )
     {
         super( tree, layout, descriptor );
         this.spaceFillingCurveSettings = spaceFillingCurveSettings;
-        this.configuration = configuration;
+        this.densities = densities;
+    }
+
+    @Override
+    public IndexSampler createSampler()
+    {
+        // The full scan sees every point in the index, so what it learns replaces the densities known so far
+        SpaceFillingCurveDensities sampled = densities.emptyCopy();
+        IndexSampler sampler = createSampler( sampled::add );
+        return cursorTracer ->
+        {
+            IndexSample sample = sampler.sampleIndex( cursorTracer );
+            densities.replaceWith( sampled );
+            return sample;
+        };
     }
 
     @Override
@@ -82,6 +98,12 @@ class GenericNativeIndexReader extends NativeIndexReader<GenericKey,NativeIndexV
     public void query( QueryContext context, IndexProgressor.EntityValueClient client, IndexQueryConstraints constraints,
             IndexQuery... query )
     {
+        if ( query.length > 0 && query[0] instanceof IndexQuery.NearestNeighboursPredicate )
+        {
+            queryNearestNeighbours( context, client, constraints, query );
+            return;
+        }
+
         IndexQuery.GeometryRangePredicate geometryRangePredicate = getGeometryRangePredicateIfAny( query );
         if ( geometryRangePredicate != null )
         {
@@ -96,7 +118,7 @@ class GenericNativeIndexReader extends NativeIndexReader<GenericKey,NativeIndexV
                 double[] to = geometryRangePredicate.to() == null ? null : geometryRangePredicate.to().coordinate();
                 CoordinateReferenceSystem crs = geometryRangePredicate.crs();
                 SpaceFillingCurve curve = spaceFillingCurveSettings.forCrs( crs );
-                List<SpaceFillingCurve.LongRange> ranges = curve.getTilesIntersectingEnvelope( from, to, configuration );
+                List<SpaceFillingCurve.LongRange> ranges = curve.getTilesIntersectingEnvelope( from, to, densities.configurationFor( crs ) );
                 for ( SpaceFillingCurve.LongRange range : ranges )
                 {
                     // Here's a sub-query that we'll have to do for this geometry range. Build this query from all predicates
@@ -120,6 +142,40 @@ class GenericNativeIndexReader extends NativeIndexReader<GenericKey,NativeIndexV
         }
     }
 
+    /**
+     * Nearest neighbour queries are served in distance order by a {@link NearestNeighbourIndexProgressor}, which seeks the curve ranges around
+     * the origin as its search radius grows. Only supported for single property indexes, where the point is the whole key.
+     */
+    private void queryNearestNeighbours( QueryContext context, IndexProgressor.EntityValueClient client, IndexQueryConstraints constraints,
+            IndexQuery[] query )
+    {
+        if ( query.length != 1 || descriptor.schema().getPropertyIds().length != 1 )
+        {
+            throw new IllegalArgumentException( "Nearest neighbour queries are only supported on single property indexes, got " + Arrays.toString( query ) );
+        }
+        if ( constraints.isOrdered() )
+        {
+            throw new UnsupportedOperationException( "Nearest neighbour queries are always ordered by distance, and do not support order " +
+                    constraints.order() );
+        }
+        IndexQuery.NearestNeighboursPredicate predicate = (IndexQuery.NearestNeighboursPredicate) query[0];
+        CoordinateReferenceSystem crs = predicate.crs();
+        NearestNeighbourIndexProgressor.RangeSeeker rangeSeeker = range ->
+        {
+            GenericKey treeKeyFrom = layout.newKey();
+            GenericKey treeKeyTo = layout.newKey();
+            initializeFromToKeys( treeKeyFrom, treeKeyTo );
+            treeKeyFrom.stateSlot( 0 ).writePointDerived( crs, range.min, LOW );
+            // Ranges seeked for the same ring may border each other, so unlike the bounding box seeks the end must not include range.max + 1
+            treeKeyTo.stateSlot( 0 ).writePointDerived( crs, range.max + 1, LOW );
+            return tree.seek( treeKeyFrom, treeKeyTo, context.cursorTracer() );
+        };
+        IndexProgressor progressor =
+                new NearestNeighbourIndexProgressor( rangeSeeker, client, predicate, spaceFillingCurveSettings.forCrs( crs ),
+                        densities.configurationFor( crs ), context.memoryTracker() );
+        client.initialize( descriptor, progressor, query, constraints, false );
+    }
+
     /**
      * Initializes {@code treeKeyFrom} and {@code treeKeyTo} from the {@link IndexQuery query}.
      * Geometry range queries makes an otherwise straight-forward key construction complex in that a geometry range internally is performed
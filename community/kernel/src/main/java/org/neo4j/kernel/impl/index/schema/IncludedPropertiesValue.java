@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+import org.neo4j.internal.schema.IncludedProperties;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.impl.index.schema.config.IndexSpecificSpaceFillingCurveSettings;
+import org.neo4j.values.storable.Value;
+
+import static org.neo4j.kernel.impl.index.schema.NativeIndexKey.Inclusion.NEUTRAL;
+import static org.neo4j.values.storable.Values.NO_VALUE;
+
+/**
+ * {@link NativeIndexValue} of an index with {@link IncludedProperties included properties}. For every included property the entity
+ * either doesn't have it, or its value is stored, or its value is left out because it doesn't fit in what's left of the inline entry size
+ * after the key. Leaving values out rather than letting the entry grow keeps included properties from pushing entries into the offload store,
+ * the values that are left out are read from the store instead.
+ * <p>
+ * Format: one state byte per included property, followed by type and value of each stored property in the same format as key slots.
+ * A value of size zero means that no included property is stored.
+ */
+class IncludedPropertiesValue extends NativeIndexValue
+{
+    private static final byte NOT_STORED = 0;
+    private static final byte ABSENT = 1;
+    private static final byte STORED = 2;
+
+    private final GenericKey[] slots;
+    private final byte[] states;
+    private final int inlineKeyValueSizeCap;
+    private int size;
+
+    IncludedPropertiesValue( int numberOfIncludedProperties, int inlineKeyValueSizeCap, IndexSpecificSpaceFillingCurveSettings spatialSettings )
+    {
+        this.slots = new GenericKey[numberOfIncludedProperties];
+        for ( int i = 0; i < numberOfIncludedProperties; i++ )
+        {
+            slots[i] = new GenericKey( spatialSettings );
+        }
+        this.states = new byte[numberOfIncludedProperties];
+        this.inlineKeyValueSizeCap = inlineKeyValueSizeCap;
+    }
+
+    @Override
+    void include( NativeIndexKey<?> key, Value[] includedValues )
+    {
+        int available = inlineKeyValueSizeCap - ((GenericKey) key).size() - states.length;
+        if ( includedValues == null || available < 0 )
+        {
+            clear();
+            return;
+        }
+
+        size = states.length;
+        for ( int i = 0; i < states.length; i++ )
+        {
+            Value value = includedValues[i];
+            if ( value == NO_VALUE )
+            {
+                states[i] = ABSENT;
+                continue;
+            }
+            GenericKey slot = slots[i];
+            slot.clear();
+            slot.writeValue( value, NEUTRAL );
+            int slotSize = slot.sizeInternal();
+            if ( slotSize <= available )
+            {
+                states[i] = STORED;
+                available -= slotSize;
+                size += slotSize;
+            }
+            else
+            {
+                states[i] = NOT_STORED;
+            }
+        }
+    }
+
+    @Override
+    Value[] withIncludedValues( Value[] keyValues )
+    {
+        Value[] values = Arrays.copyOf( keyValues, keyValues.length + states.length );
+        for ( int i = 0; i < states.length; i++ )
+        {
+            switch ( states[i] )
+            {
+            case STORED:
+                values[keyValues.length + i] = slots[i].asValue();
+                break;
+            case ABSENT:
+                values[keyValues.length + i] = NO_VALUE;
+                break;
+            default:
+                // Left as null, to be read from the store
+                break;
+            }
+        }
+        return values;
+    }
+
+    int size()
+    {
+        return size;
+    }
+
+    void writeTo( PageCursor cursor )
+    {
+        if ( size == 0 )
+        {
+            return;
+        }
+        cursor.putBytes( states );
+        for ( int i = 0; i < states.length; i++ )
+        {
+            if ( states[i] == STORED )
+            {
+                slots[i].putInternal( cursor );
+            }
+        }
+    }
+
+    void readFrom( PageCursor cursor, int valueSize )
+    {
+        if ( valueSize == 0 )
+        {
+            clear();
+            return;
+        }
+        if ( valueSize < states.length )
+        {
+            cursor.setCursorException( "Failed to read included values of size " + valueSize + " for " + states.length + " included properties" );
+            clear();
+            return;
+        }
+
+        int start = cursor.getOffset();
+        cursor.getBytes( states );
+        for ( int i = 0; i < states.length; i++ )
+        {
+            if ( states[i] == STORED && !slots[i].getInternal( cursor, valueSize - (cursor.getOffset() - start) ) )
+            {
+                // The slot has already set a cursor exception, so this read will be retried or reported
+                clear();
+                return;
+            }
+        }
+        size = valueSize;
+    }
+
+    private void clear()
+    {
+        Arrays.fill( states, NOT_STORED );
+        size = 0;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringJoiner joiner = new StringJoiner( ",", "[", "]" );
+        for ( int i = 0; i < states.length; i++ )
+        {
+            joiner.add( states[i] == STORED ? slots[i].toStringInternal() : states[i] == ABSENT ? "absent" : "not stored" );
+        }
+        return joiner.toString();
+    }
+}
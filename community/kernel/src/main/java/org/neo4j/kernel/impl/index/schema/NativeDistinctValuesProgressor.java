@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Seeker;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.kernel.api.index.IndexProgressor;
+import org.neo4j.values.storable.Value;
+
+/**
+ * Skip-scan over a range of the tree, returning only the first accepted entity of every distinct value. Once the client has accepted
+ * an entity, the tree is sought again from just past its value, so all other entries with that value are skipped without being read.
+ * A range with few distinct values is then read with one seek per distinct value instead of visiting every entry.
+ * <p>
+ * Entities the client doesn't accept, e.g. because they are removed in the transaction or not visible to the user, don't end the value,
+ * the next entry with the same value is offered instead.
+ */
+class NativeDistinctValuesProgressor<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIndexValue> implements IndexProgressor
+{
+    private final GBPTree<KEY,VALUE> tree;
+    private final IndexLayout<KEY,VALUE> layout;
+    private final EntityValueClient client;
+    private final KEY from;
+    private final KEY to;
+    private final long pastValueEntityId;
+    private final PageCursorTracer cursorTracer;
+    private Seeker<KEY,VALUE> seeker;
+    private boolean skipValue;
+    private boolean closed;
+
+    /**
+     * @param from first key of the range, inclusive. Will be overwritten while seeking.
+     * @param to last key of the range, exclusive. Lower than {@code from} for a descending seek.
+     */
+    NativeDistinctValuesProgressor( GBPTree<KEY,VALUE> tree, IndexLayout<KEY,VALUE> layout, EntityValueClient client, KEY from, KEY to,
+            PageCursorTracer cursorTracer ) throws IOException
+    {
+        this.tree = tree;
+        this.layout = layout;
+        this.client = client;
+        this.from = from;
+        this.to = to;
+        this.pastValueEntityId = layout.compare( from, to ) <= 0 ? Long.MAX_VALUE : Long.MIN_VALUE;
+        this.cursorTracer = cursorTracer;
+        this.seeker = tree.seek( from, to, cursorTracer );
+    }
+
+    @Override
+    public boolean next()
+    {
+        try
+        {
+            if ( skipValue )
+            {
+                skipValue = false;
+                seeker.close();
+                seeker = tree.seek( from, to, cursorTracer );
+            }
+            while ( seeker.next() )
+            {
+                KEY key = seeker.key();
+                Value[] values = client.needsValues() ? seeker.value().withIncludedValues( key.asValues() ) : null;
+                if ( client.acceptEntity( key.getEntityId(), Float.NaN, values ) )
+                {
+                    // Entity ids are compared after the value, so this key sorts after all entries with the same value in the seek direction
+                    layout.copyKey( key, from );
+                    from.initialize( pastValueEntityId );
+                    skipValue = true;
+                    return true;
+                }
+            }
+            return false;
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        if ( !closed )
+        {
+            closed = true;
+            try
+            {
+                seeker.close();
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+        }
+    }
+}
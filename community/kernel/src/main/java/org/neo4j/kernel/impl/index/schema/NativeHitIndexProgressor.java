@@ -42,7 +42,7 @@ public class NativeHitIndexProgressor<KEY extends NativeIndexKey<KEY>, VALUE ext
             {
                 KEY key = seeker.key();
                 Value[] values = extractValues( key );
-                if ( acceptValue( values ) && client.acceptEntity( key.getEntityId(), Float.NaN, values ) )
+                if ( acceptValue( values ) && client.acceptEntity( key.getEntityId(), Float.NaN, withIncludedValues( values ) ) )
                 {
                     return true;
                 }
@@ -27,6 +27,7 @@ import java.util.function.Consumer;
 import org.neo4j.annotations.documented.ReporterFactory;
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.GBPTreeConsistencyCheckVisitor;
+import org.neo4j.index.internal.gbptree.Header;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.io.IOUtils;
@@ -67,11 +68,16 @@ abstract class NativeIndex<KEY extends NativeIndexKey<KEY>, VALUE extends Native
     }
 
     void instantiateTree( RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, Consumer<PageCursor> headerWriter )
+    {
+        instantiateTree( recoveryCleanupWorkCollector, NO_HEADER_READER, headerWriter );
+    }
+
+    void instantiateTree( RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, Header.Reader headerReader, Consumer<PageCursor> headerWriter )
     {
         ensureDirectoryExist();
         GBPTree.Monitor monitor = treeMonitor();
         Path storeFile = indexFiles.getStoreFile();
-        tree = new GBPTree<>( pageCache, storeFile, layout, monitor, NO_HEADER_READER, headerWriter, recoveryCleanupWorkCollector,
+        tree = new GBPTree<>( pageCache, storeFile, layout, monitor, headerReader, headerWriter, recoveryCleanupWorkCollector,
                 readOnly, NULL, immutable.empty(), descriptor.getName() );
         afterTreeInstantiation( tree );
     }
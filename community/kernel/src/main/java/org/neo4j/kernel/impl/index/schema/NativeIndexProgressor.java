@@ -59,4 +59,13 @@ abstract class NativeIndexProgressor<KEY extends NativeIndexKey<KEY>, VALUE exte
     {
         return client.needsValues() ? key.asValues() : null;
     }
+
+    /**
+     * @param keyValues values extracted from the current key.
+     * @return the given values followed by the values of properties included in the index, if the client needs values.
+     */
+    Value[] withIncludedValues( Value[] keyValues )
+    {
+        return keyValues != null && client.needsValues() ? seeker.value().withIncludedValues( keyValues ) : keyValues;
+    }
 }
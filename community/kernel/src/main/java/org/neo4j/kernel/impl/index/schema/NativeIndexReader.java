@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.index.schema;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.function.ObjLongConsumer;
 
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.Seeker;
@@ -60,6 +61,14 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends
 
     @Override
     public IndexSampler createSampler()
+    {
+        return createSampler( ( values, count ) -> {} );
+    }
+
+    /**
+     * @param sampledValuesVisitor visits every distinct value tuple seen by the sampler, together with the number of entries having it.
+     */
+    IndexSampler createSampler( ObjLongConsumer<Value[]> sampledValuesVisitor )
     {
         // For a unique index there's an optimization, knowing that all values in it are unique, to simply count
         // the number of indexed values and create a sample for that count. The GBPTree doesn't have an O(1)
@@ -68,7 +77,7 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends
         // non-unique sampler which scans the index and counts (potentially duplicates, of which there will
         // be none in a unique index).
 
-        FullScanNonUniqueIndexSampler<KEY,VALUE> sampler = new FullScanNonUniqueIndexSampler<>( tree, layout );
+        FullScanNonUniqueIndexSampler<KEY,VALUE> sampler = new FullScanNonUniqueIndexSampler<>( tree, layout, sampledValuesVisitor );
         return tracer ->
         {
             try
@@ -158,8 +167,18 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends
         }
         try
         {
-            Seeker<KEY,VALUE> seeker = makeIndexSeeker( treeKeyFrom, treeKeyTo, constraints.order(), cursorTracer );
-            IndexProgressor hitProgressor = getIndexProgressor( seeker, client, needFilter, query );
+            IndexProgressor hitProgressor;
+            if ( constraints.isDistinct() && !needFilter )
+            {
+                hitProgressor = constraints.order() == IndexOrder.DESCENDING
+                                ? new NativeDistinctValuesProgressor<>( tree, layout, client, treeKeyTo, treeKeyFrom, cursorTracer )
+                                : new NativeDistinctValuesProgressor<>( tree, layout, client, treeKeyFrom, treeKeyTo, cursorTracer );
+            }
+            else
+            {
+                Seeker<KEY,VALUE> seeker = makeIndexSeeker( treeKeyFrom, treeKeyTo, constraints.order(), cursorTracer );
+                hitProgressor = getIndexProgressor( seeker, client, needFilter, query );
+            }
             client.initialize( descriptor, hitProgressor, query, constraints, false );
         }
         catch ( IOException e )
@@ -116,8 +116,7 @@ class NativeIndexUpdater<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIn
         initializeKeyFromUpdate( treeKey, update.getEntityId(), update.beforeValues() );
         writer.remove( treeKey );
         // Insert new entry
-        initializeKeyFromUpdate( treeKey, update.getEntityId(), update.values() );
-        treeValue.from( update.values() );
+        initializeKeyAndValueFromUpdate( treeKey, treeValue, update.getEntityId(), update.values(), update.includedValues() );
         conflictDetectingValueMerger.controlConflictDetection( treeKey );
         writer.merge( treeKey, treeValue, conflictDetectingValueMerger );
         conflictDetectingValueMerger.checkConflict( update.values() );
@@ -127,17 +126,18 @@ class NativeIndexUpdater<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIn
             Writer<KEY,VALUE> writer, ConflictDetectingValueMerger<KEY,VALUE,Value[]> conflictDetectingValueMerger )
             throws IndexEntryConflictException
     {
-        initializeKeyAndValueFromUpdate( treeKey, treeValue, update.getEntityId(), update.values() );
+        initializeKeyAndValueFromUpdate( treeKey, treeValue, update.getEntityId(), update.values(), update.includedValues() );
         conflictDetectingValueMerger.controlConflictDetection( treeKey );
         writer.merge( treeKey, treeValue, conflictDetectingValueMerger );
         conflictDetectingValueMerger.checkConflict( update.values() );
     }
 
     static <KEY extends NativeIndexKey<KEY>, VALUE extends NativeIndexValue> void initializeKeyAndValueFromUpdate( KEY treeKey, VALUE treeValue,
-            long entityId, Value[] values )
+            long entityId, Value[] values, Value[] includedValues )
     {
         initializeKeyFromUpdate( treeKey, entityId, values );
         treeValue.from( values );
+        treeValue.include( treeKey, includedValues );
     }
 
     static <KEY extends NativeIndexKey<KEY>> void initializeKeyFromUpdate( KEY treeKey, long entityId, Value[] values )
@@ -41,6 +41,26 @@ class NativeIndexValue
         // not needed a.t.m.
     }
 
+    /**
+     * Keeps the values of properties included in, but not indexed by, the index in this value.
+     *
+     * @param key the already initialized key this value will be stored with.
+     * @param includedValues values of the included properties, or {@code null} if not known.
+     */
+    void include( NativeIndexKey<?> key, Value[] includedValues )
+    {
+        // no included properties
+    }
+
+    /**
+     * @param keyValues values read from the key this value was stored with.
+     * @return the given key values, followed by the values of any included properties.
+     */
+    Value[] withIncludedValues( Value[] keyValues )
+    {
+        return keyValues;
+    }
+
     @Override
     public String toString()
     {
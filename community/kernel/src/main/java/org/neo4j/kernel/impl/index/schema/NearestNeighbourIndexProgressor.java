@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.neo4j.gis.spatial.index.curves.CoveredRanges;
+import org.neo4j.gis.spatial.index.curves.SpaceFillingCurve;
+import org.neo4j.gis.spatial.index.curves.SpaceFillingCurveConfiguration;
+import org.neo4j.index.internal.gbptree.Seeker;
+import org.neo4j.internal.helpers.collection.Pair;
+import org.neo4j.internal.kernel.api.IndexQuery.NearestNeighboursPredicate;
+import org.neo4j.kernel.api.index.IndexProgressor;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.PointValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.neo4j.memory.HeapEstimator.OBJECT_REFERENCE_BYTES;
+import static org.neo4j.memory.HeapEstimator.shallowSizeOfInstance;
+
+/**
+ * Finds the indexed points nearest to an origin, best first. The search starts with the tiles around the origin and grows the search
+ * radius ring by ring. Each ring seeks the tiles intersecting its bounding box, and only keeps the points that are further away than the
+ * previous radius, but not further than its own. Those are kept in a queue ordered by distance to the origin, and handed to the client before
+ * the next ring is searched, because then no point that has not yet been found can be nearer than them.
+ * <p>
+ * The queue therefore never holds more than the points of one ring, also when the progressor is exhausted, at the cost of seeking the tiles
+ * around the origin once per ring. Since the radius doubles for every ring, those seeks read less than the last ring does. The queue is charged
+ * to the memory tracker of the query.
+ */
+class NearestNeighbourIndexProgressor implements IndexProgressor
+{
+    private final RangeSeeker rangeSeeker;
+    private final IndexProgressor.EntityValueClient client;
+    private final NearestNeighboursPredicate predicate;
+    private final SpaceFillingCurve curve;
+    private final SpaceFillingCurveConfiguration configuration;
+    private final MemoryTracker memoryTracker;
+    private final PriorityQueue<Candidate> candidates = new PriorityQueue<>( Comparator.comparingDouble( candidate -> candidate.distance ) );
+    // Every point within this distance from the origin has been found, nothing is known before the first ring is searched
+    private double searchedRadius = -1;
+    private double nextRadius;
+    // Whether the last ring seeked points further away than its radius, which are left for the rings after it
+    private boolean foundPointsBeyondRadius;
+    private boolean coveredWholeCurve;
+    private boolean exhausted;
+
+    NearestNeighbourIndexProgressor( RangeSeeker rangeSeeker, IndexProgressor.EntityValueClient client, NearestNeighboursPredicate predicate,
+            SpaceFillingCurve curve, SpaceFillingCurveConfiguration configuration, MemoryTracker memoryTracker )
+    {
+        this.rangeSeeker = rangeSeeker;
+        this.client = client;
+        this.predicate = predicate;
+        this.curve = curve;
+        this.configuration = configuration;
+        this.memoryTracker = memoryTracker;
+        this.nextRadius = initialRadius();
+    }
+
+    @Override
+    public boolean next()
+    {
+        while ( true )
+        {
+            Candidate nearest = candidates.peek();
+            if ( nearest != null && (exhausted || nearest.distance <= searchedRadius) )
+            {
+                candidates.poll();
+                memoryTracker.releaseHeap( nearest.estimatedHeapUsage() );
+                if ( client.acceptEntity( nearest.entityId, (float) nearest.distance, nearest.point ) )
+                {
+                    return true;
+                }
+            }
+            else if ( exhausted )
+            {
+                return false;
+            }
+            else
+            {
+                searchNextRing();
+            }
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        for ( Candidate candidate : candidates )
+        {
+            memoryTracker.releaseHeap( candidate.estimatedHeapUsage() );
+        }
+        candidates.clear();
+        exhausted = true;
+    }
+
+    private void searchNextRing()
+    {
+        List<SpaceFillingCurve.LongRange> ranges = new ArrayList<>();
+        if ( coveredWholeCurve )
+        {
+            // The bounding boxes of larger rings would not be valid points any more, but there is nothing more than the whole curve to seek
+            ranges.addAll( curve.getTilesIntersectingEnvelope( curve.getRange().getMin(), curve.getRange().getMax(), configuration ) );
+        }
+        else
+        {
+            for ( Pair<PointValue,PointValue> box : predicate.crs().getCalculator().boundingBox( predicate.origin(), nextRadius ) )
+            {
+                ranges.addAll( curve.getTilesIntersectingEnvelope( box.first().coordinate(), box.other().coordinate(), configuration ) );
+            }
+        }
+        // Bounding boxes can overlap, e.g. around the poles, the tiles they share are only seeked once
+        CoveredRanges ringRanges = new CoveredRanges( curve );
+        foundPointsBeyondRadius = false;
+        for ( SpaceFillingCurve.LongRange range : ringRanges.cover( ranges ) )
+        {
+            seek( range );
+        }
+        searchedRadius = nextRadius;
+        // Grow faster through empty space around the origin
+        nextRadius *= candidates.isEmpty() ? 4 : 2;
+        coveredWholeCurve = ringRanges.coversWholeCurve();
+        exhausted = coveredWholeCurve && !foundPointsBeyondRadius;
+    }
+
+    private void seek( SpaceFillingCurve.LongRange range )
+    {
+        try ( Seeker<GenericKey,NativeIndexValue> seeker = rangeSeeker.seek( range ) )
+        {
+            while ( seeker.next() )
+            {
+                GenericKey key = seeker.key();
+                Value value = key.asValues()[0];
+                if ( predicate.acceptsValue( value ) )
+                {
+                    PointValue point = (PointValue) value;
+                    double distance = predicate.distance( point );
+                    if ( distance > nextRadius )
+                    {
+                        foundPointsBeyondRadius = true;
+                    }
+                    else if ( distance > searchedRadius )
+                    {
+                        Candidate candidate = new Candidate( key.getEntityId(), distance, point );
+                        memoryTracker.allocateHeap( candidate.estimatedHeapUsage() );
+                        candidates.add( candidate );
+                    }
+                }
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    /**
+     * @return the distance covered by a single tile at the deepest level of the curve, which is where the first ring starts.
+     */
+    private double initialRadius()
+    {
+        PointValue origin = predicate.origin();
+        CoordinateReferenceSystem crs = predicate.crs();
+        double[] coordinate = origin.coordinate();
+        double[] shifted = new double[coordinate.length];
+        for ( int dimension = 0; dimension < coordinate.length; dimension++ )
+        {
+            double tileWidth = curve.getTileWidth( dimension, curve.getMaxLevel() );
+            boolean inUpperHalf = coordinate[dimension] > (curve.getRange().getMin( dimension ) + curve.getRange().getMax( dimension )) / 2;
+            shifted[dimension] = inUpperHalf ? coordinate[dimension] - tileWidth : coordinate[dimension] + tileWidth;
+        }
+        double distance = crs.getCalculator().distance( origin, Values.pointValue( crs, shifted ) );
+        return distance > 0 ? distance : Double.MIN_NORMAL;
+    }
+
+    /**
+     * Seeks all entries of the index with points on the given range of the space filling curve.
+     */
+    @FunctionalInterface
+    interface RangeSeeker
+    {
+        Seeker<GenericKey,NativeIndexValue> seek( SpaceFillingCurve.LongRange range ) throws IOException;
+    }
+
+    static class Candidate
+    {
+        private static final long SHALLOW_SIZE = shallowSizeOfInstance( Candidate.class );
+
+        private final long entityId;
+        private final double distance;
+        private final PointValue point;
+
+        Candidate( long entityId, double distance, PointValue point )
+        {
+            this.entityId = entityId;
+            this.distance = distance;
+            this.point = point;
+        }
+
+        /**
+         * @return the size of this candidate including its point, and the slot it takes in the queue.
+         */
+        long estimatedHeapUsage()
+        {
+            return SHALLOW_SIZE + point.estimatedHeapUsage() + OBJECT_REFERENCE_BYTES;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.neo4j.gis.spatial.index.curves.DensityAwareConfiguration;
+import org.neo4j.gis.spatial.index.curves.SpaceFillingCurve;
+import org.neo4j.gis.spatial.index.curves.SpaceFillingCurveConfiguration;
+import org.neo4j.gis.spatial.index.curves.SpaceFillingCurveDensity;
+import org.neo4j.index.internal.gbptree.Header;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.impl.index.schema.config.IndexSpecificSpaceFillingCurveSettings;
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.PointValue;
+import org.neo4j.values.storable.Value;
+
+/**
+ * Density of the points in a generic native index, per {@link CoordinateReferenceSystem}, see {@link SpaceFillingCurveDensity}.
+ * Densities are learned while populating the index and replaced every time the index is sampled by a full scan, and are used to
+ * adapt the tiling of geometry range queries to where the points actually are, see {@link DensityAwareConfiguration}.
+ * <p>
+ * Densities are kept in the index header, after the state byte. To fit in the header every density is written at the finest level
+ * where its non-empty tiles fit in an even share of the space left in the header page, and densities which don't fit at all are left out.
+ * Header layout:
+ * <pre>
+ * [numberOfDensities:byte] then per density
+ * [crsCode:int][level:byte][total:long][numberOfNonEmptyTiles:short] then per non-empty tile [tile:short][share of total:short]
+ * </pre>
+ */
+class SpaceFillingCurveDensities implements Consumer<PageCursor>, Header.Reader
+{
+    private static final int DENSITY_HEADER_SIZE = Integer.BYTES + Byte.BYTES + Long.BYTES + Short.BYTES;
+    private static final int TILE_SIZE = Short.BYTES + Short.BYTES;
+    private static final int MAX_SHARE = 0xFFFF;
+
+    private final IndexSpecificSpaceFillingCurveSettings settings;
+    private final SpaceFillingCurveConfiguration configuration;
+    private final Map<CoordinateReferenceSystem,SpaceFillingCurve> curves = new ConcurrentHashMap<>();
+    private final Map<CoordinateReferenceSystem,SpaceFillingCurveDensity> densities = new ConcurrentHashMap<>();
+
+    SpaceFillingCurveDensities( IndexSpecificSpaceFillingCurveSettings settings, SpaceFillingCurveConfiguration configuration )
+    {
+        this.settings = settings;
+        this.configuration = configuration;
+    }
+
+    /**
+     * @return new empty densities, with the same settings as these.
+     */
+    SpaceFillingCurveDensities emptyCopy()
+    {
+        return new SpaceFillingCurveDensities( settings, configuration );
+    }
+
+    /**
+     * Count the points among the values, which have been seen the given number of times.
+     */
+    void add( Value[] values, long count )
+    {
+        for ( Value value : values )
+        {
+            if ( value instanceof PointValue )
+            {
+                PointValue point = (PointValue) value;
+                CoordinateReferenceSystem crs = point.getCoordinateReferenceSystem();
+                SpaceFillingCurve curve = curve( crs );
+                densities.computeIfAbsent( crs, c -> new SpaceFillingCurveDensity( curve ) ).add( curve.derivedValueFor( point.coordinate() ), count );
+            }
+        }
+    }
+
+    /**
+     * Forget the densities known so far, in favour of the given ones.
+     */
+    void replaceWith( SpaceFillingCurveDensities other )
+    {
+        densities.keySet().retainAll( other.densities.keySet() );
+        densities.putAll( other.densities );
+    }
+
+    /**
+     * @return the configuration to use for range queries on the given {@link CoordinateReferenceSystem}.
+     */
+    SpaceFillingCurveConfiguration configurationFor( CoordinateReferenceSystem crs )
+    {
+        SpaceFillingCurveDensity density = densities.get( crs );
+        return density == null ? configuration : new DensityAwareConfiguration( configuration, density );
+    }
+
+    SpaceFillingCurveDensity densityFor( CoordinateReferenceSystem crs )
+    {
+        return densities.get( crs );
+    }
+
+    @Override
+    public void accept( PageCursor cursor )
+    {
+        List<Map.Entry<CoordinateReferenceSystem,SpaceFillingCurveDensity>> nonEmpty = new ArrayList<>();
+        for ( Map.Entry<CoordinateReferenceSystem,SpaceFillingCurveDensity> entry : densities.entrySet() )
+        {
+            if ( entry.getValue().total() > 0 )
+            {
+                nonEmpty.add( entry );
+            }
+        }
+        List<CoordinateReferenceSystem> crss = new ArrayList<>();
+        List<SpaceFillingCurveDensity> fitting = new ArrayList<>();
+        int spaceLeft = cursor.getCurrentPageSize() - cursor.getOffset() - Byte.BYTES;
+        int spacePerDensity = nonEmpty.isEmpty() ? 0 : spaceLeft / nonEmpty.size();
+        for ( Map.Entry<CoordinateReferenceSystem,SpaceFillingCurveDensity> entry : nonEmpty )
+        {
+            SpaceFillingCurveDensity density = entry.getValue();
+            for ( int level = density.getLevel(); level >= 0; level-- )
+            {
+                if ( DENSITY_HEADER_SIZE + density.numberOfNonEmptyTiles( level ) * TILE_SIZE <= spacePerDensity )
+                {
+                    crss.add( entry.getKey() );
+                    fitting.add( density.getLevel() == level ? density : density.atLevel( level ) );
+                    break;
+                }
+            }
+        }
+
+        cursor.putByte( (byte) fitting.size() );
+        for ( int i = 0; i < fitting.size(); i++ )
+        {
+            SpaceFillingCurveDensity density = fitting.get( i );
+            // Points may still be added while writing, so the total is summed up from the tiles that get written, and tiles
+            // which got their first points after the density was sized are left out if there is no room for them
+            long total = 0;
+            for ( int tile = 0; tile < density.numberOfTiles(); tile++ )
+            {
+                total += density.countInTile( tile );
+            }
+            cursor.putInt( crss.get( i ).getCode() );
+            cursor.putByte( (byte) density.getLevel() );
+            cursor.putLong( total );
+            int numberOfNonEmptyTilesOffset = cursor.getOffset();
+            cursor.putShort( (short) 0 );
+            int numberOfNonEmptyTiles = 0;
+            for ( int tile = 0; tile < density.numberOfTiles() && total > 0; tile++ )
+            {
+                long count = density.countInTile( tile );
+                if ( count > 0 && DENSITY_HEADER_SIZE + (numberOfNonEmptyTiles + 1) * TILE_SIZE <= spacePerDensity )
+                {
+                    // Rounded up, so that no tile with points in it is read back as empty
+                    cursor.putShort( (short) tile );
+                    cursor.putShort( (short) Math.ceil( (double) count / total * MAX_SHARE ) );
+                    numberOfNonEmptyTiles++;
+                }
+            }
+            cursor.putShort( numberOfNonEmptyTilesOffset, (short) numberOfNonEmptyTiles );
+        }
+    }
+
+    @Override
+    public void read( ByteBuffer headerData )
+    {
+        if ( !headerData.hasRemaining() )
+        {
+            // Written before densities were kept in the header
+            return;
+        }
+        int numberOfDensities = Byte.toUnsignedInt( headerData.get() );
+        for ( int i = 0; i < numberOfDensities; i++ )
+        {
+            CoordinateReferenceSystem crs = CoordinateReferenceSystem.get( headerData.getInt() );
+            int level = headerData.get();
+            long total = headerData.getLong();
+            int numberOfNonEmptyTiles = Short.toUnsignedInt( headerData.getShort() );
+            SpaceFillingCurveDensity density = new SpaceFillingCurveDensity( curve( crs ), level );
+            for ( int j = 0; j < numberOfNonEmptyTiles; j++ )
+            {
+                int tile = Short.toUnsignedInt( headerData.getShort() );
+                int share = Short.toUnsignedInt( headerData.getShort() );
+                density.addToTile( tile, Math.max( 1, Math.round( (double) share / MAX_SHARE * total ) ) );
+            }
+            densities.put( crs, density );
+        }
+    }
+
+    private SpaceFillingCurve curve( CoordinateReferenceSystem crs )
+    {
+        return curves.computeIfAbsent( crs, settings::forCrs );
+    }
+}
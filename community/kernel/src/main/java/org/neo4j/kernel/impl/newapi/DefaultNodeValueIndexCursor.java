@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.impl.newapi;
 
+import org.apache.commons.lang3.ArrayUtils;
 import org.eclipse.collections.api.iterator.LongIterator;
 import org.eclipse.collections.api.set.primitive.LongSet;
 import org.eclipse.collections.api.tuple.primitive.LongObjectPair;
@@ -42,6 +43,7 @@ import org.neo4j.internal.kernel.api.IndexQueryConstraints;
 import org.neo4j.internal.kernel.api.NodeCursor;
 import org.neo4j.internal.kernel.api.NodeValueIndexCursor;
 import org.neo4j.internal.kernel.api.security.AccessMode;
+import org.neo4j.internal.schema.IncludedProperties;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.internal.schema.IndexOrder;
 import org.neo4j.io.IOUtils;
@@ -64,10 +66,12 @@ import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesForRa
 import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesForScan;
 import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesForSeek;
 import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesForSuffixOrContains;
+import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesWithValuesForNearestNeighbours;
 import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesWithValuesForRangeSeek;
 import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesWithValuesForRangeSeekByPrefix;
 import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesWithValuesForScan;
 import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesWithValuesForSuffixOrContains;
+import static org.neo4j.values.storable.Values.NO_VALUE;
 
 class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
         implements NodeValueIndexCursor, EntityIndexSeekClient, SortedMergeJoin.Sink
@@ -87,6 +91,7 @@ class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
     private LongSet removed = LongSets.immutable.empty();
     private boolean needsValues;
     private IndexOrder indexOrder;
+    private boolean orderedByDistance;
     private final MemoryTracker memoryTracker;
     private final CursorPool<DefaultNodeValueIndexCursor> pool;
     private final DefaultNodeCursor nodeCursor;
@@ -94,6 +99,11 @@ class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
     private AccessMode accessMode;
     private boolean shortcutSecurity;
     private int[] propertyIds;
+    private int[] includedPropertyIds = IncludedProperties.NONE;
+    private boolean includedPropertiesReadable;
+    private long includedNode = NO_ID;
+    private Value[] includedValues;
+    private DefaultPropertyCursor propertyCursor;
 
     DefaultNodeValueIndexCursor( CursorPool<DefaultNodeValueIndexCursor> pool, DefaultNodeCursor nodeCursor, MemoryTracker memoryTracker )
     {
@@ -116,6 +126,7 @@ class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
         super.initialize( progressor );
         this.indexOrder = constraints.order();
         this.needsValues = constraints.needsValues();
+        this.orderedByDistance = false;
         sortedMergeJoin.initialize( indexOrder );
 
         this.query = query;
@@ -126,6 +137,7 @@ class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
         }
 
         shortcutSecurity = setupSecurity( descriptor );
+        setupIncludedProperties( descriptor );
 
         if ( !indexIncludesTransactionState && read.hasTxStateWithChanges() && query.length > 0 )
         {
@@ -189,6 +201,12 @@ class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
                     suffixOrContainsQuery( descriptor, nextQuery );
                     break;
 
+                case nearestNeighbours:
+                    // Nearest neighbours are only supported by single property indexes
+                    assert query.length == 1;
+                    nearestNeighboursQuery( descriptor, (IndexQuery.NearestNeighboursPredicate) nextQuery );
+                    break;
+
                 default:
                     throw new UnsupportedOperationException( "Query not supported: " + Arrays.toString( query ) );
                 }
@@ -225,6 +243,22 @@ class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
         return true;
     }
 
+    /**
+     * Values of included properties are served from the index when the current user can read them no matter what label the node has,
+     * otherwise they are always read through a property cursor which applies the security rules.
+     */
+    private void setupIncludedProperties( IndexDescriptor descriptor )
+    {
+        includedPropertyIds = descriptor.includedPropertyIds();
+        includedPropertiesReadable = true;
+        for ( int propId : includedPropertyIds )
+        {
+            includedPropertiesReadable &= accessMode.allowsReadPropertyAllLabels( propId );
+        }
+        includedNode = NO_ID;
+        includedValues = null;
+    }
+
     /**
      * If we require order, we can only do the merge sort if we also get values.
      * This implicitly relies on the fact that if we can get order, we can also get values.
@@ -254,10 +288,32 @@ class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
             this.node = reference;
             this.score = score;
             this.values = values;
+            if ( values != null && values.length > query.length )
+            {
+                acceptIncludedValues( reference, values );
+            }
             return true;
         }
     }
 
+    /**
+     * Included values are kept apart from the values of the index key, which are the ones that are compared when merging in
+     * transaction state or sorting points.
+     */
+    private void acceptIncludedValues( long reference, Value[] values )
+    {
+        this.values = Arrays.copyOf( values, query.length );
+        this.includedNode = reference;
+        this.includedValues = includedPropertiesReadable && !hasPropertyChangesInTx( reference )
+                              ? Arrays.copyOfRange( values, query.length, values.length )
+                              : null;
+    }
+
+    private boolean hasPropertyChangesInTx( long reference )
+    {
+        return read.hasTxStateWithChanges() && read.txState().getNodeState( reference ).hasPropertyChanges();
+    }
+
     protected boolean allowed( long reference )
     {
         if ( shortcutSecurity )
@@ -368,7 +424,7 @@ class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
         }
 
         boolean innerNext = innerNext();
-        if ( values != null && innerNext && indexOrder != IndexOrder.NONE )
+        if ( values != null && innerNext && indexOrder != IndexOrder.NONE && !orderedByDistance )
         {
             return eagerizingPoints();
         }
@@ -536,6 +592,65 @@ class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
         return values[offset];
     }
 
+    @Override
+    public int numberOfIncludedProperties()
+    {
+        return includedPropertyIds.length;
+    }
+
+    @Override
+    public int includedPropertyKey( int offset )
+    {
+        return includedPropertyIds[offset];
+    }
+
+    @Override
+    public Value includedPropertyValue( int offset )
+    {
+        if ( includedNode != node || includedValues == null || includedValues[offset] == null )
+        {
+            loadIncludedValues();
+        }
+        return includedValues[offset];
+    }
+
+    /**
+     * Reads the included values the index didn't have, or all of them if the current node wasn't served with included values from the
+     * index, e.g. because it comes from transaction state, the point buffer or has changed properties in this transaction.
+     */
+    private void loadIncludedValues()
+    {
+        if ( includedNode != node || includedValues == null )
+        {
+            includedNode = node;
+            includedValues = new Value[includedPropertyIds.length];
+        }
+        if ( propertyCursor == null )
+        {
+            propertyCursor = read.cursors.allocatePropertyCursor( read.cursorTracer, memoryTracker );
+        }
+        read.singleNode( node, nodeCursor );
+        if ( nodeCursor.next() )
+        {
+            nodeCursor.properties( propertyCursor );
+            while ( propertyCursor.next() )
+            {
+                int included = ArrayUtils.indexOf( includedPropertyIds, propertyCursor.propertyKey() );
+                if ( included >= 0 && includedValues[included] == null )
+                {
+                    includedValues[included] = propertyCursor.propertyValue();
+                }
+            }
+        }
+        for ( int i = 0; i < includedValues.length; i++ )
+        {
+            if ( includedValues[i] == null )
+            {
+                includedValues[i] = NO_VALUE;
+            }
+        }
+    }
+
     @Override
     public void closeInternal()
     {
@@ -546,6 +661,9 @@ class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
             this.score = Float.NaN;
             this.query = null;
             this.values = null;
+            this.includedNode = NO_ID;
+            this.includedValues = null;
+            this.includedPropertyIds = IncludedProperties.NONE;
             this.read = null;
             this.accessMode = null;
             this.added = ImmutableEmptyLongIterator.INSTANCE;
@@ -556,6 +674,11 @@ class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
             {
                 eagerPointIterator.close();
             }
+            if ( propertyCursor != null )
+            {
+                propertyCursor.close();
+                propertyCursor = null;
+            }
             pool.accept( this );
         }
     }
@@ -655,12 +778,36 @@ class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
         }
     }
 
+    /**
+     * The index returns nearest neighbours ordered by distance, so the added points are merged in by distance too rather than by value.
+     */
+    private void nearestNeighboursQuery( IndexDescriptor descriptor, IndexQuery.NearestNeighboursPredicate predicate )
+    {
+        TransactionState txState = read.txState();
+
+        AddedWithValuesAndRemoved changes = indexUpdatesWithValuesForNearestNeighbours( txState, descriptor, predicate );
+        addedWithValues = changes.getAdded().iterator();
+        removed = removed( txState, changes.getRemoved() );
+        needsValues = true;
+        indexOrder = IndexOrder.ASCENDING;
+        orderedByDistance = true;
+        sortedMergeJoin.initialize( indexOrder, Comparator.comparingDouble( value -> predicate.distance( (PointValue) value ) ) );
+    }
+
     private void seekQuery( IndexDescriptor descriptor, Value[] values )
     {
         TransactionState txState = read.txState();
 
         AddedAndRemoved changes = indexUpdatesForSeek( txState, descriptor, ValueTuple.of( values ) );
-        added = changes.getAdded().longIterator();
+        if ( needsValues )
+        {
+            // All added nodes have exactly the values sought for
+            addedWithValues = changes.getAdded().collect( nodeId -> new NodeWithPropertyValues( nodeId, values ) ).iterator();
+        }
+        else
+        {
+            added = changes.getAdded().longIterator();
+        }
         removed = removed( txState, changes.getRemoved() );
     }
 
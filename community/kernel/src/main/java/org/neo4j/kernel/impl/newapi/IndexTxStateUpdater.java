@@ -23,12 +23,15 @@ import org.apache.commons.lang3.ArrayUtils;
 import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
 import org.eclipse.collections.impl.factory.primitive.IntObjectMaps;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
 import org.neo4j.internal.kernel.api.NodeCursor;
 import org.neo4j.internal.kernel.api.PropertyCursor;
 import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.internal.schema.IndexFilter;
 import org.neo4j.internal.schema.SchemaDescriptor;
 import org.neo4j.kernel.impl.api.index.IndexingService;
 import org.neo4j.memory.MemoryTracker;
@@ -87,6 +90,11 @@ public class IndexTxStateUpdater
             for ( IndexDescriptor index : indexes )
             {
                 MemoryTracker memoryTracker = read.txState().memoryTracker();
+                if ( hasOtherLabelOfSchema( index, labelId, node ) ||
+                     !acceptedByFilter( index, node, propertyCursor, NO_SUCH_PROPERTY_KEY, NO_VALUE, materializedProperties, memoryTracker ) )
+                {
+                    continue;
+                }
                 int[] indexPropertyIds = index.schema().getPropertyIds();
                 Value[] values = getValueTuple( node, propertyCursor, NO_SUCH_PROPERTY_KEY, NO_VALUE, indexPropertyIds, materializedProperties, memoryTracker );
                 ValueTuple valueTuple = ValueTuple.of( values );
@@ -107,6 +115,22 @@ public class IndexTxStateUpdater
         }
     }
 
+    /**
+     * An index on more than one label holds a node once, as long as the node has any of those labels.
+     * Adding or removing one of the labels therefore only changes the index when the node has none of the other labels.
+     */
+    private static boolean hasOtherLabelOfSchema( IndexDescriptor index, int labelId, NodeCursor node )
+    {
+        for ( int schemaLabelId : index.schema().getEntityTokenIds() )
+        {
+            if ( schemaLabelId != labelId && node.hasLabel( schemaLabelId ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private boolean noSchemaChangedInTx()
     {
         return !(read.txState().hasChanges() && !read.txState().hasDataChanges());
@@ -117,7 +141,9 @@ public class IndexTxStateUpdater
     void onPropertyAdd( NodeCursor node, PropertyCursor propertyCursor, long[] labels, int propertyKeyId, int[] existingPropertyKeyIds, Value value )
     {
         assert noSchemaChangedInTx();
-        Collection<IndexDescriptor> indexes = storageReader.indexesGetRelated( labels, propertyKeyId, NODE );
+        Collection<IndexDescriptor> relatedIndexes = storageReader.indexesGetRelated( labels, propertyKeyId, NODE );
+        onFilterPropertyChange( node, propertyCursor, relatedIndexes, propertyKeyId, existingPropertyKeyIds, NO_VALUE, value );
+        Collection<IndexDescriptor> indexes = indexesWithKeyProperty( relatedIndexes, propertyKeyId );
         if ( !indexes.isEmpty() )
         {
             MutableIntObjectMap<Value> materializedProperties = IntObjectMaps.mutable.empty();
@@ -125,6 +151,10 @@ public class IndexTxStateUpdater
                     index ->
                     {
                         MemoryTracker memoryTracker = read.txState().memoryTracker();
+                        if ( !acceptedByFilter( index, node, propertyCursor, propertyKeyId, value, materializedProperties, memoryTracker ) )
+                        {
+                            return;
+                        }
                         SchemaDescriptor schema = index.schema();
                         Value[] values = getValueTuple( node, propertyCursor, propertyKeyId, value, schema.getPropertyIds(), materializedProperties,
                                                         memoryTracker );
@@ -139,7 +169,9 @@ public class IndexTxStateUpdater
     void onPropertyRemove( NodeCursor node, PropertyCursor propertyCursor, long[] labels, int propertyKeyId, int[] existingPropertyKeyIds, Value value )
     {
         assert noSchemaChangedInTx();
-        Collection<IndexDescriptor> indexes = storageReader.indexesGetRelated( labels, propertyKeyId, NODE );
+        Collection<IndexDescriptor> relatedIndexes = storageReader.indexesGetRelated( labels, propertyKeyId, NODE );
+        onFilterPropertyChange( node, propertyCursor, relatedIndexes, propertyKeyId, existingPropertyKeyIds, value, NO_VALUE );
+        Collection<IndexDescriptor> indexes = indexesWithKeyProperty( relatedIndexes, propertyKeyId );
         if ( !indexes.isEmpty() )
         {
             MutableIntObjectMap<Value> materializedProperties = IntObjectMaps.mutable.empty();
@@ -147,6 +179,10 @@ public class IndexTxStateUpdater
                     index ->
                     {
                         MemoryTracker memoryTracker = read.txState().memoryTracker();
+                        if ( !acceptedByFilter( index, node, propertyCursor, propertyKeyId, value, materializedProperties, memoryTracker ) )
+                        {
+                            return;
+                        }
                         SchemaDescriptor schema = index.schema();
                         Value[] values = getValueTuple( node, propertyCursor, propertyKeyId, value, schema.getPropertyIds(), materializedProperties,
                                                         memoryTracker );
@@ -161,7 +197,9 @@ public class IndexTxStateUpdater
             Value beforeValue, Value afterValue )
     {
         assert noSchemaChangedInTx();
-        Collection<IndexDescriptor> indexes = storageReader.indexesGetRelated( labels, propertyKeyId, NODE );
+        Collection<IndexDescriptor> relatedIndexes = storageReader.indexesGetRelated( labels, propertyKeyId, NODE );
+        onFilterPropertyChange( node, propertyCursor, relatedIndexes, propertyKeyId, existingPropertyKeyIds, beforeValue, afterValue );
+        Collection<IndexDescriptor> indexes = indexesWithKeyProperty( relatedIndexes, propertyKeyId );
         if ( !indexes.isEmpty() )
         {
             MutableIntObjectMap<Value> materializedProperties = IntObjectMaps.mutable.empty();
@@ -169,6 +207,10 @@ public class IndexTxStateUpdater
                     index ->
                     {
                         MemoryTracker memoryTracker = read.txState().memoryTracker();
+                        if ( !acceptedByFilter( index, node, propertyCursor, propertyKeyId, afterValue, materializedProperties, memoryTracker ) )
+                        {
+                            return;
+                        }
                         SchemaDescriptor schema = index.schema();
                         int[] propertyIds = schema.getPropertyIds();
                         Value[] valuesAfter =
@@ -188,6 +230,85 @@ public class IndexTxStateUpdater
         }
     }
 
+    /**
+     * A change to the filter property of a partial index moves the node into or out of the index, if the node has all the indexed properties.
+     * The filter property is never one of the indexed properties, so the indexed values are the same before and after the change.
+     */
+    private void onFilterPropertyChange( NodeCursor node, PropertyCursor propertyCursor, Collection<IndexDescriptor> indexes, int propertyKeyId,
+            int[] existingPropertyKeyIds, Value beforeValue, Value afterValue )
+    {
+        MutableIntObjectMap<Value> materializedProperties = null;
+        for ( IndexDescriptor index : indexes )
+        {
+            IndexFilter indexFilter = index.indexFilter();
+            if ( indexFilter.propertyKeyId() != propertyKeyId )
+            {
+                continue;
+            }
+            boolean acceptedBefore = indexFilter.accepts( beforeValue );
+            boolean acceptedAfter = indexFilter.accepts( afterValue );
+            SchemaDescriptor schema = index.schema();
+            if ( acceptedBefore == acceptedAfter || !NodeSchemaMatcher.nodeHasSchemaProperties( existingPropertyKeyIds, schema.getPropertyIds(), propertyKeyId ) )
+            {
+                continue;
+            }
+            if ( materializedProperties == null )
+            {
+                materializedProperties = IntObjectMaps.mutable.empty();
+            }
+            MemoryTracker memoryTracker = read.txState().memoryTracker();
+            Value[] values = getValueTuple( node, propertyCursor, NO_SUCH_PROPERTY_KEY, NO_VALUE, schema.getPropertyIds(), materializedProperties,
+                    memoryTracker );
+            ValueTuple valueTuple = ValueTuple.of( values );
+            memoryTracker.allocateHeap( valueTuple.getShallowSize() );
+            if ( acceptedAfter )
+            {
+                read.txState().indexDoUpdateEntry( schema, node.nodeReference(), null, valueTuple );
+            }
+            else
+            {
+                read.txState().indexDoUpdateEntry( schema, node.nodeReference(), valueTuple, null );
+            }
+        }
+    }
+
+    /**
+     * @return whether or not the node is accepted by the filter of the given index, if it has one. The changed property is never the filter property.
+     */
+    private boolean acceptedByFilter( IndexDescriptor index, NodeCursor node, PropertyCursor propertyCursor, int changedPropertyKeyId, Value changedValue,
+            MutableIntObjectMap<Value> materializedProperties, MemoryTracker memoryTracker )
+    {
+        IndexFilter indexFilter = index.indexFilter();
+        if ( !indexFilter.isPartial() )
+        {
+            return true;
+        }
+        Value[] filterValue = getValueTuple( node, propertyCursor, changedPropertyKeyId, changedValue, new int[]{indexFilter.propertyKeyId()},
+                materializedProperties, memoryTracker );
+        return indexFilter.accepts( filterValue[0] );
+    }
+
+    /**
+     * Indexes which only include the property, rather than index it, don't change which entries the transaction state has for the node.
+     * Values of included properties are read through the node by the index cursor whenever the node has changes in this transaction.
+     */
+    private static Collection<IndexDescriptor> indexesWithKeyProperty( Collection<IndexDescriptor> indexes, int propertyKeyId )
+    {
+        if ( indexes.isEmpty() )
+        {
+            return indexes;
+        }
+        List<IndexDescriptor> withKeyProperty = new ArrayList<>( indexes.size() );
+        for ( IndexDescriptor index : indexes )
+        {
+            if ( ArrayUtils.contains( index.schema().getPropertyIds(), propertyKeyId ) )
+            {
+                withKeyProperty.add( index );
+            }
+        }
+        return withKeyProperty;
+    }
+
     private Value[] getValueTuple( NodeCursor node, PropertyCursor propertyCursor, int changedPropertyKeyId, Value changedValue, int[] indexPropertyIds,
             MutableIntObjectMap<Value> materializedValues, MemoryTracker memoryTracker )
     {
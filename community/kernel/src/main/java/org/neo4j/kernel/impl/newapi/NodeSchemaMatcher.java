@@ -113,7 +113,7 @@ public class NodeSchemaMatcher
         }
     }
 
-    private static boolean nodeHasSchemaProperties(
+    static boolean nodeHasSchemaProperties(
             int[] existingPropertyIds, int[] indexPropertyIds, int changedPropertyId )
     {
         for ( int indexPropertyId : indexPropertyIds )
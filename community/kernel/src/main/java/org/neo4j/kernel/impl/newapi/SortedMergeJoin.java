@@ -19,6 +19,8 @@
  */
 package org.neo4j.kernel.impl.newapi;
 
+import java.util.Comparator;
+
 import org.neo4j.internal.schema.IndexOrder;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
@@ -35,10 +37,20 @@ final class SortedMergeJoin
     private Value[] valuesFromA;
     private Value[] valuesFromB;
     private int indexOrder;
+    private Comparator<Value> comparator;
 
     void initialize( IndexOrder indexOrder )
+    {
+        initialize( indexOrder, Values.COMPARATOR );
+    }
+
+    /**
+     * @param comparator the order that both inputs are sorted in, the default is the order of {@link Values#COMPARATOR}.
+     */
+    void initialize( IndexOrder indexOrder, Comparator<Value> comparator )
     {
         this.indexOrder = indexOrder == IndexOrder.DESCENDING ? 1 : -1;
+        this.comparator = comparator;
         this.nextFromA = -1;
         this.nextFromB = -1;
         this.valuesFromA = null;
@@ -78,7 +90,7 @@ final class SortedMergeJoin
 
             for ( int i = 0; c == 0 && i < valuesFromA.length; i++ )
             {
-                c = Values.COMPARATOR.compare( valuesFromA[i], valuesFromB[i] );
+                c = comparator.compare( valuesFromA[i], valuesFromB[i] );
             }
         }
 
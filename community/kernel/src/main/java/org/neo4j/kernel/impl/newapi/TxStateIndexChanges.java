@@ -30,6 +30,7 @@ import org.eclipse.collections.impl.factory.primitive.LongLists;
 import org.eclipse.collections.impl.factory.primitive.LongSets;
 
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Map;
 import java.util.NavigableMap;
 
@@ -38,6 +39,7 @@ import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.internal.schema.IndexOrder;
 import org.neo4j.storageengine.api.txstate.LongDiffSets;
 import org.neo4j.storageengine.api.txstate.ReadableTransactionState;
+import org.neo4j.values.storable.PointValue;
 import org.neo4j.values.storable.TextValue;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueGroup;
@@ -99,6 +101,18 @@ class TxStateIndexChanges
         return indexUpdatesWithValuesScanAndFilter( txState, descriptor, query, indexOrder );
     }
 
+    // NEAREST NEIGHBOURS
+
+    static AddedWithValuesAndRemoved indexUpdatesWithValuesForNearestNeighbours( ReadableTransactionState txState,
+                                                                                IndexDescriptor descriptor,
+                                                                                IndexQuery.NearestNeighboursPredicate predicate )
+    {
+        AddedWithValuesAndRemoved changes = indexUpdatesWithValuesScanAndFilter( txState, descriptor, predicate, IndexOrder.NONE );
+        MutableList<NodeWithPropertyValues> added = Lists.mutable.withAll( changes.getAdded() );
+        added.sortThis( Comparator.comparingDouble( node -> predicate.distance( (PointValue) node.getValues()[0] ) ) );
+        return new AddedWithValuesAndRemoved( added, changes.getRemoved() );
+    }
+
     // SEEK
 
     static AddedAndRemoved indexUpdatesForSeek( ReadableTransactionState txState,
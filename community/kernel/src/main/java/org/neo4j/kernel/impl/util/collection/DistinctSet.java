@@ -63,6 +63,19 @@ public class DistinctSet<T extends Measurable> extends DefaultCloseListenable
         return wasAdded;
     }
 
+    public boolean contains( T element )
+    {
+        return distinctSet.contains( element );
+    }
+
+    /**
+     * @return the estimated heap usage of the set and all its elements.
+     */
+    public long estimatedHeapUsage()
+    {
+        return scopedMemoryTracker.estimatedHeapMemory();
+    }
+
     public void each( Procedure<? super T> procedure )
     {
         distinctSet.each( procedure );
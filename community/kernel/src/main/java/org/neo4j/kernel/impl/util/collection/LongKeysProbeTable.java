@@ -0,0 +1,377 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.util.collection;
+
+import org.eclipse.collections.impl.SpreadFunctions;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.neo4j.internal.kernel.api.DefaultCloseListenable;
+import org.neo4j.memory.Measurable;
+import org.neo4j.memory.MemoryTracker;
+
+import static java.util.Collections.emptyIterator;
+import static org.neo4j.kernel.impl.util.collection.LongProbeTable.SCOPED_MEMORY_TRACKER_SHALLOW_SIZE;
+import static org.neo4j.memory.HeapEstimator.shallowSizeOf;
+import static org.neo4j.memory.HeapEstimator.shallowSizeOfInstance;
+import static org.neo4j.memory.HeapEstimator.sizeOf;
+import static org.neo4j.util.Preconditions.checkArgument;
+
+/**
+ * A table used during hash joins on a fixed number of long keys, e.g. node ids.
+ * <p>
+ * Keys are kept in an open addressing table with linear probing, in a single primitive array, and the values of each key are chained
+ * through a primitive array of row indexes. Apart from the values themselves nothing is allocated per inserted value, and there is no
+ * key object at all. {@link #put(long, Measurable)} and {@link #put(long, long, Measurable)} are shortcuts for tables with one and two
+ * keys, which save the caller from filling in a key array. Values of a key are returned in the order they were inserted.
+ *
+ * @param <V> value type
+ */
+public class LongKeysProbeTable<V extends Measurable> extends DefaultCloseListenable
+{
+    private static final long SHALLOW_SIZE = shallowSizeOfInstance( LongKeysProbeTable.class );
+    private static final int DEFAULT_CAPACITY = 32;
+    private static final int DEFAULT_VALUES_CAPACITY = 16;
+    private static final double LOAD_FACTOR = 0.75;
+    private static final int NONE = -1;
+
+    private final MemoryTracker scopedMemoryTracker;
+    private final int keySize;
+
+    private int capacity;
+    private int size;
+    // keySize longs per slot
+    private long[] keys;
+    // first and last value index of each slot, or NONE for empty slots
+    private int[] heads;
+    private int[] tails;
+
+    private int numberOfValues;
+    private Object[] values;
+    // index of the next value with the same key, or NONE
+    private int[] next;
+
+    public static <V extends Measurable> LongKeysProbeTable<V> createLongKeysProbeTable( MemoryTracker memoryTracker, int keySize )
+    {
+        checkArgument( keySize > 0, "Key size must be positive, was %d", keySize );
+        MemoryTracker scopedMemoryTracker = memoryTracker.getScopedMemoryTracker();
+        scopedMemoryTracker.allocateHeap( SHALLOW_SIZE + SCOPED_MEMORY_TRACKER_SHALLOW_SIZE );
+        return new LongKeysProbeTable<>( scopedMemoryTracker, keySize );
+    }
+
+    private LongKeysProbeTable( MemoryTracker scopedMemoryTracker, int keySize )
+    {
+        this.scopedMemoryTracker = scopedMemoryTracker;
+        this.keySize = keySize;
+        allocateSlots( DEFAULT_CAPACITY );
+        this.values = new Object[DEFAULT_VALUES_CAPACITY];
+        this.next = new int[DEFAULT_VALUES_CAPACITY];
+        scopedMemoryTracker.allocateHeap( shallowSizeOf( values ) + sizeOf( next ) );
+    }
+
+    public int keySize()
+    {
+        return keySize;
+    }
+
+    public void put( long key, V value )
+    {
+        assert keySize == 1;
+        int slot = slotOf( key );
+        if ( heads[slot] == NONE )
+        {
+            keys[slot] = key;
+        }
+        add( slot, value );
+    }
+
+    public void put( long key1, long key2, V value )
+    {
+        assert keySize == 2;
+        int slot = slotOf( key1, key2 );
+        if ( heads[slot] == NONE )
+        {
+            keys[slot * 2] = key1;
+            keys[slot * 2 + 1] = key2;
+        }
+        add( slot, value );
+    }
+
+    /**
+     * @param key {@link #keySize()} longs, which are copied into the table so the array can be reused by the caller.
+     */
+    public void put( long[] key, V value )
+    {
+        assert key.length == keySize;
+        int slot = slotOf( key );
+        if ( heads[slot] == NONE )
+        {
+            System.arraycopy( key, 0, keys, slot * keySize, keySize );
+        }
+        add( slot, value );
+    }
+
+    public Iterator<V> get( long key )
+    {
+        assert keySize == 1;
+        return valuesOf( slotOf( key ) );
+    }
+
+    public Iterator<V> get( long key1, long key2 )
+    {
+        assert keySize == 2;
+        return valuesOf( slotOf( key1, key2 ) );
+    }
+
+    public Iterator<V> get( long[] key )
+    {
+        assert key.length == keySize;
+        return valuesOf( slotOf( key ) );
+    }
+
+    /**
+     * @return all values of the table, in the order they were inserted.
+     */
+    public Iterator<V> values()
+    {
+        return new Iterator<>()
+        {
+            private int index;
+
+            @Override
+            public boolean hasNext()
+            {
+                return index < numberOfValues;
+            }
+
+            @SuppressWarnings( "unchecked" )
+            @Override
+            public V next()
+            {
+                if ( !hasNext() )
+                {
+                    throw new NoSuchElementException();
+                }
+                return (V) values[index++];
+            }
+        };
+    }
+
+    public boolean isEmpty()
+    {
+        return numberOfValues == 0;
+    }
+
+    /**
+     * @return the estimated heap usage of the table, including the values in it.
+     */
+    public long estimatedHeapUsage()
+    {
+        return scopedMemoryTracker.estimatedHeapMemory();
+    }
+
+    @Override
+    public void closeInternal()
+    {
+        if ( keys != null )
+        {
+            keys = null;
+            heads = null;
+            tails = null;
+            values = null;
+            next = null;
+            scopedMemoryTracker.close();
+        }
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+        return keys == null;
+    }
+
+    private void add( int slot, V value )
+    {
+        if ( numberOfValues == values.length )
+        {
+            growValues();
+        }
+        int index = numberOfValues++;
+        values[index] = value;
+        next[index] = NONE;
+        scopedMemoryTracker.allocateHeap( value.estimatedHeapUsage() );
+
+        if ( heads[slot] == NONE )
+        {
+            heads[slot] = index;
+            tails[slot] = index;
+            if ( ++size > capacity * LOAD_FACTOR )
+            {
+                rehash( capacity * 2 );
+            }
+        }
+        else
+        {
+            next[tails[slot]] = index;
+            tails[slot] = index;
+        }
+    }
+
+    private Iterator<V> valuesOf( int slot )
+    {
+        int head = heads[slot];
+        if ( head == NONE )
+        {
+            return emptyIterator();
+        }
+        return new Iterator<>()
+        {
+            private int index = head;
+
+            @Override
+            public boolean hasNext()
+            {
+                return index != NONE;
+            }
+
+            @SuppressWarnings( "unchecked" )
+            @Override
+            public V next()
+            {
+                if ( !hasNext() )
+                {
+                    throw new NoSuchElementException();
+                }
+                V value = (V) values[index];
+                index = LongKeysProbeTable.this.next[index];
+                return value;
+            }
+        };
+    }
+
+    /**
+     * @return the slot of the key, or the empty slot where it should be inserted.
+     */
+    private int slotOf( long key )
+    {
+        int mask = capacity - 1;
+        int slot = hashToSlot( SpreadFunctions.longSpreadOne( key ) );
+        while ( heads[slot] != NONE && keys[slot] != key )
+        {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int slotOf( long key1, long key2 )
+    {
+        int mask = capacity - 1;
+        int slot = hashToSlot( SpreadFunctions.longSpreadOne( key1 ) * 31 + SpreadFunctions.longSpreadOne( key2 ) );
+        while ( heads[slot] != NONE && (keys[slot * 2] != key1 || keys[slot * 2 + 1] != key2) )
+        {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int slotOf( long[] key )
+    {
+        int mask = capacity - 1;
+        int slot = hashToSlot( hash( key, 0 ) );
+        while ( heads[slot] != NONE && !Arrays.equals( keys, slot * keySize, slot * keySize + keySize, key, 0, keySize ) )
+        {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Same hash as computed by the specialized {@code slotOf} methods for one and two keys.
+     */
+    private long hash( long[] array, int offset )
+    {
+        long hash = 0;
+        for ( int i = offset; i < offset + keySize; i++ )
+        {
+            hash = hash * 31 + SpreadFunctions.longSpreadOne( array[i] );
+        }
+        return hash;
+    }
+
+    private int hashToSlot( long hash )
+    {
+        return Long.hashCode( hash ) & (capacity - 1);
+    }
+
+    private void allocateSlots( int newCapacity )
+    {
+        capacity = newCapacity;
+        keys = new long[newCapacity * keySize];
+        heads = new int[newCapacity];
+        tails = new int[newCapacity];
+        Arrays.fill( heads, NONE );
+        scopedMemoryTracker.allocateHeap( sizeOf( keys ) + 2 * sizeOf( heads ) );
+    }
+
+    private void rehash( int newCapacity )
+    {
+        if ( newCapacity < capacity || (long) newCapacity * keySize > Integer.MAX_VALUE )
+        {
+            throw new RuntimeException( "Probe table reached capacity limit" );
+        }
+        long[] oldKeys = keys;
+        int[] oldHeads = heads;
+        int[] oldTails = tails;
+        int oldCapacity = capacity;
+        allocateSlots( newCapacity );
+
+        int mask = newCapacity - 1;
+        for ( int oldSlot = 0; oldSlot < oldCapacity; oldSlot++ )
+        {
+            if ( oldHeads[oldSlot] != NONE )
+            {
+                int slot = hashToSlot( hash( oldKeys, oldSlot * keySize ) );
+                while ( heads[slot] != NONE )
+                {
+                    slot = (slot + 1) & mask;
+                }
+                System.arraycopy( oldKeys, oldSlot * keySize, keys, slot * keySize, keySize );
+                heads[slot] = oldHeads[oldSlot];
+                tails[slot] = oldTails[oldSlot];
+            }
+        }
+        scopedMemoryTracker.releaseHeap( sizeOf( oldKeys ) + 2 * sizeOf( oldHeads ) );
+    }
+
+    private void growValues()
+    {
+        int newLength = values.length * 2;
+        if ( newLength < 0 )
+        {
+            throw new RuntimeException( "Probe table reached capacity limit" );
+        }
+        long oldSize = shallowSizeOf( values ) + sizeOf( next );
+        values = Arrays.copyOf( values, newLength );
+        next = Arrays.copyOf( next, newLength );
+        scopedMemoryTracker.allocateHeap( shallowSizeOf( values ) + sizeOf( next ) - oldSize );
+    }
+}
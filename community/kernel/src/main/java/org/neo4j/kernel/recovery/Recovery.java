@@ -327,7 +327,8 @@ public final class Recovery
                 new DynamicIndexStoreView( neoStoreIndexStoreView, labelScanStore, relationshipTypeScanStore, NO_LOCK_SERVICE, storageEngine::newReader,
                         logProvider, config );
         IndexStatisticsStore indexStatisticsStore =
-                new IndexStatisticsStore( databasePageCache, databaseLayout, recoveryCleanupCollector, false, tracers.getPageCacheTracer() );
+                new IndexStatisticsStore( databasePageCache, databaseLayout, fs, recoveryCleanupCollector, false, tracers.getPageCacheTracer(),
+                        memoryTracker );
         IndexingService indexingService = Database.buildIndexingService( storageEngine, schemaState, indexStoreView, indexStatisticsStore,
                 config, scheduler, indexProviderMap, tokenHolders, logProvider, logProvider, monitors.newMonitor( IndexingService.Monitor.class ),
                 tracers.getPageCacheTracer(), memoryTracker, databaseLayout.getDatabaseName(), false );
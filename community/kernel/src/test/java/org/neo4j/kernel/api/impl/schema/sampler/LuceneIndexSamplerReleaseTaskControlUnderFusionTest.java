@@ -47,6 +47,7 @@ import org.neo4j.kernel.impl.api.index.IndexSamplingConfig;
 import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
 import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingJob;
 import org.neo4j.kernel.impl.api.index.sampling.OnlineIndexSamplingJobFactory;
+import org.neo4j.kernel.impl.api.index.stats.IndexStatisticsStore;
 import org.neo4j.kernel.impl.index.schema.fusion.FusionIndexProvider;
 import org.neo4j.kernel.impl.index.schema.fusion.SlotSelector;
 import org.neo4j.storageengine.api.IndexEntryUpdate;
@@ -56,6 +57,7 @@ import org.neo4j.test.rule.TestDirectory;
 import org.neo4j.values.storable.Values;
 
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
 import static org.neo4j.internal.schema.SchemaDescriptor.forLabel;
 import static org.neo4j.kernel.api.index.IndexDirectoryStructure.directoriesByProvider;
 import static org.neo4j.kernel.api.schema.SchemaTestUtil.SIMPLE_NAME_LOOKUP;
@@ -158,8 +160,8 @@ class LuceneIndexSamplerReleaseTaskControlUnderFusionTest
                 return fusionAccessor.newReader();
             }
         };
-        OnlineIndexSamplingJobFactory onlineIndexSamplingJobFactory = new OnlineIndexSamplingJobFactory( null, SIMPLE_NAME_LOOKUP, getInstance(),
-                PageCacheTracer.NULL );
+        OnlineIndexSamplingJobFactory onlineIndexSamplingJobFactory = new OnlineIndexSamplingJobFactory( mock( IndexStatisticsStore.class ),
+                samplingConfig, SIMPLE_NAME_LOOKUP, getInstance(), PageCacheTracer.NULL );
         return onlineIndexSamplingJobFactory.create( 1, indexProxy );
     }
 
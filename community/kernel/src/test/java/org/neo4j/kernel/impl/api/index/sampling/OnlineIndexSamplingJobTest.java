@@ -30,13 +30,21 @@ import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.api.index.IndexReader;
 import org.neo4j.kernel.api.index.IndexSample;
 import org.neo4j.kernel.api.index.IndexSampler;
+import org.neo4j.kernel.api.index.IndexSketch;
 import org.neo4j.kernel.impl.api.index.IndexProxy;
+import org.neo4j.kernel.impl.api.index.IndexSamplingConfig;
 import org.neo4j.kernel.impl.api.index.stats.IndexStatisticsStore;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.logging.NullLogProvider;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -59,6 +67,8 @@ class OnlineIndexSamplingJobTest
     private final long indexUniqueValues = 21L;
     private final long indexSize = 23L;
     private final IndexSample sample = new IndexSample( indexSize, indexUniqueValues, indexSize );
+    private final IndexSamplingConfig samplingConfig = new IndexSamplingConfig( 8, 0.1, true );
+    private final IndexSamplingConfig incrementalSamplingConfig = new IndexSamplingConfig( 8, 0.1, true, true );
 
     @BeforeEach
     void setup() throws IndexNotFoundKernelException
@@ -73,7 +83,8 @@ class OnlineIndexSamplingJobTest
     void shouldSampleTheIndexAndStoreTheValueWhenTheIndexIsOnline()
     {
         // given
-        OnlineIndexSamplingJob job = new OnlineIndexSamplingJob( indexId, indexProxy, indexStatisticsStore, "Foo", "Foo", logProvider, NULL );
+        OnlineIndexSamplingJob job = new OnlineIndexSamplingJob( indexId, indexProxy, indexStatisticsStore, samplingConfig, "Foo", "Foo", logProvider,
+                NULL );
         when( indexProxy.getState() ).thenReturn( ONLINE );
 
         // when
@@ -88,7 +99,8 @@ class OnlineIndexSamplingJobTest
     void shouldSampleTheIndexButDoNotStoreTheValuesIfTheIndexIsNotOnline()
     {
         // given
-        OnlineIndexSamplingJob job = new OnlineIndexSamplingJob( indexId, indexProxy, indexStatisticsStore, "Foo", "Foo", logProvider, NULL );
+        OnlineIndexSamplingJob job = new OnlineIndexSamplingJob( indexId, indexProxy, indexStatisticsStore, samplingConfig, "Foo", "Foo", logProvider,
+                NULL );
         when( indexProxy.getState() ).thenReturn( FAILED );
 
         // when
@@ -105,7 +117,8 @@ class OnlineIndexSamplingJobTest
         var pageCursorTracer = mock( PageCursorTracer.class );
         when( pageCacheTracer.createPageCursorTracer( any() ) ).thenReturn( pageCursorTracer );
 
-        OnlineIndexSamplingJob job = new OnlineIndexSamplingJob( indexId, indexProxy, indexStatisticsStore, "Foo", "Foo", logProvider, pageCacheTracer );
+        OnlineIndexSamplingJob job = new OnlineIndexSamplingJob( indexId, indexProxy, indexStatisticsStore, samplingConfig, "Foo", "Foo", logProvider,
+                pageCacheTracer );
         when( indexProxy.getState() ).thenReturn( ONLINE );
 
         // when
@@ -113,4 +126,74 @@ class OnlineIndexSamplingJobTest
 
         verify( indexSampler ).sampleIndex( pageCursorTracer );
     }
+
+    @Test
+    void shouldKeepSketchOfFullSampleWhenSamplingIncrementally() throws IndexNotFoundKernelException
+    {
+        // given
+        IndexSketch sketch = new IndexSketch( 1 );
+        IndexSample sampleWithSketch = new IndexSample( indexSize, indexUniqueValues, indexSize, 0, sample.histogram(), sketch );
+        when( indexSampler.sampleIndex( any() ) ).thenReturn( sampleWithSketch );
+        OnlineIndexSamplingJob job = new OnlineIndexSamplingJob( indexId, indexProxy, indexStatisticsStore, incrementalSamplingConfig, "Foo", "Foo",
+                logProvider, NULL );
+        when( indexProxy.getState() ).thenReturn( ONLINE );
+
+        // when
+        job.run();
+
+        // then
+        verify( indexStatisticsStore ).sketch( indexId );
+        verify( indexStatisticsStore ).replaceStats( indexId, sampleWithSketch );
+        verify( indexStatisticsStore ).replaceSketch( indexId, sketch );
+        verifyNoMoreInteractions( indexStatisticsStore );
+    }
+
+    @Test
+    void shouldSampleFromSketchWithoutReadingTheIndex() throws IndexNotFoundKernelException
+    {
+        // given
+        IndexSketch sketch = new IndexSketch( 1 );
+        for ( int i = 0; i < 100; i++ )
+        {
+            sketch.add( new Value[]{Values.intValue( i % 10 )}, 1 );
+        }
+        sketch.remove( new Value[]{Values.intValue( 0 )} );
+        when( indexStatisticsStore.sketch( indexId ) ).thenReturn( sketch );
+        OnlineIndexSamplingJob job = new OnlineIndexSamplingJob( indexId, indexProxy, indexStatisticsStore, incrementalSamplingConfig, "Foo", "Foo",
+                logProvider, NULL );
+        when( indexProxy.getState() ).thenReturn( ONLINE );
+
+        // when
+        job.run();
+
+        // then
+        verify( indexStatisticsStore ).replaceStats( eq( indexId ), argThat( indexSample -> indexSample.indexSize() == 99 && indexSample.uniqueValues() == 10 ) );
+        verify( indexProxy, never() ).newReader();
+    }
+
+    @Test
+    void shouldScanTheIndexWhenTooManyEntriesHaveBeenRemovedSinceTheLastScan() throws IndexNotFoundKernelException
+    {
+        // given
+        IndexSketch sketch = new IndexSketch( 1 );
+        for ( int i = 0; i < 100; i++ )
+        {
+            sketch.add( new Value[]{Values.intValue( i )}, 1 );
+        }
+        for ( int i = 0; i < 20; i++ )
+        {
+            sketch.remove( new Value[]{Values.intValue( i )} );
+        }
+        when( indexStatisticsStore.sketch( indexId ) ).thenReturn( sketch );
+        OnlineIndexSamplingJob job = new OnlineIndexSamplingJob( indexId, indexProxy, indexStatisticsStore, incrementalSamplingConfig, "Foo", "Foo",
+                logProvider, NULL );
+        when( indexProxy.getState() ).thenReturn( ONLINE );
+
+        // when
+        job.run();
+
+        // then
+        verify( indexStatisticsStore ).replaceStats( indexId, sample );
+        assertEquals( 20, sketch.removedEntries() );
+    }
 }
@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.impl.api.index.stats;
 
+import org.eclipse.collections.api.factory.Sets;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -28,10 +29,14 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicIntegerArray;
 
+import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.TreeFileNotFoundException;
+import org.neo4j.index.internal.gbptree.TreeNodeDynamicSize;
+import org.neo4j.index.internal.gbptree.Writer;
 import org.neo4j.internal.helpers.Exceptions;
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.fs.FileSystemAbstraction;
@@ -42,22 +47,30 @@ import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.api.index.IndexSketch;
+import org.neo4j.kernel.api.index.IndexValueHistogram;
+import org.neo4j.kernel.api.index.IndexValueHistogramBuilder;
 import org.neo4j.kernel.lifecycle.LifeSupport;
+import org.neo4j.memory.LocalMemoryTracker;
 import org.neo4j.test.Race;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.RandomExtension;
 import org.neo4j.test.extension.pagecache.EphemeralPageCacheExtension;
 import org.neo4j.test.rule.RandomRule;
 import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.neo4j.annotations.documented.ReporterFactories.noopReporterFactory;
 import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
 import static org.neo4j.io.pagecache.IOLimiter.UNLIMITED;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
 import static org.neo4j.test.Race.throwing;
 
 @EphemeralPageCacheExtension
@@ -93,7 +106,8 @@ class IndexStatisticsStoreTest
 
     private IndexStatisticsStore openStore( PageCacheTracer pageCacheTracer, String fileName )
     {
-        var statisticsStore = new IndexStatisticsStore( pageCache, testDirectory.filePath( fileName ), immediate(), false, pageCacheTracer );
+        var statisticsStore =
+                new IndexStatisticsStore( pageCache, testDirectory.filePath( fileName ), fs, immediate(), false, pageCacheTracer, INSTANCE );
         return lifeSupport.add( statisticsStore );
     }
 
@@ -112,9 +126,9 @@ class IndexStatisticsStoreTest
             store.checkpoint( UNLIMITED, PageCursorTracer.NULL );
             store.consistencyCheck( noopReporterFactory(), cursorTracer );
 
-            assertThat( cursorTracer.pins() ).isEqualTo( 16 );
-            assertThat( cursorTracer.unpins() ).isEqualTo( 16 );
-            assertThat( cursorTracer.hits() ).isEqualTo( 16 );
+            assertThat( cursorTracer.pins() ).isEqualTo( 6 );
+            assertThat( cursorTracer.unpins() ).isEqualTo( 6 );
+            assertThat( cursorTracer.hits() ).isEqualTo( 6 );
         }
     }
 
@@ -151,10 +165,10 @@ class IndexStatisticsStoreTest
             }
 
             store.checkpoint( UNLIMITED, cursorTracer );
-            assertThat( cursorTracer.pins() ).isEqualTo( 43 );
-            assertThat( cursorTracer.unpins() ).isEqualTo( 43 );
-            assertThat( cursorTracer.hits() ).isEqualTo( 35 );
-            assertThat( cursorTracer.faults() ).isEqualTo( 8 );
+            assertThat( cursorTracer.pins() ).isEqualTo( 18 );
+            assertThat( cursorTracer.unpins() ).isEqualTo( 18 );
+            assertThat( cursorTracer.hits() ).isEqualTo( 15 );
+            assertThat( cursorTracer.faults() ).isEqualTo( 3 );
         }
     }
 
@@ -205,6 +219,114 @@ class IndexStatisticsStoreTest
         assertEquals( sample2, store.indexSample( indexId2 ) );
     }
 
+    @Test
+    void shouldStoreHistogramsOnCheckpoint() throws IOException
+    {
+        // given
+        IndexValueHistogramBuilder builder = new IndexValueHistogramBuilder( 4, 2 );
+        for ( int i = 0; i < 100; i++ )
+        {
+            builder.add( Values.intValue( i ), i % 10 == 0 ? 5 : 1 );
+        }
+        builder.add( Values.stringValue( "a" ), 3 );
+        builder.add( Values.stringValue( "b".repeat( 100 ) ), 1 );
+        IndexValueHistogram histogram = builder.build();
+        store.replaceStats( 1, new IndexSample( 144, 102, 144, 0, histogram ) );
+
+        // when
+        restartStore();
+
+        // then
+        assertEquals( histogram, store.indexSample( 1 ).histogram() );
+    }
+
+    @Test
+    void shouldTrimHistogramsThatDoNotFitInTree() throws IOException
+    {
+        // given the largest histogram there can be, with text values of 64 code points taking three bytes each in UTF-8
+        Value[] upperBounds = new Value[IndexValueHistogram.MAX_BUCKETS];
+        long[] counts = new long[upperBounds.length];
+        for ( int i = 0; i < upperBounds.length; i++ )
+        {
+            upperBounds[i] = longText( 2 * i + 1 );
+            counts[i] = 10;
+        }
+        Value[] frequentValues = new Value[IndexValueHistogram.MAX_FREQUENT_VALUES];
+        long[] frequentCounts = new long[frequentValues.length];
+        for ( int i = 0; i < frequentValues.length; i++ )
+        {
+            frequentValues[i] = longText( 4 * i );
+            frequentCounts[i] = 100 + i;
+        }
+        long entries = Arrays.stream( counts ).sum() + Arrays.stream( frequentCounts ).sum();
+        IndexValueHistogram histogram = new IndexValueHistogram( entries,
+                new IndexValueHistogram.Histogram[]{new IndexValueHistogram.Histogram( longText( 0 ), upperBounds, counts )},
+                frequentValues, frequentCounts );
+        IndexStatisticsLayout layout = new IndexStatisticsLayout();
+        int maxValueSize = TreeNodeDynamicSize.keyValueSizeCapFromPageSize( pageCache.pageSize() ) - IndexStatisticsKey.SIZE;
+        assertThat( layout.valueSize( new IndexStatisticsValue( 0, 0, 0, 0, histogram ) ) ).isGreaterThan( maxValueSize );
+
+        // when
+        store.replaceStats( 1, new IndexSample( entries, 64, entries, 0, histogram ) );
+        IndexValueHistogram trimmed = store.indexSample( 1 ).histogram();
+        restartStore();
+
+        // then
+        assertEquals( trimmed, store.indexSample( 1 ).histogram() );
+        assertThat( layout.valueSize( new IndexStatisticsValue( 0, 0, 0, 0, trimmed ) ) ).isLessThanOrEqualTo( maxValueSize );
+        assertEquals( entries, trimmed.entries() );
+        assertThat( trimmed.frequentValues() ).contains( frequentValues[frequentValues.length - 1] );
+        long counted = Arrays.stream( trimmed.frequentCounts() ).sum();
+        for ( IndexValueHistogram.Histogram group : trimmed.histograms() )
+        {
+            counted += Arrays.stream( group.counts() ).sum();
+        }
+        assertEquals( entries, counted );
+    }
+
+    private static Value longText( int i )
+    {
+        return Values.stringValue( "\u4e00".repeat( IndexValueHistogram.MAX_TEXT_LENGTH - 1 ) + (char) ('\u4e00' + i) );
+    }
+
+    @Test
+    void shouldUpgradeStoreWithoutHistograms() throws IOException
+    {
+        // given
+        Path file = testDirectory.filePath( "legacy" );
+        try ( GBPTree<IndexStatisticsKey,IndexStatisticsValue> tree = new GBPTree<>( pageCache, file, IndexStatisticsLayout.legacyLayout(),
+                GBPTree.NO_MONITOR, GBPTree.NO_HEADER_READER, GBPTree.NO_HEADER_WRITER, immediate(), false, PageCacheTracer.NULL,
+                Sets.immutable.empty(), "Legacy statistics store" ) )
+        {
+            try ( Writer<IndexStatisticsKey,IndexStatisticsValue> writer = tree.writer( PageCursorTracer.NULL ) )
+            {
+                writer.put( new IndexStatisticsKey( 1 ), new IndexStatisticsValue( 100, 200, 25, 500, IndexValueHistogram.EMPTY ) );
+            }
+            tree.checkpoint( UNLIMITED, PageCursorTracer.NULL );
+        }
+        // Left behind by an earlier upgrade that crashed
+        Path upgradeFile = testDirectory.filePath( "legacy.upgrade" );
+        try ( StoreChannel channel = fs.write( upgradeFile ) )
+        {
+            channel.writeAll( ByteBuffer.wrap( new byte[]{1, 2, 3} ) );
+        }
+
+        // when
+        IndexStatisticsStore legacyStore = new IndexStatisticsStore( pageCache, file, fs, immediate(), false, PageCacheTracer.NULL, INSTANCE );
+        legacyStore.init();
+        IndexSample legacySample = legacyStore.indexSample( 1 );
+        legacyStore.shutdown();
+        IndexStatisticsStore upgradedStore = new IndexStatisticsStore( pageCache, file, fs, immediate(), true, PageCacheTracer.NULL, INSTANCE );
+        upgradedStore.init();
+        IndexSample upgradedSample = upgradedStore.indexSample( 1 );
+        upgradedStore.shutdown();
+
+        // then
+        assertEquals( new IndexSample( 500, 100, 200, 25 ), legacySample );
+        assertEquals( new IndexSample( 500, 100, 200, 25 ), upgradedSample );
+        assertFalse( fs.fileExists( upgradeFile ) );
+    }
+
     private void restartStore() throws IOException
     {
         store.checkpoint( UNLIMITED, PageCursorTracer.NULL );
@@ -280,11 +402,41 @@ class IndexStatisticsStoreTest
         }
     }
 
+    @Test
+    void shouldTrackHeapOfSketchesUntilReplacedOrRemoved() throws IOException
+    {
+        // given
+        LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+        IndexStatisticsStore trackingStore =
+                new IndexStatisticsStore( pageCache, testDirectory.filePath( "tracking" ), fs, immediate(), false, PageCacheTracer.NULL, memoryTracker );
+        trackingStore.init();
+        IndexSketch first = new IndexSketch( 1 );
+        IndexSketch second = new IndexSketch( 1 );
+        first.add( new Value[]{Values.stringValue( "a" )}, 10 );
+
+        // when
+        trackingStore.replaceSketch( 1, first );
+        // then
+        assertEquals( first.estimatedHeapUsage(), memoryTracker.estimatedHeapMemory() );
+
+        // when
+        trackingStore.replaceSketch( 1, second );
+        // then
+        assertEquals( second.estimatedHeapUsage(), memoryTracker.estimatedHeapMemory() );
+
+        // when
+        trackingStore.removeIndex( 1 );
+        trackingStore.shutdown();
+        // then
+        assertEquals( 0, memoryTracker.estimatedHeapMemory() );
+    }
+
     @Test
     void shouldNotStartWithoutFileIfReadOnly()
     {
         final IndexStatisticsStore indexStatisticsStore =
-                new IndexStatisticsStore( pageCache, testDirectory.filePath( "non-existing" ), immediate(), true, PageCacheTracer.NULL );
+                new IndexStatisticsStore( pageCache, testDirectory.filePath( "non-existing" ), fs, immediate(), true, PageCacheTracer.NULL,
+                        INSTANCE );
         final Exception e = assertThrows( Exception.class, indexStatisticsStore::init );
         assertTrue( Exceptions.contains( e, t -> t instanceof NoSuchFileException ) );
         assertTrue( Exceptions.contains( e, t -> t instanceof TreeFileNotFoundException ) );
@@ -297,12 +449,12 @@ class IndexStatisticsStoreTest
         final Path file = testDirectory.filePath( "existing" );
 
         // Create store
-        IndexStatisticsStore store = new IndexStatisticsStore( pageCache, file, immediate(), false, PageCacheTracer.NULL );
+        IndexStatisticsStore store = new IndexStatisticsStore( pageCache, file, fs, immediate(), false, PageCacheTracer.NULL, INSTANCE );
         randomActions( store, 1000 );
         byte[] data = readAll( file );
 
         // Start in readOnly mode
-        IndexStatisticsStore readOnlyStore = new IndexStatisticsStore( pageCache, file, immediate(), true, PageCacheTracer.NULL );
+        IndexStatisticsStore readOnlyStore = new IndexStatisticsStore( pageCache, file, fs, immediate(), true, PageCacheTracer.NULL, INSTANCE );
         randomActions( readOnlyStore, 10000 );
 
         assertArrayEquals( data, readAll( file ) );
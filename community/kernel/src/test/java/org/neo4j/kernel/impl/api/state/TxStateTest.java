@@ -34,7 +34,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.NavigableMap;
@@ -79,6 +78,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.Mockito.spy;
@@ -365,6 +365,29 @@ abstract class TxStateTest
         }
     }
 
+    @Test
+    void shouldKeepSortedIndexUpdatesInSyncWithLaterUpdates()
+    {
+        // GIVEN
+        addNodesToIndex( indexOn_1_1 ).withDefaultStringProperties( 42L );
+        addNodesToIndex( indexOn_1_1 ).withDefaultStringProperties( 43L );
+        NavigableMap<ValueTuple,? extends LongDiffSets> diffSets = state.getSortedIndexUpdates( indexOn_1_1.schema() );
+
+        // WHEN
+        addNodesToIndex( indexOn_1_1 ).withDefaultStringProperties( 41L );
+        addNodesToIndex( indexOn_1_1 ).withDefaultStringProperties( 44L );
+
+        // THEN
+        TreeMap<ValueTuple,LongDiffSets> expected = sortedAddedNodesDiffSets( 42, 41, 43, 44 );
+        assertSame( diffSets, state.getSortedIndexUpdates( indexOn_1_1.schema() ) );
+        assertEquals( expected.keySet(), diffSets.keySet() );
+        for ( final ValueTuple key : expected.keySet() )
+        {
+            assertEqualDiffSets( expected.get( key ), diffSets.get( key ) );
+            assertSame( diffSets.get( key ), state.getIndexUpdates( indexOn_1_1.schema() ).get( key ) );
+        }
+    }
+
     @Test
     void shouldAddAndGetByLabel()
     {
@@ -1050,7 +1073,7 @@ abstract class TxStateTest
     @Test
     void getOrCreateIndexUpdatesForSeek_useCollectionsFactory()
     {
-        final MutableLongDiffSets diffSets = state.getOrCreateIndexUpdatesForSeek( new HashMap<>(), ValueTuple.of( stringValue( "test" ) ) );
+        final MutableLongDiffSets diffSets = state.getOrCreateIndexUpdatesForSeek( new IndexUpdates( memoryTracker ), ValueTuple.of( stringValue( "test" ) ) );
         diffSets.add( 1 );
         diffSets.remove( 2 );
         verify( collectionsFactory, times( 2 ) ).newLongSet( memoryTracker );
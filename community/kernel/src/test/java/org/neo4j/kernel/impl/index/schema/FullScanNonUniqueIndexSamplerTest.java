@@ -31,11 +31,13 @@ import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.api.index.IndexValueHistogram;
 import org.neo4j.kernel.impl.index.schema.config.IndexSpecificSpaceFillingCurveSettings;
 import org.neo4j.values.storable.NumberValue;
 import org.neo4j.values.storable.RandomValues;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueType;
+import org.neo4j.values.storable.Values;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -73,6 +75,57 @@ public class FullScanNonUniqueIndexSamplerTest extends NativeIndexTestUtil<Gener
         assertEquals( values.length, sample.indexSize() );
     }
 
+    @Test
+    void shouldBuildHistogramOfValuesInTree() throws Exception
+    {
+        // GIVEN
+        Value[] values = new Value[1000];
+        for ( int i = 0; i < values.length; i++ )
+        {
+            // Every fourth entry has the value 0, the rest are spread evenly over 1..750
+            values[i] = Values.intValue( i % 4 == 0 ? 0 : i - i / 4 );
+        }
+        buildTree( values );
+
+        // WHEN
+        IndexSample sample;
+        try ( GBPTree<GenericKey,NativeIndexValue> gbpTree = getTree() )
+        {
+            FullScanNonUniqueIndexSampler<GenericKey,NativeIndexValue> sampler = new FullScanNonUniqueIndexSampler<>( gbpTree, layout );
+            sample = sampler.sample( NULL );
+        }
+
+        // THEN
+        IndexValueHistogram histogram = sample.histogram();
+        assertEquals( values.length, histogram.entries() );
+        assertEquals( 0.25, histogram.equalityFraction( Values.intValue( 0 ), sample.uniqueValues() ), 0.0001 );
+        assertEquals( 0.75, histogram.rangeFraction( Values.intValue( 0 ), false, null, false ), 0.05 );
+        assertEquals( 0.375, histogram.rangeFraction( Values.intValue( 0 ), false, Values.intValue( 375 ), true ), 0.05 );
+        assertEquals( 1.0 / values.length, histogram.equalityFraction( Values.intValue( 17 ), sample.uniqueValues() ), 0.0001 );
+    }
+
+    @Test
+    void shouldSeedSketchWithValuesInTree() throws Exception
+    {
+        // GIVEN
+        Value[] values = generateNumberValues();
+        buildTree( values );
+
+        // WHEN
+        IndexSample sample;
+        try ( GBPTree<GenericKey,NativeIndexValue> gbpTree = getTree() )
+        {
+            FullScanNonUniqueIndexSampler<GenericKey,NativeIndexValue> sampler = new FullScanNonUniqueIndexSampler<>( gbpTree, layout );
+            sample = sampler.sample( NULL );
+        }
+
+        // THEN
+        IndexSample sketchSample = sample.sketch().sample();
+        assertEquals( sample.indexSize(), sketchSample.indexSize() );
+        assertEquals( sample.uniqueValues(), sketchSample.uniqueValues(), sample.uniqueValues() * 0.05 );
+        assertEquals( sample.indexSize(), sketchSample.histogram().entries() );
+    }
+
     @Test
     void tracePageCacheAccessOnSampling() throws IOException
     {
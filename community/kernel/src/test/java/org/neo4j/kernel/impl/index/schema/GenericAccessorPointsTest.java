@@ -43,6 +43,7 @@ import org.neo4j.kernel.api.index.IndexReader;
 import org.neo4j.kernel.api.schema.index.TestIndexDescriptorFactory;
 import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
 import org.neo4j.kernel.impl.index.schema.config.IndexSpecificSpaceFillingCurveSettings;
+import org.neo4j.memory.LocalMemoryTracker;
 import org.neo4j.storageengine.api.IndexEntryUpdate;
 import org.neo4j.storageengine.api.schema.SimpleNodeValueClient;
 import org.neo4j.test.extension.Inject;
@@ -56,11 +57,14 @@ import org.neo4j.values.storable.PointValue;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unorderedValues;
 import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 import static org.neo4j.kernel.impl.index.schema.GenericNativeIndexProvider.DESCRIPTOR;
 import static org.neo4j.values.storable.CoordinateReferenceSystem.WGS84;
 
@@ -214,6 +218,93 @@ class GenericAccessorPointsTest
         assertEquals( derivedValueForCenterPoint, derivedValueForFaultyCoords, "expected same derived value" );
     }
 
+    @Test
+    void shouldFindNearestNeighboursInDistanceOrder() throws IndexEntryConflictException, IndexNotApplicableKernelException
+    {
+        // given
+        List<IndexEntryUpdate<?>> updates = new ArrayList<>();
+        List<PointValue> points = new ArrayList<>();
+        for ( int i = 0; i < 1000; i++ )
+        {
+            CoordinateReferenceSystem pointCrs = i % 2 == 0 ? WGS84 : CoordinateReferenceSystem.Cartesian;
+            PointValue point = pointCrs == WGS84 ? Values.pointValue( WGS84, random.nextDouble() * 360 - 180, random.nextDouble() * 180 - 90 )
+                                                 : Values.pointValue( pointCrs, random.nextDouble() * 2000 - 1000, random.nextDouble() * 2000 - 1000 );
+            points.add( point );
+            updates.add( IndexEntryUpdate.add( i, descriptor, point ) );
+        }
+        processAll( updates );
+
+        for ( CoordinateReferenceSystem queryCrs : new CoordinateReferenceSystem[]{WGS84, CoordinateReferenceSystem.Cartesian} )
+        {
+            PointValue origin = queryCrs == WGS84 ? Values.pointValue( WGS84, 12.5, 56.0 ) : Values.pointValue( queryCrs, 10.0, -20.0 );
+            IndexQuery.NearestNeighboursPredicate nearestNeighbours = IndexQuery.nearestNeighbours( descriptor.schema().getPropertyId(), origin );
+            List<Double> expectedDistances = new ArrayList<>();
+            for ( PointValue point : points )
+            {
+                if ( point.getCoordinateReferenceSystem().equals( queryCrs ) )
+                {
+                    expectedDistances.add( nearestNeighbours.distance( point ) );
+                }
+            }
+            expectedDistances.sort( Double::compare );
+
+            // when
+            List<Double> distances = new ArrayList<>();
+            try ( IndexReader indexReader = accessor.newReader() )
+            {
+                SimpleNodeValueClient client = new SimpleNodeValueClient();
+                indexReader.query( QueryContext.NULL_CONTEXT, client, unorderedValues(), nearestNeighbours );
+                while ( client.next() )
+                {
+                    PointValue point = (PointValue) client.values[0];
+                    assertEquals( points.get( (int) client.reference ), point );
+                    distances.add( nearestNeighbours.distance( point ) );
+                }
+            }
+
+            // then
+            assertEquals( expectedDistances, distances );
+        }
+    }
+
+    @Test
+    void shouldOnlyKeepOneRingOfNearestNeighboursInMemory() throws IndexEntryConflictException, IndexNotApplicableKernelException
+    {
+        // given
+        // One point at each distance from 1 to 1000 from the origin, so no ring of the search holds more than half of them
+        int nbrOfValues = 1000;
+        List<IndexEntryUpdate<?>> updates = new ArrayList<>();
+        for ( int i = 1; i <= nbrOfValues; i++ )
+        {
+            updates.add( IndexEntryUpdate.add( i, descriptor, Values.pointValue( CoordinateReferenceSystem.Cartesian, 10.0 + i, -20.0 ) ) );
+        }
+        processAll( updates );
+        PointValue origin = Values.pointValue( CoordinateReferenceSystem.Cartesian, 10.0, -20.0 );
+        LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+        QueryContext context = mock( QueryContext.class );
+        when( context.cursorTracer() ).thenReturn( NULL );
+        when( context.memoryTracker() ).thenReturn( memoryTracker );
+
+        // when
+        int found = 0;
+        try ( IndexReader indexReader = accessor.newReader() )
+        {
+            SimpleNodeValueClient client = new SimpleNodeValueClient();
+            indexReader.query( context, client, unorderedValues(), IndexQuery.nearestNeighbours( descriptor.schema().getPropertyId(), origin ) );
+            while ( client.next() )
+            {
+                found++;
+                assertEquals( found, client.reference );
+            }
+        }
+
+        // then
+        long candidateSize = new NearestNeighbourIndexProgressor.Candidate( 0, 0, origin ).estimatedHeapUsage();
+        assertEquals( nbrOfValues, found );
+        assertThat( memoryTracker.heapHighWaterMark() ).isGreaterThan( 0 ).isLessThanOrEqualTo( candidateSize * nbrOfValues / 2 );
+        assertEquals( 0, memoryTracker.estimatedHeapMemory() );
+    }
+
     private long addPointsToLists( List<Value> pointValues, List<IndexEntryUpdate<?>> updates, long nodeId, PointValue... values )
     {
         for ( PointValue value : values )
@@ -34,6 +34,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -824,6 +825,62 @@ abstract class NativeIndexAccessorTests<KEY extends NativeIndexKey<KEY>, VALUE e
         assertEquals( i, expectedValues.length, "found all values" );
     }
 
+    @Test
+    void shouldReturnOneEntryPerValueForDistinctQuery() throws Exception
+    {
+        // given
+        int nValues = 1000;
+        Iterator<IndexEntryUpdate<IndexDescriptor>> randomUpdateGenerator =
+                valueCreatorUtil.randomUpdateGenerator( random, supportedTypesExcludingNonOrderable() );
+        List<IndexEntryUpdate<IndexDescriptor>> updates = new ArrayList<>();
+        for ( int i = 0; i < nValues; i++ )
+        {
+            Value[] values = randomUpdateGenerator.next().values();
+            for ( int duplicate = 0; duplicate < 3; duplicate++ )
+            {
+                updates.add( IndexEntryUpdate.add( updates.size(), indexDescriptor, values ) );
+            }
+        }
+        //noinspection unchecked
+        processAll( updates.toArray( new IndexEntryUpdate[0] ) );
+        ValueGroup valueGroup = random.among( updates ).values()[0].valueGroup();
+        Value[] expectedValues = updates.stream()
+                .map( update -> update.values()[0] )
+                .filter( value -> value.valueGroup() == valueGroup )
+                .collect( Collectors.toCollection( () -> new TreeSet<>( Values.COMPARATOR ) ) )
+                .toArray( new Value[0] );
+
+        // when
+        try ( IndexReader reader = accessor.newReader() )
+        {
+            IndexOrderCapability supportedOrders = indexCapability().orderCapability( valueGroup.category() );
+            if ( supportedOrders.supportsAsc() )
+            {
+                // then
+                expectDistinctValues( expectedValues, reader, IndexOrder.ASCENDING, IndexQuery.range( 0, valueGroup ) );
+            }
+            if ( supportedOrders.supportsDesc() )
+            {
+                // then
+                Collections.reverse( Arrays.asList( expectedValues ) );
+                expectDistinctValues( expectedValues, reader, IndexOrder.DESCENDING, IndexQuery.range( 0, valueGroup ) );
+            }
+        }
+    }
+
+    private static void expectDistinctValues( Value[] expectedValues, IndexReader reader, IndexOrder order, IndexQuery.RangePredicate<?> query )
+            throws IndexNotApplicableKernelException
+    {
+        SimpleNodeValueClient client = new SimpleNodeValueClient();
+        reader.query( NULL_CONTEXT, client, constrained( order, true ).distinct(), query );
+        int i = 0;
+        while ( client.next() )
+        {
+            assertEquals( 0, Values.COMPARATOR.compare( expectedValues[i++], client.values[0] ), "distinct values in order" );
+        }
+        assertEquals( expectedValues.length, i, "found each value once" );
+    }
+
     @Test
     void throwForUnsupportedIndexOrder()
     {
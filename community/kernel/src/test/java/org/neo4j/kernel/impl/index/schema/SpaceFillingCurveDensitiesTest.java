@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.gis.spatial.index.curves.DensityAwareConfiguration;
+import org.neo4j.gis.spatial.index.curves.SpaceFillingCurveDensity;
+import org.neo4j.gis.spatial.index.curves.StandardConfiguration;
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.impl.index.schema.config.IndexSpecificSpaceFillingCurveSettings;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.values.storable.CoordinateReferenceSystem.Cartesian;
+import static org.neo4j.values.storable.CoordinateReferenceSystem.WGS84;
+
+class SpaceFillingCurveDensitiesTest
+{
+    private static final IndexSpecificSpaceFillingCurveSettings settings = IndexSpecificSpaceFillingCurveSettings.fromConfig( Config.defaults() );
+    private static final StandardConfiguration configuration = new StandardConfiguration();
+
+    @Test
+    void shouldReadBackDensitiesWrittenToHeader()
+    {
+        // given
+        SpaceFillingCurveDensities densities = new SpaceFillingCurveDensities( settings, configuration );
+        densities.add( new Value[]{Values.pointValue( WGS84, 12.9, 55.6 )}, 300 );
+        densities.add( new Value[]{Values.pointValue( WGS84, -0.1, 51.5 )}, 100 );
+        densities.add( new Value[]{Values.pointValue( Cartesian, 1, 2 ), Values.stringValue( "not a point" )}, 1 );
+
+        // when
+        SpaceFillingCurveDensities read = writeAndRead( densities, 8192 );
+
+        // then
+        SpaceFillingCurveDensity expected = densities.densityFor( WGS84 );
+        SpaceFillingCurveDensity actual = read.densityFor( WGS84 );
+        assertEquals( expected.getLevel(), actual.getLevel() );
+        assertEquals( 400, actual.total() );
+        for ( int tile = 0; tile < expected.numberOfTiles(); tile++ )
+        {
+            assertEquals( expected.countInTile( tile ), actual.countInTile( tile ) );
+        }
+        assertEquals( 1, read.densityFor( Cartesian ).total() );
+        assertTrue( read.configurationFor( WGS84 ) instanceof DensityAwareConfiguration );
+    }
+
+    @Test
+    void shouldWriteCoarserDensitiesWhenHeaderHasLittleRoom()
+    {
+        // given
+        SpaceFillingCurveDensities densities = new SpaceFillingCurveDensities( settings, configuration );
+        for ( int i = 0; i < 1000; i++ )
+        {
+            densities.add( new Value[]{Values.pointValue( WGS84, -179 + i * 0.358, -89 + i * 0.178 )}, 1 );
+        }
+        int level = densities.densityFor( WGS84 ).getLevel();
+
+        // when
+        SpaceFillingCurveDensities read = writeAndRead( densities, 128 );
+
+        // then
+        SpaceFillingCurveDensity density = read.densityFor( WGS84 );
+        assertTrue( density.getLevel() < level );
+        assertEquals( 1000, density.total(), 1000 * 0.01 );
+    }
+
+    @Test
+    void shouldUseDefaultConfigurationWithoutDensitiesInHeader()
+    {
+        // given
+        SpaceFillingCurveDensities read = new SpaceFillingCurveDensities( settings, configuration );
+
+        // when
+        read.read( ByteBuffer.allocate( 0 ) );
+
+        // then
+        assertNull( read.densityFor( WGS84 ) );
+        assertSame( configuration, read.configurationFor( WGS84 ) );
+    }
+
+    @Test
+    void shouldReplaceDensitiesWithSampledOnes()
+    {
+        // given
+        SpaceFillingCurveDensities densities = new SpaceFillingCurveDensities( settings, configuration );
+        densities.add( new Value[]{Values.pointValue( WGS84, 12.9, 55.6 )}, 10 );
+        densities.add( new Value[]{Values.pointValue( Cartesian, 1, 2 )}, 10 );
+        SpaceFillingCurveDensities sampled = densities.emptyCopy();
+        sampled.add( new Value[]{Values.pointValue( WGS84, 12.9, 55.6 )}, 3 );
+
+        // when
+        densities.replaceWith( sampled );
+
+        // then
+        assertEquals( 3, densities.densityFor( WGS84 ).total() );
+        assertNull( densities.densityFor( Cartesian ) );
+    }
+
+    private static SpaceFillingCurveDensities writeAndRead( SpaceFillingCurveDensities densities, int pageSize )
+    {
+        byte[] page = new byte[pageSize];
+        PageCursor cursor = ByteArrayPageCursor.wrap( page );
+        densities.accept( cursor );
+        SpaceFillingCurveDensities read = densities.emptyCopy();
+        read.read( ByteBuffer.wrap( page, 0, cursor.getOffset() ) );
+        return read;
+    }
+}
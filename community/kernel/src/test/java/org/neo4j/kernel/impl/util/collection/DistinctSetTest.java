@@ -70,6 +70,16 @@ class DistinctSetTest
         assertTrue( added3 );
     }
 
+    @Test
+    void containsAndEstimatedHeapUsage()
+    {
+        distinctSet.add( Values.longValue( 0L ) );
+
+        assertTrue( distinctSet.contains( Values.longValue( 0L ) ) );
+        assertFalse( distinctSet.contains( Values.longValue( 1L ) ) );
+        assertEquals( memoryTracker.estimatedHeapMemory(), distinctSet.estimatedHeapUsage() );
+    }
+
     @Test
     void closeShouldReleaseEverything()
     {
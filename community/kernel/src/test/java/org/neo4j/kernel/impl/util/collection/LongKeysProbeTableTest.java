@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.util.collection;
+
+import org.github.jamm.MemoryMeter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.values.storable.LongValue;
+import org.neo4j.values.storable.Values;
+
+import static java.util.List.of;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongKeysProbeTableTest
+{
+    private final MemoryMeter meter = new MemoryMeter();
+    private final MemoryTracker memoryTracker = new LocalMemoryTracker();
+    private final List<LongKeysProbeTable<LongValue>> tables = new ArrayList<>();
+
+    @AfterEach
+    void tearDown()
+    {
+        tables.forEach( LongKeysProbeTable::close );
+        assertEquals( 0, memoryTracker.estimatedHeapMemory(), "Leaking memory" );
+    }
+
+    @Test
+    void emptySize()
+    {
+        LongKeysProbeTable<LongValue> table = table( 2 );
+        long actual = meter.measureDeep( table ) - meter.measureDeep( memoryTracker );
+        assertEquals( actual, memoryTracker.estimatedHeapMemory() );
+    }
+
+    @Test
+    void countInternalStructure()
+    {
+        LongKeysProbeTable<LongValue> table = table( 1 );
+        for ( int i = 0; i < 100; i++ )
+        {
+            table.put( i % 10, Values.longValue( i ) );
+        }
+
+        long actualSize = meter.measureDeep( table ) - meter.measureDeep( memoryTracker );
+        assertEquals( actualSize, memoryTracker.estimatedHeapMemory() );
+        assertEquals( memoryTracker.estimatedHeapMemory(), table.estimatedHeapUsage() );
+    }
+
+    @Test
+    void singleKey()
+    {
+        LongKeysProbeTable<LongValue> table = table( 1 );
+        // Sentinel values of other tables are ordinary keys here
+        table.put( 0, Values.longValue( 1L ) );
+        table.put( 1, Values.longValue( 2L ) );
+        table.put( 0, Values.longValue( 3L ) );
+        table.put( -1, Values.longValue( 4L ) );
+
+        assertEquals( of( 1L, 3L ), values( table.get( 0 ) ) );
+        assertEquals( of( 2L ), values( table.get( 1 ) ) );
+        assertEquals( of( 4L ), values( table.get( -1 ) ) );
+        assertEquals( of( 4L ), values( table.get( new long[]{-1} ) ) );
+        assertFalse( table.get( 2 ).hasNext() );
+        assertEquals( of( 1L, 2L, 3L, 4L ), values( table.values() ) );
+    }
+
+    @Test
+    void twoKeys()
+    {
+        LongKeysProbeTable<LongValue> table = table( 2 );
+        table.put( 1, 2, Values.longValue( 1L ) );
+        table.put( 2, 1, Values.longValue( 2L ) );
+        table.put( new long[]{1, 2}, Values.longValue( 3L ) );
+
+        assertEquals( of( 1L, 3L ), values( table.get( 1, 2 ) ) );
+        assertEquals( of( 2L ), values( table.get( new long[]{2, 1} ) ) );
+        assertFalse( table.get( 1, 1 ).hasNext() );
+    }
+
+    @Test
+    void manyKeysShouldSurviveRehashing()
+    {
+        LongKeysProbeTable<LongValue> table = table( 3 );
+        assertTrue( table.isEmpty() );
+        int n = 10_000;
+        for ( long i = 0; i < n; i++ )
+        {
+            table.put( new long[]{i, i * 7, -i}, Values.longValue( i ) );
+            table.put( new long[]{i, i * 7, -i}, Values.longValue( -i ) );
+        }
+
+        assertFalse( table.isEmpty() );
+        for ( long i = 0; i < n; i++ )
+        {
+            assertEquals( of( i, -i ), values( table.get( new long[]{i, i * 7, -i} ) ) );
+        }
+        assertFalse( table.get( new long[]{1, 7, 1} ).hasNext() );
+        long actualSize = meter.measureDeep( table ) - meter.measureDeep( memoryTracker );
+        assertEquals( actualSize, memoryTracker.estimatedHeapMemory() );
+    }
+
+    @Test
+    void closeShouldReleaseEverything()
+    {
+        long externalAllocation = 113L;
+        memoryTracker.allocateHeap( externalAllocation );
+
+        LongKeysProbeTable<LongValue> table = table( 1 );
+        for ( int i = 0; i < 100; i++ )
+        {
+            table.put( i, Values.longValue( i ) );
+        }
+        long actualSize = meter.measureDeep( table ) - meter.measureDeep( memoryTracker );
+        assertEquals( actualSize + externalAllocation, memoryTracker.estimatedHeapMemory() );
+
+        table.close();
+        assertTrue( table.isClosed() );
+        assertEquals( externalAllocation, memoryTracker.estimatedHeapMemory() );
+
+        memoryTracker.releaseHeap( externalAllocation );
+    }
+
+    private LongKeysProbeTable<LongValue> table( int keySize )
+    {
+        LongKeysProbeTable<LongValue> table = LongKeysProbeTable.createLongKeysProbeTable( memoryTracker, keySize );
+        tables.add( table );
+        return table;
+    }
+
+    private static List<Long> values( Iterator<LongValue> iterator )
+    {
+        List<Long> values = new ArrayList<>();
+        iterator.forEachRemaining( value -> values.add( value.longValue() ) );
+        return values;
+    }
+}
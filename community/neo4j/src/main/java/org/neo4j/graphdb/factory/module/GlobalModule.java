@@ -25,6 +25,7 @@ import org.neo4j.annotations.api.IgnoreApiCheck;
 import org.neo4j.collection.Dependencies;
 import org.neo4j.common.DependencyResolver;
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.FulltextSettings;
 import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.configuration.connectors.ConnectorPortRegister;
@@ -356,6 +357,7 @@ public class GlobalModule
         jobScheduler.setParallelism( Group.INDEX_POPULATION, globalConfig.get( GraphDatabaseInternalSettings.index_population_parallelism ) );
         jobScheduler.setParallelism( Group.INDEX_POPULATION_WORK, globalConfig.get( GraphDatabaseInternalSettings.index_population_workers ) );
         jobScheduler.setParallelism( Group.PAGE_CACHE_PRE_FETCHER, globalConfig.get( GraphDatabaseSettings.pagecache_scan_prefetch ) );
+        jobScheduler.setParallelism( Group.FULLTEXT_SEARCH, globalConfig.get( FulltextSettings.fulltext_search_workers ) );
         return jobScheduler;
     }
 
@@ -21,17 +21,22 @@ package org.neo4j.internal.recordstorage;
 
 import org.neo4j.internal.recordstorage.Command.LabelTokenCommand;
 import org.neo4j.internal.recordstorage.Command.PropertyKeyTokenCommand;
+import org.neo4j.internal.recordstorage.Command.RelationshipCommand;
+import org.neo4j.internal.recordstorage.Command.RelationshipGroupCommand;
 import org.neo4j.internal.recordstorage.Command.RelationshipTypeTokenCommand;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.impl.store.LabelTokenStore;
 import org.neo4j.kernel.impl.store.NeoStores;
 import org.neo4j.kernel.impl.store.PropertyKeyTokenStore;
 import org.neo4j.kernel.impl.store.RelationshipTypeTokenStore;
+import org.neo4j.storageengine.api.TransactionApplicationMode;
 import org.neo4j.token.api.NamedToken;
 
 public class CacheInvalidationTransactionApplier extends TransactionApplier.Adapter
 {
+    private final boolean updateTokenCaches;
     private final CacheAccessBackDoor cacheAccess;
+    private final DenseNodeAdjacencyCache adjacencyCache;
     private final RelationshipTypeTokenStore relationshipTypeTokenStore;
     private final LabelTokenStore labelTokenStore;
     private final PropertyKeyTokenStore propertyKeyTokenStore;
@@ -40,16 +45,47 @@ public class CacheInvalidationTransactionApplier extends TransactionApplier.Adap
     public CacheInvalidationTransactionApplier( NeoStores neoStores,
                                                 CacheAccessBackDoor cacheAccess, PageCursorTracer cursorTracer )
     {
+        this( TransactionApplicationMode.EXTERNAL, neoStores, cacheAccess, DenseNodeAdjacencyCache.DISABLED, cursorTracer );
+    }
+
+    CacheInvalidationTransactionApplier( TransactionApplicationMode mode, NeoStores neoStores, CacheAccessBackDoor cacheAccess,
+            DenseNodeAdjacencyCache adjacencyCache, PageCursorTracer cursorTracer )
+    {
+        this.updateTokenCaches = mode.needsCacheInvalidationOnUpdates();
         this.cacheAccess = cacheAccess;
+        this.adjacencyCache = adjacencyCache;
         this.relationshipTypeTokenStore = neoStores.getRelationshipTypeTokenStore();
         this.labelTokenStore = neoStores.getLabelTokenStore();
         this.propertyKeyTokenStore = neoStores.getPropertyKeyTokenStore();
         this.cursorTracer = cursorTracer;
     }
 
+    @Override
+    public boolean visitRelationshipCommand( RelationshipCommand command )
+    {
+        // Both versions, since a deleted relationship record no longer knows its nodes
+        adjacencyCache.invalidate( command.getBefore().getFirstNode() );
+        adjacencyCache.invalidate( command.getBefore().getSecondNode() );
+        adjacencyCache.invalidate( command.getAfter().getFirstNode() );
+        adjacencyCache.invalidate( command.getAfter().getSecondNode() );
+        return false;
+    }
+
+    @Override
+    public boolean visitRelationshipGroupCommand( RelationshipGroupCommand command )
+    {
+        adjacencyCache.invalidate( command.getBefore().getOwningNode() );
+        adjacencyCache.invalidate( command.getAfter().getOwningNode() );
+        return false;
+    }
+
     @Override
     public boolean visitRelationshipTypeTokenCommand( RelationshipTypeTokenCommand command )
     {
+        if ( !updateTokenCaches )
+        {
+            return false;
+        }
         NamedToken type = relationshipTypeTokenStore.getToken( command.tokenId(), cursorTracer );
         cacheAccess.addRelationshipTypeToken( type );
 
@@ -59,6 +95,10 @@ public class CacheInvalidationTransactionApplier extends TransactionApplier.Adap
     @Override
     public boolean visitLabelTokenCommand( LabelTokenCommand command )
     {
+        if ( !updateTokenCaches )
+        {
+            return false;
+        }
         NamedToken labelId = labelTokenStore.getToken( command.tokenId(), cursorTracer );
         cacheAccess.addLabelToken( labelId );
 
@@ -68,6 +108,10 @@ public class CacheInvalidationTransactionApplier extends TransactionApplier.Adap
     @Override
     public boolean visitPropertyKeyTokenCommand( PropertyKeyTokenCommand command )
     {
+        if ( !updateTokenCaches )
+        {
+            return false;
+        }
         NamedToken index = propertyKeyTokenStore.getToken( command.tokenId(), cursorTracer );
         cacheAccess.addPropertyKeyToken( index );
 
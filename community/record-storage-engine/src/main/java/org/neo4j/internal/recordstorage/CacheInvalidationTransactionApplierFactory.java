@@ -21,21 +21,32 @@ package org.neo4j.internal.recordstorage;
 
 import org.neo4j.kernel.impl.store.NeoStores;
 import org.neo4j.storageengine.api.CommandsToApply;
+import org.neo4j.storageengine.api.TransactionApplicationMode;
 
 public class CacheInvalidationTransactionApplierFactory implements TransactionApplierFactory
 {
+    private final TransactionApplicationMode mode;
     private final NeoStores neoStores;
     private final CacheAccessBackDoor cacheAccess;
+    private final DenseNodeAdjacencyCache adjacencyCache;
 
     public CacheInvalidationTransactionApplierFactory( NeoStores neoStores, CacheAccessBackDoor cacheAccess )
     {
+        this( TransactionApplicationMode.EXTERNAL, neoStores, cacheAccess, DenseNodeAdjacencyCache.DISABLED );
+    }
+
+    CacheInvalidationTransactionApplierFactory( TransactionApplicationMode mode, NeoStores neoStores, CacheAccessBackDoor cacheAccess,
+            DenseNodeAdjacencyCache adjacencyCache )
+    {
+        this.mode = mode;
         this.neoStores = neoStores;
         this.cacheAccess = cacheAccess;
+        this.adjacencyCache = adjacencyCache;
     }
 
     @Override
     public TransactionApplier startTx( CommandsToApply transaction, BatchContext batchContext )
     {
-        return new CacheInvalidationTransactionApplier( neoStores, cacheAccess, transaction.cursorTracer() );
+        return new CacheInvalidationTransactionApplier( mode, neoStores, cacheAccess, adjacencyCache, transaction.cursorTracer() );
     }
 }
@@ -0,0 +1,355 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.eclipse.collections.api.list.primitive.MutableIntList;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.impl.factory.primitive.IntLists;
+import org.eclipse.collections.impl.factory.primitive.LongLists;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.kernel.impl.store.RelationshipGroupStore;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.storageengine.api.RelationshipDirection;
+
+import static org.neo4j.kernel.impl.store.record.Record.NULL_REFERENCE;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.ALWAYS;
+import static org.neo4j.memory.HeapEstimator.OBJECT_HEADER_BYTES;
+import static org.neo4j.memory.HeapEstimator.OBJECT_REFERENCE_BYTES;
+import static org.neo4j.memory.HeapEstimator.alignObjectSize;
+import static org.neo4j.memory.HeapEstimator.shallowSizeOfInstance;
+import static org.neo4j.memory.HeapEstimator.shallowSizeOfObjectArray;
+import static org.neo4j.memory.HeapEstimator.sizeOf;
+import static org.neo4j.memory.HeapEstimator.sizeOfLongArray;
+
+/**
+ * Keeps the relationships of dense nodes with a high degree in packed, primitive arrays, so that expanding from such a node
+ * doesn't need to walk its relationship group chain and every relationship chain in the store.
+ * <p>
+ * Adjacency is loaded from the store the first time all relationships of a dense node are traversed and is kept if the node has at least
+ * the configured number of relationships and the cache has room for it; dense nodes below the threshold are remembered as such
+ * so that they are only walked once. Loading reserves room in the cache as it reads, and stops as soon as the node doesn't fit,
+ * so adjacency is only materialized for nodes that are going to be cached. Everything in the cache, including what is being loaded,
+ * is charged to the memory tracker of the cache. Entries are dropped by {@link CacheInvalidationTransactionApplier} as soon as
+ * a transaction changes a relationship or relationship group of the node. A load which races with such a change of the same node is not cached,
+ * changes are counted in stripes by node id so that writes to other nodes don't keep a busy node from being cached.
+ */
+class DenseNodeAdjacencyCache
+{
+    static final DenseNodeAdjacencyCache DISABLED = new DenseNodeAdjacencyCache( null, null, 0, Integer.MAX_VALUE, EmptyMemoryTracker.INSTANCE );
+
+    static final RelationshipDirection[] CHAIN_DIRECTIONS = {RelationshipDirection.INCOMING, RelationshipDirection.OUTGOING, RelationshipDirection.LOOP};
+    /**
+     * Number of longs per relationship in a packed chain: relationship id, other node id and properties reference.
+     */
+    static final int ENTRY_SIZE = 3;
+
+    private static final long NO_ID = NULL_REFERENCE.longValue();
+    private static final NodeAdjacency BELOW_DEGREE_THRESHOLD = new NodeAdjacency( new int[0], new long[0][] );
+    // A ConcurrentHashMap.Node (hash, key, value, next) and the boxed node id key
+    private static final int INVALIDATION_STRIPES = 1 << 12;
+    private static final long CACHE_ENTRY_OVERHEAD = alignObjectSize( OBJECT_HEADER_BYTES + Integer.BYTES + 3L * OBJECT_REFERENCE_BYTES ) + sizeOf( 0L );
+
+    private final RelationshipStore relationshipStore;
+    private final RelationshipGroupStore groupStore;
+    private final long maxSizeInBytes;
+    private final int minDegree;
+    private final MemoryTracker memoryTracker;
+    private final ConcurrentHashMap<Long,NodeAdjacency> cache = new ConcurrentHashMap<>();
+    private final AtomicLong sizeInBytes = new AtomicLong();
+    private final AtomicLongArray invalidations = new AtomicLongArray( INVALIDATION_STRIPES );
+
+    DenseNodeAdjacencyCache( RelationshipStore relationshipStore, RelationshipGroupStore groupStore, long maxSizeInBytes, int minDegree,
+            MemoryTracker memoryTracker )
+    {
+        this.relationshipStore = relationshipStore;
+        this.groupStore = groupStore;
+        this.maxSizeInBytes = maxSizeInBytes;
+        this.minDegree = minDegree;
+        this.memoryTracker = memoryTracker;
+    }
+
+    boolean isEnabled()
+    {
+        return maxSizeInBytes > 0;
+    }
+
+    /**
+     * Loads the adjacency of the node if it isn't known to the cache yet. Loading reads the relationships of all types of the node,
+     * so it should only be done for traversals of all relationships.
+     *
+     * @param nodeId the dense node to get adjacency for.
+     * @param firstGroupId id of the first relationship group of the node.
+     * @param cursorTracer tracer of the store reads needed if the node isn't already known to the cache.
+     * @return the adjacency of the node, or {@code null} if the node isn't cached and relationships should be read from the store.
+     */
+    NodeAdjacency adjacency( long nodeId, long firstGroupId, PageCursorTracer cursorTracer )
+    {
+        NodeAdjacency adjacency = cache.get( nodeId );
+        if ( adjacency == null )
+        {
+            adjacency = load( nodeId, firstGroupId, cursorTracer );
+        }
+        return adjacency == BELOW_DEGREE_THRESHOLD ? null : adjacency;
+    }
+
+    /**
+     * @param nodeId the dense node to get adjacency for.
+     * @return the adjacency of the node, or {@code null} if the node isn't cached and relationships should be read from the store.
+     */
+    NodeAdjacency cachedAdjacency( long nodeId )
+    {
+        NodeAdjacency adjacency = cache.get( nodeId );
+        return adjacency == BELOW_DEGREE_THRESHOLD ? null : adjacency;
+    }
+
+    void invalidate( long nodeId )
+    {
+        if ( !isEnabled() || nodeId == NO_ID )
+        {
+            return;
+        }
+        invalidations.incrementAndGet( invalidationStripe( nodeId ) );
+        remove( nodeId );
+    }
+
+    /**
+     * @return a stamp which changes whenever {@link #invalidate(long)} is called for the node, and seldom for other nodes.
+     */
+    long invalidationStamp( long nodeId )
+    {
+        return invalidations.get( invalidationStripe( nodeId ) );
+    }
+
+    private static int invalidationStripe( long nodeId )
+    {
+        return Math.floorMod( Long.hashCode( nodeId ), INVALIDATION_STRIPES );
+    }
+
+    long sizeInBytes()
+    {
+        return sizeInBytes.get();
+    }
+
+    private NodeAdjacency load( long nodeId, long firstGroupId, PageCursorTracer cursorTracer )
+    {
+        if ( sizeInBytes.get() + CACHE_ENTRY_OVERHEAD > maxSizeInBytes )
+        {
+            // No room for another node, don't bother reading it
+            return null;
+        }
+        long stampBeforeLoad = invalidationStamp( nodeId );
+        NodeAdjacency adjacency = read( nodeId, firstGroupId, cursorTracer );
+        if ( adjacency == null )
+        {
+            return null;
+        }
+        if ( invalidationStamp( nodeId ) != stampBeforeLoad || cache.putIfAbsent( nodeId, adjacency ) != null )
+        {
+            // Some transaction changed relationships of the node while we were reading, we may have seen parts of it so fall back to the store.
+            // Or someone else loaded the node at the same time, in which case we use theirs.
+            release( adjacency.heapUsage + CACHE_ENTRY_OVERHEAD );
+            return invalidationStamp( nodeId ) != stampBeforeLoad ? null : cache.get( nodeId );
+        }
+        if ( invalidationStamp( nodeId ) != stampBeforeLoad )
+        {
+            remove( nodeId );
+            return null;
+        }
+        return adjacency;
+    }
+
+    private void remove( long nodeId )
+    {
+        NodeAdjacency removed = cache.remove( nodeId );
+        if ( removed != null )
+        {
+            release( removed.heapUsage + CACHE_ENTRY_OVERHEAD );
+        }
+    }
+
+    /**
+     * Reads the adjacency of a node, while reserving room for it in the cache.
+     *
+     * @return the adjacency of the node, with {@code heapUsage + CACHE_ENTRY_OVERHEAD} bytes reserved for it, or {@code null} if the node doesn't fit.
+     */
+    private NodeAdjacency read( long nodeId, long firstGroupId, PageCursorTracer cursorTracer )
+    {
+        RelationshipGroupRecord group = new RelationshipGroupRecord( NO_ID );
+        RelationshipRecord relationship = new RelationshipRecord( NO_ID );
+        MutableIntList types = IntLists.mutable.empty();
+        List<long[]> chains = new ArrayList<>();
+        MutableLongList chain = LongLists.mutable.empty();
+        long degree = 0;
+        long reserved = 0;
+        boolean keepReservation = false;
+        try ( PageCursor groupCursor = groupStore.openPageCursorForReading( firstGroupId, cursorTracer );
+              PageCursor relationshipCursor = relationshipStore.openPageCursorForReading( 0, cursorTracer ) )
+        {
+            long groupId = firstGroupId;
+            while ( groupId != NO_ID )
+            {
+                groupStore.getRecordByCursor( groupId, group, ALWAYS, groupCursor );
+                if ( group.inUse() )
+                {
+                    types.add( group.getType() );
+                    for ( long firstRelationship : new long[]{group.getFirstIn(), group.getFirstOut(), group.getFirstLoop()} )
+                    {
+                        boolean complete = readChain( nodeId, firstRelationship, relationship, relationshipCursor, chain );
+                        long chainSize = OBJECT_REFERENCE_BYTES + sizeOfLongArray( chain.size() );
+                        if ( !complete || !reserve( chainSize ) )
+                        {
+                            return null;
+                        }
+                        reserved += chainSize;
+                        degree += chain.size() / ENTRY_SIZE;
+                        chains.add( chain.toArray() );
+                        chain.clear();
+                    }
+                }
+                groupId = group.getNext();
+            }
+
+            NodeAdjacency adjacency = degree < minDegree ? BELOW_DEGREE_THRESHOLD : new NodeAdjacency( types.toArray(), chains.toArray( new long[0][] ) );
+            long size = adjacency.heapUsage + CACHE_ENTRY_OVERHEAD;
+            if ( size > reserved )
+            {
+                if ( !reserve( size - reserved ) )
+                {
+                    return null;
+                }
+            }
+            else
+            {
+                release( reserved - size );
+            }
+            keepReservation = true;
+            return adjacency;
+        }
+        finally
+        {
+            if ( !keepReservation )
+            {
+                release( reserved );
+            }
+        }
+    }
+
+    /**
+     * @return {@code false} if the chain was not read to the end, because it would not fit in the cache.
+     */
+    private boolean readChain( long nodeId, long firstRelationship, RelationshipRecord relationship, PageCursor cursor, MutableLongList chain )
+    {
+        long next = firstRelationship;
+        while ( next != NO_ID )
+        {
+            if ( sizeInBytes.get() + CACHE_ENTRY_OVERHEAD + sizeOfLongArray( chain.size() ) > maxSizeInBytes )
+            {
+                return false;
+            }
+            relationshipStore.getRecordByCursor( next, relationship, ALWAYS, cursor );
+            boolean first = relationship.getFirstNode() == nodeId;
+            if ( relationship.inUse() )
+            {
+                chain.add( relationship.getId() );
+                chain.add( first ? relationship.getSecondNode() : relationship.getFirstNode() );
+                chain.add( relationship.getNextProp() );
+            }
+            next = first ? relationship.getFirstNextRel() : relationship.getSecondNextRel();
+        }
+        return true;
+    }
+
+    private boolean reserve( long bytes )
+    {
+        memoryTracker.allocateHeap( bytes );
+        if ( sizeInBytes.addAndGet( bytes ) > maxSizeInBytes )
+        {
+            release( bytes );
+            return false;
+        }
+        return true;
+    }
+
+    private void release( long bytes )
+    {
+        sizeInBytes.addAndGet( -bytes );
+        memoryTracker.releaseHeap( bytes );
+    }
+
+    /**
+     * Relationships of a single dense node, in the same order as they are visited when walking the store: per relationship type in
+     * group chain order, and per type incoming, outgoing and loop relationships, see {@link #CHAIN_DIRECTIONS}.
+     */
+    static final class NodeAdjacency
+    {
+        private static final long SHALLOW_SIZE = shallowSizeOfInstance( NodeAdjacency.class );
+
+        private final int[] types;
+        private final long[][] chains;
+        private final long heapUsage;
+
+        NodeAdjacency( int[] types, long[][] chains )
+        {
+            this.types = types;
+            this.chains = chains;
+            long size = SHALLOW_SIZE + sizeOf( types ) + shallowSizeOfObjectArray( chains.length );
+            for ( long[] chain : chains )
+            {
+                size += sizeOfLongArray( chain.length );
+            }
+            this.heapUsage = size;
+        }
+
+        int numberOfChains()
+        {
+            return chains.length;
+        }
+
+        int type( int chainIndex )
+        {
+            return types[chainIndex / CHAIN_DIRECTIONS.length];
+        }
+
+        RelationshipDirection direction( int chainIndex )
+        {
+            return CHAIN_DIRECTIONS[chainIndex % CHAIN_DIRECTIONS.length];
+        }
+
+        /**
+         * @return packed chain of {@link #ENTRY_SIZE} longs per relationship.
+         */
+        long[] chain( int chainIndex )
+        {
+            return chains[chainIndex];
+        }
+    }
+}
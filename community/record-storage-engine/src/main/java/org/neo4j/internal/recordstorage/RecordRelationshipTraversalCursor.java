@@ -23,10 +23,13 @@ import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.impl.store.RelationshipGroupStore;
 import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.record.RecordLoadOverride;
 import org.neo4j.storageengine.api.ReadTracer;
+import org.neo4j.storageengine.api.RelationshipDirection;
 import org.neo4j.storageengine.api.RelationshipSelection;
 import org.neo4j.storageengine.api.StorageRelationshipTraversalCursor;
 
+import static org.neo4j.internal.recordstorage.DenseNodeAdjacencyCache.ENTRY_SIZE;
 import static org.neo4j.storageengine.api.RelationshipDirection.INCOMING;
 import static org.neo4j.storageengine.api.RelationshipDirection.LOOP;
 import static org.neo4j.storageengine.api.RelationshipDirection.OUTGOING;
@@ -51,11 +54,24 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
     private final RecordRelationshipGroupCursor group;
     private GroupState groupState;
     private boolean open;
+    private final DenseNodeAdjacencyCache adjacencyCache;
+    private final PageCursorTracer cursorTracer;
+    private DenseNodeAdjacencyCache.NodeAdjacency cachedAdjacency;
+    private int cachedChain;
+    private int cachedPosition;
 
     RecordRelationshipTraversalCursor( RelationshipStore relationshipStore, RelationshipGroupStore groupStore, PageCursorTracer cursorTracer )
+    {
+        this( relationshipStore, groupStore, DenseNodeAdjacencyCache.DISABLED, cursorTracer );
+    }
+
+    RecordRelationshipTraversalCursor( RelationshipStore relationshipStore, RelationshipGroupStore groupStore, DenseNodeAdjacencyCache adjacencyCache,
+            PageCursorTracer cursorTracer )
     {
         super( relationshipStore, cursorTracer );
         this.group = new RecordRelationshipGroupCursor( relationshipStore, groupStore, cursorTracer, loadMode );
+        this.adjacencyCache = adjacencyCache;
+        this.cursorTracer = cursorTracer;
     }
 
     void init( RecordNodeCursor nodeCursor, RelationshipSelection selection )
@@ -87,7 +103,13 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
         }
 
         this.selection = selection;
-        if ( isDense )
+        this.cachedAdjacency = isDense ? lookupCachedAdjacency( nodeReference, reference, selection ) : null;
+        if ( cachedAdjacency != null )
+        {
+            // The relationships of this dense node are all in the adjacency cache
+            cached( nodeReference );
+        }
+        else if ( isDense )
         {
             // The reference points to a relationship group record
             groups( nodeReference, reference );
@@ -127,6 +149,31 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
         this.group.direct( nodeReference, groupReference );
     }
 
+    private DenseNodeAdjacencyCache.NodeAdjacency lookupCachedAdjacency( long nodeReference, long groupReference, RelationshipSelection selection )
+    {
+        // Forced loads are used to see records regardless of whether or not they are in use, the cache only has those in use
+        if ( !adjacencyCache.isEnabled() || loadMode != RecordLoadOverride.none() )
+        {
+            return null;
+        }
+        // Loading reads the chains of every type, which is more than walking the groups of the selected types would read
+        return selection.isTypeLimited() ? adjacencyCache.cachedAdjacency( nodeReference )
+                                         : adjacencyCache.adjacency( nodeReference, groupReference, cursorTracer );
+    }
+
+    /*
+     * Dense node with cached adjacency. Traversal returns mixed types and directions, in the same order as walking the groups would.
+     */
+    private void cached( long nodeReference )
+    {
+        setId( NO_ID );
+        this.next = NO_ID;
+        this.groupState = GroupState.NONE;
+        this.originNodeReference = nodeReference;
+        this.cachedChain = nextSelectedChain( 0 );
+        this.cachedPosition = 0;
+    }
+
     @Override
     public long neighbourNodeReference()
     {
@@ -154,6 +201,11 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
     @Override
     public boolean next()
     {
+        if ( cachedAdjacency != null )
+        {
+            return nextCached();
+        }
+
         boolean traversingDenseNode;
         do
         {
@@ -180,6 +232,46 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
         return true;
     }
 
+    private boolean nextCached()
+    {
+        while ( cachedChain < cachedAdjacency.numberOfChains() )
+        {
+            long[] chain = cachedAdjacency.chain( cachedChain );
+            if ( cachedPosition < chain.length )
+            {
+                long relationshipId = chain[cachedPosition];
+                long otherNode = chain[cachedPosition + 1];
+                long properties = chain[cachedPosition + 2];
+                cachedPosition += ENTRY_SIZE;
+
+                RelationshipDirection direction = cachedAdjacency.direction( cachedChain );
+                long firstNode = direction == INCOMING ? otherNode : originNodeReference;
+                long secondNode = direction == OUTGOING ? otherNode : originNodeReference;
+                setId( relationshipId );
+                initialize( true, properties, firstNode, secondNode, cachedAdjacency.type( cachedChain ), NO_ID, NO_ID, NO_ID, NO_ID, false, false );
+                if ( tracer != null )
+                {
+                    tracer.onRelationship( relationshipId );
+                }
+                return true;
+            }
+            cachedChain = nextSelectedChain( cachedChain + 1 );
+            cachedPosition = 0;
+        }
+        resetState();
+        return false;
+    }
+
+    private int nextSelectedChain( int chainIndex )
+    {
+        while ( chainIndex < cachedAdjacency.numberOfChains() &&
+                !selection.test( cachedAdjacency.type( chainIndex ), cachedAdjacency.direction( chainIndex ) ) )
+        {
+            chainIndex++;
+        }
+        return chainIndex;
+    }
+
     private void traverseDenseNode()
     {
         while ( next == NO_ID )
@@ -336,6 +428,7 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
         setId( next = NO_ID );
         groupState = GroupState.NONE;
         selection = null;
+        cachedAdjacency = null;
     }
 
     @Override
@@ -359,7 +452,7 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
         }
         else
         {
-            String dense = "denseNode=" + traversingDenseNode();
+            String dense = "denseNode=" + (traversingDenseNode() || cachedAdjacency != null);
             return "RelationshipTraversalCursor[id=" + getId() +
                     ", open state with: " + dense +
                     ", next=" + next + ", " +
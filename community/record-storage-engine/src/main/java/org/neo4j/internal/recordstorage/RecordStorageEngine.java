@@ -125,6 +125,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     private final MemoryTracker otherMemoryTracker;
     private final GBPTreeCountsStore countsStore;
     private final int denseNodeThreshold;
+    private final DenseNodeAdjacencyCache adjacencyCache;
     private final Map<IdType,WorkSync<IdGenerator,IdGeneratorUpdateWork>> idGeneratorWorkSyncs = new EnumMap<>( IdType.class );
     private final Map<TransactionApplicationMode,TransactionApplierFactoryChain> applierChains = new EnumMap<>( TransactionApplicationMode.class );
 
@@ -177,6 +178,9 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
             cacheAccess = new BridgingCacheAccess( schemaCache, schemaState, tokenHolders );
 
             denseNodeThreshold = config.get( GraphDatabaseSettings.dense_node_threshold );
+            adjacencyCache = new DenseNodeAdjacencyCache( neoStores.getRelationshipStore(), neoStores.getRelationshipGroupStore(),
+                    config.get( GraphDatabaseInternalSettings.dense_node_adjacency_cache_size ),
+                    config.get( GraphDatabaseInternalSettings.dense_node_adjacency_cache_min_degree ), otherMemoryTracker );
 
             countsStore = openCountsStore( pageCache, fs, databaseLayout, config, logProvider, recoveryCleanupWorkCollector, cacheTracer );
 
@@ -212,9 +216,10 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         {
             appliers.add( new HighIdTransactionApplierFactory( neoStores ) );
         }
-        if ( mode.needsCacheInvalidationOnUpdates() )
+        if ( mode.needsCacheInvalidationOnUpdates() || adjacencyCache.isEnabled() )
         {
-            appliers.add( new CacheInvalidationTransactionApplierFactory( neoStores, cacheAccess ) );
+            // Internal transactions update the token caches themselves, but nothing else keeps the adjacency cache up to date
+            appliers.add( new CacheInvalidationTransactionApplierFactory( mode, neoStores, cacheAccess, adjacencyCache ) );
         }
         if ( mode.needsAuxiliaryStores() )
         {
@@ -261,7 +266,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     @Override
     public RecordStorageReader newReader()
     {
-        return new RecordStorageReader( tokenHolders, neoStores, countsStore, schemaCache );
+        return new RecordStorageReader( tokenHolders, neoStores, countsStore, schemaCache, adjacencyCache );
     }
 
     @Override
@@ -63,10 +63,12 @@ public class RecordStorageReader implements StorageReader
     private final PropertyStore propertyStore;
     private final CountsAccessor counts;
     private final SchemaCache schemaCache;
+    private final DenseNodeAdjacencyCache adjacencyCache;
 
     private boolean closed;
 
-    RecordStorageReader( TokenHolders tokenHolders, NeoStores neoStores, CountsAccessor counts, SchemaCache schemaCache )
+    RecordStorageReader( TokenHolders tokenHolders, NeoStores neoStores, CountsAccessor counts, SchemaCache schemaCache,
+            DenseNodeAdjacencyCache adjacencyCache )
     {
         this.tokenHolders = tokenHolders;
         this.nodeStore = neoStores.getNodeStore();
@@ -75,6 +77,7 @@ public class RecordStorageReader implements StorageReader
         this.propertyStore = neoStores.getPropertyStore();
         this.counts = counts;
         this.schemaCache = schemaCache;
+        this.adjacencyCache = adjacencyCache;
     }
 
     /**
@@ -83,7 +86,7 @@ public class RecordStorageReader implements StorageReader
      */
     public RecordStorageReader( NeoStores stores )
     {
-        this( null, stores, null, null );
+        this( null, stores, null, null, DenseNodeAdjacencyCache.DISABLED );
     }
 
     @Override
@@ -320,7 +323,7 @@ public class RecordStorageReader implements StorageReader
     @Override
     public StorageRelationshipTraversalCursor allocateRelationshipTraversalCursor( PageCursorTracer cursorTracer )
     {
-        return new RecordRelationshipTraversalCursor( relationshipStore, relationshipGroupStore, cursorTracer );
+        return new RecordRelationshipTraversalCursor( relationshipStore, relationshipGroupStore, adjacencyCache, cursorTracer );
     }
 
     @Override
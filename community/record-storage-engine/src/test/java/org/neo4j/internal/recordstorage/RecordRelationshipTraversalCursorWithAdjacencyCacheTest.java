@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.graphdb.Direction;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.storageengine.api.RelationshipSelection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.internal.helpers.ArrayUtil.concatArrays;
+import static org.neo4j.storageengine.api.RelationshipDirection.INCOMING;
+import static org.neo4j.storageengine.api.RelationshipDirection.LOOP;
+import static org.neo4j.storageengine.api.RelationshipDirection.OUTGOING;
+import static org.neo4j.storageengine.api.RelationshipSelection.ALL_RELATIONSHIPS;
+import static org.neo4j.storageengine.api.RelationshipSelection.selection;
+
+class RecordRelationshipTraversalCursorWithAdjacencyCacheTest extends RecordRelationshipTraversalCursorTest
+{
+    private final LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+    private DenseNodeAdjacencyCache adjacencyCache;
+
+    @BeforeEach
+    void setupCache()
+    {
+        adjacencyCache = newAdjacencyCache( Long.MAX_VALUE, 1 );
+    }
+
+    @Override
+    protected RecordRelationshipTraversalCursor getNodeRelationshipCursor()
+    {
+        return new RecordRelationshipTraversalCursor( neoStores.getRelationshipStore(), neoStores.getRelationshipGroupStore(), adjacencyCache,
+                PageCursorTracer.NULL );
+    }
+
+    @Test
+    void shouldTraverseSameRelationshipsAsStoreInSameOrder()
+    {
+        long reference = createRelationshipStructure( true, concatArrays(
+                homogenousRelationships( 4, TYPE1, OUTGOING ),
+                homogenousRelationships( 1, TYPE1, LOOP ),
+                homogenousRelationships( 5, TYPE2, INCOMING ),
+                homogenousRelationships( 2, TYPE3, OUTGOING ) ) );
+
+        try ( RecordRelationshipTraversalCursor store = new RecordRelationshipTraversalCursor( neoStores.getRelationshipStore(),
+                    neoStores.getRelationshipGroupStore(), PageCursorTracer.NULL );
+              RecordRelationshipTraversalCursor cached = getNodeRelationshipCursor() )
+        {
+            store.init( FIRST_OWNING_NODE, reference, ALL_RELATIONSHIPS );
+            cached.init( FIRST_OWNING_NODE, reference, ALL_RELATIONSHIPS );
+            while ( store.next() )
+            {
+                assertTrue( cached.next() );
+                assertEquals( store.entityReference(), cached.entityReference() );
+                assertEquals( store.type(), cached.type() );
+                assertEquals( store.sourceNodeReference(), cached.sourceNodeReference() );
+                assertEquals( store.targetNodeReference(), cached.targetNodeReference() );
+                assertEquals( store.propertiesReference(), cached.propertiesReference() );
+            }
+            assertFalse( cached.next() );
+        }
+        assertTrue( adjacencyCache.sizeInBytes() > 0 );
+        assertEquals( adjacencyCache.sizeInBytes(), memoryTracker.estimatedHeapMemory() );
+    }
+
+    @Test
+    void shouldSeeChangesAfterInvalidation()
+    {
+        long reference = createRelationshipStructure( true, homogenousRelationships( 4, TYPE1, OUTGOING ) );
+        long groupReference = RelationshipReferenceEncoding.clearEncoding( reference );
+        assertNotNull( adjacencyCache.adjacency( FIRST_OWNING_NODE, groupReference, PageCursorTracer.NULL ) );
+
+        unUseRecord( 2 );
+        adjacencyCache.invalidate( FIRST_OWNING_NODE );
+
+        assertEquals( 0, adjacencyCache.sizeInBytes() );
+        assertEquals( 0, memoryTracker.estimatedHeapMemory() );
+        try ( RecordRelationshipTraversalCursor cursor = getNodeRelationshipCursor() )
+        {
+            cursor.init( FIRST_OWNING_NODE, reference, ALL_RELATIONSHIPS );
+            int count = 0;
+            while ( cursor.next() )
+            {
+                count++;
+            }
+            assertEquals( 3, count );
+        }
+    }
+
+    @Test
+    void shouldOnlyDiscardLoadsOfInvalidatedNode()
+    {
+        long stamp = adjacencyCache.invalidationStamp( FIRST_OWNING_NODE );
+
+        for ( long otherNode = FIRST_OWNING_NODE + 1; otherNode < FIRST_OWNING_NODE + 100; otherNode++ )
+        {
+            adjacencyCache.invalidate( otherNode );
+        }
+        assertEquals( stamp, adjacencyCache.invalidationStamp( FIRST_OWNING_NODE ) );
+
+        adjacencyCache.invalidate( FIRST_OWNING_NODE );
+        assertNotEquals( stamp, adjacencyCache.invalidationStamp( FIRST_OWNING_NODE ) );
+    }
+
+    @Test
+    void shouldNotCacheNodesBelowDegreeThreshold()
+    {
+        adjacencyCache = newAdjacencyCache( Long.MAX_VALUE, 5 );
+        long reference = createRelationshipStructure( true, homogenousRelationships( 4, TYPE1, OUTGOING ) );
+
+        assertNull( adjacencyCache.adjacency( FIRST_OWNING_NODE, RelationshipReferenceEncoding.clearEncoding( reference ), PageCursorTracer.NULL ) );
+    }
+
+    @Test
+    void shouldNotCacheMoreThanMaxSize()
+    {
+        adjacencyCache = newAdjacencyCache( 200, 1 );
+        long reference = createRelationshipStructure( true, homogenousRelationships( 20, TYPE1, OUTGOING ) );
+
+        assertNull( adjacencyCache.adjacency( FIRST_OWNING_NODE, RelationshipReferenceEncoding.clearEncoding( reference ), PageCursorTracer.NULL ) );
+        assertEquals( 0, adjacencyCache.sizeInBytes() );
+        assertEquals( 0, memoryTracker.estimatedHeapMemory() );
+    }
+
+    @Test
+    void shouldOnlyLoadAdjacencyWhenTraversingAllTypes()
+    {
+        long reference = createRelationshipStructure( true, concatArrays(
+                homogenousRelationships( 4, TYPE1, OUTGOING ),
+                homogenousRelationships( 3, TYPE2, INCOMING ) ) );
+        RelationshipSelection type2 = selection( TYPE2, Direction.BOTH );
+
+        assertEquals( 3, count( reference, type2 ) );
+        assertEquals( 0, adjacencyCache.sizeInBytes() );
+
+        assertEquals( 7, count( reference, ALL_RELATIONSHIPS ) );
+        long cachedSize = adjacencyCache.sizeInBytes();
+        assertTrue( cachedSize > 0 );
+
+        unUseRecord( 5 );
+        assertEquals( 3, count( reference, type2 ), "should traverse the cached adjacency" );
+        assertEquals( cachedSize, adjacencyCache.sizeInBytes() );
+    }
+
+    private int count( long reference, RelationshipSelection selection )
+    {
+        try ( RecordRelationshipTraversalCursor cursor = getNodeRelationshipCursor() )
+        {
+            cursor.init( FIRST_OWNING_NODE, reference, selection );
+            int count = 0;
+            while ( cursor.next() )
+            {
+                count++;
+            }
+            return count;
+        }
+    }
+
+    private DenseNodeAdjacencyCache newAdjacencyCache( long maxSizeInBytes, int minDegree )
+    {
+        return new DenseNodeAdjacencyCache( neoStores.getRelationshipStore(), neoStores.getRelationshipGroupStore(), maxSizeInBytes, minDegree,
+                memoryTracker );
+    }
+}
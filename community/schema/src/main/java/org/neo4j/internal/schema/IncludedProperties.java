@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.schema;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.neo4j.values.storable.IntArray;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+/**
+ * Properties included in an index without being indexed. The values of included properties are stored together with the index entries,
+ * so that index seeks can return them without reading the entity from the store. They are not part of the index key,
+ * cannot be used to find entries and don't affect uniqueness.
+ * <p>
+ * The included property key ids are kept in the {@link IndexConfig} of the index, under {@link #INCLUDED_PROPERTIES}.
+ */
+public final class IncludedProperties
+{
+    public static final String INCLUDED_PROPERTIES = "btree.included_properties";
+
+    public static final int[] NONE = new int[0];
+
+    private IncludedProperties()
+    {
+        throw new AssertionError( "No instances" );
+    }
+
+    /**
+     * @param indexConfig config of an index.
+     * @return ids of the property keys included in the index with the given config, or an empty array if it doesn't include any.
+     */
+    public static int[] includedPropertyIds( IndexConfig indexConfig )
+    {
+        IntArray included = indexConfig.get( INCLUDED_PROPERTIES );
+        return included == null ? NONE : included.asObjectCopy();
+    }
+
+    /**
+     * @param indexConfig config to add included properties to.
+     * @param propertyKeyIds ids of the property keys to include.
+     * @return a copy of the given config, including the given properties instead of any it previously included.
+     */
+    public static IndexConfig withIncludedProperties( IndexConfig indexConfig, int... propertyKeyIds )
+    {
+        Map<String,Value> map = new HashMap<>( indexConfig.asMap() );
+        if ( propertyKeyIds.length == 0 )
+        {
+            map.remove( INCLUDED_PROPERTIES );
+        }
+        else
+        {
+            map.put( INCLUDED_PROPERTIES, Values.intArray( propertyKeyIds.clone() ) );
+        }
+        return IndexConfig.with( map );
+    }
+}
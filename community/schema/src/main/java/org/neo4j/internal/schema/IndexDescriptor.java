@@ -46,6 +46,8 @@ public final class IndexDescriptor implements IndexRef<IndexDescriptor>, SchemaR
     private final IndexCapability capability;
     private final IndexType indexType;
     private final IndexConfig indexConfig;
+    private final int[] includedPropertyIds;
+    private final IndexFilter indexFilter;
 
     IndexDescriptor( long id, IndexPrototype prototype )
     {
@@ -77,6 +79,8 @@ public final class IndexDescriptor implements IndexRef<IndexDescriptor>, SchemaR
         this.capability = capability;
         this.indexType = indexType;
         this.indexConfig = indexConfig;
+        this.includedPropertyIds = IncludedProperties.includedPropertyIds( indexConfig );
+        this.indexFilter = IndexFilter.indexFilter( indexConfig );
     }
 
     /**
@@ -93,6 +97,8 @@ public final class IndexDescriptor implements IndexRef<IndexDescriptor>, SchemaR
         this.capability = IndexCapability.NO_CAPABILITY;
         this.indexType = IndexType.BTREE;
         this.indexConfig = IndexConfig.empty();
+        this.includedPropertyIds = IncludedProperties.NONE;
+        this.indexFilter = IndexFilter.NONE;
     }
 
     @Override
@@ -142,6 +148,18 @@ public final class IndexDescriptor implements IndexRef<IndexDescriptor>, SchemaR
         return indexConfig;
     }
 
+    @Override
+    public int[] includedPropertyIds()
+    {
+        return includedPropertyIds;
+    }
+
+    @Override
+    public IndexFilter indexFilter()
+    {
+        return indexFilter;
+    }
+
     /**
      * Produce a new index descriptor that is the same as this index descriptor in every way, except it has the given index config.
      * @param indexConfig The index config of the new index descriptor.
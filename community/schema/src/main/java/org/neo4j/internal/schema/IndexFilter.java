@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.schema;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.neo4j.values.storable.IntValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.neo4j.token.api.TokenConstants.NO_TOKEN;
+
+/**
+ * A predicate limiting which entities are indexed, turning the index into a partial index. An entity is only indexed if it matches the
+ * schema of the index, and the value of its filter property is equal to the filter value, e.g. only nodes with {@code status = 'ACTIVE'}.
+ * The filter property cannot be one of the indexed properties, and only non-unique btree node indexes can be filtered.
+ * <p>
+ * A partial index doesn't contain all entities matching its schema, so it can only answer queries that include the filter predicate.
+ * <p>
+ * The filter is kept in the {@link IndexConfig} of the index, under {@link #FILTER_PROPERTY} and {@link #FILTER_VALUE}.
+ */
+public final class IndexFilter
+{
+    public static final String FILTER_PROPERTY = "index.filter.property";
+    public static final String FILTER_VALUE = "index.filter.value";
+
+    public static final IndexFilter NONE = new IndexFilter( NO_TOKEN, Values.NO_VALUE );
+
+    private final int propertyKeyId;
+    private final Value value;
+
+    private IndexFilter( int propertyKeyId, Value value )
+    {
+        this.propertyKeyId = propertyKeyId;
+        this.value = value;
+    }
+
+    /**
+     * @param indexConfig config of an index.
+     * @return the filter of the index with the given config, or {@link #NONE} if it indexes all entities matching its schema.
+     */
+    public static IndexFilter indexFilter( IndexConfig indexConfig )
+    {
+        IntValue propertyKeyId = indexConfig.get( FILTER_PROPERTY );
+        Value value = indexConfig.get( FILTER_VALUE );
+        return propertyKeyId == null || value == null ? NONE : new IndexFilter( propertyKeyId.value(), value );
+    }
+
+    /**
+     * @param indexConfig config to add the filter to.
+     * @param propertyKeyId id of the property key to filter on.
+     * @param value the value the property must have for an entity to be indexed.
+     * @return a copy of the given config, only indexing entities with the given property value instead of any previous filter.
+     */
+    public static IndexConfig withFilter( IndexConfig indexConfig, int propertyKeyId, Value value )
+    {
+        if ( propertyKeyId == NO_TOKEN || value == null || value == Values.NO_VALUE )
+        {
+            throw new IllegalArgumentException( "An index filter needs both a property key and a value, got " + propertyKeyId + " = " + value );
+        }
+        Map<String,Value> map = new HashMap<>( indexConfig.asMap() );
+        map.put( FILTER_PROPERTY, Values.intValue( propertyKeyId ) );
+        map.put( FILTER_VALUE, value );
+        return IndexConfig.with( map );
+    }
+
+    /**
+     * @return {@code true} if this filter excludes some entities matching the schema of the index, otherwise {@code false}.
+     */
+    public boolean isPartial()
+    {
+        return propertyKeyId != NO_TOKEN;
+    }
+
+    /**
+     * @return id of the property key to filter on, or {@link org.neo4j.token.api.TokenConstants#NO_TOKEN} for {@link #NONE}.
+     */
+    public int propertyKeyId()
+    {
+        return propertyKeyId;
+    }
+
+    public Value value()
+    {
+        return value;
+    }
+
+    /**
+     * @param propertyValue value of the filter property of an entity, or {@link Values#NO_VALUE} if the entity doesn't have it.
+     * @return whether or not an entity with the given filter property value should be indexed.
+     */
+    public boolean accepts( Value propertyValue )
+    {
+        return !isPartial() || value.equals( propertyValue );
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+        IndexFilter that = (IndexFilter) o;
+        return propertyKeyId == that.propertyKeyId && value.equals( that.value );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash( propertyKeyId, value );
+    }
+
+    @Override
+    public String toString()
+    {
+        return isPartial() ? "IndexFilter[" + propertyKeyId + " = " + value + "]" : "IndexFilter[NONE]";
+    }
+}
@@ -63,4 +63,16 @@ public interface IndexRef<T extends IndexRef<T>> extends SchemaDescriptorSupplie
      * @return A new index reference with the given index config.
      */
     T withIndexConfig( IndexConfig indexConfig );
+
+    @Override
+    default int[] includedPropertyIds()
+    {
+        return IncludedProperties.includedPropertyIds( getIndexConfig() );
+    }
+
+    @Override
+    default IndexFilter indexFilter()
+    {
+        return IndexFilter.indexFilter( getIndexConfig() );
+    }
 }
@@ -19,6 +19,7 @@
  */
 package org.neo4j.internal.schema;
 
+import java.util.Arrays;
 import java.util.function.Predicate;
 
 import org.neo4j.common.EntityType;
@@ -59,6 +60,28 @@ public interface SchemaDescriptor extends SchemaDescriptorSupplier
         return new SchemaDescriptorImplementation( NODE, COMPLETE_ALL_TOKENS, new int[]{labelId}, propertyIds );
     }
 
+    /**
+     * Create a schema descriptor for nodes that have any of the given labels, and all of the given properties.
+     * The labels are kept in ascending order, so the same set of labels always produces the same schema.
+     * A single label gives the same schema as {@link #forLabel(int, int...)}.
+     *
+     * @param labelIds the labels of the schema, at least one.
+     * @param propertyIds the properties of the schema.
+     * @return a schema descriptor for the union of the given labels.
+     */
+    static SchemaDescriptor forAnyLabel( int[] labelIds, int... propertyIds )
+    {
+        if ( labelIds.length == 1 )
+        {
+            return forLabel( labelIds[0], propertyIds );
+        }
+        validateLabelIds( labelIds );
+        validatePropertyIds( propertyIds );
+        int[] sortedLabelIds = labelIds.clone();
+        Arrays.sort( sortedLabelIds );
+        return new SchemaDescriptorImplementation( NODE, COMPLETE_ALL_TOKENS, sortedLabelIds, propertyIds );
+    }
+
     static RelationTypeSchemaDescriptor forRelType( int relTypeId, int... propertyIds )
     {
         validateRelationshipTypeIds( relTypeId );
@@ -264,11 +264,21 @@ public class SchemaDescriptorLookupSet<T extends SchemaDescriptorSupplier>
                 throw new UnsupportedOperationException( "Unknown property schema type " + propertySchemaType );
             }
 
-            // Add fall-back path for when property list is only partly known
+            // Add fall-back path for when property list is only partly known. A change to an included property is a change
+            // to the index entry too, even though it can't make the entity enter or leave the index. A change to the filter property can
             for ( int keyId : propertyKeyIds )
             {
                 byAnyProperty.getIfAbsentPut( keyId, HashSet::new ).add( schemaDescriptor );
             }
+            for ( int keyId : schemaDescriptor.includedPropertyIds() )
+            {
+                byAnyProperty.getIfAbsentPut( keyId, HashSet::new ).add( schemaDescriptor );
+            }
+            IndexFilter indexFilter = schemaDescriptor.indexFilter();
+            if ( indexFilter.isPartial() )
+            {
+                byAnyProperty.getIfAbsentPut( indexFilter.propertyKeyId(), HashSet::new ).add( schemaDescriptor );
+            }
         }
 
         /**
@@ -310,17 +320,31 @@ public class SchemaDescriptorLookupSet<T extends SchemaDescriptorSupplier>
             // Remove from the fall-back path
             for ( int keyId : propertyKeyIds )
             {
-                Set<T> byProperty = byAnyProperty.get( keyId );
-                if ( byProperty != null )
+                removeFromAnyProperty( schemaDescriptor, keyId );
+            }
+            for ( int keyId : schemaDescriptor.includedPropertyIds() )
+            {
+                removeFromAnyProperty( schemaDescriptor, keyId );
+            }
+            IndexFilter indexFilter = schemaDescriptor.indexFilter();
+            if ( indexFilter.isPartial() )
+            {
+                removeFromAnyProperty( schemaDescriptor, indexFilter.propertyKeyId() );
+            }
+            return descriptors.isEmpty() && next.isEmpty();
+        }
+
+        private void removeFromAnyProperty( T schemaDescriptor, int keyId )
+        {
+            Set<T> byProperty = byAnyProperty.get( keyId );
+            if ( byProperty != null )
+            {
+                byProperty.remove( schemaDescriptor );
+                if ( byProperty.isEmpty() )
                 {
-                    byProperty.remove( schemaDescriptor );
-                    if ( byProperty.isEmpty() )
-                    {
-                        byAnyProperty.remove( keyId );
-                    }
+                    byAnyProperty.remove( keyId );
                 }
             }
-            return descriptors.isEmpty() && next.isEmpty();
         }
 
         void collectForCompleteListOfProperties( Collection<T> descriptors, int[] sortedProperties )
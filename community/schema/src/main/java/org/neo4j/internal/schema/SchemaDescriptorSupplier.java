@@ -32,4 +32,22 @@ public interface SchemaDescriptorSupplier
      * @return a user friendly description of this schema entity.
      */
     String userDescription( TokenNameLookup tokenNameLookup );
+
+    /**
+     * @return ids of the property keys whose values are stored together with, but are not part of, the indexed values.
+     * Empty for schema entities that don't include any such properties, see {@link IncludedProperties}.
+     */
+    default int[] includedPropertyIds()
+    {
+        return IncludedProperties.NONE;
+    }
+
+    /**
+     * @return the filter limiting which of the entities matching the schema are indexed, see {@link IndexFilter}.
+     * {@link IndexFilter#NONE} for schema entities that cover all entities matching their schema.
+     */
+    default IndexFilter indexFilter()
+    {
+        return IndexFilter.NONE;
+    }
 }
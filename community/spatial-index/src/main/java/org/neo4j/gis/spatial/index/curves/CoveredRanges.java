@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.gis.spatial.index.curves;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps track of the parts of a {@link SpaceFillingCurve} that have already been searched, when a search area is grown step by step,
+ * like when looking for the nearest neighbours of a point. Each step only needs to search the tiles that were not covered by any
+ * of the previous steps.
+ */
+public class CoveredRanges
+{
+    private final long maxValue;
+    // Covered ranges keyed by their inclusive min, mapping to their inclusive max. Ranges never overlap and are never adjacent.
+    private final TreeMap<Long,Long> covered = new TreeMap<>();
+
+    public CoveredRanges( SpaceFillingCurve curve )
+    {
+        this.maxValue = curve.getValueWidth() - 1;
+    }
+
+    /**
+     * Mark the given ranges as covered.
+     *
+     * @param ranges ranges of tiles, typically from {@link SpaceFillingCurve#getTilesIntersectingEnvelope(double[], double[], SpaceFillingCurveConfiguration)}.
+     * @return the parts of the given ranges that were not already covered, in ascending order.
+     */
+    public List<SpaceFillingCurve.LongRange> cover( List<SpaceFillingCurve.LongRange> ranges )
+    {
+        List<SpaceFillingCurve.LongRange> sorted = new ArrayList<>( ranges );
+        sorted.sort( Comparator.comparingLong( range -> range.min ) );
+        List<SpaceFillingCurve.LongRange> uncovered = new ArrayList<>();
+        for ( SpaceFillingCurve.LongRange range : sorted )
+        {
+            long from = range.min;
+            while ( from <= range.max )
+            {
+                Map.Entry<Long,Long> before = covered.floorEntry( from );
+                if ( before != null && before.getValue() >= from )
+                {
+                    // Already covered up to the end of the range before us, continue after it
+                    from = before.getValue() + 1;
+                    continue;
+                }
+                Long nextCovered = covered.higherKey( from );
+                long to = nextCovered == null ? range.max : Math.min( range.max, nextCovered - 1 );
+                uncovered.add( new SpaceFillingCurve.LongRange( from, to ) );
+                add( from, to );
+                from = to + 1;
+            }
+        }
+        return uncovered;
+    }
+
+    /**
+     * @return {@code true} if every tile of the curve has been covered, i.e. there is nothing more to search.
+     */
+    public boolean coversWholeCurve()
+    {
+        return covered.size() == 1 && covered.firstKey() == 0 && covered.firstEntry().getValue() >= maxValue;
+    }
+
+    private void add( long from, long to )
+    {
+        Map.Entry<Long,Long> before = covered.floorEntry( from - 1 );
+        if ( before != null && before.getValue() == from - 1 )
+        {
+            // Merge with the adjacent range before us
+            from = before.getKey();
+        }
+        Long after = covered.get( to + 1 );
+        if ( after != null )
+        {
+            // Merge with the adjacent range after us
+            covered.remove( to + 1 );
+            to = after;
+        }
+        covered.put( from, to );
+    }
+}
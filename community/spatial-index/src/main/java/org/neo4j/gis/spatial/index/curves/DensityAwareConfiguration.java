@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.gis.spatial.index.curves;
+
+import org.neo4j.gis.spatial.index.Envelope;
+
+/**
+ * Adapts the tiling of another configuration to how the indexed points are spread out, as given by a {@link SpaceFillingCurveDensity}.
+ * <p>
+ * A tile which the search area only partly overlaps is split into smaller tiles to read fewer false positives, at the cost of more ranges
+ * to seek. When the points are clustered this trade-off looks very different for different tiles: splitting an empty tile only adds ranges,
+ * while a tile in the middle of a cluster may be worth splitting further than the size of the search area alone suggests.
+ * This configuration stops at any tile where the false positives estimated to be read from it are cheaper than seeking one more range,
+ * and otherwise splits tiles up to {@link #extraLevels} levels deeper than the other configuration would.
+ */
+public class DensityAwareConfiguration implements SpaceFillingCurveConfiguration
+{
+    /**
+     * Roughly the number of false positives which costs as much to read and filter out as to seek one more range in the index.
+     */
+    public static final int DEFAULT_FALSE_POSITIVES_PER_RANGE = 64;
+    public static final int DEFAULT_EXTRA_LEVELS = 8;
+
+    private final SpaceFillingCurveConfiguration configuration;
+    private final SpaceFillingCurveDensity density;
+    private final double falsePositivesPerRange;
+    private final int extraLevels;
+
+    public DensityAwareConfiguration( SpaceFillingCurveConfiguration configuration, SpaceFillingCurveDensity density )
+    {
+        this( configuration, density, DEFAULT_FALSE_POSITIVES_PER_RANGE, DEFAULT_EXTRA_LEVELS );
+    }
+
+    public DensityAwareConfiguration( SpaceFillingCurveConfiguration configuration, SpaceFillingCurveDensity density, double falsePositivesPerRange,
+            int extraLevels )
+    {
+        this.configuration = configuration;
+        this.density = density;
+        this.falsePositivesPerRange = falsePositivesPerRange;
+        this.extraLevels = extraLevels;
+    }
+
+    @Override
+    public boolean stopAtThisDepth( double overlap, int depth, int maxDepth )
+    {
+        return configuration.stopAtThisDepth( overlap, depth, maxDepth );
+    }
+
+    /**
+     * Stops when the estimated number of false positives in this tile is too small to be worth more ranges, when the overlap is over 99%,
+     * or {@link #extraLevels} levels below the maxDepth. Without any known points this is the same as the other configuration.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean stopAtThisTile( double overlap, int depth, int maxDepth, long tileMin, long tileMax )
+    {
+        if ( density.total() == 0 )
+        {
+            return configuration.stopAtThisTile( overlap, depth, maxDepth, tileMin, tileMax );
+        }
+        if ( overlap >= 0.99 )
+        {
+            return true;
+        }
+        double falsePositives = (1 - overlap) * density.estimatedCount( tileMin, tileMax );
+        return falsePositives <= falsePositivesPerRange || depth >= maxDepth + extraLevels;
+    }
+
+    @Override
+    public int maxDepth( Envelope referenceEnvelope, Envelope range, int nbrDim, int maxLevel )
+    {
+        return configuration.maxDepth( referenceEnvelope, range, nbrDim, maxLevel );
+    }
+
+    @Override
+    public int initialRangesListCapacity()
+    {
+        return configuration.initialRangesListCapacity();
+    }
+
+    @Override
+    public String toString()
+    {
+        return getClass().getSimpleName() + "(" + configuration + "," + density + "," + falsePositivesPerRange + "," + extraLevels + ")";
+    }
+}
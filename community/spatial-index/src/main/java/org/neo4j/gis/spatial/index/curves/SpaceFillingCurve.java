@@ -260,6 +260,12 @@ public abstract class SpaceFillingCurve
     }
 
     public List<LongRange> getTilesIntersectingEnvelope( double[] fromOrNull, double[] toOrNull, SpaceFillingCurveConfiguration config )
+    {
+        return getTilesIntersectingEnvelope( fromOrNull, toOrNull, config, null );
+    }
+
+    public List<LongRange> getTilesIntersectingEnvelope( double[] fromOrNull, double[] toOrNull, SpaceFillingCurveConfiguration config,
+            SpaceFillingCurveMonitor monitor )
     {
         double[] from = fromOrNull == null ? range.getMin() : Arrays.copyOf( fromOrNull, fromOrNull.length );
         double[] to = toOrNull == null ? range.getMax() : Arrays.copyOf( toOrNull, toOrNull.length );
@@ -283,7 +289,7 @@ public abstract class SpaceFillingCurve
             }
         }
         Envelope referenceEnvelope = new Envelope( from, to );
-        return getTilesIntersectingEnvelope( referenceEnvelope, config, null );
+        return getTilesIntersectingEnvelope( referenceEnvelope, config, monitor );
     }
 
     List<LongRange> getTilesIntersectingEnvelope( Envelope referenceEnvelope, SpaceFillingCurveConfiguration config, SpaceFillingCurveMonitor monitor )
@@ -308,9 +314,13 @@ public abstract class SpaceFillingCurve
     {
         assert search.intersects( currentExtent );
 
-        if ( depth > 0 && config.stopAtThisDepth( search.fractionOf( currentExtent ), depth, maxDepth ) )
+        if ( monitor != null )
+        {
+            monitor.tileVisited( depth );
+        }
+        if ( depth > 0 && config.stopAtThisTile( search.fractionOf( currentExtent ), depth, maxDepth, left, right - 1 ) )
         {
-            computeTilesIntersectionEnvelopeAt( monitor, depth, currentExtent, left, right - 1, results );
+            computeTilesIntersectionEnvelopeAt( monitor, depth, search, currentExtent, left, right - 1, results );
         }
         else
         {
@@ -323,7 +333,7 @@ public abstract class SpaceFillingCurve
                     long[] coord = normalizedCoordinateFor( left + i, maxLevel );
                     if ( search.contains( coord ) )
                     {
-                        computeTilesIntersectionEnvelopeAt( monitor, depth, quadrant, left + i, left + i, results );
+                        computeTilesIntersectionEnvelopeAt( monitor, depth, search, quadrant, left + i, left + i, results );
                     }
                 }
                 else if ( search.intersects( quadrant ) )
@@ -336,7 +346,7 @@ public abstract class SpaceFillingCurve
         }
     }
 
-    private void computeTilesIntersectionEnvelopeAt( SpaceFillingCurveMonitor monitor, int depth,
+    private void computeTilesIntersectionEnvelopeAt( SpaceFillingCurveMonitor monitor, int depth, SearchEnvelope search,
             SearchEnvelope currentExtent, long left, long newMax, List<LongRange> results )
     {
         // Note that LongRange upper bound is inclusive, hence the '-1' in several places
@@ -354,6 +364,7 @@ public abstract class SpaceFillingCurve
         {
             monitor.addRangeAtDepth( depth );
             monitor.addToCoveredArea( currentExtent.getArea() );
+            monitor.addToFalsePositiveArea( (long) (currentExtent.getArea() * (1 - search.fractionOf( currentExtent ))) );
         }
     }
 
@@ -40,6 +40,23 @@ public interface SpaceFillingCurveConfiguration
      */
     boolean stopAtThisDepth( double overlap, int depth, int maxDepth );
 
+    /**
+     * Decides whether to stop at this tile or recurse deeper. Configurations which know more about the indexed data than
+     * the search area can use the position of the tile on the curve to decide, the default only considers the depth.
+     *
+     * @param overlap the overlap between search space and the current extent
+     * @param depth the current recursion depth
+     * @param maxDepth the maximum depth that was calculated to recurse to,
+     * @param tileMin the first value of the curve inside the current tile
+     * @param tileMax the last value of the curve inside the current tile
+     * @return if the algorithm should recurse deeper, returns {@code false}; if the algorithm
+     * should stop at this tile, returns {@code true}
+     */
+    default boolean stopAtThisTile( double overlap, int depth, int maxDepth, long tileMin, long tileMax )
+    {
+        return stopAtThisDepth( overlap, depth, maxDepth );
+    }
+
     /**
      * Decide how deep to recurse at max.
      *
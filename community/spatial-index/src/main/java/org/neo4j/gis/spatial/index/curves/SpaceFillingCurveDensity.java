@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.gis.spatial.index.curves;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Number of indexed points in each tile of a {@link SpaceFillingCurve}, at a level much coarser than the curve itself.
+ * Since every tile at a level is a consecutive range of the curve, the tile of a point is found by dropping the lower bits
+ * of its derived value.
+ * <p>
+ * Points are assumed to be evenly spread within each tile when estimating how many points there are in a range of the curve,
+ * so this is a quadtree of the data density which is only as fine grained as its level.
+ */
+public class SpaceFillingCurveDensity
+{
+    /**
+     * Tiles at the finest level densities are kept at by default, 64x64 in 2D and 16x16x16 in 3D.
+     */
+    static final int MAX_TILES = 1 << 12;
+
+    private final int dimension;
+    private final int curveLevel;
+    private final int level;
+    private final int shift;
+    private final AtomicLongArray counts;
+    private final AtomicLong total = new AtomicLong();
+
+    public SpaceFillingCurveDensity( SpaceFillingCurve curve )
+    {
+        this( curve, Math.min( curve.getMaxLevel(), Integer.numberOfTrailingZeros( MAX_TILES ) / curve.getRange().getDimension() ) );
+    }
+
+    public SpaceFillingCurveDensity( SpaceFillingCurve curve, int level )
+    {
+        this( curve.getRange().getDimension(), curve.getMaxLevel(), level );
+    }
+
+    private SpaceFillingCurveDensity( int dimension, int curveLevel, int level )
+    {
+        if ( level < 0 || level > curveLevel || level * dimension > Integer.numberOfTrailingZeros( MAX_TILES ) )
+        {
+            throw new IllegalArgumentException( "Level must be between 0 and " + Math.min( curveLevel, Integer.numberOfTrailingZeros( MAX_TILES ) / dimension ) +
+                    " for a curve of dimension " + dimension + " and level " + curveLevel + ", was " + level );
+        }
+        this.dimension = dimension;
+        this.curveLevel = curveLevel;
+        this.level = level;
+        this.shift = (curveLevel - level) * dimension;
+        this.counts = new AtomicLongArray( 1 << (level * dimension) );
+    }
+
+    public int getLevel()
+    {
+        return level;
+    }
+
+    public int numberOfTiles()
+    {
+        return counts.length();
+    }
+
+    /**
+     * Count a point, or a number of points with the same derived value.
+     */
+    public void add( long derivedValue, long count )
+    {
+        addToTile( (int) (derivedValue >>> shift), count );
+    }
+
+    public void addToTile( int tile, long count )
+    {
+        counts.addAndGet( tile, count );
+        total.addAndGet( count );
+    }
+
+    public long countInTile( int tile )
+    {
+        return counts.get( tile );
+    }
+
+    public long total()
+    {
+        return total.get();
+    }
+
+    /**
+     * @return number of tiles with points in them, if the density was kept at the given level.
+     */
+    public int numberOfNonEmptyTiles( int level )
+    {
+        int tilesPerCoarserTile = 1 << ((this.level - level) * dimension);
+        int nonEmpty = 0;
+        for ( int tile = 0; tile < counts.length(); tile += tilesPerCoarserTile )
+        {
+            for ( int i = tile; i < tile + tilesPerCoarserTile; i++ )
+            {
+                if ( counts.get( i ) != 0 )
+                {
+                    nonEmpty++;
+                    break;
+                }
+            }
+        }
+        return nonEmpty;
+    }
+
+    /**
+     * @return a copy of this density at a coarser level, where every tile holds the points of the tiles it is made up of.
+     */
+    public SpaceFillingCurveDensity atLevel( int level )
+    {
+        if ( level > this.level )
+        {
+            throw new IllegalArgumentException( "Can not make density at level " + this.level + " more fine grained, asked for level " + level );
+        }
+        SpaceFillingCurveDensity coarser = new SpaceFillingCurveDensity( dimension, curveLevel, level );
+        int coarserShift = (this.level - level) * dimension;
+        for ( int tile = 0; tile < counts.length(); tile++ )
+        {
+            long count = counts.get( tile );
+            if ( count != 0 )
+            {
+                coarser.addToTile( tile >>> coarserShift, count );
+            }
+        }
+        return coarser;
+    }
+
+    /**
+     * @param min first value of the curve in the range.
+     * @param max last value of the curve in the range, inclusive.
+     * @return estimated number of points with derived values in the range.
+     */
+    public double estimatedCount( long min, long max )
+    {
+        long tileWidth = 1L << shift;
+        int first = (int) (min >>> shift);
+        int last = (int) (max >>> shift);
+        double count = 0;
+        for ( int tile = first; tile <= last; tile++ )
+        {
+            long tileCount = counts.get( tile );
+            if ( tileCount != 0 )
+            {
+                long tileMin = (long) tile << shift;
+                long covered = Math.min( max, tileMin + tileWidth - 1 ) - Math.max( min, tileMin ) + 1;
+                count += tileCount * ((double) covered / tileWidth);
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public String toString()
+    {
+        return getClass().getSimpleName() + "(level=" + level + ",total=" + total() + ")";
+    }
+}
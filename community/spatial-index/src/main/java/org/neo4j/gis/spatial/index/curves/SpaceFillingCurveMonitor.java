@@ -39,4 +39,22 @@ public interface SpaceFillingCurveMonitor
      * by adding a range.
      */
     void addToCoveredArea( long size );
+
+    /**
+     * Tell the monitor that a tile was visited while decomposing the search area into ranges. The number of visited tiles
+     * is the cost of the decomposition.
+     *
+     * @param depth the depth of the visited tile
+     */
+    default void tileVisited( int depth )
+    {
+    }
+
+    /**
+     * Tell the monitor that part of the covered area (with the given size) is outside of the search area. Points in this
+     * area are false positives which are read from the index only to be filtered out.
+     */
+    default void addToFalsePositiveArea( long size )
+    {
+    }
 }
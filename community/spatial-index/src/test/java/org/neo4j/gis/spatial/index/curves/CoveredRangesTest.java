@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.gis.spatial.index.curves;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import org.neo4j.gis.spatial.index.Envelope;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoveredRangesTest
+{
+    // Level 2 in two dimensions gives 16 tiles, with curve values 0 to 15
+    private final SpaceFillingCurve curve = new HilbertSpaceFillingCurve2D( new Envelope( -8, 8, -8, 8 ), 2 );
+
+    @Test
+    void shouldReturnAllRangesWhenNothingIsCovered()
+    {
+        CoveredRanges covered = new CoveredRanges( curve );
+
+        List<SpaceFillingCurve.LongRange> uncovered = covered.cover( asList( range( 7, 9 ), range( 2, 3 ) ) );
+
+        assertThat( uncovered ).containsExactly( range( 2, 3 ), range( 7, 9 ) );
+    }
+
+    @Test
+    void shouldOnlyReturnPartsNotCoveredBefore()
+    {
+        CoveredRanges covered = new CoveredRanges( curve );
+        covered.cover( asList( range( 2, 3 ), range( 7, 9 ) ) );
+
+        List<SpaceFillingCurve.LongRange> uncovered = covered.cover( asList( range( 0, 4 ), range( 6, 12 ) ) );
+
+        assertThat( uncovered ).containsExactly( range( 0, 1 ), range( 4, 4 ), range( 6, 6 ), range( 10, 12 ) );
+        assertThat( covered.cover( asList( range( 0, 4 ), range( 6, 12 ) ) ) ).isEmpty();
+    }
+
+    @Test
+    void shouldKnowWhenWholeCurveIsCovered()
+    {
+        CoveredRanges covered = new CoveredRanges( curve );
+
+        covered.cover( asList( range( 0, 4 ), range( 9, 15 ) ) );
+        assertThat( covered.coversWholeCurve() ).isFalse();
+
+        covered.cover( asList( range( 5, 8 ) ) );
+        assertThat( covered.coversWholeCurve() ).isTrue();
+    }
+
+    @Test
+    void shouldCoverWholeCurveWhenSearchingEverything()
+    {
+        CoveredRanges covered = new CoveredRanges( curve );
+
+        covered.cover( curve.getTilesIntersectingEnvelope( null, null, new StandardConfiguration() ) );
+
+        assertThat( covered.coversWholeCurve() ).isTrue();
+    }
+
+    private static SpaceFillingCurve.LongRange range( long min, long max )
+    {
+        return new SpaceFillingCurve.LongRange( min, max );
+    }
+}
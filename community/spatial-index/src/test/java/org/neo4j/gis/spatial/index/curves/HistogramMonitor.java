@@ -25,6 +25,8 @@ public class HistogramMonitor implements SpaceFillingCurveMonitor
     private int highestDepth;
     private long searchArea;
     private long coveredArea;
+    private long falsePositiveArea;
+    private long tilesVisited;
 
     HistogramMonitor( int maxLevel )
     {
@@ -53,6 +55,18 @@ public class HistogramMonitor implements SpaceFillingCurveMonitor
         this.coveredArea += size;
     }
 
+    @Override
+    public void tileVisited( int depth )
+    {
+        this.tilesVisited++;
+    }
+
+    @Override
+    public void addToFalsePositiveArea( long size )
+    {
+        this.falsePositiveArea += size;
+    }
+
     int[] getCounts()
     {
         return this.counts;
@@ -68,6 +82,16 @@ public class HistogramMonitor implements SpaceFillingCurveMonitor
         return coveredArea;
     }
 
+    long getFalsePositiveArea()
+    {
+        return falsePositiveArea;
+    }
+
+    long getTilesVisited()
+    {
+        return tilesVisited;
+    }
+
     int getHighestDepth()
     {
         return highestDepth;
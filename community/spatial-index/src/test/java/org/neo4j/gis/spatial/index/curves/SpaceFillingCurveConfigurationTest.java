@@ -21,6 +21,10 @@ package org.neo4j.gis.spatial.index.curves;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import org.neo4j.gis.spatial.index.Envelope;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -80,4 +84,89 @@ class SpaceFillingCurveConfigurationTest
             assertThat( standardConfiguration.maxDepth( search, range, 2, maxLevel ) ).isEqualTo( i + 1 );
         }
     }
+
+    @Test
+    void shouldUseFewerRangesWhereThereAreNoPoints()
+    {
+        // given points clustered around two cities
+        HilbertSpaceFillingCurve2D curve = new HilbertSpaceFillingCurve2D( new Envelope( -180, 180, -90, 90 ) );
+        SpaceFillingCurveDensity density = new SpaceFillingCurveDensity( curve );
+        List<double[]> points = clusteredPoints( curve, density, new double[][]{{18.07, 59.33}, {-0.13, 51.51}} );
+        SpaceFillingCurveConfiguration standard = new StandardConfiguration();
+        SpaceFillingCurveConfiguration densityAware = new DensityAwareConfiguration( standard, density );
+
+        // when searching an area far from both cities
+        double[] from = {100.3, -30.7};
+        double[] to = {101.1, -29.9};
+        HistogramMonitor standardMonitor = new HistogramMonitor( curve.getMaxLevel() );
+        HistogramMonitor densityAwareMonitor = new HistogramMonitor( curve.getMaxLevel() );
+        List<SpaceFillingCurve.LongRange> standardRanges = curve.getTilesIntersectingEnvelope( from, to, standard, standardMonitor );
+        List<SpaceFillingCurve.LongRange> densityAwareRanges = curve.getTilesIntersectingEnvelope( from, to, densityAware, densityAwareMonitor );
+
+        // then
+        assertThat( densityAwareRanges.size() ).isLessThan( standardRanges.size() );
+        assertThat( densityAwareMonitor.getTilesVisited() ).isLessThan( standardMonitor.getTilesVisited() );
+        assertThat( densityAwareMonitor.getFalsePositiveArea() ).isGreaterThan( standardMonitor.getFalsePositiveArea() );
+        assertThat( countInRanges( curve, points, densityAwareRanges ) ).isZero();
+    }
+
+    @Test
+    void shouldReadFewerFalsePositivesWhenSearchAreaCutsThroughCluster()
+    {
+        // given points clustered around a city
+        HilbertSpaceFillingCurve2D curve = new HilbertSpaceFillingCurve2D( new Envelope( -180, 180, -90, 90 ) );
+        SpaceFillingCurveDensity density = new SpaceFillingCurveDensity( curve );
+        List<double[]> points = clusteredPoints( curve, density, new double[][]{{18.07, 59.33}} );
+        SpaceFillingCurveConfiguration standard = new StandardConfiguration();
+        SpaceFillingCurveConfiguration densityAware = new DensityAwareConfiguration( standard, density );
+
+        // when searching an area with its corner in the middle of the city
+        double[] from = {18.07, 59.33};
+        double[] to = {30, 70};
+        List<SpaceFillingCurve.LongRange> standardRanges = curve.getTilesIntersectingEnvelope( from, to, standard );
+        List<SpaceFillingCurve.LongRange> densityAwareRanges = curve.getTilesIntersectingEnvelope( from, to, densityAware );
+
+        // then
+        int inSearchArea = 0;
+        for ( double[] point : points )
+        {
+            if ( point[0] >= from[0] && point[0] <= to[0] && point[1] >= from[1] && point[1] <= to[1] )
+            {
+                inSearchArea++;
+            }
+        }
+        int standardFalsePositives = countInRanges( curve, points, standardRanges ) - inSearchArea;
+        int densityAwareFalsePositives = countInRanges( curve, points, densityAwareRanges ) - inSearchArea;
+        assertThat( densityAwareFalsePositives ).isLessThan( standardFalsePositives );
+    }
+
+    private static List<double[]> clusteredPoints( SpaceFillingCurve curve, SpaceFillingCurveDensity density, double[][] centers )
+    {
+        Random random = new Random( 42 );
+        List<double[]> points = new ArrayList<>();
+        for ( double[] center : centers )
+        {
+            for ( int i = 0; i < 10_000; i++ )
+            {
+                double[] point = {center[0] + random.nextGaussian(), center[1] + random.nextGaussian()};
+                points.add( point );
+                density.add( curve.derivedValueFor( point ), 1 );
+            }
+        }
+        return points;
+    }
+
+    private static int countInRanges( SpaceFillingCurve curve, List<double[]> points, List<SpaceFillingCurve.LongRange> ranges )
+    {
+        int count = 0;
+        for ( double[] point : points )
+        {
+            long value = curve.derivedValueFor( point );
+            if ( ranges.stream().anyMatch( range -> range.min <= value && value <= range.max ) )
+            {
+                count++;
+            }
+        }
+        return count;
+    }
 }
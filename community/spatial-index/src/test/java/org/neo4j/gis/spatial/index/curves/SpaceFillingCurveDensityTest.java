@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.gis.spatial.index.curves;
+
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.gis.spatial.index.Envelope;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SpaceFillingCurveDensityTest
+{
+    private final HilbertSpaceFillingCurve2D curve = new HilbertSpaceFillingCurve2D( new Envelope( -180, 180, -90, 90 ) );
+
+    @Test
+    void shouldCountPointsPerTile()
+    {
+        // given
+        SpaceFillingCurveDensity density = new SpaceFillingCurveDensity( curve );
+        long derivedValue = curve.derivedValueFor( new double[]{18.07, 59.33} );
+
+        // when
+        density.add( derivedValue, 3 );
+        density.add( curve.derivedValueFor( new double[]{18.08, 59.34} ), 1 );
+        density.add( curve.derivedValueFor( new double[]{-120, -45} ), 2 );
+
+        // then
+        assertThat( density.getLevel() ).isEqualTo( 6 );
+        assertThat( density.numberOfTiles() ).isEqualTo( 4096 );
+        assertThat( density.total() ).isEqualTo( 6 );
+        assertThat( density.countInTile( (int) (derivedValue >>> ((curve.getMaxLevel() - 6) * 2)) ) ).isEqualTo( 4 );
+        assertThat( density.numberOfNonEmptyTiles( 6 ) ).isEqualTo( 2 );
+        assertThat( density.numberOfNonEmptyTiles( 0 ) ).isEqualTo( 1 );
+    }
+
+    @Test
+    void shouldEstimateCountAssumingPointsAreEvenlySpreadWithinTiles()
+    {
+        // given
+        SpaceFillingCurveDensity density = new SpaceFillingCurveDensity( curve, 1 );
+        long quarter = curve.getValueWidth() / 4;
+        density.add( 0, 100 );
+        density.add( 3 * quarter, 10 );
+
+        // then
+        assertThat( density.estimatedCount( 0, curve.getValueWidth() - 1 ) ).isCloseTo( 110, within( 0.001 ) );
+        assertThat( density.estimatedCount( 0, quarter / 2 - 1 ) ).isCloseTo( 50, within( 0.001 ) );
+        assertThat( density.estimatedCount( quarter, 3 * quarter - 1 ) ).isCloseTo( 0, within( 0.001 ) );
+        assertThat( density.estimatedCount( quarter / 2, 3 * quarter + quarter / 2 - 1 ) ).isCloseTo( 55, within( 0.001 ) );
+    }
+
+    @Test
+    void shouldMakeCoarserDensityKeepingAllPoints()
+    {
+        // given
+        SpaceFillingCurveDensity density = new SpaceFillingCurveDensity( curve );
+        for ( int x = -180; x < 180; x += 10 )
+        {
+            density.add( curve.derivedValueFor( new double[]{x, 0} ), 1 );
+        }
+
+        // when
+        SpaceFillingCurveDensity coarser = density.atLevel( 2 );
+
+        // then
+        assertThat( coarser.getLevel() ).isEqualTo( 2 );
+        assertThat( coarser.numberOfTiles() ).isEqualTo( 16 );
+        assertThat( coarser.total() ).isEqualTo( density.total() );
+        assertThat( coarser.numberOfNonEmptyTiles( 2 ) ).isEqualTo( density.numberOfNonEmptyTiles( 2 ) );
+        assertThat( coarser.estimatedCount( 0, curve.getValueWidth() - 1 ) ).isCloseTo( 36, within( 0.001 ) );
+        assertThrows( IllegalArgumentException.class, () -> coarser.atLevel( 3 ) );
+    }
+}
@@ -33,12 +33,14 @@ import java.util.Objects;
 import org.neo4j.collection.PrimitiveArrays;
 import org.neo4j.common.EntityType;
 import org.neo4j.internal.helpers.collection.Iterables;
+import org.neo4j.internal.schema.IndexFilter;
 import org.neo4j.internal.schema.PropertySchemaType;
 import org.neo4j.internal.schema.SchemaDescriptor;
 import org.neo4j.internal.schema.SchemaDescriptorSupplier;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.memory.MemoryTracker;
 import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
 
 import static java.lang.String.format;
 import static org.neo4j.internal.schema.PropertySchemaType.COMPLETE_ALL_TOKENS;
@@ -54,6 +56,7 @@ public class EntityUpdates
 {
     private final long entityId;
     private static final long[] EMPTY_LONG_ARRAY = new long[0];
+    private static final int[] EMPTY_INT_ARRAY = new int[0];
 
     // ASSUMPTION: these long arrays are actually sorted sets
     private long[] entityTokensBefore;
@@ -189,7 +192,7 @@ public class EntityUpdates
     public <INDEX_KEY extends SchemaDescriptorSupplier> Iterable<IndexEntryUpdate<INDEX_KEY>> forIndexKeys(
             Iterable<INDEX_KEY> indexKeys )
     {
-        Iterable<INDEX_KEY> potentiallyRelevant = Iterables.filter( indexKey -> atLeastOneRelevantChange( indexKey.schema() ), indexKeys );
+        Iterable<INDEX_KEY> potentiallyRelevant = Iterables.filter( this::atLeastOneRelevantChange, indexKeys );
 
         return gatherUpdatesForPotentials( potentiallyRelevant );
     }
@@ -217,10 +220,12 @@ public class EntityUpdates
 
         for ( INDEX_KEY indexKey : indexKeys )
         {
-            if ( atLeastOneRelevantChange( indexKey.schema() ) )
+            if ( atLeastOneRelevantChange( indexKey ) )
             {
                 potentiallyRelevant.add( indexKey );
-                gatherPropsToLoad( indexKey.schema(), additionalPropertiesToLoad );
+                gatherPropsToLoad( indexKey.schema().getPropertyIds(), additionalPropertiesToLoad );
+                gatherPropsToLoad( indexKey.includedPropertyIds(), additionalPropertiesToLoad );
+                gatherPropsToLoad( filterPropertyIds( indexKey ), additionalPropertiesToLoad );
             }
         }
 
@@ -240,28 +245,62 @@ public class EntityUpdates
         for ( INDEX_KEY indexKey : potentiallyRelevant )
         {
             SchemaDescriptor schema = indexKey.schema();
-            boolean relevantBefore = relevantBefore( schema );
-            boolean relevantAfter = relevantAfter( schema );
+            IndexFilter indexFilter = indexKey.indexFilter();
+            boolean relevantBefore = relevantBefore( schema ) && indexFilter.accepts( valueBefore( indexFilter.propertyKeyId() ) );
+            boolean relevantAfter = relevantAfter( schema ) && indexFilter.accepts( valueAfter( indexFilter.propertyKeyId() ) );
             int[] propertyIds = schema.getPropertyIds();
+            int[] includedPropertyIds = indexKey.includedPropertyIds();
             if ( relevantBefore && !relevantAfter )
             {
                 indexUpdates.add( IndexEntryUpdate.remove( entityId, indexKey, valuesBefore( propertyIds ) ) );
             }
             else if ( !relevantBefore && relevantAfter )
             {
-                indexUpdates.add( IndexEntryUpdate.add( entityId, indexKey, valuesAfter( propertyIds ) ) );
+                indexUpdates.add( withIncludedValues( IndexEntryUpdate.add( entityId, indexKey, valuesAfter( propertyIds ) ), includedPropertyIds ) );
             }
             else if ( relevantBefore && relevantAfter )
             {
-                if ( valuesChanged( propertyIds, schema.propertySchemaType() ) )
+                // A change to only the included properties replaces the entry with an identical key, but new included values
+                if ( valuesChanged( propertyIds, schema.propertySchemaType() ) || includedValuesChanged( includedPropertyIds ) )
                 {
-                    indexUpdates.add( IndexEntryUpdate.change( entityId, indexKey, valuesBefore( propertyIds ), valuesAfter( propertyIds ) ) );
+                    IndexEntryUpdate<INDEX_KEY> change =
+                            IndexEntryUpdate.change( entityId, indexKey, valuesBefore( propertyIds ), valuesAfter( propertyIds ) );
+                    indexUpdates.add( withIncludedValues( change, includedPropertyIds ) );
                 }
             }
         }
         return indexUpdates;
     }
 
+    private <INDEX_KEY extends SchemaDescriptorSupplier> IndexEntryUpdate<INDEX_KEY> withIncludedValues( IndexEntryUpdate<INDEX_KEY> update,
+            int[] includedPropertyIds )
+    {
+        if ( includedPropertyIds.length == 0 )
+        {
+            return update;
+        }
+        Value[] includedValues = new Value[includedPropertyIds.length];
+        for ( int i = 0; i < includedPropertyIds.length; i++ )
+        {
+            PropertyValue propertyValue = knownProperties.get( includedPropertyIds[i] );
+            includedValues[i] = propertyValue == null || !propertyValue.hasAfter() ? Values.NO_VALUE : propertyValue.after;
+        }
+        return update.withIncludedValues( includedValues );
+    }
+
+    private boolean includedValuesChanged( int[] includedPropertyIds )
+    {
+        for ( int propertyId : includedPropertyIds )
+        {
+            PropertyValue propertyValue = knownProperties.get( propertyId );
+            if ( propertyValue != null && propertyValue.type != UnChanged && propertyValue.type != NoValue )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private boolean relevantBefore( SchemaDescriptor schema )
     {
         return schema.isAffected( entityTokensBefore ) && hasPropsBefore( schema.getPropertyIds(), schema.propertySchemaType() );
@@ -321,9 +360,9 @@ public class EntityUpdates
         }
     }
 
-    private void gatherPropsToLoad( SchemaDescriptor schema, MutableIntSet target )
+    private void gatherPropsToLoad( int[] propertyIds, MutableIntSet target )
     {
-        for ( int propertyId : schema.getPropertyIds() )
+        for ( int propertyId : propertyIds )
         {
             if ( knownProperties.get( propertyId ) == null )
             {
@@ -332,22 +371,34 @@ public class EntityUpdates
         }
     }
 
-    private boolean atLeastOneRelevantChange( SchemaDescriptor schema )
+    private boolean atLeastOneRelevantChange( SchemaDescriptorSupplier indexKey )
     {
+        SchemaDescriptor schema = indexKey.schema();
         boolean affectedBefore = schema.isAffected( entityTokensBefore );
         boolean affectedAfter = schema.isAffected( entityTokensAfter );
         if ( affectedBefore && affectedAfter )
         {
-            for ( int propertyId : schema.getPropertyIds() )
+            return anyKnown( schema.getPropertyIds() ) || anyKnown( indexKey.includedPropertyIds() ) || anyKnown( filterPropertyIds( indexKey ) );
+        }
+        return affectedBefore || affectedAfter;
+    }
+
+    private static int[] filterPropertyIds( SchemaDescriptorSupplier indexKey )
+    {
+        IndexFilter indexFilter = indexKey.indexFilter();
+        return indexFilter.isPartial() ? new int[]{indexFilter.propertyKeyId()} : EMPTY_INT_ARRAY;
+    }
+
+    private boolean anyKnown( int[] propertyIds )
+    {
+        for ( int propertyId : propertyIds )
+        {
+            if ( knownProperties.containsKey( propertyId ) )
             {
-                if ( knownProperties.containsKey( propertyId ) )
-                {
-                    return true;
-                }
+                return true;
             }
-            return false;
         }
-        return affectedBefore || affectedAfter;
+        return false;
     }
 
     private boolean hasPropsBefore( int[] propertyIds, PropertySchemaType propertySchemaType )
@@ -392,6 +443,18 @@ public class EntityUpdates
         return found;
     }
 
+    private Value valueBefore( int propertyId )
+    {
+        PropertyValue propertyValue = knownProperties.get( propertyId );
+        return propertyValue == null || !propertyValue.hasBefore() ? Values.NO_VALUE : propertyValue.before;
+    }
+
+    private Value valueAfter( int propertyId )
+    {
+        PropertyValue propertyValue = knownProperties.get( propertyId );
+        return propertyValue == null || !propertyValue.hasAfter() ? Values.NO_VALUE : propertyValue.after;
+    }
+
     private Value[] valuesBefore( int[] propertyIds )
     {
         Value[] values = new Value[propertyIds.length];
@@ -40,6 +40,7 @@ public class IndexEntryUpdate<INDEX_KEY extends SchemaDescriptorSupplier>
     private final UpdateMode updateMode;
     private final Value[] before;
     private final Value[] values;
+    private final Value[] includedValues;
     private final INDEX_KEY indexKey;
 
     private IndexEntryUpdate( long entityId, INDEX_KEY indexKey, UpdateMode updateMode, Value... values )
@@ -49,17 +50,25 @@ public class IndexEntryUpdate<INDEX_KEY extends SchemaDescriptorSupplier>
 
     private IndexEntryUpdate( long entityId, INDEX_KEY indexKey, UpdateMode updateMode, Value[] before,
             Value[] values )
+    {
+        this( entityId, indexKey, updateMode, before, values, null );
+    }
+
+    private IndexEntryUpdate( long entityId, INDEX_KEY indexKey, UpdateMode updateMode, Value[] before,
+            Value[] values, Value[] includedValues )
     {
         // we do not support partial index entries
         assert indexKey.schema().getPropertyIds().length == values.length :
                 format( "IndexEntryUpdate values must be of same length as index compositeness. " +
                         "Index on %s, but got values %s", indexKey.schema().toString(), Arrays.toString( values ) );
         assert before == null || before.length == values.length;
+        assert includedValues == null || includedValues.length == indexKey.includedPropertyIds().length;
 
         this.entityId = entityId;
         this.indexKey = indexKey;
         this.before = before;
         this.values = values;
+        this.includedValues = includedValues;
         this.updateMode = updateMode;
     }
 
@@ -83,6 +92,24 @@ public class IndexEntryUpdate<INDEX_KEY extends SchemaDescriptorSupplier>
         return values;
     }
 
+    /**
+     * @return values of the {@link SchemaDescriptorSupplier#includedPropertyIds() included properties} after this update,
+     * or {@code null} if the index doesn't include any properties or this update removes the entry.
+     */
+    public Value[] includedValues()
+    {
+        return includedValues;
+    }
+
+    /**
+     * @param includedValues values of the properties included in the index, after this update.
+     * @return a copy of this update which also carries the given included values.
+     */
+    public IndexEntryUpdate<INDEX_KEY> withIncludedValues( Value[] includedValues )
+    {
+        return new IndexEntryUpdate<>( entityId, indexKey, updateMode, before, values, includedValues );
+    }
+
     @Override
     public boolean equals( Object o )
     {
@@ -113,6 +140,10 @@ public class IndexEntryUpdate<INDEX_KEY extends SchemaDescriptorSupplier>
         {
             return false;
         }
+        if ( !Arrays.equals( includedValues, that.includedValues ) )
+        {
+            return false;
+        }
         return indexKey != null ? indexKey.schema().equals( that.indexKey.schema() ) : that.indexKey == null;
     }
 
@@ -123,6 +154,7 @@ public class IndexEntryUpdate<INDEX_KEY extends SchemaDescriptorSupplier>
         result = 31 * result + (updateMode != null ? updateMode.hashCode() : 0);
         result = 31 * result + Arrays.hashCode( before );
         result = 31 * result + Arrays.hashCode( values );
+        result = 31 * result + Arrays.hashCode( includedValues );
         result = 31 * result + (indexKey != null ? indexKey.schema().hashCode() : 0);
         return result;
     }
@@ -132,8 +132,8 @@ public interface ReadableTransactionState
      * A readonly view of all index updates for the provided schema, in sorted order. The returned
      * Map is unmodifiable. Returns {@code null}, if the index updates for this schema have not been initialized.
      * <p>
-     * Ensure sorted index updates for a given index. This is needed for range query support and
-     * ay involve converting the existing hash map first.
+     * Ensure sorted index updates for a given index. This is needed for range query support. The sorted view is
+     * created on first use and kept up to date with later updates, so repeated calls do not copy the updates.
      */
     @Nullable
     NavigableMap<ValueTuple,? extends LongDiffSets> getSortedIndexUpdates( SchemaDescriptor descriptor );